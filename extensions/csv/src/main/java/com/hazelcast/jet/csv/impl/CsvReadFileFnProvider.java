@@ -26,11 +26,14 @@ import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.pipeline.file.CsvFileFormat;
 import com.hazelcast.jet.pipeline.file.FileFormat;
+import com.hazelcast.jet.pipeline.file.impl.FileSplit;
 import com.hazelcast.jet.pipeline.file.impl.ReadFileFnProvider;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import javax.annotation.Nonnull;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Spliterators;
@@ -46,7 +49,8 @@ import static java.util.function.Function.identity;
 
 /**
  * {@link ReadFileFnProvider} for CSV files, reading the given path and
- * deserializing using Jackson {@link CsvMapper}.
+ * deserializing using Jackson {@link CsvMapper}. Files with single-line
+ * records can also be read in splits.
  */
 @SuppressFBWarnings(
         value = "OBL_UNSATISFIED_OBLIGATION",
@@ -94,6 +98,62 @@ public class CsvReadFileFnProvider implements ReadFileFnProvider {
         };
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> FunctionEx<FileSplit, Stream<T>> createReadFileSplitFn(@Nonnull FileFormat<T> format) {
+        CsvFileFormat<T> csvFileFormat = (CsvFileFormat<T>) format;
+        if (csvFileFormat.isMultiline()) {
+            return null;
+        }
+        Class<?> formatClazz = csvFileFormat.clazz();
+        List<String> fieldNames = csvFileFormat.fieldNames();
+
+        return split -> {
+            // only the first split contains the header, the others read it
+            // from the beginning of the file
+            String[] header = readHeader(split.path());
+            CsvSchema.Builder schemaBuilder = CsvSchema.builder();
+            if (formatClazz != String[].class) {
+                for (String column : header) {
+                    schemaBuilder.addColumn(column);
+                }
+            }
+            CsvSchema schema = schemaBuilder.build().withSkipFirstDataRow(split.start() == 0);
+
+            ObjectReader reader;
+            Function<T, T> projection = identity();
+            if (formatClazz == String[].class) {
+                reader = new CsvMapper().enable(Feature.WRAP_AS_ARRAY).readerFor(String[].class);
+                if (fieldNames != null) {
+                    projection = (Function<T, T>) createFieldProjection(header, fieldNames);
+                }
+            } else {
+                reader = new CsvMapper().readerFor(formatClazz)
+                                        .withoutFeatures(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            }
+
+            InputStream is = split.open();
+            MappingIterator<T> iterator = reader.with(SKIP_EMPTY_LINES).with(schema).readValues(is);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, ORDERED), false)
+                    .map(projection)
+                    .onClose(() -> uncheckRun(is::close));
+        };
+    }
+
+    private static String[] readHeader(Path path) throws IOException {
+        ObjectReader headerReader = new CsvMapper().enable(Feature.WRAP_AS_ARRAY)
+                                                   .readerFor(String[].class)
+                                                   .with(SKIP_EMPTY_LINES)
+                                                   .with(CsvSchema.emptySchema().withSkipFirstDataRow(false));
+        try (InputStream is = new FileSplit(path, 0, 1).open();
+             MappingIterator<String[]> iterator = headerReader.readValues(is)) {
+            if (!iterator.hasNext()) {
+                throw new JetException("Header row missing in " + path);
+            }
+            return iterator.next();
+        }
+    }
+
     @Nonnull
     @Override
     public String format() {
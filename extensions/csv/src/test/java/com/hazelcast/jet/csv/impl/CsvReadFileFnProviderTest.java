@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.csv.impl;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.jet.pipeline.file.FileFormat;
+import com.hazelcast.jet.pipeline.file.impl.FileSplit;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class CsvReadFileFnProviderTest {
+
+    private static final int ROW_COUNT = 500;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void when_multiline_then_notSplittable() {
+        assertNull(new CsvReadFileFnProvider().createReadFileSplitFn(FileFormat.csv(Person.class)));
+    }
+
+    @Test
+    public void when_readInSplits_then_allRecordsAsBeans() throws IOException {
+        Path path = writeFile();
+        FunctionEx<FileSplit, Stream<Person>> readFn =
+                new CsvReadFileFnProvider().createReadFileSplitFn(FileFormat.csv(Person.class).multiline(false));
+
+        List<Person> result = readInSplits(path, readFn);
+
+        assertEquals(ROW_COUNT, result.size());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(new Person("name-" + i, i), result.get(i));
+        }
+    }
+
+    @Test
+    public void when_readInSplits_then_allRecordsAsProjectedArrays() throws IOException {
+        Path path = writeFile();
+        FunctionEx<FileSplit, Stream<String[]>> readFn = new CsvReadFileFnProvider()
+                .createReadFileSplitFn(FileFormat.csv(List.of("age", "name")).multiline(false));
+
+        List<String[]> result = readInSplits(path, readFn);
+
+        assertEquals(ROW_COUNT, result.size());
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(List.of(String.valueOf(i), "name-" + i), List.of(result.get(i)));
+        }
+    }
+
+    private Path writeFile() throws IOException {
+        StringBuilder sb = new StringBuilder("name,age\n");
+        for (int i = 0; i < ROW_COUNT; i++) {
+            sb.append("name-").append(i).append(',').append(i).append('\n');
+        }
+        Path path = temporaryFolder.newFile().toPath();
+        Files.write(path, sb.toString().getBytes(UTF_8));
+        return path;
+    }
+
+    private static <T> List<T> readInSplits(Path path, FunctionEx<FileSplit, Stream<T>> readFn) throws IOException {
+        long size = Files.size(path);
+        long splitSize = size / 7;
+        List<T> result = new ArrayList<>();
+        for (long start = 0; start < size; start += splitSize) {
+            try (Stream<T> stream = readFn.apply(new FileSplit(path, start, Math.min(size, start + splitSize)))) {
+                result.addAll(stream.collect(Collectors.toList()));
+            }
+        }
+        return result;
+    }
+
+    public static class Person {
+
+        public String name;
+        public int age;
+
+        public Person() {
+        }
+
+        Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Person that = (Person) o;
+            return age == that.age && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, age);
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + age;
+        }
+    }
+}
@@ -44,10 +44,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -57,6 +59,8 @@ import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
+import static com.hazelcast.jet.impl.util.Util.maxEventTimeDrift;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toMap;
 
@@ -82,6 +86,9 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor {
 
     private Consumer<K, V> consumer;
     private long nextMetadataCheck = Long.MIN_VALUE;
+    private boolean alignEventTime;
+    // partitions paused because their event time is too far ahead of the others
+    private final Set<TopicPartition> pausedPartitions = new HashSet<>();
 
     /**
      * Key: topicName<br>
@@ -129,6 +136,9 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor {
         totalParallelism = context.totalParallelism();
         processingGuarantee = context.processingGuarantee();
         consumer = kafkaConsumerFn.apply(context);
+        long maxEventTimeDrift = maxEventTimeDrift(context.jobConfig());
+        eventTimeMapper.setMaxEventTimeDrift(maxEventTimeDrift);
+        alignEventTime = maxEventTimeDrift > 0;
         if (processingGuarantee == NONE) {
             warnWhenInitialOffsetsProvided();
         }
@@ -192,6 +202,9 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor {
         getLogger().info("New partition(s) assigned: " + newAssignments);
         eventTimeMapper.addPartitions(newAssignments.size());
         consumer.assign(currentAssignment.keySet());
+        if (!pausedPartitions.isEmpty()) {
+            consumer.pause(pausedPartitions);
+        }
         if (!isRestoring) {
             if (oldTopicOffsets.length > 0) {
                 // For partitions detected later during the runtime we seek to their
@@ -236,6 +249,9 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor {
 
         ConsumerRecords<K, V> records = null;
         assignPartitions();
+        if (alignEventTime) {
+            alignPartitions();
+        }
         if (!currentAssignment.isEmpty()) {
             records = consumer.poll(Duration.ZERO);
         }
@@ -257,6 +273,24 @@ public final class StreamKafkaP<K, V, T> extends AbstractProcessor {
         return false;
     }
 
+    /**
+     * Pauses the partitions whose event time got too far ahead of the
+     * lagging partitions and resumes those that are no longer ahead.
+     */
+    private void alignPartitions() {
+        for (Entry<TopicPartition, Integer> entry : currentAssignment.entrySet()) {
+            TopicPartition topicPartition = entry.getKey();
+            boolean ahead = eventTimeMapper.isPartitionAhead(entry.getValue());
+            if (ahead && pausedPartitions.add(topicPartition)) {
+                logFinest(getLogger(), "Pausing %s, its event time is ahead of other partitions", topicPartition);
+                consumer.pause(singletonList(topicPartition));
+            } else if (!ahead && pausedPartitions.remove(topicPartition)) {
+                logFinest(getLogger(), "Resuming %s", topicPartition);
+                consumer.resume(singletonList(topicPartition));
+            }
+        }
+    }
+
     @Override
     public void close() {
         if (consumer != null) {
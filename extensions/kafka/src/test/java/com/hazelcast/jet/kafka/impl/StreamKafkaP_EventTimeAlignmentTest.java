@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.kafka.impl;
+
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.EventTimePolicy;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_MAX_EVENT_TIME_DRIFT;
+import static com.hazelcast.jet.core.EventTimePolicy.eventTimePolicy;
+import static com.hazelcast.jet.core.WatermarkPolicy.limitingLag;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class StreamKafkaP_EventTimeAlignmentTest {
+
+    private static final String TOPIC = "topic";
+    private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition(TOPIC, 1);
+    private static final long IDLE_TIMEOUT = 60_000;
+
+    private MockConsumer<Integer, Long> consumer;
+    private TestOutbox outbox;
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+
+    @Before
+    public void before() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, asList(
+                new PartitionInfo(TOPIC, 0, null, null, null),
+                new PartitionInfo(TOPIC, 1, null, null, null)));
+        Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+        beginningOffsets.put(PARTITION_0, 0L);
+        beginningOffsets.put(PARTITION_1, 0L);
+        consumer.updateBeginningOffsets(beginningOffsets);
+        outbox = new TestOutbox(1024);
+    }
+
+    @After
+    public void after() {
+        consumer.close();
+    }
+
+    @Test
+    public void when_partitionAhead_then_pausedUntilOthersCatchUp() throws Exception {
+        StreamKafkaP<Integer, Long, Long> processor = createProcessor(IDLE_TIMEOUT);
+        processor.init(outbox, context(10L));
+        // assigns the partitions
+        processor.complete();
+
+        addRecord(PARTITION_0, 100L);
+        addRecord(PARTITION_1, 0L);
+        processor.complete();
+        processor.complete();
+        assertEquals(singleton(PARTITION_0), consumer.paused());
+
+        // the records of the paused partition are not polled
+        addRecord(PARTITION_0, 101L);
+        addRecord(PARTITION_1, 95L);
+        outbox.queue(0).clear();
+        processor.complete();
+        assertEquals(singletonList(95L), polledEvents());
+
+        // partition 1 caught up to within the drift
+        outbox.queue(0).clear();
+        processor.complete();
+        assertEquals(emptySet(), consumer.paused());
+        assertEquals(singletonList(101L), polledEvents());
+    }
+
+    @Test
+    public void when_noMaxDrift_then_neverPaused() throws Exception {
+        StreamKafkaP<Integer, Long, Long> processor = createProcessor(IDLE_TIMEOUT);
+        processor.init(outbox, context(0L));
+        processor.complete();
+
+        addRecord(PARTITION_0, 100L);
+        addRecord(PARTITION_1, 0L);
+        processor.complete();
+        processor.complete();
+        assertEquals(emptySet(), consumer.paused());
+    }
+
+    @Test
+    public void when_maxDriftWithoutIdleTimeout_then_initFails() {
+        StreamKafkaP<Integer, Long, Long> processor = createProcessor(0);
+
+        assertThatThrownBy(() -> processor.init(outbox, context(10L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("idle timeout");
+    }
+
+    private StreamKafkaP<Integer, Long, Long> createProcessor(long idleTimeoutMillis) {
+        EventTimePolicy<Long> eventTimePolicy = eventTimePolicy(Long::longValue, limitingLag(0), 1, 0, idleTimeoutMillis);
+        return new StreamKafkaP<>(ctx -> consumer, singletonList(TOPIC), ConsumerRecord::value, eventTimePolicy);
+    }
+
+    private static TestProcessorContext context(long maxEventTimeDrift) {
+        return new TestProcessorContext()
+                .setJobConfig(new JobConfig().setArgument(KEY_MAX_EVENT_TIME_DRIFT, maxEventTimeDrift));
+    }
+
+    private List<Object> polledEvents() {
+        return outbox.queue(0).stream().filter(Long.class::isInstance).collect(toList());
+    }
+
+    private void addRecord(TopicPartition partition, long timestamp) {
+        long offset = nextOffsets.merge(partition, 1L, Long::sum) - 1;
+        consumer.addRecord(new ConsumerRecord<>(partition.topic(), partition.partition(), offset, 0, timestamp));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol;
+
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures encoding of a {@code Map.put} request into bytes and decoding it
+ * back, i.e. the codec plus {@link ClientMessageWriter} on the sending side
+ * and {@link ClientMessageReader} plus the codec on the receiving side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientMessageBenchmark {
+
+    /**
+     * Room for the frame headers and the other parameters of the request.
+     */
+    private static final int BUFFER_OVERHEAD = 1024;
+
+    @Param({"100", "10000"})
+    public int valueSize;
+
+    private final ClientMessageWriter writer = new ClientMessageWriter();
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private Data key;
+    private Data value;
+
+    @Setup
+    public void setup() {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        key = serializationService.toData("key");
+        value = serializationService.toData(new byte[valueSize]);
+        buffer = ByteBuffer.allocate(valueSize * 2 + BUFFER_OVERHEAD);
+
+        ClientMessage message = MapPutCodec.encodeRequest("benchmark", key, value, 1, -1);
+        writer.writeTo(buffer, message);
+        buffer.flip();
+        encoded = ByteBuffer.allocate(buffer.remaining());
+        encoded.put(buffer).flip();
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        ClientMessage message = MapPutCodec.encodeRequest("benchmark", key, value, 1, -1);
+        buffer.clear();
+        writer.writeTo(buffer, message);
+        return buffer;
+    }
+
+    @Benchmark
+    public MapPutCodec.RequestParameters decode() {
+        ClientMessageReader reader = new ClientMessageReader(-1);
+        reader.readFrom(encoded.duplicate(), true);
+        return MapPutCodec.decodeRequest(reader.getClientMessage());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.nio;
+
+import com.hazelcast.instance.BuildInfoProvider;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.InboundHandler;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.server.tcp.PacketEncoder;
+import com.hazelcast.internal.util.ConcurrencyDetection;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.logging.impl.LoggingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.networking.ChannelOption.TCP_NODELAY;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+
+/**
+ * Measures the write path of {@link NioOutboundPipeline}: packets are
+ * written to a channel connected over loopback, encoded by the {@link
+ * PacketEncoder} and sent to a peer that discards them. Every invocation
+ * writes a batch of packets and waits until the peer received all of them,
+ * so the result is the end-to-end cost per packet, not only the cost of
+ * enqueueing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class NioOutboundPipelineBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"false", "true"})
+    public boolean writeThrough;
+
+    @Param({"100", "10000"})
+    public int payloadSize;
+
+    private MetricsRegistryImpl metricsRegistry;
+    private NioNetworking networking;
+    private ServerSocketChannel serverSocketChannel;
+    private Channel writeChannel;
+    private Channel readChannel;
+    private Packet packet;
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private long bytesSent;
+    private volatile boolean stopping;
+
+    @Setup
+    public void setup() throws IOException {
+        LoggingServiceImpl loggingService = new LoggingServiceImpl("benchmark", "none",
+                BuildInfoProvider.getBuildInfo(), false, false, null);
+        metricsRegistry = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class), ProbeLevel.INFO);
+        networking = new NioNetworking(new NioNetworking.Context()
+                .loggingService(loggingService)
+                .metricsRegistry(metricsRegistry)
+                .threadNamePrefix("benchmark")
+                .errorHandler((channel, error) -> {
+                    if (!stopping) {
+                        throw new IllegalStateException("Failure on " + channel, error);
+                    }
+                })
+                .concurrencyDetection(ConcurrencyDetection.createDisabled())
+                .writeThroughEnabled(writeThrough));
+        networking.restart();
+
+        serverSocketChannel = ServerSocketChannel.open();
+        serverSocketChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+        SocketChannel clientSocketChannel = SocketChannel.open(serverSocketChannel.getLocalAddress());
+        SocketChannel acceptedSocketChannel = serverSocketChannel.accept();
+
+        // both pipelines of a channel need a handler, even if only one of them is used
+        AtomicLong ignored = new AtomicLong();
+        writeChannel = networking.register(channel -> {
+            channel.options().setOption(TCP_NODELAY, true);
+            channel.outboundPipeline().addLast(new PacketEncoder());
+            channel.inboundPipeline().addLast(new DiscardingHandler(ignored));
+        }, clientSocketChannel, true);
+        readChannel = networking.register(channel -> {
+            channel.options().setOption(TCP_NODELAY, true);
+            channel.outboundPipeline().addLast(new PacketEncoder());
+            channel.inboundPipeline().addLast(new DiscardingHandler(bytesReceived));
+        }, acceptedSocketChannel, false);
+        readChannel.start();
+        writeChannel.start();
+
+        packet = new Packet(new byte[payloadSize]);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        stopping = true;
+        closeResource(writeChannel);
+        closeResource(readChannel);
+        closeResource(serverSocketChannel);
+        networking.shutdown();
+        metricsRegistry.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void write() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            writeChannel.write(packet);
+            bytesSent += packet.getFrameLength();
+        }
+        while (bytesReceived.get() < bytesSent) {
+            // yield rather than spin, the IO threads may need this core
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Only counts the received bytes.
+     */
+    private static final class DiscardingHandler extends InboundHandler<ByteBuffer, Void> {
+
+        private final AtomicLong bytesReceived;
+
+        DiscardingHandler(AtomicLong bytesReceived) {
+            this.bytesReceived = bytesReceived;
+        }
+
+        @Override
+        public void handlerAdded() {
+            initSrcBuffer();
+        }
+
+        @Override
+        public HandlerStatus onRead() {
+            src.flip();
+            bytesReceived.addAndGet(src.remaining());
+            src.clear();
+            return CLEAN;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.serialization.impl;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.compact.Schema;
+import com.hazelcast.internal.serialization.impl.compact.SchemaService;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SerializationServiceV1#toData} and {@link
+ * SerializationServiceV1#toObject} of the same small object in each of the
+ * user-facing serialization formats.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int FACTORY_ID = 1;
+    private static final int CLASS_ID = 1;
+    private static final long EMPLOYEE_ID = 42L;
+    private static final int EMPLOYEE_AGE = 35;
+    private static final String EMPLOYEE_NAME = "John Doe";
+
+    @Param({"COMPACT", "IDENTIFIED_DATA_SERIALIZABLE", "PORTABLE"})
+    public Format format;
+
+    private InternalSerializationService serializationService;
+    private Object object;
+    private Data data;
+
+    public enum Format {
+        COMPACT,
+        IDENTIFIED_DATA_SERIALIZABLE,
+        PORTABLE
+    }
+
+    @Setup
+    public void setup() {
+        SerializationConfig config = new SerializationConfig();
+        config.getCompactSerializationConfig().addSerializer(new CompactEmployeeSerializer());
+        serializationService = new DefaultSerializationServiceBuilder()
+                .setConfig(config)
+                .setSchemaService(new InMemorySchemaService())
+                .addDataSerializableFactory(FACTORY_ID, classId -> new IdsEmployee())
+                .addPortableFactory(FACTORY_ID, classId -> new PortableEmployee())
+                .build();
+
+        switch (format) {
+            case COMPACT:
+                object = new CompactEmployee(EMPLOYEE_ID, EMPLOYEE_AGE, EMPLOYEE_NAME);
+                break;
+            case IDENTIFIED_DATA_SERIALIZABLE:
+                object = new IdsEmployee(EMPLOYEE_ID, EMPLOYEE_AGE, EMPLOYEE_NAME);
+                break;
+            case PORTABLE:
+                object = new PortableEmployee(EMPLOYEE_ID, EMPLOYEE_AGE, EMPLOYEE_NAME);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        data = serializationService.toData(object);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data toData() {
+        return serializationService.toData(object);
+    }
+
+    @Benchmark
+    public Object toObject() {
+        return serializationService.toObject(data);
+    }
+
+    private static final class InMemorySchemaService implements SchemaService {
+
+        private final Map<Long, Schema> schemas = new ConcurrentHashMap<>();
+
+        @Nullable
+        @Override
+        public Schema get(long schemaId) {
+            return schemas.get(schemaId);
+        }
+
+        @Override
+        public void put(Schema schema) {
+            putLocal(schema);
+        }
+
+        @Override
+        public void putLocal(Schema schema) {
+            schemas.putIfAbsent(schema.getSchemaId(), schema);
+        }
+    }
+
+    public static final class CompactEmployee {
+
+        private final long id;
+        private final int age;
+        private final String name;
+
+        CompactEmployee(long id, int age, String name) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+        }
+    }
+
+    private static final class CompactEmployeeSerializer implements CompactSerializer<CompactEmployee> {
+
+        @Nonnull
+        @Override
+        public CompactEmployee read(@Nonnull CompactReader reader) {
+            return new CompactEmployee(reader.readInt64("id"), reader.readInt32("age"), reader.readString("name"));
+        }
+
+        @Override
+        public void write(@Nonnull CompactWriter writer, @Nonnull CompactEmployee object) {
+            writer.writeInt64("id", object.id);
+            writer.writeInt32("age", object.age);
+            writer.writeString("name", object.name);
+        }
+
+        @Nonnull
+        @Override
+        public String getTypeName() {
+            return "employee";
+        }
+
+        @Nonnull
+        @Override
+        public Class<CompactEmployee> getCompactClass() {
+            return CompactEmployee.class;
+        }
+    }
+
+    public static final class IdsEmployee implements IdentifiedDataSerializable {
+
+        private long id;
+        private int age;
+        private String name;
+
+        public IdsEmployee() {
+        }
+
+        IdsEmployee(long id, int age, String name) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeInt(age);
+            out.writeString(name);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            age = in.readInt();
+            name = in.readString();
+        }
+    }
+
+    public static final class PortableEmployee implements Portable {
+
+        private long id;
+        private int age;
+        private String name;
+
+        public PortableEmployee() {
+        }
+
+        PortableEmployee(long id, int age, String name) {
+            this.id = id;
+            this.age = age;
+            this.name = name;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeInt("age", age);
+            writer.writeString("name", name);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            age = reader.readInt("age");
+            name = reader.readString("name");
+        }
+    }
+}
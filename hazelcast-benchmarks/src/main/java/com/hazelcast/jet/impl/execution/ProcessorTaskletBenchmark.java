@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.logging.Logger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Measures the throughput of a {@link ProcessorTasklet} running a
+ * pass-through {@code mapP} processor between an inbound stream that always
+ * has items and an outbound collector that always accepts them. The primary
+ * result is the number of {@link ProcessorTasklet#call()} invocations, the
+ * {@code items} secondary result is the number of items that went through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessorTaskletBenchmark {
+
+    @Param({"1024"})
+    public int inboundBatchSize;
+
+    private ExecutorService executor;
+    private ProcessorTasklet tasklet;
+    private CountingCollector collector;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+        SnapshotContext snapshotContext = new SnapshotContext(Logger.getLogger(SnapshotContext.class),
+                "benchmark", 0, ProcessingGuarantee.NONE);
+        snapshotContext.initTaskletCount(1, 1, 0);
+        collector = new CountingCollector();
+
+        tasklet = new ProcessorTasklet(new TestProcessorContext(), executor,
+                new DefaultSerializationServiceBuilder().build(),
+                Processors.mapP(FunctionEx.identity()).get(),
+                singletonList(new EndlessInboundStream(inboundBatchSize)),
+                singletonList(new OutboundEdgeStream(0, collector)),
+                snapshotContext, null, false);
+        tasklet.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public ProgressState call(Items items) {
+        long before = collector.count;
+        ProgressState result = tasklet.call();
+        items.items += collector.count - before;
+        return result;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Items {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    private static final class EndlessInboundStream implements InboundEdgeStream {
+
+        private final Object[] items;
+
+        EndlessInboundStream(int batchSize) {
+            items = new Object[batchSize];
+            for (int i = 0; i < batchSize; i++) {
+                items[i] = i;
+            }
+        }
+
+        @Override
+        public int ordinal() {
+            return 0;
+        }
+
+        @Override
+        public int priority() {
+            return 0;
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState drainTo(@Nonnull Consumer<Object> dest) {
+            for (Object item : items) {
+                dest.accept(item);
+            }
+            return ProgressState.MADE_PROGRESS;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public int capacities() {
+            return items.length;
+        }
+
+        @Override
+        public int sizes() {
+            return items.length;
+        }
+    }
+
+    private static final class CountingCollector implements OutboundCollector {
+
+        private long count;
+
+        @Override
+        public ProgressState offer(Object item) {
+            count++;
+            return ProgressState.DONE;
+        }
+
+        @Override
+        public ProgressState offerBroadcast(BroadcastItem item) {
+            return ProgressState.DONE;
+        }
+    }
+}
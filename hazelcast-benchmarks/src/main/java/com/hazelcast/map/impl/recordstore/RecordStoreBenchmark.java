@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
+
+/**
+ * Measures {@link DefaultRecordStore#put} and {@link DefaultRecordStore#get}
+ * called directly, without the operation and invocation layers on top. The
+ * record store of a single partition is used and, as on the partition thread,
+ * it's only ever accessed by one thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class RecordStoreBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+    private static final int PARTITION_ID = 0;
+
+    /**
+     * The in-memory format of the map, {@code OFF_HEAP} stands for the {@code
+     * BINARY} format with {@link MapConfig#setOffHeapStorageEnabled off-heap
+     * storage}.
+     */
+    @Param({"BINARY", "OBJECT", "OFF_HEAP"})
+    public String storage;
+
+    @Param({"10000"})
+    public int keyCount;
+
+    @Param({"100"})
+    public int valueSize;
+
+    private HazelcastInstance instance;
+    private RecordStore recordStore;
+    private Data[] keys;
+    private Data value;
+    private int index;
+
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setClusterName(RecordStoreBenchmark.class.getSimpleName());
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        boolean offHeap = "OFF_HEAP".equals(storage);
+        config.addMapConfig(new MapConfig(MAP_NAME)
+                .setInMemoryFormat(offHeap ? InMemoryFormat.BINARY : InMemoryFormat.valueOf(storage))
+                .setOffHeapStorageEnabled(offHeap));
+        instance = Hazelcast.newHazelcastInstance(config);
+
+        NodeEngineImpl nodeEngine = getNodeEngine(instance);
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        recordStore = mapService.getMapServiceContext().getRecordStore(PARTITION_ID, MAP_NAME);
+
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        keys = new Data[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = serializationService.toData("key-" + i);
+        }
+        value = serializationService.toData(new byte[valueSize]);
+        for (Data key : keys) {
+            recordStore.put(key, value, -1, -1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        instance.shutdown();
+    }
+
+    @Benchmark
+    public Object put() {
+        return recordStore.put(nextKey(), value, -1, -1);
+    }
+
+    @Benchmark
+    public Object get() {
+        return recordStore.get(nextKey(), false, null);
+    }
+
+    private Data nextKey() {
+        int i = index + 1;
+        if (i == keys.length) {
+            i = 0;
+        }
+        index = i;
+        return keys[i];
+    }
+}
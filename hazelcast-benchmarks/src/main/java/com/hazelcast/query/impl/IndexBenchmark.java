@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.IndexType;
+import com.hazelcast.internal.monitor.impl.PerIndexStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.getters.Extractors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.query.impl.Index.OperationSource.USER;
+
+/**
+ * Measures updates of and queries against a global {@link IndexImpl} on
+ * an integer attribute.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final int PARTITION_COUNT = 271;
+
+    @Param({"SORTED", "HASH"})
+    public IndexType indexType;
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"100"})
+    public int rangeSize;
+
+    private InternalSerializationService serializationService;
+    private Extractors extractors;
+    private IndexImpl index;
+    private Data[] keys;
+    private CachedQueryEntry<Data, Integer>[] entries;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        extractors = Extractors.newBuilder(serializationService).build();
+        index = new IndexImpl(null, IndexUtils.createTestIndexConfig(indexType, "this"), serializationService,
+                extractors, IndexCopyBehavior.NEVER, PerIndexStats.EMPTY, PARTITION_COUNT, "benchmark");
+
+        keys = new Data[entryCount];
+        entries = new CachedQueryEntry[entryCount];
+        for (int i = 0; i < entryCount; i++) {
+            keys[i] = serializationService.toData(i);
+            entries[i] = new CachedQueryEntry<>(serializationService, keys[i], i, extractors);
+            index.putEntry(entries[i], null, entries[i], USER);
+        }
+    }
+
+    /**
+     * Moves the value of one entry back and forth between two positions in
+     * the index.
+     */
+    @Benchmark
+    public void update() {
+        int i = nextIndex();
+        CachedQueryEntry<Data, Integer> oldEntry = entries[i];
+        int newValue = oldEntry.getValue() == i ? i + entryCount : i;
+        CachedQueryEntry<Data, Integer> newEntry = new CachedQueryEntry<>(serializationService, keys[i], newValue, extractors);
+        index.putEntry(newEntry, oldEntry, newEntry, USER);
+        entries[i] = newEntry;
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> pointQuery() {
+        return index.getRecords(nextIndex());
+    }
+
+    @Benchmark
+    public Set<QueryableEntry> rangeQuery() {
+        int from = nextIndex() % (entryCount - rangeSize);
+        return index.getRecords(from, true, from + rangeSize, false);
+    }
+
+    private int nextIndex() {
+        int i = next + 1;
+        if (i == entryCount) {
+            i = 0;
+        }
+        next = i;
+        return i;
+    }
+}
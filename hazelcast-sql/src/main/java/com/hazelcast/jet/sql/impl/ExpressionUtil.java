@@ -19,11 +19,15 @@ package com.hazelcast.jet.sql.impl;
 import com.hazelcast.function.ComparatorEx;
 import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.sql.impl.opt.FieldCollation;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.compiler.CompiledCalc;
+import com.hazelcast.sql.impl.plan.cache.PlanCache;
 import com.hazelcast.sql.impl.row.JetSqlRow;
 import com.hazelcast.sql.impl.row.Row;
 import org.apache.calcite.rel.RelFieldCollation.Direction;
@@ -154,6 +158,30 @@ public final class ExpressionUtil {
         return row0 -> projection(predicate, projections, row0.getRow(), context);
     }
 
+    /**
+     * Returns a function equivalent to {@link #calcFn} (or {@link
+     * #projectionFn}, if the {@code predicate} is null), but evaluating the
+     * expressions using the class compiled for them and cached in the {@code
+     * planCache}. If the expressions can't be compiled, the returned function
+     * evaluates them in the interpreted mode.
+     */
+    public static FunctionEx<JetSqlRow, JetSqlRow> compiledCalcFn(
+            @Nonnull PlanCache planCache,
+            @Nonnull List<Expression<?>> projections,
+            @Nullable Expression<Boolean> predicate,
+            @Nonnull ExpressionEvalContext context,
+            @Nonnull ILogger logger
+    ) {
+        CompiledCalc compiledCalc;
+        try {
+            compiledCalc = planCache.getCompiledCalc(predicate, projections);
+        } catch (QueryException e) {
+            logger.warning("Failed to compile SQL expressions, they will be interpreted", e);
+            return predicate == null ? projectionFn(projections, context) : calcFn(projections, predicate, context);
+        }
+        return row0 -> compiledCalc.apply(row0, context);
+    }
+
     /**
      * Concatenates {@code leftRow} and {@code rightRow} into one, evaluates
      * the {@code predicate} on it, and if the predicate passed, returns the
@@ -79,6 +79,17 @@ public class RowProjector implements Row {
         return ExpressionUtil.projection(predicate, projection, this, evalContext);
     }
 
+    /**
+     * Sets the given object as the current one and returns this instance as
+     * a view of its row, without evaluating the predicate and projection.
+     * The view is valid until the next call of this method or {@link
+     * #project}.
+     */
+    public Row row(Object object) {
+        target.setTarget(object, null);
+        return this;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T> T get(int index, boolean useLazyDeserialization) {
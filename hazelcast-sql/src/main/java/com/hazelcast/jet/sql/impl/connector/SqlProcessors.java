@@ -19,6 +19,7 @@ package com.hazelcast.jet.sql.impl.connector;
 import com.hazelcast.function.SupplierEx;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.pipeline.ServiceFactory;
+import com.hazelcast.jet.sql.impl.processors.CalcBatchP;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
 import com.hazelcast.sql.impl.extract.QueryTarget;
@@ -39,8 +40,13 @@ public final class SqlProcessors {
             QueryDataType[] types,
             SupplierEx<QueryTarget> targetSupplier,
             Expression<Boolean> predicate,
-            List<Expression<?>> projection
+            List<Expression<?>> projection,
+            boolean columnar
     ) {
+        if (columnar && predicate != null) {
+            return ProcessorSupplier.of(() -> new CalcBatchP<>(predicate, projection,
+                    ctx -> new RowProjector(paths, types, targetSupplier.get(), predicate, projection, ctx)::row));
+        }
         ServiceFactory<?, RowProjector> service =
                 nonSharedService(ctx -> new RowProjector(paths, types, targetSupplier.get(), predicate, projection,
                         ExpressionEvalContext.from(ctx)));
@@ -23,6 +23,7 @@ import com.hazelcast.jet.sql.impl.connector.HazelcastRexNode;
 import com.hazelcast.jet.sql.impl.connector.SqlConnector;
 import com.hazelcast.jet.sql.impl.connector.SqlProcessors;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
@@ -160,7 +161,8 @@ public class FileSqlConnector implements SqlConnector {
                         table.types(),
                         table.queryTargetSupplier(),
                         context.convertFilter(predicate),
-                        context.convertProjection(projection)
+                        context.convertProjection(projection),
+                        context.getNodeEngine().getProperties().getBoolean(ClusterProperty.SQL_COLUMNAR_EXECUTION_ENABLED)
                 )
         );
 
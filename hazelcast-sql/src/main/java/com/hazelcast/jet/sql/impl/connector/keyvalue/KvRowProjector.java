@@ -104,6 +104,18 @@ public class KvRowProjector implements Row {
         return project(null, key, null, value);
     }
 
+    /**
+     * Sets the given entry as the current one and returns this instance as
+     * a view of its row, without evaluating the predicate and projections.
+     * The view is valid until the next call of this method or {@code
+     * project()}.
+     */
+    public Row row(Data key, Data value) {
+        keyTarget.setTarget(null, key);
+        valueTarget.setTarget(null, value);
+        return this;
+    }
+
     private JetSqlRow project(Object key, Data keyData, Object value, Data valueData) {
         keyTarget.setTarget(key, keyData);
         valueTarget.setTarget(value, valueData);
@@ -187,6 +199,14 @@ public class KvRowProjector implements Row {
             return paths;
         }
 
+        public Expression<Boolean> predicate() {
+            return predicate;
+        }
+
+        public List<Expression<?>> projections() {
+            return projections;
+        }
+
         public KvRowProjector get(ExpressionEvalContext evalContext, Extractors extractors) {
             return new KvRowProjector(
                     paths,
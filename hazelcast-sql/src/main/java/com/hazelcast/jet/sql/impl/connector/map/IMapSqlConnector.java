@@ -87,6 +87,7 @@ import static com.hazelcast.jet.sql.impl.connector.map.MapIndexScanP.readMapInde
 import static com.hazelcast.jet.sql.impl.connector.map.RowProjectorProcessorSupplier.rowProjector;
 import static com.hazelcast.jet.sql.impl.connector.map.SpecificPartitionsImapReaderPms.mapReader;
 import static com.hazelcast.query.QueryConstants.KEY_ATTRIBUTE_NAME;
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_COLUMNAR_EXECUTION_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.SQL_TSTORE_ENABLED;
 import static com.hazelcast.sql.impl.QueryUtils.getMapContainer;
 import static com.hazelcast.sql.impl.QueryUtils.quoteCompoundIdentifier;
@@ -289,7 +290,8 @@ public class IMapSqlConnector implements SqlConnector {
                         table.getKeyDescriptor(),
                         table.getValueDescriptor(),
                         context.convertFilter(filter),
-                        context.convertProjection(projection)
+                        context.convertProjection(projection),
+                        context.getNodeEngine().getProperties().getBoolean(SQL_COLUMNAR_EXECUTION_ENABLED)
                 )
         );
 
@@ -22,6 +22,7 @@ import com.hazelcast.jet.core.ResettableSingletonTraverser;
 import com.hazelcast.jet.impl.processor.TransformP;
 import com.hazelcast.jet.sql.impl.JetSqlSerializerHook;
 import com.hazelcast.jet.sql.impl.connector.keyvalue.KvRowProjector;
+import com.hazelcast.jet.sql.impl.processors.CalcBatchP;
 import com.hazelcast.map.impl.LazyMapEntry;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -43,6 +44,7 @@ import java.util.List;
 public final class RowProjectorProcessorSupplier implements ProcessorSupplier, IdentifiedDataSerializable {
 
     private KvRowProjector.Supplier projectorSupplier;
+    private boolean columnar;
 
     private transient ExpressionEvalContext evalContext;
     private transient Extractors extractors;
@@ -51,8 +53,9 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
     public RowProjectorProcessorSupplier() {
     }
 
-    public RowProjectorProcessorSupplier(KvRowProjector.Supplier projectorSupplier) {
+    public RowProjectorProcessorSupplier(KvRowProjector.Supplier projectorSupplier, boolean columnar) {
         this.projectorSupplier = projectorSupplier;
+        this.columnar = columnar;
     }
 
     @Override
@@ -66,6 +69,16 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
     public Collection<? extends Processor> get(int count) {
         List<Processor> processors = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
+            if (columnar && projectorSupplier.predicate() != null) {
+                processors.add(new CalcBatchP<LazyMapEntry<Object, Object>>(
+                        projectorSupplier.predicate(),
+                        projectorSupplier.projections(),
+                        ctx -> {
+                            KvRowProjector projector = projectorSupplier.get(ctx, extractors);
+                            return entry -> projector.row(entry.getKeyData(), entry.getValueData());
+                        }));
+                continue;
+            }
             ResettableSingletonTraverser<JetSqlRow> traverser = new ResettableSingletonTraverser<>();
             KvRowProjector projector = projectorSupplier.get(evalContext, extractors);
             TransformP<LazyMapEntry<Object, Object>, JetSqlRow> processor = new TransformP<>(entry -> {
@@ -81,11 +94,13 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeObject(projectorSupplier);
+        out.writeBoolean(columnar);
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         projectorSupplier = in.readObject();
+        columnar = in.readBoolean();
     }
 
     @Override
@@ -104,9 +119,10 @@ public final class RowProjectorProcessorSupplier implements ProcessorSupplier, I
             QueryTargetDescriptor keyDescriptor,
             QueryTargetDescriptor valueDescriptor,
             Expression<Boolean> predicate,
-            List<Expression<?>> projection
+            List<Expression<?>> projection,
+            boolean columnar
     ) {
         return new RowProjectorProcessorSupplier(
-                KvRowProjector.supplier(paths, types, keyDescriptor, valueDescriptor, predicate, projection));
+                KvRowProjector.supplier(paths, types, keyDescriptor, valueDescriptor, predicate, projection), columnar);
     }
 }
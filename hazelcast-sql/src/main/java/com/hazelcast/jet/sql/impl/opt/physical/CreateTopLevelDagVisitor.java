@@ -37,6 +37,8 @@ import com.hazelcast.jet.core.TimestampKind;
 import com.hazelcast.jet.core.Vertex;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.impl.processor.GroupP;
+import com.hazelcast.jet.impl.processor.SortP;
 import com.hazelcast.jet.pipeline.ServiceFactories;
 import com.hazelcast.jet.sql.impl.ExpressionUtil;
 import com.hazelcast.jet.sql.impl.HazelcastPhysicalScan;
@@ -50,13 +52,16 @@ import com.hazelcast.jet.sql.impl.connector.map.IMapSqlConnector;
 import com.hazelcast.jet.sql.impl.opt.ExpressionValues;
 import com.hazelcast.jet.sql.impl.opt.WatermarkKeysAssigner;
 import com.hazelcast.jet.sql.impl.opt.WatermarkThrottlingFrameSizeCalculator;
+import com.hazelcast.jet.sql.impl.processors.CalcBatchP;
 import com.hazelcast.jet.sql.impl.processors.LateItemsDropP;
 import com.hazelcast.jet.sql.impl.processors.SqlHashJoinP;
 import com.hazelcast.jet.sql.impl.processors.StreamToStreamJoinP.StreamToStreamJoinProcessorSupplier;
 import com.hazelcast.jet.sql.impl.schema.HazelcastTable;
 import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.sql.impl.QueryException;
 import com.hazelcast.sql.impl.QueryParameterMetadata;
+import com.hazelcast.sql.impl.SqlServiceImpl;
 import com.hazelcast.sql.impl.expression.ConstantExpression;
 import com.hazelcast.sql.impl.expression.Expression;
 import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
@@ -88,6 +93,7 @@ import static com.hazelcast.jet.core.processor.Processors.mapP;
 import static com.hazelcast.jet.core.processor.Processors.mapUsingServiceP;
 import static com.hazelcast.jet.core.processor.Processors.sortP;
 import static com.hazelcast.jet.core.processor.SourceProcessors.convenientSourceP;
+import static com.hazelcast.jet.impl.util.Util.getNodeEngine;
 import static com.hazelcast.jet.sql.impl.connector.HazelcastRexNode.wrap;
 import static com.hazelcast.jet.sql.impl.connector.SqlConnectorUtil.getJetSqlConnector;
 import static com.hazelcast.jet.sql.impl.processors.RootResultConsumerSink.rootResultConsumerSink;
@@ -283,18 +289,27 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
 
         Vertex vertex;
         boolean projectionsCooperative = projection.stream().allMatch(Expression::isCooperative);
-        if (program.getCondition() != null) {
+        boolean compile = nodeEngine.getProperties().getBoolean(ClusterProperty.SQL_EXPRESSION_COMPILATION_ENABLED);
+        boolean columnar = nodeEngine.getProperties().getBoolean(ClusterProperty.SQL_COLUMNAR_EXECUTION_ENABLED);
+        if (program.getCondition() != null && columnar) {
+            Expression<Boolean> filterExpr = dagBuildContext.convertFilter(wrap(rel.filter()));
+            assert filterExpr != null;
+            vertex = dag.newUniqueVertex("Calc", ProcessorSupplier.of(
+                    () -> new CalcBatchP<JetSqlRow>(filterExpr, projection, ctx -> JetSqlRow::getRow)));
+        } else if (program.getCondition() != null) {
             Expression<Boolean> filterExpr = dagBuildContext.convertFilter(wrap(rel.filter()));
             assert filterExpr != null;
             vertex = dag.newUniqueVertex("Calc", mapUsingServiceP(
-                    ServiceFactories.nonSharedService(ctx ->
-                                    ExpressionUtil.calcFn(projection, filterExpr, ExpressionEvalContext.from(ctx)))
+                    ServiceFactories.nonSharedService(ctx -> compile
+                                    ? compiledCalcFn(ctx, projection, filterExpr)
+                                    : ExpressionUtil.calcFn(projection, filterExpr, ExpressionEvalContext.from(ctx)))
                             .setCooperative(projectionsCooperative && filterExpr.isCooperative()),
                     (Function<JetSqlRow, JetSqlRow> calcFn, JetSqlRow row) -> calcFn.apply(row)));
         } else {
             vertex = dag.newUniqueVertex("Project", mapUsingServiceP(
-                    ServiceFactories.nonSharedService(ctx ->
-                                    ExpressionUtil.projectionFn(projection, ExpressionEvalContext.from(ctx)))
+                    ServiceFactories.nonSharedService(ctx -> compile
+                                    ? compiledCalcFn(ctx, projection, null)
+                                    : ExpressionUtil.projectionFn(projection, ExpressionEvalContext.from(ctx)))
                             .setCooperative(projectionsCooperative),
                     (Function<JetSqlRow, JetSqlRow> projectionFn, JetSqlRow row) -> projectionFn.apply(row)
             ));
@@ -310,7 +325,7 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
         // Use 2-Phase sort for maximum parallelism
         // First, construct processors for local sorting
         Vertex sortVertex = dag.newUniqueVertex("Sort",
-                ProcessorMetaSupplier.of(sortP(comparator)));
+                ProcessorMetaSupplier.of(SortP.supplier(sortP(comparator))));
         connectInput(rel.getInput(), sortVertex, null);
 
         // Then, combine the locally sorted inputs while preserving the ordering
@@ -380,7 +395,8 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
 
         Vertex vertex = dag.newUniqueVertex(
                 "AggregateByKey",
-                Processors.aggregateByKeyP(singletonList(groupKeyFn), aggregateOperation, (key, value) -> value)
+                GroupP.supplier(Processors.aggregateByKeyP(singletonList(groupKeyFn), aggregateOperation,
+                        (key, value) -> value))
         );
         connectInput(rel.getInput(), vertex, edge -> edge.distributed().partitioned(groupKeyFn));
         return vertex;
@@ -393,7 +409,7 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
 
         Vertex vertex = dag.newUniqueVertex(
                 "AccumulateByKey",
-                Processors.accumulateByKeyP(singletonList(groupKeyFn), aggregateOperation)
+                GroupP.supplier(Processors.accumulateByKeyP(singletonList(groupKeyFn), aggregateOperation))
         );
         connectInput(rel.getInput(), vertex, edge -> edge.partitioned(groupKeyFn));
         return vertex;
@@ -405,7 +421,7 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
 
         Vertex vertex = dag.newUniqueVertex(
                 "CombineByKey",
-                Processors.combineByKeyP(aggregateOperation, (key, value) -> value)
+                GroupP.supplier(Processors.combineByKeyP(aggregateOperation, (key, value) -> value))
         );
         connectInput(rel.getInput(), vertex, edge -> edge.distributed().partitioned(entryKey()));
         return vertex;
@@ -695,6 +711,20 @@ public class CreateTopLevelDagVisitor extends CreateDagVisitorBase<Vertex> {
         return objectKeys;
     }
 
+    /**
+     * Creates the calc function using the expressions compiled on the member
+     * the processor runs on, see {@link ClusterProperty#SQL_EXPRESSION_COMPILATION_ENABLED}.
+     */
+    private static FunctionEx<JetSqlRow, JetSqlRow> compiledCalcFn(
+            Processor.Context ctx,
+            List<Expression<?>> projection,
+            @Nullable Expression<Boolean> filter
+    ) {
+        SqlServiceImpl sqlService = (SqlServiceImpl) getNodeEngine(ctx.hazelcastInstance()).getSqlService();
+        return ExpressionUtil.compiledCalcFn(sqlService.getPlanCache(), projection, filter,
+                ExpressionEvalContext.from(ctx), ctx.logger());
+    }
+
     /**
      * Converts the {@code inputRel} into a {@code Vertex} by visiting it and
      * create an edge from the input vertex into {@code thisVertex}.
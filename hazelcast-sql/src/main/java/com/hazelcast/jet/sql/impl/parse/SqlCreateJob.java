@@ -36,6 +36,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_SPILL_DIRECTORY;
 import static com.hazelcast.jet.sql.impl.parse.ParserResource.RESOURCE;
 import static com.hazelcast.jet.sql.impl.parse.UnparseUtil.unparseOptions;
 import static java.util.Objects.requireNonNull;
@@ -154,6 +155,9 @@ public class SqlCreateJob extends SqlCreate {
                 case "suspendOnFailure":
                     jobConfig.setSuspendOnFailure(Boolean.parseBoolean(value));
                     break;
+                case "spillDirectory":
+                    jobConfig.setArgument(KEY_SPILL_DIRECTORY, value);
+                    break;
                 default:
                     throw validator.newValidationError(option.key(), RESOURCE.unknownJobOption(key));
             }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Inbox;
+import com.hazelcast.jet.sql.impl.ExpressionUtil;
+import com.hazelcast.sql.impl.batch.BatchFilter;
+import com.hazelcast.sql.impl.batch.ColumnarBatch;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.Row;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A processor evaluating a filter and projections on batches of input items.
+ * <p>
+ * The processor takes up to {@link #BATCH_SIZE} items from the inbox into a
+ * {@link ColumnarBatch}, extracting the columns read by the filter to
+ * primitive column vectors, and evaluates the filter on the whole batch
+ * using a {@link BatchFilter}. The projections are then evaluated for the
+ * selected rows only. The order of the items is preserved.
+ * <p>
+ * The items are converted to rows by a function created by the {@code
+ * rowFnFactory}; this lets the processor work directly on {@code JetSqlRow}s
+ * as well as on the map entries or records read by the connectors.
+ * <p>
+ * An item is removed from the inbox only after its output was emitted, so
+ * watermarks and snapshot barriers can't overtake the output of a batch.
+ * SQL engine-specific private API.
+ *
+ * @param <T> type of the input items
+ * @since 5.4
+ */
+public class CalcBatchP<T> extends AbstractProcessor {
+
+    public static final int BATCH_SIZE = 1024;
+
+    private final Expression<Boolean> predicate;
+    private final List<Expression<?>> projection;
+    private final FunctionEx<ExpressionEvalContext, Function<? super T, ? extends Row>> rowFnFactory;
+
+    private ExpressionEvalContext evalContext;
+    private ColumnarBatch<T> batch;
+    private BatchFilter filter;
+    private int[] selection;
+    private int selectedCount;
+    private int selectionIndex;
+    private int position;
+    private JetSqlRow pendingRow;
+
+    public CalcBatchP(
+            @Nonnull Expression<Boolean> predicate,
+            @Nonnull List<Expression<?>> projection,
+            @Nonnull FunctionEx<ExpressionEvalContext, Function<? super T, ? extends Row>> rowFnFactory
+    ) {
+        this.predicate = predicate;
+        this.projection = projection;
+        this.rowFnFactory = rowFnFactory;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) throws Exception {
+        evalContext = ExpressionEvalContext.from(context);
+        batch = new ColumnarBatch<>(BATCH_SIZE, rowFnFactory.apply(evalContext));
+        filter = BatchFilter.create(predicate, batch);
+        selection = new int[BATCH_SIZE];
+        super.init(context);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void process(int ordinal, @Nonnull Inbox inbox) {
+        if (batch.isEmpty()) {
+            for (Iterator<Object> it = inbox.iterator(); it.hasNext(); ) {
+                if (batch.add((T) it.next())) {
+                    break;
+                }
+            }
+            selectedCount = filter.select(batch, evalContext, selection);
+            selectionIndex = 0;
+            position = 0;
+        }
+
+        for (int size = batch.getRowCount(); position < size; position++) {
+            if (selectionIndex < selectedCount && selection[selectionIndex] == position) {
+                if (pendingRow == null) {
+                    pendingRow = ExpressionUtil.projection(null, projection, batch.getRow(position), evalContext);
+                }
+                if (!tryEmit(pendingRow)) {
+                    return;
+                }
+                pendingRow = null;
+                selectionIndex++;
+            }
+            inbox.remove();
+        }
+        batch.clear();
+    }
+
+    @Override
+    public boolean isCooperative() {
+        for (Expression<?> expression : projection) {
+            if (!expression.isCooperative()) {
+                return false;
+            }
+        }
+        return predicate.isCooperative();
+    }
+
+    @Override
+    public boolean closeIsCooperative() {
+        return true;
+    }
+}
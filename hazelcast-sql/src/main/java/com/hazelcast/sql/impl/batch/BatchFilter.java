@@ -0,0 +1,593 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.UniExpression;
+import com.hazelcast.sql.impl.expression.VariExpression;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.sql.impl.type.QueryDataTypeFamily;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+import static com.hazelcast.sql.impl.batch.Bitmaps.wordCount;
+import static com.hazelcast.sql.impl.batch.Bitmaps.wordLength;
+import static com.hazelcast.sql.impl.batch.Bitmaps.wordStart;
+
+/**
+ * Evaluates a filter predicate on a whole {@link ColumnarBatch} at once.
+ * <p>
+ * Comparisons of numeric columns with constants or other numeric columns,
+ * boolean columns and constants, {@code AND}, {@code OR}, {@code NOT} and the
+ * {@code IS [NOT] NULL/TRUE/FALSE} predicates are evaluated column-wise, in
+ * tight loops over the primitive arrays of the batch, producing bitmaps of the
+ * positions where the result is {@code TRUE} and where it is {@code NULL}.
+ * Any other sub-expression is evaluated row by row through the original
+ * {@link Expression}, so every predicate is supported.
+ * <p>
+ * The result is the same as that of the interpreted predicate, including the
+ * three-valued logic. The operands of {@code AND} and {@code OR} are evaluated
+ * only for the rows for which the previous operands didn't decide the result,
+ * so the row-by-row sub-expressions are evaluated, and can fail, for exactly
+ * the same rows as in the interpreted mode.
+ * <p>
+ * Instances are bound to the batch they were created for and are not
+ * thread-safe.
+ */
+public final class BatchFilter {
+
+    private static final int LESS = 1;
+    private static final int EQUAL = 2;
+    private static final int GREATER = 4;
+
+    private final Node root;
+    private final long[] active;
+
+    private BatchFilter(Node root, int capacity) {
+        this.root = root;
+        this.active = new long[wordCount(capacity)];
+    }
+
+    /**
+     * Creates a filter for the given predicate, registering the columns it
+     * reads column-wise in the {@code batch}. Must be called before items
+     * are added to the batch.
+     */
+    public static BatchFilter create(@Nonnull Expression<Boolean> predicate, @Nonnull ColumnarBatch<?> batch) {
+        return new BatchFilter(createNode(predicate, batch), batch.getCapacity());
+    }
+
+    /**
+     * Evaluates the predicate on the rows of the batch and stores the
+     * positions of the rows for which it is {@code TRUE} to the {@code
+     * selection}, in ascending order.
+     *
+     * @return the number of selected rows
+     */
+    public int select(@Nonnull ColumnarBatch<?> batch, @Nonnull ExpressionEvalContext context, @Nonnull int[] selection) {
+        int size = batch.getRowCount();
+        Bitmaps.setRange(active, size);
+        root.evaluate(batch, size, active, context);
+
+        int count = 0;
+        long[] trueBits = root.trueBits;
+        for (int word = 0, words = wordCount(size); word < words; word++) {
+            long bits = trueBits[word];
+            int start = wordStart(word);
+            while (bits != 0) {
+                selection[count++] = start + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return count;
+    }
+
+    private static Node createNode(Expression<?> expression, ColumnarBatch<?> batch) {
+        Node node = createColumnarNode(expression, batch);
+        return node != null ? node : new InterpretedNode(batch.getCapacity(), expression);
+    }
+
+    private static Node createColumnarNode(Expression<?> expression, ColumnarBatch<?> batch) {
+        int capacity = batch.getCapacity();
+        if (expression instanceof ConstantExpression && isBoolean(expression.getType())) {
+            return new ConstantNode(capacity, (Boolean) ((ConstantExpression<?>) expression).getValue());
+        } else if (expression instanceof ColumnExpression && isBoolean(expression.getType())) {
+            return new BooleanColumnNode(capacity, batch.longColumn(((ColumnExpression<?>) expression).getIndex()));
+        } else if (expression instanceof ComparisonPredicate) {
+            return createComparison((ComparisonPredicate) expression, batch);
+        } else if (expression instanceof AndPredicate || expression instanceof OrPredicate) {
+            return createJunction((VariExpression<?>) expression, batch);
+        } else if (expression instanceof NotPredicate) {
+            return new NotNode(capacity, createNode(((NotPredicate) expression).getOperand(), batch));
+        } else if (expression instanceof IsNullPredicate || expression instanceof IsNotNullPredicate) {
+            return createNullCheck((UniExpression<?>) expression, batch);
+        }
+        TruthTest test = TruthTest.of(expression);
+        if (test != null) {
+            return new TruthNode(capacity, createNode(((UniExpression<?>) expression).getOperand(), batch), test);
+        }
+        return null;
+    }
+
+    private static Node createJunction(VariExpression<?> expression, ColumnarBatch<?> batch) {
+        Expression<?>[] operands = expression.operands();
+        Node[] children = new Node[operands.length];
+        for (int i = 0; i < operands.length; i++) {
+            children[i] = createNode(operands[i], batch);
+        }
+        return new JunctionNode(batch.getCapacity(), children, expression instanceof AndPredicate);
+    }
+
+    private static Node createComparison(ComparisonPredicate expression, ColumnarBatch<?> batch) {
+        Expression<?> left = expression.getOperand1();
+        Expression<?> right = expression.getOperand2();
+        NumericKind kind = NumericKind.of(left.getType());
+        if (kind == null || kind != NumericKind.of(right.getType())) {
+            return null;
+        }
+        int accept = accept(expression);
+        if (left instanceof ConstantExpression) {
+            // make the column the left operand
+            Expression<?> tmp = left;
+            left = right;
+            right = tmp;
+            accept = mirror(accept);
+        }
+        if (!(left instanceof ColumnExpression)) {
+            return null;
+        }
+        int leftIndex = ((ColumnExpression<?>) left).getIndex();
+        int capacity = batch.getCapacity();
+        if (right instanceof ConstantExpression) {
+            Object constant = ((ConstantExpression<?>) right).getValue();
+            if (constant == null) {
+                return new ConstantNode(capacity, null);
+            }
+            return kind == NumericKind.LONG
+                    ? new LongComparisonNode(capacity, accept, batch.longColumn(leftIndex), null,
+                    ((Number) constant).longValue())
+                    : new DoubleComparisonNode(capacity, accept, batch.doubleColumn(leftIndex), null,
+                    ((Number) constant).doubleValue());
+        } else if (right instanceof ColumnExpression) {
+            int rightIndex = ((ColumnExpression<?>) right).getIndex();
+            return kind == NumericKind.LONG
+                    ? new LongComparisonNode(capacity, accept, batch.longColumn(leftIndex), batch.longColumn(rightIndex), 0)
+                    : new DoubleComparisonNode(capacity, accept, batch.doubleColumn(leftIndex),
+                    batch.doubleColumn(rightIndex), 0);
+        }
+        return null;
+    }
+
+    private static Node createNullCheck(UniExpression<?> expression, ColumnarBatch<?> batch) {
+        Expression<?> operand = expression.getOperand();
+        boolean isNull = expression instanceof IsNullPredicate;
+        if (isBoolean(operand.getType())) {
+            return new TruthNode(batch.getCapacity(), createNode(operand, batch),
+                    isNull ? TruthTest.IS_NULL : TruthTest.IS_NOT_NULL);
+        }
+        NumericKind kind = NumericKind.of(operand.getType());
+        if (kind == null || !(operand instanceof ColumnExpression)) {
+            return null;
+        }
+        int index = ((ColumnExpression<?>) operand).getIndex();
+        ColumnVector column = kind == NumericKind.LONG ? batch.longColumn(index) : batch.doubleColumn(index);
+        return new ColumnNullNode(batch.getCapacity(), column, isNull);
+    }
+
+    private static int accept(ComparisonPredicate expression) {
+        switch (expression.getMode()) {
+            case EQUALS:
+                return EQUAL;
+            case NOT_EQUALS:
+                return LESS | GREATER;
+            case GREATER_THAN:
+                return GREATER;
+            case GREATER_THAN_OR_EQUAL:
+                return GREATER | EQUAL;
+            case LESS_THAN:
+                return LESS;
+            case LESS_THAN_OR_EQUAL:
+                return LESS | EQUAL;
+            default:
+                throw new IllegalStateException("unexpected comparison mode: " + expression.getMode());
+        }
+    }
+
+    /**
+     * Returns the {@code accept} mask for the comparison with swapped operands.
+     */
+    private static int mirror(int accept) {
+        int mirrored = accept & EQUAL;
+        if ((accept & LESS) != 0) {
+            mirrored |= GREATER;
+        }
+        if ((accept & GREATER) != 0) {
+            mirrored |= LESS;
+        }
+        return mirrored;
+    }
+
+    private static boolean isBoolean(QueryDataType type) {
+        return type.getTypeFamily() == QueryDataTypeFamily.BOOLEAN;
+    }
+
+    /**
+     * Converts the result of {@code Long/Double.compare()} to a bit of the
+     * {@code accept} mask.
+     */
+    private static long matches(int accept, int order) {
+        return (accept >>> (Integer.signum(order) + 1)) & 1L;
+    }
+
+    private enum NumericKind {
+        LONG,
+        REAL,
+        DOUBLE;
+
+        private static NumericKind of(QueryDataType type) {
+            switch (type.getTypeFamily()) {
+                case TINYINT:
+                case SMALLINT:
+                case INTEGER:
+                case BIGINT:
+                    return LONG;
+                case REAL:
+                    return REAL;
+                case DOUBLE:
+                    return DOUBLE;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private enum TruthTest {
+        IS_TRUE,
+        IS_NOT_TRUE,
+        IS_FALSE,
+        IS_NOT_FALSE,
+        IS_NULL,
+        IS_NOT_NULL;
+
+        private static TruthTest of(Expression<?> expression) {
+            if (expression instanceof IsTruePredicate) {
+                return IS_TRUE;
+            } else if (expression instanceof IsNotTruePredicate) {
+                return IS_NOT_TRUE;
+            } else if (expression instanceof IsFalsePredicate) {
+                return IS_FALSE;
+            } else if (expression instanceof IsNotFalsePredicate) {
+                return IS_NOT_FALSE;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A node of the evaluation tree. After {@link #evaluate}, {@link
+     * #trueBits} and {@link #nullBits} hold the positions of the active rows
+     * for which the result is {@code TRUE} or {@code NULL}; the bits of the
+     * inactive rows are always clear.
+     */
+    private abstract static class Node {
+        final long[] trueBits;
+        final long[] nullBits;
+
+        Node(int capacity) {
+            int words = wordCount(capacity);
+            this.trueBits = new long[words];
+            this.nullBits = new long[words];
+        }
+
+        abstract void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context);
+    }
+
+    private static final class ConstantNode extends Node {
+        private final Boolean value;
+
+        ConstantNode(int capacity, Boolean value) {
+            super(capacity);
+            this.value = value;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                trueBits[word] = Boolean.TRUE.equals(value) ? active[word] : 0L;
+                nullBits[word] = value == null ? active[word] : 0L;
+            }
+        }
+    }
+
+    private static final class BooleanColumnNode extends Node {
+        private final LongColumnVector column;
+
+        BooleanColumnNode(int capacity, LongColumnVector column) {
+            super(capacity);
+            this.column = column;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            long[] values = column.values();
+            long[] nulls = column.nulls();
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                int start = wordStart(word);
+                int length = wordLength(word, size);
+                long bits = 0;
+                for (int i = 0; i < length; i++) {
+                    bits |= (values[start + i] & 1L) << i;
+                }
+                trueBits[word] = bits & ~nulls[word] & active[word];
+                nullBits[word] = nulls[word] & active[word];
+            }
+        }
+    }
+
+    private static final class LongComparisonNode extends Node {
+        private final int accept;
+        private final LongColumnVector left;
+        private final LongColumnVector right;
+        private final long constant;
+
+        LongComparisonNode(int capacity, int accept, LongColumnVector left, LongColumnVector right, long constant) {
+            super(capacity);
+            this.accept = accept;
+            this.left = left;
+            this.right = right;
+            this.constant = constant;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            long[] leftValues = left.values();
+            long[] leftNulls = left.nulls();
+            long[] rightValues = right != null ? right.values() : null;
+            long[] rightNulls = right != null ? right.nulls() : null;
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                int start = wordStart(word);
+                int length = wordLength(word, size);
+                long bits = 0;
+                long nulls = leftNulls[word];
+                if (rightValues == null) {
+                    for (int i = 0; i < length; i++) {
+                        bits |= matches(accept, Long.compare(leftValues[start + i], constant)) << i;
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        bits |= matches(accept, Long.compare(leftValues[start + i], rightValues[start + i])) << i;
+                    }
+                    nulls |= rightNulls[word];
+                }
+                trueBits[word] = bits & ~nulls & active[word];
+                nullBits[word] = nulls & active[word];
+            }
+        }
+    }
+
+    private static final class DoubleComparisonNode extends Node {
+        private final int accept;
+        private final DoubleColumnVector left;
+        private final DoubleColumnVector right;
+        private final double constant;
+
+        DoubleComparisonNode(int capacity, int accept, DoubleColumnVector left, DoubleColumnVector right, double constant) {
+            super(capacity);
+            this.accept = accept;
+            this.left = left;
+            this.right = right;
+            this.constant = constant;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            double[] leftValues = left.values();
+            long[] leftNulls = left.nulls();
+            double[] rightValues = right != null ? right.values() : null;
+            long[] rightNulls = right != null ? right.nulls() : null;
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                int start = wordStart(word);
+                int length = wordLength(word, size);
+                long bits = 0;
+                long nulls = leftNulls[word];
+                if (rightValues == null) {
+                    for (int i = 0; i < length; i++) {
+                        bits |= matches(accept, Double.compare(leftValues[start + i], constant)) << i;
+                    }
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        bits |= matches(accept, Double.compare(leftValues[start + i], rightValues[start + i])) << i;
+                    }
+                    nulls |= rightNulls[word];
+                }
+                trueBits[word] = bits & ~nulls & active[word];
+                nullBits[word] = nulls & active[word];
+            }
+        }
+    }
+
+    private static final class ColumnNullNode extends Node {
+        private final ColumnVector column;
+        private final boolean isNull;
+
+        ColumnNullNode(int capacity, ColumnVector column, boolean isNull) {
+            super(capacity);
+            this.column = column;
+            this.isNull = isNull;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            long[] nulls = column.nulls();
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                trueBits[word] = (isNull ? nulls[word] : ~nulls[word]) & active[word];
+                nullBits[word] = 0L;
+            }
+        }
+    }
+
+    private static final class JunctionNode extends Node {
+        private final Node[] children;
+        private final boolean and;
+        private final long[] childActive;
+
+        JunctionNode(int capacity, Node[] children, boolean and) {
+            super(capacity);
+            this.children = children;
+            this.and = and;
+            this.childActive = new long[wordCount(capacity)];
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            int words = wordCount(size);
+            for (int word = 0; word < words; word++) {
+                trueBits[word] = and ? active[word] : 0L;
+                nullBits[word] = 0L;
+            }
+            for (Node child : children) {
+                // evaluate the operand only where the result isn't decided yet
+                for (int word = 0; word < words; word++) {
+                    childActive[word] = and
+                            ? active[word] & (trueBits[word] | nullBits[word])
+                            : active[word] & ~trueBits[word];
+                }
+                child.evaluate(batch, size, childActive, context);
+                for (int word = 0; word < words; word++) {
+                    long childTrue = child.trueBits[word];
+                    long childNull = child.nullBits[word];
+                    if (and) {
+                        long childFalse = childActive[word] & ~childTrue & ~childNull;
+                        trueBits[word] &= childTrue;
+                        nullBits[word] = (nullBits[word] | childNull) & ~childFalse;
+                    } else {
+                        trueBits[word] |= childTrue;
+                        nullBits[word] = (nullBits[word] | childNull) & ~childTrue;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class NotNode extends Node {
+        private final Node child;
+
+        NotNode(int capacity, Node child) {
+            super(capacity);
+            this.child = child;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            child.evaluate(batch, size, active, context);
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                trueBits[word] = active[word] & ~child.trueBits[word] & ~child.nullBits[word];
+                nullBits[word] = child.nullBits[word];
+            }
+        }
+    }
+
+    private static final class TruthNode extends Node {
+        private final Node child;
+        private final TruthTest test;
+
+        TruthNode(int capacity, Node child, TruthTest test) {
+            super(capacity);
+            this.child = child;
+            this.test = test;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            child.evaluate(batch, size, active, context);
+            for (int word = 0, words = wordCount(size); word < words; word++) {
+                long childTrue = child.trueBits[word];
+                long childNull = child.nullBits[word];
+                long bits;
+                switch (test) {
+                    case IS_TRUE:
+                        bits = childTrue;
+                        break;
+                    case IS_NOT_TRUE:
+                        bits = ~childTrue;
+                        break;
+                    case IS_FALSE:
+                        bits = ~childTrue & ~childNull;
+                        break;
+                    case IS_NOT_FALSE:
+                        bits = childTrue | childNull;
+                        break;
+                    case IS_NULL:
+                        bits = childNull;
+                        break;
+                    case IS_NOT_NULL:
+                        bits = ~childNull;
+                        break;
+                    default:
+                        throw new IllegalStateException("unexpected test: " + test);
+                }
+                trueBits[word] = bits & active[word];
+                nullBits[word] = 0L;
+            }
+        }
+    }
+
+    private static final class InterpretedNode extends Node {
+        private final Expression<?> expression;
+
+        InterpretedNode(int capacity, Expression<?> expression) {
+            super(capacity);
+            this.expression = expression;
+        }
+
+        @Override
+        void evaluate(ColumnarBatch<?> batch, int size, long[] active, ExpressionEvalContext context) {
+            int words = wordCount(size);
+            Arrays.fill(trueBits, 0, words, 0L);
+            Arrays.fill(nullBits, 0, words, 0L);
+            for (int word = 0; word < words; word++) {
+                long bits = active[word];
+                int start = wordStart(word);
+                while (bits != 0) {
+                    int position = start + Long.numberOfTrailingZeros(bits);
+                    Object result = expression.eval(batch.getRow(position), context);
+                    if (result == null) {
+                        Bitmaps.set(nullBits, position);
+                    } else if ((Boolean) result) {
+                        Bitmaps.set(trueBits, position);
+                    }
+                    bits &= bits - 1;
+                }
+            }
+        }
+    }
+}
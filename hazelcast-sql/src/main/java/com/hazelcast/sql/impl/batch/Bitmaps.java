@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+/**
+ * Helpers for bitmaps stored in {@code long[]} arrays, 64 positions per word.
+ */
+final class Bitmaps {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_SIZE = 1 << WORD_SHIFT;
+
+    private Bitmaps() {
+    }
+
+    static int wordCount(int size) {
+        return (size + WORD_SIZE - 1) >>> WORD_SHIFT;
+    }
+
+    static int wordIndex(int position) {
+        return position >>> WORD_SHIFT;
+    }
+
+    static int wordStart(int wordIndex) {
+        return wordIndex << WORD_SHIFT;
+    }
+
+    /**
+     * Returns the number of positions of the word with the given index that
+     * are below {@code size}.
+     */
+    static int wordLength(int wordIndex, int size) {
+        return Math.min(WORD_SIZE, size - wordStart(wordIndex));
+    }
+
+    static boolean get(long[] bitmap, int position) {
+        return (bitmap[position >>> WORD_SHIFT] & (1L << position)) != 0;
+    }
+
+    static void set(long[] bitmap, int position) {
+        bitmap[position >>> WORD_SHIFT] |= 1L << position;
+    }
+
+    /**
+     * Sets the first {@code size} positions of the bitmap and clears the
+     * remaining positions of its last used word.
+     */
+    static void setRange(long[] bitmap, int size) {
+        int words = wordCount(size);
+        for (int i = 0; i < words; i++) {
+            int length = wordLength(i, size);
+            bitmap[i] = length == WORD_SIZE ? -1L : (1L << length) - 1;
+        }
+    }
+}
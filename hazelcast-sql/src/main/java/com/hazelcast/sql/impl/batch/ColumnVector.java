@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+import java.util.Arrays;
+
+/**
+ * A single column of a {@link ColumnarBatch}, holding the values of the rows
+ * in a primitive array and a bitmap of null positions.
+ */
+public abstract class ColumnVector {
+
+    private final int columnIndex;
+    private final long[] nulls;
+
+    ColumnVector(int columnIndex, int capacity) {
+        this.columnIndex = columnIndex;
+        this.nulls = new long[Bitmaps.wordCount(capacity)];
+    }
+
+    /**
+     * Returns the index of the column in the rows of the batch.
+     */
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    /**
+     * Returns the bitmap of the positions holding a null value.
+     */
+    public long[] nulls() {
+        return nulls;
+    }
+
+    public boolean isNull(int position) {
+        return Bitmaps.get(nulls, position);
+    }
+
+    void load(int position, Object value) {
+        if (value == null) {
+            Bitmaps.set(nulls, position);
+        } else {
+            loadValue(position, value);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(nulls, 0L);
+    }
+
+    abstract void loadValue(int position, Object value);
+}
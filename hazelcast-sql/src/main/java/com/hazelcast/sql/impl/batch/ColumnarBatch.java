@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+import com.hazelcast.sql.impl.row.Row;
+import com.hazelcast.sql.impl.row.RowBatch;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static com.hazelcast.internal.util.Preconditions.checkState;
+
+/**
+ * A batch of input items of a SQL stage with the values of selected columns
+ * stored column-wise in {@link ColumnVector}s.
+ * <p>
+ * The items are kept in their original form, e.g. map entries or {@code
+ * JetSqlRow}s, and the {@code rowFn} converts them to a {@link Row} when a
+ * row is needed. Only the columns registered with {@link #longColumn} or
+ * {@link #doubleColumn} are extracted to the vectors, once for each item
+ * added to the batch.
+ * <p>
+ * The {@link Row} returned by {@link #getRow} may be a view valid only until
+ * the next call of {@code getRow} or {@link #add}, as is the case with the
+ * row projectors of the connectors.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @param <T> type of the items
+ */
+public final class ColumnarBatch<T> implements RowBatch {
+
+    private final int capacity;
+    private final Object[] items;
+    private final Function<? super T, ? extends Row> rowFn;
+    private final List<ColumnVector> columns = new ArrayList<>();
+
+    private int size;
+
+    public ColumnarBatch(int capacity, @Nonnull Function<? super T, ? extends Row> rowFn) {
+        checkPositive("capacity", capacity);
+        this.capacity = capacity;
+        this.items = new Object[capacity];
+        this.rowFn = rowFn;
+    }
+
+    /**
+     * Returns the vector of the given column, holding its values as {@code
+     * long}s. The column must be of an integer or {@code BOOLEAN} type.
+     */
+    public LongColumnVector longColumn(int columnIndex) {
+        for (ColumnVector column : columns) {
+            if (column instanceof LongColumnVector && column.getColumnIndex() == columnIndex) {
+                return (LongColumnVector) column;
+            }
+        }
+        LongColumnVector column = new LongColumnVector(columnIndex, capacity);
+        register(column);
+        return column;
+    }
+
+    /**
+     * Returns the vector of the given column, holding its values as {@code
+     * double}s. The column must be of the {@code REAL} or {@code DOUBLE} type.
+     */
+    public DoubleColumnVector doubleColumn(int columnIndex) {
+        for (ColumnVector column : columns) {
+            if (column instanceof DoubleColumnVector && column.getColumnIndex() == columnIndex) {
+                return (DoubleColumnVector) column;
+            }
+        }
+        DoubleColumnVector column = new DoubleColumnVector(columnIndex, capacity);
+        register(column);
+        return column;
+    }
+
+    private void register(ColumnVector column) {
+        checkState(size == 0, "columns can be registered only to an empty batch");
+        columns.add(column);
+    }
+
+    /**
+     * Adds the item to the batch and extracts the values of the registered
+     * columns from it.
+     *
+     * @return {@code true}, if the batch is full after adding the item
+     */
+    public boolean add(@Nonnull T item) {
+        checkState(size < capacity, "the batch is full");
+        int position = size++;
+        items[position] = item;
+        if (!columns.isEmpty()) {
+            Row row = rowFn.apply(item);
+            for (ColumnVector column : columns) {
+                column.load(position, row.get(column.getColumnIndex(), false));
+            }
+        }
+        return size == capacity;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getItem(int position) {
+        return (T) items[position];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Row getRow(int position) {
+        return rowFn.apply((T) items[position]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all items from the batch, keeping the registered columns.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            items[i] = null;
+        }
+        for (ColumnVector column : columns) {
+            column.clear();
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+/**
+ * A column of a {@link ColumnarBatch} holding {@code REAL} or {@code DOUBLE}
+ * values, widened to {@code double}.
+ */
+public final class DoubleColumnVector extends ColumnVector {
+
+    private final double[] values;
+
+    DoubleColumnVector(int columnIndex, int capacity) {
+        super(columnIndex, capacity);
+        this.values = new double[capacity];
+    }
+
+    public double[] values() {
+        return values;
+    }
+
+    @Override
+    void loadValue(int position, Object value) {
+        values[position] = ((Number) value).doubleValue();
+    }
+}
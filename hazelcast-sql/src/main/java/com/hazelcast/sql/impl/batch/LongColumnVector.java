@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+/**
+ * A column of a {@link ColumnarBatch} holding {@code TINYINT}, {@code
+ * SMALLINT}, {@code INTEGER}, {@code BIGINT} or {@code BOOLEAN} values, all
+ * widened to {@code long}. {@code BOOLEAN} values are stored as 1 and 0.
+ */
+public final class LongColumnVector extends ColumnVector {
+
+    private final long[] values;
+
+    LongColumnVector(int columnIndex, int capacity) {
+        super(columnIndex, capacity);
+        this.values = new long[capacity];
+    }
+
+    public long[] values() {
+        return values;
+    }
+
+    @Override
+    void loadValue(int position, Object value) {
+        if (value instanceof Boolean) {
+            values[position] = (Boolean) value ? 1L : 0L;
+        } else {
+            values[position] = ((Number) value).longValue();
+        }
+    }
+}
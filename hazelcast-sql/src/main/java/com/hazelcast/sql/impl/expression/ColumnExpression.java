@@ -61,6 +61,10 @@ public final class ColumnExpression<T> implements Expression<T> {
         }
     }
 
+    public int getIndex() {
+        return index;
+    }
+
     @Override
     public Object evalTop(Row row, ExpressionEvalContext context) {
         // Don't use lazy deserialization for compact and portable, we need to return a deserialized generic record
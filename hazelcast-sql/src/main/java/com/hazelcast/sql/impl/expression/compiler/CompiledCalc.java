@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiler;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.SqlErrorCode;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.row.Row;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Base class for the projection-with-filter classes generated by {@link
+ * ExpressionCompiler}.
+ * <p>
+ * A generated subclass evaluates the filter and the projections of a single
+ * Calc stage in one method, keeping intermediate values of numeric and boolean
+ * sub-expressions in primitive locals. Sub-expressions the compiler doesn't
+ * support are evaluated through the original {@link Expression} instances kept
+ * in {@link #expressions}.
+ * <p>
+ * Instances are stateless and can be shared between processors.
+ */
+public abstract class CompiledCalc {
+
+    /**
+     * Original expressions, used for the parts of the tree evaluated in the
+     * interpreted mode.
+     */
+    protected final Expression<?>[] expressions;
+
+    /**
+     * Values of the constant expressions referenced by the generated code.
+     */
+    protected final Object[] constants;
+
+    protected CompiledCalc(Expression<?>[] expressions, Object[] constants) {
+        this.expressions = expressions;
+        this.constants = constants;
+    }
+
+    /**
+     * Evaluates the filter and the projections on the given row.
+     *
+     * @return the projected row or {@code null}, if the row was rejected by
+     * the filter
+     */
+    @Nullable
+    public JetSqlRow apply(@Nonnull JetSqlRow row, @Nonnull ExpressionEvalContext context) {
+        Object[] values = evaluate(row.getRow(), context);
+
+        return values == null ? null : new JetSqlRow(context.getSerializationService(), values);
+    }
+
+    /**
+     * Evaluates the filter and the projections on the given row.
+     *
+     * @return the projected values or {@code null}, if the row was rejected
+     * by the filter
+     */
+    @Nullable
+    protected abstract Object[] evaluate(@Nonnull Row row, @Nonnull ExpressionEvalContext context);
+
+    // The helpers below are called by the generated code. They have to produce
+    // exactly the same errors as the interpreted expressions do.
+
+    protected static long plusBigint(long left, long right) {
+        try {
+            return Math.addExact(left, right);
+        } catch (ArithmeticException e) {
+            throw bigintOverflow("'+' operator");
+        }
+    }
+
+    protected static long minusBigint(long left, long right) {
+        try {
+            return Math.subtractExact(left, right);
+        } catch (ArithmeticException e) {
+            throw bigintOverflow("'-' operator");
+        }
+    }
+
+    protected static long multiplyBigint(long left, long right) {
+        try {
+            return Math.multiplyExact(left, right);
+        } catch (ArithmeticException e) {
+            throw bigintOverflow("'*' operator");
+        }
+    }
+
+    protected static long negateBigint(long value) {
+        try {
+            return Math.negateExact(value);
+        } catch (ArithmeticException e) {
+            throw bigintOverflow("unary '-' operator");
+        }
+    }
+
+    protected static QueryException divisionByZero(ArithmeticException e) {
+        return QueryException.error(SqlErrorCode.DATA_EXCEPTION, "Division by zero", e);
+    }
+
+    private static QueryException bigintOverflow(String operator) {
+        return QueryException.error(SqlErrorCode.DATA_EXCEPTION,
+                "BIGINT overflow in " + operator + " (consider adding explicit CAST to DECIMAL)");
+    }
+}
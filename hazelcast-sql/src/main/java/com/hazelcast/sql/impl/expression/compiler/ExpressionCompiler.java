@@ -0,0 +1,597 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiler;
+
+import com.hazelcast.sql.impl.QueryException;
+import com.hazelcast.sql.impl.expression.BiExpression;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.UniExpression;
+import com.hazelcast.sql.impl.expression.VariExpression;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.math.MinusFunction;
+import com.hazelcast.sql.impl.expression.math.MultiplyFunction;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.math.RemainderFunction;
+import com.hazelcast.sql.impl.expression.math.UnaryMinusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import org.codehaus.janino.SimpleCompiler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compiles the filter and the projections of a Calc stage into a subclass of
+ * {@link CompiledCalc}.
+ * <p>
+ * The compiler walks the expression tree and emits Java source which is then
+ * compiled to bytecode with Janino, the same compiler Calcite uses for its
+ * generated code. Numeric ({@code TINYINT} to {@code DOUBLE}) and boolean
+ * sub-expressions built of columns, constants, arithmetic, comparisons and
+ * logical predicates are translated to code operating on primitive locals,
+ * with a separate null flag per value. This avoids the virtual call, the
+ * boxing and the type switch the interpreted expressions perform for every
+ * node of every row. All other sub-expressions are evaluated by calling the
+ * original expression, so any tree can be compiled.
+ * <p>
+ * The generated code must have exactly the same semantics as the interpreted
+ * expressions, including the evaluation order of operands, the short-circuits
+ * on {@code null} operands and the errors thrown.
+ */
+public final class ExpressionCompiler {
+
+    private static final String PACKAGE_NAME = CompiledCalc.class.getPackage().getName();
+    private static final String CLASS_NAME_PREFIX = "GeneratedCalc";
+    private static final AtomicLong CLASS_COUNTER = new AtomicLong();
+
+    private static final Set<Class<?>> BINARY_ARITHMETIC = new HashSet<>(asList(
+            PlusFunction.class, MinusFunction.class, MultiplyFunction.class, DivideFunction.class));
+
+    private static final Set<Class<?>> UNARY_PREDICATES = new HashSet<>(asList(
+            NotPredicate.class, IsNullPredicate.class, IsNotNullPredicate.class, IsTruePredicate.class,
+            IsNotTruePredicate.class, IsFalsePredicate.class, IsNotFalsePredicate.class));
+
+    private final String className = CLASS_NAME_PREFIX + CLASS_COUNTER.incrementAndGet();
+    private final List<Expression<?>> expressions = new ArrayList<>();
+    private final List<Object> constants = new ArrayList<>();
+    private final StringBuilder fields = new StringBuilder();
+    private final StringBuilder constructor = new StringBuilder();
+    private final StringBuilder body = new StringBuilder();
+    private int variableCounter;
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compiles the given filter and projections.
+     *
+     * @param predicate   the filter, or {@code null} if all rows pass
+     * @param projections the projections
+     * @return an instance of the generated class
+     * @throws QueryException if the generated code can't be compiled
+     */
+    @Nonnull
+    public static CompiledCalc compile(@Nullable Expression<Boolean> predicate, @Nonnull List<Expression<?>> projections) {
+        ExpressionCompiler compiler = new ExpressionCompiler();
+        String source = compiler.generateSource(predicate, projections);
+
+        try {
+            SimpleCompiler simpleCompiler = new SimpleCompiler();
+            simpleCompiler.setParentClassLoader(CompiledCalc.class.getClassLoader());
+            simpleCompiler.cook(source);
+
+            Class<?> clazz = simpleCompiler.getClassLoader().loadClass(PACKAGE_NAME + '.' + compiler.className);
+
+            return (CompiledCalc) clazz.getConstructor(Expression[].class, Object[].class).newInstance(
+                    compiler.expressions.toArray(new Expression<?>[0]),
+                    compiler.constants.toArray()
+            );
+        } catch (Exception e) {
+            throw QueryException.error("Failed to compile expressions: " + e.getMessage(), e);
+        }
+    }
+
+    private String generateSource(@Nullable Expression<Boolean> predicate, @Nonnull List<Expression<?>> projections) {
+        if (predicate != null) {
+            generateFilter(predicate);
+        }
+
+        line("Object[] result = new Object[" + projections.size() + "];");
+        for (int i = 0; i < projections.size(); i++) {
+            generateProjection(i, projections.get(i));
+        }
+        line("return result;");
+
+        return "package " + PACKAGE_NAME + ";\n"
+                + "\n"
+                + "import com.hazelcast.sql.impl.expression.Expression;\n"
+                + "import com.hazelcast.sql.impl.expression.ExpressionEvalContext;\n"
+                + "import com.hazelcast.sql.impl.expression.math.ExpressionMath;\n"
+                + "import com.hazelcast.sql.impl.row.Row;\n"
+                + "\n"
+                + "public final class " + className + " extends CompiledCalc {\n"
+                + fields
+                + "\n"
+                + "    public " + className + "(Expression[] expressions, Object[] constants) {\n"
+                + "        super(expressions, constants);\n"
+                + constructor
+                + "    }\n"
+                + "\n"
+                + "    protected Object[] evaluate(Row row, ExpressionEvalContext context) {\n"
+                + body
+                + "    }\n"
+                + "}\n";
+    }
+
+    private void generateFilter(Expression<Boolean> predicate) {
+        Value value = generateNative(predicate);
+
+        if (value == null) {
+            line("if (!Boolean.TRUE.equals(" + interpreted(predicate) + ".evalTop(row, context))) {");
+        } else {
+            line("if (" + value.isNull + " || !" + value.value + ") {");
+        }
+        line("    return null;");
+        line("}");
+    }
+
+    private void generateProjection(int index, Expression<?> projection) {
+        // Columns and constants are returned as they are, also because column
+        // evaluation at the top level differs from the nested one.
+        Value value = projection instanceof ColumnExpression || projection instanceof ConstantExpression
+                ? null
+                : generateNative(projection);
+
+        if (value == null) {
+            line("result[" + index + "] = " + interpreted(projection) + ".evalTop(row, context);");
+        } else {
+            line("result[" + index + "] = " + value.isNull + " ? null : " + value.kind.box(value.value) + ";");
+        }
+    }
+
+    /**
+     * Generates the code evaluating the expression, using the interpreted
+     * evaluation if the expression isn't supported by the compiler.
+     */
+    private Value generate(Expression<?> expression) {
+        Value value = generateNative(expression);
+
+        if (value != null) {
+            return value;
+        }
+
+        String variable = newVariable();
+        line("Object " + variable + " = " + interpreted(expression) + ".eval(row, context);");
+        return new Value(Kind.OBJECT, variable, "(" + variable + " == null)");
+    }
+
+    /**
+     * Generates the code evaluating the expression, if the expression is
+     * supported by the compiler.
+     *
+     * @return the value, or {@code null} if the expression isn't supported, in
+     * which case no code is generated
+     */
+    @Nullable
+    private Value generateNative(Expression<?> expression) {
+        Kind kind = Kind.of(expression.getType());
+
+        if (expression instanceof ColumnExpression) {
+            return kind == Kind.OBJECT ? null : generateColumn((ColumnExpression<?>) expression, kind);
+        } else if (expression instanceof ConstantExpression) {
+            return kind == Kind.OBJECT ? null : generateConstant((ConstantExpression<?>) expression, kind);
+        } else if (isArithmetic(expression, kind)) {
+            return generateArithmetic((BiExpression<?>) expression, kind);
+        } else if (expression instanceof UnaryMinusFunction && kind.numeric) {
+            return generateUnaryMinus((UnaryMinusFunction<?>) expression, kind);
+        } else if (expression instanceof ComparisonPredicate) {
+            return generateComparison((ComparisonPredicate) expression);
+        } else if (expression instanceof AndPredicate || expression instanceof OrPredicate) {
+            return generateJunction(((VariExpression<?>) expression).operands(), expression instanceof AndPredicate);
+        } else if (UNARY_PREDICATES.contains(expression.getClass())) {
+            return generateUnaryPredicate((UniExpression<?>) expression);
+        } else {
+            return null;
+        }
+    }
+
+    private static boolean isArithmetic(Expression<?> expression, Kind kind) {
+        if (!kind.numeric) {
+            return false;
+        }
+        // Remainder of REAL and DOUBLE isn't supported by the interpreted
+        // expression either, keep its error
+        return expression instanceof RemainderFunction
+                ? !kind.fractional
+                : BINARY_ARITHMETIC.contains(expression.getClass());
+    }
+
+    private Value generateColumn(ColumnExpression<?> expression, Kind kind) {
+        String object = newVariable();
+        line("Object " + object + " = row.get(" + expression.getIndex() + ", false);");
+
+        Value value = newValue(kind);
+        line(value.isNull + " = " + object + " == null;");
+        line("if (!" + value.isNull + ") {");
+        line("    " + value.value + " = " + kind.unbox(object) + ";");
+        line("}");
+        return value;
+    }
+
+    private Value generateConstant(ConstantExpression<?> expression, Kind kind) {
+        Object constant = expression.getValue();
+
+        if (constant == null) {
+            return new Value(kind, kind.defaultValue, "true");
+        }
+
+        String field = "c" + constants.size();
+        fields.append("    private final ").append(kind.javaType).append(' ').append(field).append(";\n");
+        constructor.append("        ").append(field).append(" = ")
+                .append(kind.unbox("constants[" + constants.size() + "]")).append(";\n");
+        constants.add(constant);
+
+        return new Value(kind, field, "false");
+    }
+
+    private Value generateArithmetic(BiExpression<?> expression, Kind kind) {
+        Value result = newValue(kind);
+
+        Value left = generate(expression.getOperand1());
+        line("if (!" + left.isNull + ") {");
+        Value right = generate(expression.getOperand2());
+        line("if (!" + right.isNull + ") {");
+        line(result.isNull + " = false;");
+
+        String l = convert(left, kind);
+        String r = convert(right, kind);
+
+        if (expression instanceof PlusFunction) {
+            line(result.value + " = " + binaryOperation(kind, l, "+", r, "plusBigint") + ";");
+        } else if (expression instanceof MinusFunction) {
+            line(result.value + " = " + binaryOperation(kind, l, "-", r, "minusBigint") + ";");
+        } else if (expression instanceof MultiplyFunction) {
+            line(result.value + " = " + binaryOperation(kind, l, "*", r, "multiplyBigint") + ";");
+        } else {
+            String operation;
+            if (expression instanceof DivideFunction) {
+                // Mirrors DivideFunction: integer division uses the divisor as BIGINT
+                String longRight = convert(right, Kind.BIGINT);
+                switch (kind) {
+                    case BIGINT:
+                        operation = "ExpressionMath.divideExact(" + l + ", " + longRight + ")";
+                        break;
+                    case REAL:
+                    case DOUBLE:
+                        operation = "ExpressionMath.divideExact(" + l + ", " + r + ")";
+                        break;
+                    default:
+                        operation = "(" + kind.javaType + ") (" + l + " / " + longRight + ")";
+                        break;
+                }
+            } else {
+                operation = "(" + kind.javaType + ") (" + l + " % " + r + ")";
+            }
+            line("try {");
+            line("    " + result.value + " = " + operation + ";");
+            line("} catch (ArithmeticException e) {");
+            line("    throw divisionByZero(e);");
+            line("}");
+        }
+
+        line("}");
+        line("}");
+        return result;
+    }
+
+    private static String binaryOperation(Kind kind, String left, String operator, String right, String bigintMethod) {
+        switch (kind) {
+            case TINYINT:
+            case SMALLINT:
+                return "(" + kind.javaType + ") (" + left + " " + operator + " " + right + ")";
+            case BIGINT:
+                return bigintMethod + "(" + left + ", " + right + ")";
+            default:
+                return left + " " + operator + " " + right;
+        }
+    }
+
+    private Value generateUnaryMinus(UnaryMinusFunction<?> expression, Kind kind) {
+        Value result = newValue(kind);
+
+        Value operand = generate(expression.getOperand());
+        line("if (!" + operand.isNull + ") {");
+        line(result.isNull + " = false;");
+
+        String value = convert(operand, kind);
+        switch (kind) {
+            case TINYINT:
+            case SMALLINT:
+                line(result.value + " = (" + kind.javaType + ") -" + value + ";");
+                break;
+            case BIGINT:
+                line(result.value + " = negateBigint(" + value + ");");
+                break;
+            default:
+                line(result.value + " = -" + value + ";");
+                break;
+        }
+
+        line("}");
+        return result;
+    }
+
+    private Value generateComparison(ComparisonPredicate expression) {
+        Kind operandKind = Kind.common(Kind.of(expression.getOperand1().getType()),
+                Kind.of(expression.getOperand2().getType()));
+
+        if (operandKind == Kind.OBJECT) {
+            return null;
+        }
+
+        Value result = newValue(Kind.BOOLEAN);
+
+        Value left = generate(expression.getOperand1());
+        line("if (!" + left.isNull + ") {");
+        Value right = generate(expression.getOperand2());
+        line("if (!" + right.isNull + ") {");
+        line(result.isNull + " = false;");
+        line(result.value + " = " + operandKind.compareMethod + "(" + convert(left, operandKind) + ", "
+                + convert(right, operandKind) + ") " + comparisonOperator(expression) + " 0;");
+        line("}");
+        line("}");
+        return result;
+    }
+
+    private static String comparisonOperator(ComparisonPredicate expression) {
+        switch (expression.getMode()) {
+            case EQUALS:
+                return "==";
+            case NOT_EQUALS:
+                return "!=";
+            case GREATER_THAN:
+                return ">";
+            case GREATER_THAN_OR_EQUAL:
+                return ">=";
+            case LESS_THAN:
+                return "<";
+            case LESS_THAN_OR_EQUAL:
+                return "<=";
+            default:
+                throw new IllegalStateException("unexpected comparison mode: " + expression.getMode());
+        }
+    }
+
+    /**
+     * Generates AND or OR. Mirrors {@code TernaryLogic}: operands are evaluated
+     * in order until the first one deciding the result, a {@code null} operand
+     * makes the result {@code null} unless a later operand decides it.
+     */
+    private Value generateJunction(Expression<?>[] operands, boolean and) {
+        Value result = newValue(Kind.BOOLEAN);
+        String seenUnknown = newVariable();
+        line("boolean " + seenUnknown + " = false;");
+
+        for (Expression<?> operand : operands) {
+            Value value = generate(operand);
+            String operandValue = convert(value, Kind.BOOLEAN);
+            line("if (!" + value.isNull + " && " + (and ? "!" : "") + operandValue + ") {");
+            line(result.isNull + " = false;");
+            line(result.value + " = " + !and + ";");
+            line("} else {");
+            line("if (" + value.isNull + ") {");
+            line("    " + seenUnknown + " = true;");
+            line("}");
+        }
+
+        line("if (!" + seenUnknown + ") {");
+        line(result.isNull + " = false;");
+        line(result.value + " = " + and + ";");
+        line("}");
+
+        for (int i = 0; i < operands.length; i++) {
+            line("}");
+        }
+        return result;
+    }
+
+    private Value generateUnaryPredicate(UniExpression<?> expression) {
+        Value result = newValue(Kind.BOOLEAN);
+        Value operand = generate(expression.getOperand());
+
+        if (expression instanceof IsNullPredicate) {
+            line(result.isNull + " = false;");
+            line(result.value + " = " + operand.isNull + ";");
+            return result;
+        } else if (expression instanceof IsNotNullPredicate) {
+            line(result.isNull + " = false;");
+            line(result.value + " = !" + operand.isNull + ";");
+            return result;
+        }
+
+        String value = convert(operand, Kind.BOOLEAN);
+        if (expression instanceof NotPredicate) {
+            line(result.isNull + " = " + operand.isNull + ";");
+            line("if (!" + result.isNull + ") {");
+            line("    " + result.value + " = !" + value + ";");
+            line("}");
+            return result;
+        }
+
+        String test;
+        if (expression instanceof IsTruePredicate) {
+            test = "!" + operand.isNull + " && " + value;
+        } else if (expression instanceof IsNotTruePredicate) {
+            test = operand.isNull + " || !" + value;
+        } else if (expression instanceof IsFalsePredicate) {
+            test = "!" + operand.isNull + " && !" + value;
+        } else {
+            assert expression instanceof IsNotFalsePredicate;
+            test = operand.isNull + " || " + value;
+        }
+        line(result.isNull + " = false;");
+        line(result.value + " = " + test + ";");
+        return result;
+    }
+
+    /**
+     * Converts the value to the given kind. Primitive casts have the same
+     * semantics as the {@link Number} conversion methods used by the
+     * interpreted expressions. The value must not be null.
+     */
+    private static String convert(Value value, Kind kind) {
+        if (value.kind == Kind.OBJECT) {
+            return kind.unbox(value.value);
+        } else if (value.kind == kind) {
+            return value.value;
+        } else {
+            return "((" + kind.javaType + ") " + value.value + ")";
+        }
+    }
+
+    private String interpreted(Expression<?> expression) {
+        expressions.add(expression);
+        return "expressions[" + (expressions.size() - 1) + "]";
+    }
+
+    private Value newValue(Kind kind) {
+        Value value = new Value(kind, newVariable(), newVariable());
+        line(kind.javaType + " " + value.value + " = " + kind.defaultValue + ";");
+        line("boolean " + value.isNull + " = true;");
+        return value;
+    }
+
+    private String newVariable() {
+        return "v" + variableCounter++;
+    }
+
+    private void line(String line) {
+        body.append("        ").append(line).append('\n');
+    }
+
+    private static final class Value {
+        private final Kind kind;
+        private final String value;
+        private final String isNull;
+
+        private Value(Kind kind, String value, String isNull) {
+            this.kind = kind;
+            this.value = value;
+            this.isNull = isNull;
+        }
+    }
+
+    private enum Kind {
+        TINYINT("byte", "Byte", "(byte) 0", "Integer.compare", true, false),
+        SMALLINT("short", "Short", "(short) 0", "Integer.compare", true, false),
+        INTEGER("int", "Integer", "0", "Integer.compare", true, false),
+        BIGINT("long", "Long", "0L", "Long.compare", true, false),
+        REAL("float", "Float", "0.0F", "Float.compare", true, true),
+        DOUBLE("double", "Double", "0.0D", "Double.compare", true, true),
+        BOOLEAN("boolean", "Boolean", "false", "Boolean.compare", false, false),
+        OBJECT("Object", null, "null", null, false, false);
+
+        private final String javaType;
+        private final String boxedType;
+        private final String defaultValue;
+        private final String compareMethod;
+        private final boolean numeric;
+        private final boolean fractional;
+
+        Kind(String javaType, String boxedType, String defaultValue, String compareMethod, boolean numeric,
+             boolean fractional) {
+            this.javaType = javaType;
+            this.boxedType = boxedType;
+            this.defaultValue = defaultValue;
+            this.compareMethod = compareMethod;
+            this.numeric = numeric;
+            this.fractional = fractional;
+        }
+
+        private String box(String value) {
+            return boxedType + ".valueOf(" + value + ")";
+        }
+
+        private String unbox(String object) {
+            if (this == BOOLEAN) {
+                return "((Boolean) " + object + ").booleanValue()";
+            } else {
+                return "((Number) " + object + ")." + javaType + "Value()";
+            }
+        }
+
+        /**
+         * Returns the kind to which both operands of a comparison are
+         * converted: the wider one of two numeric kinds, or {@link #DOUBLE}
+         * if only one of them is fractional. Returns {@link #OBJECT} if the
+         * operands can't be compared as primitives: if they aren't numeric,
+         * or if a {@code BIGINT} is compared with a fractional kind, since
+         * {@code double} can't represent every {@code long} exactly.
+         */
+        private static Kind common(Kind kind1, Kind kind2) {
+            if (kind1 == kind2) {
+                return kind1;
+            }
+            if (!kind1.numeric || !kind2.numeric) {
+                return OBJECT;
+            }
+            if (kind1.fractional == kind2.fractional) {
+                return kind1.ordinal() > kind2.ordinal() ? kind1 : kind2;
+            }
+            return kind1 == BIGINT || kind2 == BIGINT ? OBJECT : DOUBLE;
+        }
+
+        private static Kind of(QueryDataType type) {
+            switch (type.getTypeFamily()) {
+                case TINYINT:
+                    return TINYINT;
+                case SMALLINT:
+                    return SMALLINT;
+                case INTEGER:
+                    return INTEGER;
+                case BIGINT:
+                    return BIGINT;
+                case REAL:
+                    return REAL;
+                case DOUBLE:
+                    return DOUBLE;
+                case BOOLEAN:
+                    return BOOLEAN;
+                default:
+                    return OBJECT;
+            }
+        }
+    }
+}
@@ -16,20 +16,28 @@
 
 package com.hazelcast.sql.impl.plan.cache;
 
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.compiler.CompiledCalc;
+import com.hazelcast.sql.impl.expression.compiler.ExpressionCompiler;
 import com.hazelcast.sql.impl.optimizer.PlanCheckContext;
 import com.hazelcast.sql.impl.optimizer.PlanKey;
 import com.hazelcast.sql.impl.optimizer.SqlPlan;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Cache for plans.
+ * Cache for plans and for the expressions compiled by {@link ExpressionCompiler}.
  */
 public class PlanCache implements CachedPlanInvalidationCallback {
 
     private final int maxSize;
     private final ConcurrentHashMap<PlanKey, SqlPlan> plans = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<List<Object>, CompiledCalc> compiledCalcs = new ConcurrentHashMap<>();
 
     public PlanCache(int maxSize) {
         assert maxSize > 0;
@@ -63,6 +71,32 @@ public class PlanCache implements CachedPlanInvalidationCallback {
 
     public void clear() {
         plans.clear();
+        compiledCalcs.clear();
+    }
+
+    /**
+     * Returns the compiled form of the given filter and projections, compiling
+     * them on the first request. The compiled classes are cached on each
+     * member separately, because plans and jobs carry the expressions only.
+     *
+     * @throws com.hazelcast.sql.impl.QueryException if the expressions can't be compiled
+     */
+    @Nonnull
+    public CompiledCalc getCompiledCalc(@Nullable Expression<Boolean> predicate, @Nonnull List<Expression<?>> projections) {
+        List<Object> key = Arrays.asList(predicate, projections);
+        CompiledCalc compiledCalc = compiledCalcs.get(key);
+
+        if (compiledCalc == null) {
+            // Compiled classes are cheap to recreate compared to plans, so the
+            // whole cache is dropped when it's full
+            if (compiledCalcs.size() >= maxSize) {
+                compiledCalcs.clear();
+            }
+
+            compiledCalc = compiledCalcs.computeIfAbsent(key, k -> ExpressionCompiler.compile(predicate, projections));
+        }
+
+        return compiledCalc;
     }
 
     public int size() {
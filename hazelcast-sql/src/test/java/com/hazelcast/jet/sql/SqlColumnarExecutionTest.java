@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import static com.hazelcast.spi.properties.ClusterProperty.SQL_COLUMNAR_EXECUTION_ENABLED;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SqlColumnarExecutionTest extends SqlTestSupport {
+
+    private static final int ENTRY_COUNT = 3000;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Config config = smallInstanceConfig()
+                .setProperty(SQL_COLUMNAR_EXECUTION_ENABLED.getName(), "true");
+        initialize(2, config);
+    }
+
+    @Before
+    public void setUp() {
+        createMapping("m", Integer.class, Integer.class);
+        IMap<Integer, Integer> map = instance().getMap("m");
+        Map<Integer, Integer> entries = new HashMap<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            entries.put(i, ENTRY_COUNT - i);
+        }
+        map.putAll(entries);
+    }
+
+    @Test
+    public void test_mapScanFilter() {
+        assertMapRows("SELECT __key, this FROM m WHERE this > 2900", key -> ENTRY_COUNT - key > 2900);
+        assertMapRows("SELECT __key, this FROM m WHERE __key < 10 OR this <= 5", key -> key < 10 || ENTRY_COUNT - key <= 5);
+        assertMapRows("SELECT __key, this FROM m WHERE NOT (__key >= 20) AND this IS NOT NULL", key -> key < 20);
+    }
+
+    @Test
+    public void test_mapScanFilter_withInterpretedParts() {
+        assertMapRows("SELECT __key, this FROM m WHERE __key > 100 AND this % 7 = 0",
+                key -> key > 100 && (ENTRY_COUNT - key) % 7 == 0);
+        assertMapRows("SELECT __key, this FROM m WHERE __key <> 0 AND 3000 / __key = 3",
+                key -> key != 0 && 3000 / key == 3);
+    }
+
+    @Test
+    public void test_calcFilter() {
+        List<Row> expected = new ArrayList<>();
+        for (int i = 1; i < 50; i++) {
+            expected.add(new Row(i, 1L));
+        }
+        assertRowsAnyOrder("SELECT this, COUNT(*) FROM m GROUP BY this HAVING COUNT(*) > 0 AND this < 50", expected);
+    }
+
+    private static void assertMapRows(String sql, IntPredicate keyPredicate) {
+        List<Row> expected = new ArrayList<>();
+        for (int key = 0; key < ENTRY_COUNT; key++) {
+            if (keyPredicate.test(key)) {
+                expected.add(new Row(key, ENTRY_COUNT - key));
+            }
+        }
+        assertRowsAnyOrder(sql, expected);
+    }
+}
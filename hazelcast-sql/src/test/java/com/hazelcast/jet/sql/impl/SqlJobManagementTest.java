@@ -31,6 +31,7 @@ import org.junit.Test;
 import java.util.List;
 import java.util.stream.Stream;
 
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_SPILL_DIRECTORY;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
 import static com.hazelcast.jet.core.JobStatus.COMPLETED;
 import static com.hazelcast.jet.core.JobStatus.RUNNING;
@@ -223,7 +224,8 @@ public class SqlJobManagementTest extends SqlTestSupport {
                 "'metricsEnabled'='false'," +
                 "'initialSnapshotName'='fooSnapshot'," +
                 "'storeMetricsAfterJobCompletion'='true'," +
-                "'maxProcessorAccumulatedRecords'='10')" +
+                "'maxProcessorAccumulatedRecords'='10'," +
+                "'spillDirectory'='/tmp/spill')" +
                 "AS SINK INTO dest SELECT v, v FROM TABLE(GENERATE_STREAM(100))");
 
         JobConfig config = instance().getJet().getJob("testJob").getConfig();
@@ -235,6 +237,7 @@ public class SqlJobManagementTest extends SqlTestSupport {
         assertFalse("isMetricsEnabled", config.isMetricsEnabled());
         assertEquals("fooSnapshot", config.getInitialSnapshotName());
         assertEquals(10L, config.getMaxProcessorAccumulatedRecords());
+        assertEquals("/tmp/spill", config.getArgument(KEY_SPILL_DIRECTORY));
     }
 
     @Test
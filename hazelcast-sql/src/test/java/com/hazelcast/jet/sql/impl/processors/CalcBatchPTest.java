@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.sql.impl.processors;
+
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.jet.sql.SqlTestSupport;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.TestContextSupport.adaptSupplier;
+import static com.hazelcast.jet.impl.JetServiceBackend.SQL_ARGUMENTS_KEY_NAME;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+@Category({QuickTest.class, ParallelJVMTest.class})
+@RunWith(HazelcastSerialClassRunner.class)
+public class CalcBatchPTest extends SqlTestSupport {
+
+    private static final Expression<?> INT_COLUMN = ColumnExpression.create(0, QueryDataType.INT);
+    private static final Expression<?> VARCHAR_COLUMN = ColumnExpression.create(1, QueryDataType.VARCHAR);
+
+    @SuppressWarnings("unchecked")
+    private static final Expression<Boolean> PREDICATE = (Expression<Boolean>) ComparisonPredicate.create(
+            INT_COLUMN, ConstantExpression.create(1, QueryDataType.INT), ComparisonMode.GREATER_THAN);
+
+    private static final List<Expression<?>> PROJECTION = asList(VARCHAR_COLUMN, INT_COLUMN);
+
+    @BeforeClass
+    public static void beforeClass() {
+        initialize(1, null);
+    }
+
+    @Test
+    public void test_filterAndProject() {
+        TestSupport.verifyProcessor(adaptSupplier(ProcessorSupplier.of(supplier())))
+                .hazelcastInstance(instance())
+                .jobConfig(new JobConfig().setArgument(SQL_ARGUMENTS_KEY_NAME, emptyList()))
+                .outputChecker(SqlTestSupport::compareRowLists)
+                .input(asList(
+                        jetRow(0, "a"),
+                        jetRow(2, "b"),
+                        jetRow(null, "c"),
+                        jetRow(3, null),
+                        wm(3L),
+                        jetRow(1, "d"),
+                        jetRow(5, "e")
+                ))
+                .expectOutput(asList(
+                        jetRow("b", 2),
+                        jetRow(null, 3),
+                        wm(3L),
+                        jetRow("e", 5)
+                ));
+    }
+
+    @Test
+    public void test_moreItemsThanBatchSize() {
+        List<Object> input = new ArrayList<>();
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 3 * CalcBatchP.BATCH_SIZE + 7; i++) {
+            int value = i % 5;
+            input.add(jetRow(value, "v" + i));
+            if (value > 1) {
+                expected.add(jetRow("v" + i, value));
+            }
+        }
+
+        TestSupport.verifyProcessor(adaptSupplier(ProcessorSupplier.of(supplier())))
+                .hazelcastInstance(instance())
+                .jobConfig(new JobConfig().setArgument(SQL_ARGUMENTS_KEY_NAME, emptyList()))
+                .outputChecker(SqlTestSupport::compareRowLists)
+                .disableSnapshots()
+                .input(input)
+                .expectOutput(expected);
+    }
+
+    private static SupplierEx<Processor> supplier() {
+        return () -> new CalcBatchP<JetSqlRow>(PREDICATE, PROJECTION, ctx -> JetSqlRow::getRow);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.batch;
+
+import com.hazelcast.jet.sql.impl.ExpressionUtil;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.MockExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BatchFilterTest {
+
+    private static final Expression<?> INT_COLUMN = ColumnExpression.create(0, QueryDataType.INT);
+    private static final Expression<?> BIGINT_COLUMN = ColumnExpression.create(1, QueryDataType.BIGINT);
+    private static final Expression<?> DOUBLE_COLUMN = ColumnExpression.create(2, QueryDataType.DOUBLE);
+    private static final Expression<?> BOOLEAN_COLUMN = ColumnExpression.create(3, QueryDataType.BOOLEAN);
+    private static final Expression<?> VARCHAR_COLUMN = ColumnExpression.create(4, QueryDataType.VARCHAR);
+    private static final Expression<?> REAL_COLUMN = ColumnExpression.create(5, QueryDataType.REAL);
+
+    private static final int CAPACITY = 200;
+
+    private final ExpressionEvalContext context = new MockExpressionEvalContext();
+
+    @Test
+    public void test_comparisons() {
+        for (ComparisonMode mode : ComparisonMode.values()) {
+            assertSameSelection(comparison(INT_COLUMN, constant(3, QueryDataType.INT), mode));
+            assertSameSelection(comparison(constant(3, QueryDataType.INT), INT_COLUMN, mode));
+            assertSameSelection(comparison(BIGINT_COLUMN, constant(-2L, QueryDataType.BIGINT), mode));
+            assertSameSelection(comparison(DOUBLE_COLUMN, constant(0.0d, QueryDataType.DOUBLE), mode));
+            assertSameSelection(comparison(constant(0.5d, QueryDataType.DOUBLE), DOUBLE_COLUMN, mode));
+            assertSameSelection(comparison(REAL_COLUMN, constant(1.5f, QueryDataType.REAL), mode));
+            assertSameSelection(comparison(DOUBLE_COLUMN, DOUBLE_COLUMN, mode));
+            assertSameSelection(comparison(BIGINT_COLUMN, BIGINT_COLUMN, mode));
+            assertSameSelection(comparison(INT_COLUMN, constant(null, QueryDataType.INT), mode));
+            assertSameSelection(comparison(VARCHAR_COLUMN, constant("b", QueryDataType.VARCHAR), mode));
+        }
+    }
+
+    @Test
+    public void test_logic() {
+        Expression<?> intComparison = comparison(INT_COLUMN, constant(0, QueryDataType.INT), ComparisonMode.GREATER_THAN);
+        Expression<?> doubleComparison = comparison(DOUBLE_COLUMN, constant(0.0d, QueryDataType.DOUBLE),
+                ComparisonMode.LESS_THAN);
+        Expression<?> varcharComparison = comparison(VARCHAR_COLUMN, constant("b", QueryDataType.VARCHAR),
+                ComparisonMode.EQUALS);
+
+        assertSameSelection(BOOLEAN_COLUMN);
+        assertSameSelection(ConstantExpression.TRUE);
+        assertSameSelection(ConstantExpression.FALSE);
+        assertSameSelection(ConstantExpression.NULL);
+        assertSameSelection(AndPredicate.create(BOOLEAN_COLUMN, intComparison, varcharComparison));
+        assertSameSelection(OrPredicate.create(BOOLEAN_COLUMN, intComparison, varcharComparison));
+        assertSameSelection(OrPredicate.create(AndPredicate.create(BOOLEAN_COLUMN, doubleComparison),
+                NotPredicate.create(intComparison)));
+        assertSameSelection(AndPredicate.create(ConstantExpression.NULL, BOOLEAN_COLUMN));
+        assertSameSelection(OrPredicate.create(ConstantExpression.NULL, BOOLEAN_COLUMN));
+        assertSameSelection(NotPredicate.create(varcharComparison));
+        assertSameSelection(IsNullPredicate.create(INT_COLUMN));
+        assertSameSelection(IsNotNullPredicate.create(DOUBLE_COLUMN));
+        assertSameSelection(IsNullPredicate.create(VARCHAR_COLUMN));
+        assertSameSelection(IsNullPredicate.create(AndPredicate.create(BOOLEAN_COLUMN, intComparison)));
+        assertSameSelection(IsNotNullPredicate.create(OrPredicate.create(BOOLEAN_COLUMN, intComparison)));
+        assertSameSelection(IsTruePredicate.create(OrPredicate.create(BOOLEAN_COLUMN, intComparison)));
+        assertSameSelection(IsNotTruePredicate.create(BOOLEAN_COLUMN));
+        assertSameSelection(IsFalsePredicate.create(AndPredicate.create(BOOLEAN_COLUMN, varcharComparison)));
+        assertSameSelection(IsNotFalsePredicate.create(BOOLEAN_COLUMN));
+    }
+
+    @Test
+    public void test_shortCircuit() {
+        // the division is evaluated only for the rows where INT_COLUMN isn't 0
+        Expression<?> division = comparison(
+                DivideFunction.create(constant(6, QueryDataType.INT), INT_COLUMN, QueryDataType.INT),
+                constant(1, QueryDataType.INT),
+                ComparisonMode.GREATER_THAN);
+        Expression<?> nonZero = comparison(INT_COLUMN, constant(0, QueryDataType.INT), ComparisonMode.NOT_EQUALS);
+        Expression<?> zero = comparison(INT_COLUMN, constant(0, QueryDataType.INT), ComparisonMode.EQUALS);
+
+        assertSameSelection(AndPredicate.create(nonZero, division));
+        assertSameSelection(OrPredicate.create(zero, division));
+
+        List<JetSqlRow> rows = rows(new Random(1));
+        ColumnarBatch<JetSqlRow> batch = new ColumnarBatch<>(CAPACITY, JetSqlRow::getRow);
+        @SuppressWarnings("unchecked")
+        BatchFilter filter = BatchFilter.create((Expression<Boolean>) AndPredicate.create(zero, division), batch);
+        rows.forEach(batch::add);
+        assertThrows(RuntimeException.class, () -> filter.select(batch, context, new int[CAPACITY]));
+    }
+
+    @Test
+    public void test_batchReuse() {
+        @SuppressWarnings("unchecked")
+        Expression<Boolean> predicate = (Expression<Boolean>) OrPredicate.create(
+                IsNullPredicate.create(INT_COLUMN),
+                comparison(DOUBLE_COLUMN, constant(0.0d, QueryDataType.DOUBLE), ComparisonMode.GREATER_THAN));
+        ColumnarBatch<JetSqlRow> batch = new ColumnarBatch<>(CAPACITY, JetSqlRow::getRow);
+        BatchFilter filter = BatchFilter.create(predicate, batch);
+        Random random = new Random(2);
+
+        for (int i = 0; i < 10; i++) {
+            List<JetSqlRow> rows = rows(random);
+            List<JetSqlRow> batchRows = rows.subList(0, random.nextInt(rows.size()) + 1);
+            batch.clear();
+            batchRows.forEach(batch::add);
+
+            assertEquals(expectedSelection(predicate, batchRows), actualSelection(filter, batch));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertSameSelection(Expression<?> predicate) {
+        Random random = new Random(predicate.hashCode());
+        for (int i = 0; i < 3; i++) {
+            List<JetSqlRow> rows = rows(random);
+            ColumnarBatch<JetSqlRow> batch = new ColumnarBatch<>(CAPACITY, JetSqlRow::getRow);
+            BatchFilter filter = BatchFilter.create((Expression<Boolean>) predicate, batch);
+            rows.forEach(batch::add);
+
+            assertEquals(predicate.toString(), expectedSelection((Expression<Boolean>) predicate, rows),
+                    actualSelection(filter, batch));
+        }
+    }
+
+    private List<Integer> expectedSelection(Expression<Boolean> predicate, List<JetSqlRow> rows) {
+        List<Integer> selection = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (ExpressionUtil.evaluate(predicate, null, rows.get(i), context) != null) {
+                selection.add(i);
+            }
+        }
+        return selection;
+    }
+
+    private List<Integer> actualSelection(BatchFilter filter, ColumnarBatch<JetSqlRow> batch) {
+        int[] selection = new int[batch.getCapacity()];
+        int count = filter.select(batch, context, selection);
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(selection[i]);
+        }
+        return result;
+    }
+
+    private List<JetSqlRow> rows(Random random) {
+        List<JetSqlRow> rows = new ArrayList<>();
+        int count = 1 + random.nextInt(CAPACITY);
+        for (int i = 0; i < count; i++) {
+            Object[] values = {
+                    random.nextInt(5) == 0 ? null : random.nextInt(7) - 3,
+                    random.nextInt(5) == 0 ? null : (long) random.nextInt(7) - 3,
+                    random.nextInt(5) == 0 ? null : randomDouble(random),
+                    random.nextInt(5) == 0 ? null : random.nextBoolean(),
+                    random.nextInt(5) == 0 ? null : String.valueOf((char) ('a' + random.nextInt(3))),
+                    random.nextInt(5) == 0 ? null : (float) randomDouble(random)
+            };
+            rows.add(new JetSqlRow(context.getSerializationService(), values));
+        }
+        return rows;
+    }
+
+    private static double randomDouble(Random random) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return Double.NaN;
+            case 1:
+                return -0.0d;
+            case 2:
+                return 0.0d;
+            default:
+                return random.nextInt(9) / 2.0d - 2;
+        }
+    }
+
+    private static Expression<?> comparison(Expression<?> left, Expression<?> right, ComparisonMode mode) {
+        return ComparisonPredicate.create(left, right, mode);
+    }
+
+    private static Expression<?> constant(Object value, QueryDataType type) {
+        return ConstantExpression.create(value, type);
+    }
+}
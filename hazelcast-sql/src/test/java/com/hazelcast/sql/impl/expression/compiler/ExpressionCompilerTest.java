@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 Hazelcast Inc.
+ *
+ * Licensed under the Hazelcast Community License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://hazelcast.com/hazelcast-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.sql.impl.expression.compiler;
+
+import com.hazelcast.jet.sql.impl.ExpressionUtil;
+import com.hazelcast.sql.impl.expression.CastExpression;
+import com.hazelcast.sql.impl.expression.ColumnExpression;
+import com.hazelcast.sql.impl.expression.ConstantExpression;
+import com.hazelcast.sql.impl.expression.Expression;
+import com.hazelcast.sql.impl.expression.ExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.MockExpressionEvalContext;
+import com.hazelcast.sql.impl.expression.math.DivideFunction;
+import com.hazelcast.sql.impl.expression.math.MinusFunction;
+import com.hazelcast.sql.impl.expression.math.MultiplyFunction;
+import com.hazelcast.sql.impl.expression.math.PlusFunction;
+import com.hazelcast.sql.impl.expression.math.RemainderFunction;
+import com.hazelcast.sql.impl.expression.math.UnaryMinusFunction;
+import com.hazelcast.sql.impl.expression.predicate.AndPredicate;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonMode;
+import com.hazelcast.sql.impl.expression.predicate.ComparisonPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotFalsePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNotTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsNullPredicate;
+import com.hazelcast.sql.impl.expression.predicate.IsTruePredicate;
+import com.hazelcast.sql.impl.expression.predicate.NotPredicate;
+import com.hazelcast.sql.impl.expression.predicate.OrPredicate;
+import com.hazelcast.sql.impl.plan.cache.PlanCache;
+import com.hazelcast.sql.impl.row.JetSqlRow;
+import com.hazelcast.sql.impl.type.QueryDataType;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ExpressionCompilerTest {
+
+    private static final Expression<?> INT_COLUMN = ColumnExpression.create(0, QueryDataType.INT);
+    private static final Expression<?> BIGINT_COLUMN = ColumnExpression.create(1, QueryDataType.BIGINT);
+    private static final Expression<?> DOUBLE_COLUMN = ColumnExpression.create(2, QueryDataType.DOUBLE);
+    private static final Expression<?> BOOLEAN_COLUMN = ColumnExpression.create(3, QueryDataType.BOOLEAN);
+    private static final Expression<?> VARCHAR_COLUMN = ColumnExpression.create(4, QueryDataType.VARCHAR);
+    private static final Expression<?> TINYINT_COLUMN = ColumnExpression.create(5, QueryDataType.TINYINT);
+
+    private static final Object[][] ROWS = {
+            {null, null, null, null, null, null},
+            {0, 0L, 0.0d, false, "a", (byte) 0},
+            {1, 1L, 1.5d, true, "b", (byte) 1},
+            {-7, -3L, -0.0d, true, "c", (byte) -7},
+            {Integer.MAX_VALUE, Long.MAX_VALUE, Double.NaN, false, "d", Byte.MAX_VALUE},
+            {Integer.MIN_VALUE, Long.MIN_VALUE, Double.NEGATIVE_INFINITY, null, "e", Byte.MIN_VALUE},
+            {42, null, 2.0d, true, null, (byte) -1},
+    };
+
+    private final ExpressionEvalContext context = new MockExpressionEvalContext();
+
+    @Test
+    public void test_arithmetic() {
+        assertSameResults(null,
+                PlusFunction.create(INT_COLUMN, constant(1, QueryDataType.INT), QueryDataType.INT),
+                PlusFunction.create(BIGINT_COLUMN, BIGINT_COLUMN, QueryDataType.BIGINT),
+                MinusFunction.create(BIGINT_COLUMN, constant(1L, QueryDataType.BIGINT), QueryDataType.BIGINT),
+                MultiplyFunction.create(BIGINT_COLUMN, BIGINT_COLUMN, QueryDataType.BIGINT),
+                MultiplyFunction.create(DOUBLE_COLUMN, DOUBLE_COLUMN, QueryDataType.DOUBLE),
+                PlusFunction.create(TINYINT_COLUMN, TINYINT_COLUMN, QueryDataType.TINYINT),
+                UnaryMinusFunction.create(BIGINT_COLUMN, QueryDataType.BIGINT),
+                UnaryMinusFunction.create(TINYINT_COLUMN, QueryDataType.TINYINT),
+                PlusFunction.create(INT_COLUMN, constant(null, QueryDataType.INT), QueryDataType.INT)
+        );
+    }
+
+    @Test
+    public void test_division() {
+        assertSameResults(null,
+                DivideFunction.create(BIGINT_COLUMN, BIGINT_COLUMN, QueryDataType.BIGINT),
+                DivideFunction.create(BIGINT_COLUMN, constant(-1L, QueryDataType.BIGINT), QueryDataType.BIGINT),
+                DivideFunction.create(INT_COLUMN, constant(2, QueryDataType.INT), QueryDataType.INT),
+                DivideFunction.create(TINYINT_COLUMN, constant((byte) -1, QueryDataType.TINYINT), QueryDataType.TINYINT),
+                DivideFunction.create(DOUBLE_COLUMN, DOUBLE_COLUMN, QueryDataType.DOUBLE),
+                RemainderFunction.create(INT_COLUMN, INT_COLUMN, QueryDataType.INT),
+                RemainderFunction.create(BIGINT_COLUMN, constant(2L, QueryDataType.BIGINT), QueryDataType.BIGINT)
+        );
+    }
+
+    @Test
+    public void test_predicates() {
+        Expression<?> intComparison = ComparisonPredicate.create(INT_COLUMN, constant(0, QueryDataType.INT),
+                ComparisonMode.GREATER_THAN);
+
+        List<Expression<?>> projections = new ArrayList<>();
+        for (ComparisonMode mode : ComparisonMode.values()) {
+            projections.add(ComparisonPredicate.create(DOUBLE_COLUMN, constant(0.0d, QueryDataType.DOUBLE), mode));
+            projections.add(ComparisonPredicate.create(BOOLEAN_COLUMN, constant(true, QueryDataType.BOOLEAN), mode));
+        }
+        projections.add(AndPredicate.create(BOOLEAN_COLUMN, intComparison));
+        projections.add(OrPredicate.create(BOOLEAN_COLUMN, intComparison, IsNullPredicate.create(BIGINT_COLUMN)));
+        projections.add(NotPredicate.create(BOOLEAN_COLUMN));
+        projections.add(IsNullPredicate.create(VARCHAR_COLUMN));
+        projections.add(IsNotNullPredicate.create(INT_COLUMN));
+        projections.add(IsTruePredicate.create(BOOLEAN_COLUMN));
+        projections.add(IsNotTruePredicate.create(BOOLEAN_COLUMN));
+        projections.add(IsFalsePredicate.create(BOOLEAN_COLUMN));
+        projections.add(IsNotFalsePredicate.create(BOOLEAN_COLUMN));
+
+        assertSameResults(null, projections.toArray(new Expression<?>[0]));
+    }
+
+    @Test
+    public void test_comparisonOfDifferentTypes() {
+        List<Expression<?>> projections = new ArrayList<>();
+        for (ComparisonMode mode : ComparisonMode.values()) {
+            projections.add(ComparisonPredicate.create(TINYINT_COLUMN, INT_COLUMN, mode));
+            projections.add(ComparisonPredicate.create(INT_COLUMN, BIGINT_COLUMN, mode));
+            projections.add(ComparisonPredicate.create(INT_COLUMN, DOUBLE_COLUMN, mode));
+            projections.add(ComparisonPredicate.create(DOUBLE_COLUMN, TINYINT_COLUMN, mode));
+            projections.add(ComparisonPredicate.create(BIGINT_COLUMN, DOUBLE_COLUMN, mode));
+            projections.add(ComparisonPredicate.create(BIGINT_COLUMN, constant(4_000_000_000L, QueryDataType.BIGINT), mode));
+        }
+
+        assertSameResults(null, projections.toArray(new Expression<?>[0]));
+    }
+
+    @Test
+    public void test_filter() {
+        @SuppressWarnings("unchecked")
+        Expression<Boolean> predicate = (Expression<Boolean>) OrPredicate.create(
+                IsNullPredicate.create(INT_COLUMN),
+                ComparisonPredicate.create(INT_COLUMN, constant(0, QueryDataType.INT), ComparisonMode.LESS_THAN));
+
+        assertSameResults(predicate, INT_COLUMN, VARCHAR_COLUMN);
+        assertSameResults(ConstantExpression.FALSE, INT_COLUMN);
+        assertSameResults(ConstantExpression.NULL, INT_COLUMN);
+    }
+
+    @Test
+    public void test_unsupportedExpressions() {
+        // CAST isn't compiled, but it can be nested in and contain compiled expressions
+        assertSameResults(null,
+                VARCHAR_COLUMN,
+                CastExpression.create(PlusFunction.create(INT_COLUMN, INT_COLUMN, QueryDataType.INT), QueryDataType.VARCHAR),
+                PlusFunction.create(CastExpression.create(INT_COLUMN, QueryDataType.BIGINT), BIGINT_COLUMN,
+                        QueryDataType.BIGINT)
+        );
+    }
+
+    @Test
+    public void test_planCache() {
+        PlanCache planCache = new PlanCache(1);
+        List<Expression<?>> projections1 = singletonList(INT_COLUMN);
+        List<Expression<?>> projections2 = singletonList(BIGINT_COLUMN);
+
+        CompiledCalc compiledCalc = planCache.getCompiledCalc(null, projections1);
+        assertSame(compiledCalc, planCache.getCompiledCalc(null, singletonList(ColumnExpression.create(0, QueryDataType.INT))));
+        assertNotSame(compiledCalc, planCache.getCompiledCalc(null, projections2));
+        assertNotSame(compiledCalc, planCache.getCompiledCalc(null, projections1));
+    }
+
+    private static Expression<?> constant(Object value, QueryDataType type) {
+        return ConstantExpression.create(value, type);
+    }
+
+    /**
+     * Checks that the compiled and the interpreted evaluation of each of the
+     * projections (compiled separately, so that an error in one of them
+     * doesn't hide the others) and of all of them together produce the same
+     * results or errors on all test rows.
+     */
+    private void assertSameResults(Expression<Boolean> predicate, Expression<?>... projections) {
+        List<List<Expression<?>>> projectionLists = new ArrayList<>();
+        for (Expression<?> projection : projections) {
+            projectionLists.add(singletonList(projection));
+        }
+        projectionLists.add(Arrays.asList(projections));
+
+        for (List<Expression<?>> projectionList : projectionLists) {
+            CompiledCalc compiledCalc = ExpressionCompiler.compile(predicate, projectionList);
+
+            for (Object[] values : ROWS) {
+                JetSqlRow row = new JetSqlRow(context.getSerializationService(), values);
+
+                Object expected = outcome(() -> ExpressionUtil.evaluate(predicate, projectionList, row, context));
+                Object actual = outcome(() -> compiledCalc.apply(row, context));
+                assertEquals(projectionList + " on " + Arrays.toString(values), expected, actual);
+            }
+        }
+    }
+
+    private static Object outcome(Supplier<JetSqlRow> evaluation) {
+        try {
+            JetSqlRow result = evaluation.get();
+            return result == null ? null : Arrays.asList(result.getValues());
+        } catch (RuntimeException e) {
+            return e.getClass() + ": " + e.getMessage();
+        }
+    }
+}
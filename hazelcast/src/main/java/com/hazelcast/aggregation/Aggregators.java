@@ -21,6 +21,7 @@ import com.hazelcast.aggregation.impl.BigDecimalSumAggregator;
 import com.hazelcast.aggregation.impl.BigIntegerAverageAggregator;
 import com.hazelcast.aggregation.impl.BigIntegerSumAggregator;
 import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.DistinctCountAggregator;
 import com.hazelcast.aggregation.impl.DistinctValuesAggregator;
 import com.hazelcast.aggregation.impl.DoubleAverageAggregator;
 import com.hazelcast.aggregation.impl.DoubleSumAggregator;
@@ -113,6 +114,29 @@ public final class Aggregators {
         return new DistinctValuesAggregator<>(attributePath);
     }
 
+    /**
+     * @param <I> type of the input object.
+     * @return an aggregator that counts the distinct input values.
+     * Accepts null input values.
+     * Aggregation result type Long.
+     * @since 5.4
+     */
+    public static <I> Aggregator<I, Long> distinctCount() {
+        return new DistinctCountAggregator<>();
+    }
+
+    /**
+     * @param attributePath the attribute path
+     * @param <I> type of the input object.
+     * @return an aggregator that counts the distinct input values extracted from the given attributePath.
+     * Accepts null input values and null extracted values.
+     * Aggregation result type Long.
+     * @since 5.4
+     */
+    public static <I> Aggregator<I, Long> distinctCount(String attributePath) {
+        return new DistinctCountAggregator<>(attributePath);
+    }
+
     // ---------------------------------------------------------------------------------------------------------
     // average aggregators
     // ---------------------------------------------------------------------------------------------------------
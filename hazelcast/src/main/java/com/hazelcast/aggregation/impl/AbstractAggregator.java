@@ -57,7 +57,18 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
 
     @Override
     public final void accumulate(I entry) {
+        accumulate(entry, false);
+    }
+
+    /**
+     * Reverts a previous {@link #accumulate(Object) accumulation} of the given
+     * entry. Supported only by the aggregators implementing {@link InvertibleAggregator}.
+     */
+    public final void deaccumulate(I entry) {
+        accumulate(entry, true);
+    }
 
+    private void accumulate(I entry, boolean revert) {
         E extractedValue = extract(entry);
         if (extractedValue instanceof MultiResult) {
             boolean nullEmptyTargetSkipped = false;
@@ -73,10 +84,18 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
                     nullEmptyTargetSkipped = true;
                     continue;
                 }
-                accumulateExtracted(entry, results.get(i));
+                accumulateExtracted(entry, results.get(i), revert);
             }
         } else if (extractedValue != NonTerminalJsonValue.INSTANCE) {
-            accumulateExtracted(entry, extractedValue);
+            accumulateExtracted(entry, extractedValue, revert);
+        }
+    }
+
+    private void accumulateExtracted(I entry, E value, boolean revert) {
+        if (revert) {
+            deaccumulateExtracted(entry, value);
+        } else {
+            accumulateExtracted(entry, value);
         }
     }
 
@@ -105,6 +124,14 @@ public abstract class AbstractAggregator<I, E, R> implements Aggregator<I, R> {
      */
     protected abstract void accumulateExtracted(I entry, E value);
 
+    /**
+     * Reverts the accumulation of a single extracted value, see {@link #accumulateExtracted(Object, Object)}.
+     * Overridden by the aggregators implementing {@link InvertibleAggregator}.
+     */
+    protected void deaccumulateExtracted(I entry, E value) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is not invertible");
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
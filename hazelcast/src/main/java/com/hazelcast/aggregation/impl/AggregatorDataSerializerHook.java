@@ -51,8 +51,9 @@ public final class AggregatorDataSerializerHook implements DataSerializerHook {
     public static final int MAX_BY = 17;
     public static final int MIN_BY = 18;
     public static final int CANONICALIZING_SET = 19;
+    public static final int DISTINCT_COUNT = 20;
 
-    private static final int LEN = CANONICALIZING_SET + 1;
+    private static final int LEN = DISTINCT_COUNT + 1;
 
     @Override
     public int getFactoryId() {
@@ -84,6 +85,7 @@ public final class AggregatorDataSerializerHook implements DataSerializerHook {
         constructors[MAX_BY] = MaxByAggregator::new;
         constructors[MIN_BY] = MinByAggregator::new;
         constructors[CANONICALIZING_SET] = CanonicalizingHashSet::new;
+        constructors[DISTINCT_COUNT] = DistinctCountAggregator::new;
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -26,7 +26,7 @@ import java.math.BigDecimal;
 import java.util.Objects;
 
 public final class BigDecimalSumAggregator<I> extends AbstractAggregator<I, BigDecimal, BigDecimal>
-        implements IdentifiedDataSerializable {
+        implements InvertibleAggregator<I, BigDecimal>, IdentifiedDataSerializable {
 
     private BigDecimal sum = BigDecimal.ZERO;
 
@@ -43,6 +43,11 @@ public final class BigDecimalSumAggregator<I> extends AbstractAggregator<I, BigD
         sum = sum.add(value);
     }
 
+    @Override
+    protected void deaccumulateExtracted(I entry, BigDecimal value) {
+        sum = sum.subtract(value);
+    }
+
     @Override
     public void combine(Aggregator aggregator) {
         BigDecimalSumAggregator longSumAggregator = (BigDecimalSumAggregator) aggregator;
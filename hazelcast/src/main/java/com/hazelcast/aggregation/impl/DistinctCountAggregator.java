@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.internal.util.MapUtil;
+import com.hazelcast.internal.util.MutableLong;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.query.impl.Comparables;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Counts the distinct values. Unlike the {@link DistinctValuesAggregator},
+ * it tracks the number of occurrences of each value, so the accumulation
+ * of a value can be reverted.
+ * <p>
+ * Mixed-type numeric values are canonicalized the same way as in the
+ * {@link CanonicalizingHashSet}.
+ */
+@SuppressFBWarnings("SE_BAD_FIELD")
+public final class DistinctCountAggregator<I> extends AbstractAggregator<I, Object, Long>
+        implements InvertibleAggregator<I, Long>, IdentifiedDataSerializable {
+
+    private HashMap<Object, MutableLong> occurrences = new HashMap<>();
+
+    public DistinctCountAggregator() {
+        super();
+    }
+
+    public DistinctCountAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    public void accumulateExtracted(I entry, Object value) {
+        add(canonicalize(value), 1);
+    }
+
+    @Override
+    protected void deaccumulateExtracted(I entry, Object value) {
+        add(canonicalize(value), -1);
+    }
+
+    @Override
+    public void combine(Aggregator aggregator) {
+        DistinctCountAggregator<?> distinctCountAggregator = (DistinctCountAggregator<?>) aggregator;
+        for (Map.Entry<Object, MutableLong> entry : distinctCountAggregator.occurrences.entrySet()) {
+            add(entry.getKey(), entry.getValue().value);
+        }
+    }
+
+    @Override
+    public Long aggregate() {
+        return (long) occurrences.size();
+    }
+
+    private void add(Object value, long delta) {
+        MutableLong count = occurrences.computeIfAbsent(value, k -> new MutableLong());
+        if (count.addAndGet(delta) == 0) {
+            occurrences.remove(value);
+        }
+    }
+
+    private static Object canonicalize(Object value) {
+        if (value instanceof Comparable) {
+            return Comparables.canonicalizeForHashLookup((Comparable) value);
+        }
+        return value;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return AggregatorDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return AggregatorDataSerializerHook.DISTINCT_COUNT;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(attributePath);
+        out.writeInt(occurrences.size());
+        for (Map.Entry<Object, MutableLong> entry : occurrences.entrySet()) {
+            out.writeObject(entry.getKey());
+            out.writeLong(entry.getValue().value);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        this.attributePath = in.readString();
+        int size = in.readInt();
+        this.occurrences = new HashMap<>(MapUtil.calculateInitialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            Object value = in.readObject();
+            occurrences.put(value, MutableLong.valueOf(in.readLong()));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+        DistinctCountAggregator<?> that = (DistinctCountAggregator<?>) o;
+        return occurrences.equals(that.occurrences);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), occurrences);
+    }
+}
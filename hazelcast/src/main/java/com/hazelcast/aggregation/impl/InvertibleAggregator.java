@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+
+/**
+ * An {@link Aggregator} whose accumulation can be reverted.
+ * <p>
+ * Accumulating an input and then deaccumulating the same input leaves
+ * the aggregator in the same state, which allows maintaining the result
+ * incrementally while the aggregated entries are updated and removed.
+ *
+ * @param <I> input type
+ * @param <R> result type
+ */
+public interface InvertibleAggregator<I, R> extends Aggregator<I, R> {
+
+    /**
+     * Reverts a previous {@link #accumulate(Object) accumulation} of the
+     * given input.
+     *
+     * @param input input to deaccumulate, equal to a previously accumulated one
+     */
+    void deaccumulate(I input);
+}
@@ -174,7 +174,11 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
 
         EvictionPolicyComparator evictionPolicyComparator = createEvictionPolicyComparator(evictionConfig);
         evictionPolicyComparator = injectDependencies(evictionPolicyComparator);
-        this.evictionPolicyEvaluator = new EvictionPolicyEvaluator<>(evictionPolicyComparator);
+        this.evictionPolicyEvaluator = new EvictionPolicyEvaluator<>(evictionPolicyComparator,
+                EvictionPolicyEvaluatorProvider.newFrequencySketchIfNeeded(evictionConfig));
+        if (evictionConfig.getMaxSizePolicy() == MaxSizePolicy.ENTRY_COUNT) {
+            evictionPolicyEvaluator.ensureCapacity(evictionConfig.getSize() / partitionCount + 1);
+        }
         this.cacheContext = cacheService.getOrCreateCacheContext(cacheNameWithPrefix);
         this.records = createRecordCacheMap();
         this.evictionChecker = createCacheEvictionChecker(evictionConfig.getSize(), evictionConfig.getMaxSizePolicy());
@@ -632,9 +636,21 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected long onRecordAccess(Data key, R record, ExpiryPolicy expiryPolicy, long now) {
         record.setLastAccessTime(now);
         record.incrementHits();
+        recordKeyAccess(key);
         return updateAccessDuration(key, record, expiryPolicy, now);
     }
 
+    /**
+     * Feeds the frequency sketch of the
+     * {@link com.hazelcast.config.EvictionPolicy#W_TINY_LFU} policy.
+     */
+    private void recordKeyAccess(Data key) {
+        if (evictionPolicyEvaluator.getFrequencySketch() != null) {
+            evictionPolicyEvaluator.ensureCapacity(records.size());
+            evictionPolicyEvaluator.recordAccess(key);
+        }
+    }
+
     protected void updateReplaceStat(boolean result, boolean isHit, long startNanos) {
         if (isStatisticsEnabled()) {
             if (result) {
@@ -713,6 +729,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected R createRecord(Data key, Object value, long expiryTime, long now,
                              boolean disableWriteThrough, int completionId, UUID origin) {
         R record = createRecord(value, now, expiryTime);
+        recordKeyAccess(key);
         try {
             doPutRecord(key, record, origin, true);
         } catch (Throwable error) {
@@ -87,8 +87,11 @@ import java.util.concurrent.ConcurrentMap;
 import static com.hazelcast.cache.impl.AbstractCacheRecordStore.SOURCE_NOT_AVAILABLE;
 import static com.hazelcast.cache.impl.PreJoinCacheConfig.asCacheConfig;
 import static com.hazelcast.internal.config.ConfigValidator.checkCacheConfig;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CACHE_DISCRIMINATOR_NAME;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CACHE_PREFIX;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CACHE_PREFIX_LATENCY;
 import static com.hazelcast.internal.metrics.impl.ProviderHelper.provide;
+import static com.hazelcast.internal.metrics.impl.ProviderHelper.provideLatencies;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.FutureUtil.RETHROW_EVERYTHING;
@@ -875,5 +878,9 @@ public abstract class AbstractCacheService implements ICacheService,
     @Override
     public void provideDynamicMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
         provide(descriptor, context, CACHE_PREFIX, getStats());
+        for (Map.Entry<String, CacheStatisticsImpl> entry : statistics.entrySet()) {
+            provideLatencies(descriptor, context, CACHE_PREFIX_LATENCY, CACHE_DISCRIMINATOR_NAME, entry.getKey(),
+                    entry.getValue().getLatencyHistograms());
+        }
     }
 }
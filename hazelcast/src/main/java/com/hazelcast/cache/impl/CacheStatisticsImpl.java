@@ -16,13 +16,21 @@
 
 package com.hazelcast.cache.impl;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_GET;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_PUT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_REMOVE;
 import static com.hazelcast.internal.util.ConcurrencyUtil.setMax;
+import static com.hazelcast.internal.util.LatencyHistogram.DEFAULT_WINDOW_MILLIS;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.LongAccumulator;
 
 import com.hazelcast.cache.CacheStatistics;
 import com.hazelcast.internal.monitor.impl.LocalReplicationStatsImpl;
+import com.hazelcast.internal.util.LatencyHistogram;
 import com.hazelcast.nearcache.NearCacheStats;
 
 /**
@@ -78,6 +86,10 @@ public class CacheStatisticsImpl
 
     private final LocalReplicationStatsImpl replicationStats = new LocalReplicationStatsImpl();
 
+    private final LatencyHistogram getLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram putLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram removeLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+
     public CacheStatisticsImpl(long creationTime) {
         this(creationTime, null);
     }
@@ -237,6 +249,23 @@ public class CacheStatisticsImpl
         getCacheTimeTakenNanos = 0;
         putTimeTakenNanos = 0;
         removeTimeTakenNanos = 0;
+        getLatencyHistogram.reset();
+        putLatencyHistogram.reset();
+        removeLatencyHistogram.reset();
+    }
+
+    /**
+     * Returns the latency histograms of the cache operations on this member,
+     * keyed by the operation name.
+     *
+     * @return the latency histograms by operation name
+     */
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        histograms.put(LATENCY_OPERATION_GET, getLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_PUT, putLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_REMOVE, removeLatencyHistogram);
+        return Collections.unmodifiableMap(histograms);
     }
 
     /**
@@ -369,6 +398,7 @@ public class CacheStatisticsImpl
      * @param duration the time taken in nanoseconds.
      */
     public void addGetTimeNanos(long duration) {
+        getLatencyHistogram.recordNanos(duration);
         for (; ; ) {
             long nanos = getCacheTimeTakenNanos;
             if (nanos <= Long.MAX_VALUE - duration) {
@@ -391,6 +421,7 @@ public class CacheStatisticsImpl
      * @param duration the time taken in nanoseconds.
      */
     public void addPutTimeNanos(long duration) {
+        putLatencyHistogram.recordNanos(duration);
         for (; ; ) {
             long nanos = putTimeTakenNanos;
             if (nanos <= Long.MAX_VALUE - duration) {
@@ -413,6 +444,7 @@ public class CacheStatisticsImpl
      * @param duration the time taken in nanoseconds.
      */
     public void addRemoveTimeNanos(long duration) {
+        removeLatencyHistogram.recordNanos(duration);
         for (; ; ) {
             long nanos = removeTimeTakenNanos;
             if (nanos <= Long.MAX_VALUE - duration) {
@@ -299,6 +299,8 @@ public class ClientDomConfigProcessor extends AbstractDomConfigProcessor {
             } else if (matches("serialize-keys", nodeName)) {
                 serializeKeys = Boolean.parseBoolean(getTextContent(child));
                 nearCacheConfig.setSerializeKeys(serializeKeys);
+            } else if (matches("off-heap-storage-enabled", nodeName)) {
+                nearCacheConfig.setOffHeapStorageEnabled(Boolean.parseBoolean(getTextContent(child)));
             } else if (matches("invalidate-on-change", nodeName)) {
                 nearCacheConfig.setInvalidateOnChange(Boolean.parseBoolean(getTextContent(child)));
             } else if (matches("local-update-policy", nodeName)) {
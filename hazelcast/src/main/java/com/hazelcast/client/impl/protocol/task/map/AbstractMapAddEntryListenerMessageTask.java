@@ -24,19 +24,26 @@ import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.map.MapEvent;
 import com.hazelcast.map.impl.DataAwareEntryEvent;
+import com.hazelcast.map.impl.EventListenerFilter;
 import com.hazelcast.map.impl.MapListenerAdapter;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.event.EntryEventBatcher;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.security.permission.ActionConstants;
 import com.hazelcast.security.permission.MapPermission;
 import com.hazelcast.security.permission.UserCodeNamespacePermission;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.security.Permission;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
+import static com.hazelcast.map.impl.event.EntryEventBatcher.CLIENT_EVENT_BATCH_DELAY_MILLIS;
+import static com.hazelcast.map.impl.event.EntryEventBatcher.CLIENT_EVENT_BATCH_SIZE;
+import static com.hazelcast.map.impl.event.EntryEventBatcher.CLIENT_EVENT_COALESCING;
 import static com.hazelcast.spi.impl.InternalCompletableFuture.newCompletedFuture;
 
 public abstract class AbstractMapAddEntryListenerMessageTask<Parameter>
@@ -67,6 +74,26 @@ public abstract class AbstractMapAddEntryListenerMessageTask<Parameter>
 
     protected abstract EventFilter getEventFilter();
 
+    /**
+     * Creates the filter of the listener registration. The entry events of
+     * the registration are published in batches if batching of client
+     * listener events is enabled, see {@link EntryEventBatcher#CLIENT_EVENT_BATCH_SIZE}.
+     */
+    protected EventListenerFilter newEventListenerFilter(int listenerFlags, EventFilter eventFilter) {
+        HazelcastProperties properties = nodeEngine.getProperties();
+        int batchSize = properties.getInteger(CLIENT_EVENT_BATCH_SIZE);
+        if (batchSize <= 0 || !canBatchEvents()) {
+            return new EventListenerFilter(listenerFlags, eventFilter);
+        }
+        return new EventListenerFilter(listenerFlags, eventFilter, batchSize,
+                properties.getMillis(CLIENT_EVENT_BATCH_DELAY_MILLIS), properties.getBoolean(CLIENT_EVENT_COALESCING));
+    }
+
+    private boolean canBatchEvents() {
+        // RU_COMPAT_5_3
+        return isLocalOnly() || nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(V5_4);
+    }
+
     protected abstract boolean isLocalOnly();
 
     @Override
@@ -20,7 +20,6 @@ import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerCodec;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.map.impl.EntryEventFilter;
-import com.hazelcast.map.impl.EventListenerFilter;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
@@ -37,7 +36,7 @@ public class MapAddEntryListenerMessageTask
     @Override
     protected EventFilter getEventFilter() {
         EntryEventFilter eventFilter = new EntryEventFilter(null, parameters.includeValue);
-        return new EventListenerFilter(parameters.listenerFlags, eventFilter);
+        return newEventListenerFilter(parameters.listenerFlags, eventFilter);
     }
 
     @Override
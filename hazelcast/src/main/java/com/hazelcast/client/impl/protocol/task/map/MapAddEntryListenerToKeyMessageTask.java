@@ -21,7 +21,6 @@ import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerToKeyCodec;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.map.impl.EntryEventFilter;
-import com.hazelcast.map.impl.EventListenerFilter;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.spi.impl.eventservice.EventFilter;
@@ -60,7 +59,7 @@ public class MapAddEntryListenerToKeyMessageTask
     @Override
     protected EventFilter getEventFilter() {
         EntryEventFilter eventFilter = new EntryEventFilter(parameters.key, parameters.includeValue);
-        return new EventListenerFilter(parameters.listenerFlags, eventFilter);
+        return newEventListenerFilter(parameters.listenerFlags, eventFilter);
     }
 
     @Override
@@ -19,7 +19,6 @@ package com.hazelcast.client.impl.protocol.task.map;
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerToKeyWithPredicateCodec;
 import com.hazelcast.instance.impl.Node;
-import com.hazelcast.map.impl.EventListenerFilter;
 import com.hazelcast.map.impl.query.QueryEventFilter;
 import com.hazelcast.internal.nio.Connection;
 import com.hazelcast.internal.serialization.Data;
@@ -39,7 +38,7 @@ public class MapAddEntryListenerToKeyWithPredicateMessageTask
     protected EventFilter getEventFilter() {
         Predicate predicate = serializationService.toObject(parameters.predicate);
         QueryEventFilter eventFilter = new QueryEventFilter(parameters.key, predicate, parameters.includeValue);
-        return new EventListenerFilter(parameters.listenerFlags, eventFilter);
+        return newEventListenerFilter(parameters.listenerFlags, eventFilter);
     }
 
     @Override
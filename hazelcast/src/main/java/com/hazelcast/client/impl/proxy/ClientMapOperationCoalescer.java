@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.proxy;
+
+import com.hazelcast.client.impl.clientside.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetAllCodec;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.spi.ClientPartitionService;
+import com.hazelcast.client.impl.spi.impl.ClientInvocation;
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+
+/**
+ * Coalesces concurrent {@code IMap.get} calls of a client map proxy into
+ * multi-key requests.
+ * <p>
+ * A calling thread enqueues its get and, if no other thread is already
+ * flushing the queue, becomes the flusher: it waits for the coalescing
+ * window or until {@code maxBatchSize} gets are queued, drains up to that
+ * many gets, groups them by partition and sends a single {@code MapGetAll}
+ * request per partition. The gets enqueued while a flush is in progress
+ * are flushed by a task on the given executor, so a calling thread flushes
+ * at most once. Each caller waits for its own future.
+ * <p>
+ * A get which is alone in its partition is sent as a plain {@code MapGet}
+ * request of the calling thread. Writes are never coalesced: a multi-key
+ * write doesn't carry the id of the calling thread, so it would ignore the
+ * locks held by it.
+ */
+final class ClientMapOperationCoalescer {
+
+    private final HazelcastClientInstanceImpl client;
+    private final String name;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private final ClientPartitionService partitionService;
+
+    private final Queue<PendingGet> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private volatile Thread flusher;
+
+    ClientMapOperationCoalescer(HazelcastClientInstanceImpl client, String name, long windowNanos, int maxBatchSize,
+                                Executor executor) {
+        this.client = client;
+        this.name = name;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.partitionService = client.getClientPartitionService();
+    }
+
+    /**
+     * @return the value of the given key or {@code null} if there is none.
+     */
+    Data get(Data key, long threadId) {
+        PendingGet get = new PendingGet(key, partitionService.getPartitionId(key), threadId);
+        queue.add(get);
+        if (queueSize.incrementAndGet() >= maxBatchSize) {
+            // wake up the flusher waiting for the window
+            LockSupport.unpark(flusher);
+        }
+        if (flushing.compareAndSet(false, true)) {
+            flush();
+        }
+        try {
+            return get.future.get();
+        } catch (Exception e) {
+            throw rethrow(e);
+        }
+    }
+
+    private void flush() {
+        awaitBatch();
+
+        List<PendingGet> drained = new ArrayList<>();
+        for (PendingGet get; drained.size() < maxBatchSize && (get = queue.poll()) != null; ) {
+            queueSize.decrementAndGet();
+            drained.add(get);
+        }
+        try {
+            send(drained);
+        } catch (Throwable t) {
+            for (PendingGet get : drained) {
+                get.future.completeExceptionally(t);
+            }
+        } finally {
+            flushing.set(false);
+        }
+
+        // a get enqueued while flushing may have seen the flag set
+        if (!queue.isEmpty() && flushing.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Waits until the window elapses or the batch is full.
+     */
+    private void awaitBatch() {
+        if (windowNanos <= 0) {
+            return;
+        }
+        flusher = Thread.currentThread();
+        try {
+            long deadline = System.nanoTime() + windowNanos;
+            for (long remaining = windowNanos; remaining > 0 && queueSize.get() < maxBatchSize;
+                 remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+            }
+        } finally {
+            flusher = null;
+        }
+    }
+
+    private void send(List<PendingGet> drained) {
+        for (List<PendingGet> partitionGets : byPartition(drained).values()) {
+            if (partitionGets.size() == 1) {
+                PendingGet get = partitionGets.get(0);
+                ClientMessage request = MapGetCodec.encodeRequest(name, get.key, get.threadId);
+                invoke(request, get.partitionId, partitionGets).whenComplete((response, t) -> {
+                    if (t == null) {
+                        get.future.complete(MapGetCodec.decodeResponse(response));
+                    }
+                });
+                continue;
+            }
+
+            Set<Data> keys = new LinkedHashSet<>();
+            for (PendingGet get : partitionGets) {
+                keys.add(get.key);
+            }
+            ClientMessage request = MapGetAllCodec.encodeRequest(name, keys);
+            invoke(request, partitionGets.get(0).partitionId, partitionGets).whenComplete((response, t) -> {
+                if (t == null) {
+                    Map<Data, Data> values = new HashMap<>();
+                    for (Map.Entry<Data, Data> entry : MapGetAllCodec.decodeResponse(response)) {
+                        values.put(entry.getKey(), entry.getValue());
+                    }
+                    for (PendingGet get : partitionGets) {
+                        get.future.complete(values.get(get.key));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Invokes the request failing the given gets if the invocation fails.
+     */
+    private CompletableFuture<ClientMessage> invoke(ClientMessage request, int partitionId, List<PendingGet> gets) {
+        CompletableFuture<ClientMessage> future = new ClientInvocation(client, request, name, partitionId).invoke();
+        future.whenComplete((response, t) -> {
+            if (t != null) {
+                for (PendingGet get : gets) {
+                    get.future.completeExceptionally(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    private static Map<Integer, List<PendingGet>> byPartition(List<PendingGet> gets) {
+        Map<Integer, List<PendingGet>> byPartition = new HashMap<>();
+        for (PendingGet get : gets) {
+            byPartition.computeIfAbsent(get.partitionId, x -> new ArrayList<>()).add(get);
+        }
+        return byPartition;
+    }
+
+    private static final class PendingGet {
+
+        final Data key;
+        final int partitionId;
+        final long threadId;
+        final CompletableFuture<Data> future = new CompletableFuture<>();
+
+        PendingGet(Data key, int partitionId, long threadId) {
+            this.key = key;
+            this.partitionId = partitionId;
+            this.threadId = threadId;
+        }
+    }
+}
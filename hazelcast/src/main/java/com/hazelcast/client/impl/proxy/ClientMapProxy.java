@@ -105,6 +105,7 @@ import com.hazelcast.client.map.impl.iterator.ClientMapQueryIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterable;
 import com.hazelcast.client.map.impl.iterator.ClientMapQueryPartitionIterator;
 import com.hazelcast.client.map.impl.querycache.ClientQueryCacheContext;
+import com.hazelcast.client.properties.ClientProperty;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.core.EntryEvent;
@@ -149,6 +150,7 @@ import com.hazelcast.ringbuffer.impl.ReadResultSetImpl;
 import com.hazelcast.spi.impl.InternalCompletableFuture;
 import com.hazelcast.spi.impl.UnmodifiableLazyList;
 import com.hazelcast.spi.impl.UnmodifiableLazySet;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -215,6 +217,7 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     private ClientLockReferenceIdGenerator lockReferenceIdGenerator;
     private ClientQueryCacheContext queryCacheContext;
+    private ClientMapOperationCoalescer coalescer;
     private boolean useDefaultReplaceAllOperation;
 
     public ClientMapProxy(String serviceName, String name, ClientContext context) {
@@ -227,6 +230,14 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
         lockReferenceIdGenerator = getClient().getLockReferenceIdGenerator();
         queryCacheContext = getContext().getQueryCacheContext();
+
+        HazelcastProperties properties = getClient().getProperties();
+        if (properties.getBoolean(ClientProperty.MAP_OPERATION_COALESCING_ENABLED)) {
+            long windowNanos = properties.getNanos(ClientProperty.MAP_OPERATION_COALESCING_WINDOW_MICROS);
+            int maxBatchSize = properties.getInteger(ClientProperty.MAP_OPERATION_COALESCING_MAX_BATCH_SIZE);
+            coalescer = new ClientMapOperationCoalescer(getClient(), name, windowNanos, maxBatchSize,
+                    ConcurrencyUtil.getDefaultAsyncExecutor());
+        }
     }
 
     @Override
@@ -262,6 +273,9 @@ public class ClientMapProxy<K, V> extends ClientProxy
 
     protected Object getInternal(Object key) {
         Data keyData = toData(key);
+        if (coalescer != null) {
+            return coalescer.get(keyData, getThreadId());
+        }
         ClientMessage request = MapGetCodec.encodeRequest(name, keyData, getThreadId());
         ClientMessage response = invoke(request, keyData);
         return MapGetCodec.decodeResponse(response);
@@ -21,6 +21,7 @@ import com.hazelcast.config.MetricsJmxConfig;
 import com.hazelcast.core.IndeterminateOperationStateException;
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -339,6 +340,46 @@ public final class ClientProperty {
     public static final HazelcastProperty PARTITIONING_STRATEGY_CLASS
             = new HazelcastProperty("hazelcast.partitioning.strategy.class", "");
 
+    /**
+     * Enables coalescing of concurrent {@code IMap.get} calls. The calls
+     * arriving within the coalescing window are grouped by partition and
+     * sent as a single {@code getAll} request per partition, which reduces
+     * the number of messages and member-side operations under highly
+     * concurrent load, at the cost of the window added to the latency of
+     * the calls.
+     * <p>
+     * Writes are not coalesced, since a multi-key write would ignore the
+     * locks held by the calling thread.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_OPERATION_COALESCING_ENABLED
+            = new HazelcastProperty("hazelcast.client.map.operation.coalescing.enabled", false);
+
+    /**
+     * The time a thread flushing coalesced {@code IMap.get} calls waits for
+     * other calls to arrive. The wait ends early when {@link
+     * #MAP_OPERATION_COALESCING_MAX_BATCH_SIZE} calls are queued. If it's
+     * zero, the calls arriving while the previous batch is being sent are
+     * coalesced.
+     *
+     * @see #MAP_OPERATION_COALESCING_ENABLED
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_OPERATION_COALESCING_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.client.map.operation.coalescing.window.micros", 10, MICROSECONDS);
+
+    /**
+     * The maximum number of coalesced {@code IMap.get} calls flushed at
+     * once. A flush starts without waiting for the rest of the window as soon
+     * as that many calls are queued.
+     *
+     * @see #MAP_OPERATION_COALESCING_ENABLED
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_OPERATION_COALESCING_MAX_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.client.map.operation.coalescing.max.batch.size", 128);
+
     private ClientProperty() {
     }
 }
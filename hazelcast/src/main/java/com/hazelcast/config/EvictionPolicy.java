@@ -35,7 +35,18 @@ public enum EvictionPolicy {
     /**
      * Randomly
      */
-    RANDOM(3);
+    RANDOM(3),
+    /**
+     * Window TinyLFU: evicts the entry with the lowest access frequency
+     * estimated by a compact frequency sketch, breaking ties by recency.
+     * New entries are admitted only if they are estimated to be accessed
+     * more often than the entry they would displace, so one-hit
+     * wonders don't push the hot entries out. The estimated frequencies
+     * decay periodically to follow a changing access pattern.
+     *
+     * @since 5.4
+     */
+    W_TINY_LFU(4);
 
     private static final EvictionPolicy[] VALUES = values();
 
@@ -22,12 +22,14 @@ import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.query.impl.IndexUtils;
+import com.hazelcast.spi.annotation.Beta;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.readNullableList;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeNullableList;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
@@ -50,6 +52,9 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
     /** Default index type. */
     public static final IndexType DEFAULT_TYPE = IndexType.SORTED;
 
+    /** Default data structure of sorted indexes. */
+    public static final SortedIndexStructure DEFAULT_SORTED_INDEX_STRUCTURE = SortedIndexStructure.SKIP_LIST;
+
     /** Name of the index. */
     private String name;
 
@@ -63,6 +68,8 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
 
     private BTreeIndexConfig bTreeIndexConfig = new BTreeIndexConfig();
 
+    private SortedIndexStructure sortedIndexStructure = DEFAULT_SORTED_INDEX_STRUCTURE;
+
     public IndexConfig() {
         // No-op.
     }
@@ -97,6 +104,7 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
         this.type = other.type;
         this.bitmapIndexOptions = other.bitmapIndexOptions == null ? null : new BitmapIndexOptions(other.bitmapIndexOptions);
         this.bTreeIndexConfig = other.bTreeIndexConfig == null ? null : new BTreeIndexConfig(other.bTreeIndexConfig);
+        this.sortedIndexStructure = other.sortedIndexStructure;
 
         for (String attribute : other.getAttributes()) {
             addAttributeInternal(attribute);
@@ -243,6 +251,33 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
         return this;
     }
 
+    /**
+     * Returns the data structure of the index if it is an on-heap sorted
+     * index.
+     *
+     * @return the data structure of the sorted index.
+     * @since 5.4
+     */
+    @Beta
+    public SortedIndexStructure getSortedIndexStructure() {
+        return sortedIndexStructure;
+    }
+
+    /**
+     * Sets the data structure of the index if it is an on-heap sorted index.
+     * It is ignored by other indexes. The default is
+     * {@link SortedIndexStructure#SKIP_LIST}.
+     *
+     * @param sortedIndexStructure the data structure of the sorted index.
+     * @return this index config instance.
+     * @since 5.4
+     */
+    @Beta
+    public IndexConfig setSortedIndexStructure(SortedIndexStructure sortedIndexStructure) {
+        this.sortedIndexStructure = checkNotNull(sortedIndexStructure, "Sorted index structure cannot be null.");
+        return this;
+    }
+
     @Override
     public int getFactoryId() {
         return ConfigDataSerializerHook.F_ID;
@@ -260,6 +295,10 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
         writeNullableList(attributes, out);
         out.writeObject(bitmapIndexOptions);
         out.writeObject(bTreeIndexConfig);
+        // RU_COMPAT_5_3
+        if (out.getVersion().isGreaterOrEqual(V5_4)) {
+            out.writeString(sortedIndexStructure.name());
+        }
     }
 
     @Override
@@ -269,6 +308,10 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
         attributes = readNullableList(in);
         bitmapIndexOptions = in.readObject();
         bTreeIndexConfig = in.readObject();
+        // RU_COMPAT_5_3
+        if (in.getVersion().isGreaterOrEqual(V5_4)) {
+            sortedIndexStructure = SortedIndexStructure.valueOf(in.readString());
+        }
     }
 
     @Override
@@ -299,6 +342,10 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
             return false;
         }
 
+        if (sortedIndexStructure != that.sortedIndexStructure) {
+            return false;
+        }
+
         return getAttributes().equals(that.getAttributes());
     }
 
@@ -310,6 +357,7 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
         result = 31 * result + getAttributes().hashCode();
         result = 31 * result + getBitmapIndexOptions().hashCode();
         result = 31 * result + getBTreeIndexConfig().hashCode();
+        result = 31 * result + sortedIndexStructure.hashCode();
 
         return result;
     }
@@ -323,6 +371,9 @@ public class IndexConfig implements IdentifiedDataSerializable, Versioned {
         if (bTreeIndexConfig != null) {
             string += ", bTreeIndexConfig=" + bTreeIndexConfig;
         }
+        if (sortedIndexStructure != DEFAULT_SORTED_INDEX_STRUCTURE) {
+            string += ", sortedIndexStructure=" + sortedIndexStructure;
+        }
         return string + '}';
     }
 }
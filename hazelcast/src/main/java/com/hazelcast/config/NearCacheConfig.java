@@ -45,6 +45,11 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
      */
     public static final boolean DEFAULT_SERIALIZE_KEYS = false;
 
+    /**
+     * Default value of whether off-heap storage is enabled or not.
+     */
+    public static final boolean DEFAULT_OFF_HEAP_STORAGE_ENABLED = false;
+
     /**
      * @see LocalUpdatePolicy#INVALIDATE
      */
@@ -89,6 +94,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
 
     private boolean cacheLocalEntries;
     private boolean serializeKeys = DEFAULT_SERIALIZE_KEYS;
+    private boolean offHeapStorageEnabled = DEFAULT_OFF_HEAP_STORAGE_ENABLED;
     private boolean invalidateOnChange = DEFAULT_INVALIDATE_ON_CHANGE;
     private int timeToLiveSeconds = DEFAULT_TTL_SECONDS;
     private int maxIdleSeconds = DEFAULT_MAX_IDLE_SECONDS;
@@ -109,6 +115,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         this.name = config.name;
         this.inMemoryFormat = config.inMemoryFormat;
         this.serializeKeys = config.serializeKeys;
+        this.offHeapStorageEnabled = config.offHeapStorageEnabled;
         this.invalidateOnChange = config.invalidateOnChange;
         this.timeToLiveSeconds = config.timeToLiveSeconds;
         this.maxIdleSeconds = config.maxIdleSeconds;
@@ -185,13 +192,15 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
     /**
      * Checks if the Near Cache key is stored in serialized format or by-reference.
      *
-     * <b>NOTE:</b> When the in-memory-format is {@code NATIVE}, this method will always return {@code true}.
+     * <b>NOTE:</b> When the in-memory-format is {@code NATIVE} or off-heap storage is enabled,
+     * this method will always return {@code true}.
      *
-     * @return {@code true} if the key is stored in serialized format or in-memory-format is {@code NATIVE},
-     * {@code false} if the key is stored by-reference and in-memory-format is {@code BINARY} or {@code OBJECT}
+     * @return {@code true} if the key is stored in serialized format, in-memory-format is {@code NATIVE}
+     * or off-heap storage is enabled, {@code false} if the key is stored by-reference
+     * and in-memory-format is {@code BINARY} or {@code OBJECT}
      */
     public boolean isSerializeKeys() {
-        return serializeKeys || inMemoryFormat == InMemoryFormat.NATIVE;
+        return serializeKeys || offHeapStorageEnabled || inMemoryFormat == InMemoryFormat.NATIVE;
     }
 
     /**
@@ -208,6 +217,39 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         return this;
     }
 
+    /**
+     * Checks if off-heap storage is enabled for this Near Cache.
+     *
+     * @return {@code true} if keys, values and record metadata of this Near Cache
+     * are kept in off-heap memory, {@code false} otherwise
+     * @since 5.4
+     */
+    public boolean isOffHeapStorageEnabled() {
+        return offHeapStorageEnabled;
+    }
+
+    /**
+     * Set to enable/disable off-heap storage for this Near Cache.
+     * Its default value is {@code false}.
+     * <p>
+     * When enabled, serialized keys, values and record metadata of this
+     * Near Cache are kept in off-heap memory instead of the Java heap, so
+     * a large Near Cache does not increase the garbage collection cost of
+     * the application. Off-heap storage can only be used with
+     * {@link InMemoryFormat#BINARY} in-memory format and implies key
+     * serialization. Only the {@link MaxSizePolicy#ENTRY_COUNT} max-size
+     * policy is supported.
+     *
+     * @param offHeapStorageEnabled {@code true} to keep Near Cache
+     *                              data off-heap, {@code false} to keep it on-heap
+     * @return this Near Cache config instance
+     * @since 5.4
+     */
+    public NearCacheConfig setOffHeapStorageEnabled(boolean offHeapStorageEnabled) {
+        this.offHeapStorageEnabled = offHeapStorageEnabled;
+        return this;
+    }
+
     /**
      * Checks if Near Cache entries are invalidated when the entries in the backing data structure are changed
      * (updated or removed).
@@ -423,6 +465,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         return "NearCacheConfig{"
                 + "name=" + name
                 + ", inMemoryFormat=" + inMemoryFormat
+                + ", offHeapStorageEnabled=" + offHeapStorageEnabled
                 + ", invalidateOnChange=" + invalidateOnChange
                 + ", timeToLiveSeconds=" + timeToLiveSeconds
                 + ", maxIdleSeconds=" + maxIdleSeconds
@@ -448,6 +491,9 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         if (serializeKeys != that.serializeKeys) {
             return false;
         }
+        if (offHeapStorageEnabled != that.offHeapStorageEnabled) {
+            return false;
+        }
         if (invalidateOnChange != that.invalidateOnChange) {
             return false;
         }
@@ -481,6 +527,7 @@ public class NearCacheConfig implements IdentifiedDataSerializable, Serializable
         int result = name.hashCode();
         result = 31 * result + inMemoryFormat.hashCode();
         result = 31 * result + (serializeKeys ? 1 : 0);
+        result = 31 * result + (offHeapStorageEnabled ? 1 : 0);
         result = 31 * result + (invalidateOnChange ? 1 : 0);
         result = 31 * result + timeToLiveSeconds;
         result = 31 * result + maxIdleSeconds;
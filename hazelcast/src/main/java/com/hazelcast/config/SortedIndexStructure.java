@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.config;
+
+import com.hazelcast.spi.annotation.Beta;
+
+/**
+ * Data structure of an on-heap {@link IndexType#SORTED sorted} index.
+ *
+ * @see IndexConfig#setSortedIndexStructure(SortedIndexStructure)
+ * @since 5.4
+ */
+@Beta
+public enum SortedIndexStructure {
+    /**
+     * A concurrent skip list with a separate map of entries for every
+     * distinct attribute value.
+     */
+    SKIP_LIST,
+
+    /**
+     * A copy-on-write B+tree which keeps the attribute values and the
+     * entries in arrays. The values of integral, floating-point, date and
+     * timestamp attributes are stored as primitive {@code long}s. Uses less
+     * memory and is faster to scan than {@link #SKIP_LIST}, but an update
+     * copies a path of the tree, so it is better suited for read-mostly maps.
+     */
+    B_PLUS_TREE
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.persistence;
+
+import com.hazelcast.cp.CPMember;
+import com.hazelcast.cp.internal.RaftGroupId;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.writeFileAtomically;
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+
+/**
+ * {@link CPMetadataStore} that keeps the CP identity of the local member in
+ * the CP persistence directory. Each piece of metadata is kept in its own
+ * file which is replaced atomically.
+ */
+public class OnDiskCPMetadataStore implements CPMetadataStore {
+
+    static final String AP_MARKER_FILE_NAME = "ap-member";
+    static final String LOCAL_MEMBER_FILE_NAME = "cp-member";
+    static final String ACTIVE_MEMBERS_FILE_NAME = "active-members";
+    static final String METADATA_GROUP_ID_FILE_NAME = "metadata-group-id";
+
+    private final Path dir;
+    private final InternalSerializationService serializationService;
+
+    public OnDiskCPMetadataStore(@Nonnull File dir, @Nonnull InternalSerializationService serializationService) {
+        this.dir = dir.toPath();
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public boolean isMarkedAPMember() {
+        return Files.exists(dir.resolve(AP_MARKER_FILE_NAME));
+    }
+
+    @Override
+    public synchronized boolean tryMarkAPMember() throws IOException {
+        if (containsLocalMemberFile()) {
+            return false;
+        }
+        Files.createDirectories(dir);
+        writeFileAtomically(dir, AP_MARKER_FILE_NAME, new byte[0]);
+        return true;
+    }
+
+    @Override
+    public boolean containsLocalMemberFile() {
+        return Files.exists(dir.resolve(LOCAL_MEMBER_FILE_NAME));
+    }
+
+    @Override
+    public synchronized void persistLocalCPMember(CPMember member) throws IOException {
+        if (isMarkedAPMember()) {
+            throw new IllegalStateException("Cannot persist the local CP member " + member + " of an AP member");
+        }
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.writeObject(member);
+            write(LOCAL_MEMBER_FILE_NAME, out.toByteArray());
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    @Override
+    public CPMember readLocalCPMember() throws IOException {
+        BufferObjectDataInput in = read(LOCAL_MEMBER_FILE_NAME);
+        return in != null ? in.readObject() : null;
+    }
+
+    @Override
+    public void persistActiveCPMembers(Collection<? extends CPMember> members, long commitIndex) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.writeLong(commitIndex);
+            out.writeInt(members.size());
+            for (CPMember member : members) {
+                out.writeObject(member);
+            }
+            write(ACTIVE_MEMBERS_FILE_NAME, out.toByteArray());
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    @Override
+    public long readActiveCPMembers(Collection<CPMember> members) throws IOException {
+        BufferObjectDataInput in = read(ACTIVE_MEMBERS_FILE_NAME);
+        if (in == null) {
+            return 0;
+        }
+        long commitIndex = in.readLong();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            members.add(in.readObject());
+        }
+        return commitIndex;
+    }
+
+    @Override
+    public void persistMetadataGroupId(RaftGroupId groupId) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.writeObject(groupId);
+            write(METADATA_GROUP_ID_FILE_NAME, out.toByteArray());
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    @Override
+    public RaftGroupId readMetadataGroupId() throws IOException {
+        BufferObjectDataInput in = read(METADATA_GROUP_ID_FILE_NAME);
+        return in != null ? in.readObject() : null;
+    }
+
+    private void write(String fileName, byte[] bytes) throws IOException {
+        Files.createDirectories(dir);
+        writeFileAtomically(dir, fileName, bytes);
+    }
+
+    private BufferObjectDataInput read(String fileName) throws IOException {
+        Path file = dir.resolve(fileName);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        return serializationService.createObjectDataInput(Files.readAllBytes(file));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.persistence;
+
+import com.hazelcast.cp.CPMember;
+import com.hazelcast.cp.internal.CPMemberInfo;
+import com.hazelcast.cp.internal.MetadataRaftGroupManager;
+import com.hazelcast.cp.internal.RaftGroupId;
+import com.hazelcast.cp.internal.RaftService;
+import com.hazelcast.cp.internal.raft.impl.persistence.LogFileStructure;
+import com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateLoader;
+import com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore;
+import com.hazelcast.cp.internal.raft.impl.persistence.RaftStateStore;
+import com.hazelcast.cp.internal.raft.impl.persistence.RestoredRaftState;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.logging.ILogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.writeFileAtomically;
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.delete;
+
+/**
+ * {@link CPPersistenceService} that keeps the CP state of the local member
+ * in the configured base directory. The CP identity of the member is kept
+ * by an {@link OnDiskCPMetadataStore}, and the Raft state of each CP group
+ * by an {@link OnDiskRaftStateStore} in a directory of the group.
+ * <p>
+ * The state is read back by {@link #restore(RaftService)} before the member
+ * joins the cluster.
+ */
+public class OnDiskCPPersistenceService implements CPPersistenceService {
+
+    static final String GROUP_DIR_PREFIX = "group-";
+    static final String GROUP_ID_FILE_NAME = "group-id";
+
+    private final File baseDir;
+    private final InternalSerializationService serializationService;
+    private final ILogger logger;
+    private final OnDiskCPMetadataStore metadataStore;
+
+    public OnDiskCPPersistenceService(@Nonnull File baseDir, @Nonnull InternalSerializationService serializationService,
+                                      @Nonnull ILogger logger) {
+        this.baseDir = baseDir;
+        this.serializationService = serializationService;
+        this.logger = logger;
+        this.metadataStore = new OnDiskCPMetadataStore(baseDir, serializationService);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public CPMetadataStore getCPMetadataStore() {
+        return metadataStore;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The log file structure is ignored, the store finds its log segments
+     * by itself.
+     */
+    @Override
+    public RaftStateStore createRaftStateStore(@Nonnull RaftGroupId groupId, @Nullable LogFileStructure logFileStructure) {
+        File groupDir = groupDir(groupId);
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            Files.createDirectories(groupDir.toPath());
+            out.writeObject(groupId);
+            writeFileAtomically(groupDir.toPath(), GROUP_ID_FILE_NAME, out.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the Raft state store of " + groupId, e);
+        } finally {
+            closeResource(out);
+        }
+        return new OnDiskRaftStateStore(groupDir, serializationService);
+    }
+
+    @Override
+    public void removeRaftStateStore(@Nonnull RaftGroupId groupId) {
+        File groupDir = groupDir(groupId);
+        if (groupDir.exists()) {
+            delete(groupDir);
+        }
+    }
+
+    @Override
+    public void reset() {
+        if (baseDir.exists()) {
+            delete(baseDir);
+        }
+    }
+
+    /**
+     * Restores the CP identity of the local member and the Raft nodes of its
+     * CP groups. Does nothing if the local member hasn't persisted a CP
+     * identity, i.e. it starts from scratch or it is an AP member.
+     *
+     * @param raftService the service to restore the CP state into
+     * @throws IOException if reading the persisted state fails
+     */
+    public void restore(RaftService raftService) throws IOException {
+        CPMember localMember = metadataStore.readLocalCPMember();
+        if (localMember == null) {
+            return;
+        }
+
+        MetadataRaftGroupManager metadataGroupManager = raftService.getMetadataGroupManager();
+        RaftGroupId metadataGroupId = metadataStore.readMetadataGroupId();
+        if (metadataGroupId != null) {
+            metadataGroupManager.restoreMetadataGroupId(metadataGroupId);
+        }
+        metadataGroupManager.restoreLocalCPMember((CPMemberInfo) localMember);
+
+        List<CPMember> activeMembers = new ArrayList<>();
+        long activeMembersCommitIndex = metadataStore.readActiveCPMembers(activeMembers);
+        if (!activeMembers.isEmpty()) {
+            raftService.updateInvocationManagerMembers(metadataGroupManager.getMetadataGroupId().getSeed(),
+                    activeMembersCommitIndex, activeMembers);
+        }
+
+        File[] groupDirs = baseDir.listFiles(file -> file.isDirectory() && file.getName().startsWith(GROUP_DIR_PREFIX));
+        if (groupDirs == null) {
+            throw new IOException("Could not list files in " + baseDir);
+        }
+        for (File groupDir : groupDirs) {
+            Path groupIdFile = groupDir.toPath().resolve(GROUP_ID_FILE_NAME);
+            RaftGroupId groupId = serializationService.createObjectDataInput(Files.readAllBytes(groupIdFile)).readObject();
+            RestoredRaftState state = new OnDiskRaftStateLoader(groupDir, serializationService).load();
+            raftService.restoreRaftNode(groupId, state, null);
+        }
+        logger.info("Restored local CP member " + localMember + " with " + groupDirs.length + " CP groups from " + baseDir);
+    }
+
+    private File groupDir(RaftGroupId groupId) {
+        return new File(baseDir, GROUP_DIR_PREFIX + groupId.getSeed() + '-' + groupId.getId());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
+import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
+import com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.SegmentFile;
+import com.hazelcast.internal.nio.BufferObjectDataInput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.DELETE_RECORD;
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.ENTRY_RECORD;
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.MEMBERS_FILE_NAME;
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.RECORD_HEADER_LENGTH;
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.SNAPSHOT_FILE_NAME;
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.TERM_FILE_NAME;
+
+/**
+ * Restores the Raft state written by an {@link OnDiskRaftStateStore}.
+ * <p>
+ * The segments are replayed in the order they were created. An appended
+ * entry replaces all entries with the same or a higher index, and a delete
+ * record removes all entries from its index on. A record that was only
+ * partially written before a crash (i.e. it is cut short or its checksum
+ * doesn't match) ends the replay of its segment, since it cannot have been
+ * acknowledged by a successful {@link RaftStateStore#flushLogs()}.
+ */
+public class OnDiskRaftStateLoader implements RaftStateLoader {
+
+    private final Path dir;
+    private final InternalSerializationService serializationService;
+
+    public OnDiskRaftStateLoader(@Nonnull File dir, @Nonnull InternalSerializationService serializationService) {
+        this.dir = dir.toPath();
+        this.serializationService = serializationService;
+    }
+
+    @Nonnull
+    @Override
+    public RestoredRaftState load() throws IOException {
+        Path membersFile = dir.resolve(MEMBERS_FILE_NAME);
+        if (!Files.exists(membersFile)) {
+            throw new IOException("No persisted Raft state found in " + dir);
+        }
+
+        BufferObjectDataInput in = serializationService.createObjectDataInput(Files.readAllBytes(membersFile));
+        RaftEndpoint localEndpoint = in.readObject();
+        int memberCount = in.readInt();
+        List<RaftEndpoint> initialMembers = new ArrayList<>(memberCount);
+        for (int i = 0; i < memberCount; i++) {
+            initialMembers.add(in.readObject());
+        }
+
+        int term = 0;
+        RaftEndpoint votedFor = null;
+        Path termFile = dir.resolve(TERM_FILE_NAME);
+        if (Files.exists(termFile)) {
+            in = serializationService.createObjectDataInput(Files.readAllBytes(termFile));
+            term = in.readInt();
+            votedFor = in.readObject();
+        }
+
+        SnapshotEntry snapshot = null;
+        Path snapshotFile = dir.resolve(SNAPSHOT_FILE_NAME);
+        if (Files.exists(snapshotFile)) {
+            snapshot = deserialize(Files.readAllBytes(snapshotFile));
+        }
+
+        List<LogEntry> entries = new ArrayList<>();
+        for (SegmentFile segment : SegmentFile.list(dir.toFile())) {
+            replay(segment.path, entries);
+        }
+
+        long snapshotIndex = snapshot != null ? snapshot.index() : 0;
+        int firstTailEntry = 0;
+        while (firstTailEntry < entries.size() && entries.get(firstTailEntry).index() <= snapshotIndex) {
+            firstTailEntry++;
+        }
+        LogEntry[] tailEntries = entries.subList(firstTailEntry, entries.size()).toArray(new LogEntry[0]);
+
+        return new RestoredRaftState(localEndpoint, initialMembers, term, votedFor, snapshot, tailEntries);
+    }
+
+    private void replay(Path segment, List<LogEntry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return;
+            }
+
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+
+            byte type = buffer.get();
+            byte[] body = new byte[length - Byte.BYTES];
+            buffer.get(body);
+            if (type == ENTRY_RECORD) {
+                LogEntry entry = deserialize(body);
+                truncate(entries, entry.index());
+                entries.add(entry);
+            } else if (type == DELETE_RECORD) {
+                truncate(entries, ByteBuffer.wrap(body).getLong());
+            } else {
+                throw new IOException("Unknown record type " + type + " in " + segment);
+            }
+        }
+    }
+
+    private static void truncate(List<LogEntry> entries, long fromIndexInclusive) {
+        while (!entries.isEmpty() && entries.get(entries.size() - 1).index() >= fromIndexInclusive) {
+            entries.remove(entries.size() - 1);
+        }
+    }
+
+    private <T> T deserialize(byte[] bytes) throws IOException {
+        return serializationService.createObjectDataInput(bytes).readObject();
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
+import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
+import com.hazelcast.internal.nio.BufferObjectDataOutput;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.internal.nio.IOUtil.fsyncDir;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * {@link RaftStateStore} that persists the Raft state of a single Raft group
+ * into a directory.
+ * <p>
+ * Log entries are appended to segment files. Appends and deletes are only
+ * buffered in memory, and {@link #flushLogs()} writes the buffer with a
+ * single write and a single fsync. Because Raft flushes the log once per
+ * batch of appended entries, the cost of an fsync is amortized over all
+ * entries of the batch. A segment is rolled when it grows beyond the
+ * configured size or when an appended entry does not follow the previous
+ * one (i.e., a snapshot was installed in between). After a snapshot is
+ * flushed, the segments that only contain entries covered by the snapshot
+ * are deleted.
+ * <p>
+ * The initial members, the term and the snapshot are small and rarely
+ * written. Each of them is kept in its own file which is replaced atomically:
+ * the new content is written and synced to a temporary file, which is then
+ * renamed over the old one, and finally the directory is synced.
+ * <p>
+ * A segment file is a sequence of records of the following layout:
+ * <pre>
+ *   int  length of the payload
+ *   int  CRC32 of the payload
+ *   byte record type; either {@link #ENTRY_RECORD} or {@link #DELETE_RECORD}
+ *   ...  the serialized {@link LogEntry}, or the {@code long} index to delete from
+ * </pre>
+ * A segment is named after a sequence number and the index of its first
+ * record. Raft guarantees that the valid entries of a segment all have a
+ * smaller index than the first record of the next segment.
+ * <p>
+ * The store is used only by the thread of the Raft node that owns it, so
+ * it is not thread-safe.
+ *
+ * @see OnDiskRaftStateLoader
+ */
+public class OnDiskRaftStateStore implements RaftStateStore {
+
+    /**
+     * Default maximum size of a log segment file in bytes.
+     */
+    public static final int DEFAULT_MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    static final String MEMBERS_FILE_NAME = "members";
+    static final String TERM_FILE_NAME = "term";
+    static final String SNAPSHOT_FILE_NAME = "snapshot";
+    static final String SEGMENT_FILE_PREFIX = "raftlog-";
+    static final String SEGMENT_FILE_SUFFIX = ".log";
+    static final String TMP_FILE_SUFFIX = ".tmp";
+    static final byte ENTRY_RECORD = 1;
+    static final byte DELETE_RECORD = 2;
+    static final int RECORD_HEADER_LENGTH = Integer.BYTES + Integer.BYTES;
+
+    private static final int INITIAL_WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path dir;
+    private final InternalSerializationService serializationService;
+    private final int maxSegmentSize;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_WRITE_BUFFER_SIZE);
+    private FileChannel channel;
+    private long segmentSize;
+    private long nextSegmentSequence;
+    private long lastIndex;
+    private long snapshotIndex;
+    private byte[] pendingSnapshot;
+    private long pendingSnapshotIndex;
+
+    public OnDiskRaftStateStore(@Nonnull File dir, @Nonnull InternalSerializationService serializationService) {
+        this(dir, serializationService, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    public OnDiskRaftStateStore(@Nonnull File dir, @Nonnull InternalSerializationService serializationService,
+                                int maxSegmentSize) {
+        this.dir = dir.toPath();
+        this.serializationService = serializationService;
+        this.maxSegmentSize = checkPositive("maxSegmentSize", maxSegmentSize);
+    }
+
+    /**
+     * Creates the directory if it doesn't exist yet and picks up the segments
+     * which were written before a restart, so that they can be deleted once
+     * a new snapshot covers them. New log entries are always appended to a
+     * new segment.
+     */
+    @Override
+    public void open() throws IOException {
+        Files.createDirectories(dir);
+        for (SegmentFile file : SegmentFile.list(dir.toFile())) {
+            segments.add(new Segment(file.path, file.firstIndex));
+            nextSegmentSequence = file.sequence + 1;
+        }
+    }
+
+    @Override
+    public void persistInitialMembers(@Nonnull RaftEndpoint localMember, @Nonnull Collection<RaftEndpoint> initialMembers)
+            throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.writeObject(localMember);
+            out.writeInt(initialMembers.size());
+            for (RaftEndpoint member : initialMembers) {
+                out.writeObject(member);
+            }
+            writeFileAtomically(dir, MEMBERS_FILE_NAME, out.toByteArray());
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    @Override
+    public void persistTerm(int term, @Nullable RaftEndpoint votedFor) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.writeInt(term);
+            out.writeObject(votedFor);
+            writeFileAtomically(dir, TERM_FILE_NAME, out.toByteArray());
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    @Override
+    public void persistEntry(@Nonnull LogEntry entry) throws IOException {
+        if (channel == null || segmentSize >= maxSegmentSize || entry.index() != lastIndex + 1) {
+            rollSegment(entry.index());
+        }
+
+        byte[] payload = serialize(entry);
+        appendRecord(ENTRY_RECORD, payload);
+        lastIndex = entry.index();
+    }
+
+    @Override
+    public void persistSnapshot(@Nonnull SnapshotEntry entry) throws IOException {
+        // the snapshot is written in flushLogs() after the entries it may
+        // depend on; until then only the newest one needs to be kept.
+        pendingSnapshot = serialize(entry);
+        pendingSnapshotIndex = entry.index();
+    }
+
+    @Override
+    public void deleteEntriesFrom(long startIndexInclusive) throws IOException {
+        if (channel == null) {
+            rollSegment(startIndexInclusive);
+        }
+
+        byte[] payload = new byte[Long.BYTES];
+        ByteBuffer.wrap(payload).putLong(startIndexInclusive);
+        appendRecord(DELETE_RECORD, payload);
+        lastIndex = startIndexInclusive - 1;
+    }
+
+    @Override
+    public void flushLogs() throws IOException {
+        if (channel != null) {
+            writeBufferedRecords();
+            channel.force(false);
+        }
+
+        if (pendingSnapshot != null) {
+            writeFileAtomically(dir, SNAPSHOT_FILE_NAME, pendingSnapshot);
+            snapshotIndex = pendingSnapshotIndex;
+            pendingSnapshot = null;
+        }
+
+        deleteCoveredSegments();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            try {
+                flushLogs();
+            } finally {
+                closeResource(channel);
+                channel = null;
+            }
+        }
+    }
+
+    private byte[] serialize(Object object) throws IOException {
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput();
+        try {
+            out.writeObject(object);
+            return out.toByteArray();
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    private void appendRecord(byte type, byte[] body) {
+        crc.reset();
+        crc.update(type);
+        crc.update(body);
+
+        int recordLength = RECORD_HEADER_LENGTH + Byte.BYTES + body.length;
+        ensureWriteBufferCapacity(recordLength);
+        writeBuffer.putInt(Byte.BYTES + body.length)
+                   .putInt((int) crc.getValue())
+                   .put(type)
+                   .put(body);
+        segmentSize += recordLength;
+    }
+
+    private void ensureWriteBufferCapacity(int length) {
+        if (writeBuffer.remaining() >= length) {
+            return;
+        }
+
+        int newCapacity = writeBuffer.capacity();
+        while (newCapacity - writeBuffer.position() < length) {
+            newCapacity <<= 1;
+        }
+        ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+        writeBuffer.flip();
+        newBuffer.put(writeBuffer);
+        writeBuffer = newBuffer;
+    }
+
+    private void writeBufferedRecords() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private void rollSegment(long firstIndex) throws IOException {
+        if (channel != null) {
+            writeBufferedRecords();
+            channel.force(false);
+            closeResource(channel);
+        }
+
+        Path path = dir.resolve(SegmentFile.name(nextSegmentSequence++, firstIndex));
+        channel = FileChannel.open(path, CREATE_NEW, WRITE);
+        // the new segment must not get lost with its directory entry
+        fsyncDir(dir);
+        segments.add(new Segment(path, firstIndex));
+        segmentSize = 0;
+    }
+
+    /**
+     * Deletes the oldest segments as long as the entries they contain are
+     * covered by the persisted snapshot. The current segment is never deleted.
+     */
+    private void deleteCoveredSegments() {
+        while (segments.size() > 1) {
+            Segment oldest = segments.pollFirst();
+            Segment next = segments.peekFirst();
+            if (next.firstIndex - 1 > snapshotIndex) {
+                segments.addFirst(oldest);
+                return;
+            }
+            delete(oldest.path);
+        }
+    }
+
+    /**
+     * Replaces the content of the given file in the given directory, so that
+     * after a crash the file either has its old or its new content.
+     *
+     * @param dir      the directory of the file
+     * @param fileName the name of the file
+     * @param bytes    the new content of the file
+     * @throws IOException if writing or syncing the file fails
+     */
+    public static void writeFileAtomically(Path dir, String fileName, byte[] bytes) throws IOException {
+        Path tmp = dir.resolve(fileName + TMP_FILE_SUFFIX);
+        try (FileChannel tmpChannel = FileChannel.open(tmp, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                tmpChannel.write(buffer);
+            }
+            tmpChannel.force(true);
+        }
+        Files.move(tmp, dir.resolve(fileName), ATOMIC_MOVE, REPLACE_EXISTING);
+        // the rename is only durable once the directory itself is synced
+        fsyncDir(dir);
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstIndex;
+
+        Segment(Path path, long firstIndex) {
+            this.path = path;
+            this.firstIndex = firstIndex;
+        }
+    }
+
+    /**
+     * Name and ordering of the segment files in a store directory.
+     */
+    static final class SegmentFile implements Comparable<SegmentFile> {
+        final Path path;
+        final long sequence;
+        final long firstIndex;
+
+        private SegmentFile(Path path, long sequence, long firstIndex) {
+            this.path = path;
+            this.sequence = sequence;
+            this.firstIndex = firstIndex;
+        }
+
+        static String name(long sequence, long firstIndex) {
+            return SEGMENT_FILE_PREFIX + sequence + '-' + firstIndex + SEGMENT_FILE_SUFFIX;
+        }
+
+        /**
+         * Returns the segment files in the given directory, in the order
+         * they were created.
+         */
+        static List<SegmentFile> list(File dir) throws IOException {
+            List<SegmentFile> files = new ArrayList<>();
+            File[] candidates = dir.listFiles();
+            if (candidates == null) {
+                throw new IOException("Could not list files in " + dir);
+            }
+            for (File file : candidates) {
+                String name = file.getName();
+                if (!name.startsWith(SEGMENT_FILE_PREFIX) || !name.endsWith(SEGMENT_FILE_SUFFIX)) {
+                    continue;
+                }
+                String[] parts = name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_SUFFIX.length())
+                                     .split("-");
+                if (parts.length != 2) {
+                    throw new IOException("Unrecognized Raft log segment file: " + file);
+                }
+                try {
+                    files.add(new SegmentFile(file.toPath(), Long.parseLong(parts[0]), Long.parseLong(parts[1])));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Unrecognized Raft log segment file: " + file, e);
+                }
+            }
+            files.sort(null);
+            return files;
+        }
+
+        @Override
+        public int compareTo(SegmentFile other) {
+            return Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SegmentFile && ((SegmentFile) o).sequence == sequence;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(sequence);
+        }
+    }
+}
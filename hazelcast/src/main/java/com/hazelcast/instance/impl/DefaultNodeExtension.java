@@ -33,13 +33,15 @@ import com.hazelcast.config.SSLConfig;
 import com.hazelcast.config.SecurityConfig;
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.config.SymmetricEncryptionConfig;
-import com.hazelcast.config.cp.CPSubsystemConfig;
+import com.hazelcast.core.HazelcastException;
 import com.hazelcast.core.HazelcastInstanceAware;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.cp.CPSubsystem;
 import com.hazelcast.cp.internal.CPSubsystemImpl;
+import com.hazelcast.cp.internal.RaftService;
 import com.hazelcast.cp.internal.persistence.CPPersistenceService;
 import com.hazelcast.cp.internal.persistence.NopCPPersistenceService;
+import com.hazelcast.cp.internal.persistence.OnDiskCPPersistenceService;
 import com.hazelcast.hotrestart.HotRestartService;
 import com.hazelcast.instance.BuildInfo;
 import com.hazelcast.instance.BuildInfoProvider;
@@ -85,6 +87,7 @@ import com.hazelcast.internal.networking.ChannelInitializer;
 import com.hazelcast.internal.networking.InboundHandler;
 import com.hazelcast.internal.networking.OutboundHandler;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -92,6 +95,9 @@ import com.hazelcast.internal.serialization.impl.compact.schema.MemberSchemaServ
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.server.ServerContext;
 import com.hazelcast.internal.server.tcp.ChannelInitializerFunction;
+import com.hazelcast.internal.server.tcp.FrameCompressionDecoder;
+import com.hazelcast.internal.server.tcp.FrameCompressionEncoder;
+import com.hazelcast.internal.server.tcp.FrameCompressionStats;
 import com.hazelcast.internal.server.tcp.PacketDecoder;
 import com.hazelcast.internal.server.tcp.PacketEncoder;
 import com.hazelcast.internal.util.ConstructorFunction;
@@ -121,6 +127,8 @@ import com.hazelcast.wan.impl.WanReplicationService;
 import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 
 import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -136,6 +144,7 @@ import static com.hazelcast.config.InstanceTrackingConfig.InstanceTrackingProper
 import static com.hazelcast.config.InstanceTrackingConfig.InstanceTrackingProperties.START_TIMESTAMP;
 import static com.hazelcast.config.InstanceTrackingConfig.InstanceTrackingProperties.VERSION;
 import static com.hazelcast.instance.impl.Node.getLegacyUCDClassLoader;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_PREFIX_COMPRESSION;
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.InstanceTrackingUtil.writeInstanceTrackingFile;
 import static com.hazelcast.jet.impl.util.Util.JET_IS_DISABLED_MESSAGE;
@@ -163,6 +172,9 @@ public class DefaultNodeExtension implements NodeExtension {
     protected IntegrityChecker integrityChecker;
 
     private final MemoryStats memoryStats = new DefaultMemoryStats();
+    private final FrameCompressionStats frameCompressionStats;
+    private final PacketPayloadPool packetPayloadPool;
+    private volatile OnDiskCPPersistenceService cpPersistenceService;
 
     public DefaultNodeExtension(Node node) {
         this.node = node;
@@ -181,6 +193,10 @@ public class DefaultNodeExtension implements NodeExtension {
         }
 
         integrityChecker = new IntegrityChecker(node.getConfig().getIntegrityCheckerConfig(), this.systemLogger);
+        frameCompressionStats = node.getProperties().getBoolean(ClusterProperty.NETWORK_COMPRESSION_ENABLED)
+                ? new FrameCompressionStats() : null;
+        packetPayloadPool = node.getProperties().getBoolean(ClusterProperty.NETWORK_PACKET_PAYLOAD_POOLING_ENABLED)
+                ? new PacketPayloadPool() : null;
     }
 
     private void checkPersistenceAllowed() {
@@ -191,12 +207,6 @@ public class DefaultNodeExtension implements NodeExtension {
             }
         }
 
-        CPSubsystemConfig cpSubsystemConfig = node.getConfig().getCPSubsystemConfig();
-        if (cpSubsystemConfig != null && cpSubsystemConfig.isPersistenceEnabled()) {
-            if (!BuildInfoProvider.getBuildInfo().isEnterprise()) {
-                throw new IllegalStateException("CP persistence requires Hazelcast Enterprise Edition");
-            }
-        }
     }
 
     private void checkSecurityAllowed() {
@@ -331,6 +341,11 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public void afterStart() {
+        MapService mapService = node.getNodeEngine().getService(MapService.SERVICE_NAME);
+        mapService.getMapServiceContext().getMapPersistenceService().restore();
+        if (frameCompressionStats != null) {
+            node.nodeEngine.getMetricsRegistry().registerStaticMetrics(frameCompressionStats, TCP_PREFIX_COMPRESSION);
+        }
         if (jetServiceBackend != null) {
             jetServiceBackend.startScanningForJobs();
         }
@@ -473,13 +488,19 @@ public class DefaultNodeExtension implements NodeExtension {
     public InboundHandler[] createInboundHandlers(EndpointQualifier qualifier,
                                                   ServerConnection connection, ServerContext serverContext) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher());
+        PacketDecoder decoder = new PacketDecoder(connection, nodeEngine.getPacketDispatcher(), packetPayloadPool);
+        if (frameCompressionStats != null) {
+            return new InboundHandler[]{new FrameCompressionDecoder(frameCompressionStats), decoder};
+        }
         return new InboundHandler[]{decoder};
     }
 
     @Override
     public OutboundHandler[] createOutboundHandlers(EndpointQualifier qualifier,
                                                     ServerConnection connection, ServerContext serverContext) {
+        if (frameCompressionStats != null) {
+            return new OutboundHandler[]{new PacketEncoder(), new FrameCompressionEncoder(frameCompressionStats)};
+        }
         return new OutboundHandler[]{new PacketEncoder()};
     }
 
@@ -674,7 +695,44 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public CPPersistenceService getCPPersistenceService() {
-        return NopCPPersistenceService.INSTANCE;
+        if (!node.getConfig().getCPSubsystemConfig().isPersistenceEnabled()) {
+            return NopCPPersistenceService.INSTANCE;
+        }
+
+        // created lazily, since the serialization service doesn't exist yet
+        // when this extension is created
+        OnDiskCPPersistenceService service = cpPersistenceService;
+        if (service == null) {
+            synchronized (this) {
+                service = cpPersistenceService;
+                if (service == null) {
+                    File baseDir = node.getConfig().getCPSubsystemConfig().getBaseDir();
+                    service = new OnDiskCPPersistenceService(baseDir, node.getSerializationService(),
+                            node.getLogger(OnDiskCPPersistenceService.class));
+                    cpPersistenceService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    @Override
+    public void beforeJoin() {
+        if (!getCPPersistenceService().isEnabled()) {
+            return;
+        }
+
+        // the CP state must be restored before this member joins the cluster,
+        // because the CP identity and the Raft nodes can only be restored
+        // while the start of the member isn't completed
+        RaftService raftService = node.getNodeEngine().getService(RaftService.SERVICE_NAME);
+        if (raftService.isCpSubsystemEnabled()) {
+            try {
+                cpPersistenceService.restore(raftService);
+            } catch (IOException e) {
+                throw new HazelcastException("Could not restore the CP state", e);
+            }
+        }
     }
 
     @Override
@@ -29,7 +29,9 @@ import static com.hazelcast.config.EvictionPolicy.LFU;
 import static com.hazelcast.config.EvictionPolicy.LRU;
 import static com.hazelcast.config.EvictionPolicy.NONE;
 import static com.hazelcast.config.EvictionPolicy.RANDOM;
+import static com.hazelcast.config.EvictionPolicy.W_TINY_LFU;
 import com.hazelcast.config.InMemoryFormat;
+import static com.hazelcast.config.InMemoryFormat.BINARY;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.IndexType;
@@ -92,13 +94,13 @@ import java.util.Set;
 @SuppressWarnings({"checkstyle:classfanoutcomplexity", "checkstyle:methodcount"})
 public final class ConfigValidator {
 
-    public static final Set<EvictionPolicy> COMMONLY_SUPPORTED_EVICTION_POLICIES = EnumSet.of(LRU, LFU);
+    public static final Set<EvictionPolicy> COMMONLY_SUPPORTED_EVICTION_POLICIES = EnumSet.of(LRU, LFU, W_TINY_LFU);
 
     private static final Set<MaxSizePolicy> NEAR_CACHE_SUPPORTED_ON_HEAP_MAX_SIZE_POLICIES
             = EnumSet.of(MaxSizePolicy.ENTRY_COUNT);
 
     private static final Set<EvictionPolicy> MAP_SUPPORTED_EVICTION_POLICIES
-            = EnumSet.of(LRU, LFU, RANDOM, NONE);
+            = EnumSet.of(LRU, LFU, RANDOM, NONE, W_TINY_LFU);
 
     private static final Set<MaxSizePolicy> MAP_SUPPORTED_NATIVE_MAX_SIZE_POLICIES
             = EnumSet.of(PER_NODE, PER_PARTITION, USED_NATIVE_MEMORY_PERCENTAGE,
@@ -130,6 +132,7 @@ public final class ConfigValidator {
         checkNotNativeWhenOpenSource(mapConfig.getInMemoryFormat());
         checkNotBitmapIndexWhenNativeMemory(mapConfig.getInMemoryFormat(), mapConfig.getIndexConfigs());
         checkTSEnabledOnEnterpriseJar(mapConfig.getTieredStoreConfig());
+        checkOffHeapStorageConfig(mapConfig);
 
         if (getBuildInfo().isEnterprise()) {
             checkMapNativeConfig(mapConfig, config.getNativeMemoryConfig());
@@ -370,6 +373,7 @@ public final class ConfigValidator {
         checkNearCacheEvictionConfig(evictionConfig.getEvictionPolicy(),
                 evictionConfig.getComparatorClassName(), evictionConfig.getComparator());
         checkOnHeapNearCacheMaxSizePolicy(nearCacheConfig);
+        checkNearCacheOffHeapStorageConfig(nearCacheConfig);
         checkNearCacheNativeMemoryConfig(nearCacheConfig.getInMemoryFormat(),
                 nativeMemoryConfig, getBuildInfo().isEnterprise());
 
@@ -436,6 +440,20 @@ public final class ConfigValidator {
         }
     }
 
+    /**
+     * Throws {@link InvalidConfigurationException} if off-heap storage is enabled
+     * for a Near Cache which is not in {@link InMemoryFormat#BINARY} format.
+     *
+     * @param nearCacheConfig supplied nearCacheConfig
+     */
+    private static void checkNearCacheOffHeapStorageConfig(NearCacheConfig nearCacheConfig) {
+        if (nearCacheConfig.isOffHeapStorageEnabled() && nearCacheConfig.getInMemoryFormat() != BINARY) {
+            throw new InvalidConfigurationException(format("Off-heap storage can only be used with BINARY"
+                    + " in-memory-format but found [%s] for the Near Cache [%s]",
+                    nearCacheConfig.getInMemoryFormat(), nearCacheConfig.getName()));
+        }
+    }
+
     /**
      * Checks precondition to use {@link InMemoryFormat#NATIVE}.
      *
@@ -704,6 +722,28 @@ public final class ConfigValidator {
         }
     }
 
+    /**
+     * Throws {@link InvalidConfigurationException} if off-heap storage is enabled
+     * for a map which is not in {@link InMemoryFormat#BINARY} format or which
+     * is configured for tiered storage.
+     *
+     * @param mapConfig supplied mapConfig
+     */
+    private static void checkOffHeapStorageConfig(MapConfig mapConfig) {
+        if (!mapConfig.isOffHeapStorageEnabled()) {
+            return;
+        }
+        if (mapConfig.getInMemoryFormat() != BINARY) {
+            throw new InvalidConfigurationException(format("Off-heap storage can only be used with BINARY"
+                    + " in-memory-format but found [%s] for the map [%s]", mapConfig.getInMemoryFormat(), mapConfig.getName()));
+        }
+        if (mapConfig.getTieredStoreConfig().isEnabled()) {
+            throw new InvalidConfigurationException(format("Map '%s' is configured for tiered storage, but off-heap"
+                    + " storage is also enabled. Tiered store and off-heap storage are mutually exclusive features.",
+                    mapConfig.getName()));
+        }
+    }
+
     /**
      * Throws {@link InvalidConfigurationException} if the given {@link InMemoryFormat}
      * is {@link InMemoryFormat#NATIVE} and index configurations include {@link IndexType#BITMAP}.
@@ -19,6 +19,7 @@ package com.hazelcast.internal.config;
 import com.hazelcast.config.BTreeIndexConfig;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.IndexType;
+import com.hazelcast.config.SortedIndexStructure;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -65,4 +66,9 @@ public class IndexConfigReadOnly extends IndexConfig {
     public BTreeIndexConfig getBTreeIndexConfig() {
         return new BTreeIndexConfigReadOnly(super.getBTreeIndexConfig());
     }
+
+    @Override
+    public IndexConfig setSortedIndexStructure(SortedIndexStructure sortedIndexStructure) {
+        throw new UnsupportedOperationException("This config is read-only");
+    }
 }
@@ -334,6 +334,11 @@ public class MapConfigReadOnly extends MapConfig {
         throw throwReadOnly();
     }
 
+    @Override
+    public MapConfig setOffHeapStorageEnabled(boolean offHeapStorageEnabled) {
+        throw throwReadOnly();
+    }
+
     @Override
     public MapConfig setReadBackupData(boolean readBackupData) {
         throw throwReadOnly();
@@ -1990,6 +1990,8 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
                 mapConfig.setStatisticsEnabled(getBooleanValue(getTextContent(node)));
             } else if (matches("per-entry-stats-enabled", nodeName)) {
                 mapConfig.setPerEntryStatsEnabled(getBooleanValue(getTextContent(node)));
+            } else if (matches("off-heap-storage-enabled", nodeName)) {
+                mapConfig.setOffHeapStorageEnabled(getBooleanValue(getTextContent(node)));
             } else if (matches("cache-deserialized-values", nodeName)) {
                 CacheDeserializedValues cacheDeserializedValues = CacheDeserializedValues
                         .parseString(getTextContent(node));
@@ -2040,6 +2042,8 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
             } else if (matches("serialize-keys", nodeName)) {
                 serializeKeys = Boolean.parseBoolean(getTextContent(child));
                 nearCacheConfig.setSerializeKeys(serializeKeys);
+            } else if (matches("off-heap-storage-enabled", nodeName)) {
+                nearCacheConfig.setOffHeapStorageEnabled(Boolean.parseBoolean(getTextContent(child)));
             } else if (matches("invalidate-on-change", nodeName)) {
                 nearCacheConfig.setInvalidateOnChange(Boolean.parseBoolean(getTextContent(child)));
             } else if (matches("cache-local-entries", nodeName)) {
@@ -3378,6 +3382,8 @@ public class MemberDomConfigProcessor extends AbstractDomConfigProcessor {
             } else if (matches("receive-window-multiplier", nodeName)) {
                 edgeConfig.setReceiveWindowMultiplier(
                         getIntegerValue("receive-window-multiplier", getTextContent(child)));
+            } else if (matches("compression-enabled", nodeName)) {
+                edgeConfig.setCompressionEnabled(getBooleanValue(getTextContent(child)));
             }
         }
     }
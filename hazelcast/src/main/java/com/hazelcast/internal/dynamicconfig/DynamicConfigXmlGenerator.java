@@ -101,6 +101,7 @@ public final class DynamicConfigXmlGenerator {
                     .node("in-memory-format", m.getInMemoryFormat())
                     .node("statistics-enabled", m.isStatisticsEnabled())
                     .node("per-entry-stats-enabled", m.isPerEntryStatsEnabled())
+                    .node("off-heap-storage-enabled", m.isOffHeapStorageEnabled())
                     .node("cache-deserialized-values", cacheDeserializedVal)
                     .node("backup-count", m.getBackupCount())
                     .node("async-backup-count", m.getAsyncBackupCount())
@@ -797,6 +798,7 @@ public final class DynamicConfigXmlGenerator {
                     .node("time-to-live-seconds", n.getTimeToLiveSeconds())
                     .node("max-idle-seconds", n.getMaxIdleSeconds())
                     .node("serialize-keys", n.isSerializeKeys())
+                    .node("off-heap-storage-enabled", n.isOffHeapStorageEnabled())
                     .node("cache-local-entries", n.isCacheLocalEntries());
 
             evictionConfigXmlGenerator(gen, n.getEvictionConfig());
@@ -207,6 +207,8 @@ public class DynamicConfigYamlGenerator {
                     subConfigAsObject.isStatisticsEnabled());
             addNonNullToMap(subConfigAsMap, "per-entry-stats-enabled",
                     subConfigAsObject.isPerEntryStatsEnabled());
+            addNonNullToMap(subConfigAsMap, "off-heap-storage-enabled",
+                    subConfigAsObject.isOffHeapStorageEnabled());
             addNonNullToMap(subConfigAsMap, "cache-deserialized-values",
                     cacheDeserializedValues);
             addNonNullToMap(subConfigAsMap, "backup-count",
@@ -1522,6 +1524,10 @@ public class DynamicConfigYamlGenerator {
 
                 addNonNullToMap(btreeOptionsAsMap, "memory-tier", memoryTierAsMap);
                 indexConfigAsMap.put("btree-index", btreeOptionsAsMap);
+
+                if (indexConfig.getSortedIndexStructure() != IndexConfig.DEFAULT_SORTED_INDEX_STRUCTURE) {
+                    indexConfigAsMap.put("sorted-index-structure", indexConfig.getSortedIndexStructure().name());
+                }
             }
 
             addNonNullToList(indexConfigsAsList, indexConfigAsMap);
@@ -1549,6 +1555,8 @@ public class DynamicConfigYamlGenerator {
                 nearCacheConfig.getMaxIdleSeconds());
         addNonNullToMap(nearCacheConfigAsMap, "serialize-keys",
                 nearCacheConfig.isSerializeKeys());
+        addNonNullToMap(nearCacheConfigAsMap, "off-heap-storage-enabled",
+                nearCacheConfig.isOffHeapStorageEnabled());
         addNonNullToMap(nearCacheConfigAsMap, "cache-local-entries",
                 nearCacheConfig.isCacheLocalEntries());
         addNonNullToMap(nearCacheConfigAsMap, "eviction",
@@ -21,6 +21,7 @@ import com.hazelcast.internal.eviction.impl.comparator.LFUEvictionPolicyComparat
 import com.hazelcast.internal.eviction.impl.comparator.LRUEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.comparator.RandomEvictionPolicyComparator;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.FrequencySketch;
 import com.hazelcast.internal.nio.ClassLoaderUtil;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 
@@ -52,7 +53,24 @@ public final class EvictionPolicyEvaluatorProvider {
     getEvictionPolicyEvaluator(EvictionConfiguration evictionConfig, ClassLoader classLoader) {
         checkNotNull(evictionConfig);
 
-        return new EvictionPolicyEvaluator<>(getEvictionPolicyComparator(evictionConfig, classLoader));
+        EvictionPolicyComparator comparator = getEvictionPolicyComparator(evictionConfig, classLoader);
+        return new EvictionPolicyEvaluator<>(comparator, newFrequencySketchIfNeeded(evictionConfig));
+    }
+
+    /**
+     * Creates the frequency sketch of the {@link EvictionPolicy#W_TINY_LFU}
+     * policy.
+     *
+     * @param evictionConfig {@link EvictionConfiguration} of the evicted store
+     * @return a new {@link FrequencySketch} if the out-of-the-box
+     * {@link EvictionPolicy#W_TINY_LFU} policy is configured, otherwise
+     * {@code null}
+     */
+    public static FrequencySketch newFrequencySketchIfNeeded(EvictionConfiguration evictionConfig) {
+        boolean customComparator = !isNullOrEmpty(evictionConfig.getComparatorClassName())
+                || evictionConfig.getComparator() != null;
+        return !customComparator && evictionConfig.getEvictionPolicy() == EvictionPolicy.W_TINY_LFU
+                ? new FrequencySketch() : null;
     }
 
     /**
@@ -90,6 +108,8 @@ public final class EvictionPolicyEvaluatorProvider {
     private static EvictionPolicyComparator pickOutOfTheBoxComparator(EvictionPolicy evictionPolicy) {
         switch (evictionPolicy) {
             case LRU:
+            case W_TINY_LFU:
+                // W-TinyLFU breaks frequency ties by recency
                 return LRUEvictionPolicyComparator.INSTANCE;
             case LFU:
                 return LFUEvictionPolicyComparator.INSTANCE;
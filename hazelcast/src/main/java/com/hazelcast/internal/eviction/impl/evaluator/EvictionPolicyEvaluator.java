@@ -33,15 +33,70 @@ import com.hazelcast.spi.eviction.EvictionPolicyComparator;
 public class EvictionPolicyEvaluator<A, E extends Evictable> {
 
     private final EvictionPolicyComparator comparator;
+    private final FrequencySketch frequencySketch;
 
     public EvictionPolicyEvaluator(EvictionPolicyComparator comparator) {
+        this(comparator, null);
+    }
+
+    /**
+     * @param comparator      the comparator to order candidates with
+     * @param frequencySketch if not {@code null}, candidates are ordered by
+     *                        their estimated access frequency first and the
+     *                        comparator only breaks ties, see
+     *                        {@link com.hazelcast.config.EvictionPolicy#W_TINY_LFU}
+     */
+    public EvictionPolicyEvaluator(EvictionPolicyComparator comparator, FrequencySketch frequencySketch) {
         this.comparator = comparator;
+        this.frequencySketch = frequencySketch;
     }
 
     public EvictionPolicyComparator getEvictionPolicyComparator() {
         return comparator;
     }
 
+    public FrequencySketch getFrequencySketch() {
+        return frequencySketch;
+    }
+
+    /**
+     * Records an access to the given key if this evaluator is frequency
+     * based, otherwise does nothing.
+     *
+     * @param accessor the accessed key
+     */
+    public void recordAccess(A accessor) {
+        if (frequencySketch != null) {
+            frequencySketch.increment(accessor.hashCode());
+        }
+    }
+
+    /**
+     * Sizes the frequency sketch, if any, after the number of entries in the
+     * evicted store.
+     *
+     * @param size the number of entries in the store
+     */
+    public void ensureCapacity(int size) {
+        if (frequencySketch != null) {
+            frequencySketch.ensureCapacity(size);
+        }
+    }
+
+    /**
+     * Decides whether a new key is worth keeping at the price of evicting
+     * the given victim. Evaluators which aren't frequency based always admit.
+     *
+     * @param candidate the key to be added to the store
+     * @param victim    the key which would be evicted to make room for it
+     * @return {@code true} if the candidate should be admitted, {@code false}
+     * if it isn't estimated to be accessed more often than the victim
+     */
+    public boolean admit(A candidate, A victim) {
+        return frequencySketch == null
+                || frequencySketch.frequency(candidate.hashCode()) > frequencySketch.frequency(victim.hashCode());
+    }
+
     /**
      * Selects the best candidate to be evicted.
      * The definition of the best depends on configured
@@ -53,7 +108,6 @@ public class EvictionPolicyEvaluator<A, E extends Evictable> {
      *                   com.hazelcast.internal.eviction.EvictionCandidate} to be evicted
      * @return a selected candidate to be evicted or null.
      */
-    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
     public <C extends EvictionCandidate<A, E>> C evaluate(Iterable<C> candidates) {
         long now = Clock.currentTimeMillis();
 
@@ -71,13 +125,25 @@ public class EvictionPolicyEvaluator<A, E extends Evictable> {
             }
 
             // check if current candidate is more eligible than selected.
-            if (comparator.compare(current, selected) < 0) {
+            if (isMoreEligible(current, selected)) {
                 selected = current;
             }
         }
         return selected;
     }
 
+    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
+    private boolean isMoreEligible(EvictionCandidate<A, E> current, EvictionCandidate<A, E> selected) {
+        if (frequencySketch != null) {
+            int currentFrequency = frequencySketch.frequency(current.getAccessor().hashCode());
+            int selectedFrequency = frequencySketch.frequency(selected.getAccessor().hashCode());
+            if (currentFrequency != selectedFrequency) {
+                return currentFrequency < selectedFrequency;
+            }
+        }
+        return comparator.compare(current, selected) < 0;
+    }
+
     private static boolean isExpired(Evictable evictable, long now) {
         if (!(evictable instanceof Expirable)) {
             return false;
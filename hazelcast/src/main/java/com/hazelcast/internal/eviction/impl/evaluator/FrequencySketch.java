@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.evaluator;
+
+import com.hazelcast.internal.util.QuickMath;
+
+import static com.hazelcast.internal.util.HashUtil.MurmurHash3_fmix;
+
+/**
+ * A compact, probabilistic frequency estimator used by the
+ * {@link com.hazelcast.config.EvictionPolicy#W_TINY_LFU W-TinyLFU} eviction
+ * policy to tell hot keys from one-hit-wonders.
+ * <p>
+ * This is a count-min sketch of {@value #DEPTH} rows, each holding a
+ * saturating counter per byte, four counters per expected key. The row
+ * positions of a key are derived from two mixes of its hash (double
+ * hashing), and the estimate is the minimum of its counters. Once the
+ * number of increments reaches ten times the expected number of keys, every
+ * counter is halved, so the sketch forgets old history and adapts to a
+ * changing access pattern.
+ * <p>
+ * The rows are sized with {@link #ensureCapacity(int)} after the number of
+ * entries in the owning store, so a sketch can be kept per partition.
+ * <p>
+ * This class isn't thread-safe. Record stores use it from their partition
+ * thread only. The Near Cache tolerates racy updates: a lost increment only
+ * makes the estimate less accurate.
+ */
+public final class FrequencySketch {
+
+    /**
+     * Saturation value of a single counter.
+     */
+    static final int MAX_FREQUENCY = 15;
+
+    private static final int DEPTH = 4;
+    private static final int COUNTERS_PER_KEY = 4;
+    private static final int MIN_EXPECTED_SIZE = 16;
+    private static final int MAX_EXPECTED_SIZE = 1 << 15;
+    private static final int SAMPLE_SIZE_FACTOR = 10;
+
+    private byte[] counters;
+    private int widthMask;
+    private int sampleSize;
+    private int additions;
+
+    public FrequencySketch() {
+        this(MIN_EXPECTED_SIZE);
+    }
+
+    public FrequencySketch(int expectedSize) {
+        resize(expectedSize);
+    }
+
+    /**
+     * Grows the sketch so that it can accurately estimate the frequencies of
+     * {@code expectedSize} distinct keys. Growing discards the collected
+     * frequencies, shrinking is never done.
+     *
+     * @param expectedSize the number of entries in the owning store
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (sampleSize < SAMPLE_SIZE_FACTOR * Math.min(expectedSize, MAX_EXPECTED_SIZE)) {
+            resize(expectedSize);
+        }
+    }
+
+    /**
+     * Records an access to the key with the given hash.
+     *
+     * @param hash the hash code of the accessed key
+     */
+    public void increment(int hash) {
+        byte[] counters = this.counters;
+        int h1 = MurmurHash3_fmix(hash);
+        int h2 = secondaryHash(h1);
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(h1, h2, row);
+            if (counters[index] < MAX_FREQUENCY) {
+                counters[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * Returns the estimated number of accesses to the key with the given hash,
+     * in the range of {@code [0, 15]}.
+     *
+     * @param hash the hash code of the key
+     * @return the estimated access frequency
+     */
+    public int frequency(int hash) {
+        byte[] counters = this.counters;
+        int h1 = MurmurHash3_fmix(hash);
+        int h2 = secondaryHash(h1);
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[indexOf(h1, h2, row)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Returns the number of counters in the sketch, for testing.
+     */
+    int capacity() {
+        return counters.length;
+    }
+
+    private void resize(int expectedSize) {
+        int size = QuickMath.nextPowerOfTwo(Math.max(MIN_EXPECTED_SIZE, Math.min(expectedSize, MAX_EXPECTED_SIZE)));
+        int width = COUNTERS_PER_KEY * size;
+        counters = new byte[DEPTH * width];
+        widthMask = width - 1;
+        sampleSize = SAMPLE_SIZE_FACTOR * size;
+        additions = 0;
+    }
+
+    /**
+     * Halves every counter and the number of additions.
+     */
+    private void halve() {
+        byte[] counters = this.counters;
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>= 1;
+        }
+        additions >>>= 1;
+    }
+
+    /**
+     * Returns the index of the counter of a key in the given row. The rows
+     * are laid out one after the other.
+     */
+    private int indexOf(int h1, int h2, int row) {
+        return row * (widthMask + 1) + ((h1 + row * h2) & widthMask);
+    }
+
+    /**
+     * Derives the step of the double hashing from the mixed hash. It is odd,
+     * so the positions of a key differ between the rows.
+     */
+    private static int secondaryHash(int h1) {
+        return MurmurHash3_fmix(~h1) | 1;
+    }
+}
@@ -77,4 +77,28 @@ public final class SamplingEvictionStrategy<A, E extends Evictable, S extends Sa
         return sampleableEvictableStore.tryEvict(evictionCandidate, evictionListener);
     }
 
+    /**
+     * Checks whether a new entry should be added to the store if an entry
+     * has to be evicted to make room for it. The victim is chosen from
+     * a sample, like an eviction would, and the decision is up to the
+     * {@link EvictionPolicyEvaluator#admit(Object, Object)} method.
+     *
+     * @param evictableStore          Store that holds {@link Evictable} entries
+     * @param evictionPolicyEvaluator {@link EvictionPolicyEvaluator} to evaluate
+     *                                {@link com.hazelcast.config.EvictionPolicy} on entries
+     * @param evictionChecker         {@link EvictionChecker} to check whether max size is reached
+     * @param candidate               the key of the new entry
+     *
+     * @return true if the new entry should be added, otherwise false
+     */
+    public boolean admit(S evictableStore, EvictionPolicyEvaluator<A, E> evictionPolicyEvaluator,
+                         EvictionChecker evictionChecker, A candidate) {
+        if (evictionChecker != null && !evictionChecker.isEvictionRequired()) {
+            return true;
+        }
+        final Iterable<EvictionCandidate<A, E>> samples = evictableStore.sample(SAMPLE_COUNT);
+        final EvictionCandidate<A, E> victim = evictionPolicyEvaluator.evaluate(samples);
+        return victim == null || evictionPolicyEvaluator.admit(candidate, victim.getAccessor());
+    }
+
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+
+/**
+ * {@link MemoryAllocator} which carves small blocks out of large slabs
+ * obtained from a backing allocator. Small blocks are grouped into size
+ * classes of {@value #CHUNK_ALIGNMENT} bytes granularity; freed blocks are
+ * kept on a per-class free list and reused by subsequent allocations of the
+ * same class, so a steady stream of allocations and deallocations does not
+ * hit the backing allocator at all. Requests larger than
+ * {@value #MAX_CHUNK_SIZE} bytes are passed through to the backing allocator.
+ * <p>
+ * Slabs are only returned to the backing allocator on {@link #dispose()}.
+ * Consequently, the memory of a freed small block stays addressable until
+ * then, which allows callers to validate stale addresses by reading a
+ * generation stamp they wrote into the block. Blocks which were passed
+ * through to the backing allocator must be freed by their owner before
+ * this allocator is disposed.
+ * <p>
+ * Not thread-safe, access must be guarded by the owner.
+ */
+public final class SlabMemoryAllocator implements MemoryAllocator {
+
+    /**
+     * Granularity of the size classes, every small block is aligned to it.
+     */
+    public static final int CHUNK_ALIGNMENT = 16;
+    /**
+     * The largest block size served from slabs.
+     */
+    public static final int MAX_CHUNK_SIZE = 1024;
+    /**
+     * The default size of a single slab.
+     */
+    public static final int DEFAULT_SLAB_SIZE = 1 << 16;
+
+    // the first bytes of every slab link it to the previously allocated slab
+    private static final int SLAB_HEADER_SIZE = CHUNK_ALIGNMENT;
+
+    private final MemoryAllocator backingAllocator;
+    private final MemoryAccessor mem;
+    private final int slabSize;
+    private final long[] freeLists = new long[MAX_CHUNK_SIZE / CHUNK_ALIGNMENT];
+
+    private long lastSlab = NULL_ADDRESS;
+    private long cursor;
+    private long limit;
+    private long usedMemory;
+    private long reservedMemory;
+
+    public SlabMemoryAllocator(MemoryAllocator backingAllocator, MemoryAccessor mem) {
+        this(backingAllocator, mem, DEFAULT_SLAB_SIZE);
+    }
+
+    public SlabMemoryAllocator(MemoryAllocator backingAllocator, MemoryAccessor mem, int slabSize) {
+        checkTrue(slabSize >= SLAB_HEADER_SIZE + MAX_CHUNK_SIZE, "slabSize is too small: " + slabSize);
+        this.backingAllocator = backingAllocator;
+        this.mem = mem;
+        this.slabSize = slabSize;
+    }
+
+    @Override
+    public long allocate(long size) {
+        if (size > MAX_CHUNK_SIZE) {
+            long address = backingAllocator.allocate(size);
+            usedMemory += size;
+            return address;
+        }
+        int chunkSize = chunkSize(size);
+        int sizeClass = sizeClass(chunkSize);
+        long address = freeLists[sizeClass];
+        if (address != NULL_ADDRESS) {
+            freeLists[sizeClass] = mem.getLong(address);
+        } else {
+            if (cursor + chunkSize > limit) {
+                newSlab();
+            }
+            address = cursor;
+            cursor += chunkSize;
+        }
+        mem.setMemory(address, chunkSize, (byte) 0);
+        usedMemory += chunkSize;
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        if (currentSize <= MAX_CHUNK_SIZE && newSize <= MAX_CHUNK_SIZE
+                && chunkSize(currentSize) == chunkSize(newSize)) {
+            if (newSize > currentSize) {
+                mem.setMemory(address + currentSize, newSize - currentSize, (byte) 0);
+            }
+            return address;
+        }
+        long newAddress = allocate(newSize);
+        mem.copyMemory(address, newAddress, Math.min(currentSize, newSize));
+        free(address, currentSize);
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        if (size > MAX_CHUNK_SIZE) {
+            backingAllocator.free(address, size);
+            usedMemory -= size;
+            return;
+        }
+        int chunkSize = chunkSize(size);
+        int sizeClass = sizeClass(chunkSize);
+        mem.putLong(address, freeLists[sizeClass]);
+        freeLists[sizeClass] = address;
+        usedMemory -= chunkSize;
+    }
+
+    /**
+     * @return the number of bytes handed out by this allocator and not yet freed,
+     * with small blocks rounded up to their size class
+     */
+    public long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * @return the number of bytes currently held in slabs
+     */
+    public long getReservedMemory() {
+        return reservedMemory;
+    }
+
+    /**
+     * Returns all slabs to the backing allocator. Addresses of small blocks
+     * handed out by this allocator become invalid.
+     */
+    @Override
+    public void dispose() {
+        long slab = lastSlab;
+        while (slab != NULL_ADDRESS) {
+            long previous = mem.getLong(slab);
+            backingAllocator.free(slab, slabSize);
+            slab = previous;
+        }
+        lastSlab = NULL_ADDRESS;
+        cursor = 0;
+        limit = 0;
+        reservedMemory = 0;
+        usedMemory = 0;
+        for (int i = 0; i < freeLists.length; i++) {
+            freeLists[i] = NULL_ADDRESS;
+        }
+    }
+
+    private void newSlab() {
+        // the remainder of the current slab is abandoned, it is at most MAX_CHUNK_SIZE bytes
+        long slab = backingAllocator.allocate(slabSize);
+        mem.putLong(slab, lastSlab);
+        lastSlab = slab;
+        cursor = slab + SLAB_HEADER_SIZE;
+        limit = slab + slabSize;
+        reservedMemory += slabSize;
+    }
+
+    private static int chunkSize(long size) {
+        return (int) ((Math.max(size, 1) + CHUNK_ALIGNMENT - 1) & -CHUNK_ALIGNMENT);
+    }
+
+    private static int sizeClass(int chunkSize) {
+        return chunkSize / CHUNK_ALIGNMENT - 1;
+    }
+}
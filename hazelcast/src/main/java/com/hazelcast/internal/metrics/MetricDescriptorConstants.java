@@ -31,6 +31,7 @@ public final class MetricDescriptorConstants {
     // ===[CACHE]=======================================================
     public static final String CACHE_PREFIX = "cache";
     public static final String CACHE_DISCRIMINATOR_NAME = "name";
+    public static final String CACHE_PREFIX_LATENCY = "cache.latency";
     public static final String CACHE_METRIC_CREATION_TIME = "creationTime";
     public static final String CACHE_METRIC_LAST_ACCESS_TIME = "lastAccessTime";
     public static final String CACHE_METRIC_LAST_UPDATE_TIME = "lastUpdateTime";
@@ -254,6 +255,14 @@ public final class MetricDescriptorConstants {
             = "map.store.offloaded.operations";
     public static final String MAP_METRIC_MAP_STORE_WAITING_TO_BE_PROCESSED_COUNT
             = "waitingToBeProcessedCount";
+    public static final String MAP_PREFIX_LATENCY = "map.latency";
+    public static final String MAP_PREFIX_WRITE_BEHIND = "map.writeBehind";
+    public static final String MAP_METRIC_WRITE_BEHIND_QUEUE_SIZE = "queueSize";
+    public static final String MAP_METRIC_WRITE_BEHIND_LAG = "lag";
+    public static final String MAP_METRIC_WRITE_BEHIND_FLUSH_COUNT = "flushCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_STORED_ENTRY_COUNT = "storedEntryCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_FAILED_ENTRY_COUNT = "failedEntryCount";
+    public static final String MAP_METRIC_WRITE_BEHIND_WRITE_BATCH_SIZE = "writeBatchSize";
     public static final String MAP_TAG_HYBRID_LOG_ID = "hybridLogId";
     // ===[/MAP]========================================================
 
@@ -533,6 +542,7 @@ public final class MetricDescriptorConstants {
     public static final String TCP_PREFIX = "tcp";
     public static final String TCP_PREFIX_ACCEPTOR = "tcp.acceptor";
     public static final String TCP_PREFIX_BALANCER = "tcp.balancer";
+    public static final String TCP_PREFIX_COMPRESSION = "tcp.compression";
     public static final String TCP_PREFIX_CONNECTION = "tcp.connection";
     public static final String TCP_PREFIX_CONNECTION_IN = "tcp.connection.in";
     public static final String TCP_PREFIX_CONNECTION_OUT = "tcp.connection.out";
@@ -547,6 +557,11 @@ public final class MetricDescriptorConstants {
     public static final String TCP_METRIC_ACCEPTOR_EXCEPTION_COUNT = "exceptionCount";
     public static final String TCP_METRIC_ACCEPTOR_SELECTOR_RECREATE_COUNT = "selectorRecreateCount";
     public static final String TCP_METRIC_ACCEPTOR_IDLE_TIME_MILLIS = "idleTimeMillis";
+    public static final String TCP_METRIC_COMPRESSION_BYTES_IN = "bytesIn";
+    public static final String TCP_METRIC_COMPRESSION_BYTES_OUT = "bytesOut";
+    public static final String TCP_METRIC_COMPRESSION_BYTES_SAVED = "bytesSaved";
+    public static final String TCP_METRIC_COMPRESSION_COMPRESS_TIME_NANOS = "compressTimeNanos";
+    public static final String TCP_METRIC_COMPRESSION_DECOMPRESS_TIME_NANOS = "decompressTimeNanos";
     public static final String TCP_METRIC_CONNECTION_CONNECTION_TYPE = "connectionType";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_IN_PROGRESS_COUNT = "inProgressCount";
     public static final String TCP_METRIC_ENDPOINT_MANAGER_COUNT = "count";
@@ -719,6 +734,16 @@ public final class MetricDescriptorConstants {
 
     public static final String GENERAL_DISCRIMINATOR_NAME = "name";
 
+    // ===[LATENCY]=====================================================
+    public static final String LATENCY_TAG_OPERATION = "operation";
+    public static final String LATENCY_OPERATION_GET = "get";
+    public static final String LATENCY_OPERATION_SET = "set";
+    public static final String LATENCY_OPERATION_PUT = "put";
+    public static final String LATENCY_OPERATION_REMOVE = "remove";
+    public static final String LATENCY_OPERATION_ENTRY_PROCESSOR = "entryProcessor";
+    public static final String LATENCY_OPERATION_QUERY = "query";
+    // ===[/LATENCY]====================================================
+
     private MetricDescriptorConstants() {
     }
 }
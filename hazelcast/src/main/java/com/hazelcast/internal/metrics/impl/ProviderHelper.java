@@ -19,10 +19,12 @@ package com.hazelcast.internal.metrics.impl;
 import com.hazelcast.instance.LocalInstanceStats;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.util.LatencyHistogram;
 
 import java.util.Map;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.GENERAL_DISCRIMINATOR_NAME;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_TAG_OPERATION;
 
 public final class ProviderHelper {
     private ProviderHelper() {
@@ -45,4 +47,25 @@ public final class ProviderHelper {
             context.collect(dsDescriptor, localStats);
         }
     }
+
+    /**
+     * Collects the non-empty latency histograms of a data structure, tagged
+     * with the name of the operation they measure.
+     */
+    public static void provideLatencies(MetricDescriptor descriptor, MetricsCollectionContext context, String prefix,
+                                        String discriminator, String name, Map<String, LatencyHistogram> histograms) {
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+
+            MetricDescriptor latencyDescriptor = descriptor
+                    .copy()
+                    .withPrefix(prefix)
+                    .withDiscriminator(discriminator, name)
+                    .withTag(LATENCY_TAG_OPERATION, entry.getKey());
+            context.collect(latencyDescriptor, histogram);
+        }
+    }
 }
@@ -18,16 +18,24 @@ package com.hazelcast.internal.monitor.impl;
 
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.Clock;
+import com.hazelcast.internal.util.LatencyHistogram;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_ENTRY_PROCESSOR;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_GET;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_PUT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_QUERY;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_REMOVE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_SET;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_BACKUP_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_BACKUP_ENTRY_COUNT;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_BACKUP_ENTRY_MEMORY_COST;
@@ -62,6 +70,7 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRI
 import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
 import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.util.ConcurrencyUtil.setMax;
+import static com.hazelcast.internal.util.LatencyHistogram.DEFAULT_WINDOW_MILLIS;
 import static com.hazelcast.internal.util.TimeUtil.convertNanosToMillis;
 import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
 
@@ -111,6 +120,14 @@ public class LocalMapStatsImpl implements LocalMapStats {
     private final Map<String, LocalIndexStats> indexStats = Collections.unmodifiableMap(mutableIndexStats);
     private final LocalReplicationStatsImpl replicationStats = new LocalReplicationStatsImpl();
 
+    private final LatencyHistogram getLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram putLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram setLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram removeLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram entryProcessorLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final LatencyHistogram queryLatencyHistogram = new LatencyHistogram(DEFAULT_WINDOW_MILLIS);
+    private final Map<String, LatencyHistogram> latencyHistograms = createLatencyHistograms();
+
     // These fields are only accessed through the updaters
     @Probe(name = MAP_METRIC_LAST_ACCESS_TIME, unit = MS)
     private volatile long lastAccessTime;
@@ -456,6 +473,27 @@ public class LocalMapStatsImpl implements LocalMapStats {
         return replicationStats;
     }
 
+    /**
+     * Returns the latency histograms of the map operations on this member,
+     * keyed by the operation name.
+     *
+     * @return the latency histograms by operation name
+     */
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+        return latencyHistograms;
+    }
+
+    private Map<String, LatencyHistogram> createLatencyHistograms() {
+        Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+        histograms.put(LATENCY_OPERATION_GET, getLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_PUT, putLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_SET, setLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_REMOVE, removeLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_ENTRY_PROCESSOR, entryProcessorLatencyHistogram);
+        histograms.put(LATENCY_OPERATION_QUERY, queryLatencyHistogram);
+        return Collections.unmodifiableMap(histograms);
+    }
+
     /**
      * Sets the per-index stats of this map stats to the given per-index stats.
      *
@@ -476,12 +514,14 @@ public class LocalMapStatsImpl implements LocalMapStats {
         PUT_COUNT.addAndGet(this, delta);
         TOTAL_PUT_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_PUT_LATENCY, latencyNanos);
+        recordBatchLatency(putLatencyHistogram, delta, latencyNanos);
     }
 
     public void incrementSetLatencyNanos(long latencyNanos) {
         SET_COUNT.incrementAndGet(this);
         TOTAL_SET_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_SET_LATENCY, latencyNanos);
+        setLatencyHistogram.recordNanos(latencyNanos);
     }
 
     public void incrementGetLatencyNanos(long latencyNanos) {
@@ -492,12 +532,32 @@ public class LocalMapStatsImpl implements LocalMapStats {
         GET_COUNT.addAndGet(this, delta);
         TOTAL_GET_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_GET_LATENCY, latencyNanos);
+        recordBatchLatency(getLatencyHistogram, delta, latencyNanos);
     }
 
     public void incrementRemoveLatencyNanos(long latencyNanos) {
         REMOVE_COUNT.incrementAndGet(this);
         TOTAL_REMOVE_LATENCIES.addAndGet(this, latencyNanos);
         setMax(this, MAX_REMOVE_LATENCY, latencyNanos);
+        removeLatencyHistogram.recordNanos(latencyNanos);
+    }
+
+    public void recordEntryProcessorLatencyNanos(long latencyNanos) {
+        entryProcessorLatencyHistogram.recordNanos(latencyNanos);
+    }
+
+    public void recordQueryLatencyNanos(long latencyNanos) {
+        queryLatencyHistogram.recordNanos(latencyNanos);
+    }
+
+    /**
+     * Records the latency of a batch operation once, as the latency of a
+     * single call. The latencies of the individual entries are not known.
+     */
+    private static void recordBatchLatency(LatencyHistogram histogram, long delta, long latencyNanos) {
+        if (delta > 0) {
+            histogram.recordNanos(latencyNanos);
+        }
     }
 
     public void incrementOtherOperations() {
@@ -114,6 +114,20 @@ public interface NearCacheRecordStore<K, V> extends InitializingObject {
      */
     boolean doEviction(boolean withoutMaxSizeCheck);
 
+    /**
+     * Decides whether the given key is worth caching if it isn't cached
+     * yet and the Near Cache is full. Frequency based eviction policies
+     * use it to reject keys which are estimated to be accessed less often
+     * than the entry they would displace, others always admit.
+     *
+     * @param key the key to be cached
+     * @return {@code true} if the key can be cached, {@code false}
+     * otherwise
+     */
+    default boolean admit(K key) {
+        return true;
+    }
+
     /**
      * Loads the keys into the Near Cache.
      */
@@ -19,8 +19,12 @@ package com.hazelcast.internal.nearcache.impl;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheRecordStore;
+import com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheDataRecordStore;
 import com.hazelcast.internal.nearcache.impl.store.NearCacheObjectRecordStore;
 import com.hazelcast.internal.serialization.Data;
@@ -34,6 +38,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.config.NearCacheConfig.DEFAULT_MEMORY_FORMAT;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.NOT_RESERVED;
 import static com.hazelcast.internal.util.Preconditions.checkInstanceOf;
 import static com.hazelcast.internal.util.Preconditions.checkNotInstanceOf;
 
@@ -50,6 +56,9 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     private final boolean serializeKeys;
     private final HazelcastProperties properties;
+    private final MemoryManager memoryManager;
+    // created by this Near Cache when no shared memory manager is given
+    private MemoryManager ownMemoryManager;
 
     private volatile boolean preloadDone;
 
@@ -64,6 +73,19 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
                             NearCacheRecordStore<K, V> nearCacheRecordStore,
                             SerializationService serializationService, TaskScheduler scheduler,
                             ClassLoader classLoader, HazelcastProperties properties) {
+        this(name, nearCacheConfig, nearCacheRecordStore, serializationService, scheduler, classLoader, properties, null);
+    }
+
+    /**
+     * @param memoryManager the memory manager of the off-heap record store,
+     *                      shared by the Near Caches of a Near Cache manager,
+     *                      or {@code null} to let this Near Cache create and
+     *                      dispose its own one when off-heap storage is enabled
+     */
+    public DefaultNearCache(String name, NearCacheConfig nearCacheConfig,
+                            NearCacheRecordStore<K, V> nearCacheRecordStore,
+                            SerializationService serializationService, TaskScheduler scheduler,
+                            ClassLoader classLoader, HazelcastProperties properties, MemoryManager memoryManager) {
         this.name = name;
         this.nearCacheConfig = nearCacheConfig;
         this.serializationService = serializationService;
@@ -72,6 +94,7 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         this.nearCacheRecordStore = nearCacheRecordStore;
         this.serializeKeys = nearCacheConfig.isSerializeKeys();
         this.properties = properties;
+        this.memoryManager = memoryManager;
     }
 
     @Override
@@ -91,6 +114,10 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
         }
         switch (inMemoryFormat) {
             case BINARY:
+                if (nearCacheConfig.isOffHeapStorageEnabled()) {
+                    return new NativeNearCacheRecordStore<>(name, nearCacheConfig, serializationService, classLoader,
+                            getOrCreateMemoryManager());
+                }
                 return new NearCacheDataRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
             case OBJECT:
                 return new NearCacheObjectRecordStore<K, V>(name, nearCacheConfig, serializationService, classLoader);
@@ -130,6 +157,10 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
     public void put(K key, Data keyData, V value, Data valueData) {
         checkKeyFormat(key);
 
+        if (!nearCacheRecordStore.admit(key)) {
+            return;
+        }
+
         nearCacheRecordStore.doEviction(false);
 
         nearCacheRecordStore.put(key, keyData, value, valueData);
@@ -153,6 +184,20 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
             expirationTaskFuture.cancel(true);
         }
         nearCacheRecordStore.destroy();
+        if (ownMemoryManager != null) {
+            ownMemoryManager.dispose();
+            ownMemoryManager = null;
+        }
+    }
+
+    private MemoryManager getOrCreateMemoryManager() {
+        if (memoryManager != null) {
+            return memoryManager;
+        }
+        if (ownMemoryManager == null) {
+            ownMemoryManager = new MemoryManagerBean(new UnsafeMemoryAllocator(), MEM);
+        }
+        return ownMemoryManager;
     }
 
     @Override
@@ -200,6 +245,10 @@ public class DefaultNearCache<K, V> implements NearCache<K, V> {
 
     @Override
     public long tryReserveForUpdate(K key, Data keyData, UpdateSemantic updateSemantic) {
+        if (!nearCacheRecordStore.admit(key)) {
+            return NOT_RESERVED;
+        }
+
         nearCacheRecordStore.doEviction(false);
 
         return nearCacheRecordStore.tryReserveForUpdate(key, keyData, updateSemantic);
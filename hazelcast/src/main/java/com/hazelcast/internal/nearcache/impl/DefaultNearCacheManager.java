@@ -20,6 +20,9 @@ import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NearCacheConfigAccessor;
 import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
 import com.hazelcast.internal.nearcache.NearCache;
 import com.hazelcast.internal.nearcache.NearCacheManager;
 import com.hazelcast.internal.serialization.SerializationService;
@@ -36,6 +39,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -50,6 +54,9 @@ public class DefaultNearCacheManager implements NearCacheManager {
     private final Queue<ScheduledFuture> preloadTaskFutures = new ConcurrentLinkedQueue<>();
     private final ConcurrentMap<String, NearCache> nearCacheMap = new ConcurrentHashMap<>();
     private final AtomicReference<Object> storageTaskFutureRef = new AtomicReference<>();
+    // shared by the off-heap record stores of all Near Caches, created on
+    // first use and guarded by the mutex
+    private MemoryManager memoryManager;
 
     public DefaultNearCacheManager(SerializationService ss, TaskScheduler es,
                                    ClassLoader classLoader, HazelcastProperties properties) {
@@ -91,8 +98,25 @@ public class DefaultNearCacheManager implements NearCacheManager {
 
     protected <K, V> NearCache<K, V> createNearCache(String name, NearCacheConfig nearCacheConfig) {
         NearCacheConfig copy = NearCacheConfigAccessor.copyWithInitializedDefaultMaxSizeForOnHeapMaps(nearCacheConfig);
-        return new DefaultNearCache<>(name, copy, serializationService,
-                scheduler, classLoader, properties);
+        MemoryManager nearCacheMemoryManager = copy.isOffHeapStorageEnabled() ? getOrCreateMemoryManager() : null;
+        return new DefaultNearCache<>(name, copy, null, serializationService,
+                scheduler, classLoader, properties, nearCacheMemoryManager);
+    }
+
+    private MemoryManager getOrCreateMemoryManager() {
+        synchronized (mutex) {
+            if (memoryManager == null) {
+                memoryManager = new MemoryManagerBean(new UnsafeMemoryAllocator(), MEM);
+            }
+            return memoryManager;
+        }
+    }
+
+    // for testing purposes only
+    MemoryManager getMemoryManager() {
+        synchronized (mutex) {
+            return memoryManager;
+        }
     }
 
     @Override
@@ -156,6 +180,13 @@ public class DefaultNearCacheManager implements NearCacheManager {
         if (future != null) {
             ((ScheduledFuture) future).cancel(true);
         }
+
+        synchronized (mutex) {
+            if (memoryManager != null) {
+                memoryManager.dispose();
+                memoryManager = null;
+            }
+        }
     }
 
     private void createAndSchedulePreloadTask(NearCache nearCache, DataStructureAdapter adapter) {
@@ -19,6 +19,7 @@ package com.hazelcast.internal.nearcache.impl.store;
 import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.MaxSizePolicy;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.internal.eviction.EvictionChecker;
 import com.hazelcast.internal.eviction.EvictionListener;
@@ -110,6 +111,9 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         if (!evictionDisabled) {
             this.evictionStrategy = SamplingEvictionStrategy.INSTANCE;
             this.evictionPolicyEvaluator = getEvictionPolicyEvaluator(evictionConfig, classLoader);
+            if (evictionConfig.getMaxSizePolicy() == MaxSizePolicy.ENTRY_COUNT) {
+                evictionPolicyEvaluator.ensureCapacity(evictionConfig.getSize());
+            }
         }
     }
 
@@ -121,6 +125,11 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
     @Override
     public abstract R getRecord(K key);
 
+    /**
+     * Converts the key to the form it is stored in the record map.
+     */
+    protected abstract KS toRecordKey(K key);
+
     protected abstract EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig,
                                                                       NearCacheConfig nearCacheConfig);
 
@@ -263,6 +272,7 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
             // TODO what does onGet do?
             onGet(key, value, record);
             onRecordAccess(record);
+            recordKeyAccess(key);
             nearCacheStats.incrementHits();
 
             return recordToValue(record);
@@ -339,6 +349,23 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return true;
     }
 
+    @Override
+    public boolean admit(K key) {
+        checkAvailable();
+
+        if (!isFrequencyBased()) {
+            return true;
+        }
+
+        KS recordKey = toRecordKey(key);
+        evictionPolicyEvaluator.ensureCapacity(records.size());
+        evictionPolicyEvaluator.recordAccess(recordKey);
+        if (containsRecordKey(key)) {
+            return true;
+        }
+        return evictionStrategy.admit(records, evictionPolicyEvaluator, evictionChecker, recordKey);
+    }
+
     @Override
     public long tryReserveForUpdate(K key, Data keyData, NearCache.UpdateSemantic updateSemantic) {
         checkAvailable();
@@ -386,6 +413,17 @@ public abstract class AbstractNearCacheRecordStore<K, V, KS, R extends NearCache
         return reservedRecord;
     }
 
+    private boolean isFrequencyBased() {
+        return !evictionDisabled && evictionPolicyEvaluator.getFrequencySketch() != null;
+    }
+
+    private void recordKeyAccess(K key) {
+        if (isFrequencyBased()) {
+            evictionPolicyEvaluator.ensureCapacity(records.size());
+            evictionPolicyEvaluator.recordAccess(toRecordKey(key));
+        }
+    }
+
     private void onRecordAccess(R record) {
         record.setLastAccessTime(Clock.currentTimeMillis());
         record.incrementHits();
@@ -91,6 +91,11 @@ public abstract class BaseHeapNearCacheRecordStore<K, V, R extends NearCacheReco
         return oldRecord;
     }
 
+    @Override
+    protected K toRecordKey(K key) {
+        return key;
+    }
+
     @Override
     protected boolean containsRecordKey(K key) {
         return records.containsKey(key);
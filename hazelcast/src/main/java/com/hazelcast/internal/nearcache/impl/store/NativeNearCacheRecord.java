@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.serialization.Data;
+
+import java.util.UUID;
+
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.CACHED_AS_NULL_FLAG;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.CREATION_TIME_OFFSET;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.EXPIRATION_TIME_OFFSET;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.HITS_OFFSET;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.INVALIDATION_SEQUENCE_OFFSET;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.NULL_VALUE_SIZE;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.PARTITION_ID_OFFSET;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.RESERVATION_ID_OFFSET;
+
+/**
+ * {@link NearCacheRecord} view of an entry of a {@link NativeNearCacheRecordMap}.
+ * <p>
+ * An instance is a short-lived heap snapshot of the entry taken while the
+ * owning segment was locked, so it stays safe to read after the entry has
+ * been removed or its memory reused. Only lookups copy the value into the
+ * snapshot, other snapshots copy it on the first {@link #getValue()} call,
+ * or return {@code null} if the entry no longer exists by then. Setters
+ * update the snapshot and write through to the entry, as long as it is
+ * still the same entry the snapshot was taken from; otherwise the write is
+ * silently dropped, just like a write to an on-heap record which was removed
+ * from its map concurrently. The access statistics are written without
+ * excluding the readers of the entry.
+ * <p>
+ * Records created by the record store before they are inserted into the map
+ * are <i>detached</i>: their setters only update the heap state, which is
+ * copied into native memory on insertion.
+ */
+public class NativeNearCacheRecord implements NearCacheRecord<Data> {
+
+    private NativeNearCacheRecordMap.Segment segment;
+    private long address;
+    private long id;
+
+    private Data value;
+    private boolean valueCopied;
+    private int valueSize;
+    private long creationTime;
+    private long expirationTime;
+    private long lastAccessTime = TIME_NOT_SET;
+    private int hits;
+    private long reservationId = READ_PERMITTED;
+    private int partitionId;
+    private long invalidationSequence;
+    private UUID uuid;
+    private boolean cachedAsNull;
+
+    public NativeNearCacheRecord(Data value, long creationTime, long expirationTime) {
+        copiedValue(value);
+        this.creationTime = creationTime;
+        this.expirationTime = expirationTime;
+    }
+
+    @SuppressWarnings("checkstyle:parameternumber")
+    NativeNearCacheRecord(NativeNearCacheRecordMap.Segment segment, long address, long id, int valueSize,
+                          long creationTime, long expirationTime, long lastAccessTime, int hits, long reservationId,
+                          int partitionId, long invalidationSequence, UUID uuid, boolean cachedAsNull) {
+        this.segment = segment;
+        this.address = address;
+        this.id = id;
+        this.valueSize = valueSize;
+        this.valueCopied = valueSize == NULL_VALUE_SIZE;
+        this.creationTime = creationTime;
+        this.expirationTime = expirationTime;
+        this.lastAccessTime = lastAccessTime;
+        this.hits = hits;
+        this.reservationId = reservationId;
+        this.partitionId = partitionId;
+        this.invalidationSequence = invalidationSequence;
+        this.uuid = uuid;
+        this.cachedAsNull = cachedAsNull;
+    }
+
+    void attach(NativeNearCacheRecordMap.Segment segment, long address, long id) {
+        this.segment = segment;
+        this.address = address;
+        this.id = id;
+    }
+
+    /**
+     * @return {@code true} if this record is a view of the entry stored at the given address
+     */
+    boolean isViewOf(NativeNearCacheRecordMap.Segment segment, long address, long id) {
+        return this.segment == segment && this.address == address && this.id == id;
+    }
+
+    /**
+     * @return {@code true} if both records are views of the same entry
+     */
+    boolean isSameEntryAs(NativeNearCacheRecord other) {
+        return other != null && segment != null && isViewOf(other.segment, other.address, other.id);
+    }
+
+    /**
+     * Sets the value copied from the entry when the snapshot was taken.
+     */
+    void copiedValue(Data value) {
+        this.value = value;
+        this.valueCopied = true;
+        this.valueSize = value != null ? value.totalSize() : NULL_VALUE_SIZE;
+    }
+
+    /**
+     * @return the size of the serialized value, without copying it
+     */
+    int getValueSize() {
+        return Math.max(valueSize, 0);
+    }
+
+    @Override
+    public Data getValue() {
+        if (!valueCopied) {
+            value = segment.readValue(address, id);
+            valueCopied = true;
+        }
+        return value;
+    }
+
+    @Override
+    public void setValue(Data value) {
+        copiedValue(value);
+        if (segment != null) {
+            segment.writeValue(address, id, value);
+        }
+    }
+
+    @Override
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public void setCreationTime(long time) {
+        this.creationTime = time;
+        writeLong(CREATION_TIME_OFFSET, time);
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        this.expirationTime = expirationTime;
+        writeLong(EXPIRATION_TIME_OFFSET, expirationTime);
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    @Override
+    public void setLastAccessTime(long time) {
+        this.lastAccessTime = time;
+        if (segment != null) {
+            segment.writeAccessTime(address, id, time);
+        }
+    }
+
+    @Override
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public void setHits(int hits) {
+        this.hits = hits;
+        if (segment != null) {
+            segment.writeInt(address, id, HITS_OFFSET, hits);
+        }
+    }
+
+    @Override
+    public void incrementHits() {
+        hits++;
+        if (segment != null) {
+            segment.incrementHits(address, id);
+        }
+    }
+
+    @Override
+    public long getReservationId() {
+        return reservationId;
+    }
+
+    @Override
+    public void setReservationId(long reservationId) {
+        this.reservationId = reservationId;
+        writeLong(RESERVATION_ID_OFFSET, reservationId);
+    }
+
+    @Override
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    @Override
+    public void setPartitionId(int partitionId) {
+        this.partitionId = partitionId;
+        if (segment != null) {
+            segment.writeInt(address, id, PARTITION_ID_OFFSET, partitionId);
+        }
+    }
+
+    @Override
+    public long getInvalidationSequence() {
+        return invalidationSequence;
+    }
+
+    @Override
+    public void setInvalidationSequence(long sequence) {
+        this.invalidationSequence = sequence;
+        writeLong(INVALIDATION_SEQUENCE_OFFSET, sequence);
+    }
+
+    UUID getUuid() {
+        return uuid;
+    }
+
+    @Override
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+        if (segment != null) {
+            segment.writeUuid(address, id, uuid);
+        }
+    }
+
+    @Override
+    public boolean hasSameUuid(UUID thatUuid) {
+        return uuid != null && thatUuid != null && uuid.equals(thatUuid);
+    }
+
+    @Override
+    public boolean isCachedAsNull() {
+        return cachedAsNull;
+    }
+
+    @Override
+    public void setCachedAsNull(boolean valueCachedAsNull) {
+        this.cachedAsNull = valueCachedAsNull;
+        if (segment != null) {
+            segment.writeFlag(address, id, CACHED_AS_NULL_FLAG, valueCachedAsNull);
+        }
+    }
+
+    private void writeLong(int offset, long value) {
+        if (segment != null) {
+            segment.writeLong(address, id, offset, value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NativeNearCacheRecord{"
+                + "attached=" + (segment != null)
+                + ", creationTime=" + creationTime
+                + ", value=" + value
+                + ", uuid=" + uuid
+                + ", cachedAsNull=" + cachedAsNull
+                + ", hits=" + hits
+                + ", partitionId=" + partitionId
+                + ", lastAccessTime=" + lastAccessTime
+                + ", expirationTime=" + expirationTime
+                + ", invalidationSequence=" + invalidationSequence
+                + ", reservationId=" + reservationId
+                + '}';
+    }
+}
@@ -0,0 +1,982 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.memory.ConcurrentMemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.SlabMemoryAllocator;
+import com.hazelcast.internal.nearcache.NearCacheRecord;
+import com.hazelcast.internal.nearcache.impl.SampleableNearCacheRecordMap;
+import com.hazelcast.internal.nio.Disposable;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.internal.util.Preconditions.checkInstanceOf;
+import static com.hazelcast.internal.util.Preconditions.checkNotNull;
+import static com.hazelcast.internal.util.Preconditions.checkState;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.internal.util.QuickMath.isPowerOfTwo;
+import static com.hazelcast.internal.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * {@link SampleableNearCacheRecordMap} which keeps serialized keys, values and
+ * record metadata in native memory, so no per-entry object is retained on the
+ * heap.
+ * <p>
+ * The map is split into segments, each guarded by a read-write lock. A segment
+ * is an open-addressing hash table with linear probing whose slots hold the
+ * addresses of fixed-size entry headers. Headers and key/value blocks are
+ * allocated from two {@link SlabMemoryAllocator}s per segment, so header
+ * memory is only ever reused for headers of the same segment.
+ * <p>
+ * Layout of an entry header:
+ * <pre>
+ * offset  size  field
+ *  0      8     key/value block address
+ *  8      8     entry id, unique within the segment, 0 once freed
+ * 16      8     creation time
+ * 24      8     expiration time
+ * 32      8     last access time
+ * 40      8     reservation id
+ * 48      8     invalidation sequence
+ * 56      8     UUID most significant bits
+ * 64      8     UUID least significant bits
+ * 72      4     key hash
+ * 76      4     partition id
+ * 80      4     hits
+ * 84      4     flags
+ * </pre>
+ * A key/value block consists of the {@code int} key size and {@code int} value
+ * size ({@code -1} for a {@code null} value) followed by the key and value
+ * bytes.
+ * <p>
+ * Lookups return {@link NativeNearCacheRecord} snapshots, see its documentation
+ * for the way they write through to native memory. The last access time and
+ * hits are updated under the read lock of the segment, with atomic writes,
+ * since the entries are only freed under the write lock.
+ */
+@SuppressWarnings("checkstyle:methodcount")
+public class NativeNearCacheRecordMap extends AbstractMap<Data, NativeNearCacheRecord>
+        implements SampleableNearCacheRecordMap<Data, NativeNearCacheRecord>, Disposable {
+
+    static final int KV_ADDRESS_OFFSET = 0;
+    static final int ID_OFFSET = 8;
+    static final int CREATION_TIME_OFFSET = 16;
+    static final int EXPIRATION_TIME_OFFSET = 24;
+    static final int LAST_ACCESS_TIME_OFFSET = 32;
+    static final int RESERVATION_ID_OFFSET = 40;
+    static final int INVALIDATION_SEQUENCE_OFFSET = 48;
+    static final int UUID_MSB_OFFSET = 56;
+    static final int UUID_LSB_OFFSET = 64;
+    static final int HASH_OFFSET = 72;
+    static final int PARTITION_ID_OFFSET = 76;
+    static final int HITS_OFFSET = 80;
+    static final int FLAGS_OFFSET = 84;
+    static final int HEADER_SIZE = 88;
+
+    static final int CACHED_AS_NULL_FLAG = 1;
+    static final int UUID_FLAG = 1 << 1;
+
+    static final int KEY_SIZE_OFFSET = 0;
+    static final int VALUE_SIZE_OFFSET = 4;
+    static final int KEY_OFFSET = 8;
+
+    static final int NULL_VALUE_SIZE = -1;
+
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final int HASH_BITS = 32;
+
+    private final MemoryAllocator malloc;
+    private final ConcurrentMemoryAccessor mem;
+    private final SerializationService serializationService;
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    public NativeNearCacheRecordMap(MemoryManager memoryManager, SerializationService serializationService,
+                                    int segmentCount, int initialCapacity) {
+        checkTrue(isPowerOfTwo(segmentCount), "segmentCount must be a power of two: " + segmentCount);
+        this.malloc = memoryManager.getAllocator();
+        this.mem = checkInstanceOf(ConcurrentMemoryAccessor.class, memoryManager.getAccessor(),
+                "The memory accessor must support atomic access");
+        this.serializationService = serializationService;
+        this.segments = new Segment[segmentCount];
+        this.segmentShift = HASH_BITS - Integer.numberOfTrailingZeros(segmentCount);
+        int segmentCapacity = nextPowerOfTwo(Math.max(MIN_SEGMENT_CAPACITY, initialCapacity / segmentCount));
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    @Override
+    public NativeNearCacheRecord get(Object key) {
+        if (!(key instanceof Data)) {
+            return null;
+        }
+        Data dataKey = (Data) key;
+        int hash = dataKey.hashCode();
+        Segment segment = segmentFor(hash);
+        Lock lock = segment.lock.readLock();
+        lock.lock();
+        try {
+            int slot = segment.find(dataKey.toByteArray(), hash);
+            return slot < 0 ? null : segment.readWithValue(segment.headerAt(slot));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Data)) {
+            return false;
+        }
+        Data dataKey = (Data) key;
+        int hash = dataKey.hashCode();
+        Segment segment = segmentFor(hash);
+        Lock lock = segment.lock.readLock();
+        lock.lock();
+        try {
+            return segment.find(dataKey.toByteArray(), hash) >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public NativeNearCacheRecord put(Data key, NativeNearCacheRecord record) {
+        checkNotNull(key);
+        checkNotNull(record);
+        int hash = key.hashCode();
+        byte[] keyBytes = key.toByteArray();
+        Segment segment = segmentFor(hash);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            int slot = segment.find(keyBytes, hash);
+            if (slot < 0) {
+                segment.insert(keyBytes, hash, record);
+                return null;
+            }
+            NativeNearCacheRecord oldRecord = segment.readWithValue(segment.headerAt(slot));
+            segment.storeAt(slot, keyBytes, hash, record);
+            return oldRecord;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public NativeNearCacheRecord putIfAbsent(Data key, NativeNearCacheRecord record) {
+        checkNotNull(record);
+        boolean[] absent = new boolean[1];
+        NativeNearCacheRecord current = applyIfAbsent(key, k -> {
+            absent[0] = true;
+            return record;
+        });
+        return absent[0] ? null : current;
+    }
+
+    @Override
+    public NativeNearCacheRecord remove(Object key) {
+        return key instanceof Data ? remove((Data) key, true) : null;
+    }
+
+    /**
+     * @param copyValue if {@code false}, the value of the returned record
+     *                  isn't copied and reads as {@code null}
+     */
+    private NativeNearCacheRecord remove(Data dataKey, boolean copyValue) {
+        int hash = dataKey.hashCode();
+        Segment segment = segmentFor(hash);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            int slot = segment.find(dataKey.toByteArray(), hash);
+            if (slot < 0) {
+                return null;
+            }
+            long header = segment.headerAt(slot);
+            NativeNearCacheRecord oldRecord = copyValue ? segment.readWithValue(header) : segment.read(header);
+            segment.removeAt(slot);
+            return oldRecord;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry only if the given record is a view of it.
+     */
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!(key instanceof Data) || !(value instanceof NativeNearCacheRecord)) {
+            return false;
+        }
+        boolean[] removed = new boolean[1];
+        applyIfPresent((Data) key, (k, current) -> {
+            removed[0] = current.isSameEntryAs((NativeNearCacheRecord) value);
+            return removed[0] ? null : current;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Replaces the entry only if the given old record is a view of it.
+     */
+    @Override
+    public boolean replace(Data key, NativeNearCacheRecord oldRecord, NativeNearCacheRecord newRecord) {
+        checkNotNull(newRecord);
+        boolean[] replaced = new boolean[1];
+        applyIfPresent(key, (k, current) -> {
+            replaced[0] = current.isSameEntryAs(oldRecord);
+            return replaced[0] ? newRecord : current;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public NativeNearCacheRecord replace(Data key, NativeNearCacheRecord record) {
+        checkNotNull(record);
+        NativeNearCacheRecord[] oldRecord = new NativeNearCacheRecord[1];
+        applyIfPresent(key, (k, current) -> {
+            oldRecord[0] = current;
+            return record;
+        });
+        return oldRecord[0];
+    }
+
+    /**
+     * Returns the current record of the key or, if there is none, inserts
+     * the record returned by the mapping function. The function is called
+     * while the segment of the key is locked.
+     *
+     * @return the current or the inserted record, {@code null} if the function returned {@code null}
+     */
+    public NativeNearCacheRecord applyIfAbsent(Data key, Function<? super Data, ? extends NativeNearCacheRecord> function) {
+        int hash = key.hashCode();
+        byte[] keyBytes = key.toByteArray();
+        Segment segment = segmentFor(hash);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            int slot = segment.find(keyBytes, hash);
+            if (slot >= 0) {
+                return segment.read(segment.headerAt(slot));
+            }
+            NativeNearCacheRecord record = function.apply(key);
+            if (record != null) {
+                segment.insert(keyBytes, hash, record);
+            }
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the current record of the key, if there is one, with the
+     * record returned by the remapping function, or removes it if the
+     * function returns {@code null}. The function is called while the
+     * segment of the key is locked and receives a record which writes
+     * through to the entry.
+     *
+     * @return the new record or {@code null} if there is none
+     */
+    public NativeNearCacheRecord applyIfPresent(Data key,
+                                                BiFunction<? super Data, ? super NativeNearCacheRecord,
+                                                        ? extends NativeNearCacheRecord> function) {
+        return apply(key, function, false);
+    }
+
+    /**
+     * Same as {@link #applyIfPresent(Data, BiFunction)} but the remapping
+     * function is also called, with a {@code null} record, when there is no
+     * current record.
+     */
+    public NativeNearCacheRecord apply(Data key,
+                                       BiFunction<? super Data, ? super NativeNearCacheRecord,
+                                               ? extends NativeNearCacheRecord> function) {
+        return apply(key, function, true);
+    }
+
+    private NativeNearCacheRecord apply(Data key,
+                                        BiFunction<? super Data, ? super NativeNearCacheRecord,
+                                                ? extends NativeNearCacheRecord> function,
+                                        boolean applyIfAbsent) {
+        int hash = key.hashCode();
+        byte[] keyBytes = key.toByteArray();
+        Segment segment = segmentFor(hash);
+        Lock lock = segment.lock.writeLock();
+        lock.lock();
+        try {
+            int slot = segment.find(keyBytes, hash);
+            if (slot < 0) {
+                if (!applyIfAbsent) {
+                    return null;
+                }
+                NativeNearCacheRecord record = function.apply(key, null);
+                if (record != null) {
+                    segment.insert(keyBytes, hash, record);
+                }
+                return record;
+            }
+            long header = segment.headerAt(slot);
+            NativeNearCacheRecord current = segment.read(header);
+            NativeNearCacheRecord record = function.apply(key, current);
+            if (record == null) {
+                segment.removeAt(segment.find(keyBytes, hash));
+            } else if (!record.isViewOf(segment, header, mem.getLong(header + ID_OFFSET))) {
+                segment.storeAt(segment.find(keyBytes, hash), keyBytes, hash, record);
+            }
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            Lock lock = segment.lock.writeLock();
+            lock.lock();
+            try {
+                segment.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Frees all native memory held by this map. The map must not be used afterwards.
+     */
+    @Override
+    public void dispose() {
+        for (Segment segment : segments) {
+            Lock lock = segment.lock.writeLock();
+            lock.lock();
+            try {
+                segment.dispose();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the number of native memory bytes used for entries and hash tables
+     */
+    public long getUsedMemory() {
+        long usedMemory = 0;
+        for (Segment segment : segments) {
+            Lock lock = segment.lock.readLock();
+            lock.lock();
+            try {
+                usedMemory += segment.usedMemory();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return usedMemory;
+    }
+
+    /**
+     * Returns a weakly consistent view of the entries. Its iterator
+     * returns snapshots and does not support removal.
+     */
+    @Override
+    public Set<Entry<Data, NativeNearCacheRecord>> entrySet() {
+        return new AbstractSet<Entry<Data, NativeNearCacheRecord>>() {
+            @Override
+            public Iterator<Entry<Data, NativeNearCacheRecord>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return NativeNearCacheRecordMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends EvictionCandidate<Data, NativeNearCacheRecord>> Iterable<C> sample(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size() == 0) {
+            return Collections.emptyList();
+        }
+        List<C> samples = new ArrayList<>(sampleCount);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int start = random.nextInt(segments.length);
+        for (int i = 0; i < segments.length && samples.size() < sampleCount; i++) {
+            Segment segment = segments[(start + i) & (segments.length - 1)];
+            Lock lock = segment.lock.readLock();
+            lock.lock();
+            try {
+                segment.sample(random, sampleCount, (List) samples);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public <C extends EvictionCandidate<Data, NativeNearCacheRecord>> boolean tryEvict(
+            C evictionCandidate, EvictionListener<Data, NativeNearCacheRecord> evictionListener) {
+        if (evictionCandidate == null) {
+            return false;
+        }
+        // the eviction listener doesn't need the value
+        NativeNearCacheRecord removedRecord = remove(evictionCandidate.getAccessor(), false);
+        if (removedRecord == null || removedRecord.getReservationId() != NearCacheRecord.READ_PERMITTED) {
+            // no record was removed or the record was a placeholder marked for update
+            return false;
+        }
+        if (evictionListener != null) {
+            evictionListener.onEvict(evictionCandidate.getAccessor(), removedRecord, false);
+        }
+        return true;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    /**
+     * A single lock-guarded open-addressing table. Apart from the
+     * write-through methods used by {@link NativeNearCacheRecord},
+     * all methods require the caller to hold the lock.
+     */
+    final class Segment {
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        volatile int size;
+
+        private final SlabMemoryAllocator headers = new SlabMemoryAllocator(malloc, mem);
+        private final SlabMemoryAllocator blocks = new SlabMemoryAllocator(malloc, mem);
+        private long table;
+        private int capacity;
+        private long nextId = 1;
+        private boolean disposed;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+            this.table = malloc.allocate((long) capacity * LONG_SIZE_IN_BYTES);
+        }
+
+        long headerAt(int slot) {
+            return mem.getLong(table + (long) slot * LONG_SIZE_IN_BYTES);
+        }
+
+        private void setHeaderAt(int slot, long header) {
+            mem.putLong(table + (long) slot * LONG_SIZE_IN_BYTES, header);
+        }
+
+        int find(byte[] keyBytes, int hash) {
+            if (disposed) {
+                return -1;
+            }
+            int mask = capacity - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                long header = headerAt(slot);
+                if (header == NULL_ADDRESS) {
+                    return -1;
+                }
+                if (keyEquals(header, keyBytes, hash)) {
+                    return slot;
+                }
+            }
+        }
+
+        /**
+         * Compares the stored key with the given one the same way
+         * {@link HeapData#equals(Object)} does, i.e. ignoring the
+         * partition hash.
+         */
+        private boolean keyEquals(long header, byte[] keyBytes, int hash) {
+            if (mem.getInt(header + HASH_OFFSET) != hash) {
+                return false;
+            }
+            long block = mem.getLong(header + KV_ADDRESS_OFFSET);
+            if (mem.getInt(block + KEY_SIZE_OFFSET) != keyBytes.length) {
+                return false;
+            }
+            long keyAddress = block + KEY_OFFSET;
+            for (int i = keyBytes.length - 1; i >= TYPE_OFFSET; i--) {
+                if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns a snapshot of the entry which copies the value only when
+         * it's first read.
+         */
+        NativeNearCacheRecord read(long header) {
+            long block = mem.getLong(header + KV_ADDRESS_OFFSET);
+            int flags = mem.getInt(header + FLAGS_OFFSET);
+            UUID uuid = (flags & UUID_FLAG) != 0
+                    ? new UUID(mem.getLong(header + UUID_MSB_OFFSET), mem.getLong(header + UUID_LSB_OFFSET))
+                    : null;
+            return new NativeNearCacheRecord(this, header, mem.getLong(header + ID_OFFSET),
+                    mem.getInt(block + VALUE_SIZE_OFFSET),
+                    mem.getLong(header + CREATION_TIME_OFFSET), mem.getLong(header + EXPIRATION_TIME_OFFSET),
+                    mem.getLongVolatile(header + LAST_ACCESS_TIME_OFFSET), mem.getIntVolatile(header + HITS_OFFSET),
+                    mem.getLong(header + RESERVATION_ID_OFFSET), mem.getInt(header + PARTITION_ID_OFFSET),
+                    mem.getLong(header + INVALIDATION_SEQUENCE_OFFSET), uuid, (flags & CACHED_AS_NULL_FLAG) != 0);
+        }
+
+        NativeNearCacheRecord readWithValue(long header) {
+            NativeNearCacheRecord record = read(header);
+            record.copiedValue(readValue(mem.getLong(header + KV_ADDRESS_OFFSET)));
+            return record;
+        }
+
+        Data readKey(long header) {
+            long block = mem.getLong(header + KV_ADDRESS_OFFSET);
+            byte[] bytes = new byte[mem.getInt(block + KEY_SIZE_OFFSET)];
+            mem.copyToByteArray(block + KEY_OFFSET, bytes, 0, bytes.length);
+            return new HeapData(bytes);
+        }
+
+        private Data readValue(long block) {
+            int valueSize = mem.getInt(block + VALUE_SIZE_OFFSET);
+            if (valueSize == NULL_VALUE_SIZE) {
+                return null;
+            }
+            byte[] bytes = new byte[valueSize];
+            mem.copyToByteArray(block + KEY_OFFSET + mem.getInt(block + KEY_SIZE_OFFSET), bytes, 0, valueSize);
+            return new HeapData(bytes);
+        }
+
+        void insert(byte[] keyBytes, int hash, NativeNearCacheRecord record) {
+            checkState(!disposed, "Near Cache record map is already disposed");
+            if (size + 1 > capacity - (capacity >> 2)) {
+                resize(capacity << 1);
+            }
+            int mask = capacity - 1;
+            int slot = hash & mask;
+            while (headerAt(slot) != NULL_ADDRESS) {
+                slot = (slot + 1) & mask;
+            }
+            setHeaderAt(slot, newEntry(keyBytes, hash, record));
+            size++;
+        }
+
+        void storeAt(int slot, byte[] keyBytes, int hash, NativeNearCacheRecord record) {
+            long oldHeader = headerAt(slot);
+            setHeaderAt(slot, newEntry(keyBytes, hash, record));
+            freeEntry(oldHeader);
+        }
+
+        void removeAt(int slot) {
+            freeEntry(headerAt(slot));
+            // backward shift deletion keeps probe sequences intact without tombstones
+            int mask = capacity - 1;
+            int hole = slot;
+            for (int next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+                long header = headerAt(next);
+                if (header == NULL_ADDRESS) {
+                    break;
+                }
+                int home = mem.getInt(header + HASH_OFFSET) & mask;
+                boolean movable = hole <= next
+                        ? home <= hole || home > next
+                        : home <= hole && home > next;
+                if (movable) {
+                    setHeaderAt(hole, header);
+                    hole = next;
+                }
+            }
+            setHeaderAt(hole, NULL_ADDRESS);
+            size--;
+        }
+
+        private long newEntry(byte[] keyBytes, int hash, NativeNearCacheRecord record) {
+            Data value = record.getValue();
+            byte[] valueBytes = value == null ? null : value.toByteArray();
+            long block = newBlock(keyBytes, valueBytes);
+            long header = headers.allocate(HEADER_SIZE);
+            long id = nextId++;
+            UUID uuid = record.getUuid();
+            mem.putLong(header + KV_ADDRESS_OFFSET, block);
+            mem.putLong(header + ID_OFFSET, id);
+            mem.putLong(header + CREATION_TIME_OFFSET, record.getCreationTime());
+            mem.putLong(header + EXPIRATION_TIME_OFFSET, record.getExpirationTime());
+            mem.putLong(header + LAST_ACCESS_TIME_OFFSET, record.getLastAccessTime());
+            mem.putLong(header + RESERVATION_ID_OFFSET, record.getReservationId());
+            mem.putLong(header + INVALIDATION_SEQUENCE_OFFSET, record.getInvalidationSequence());
+            if (uuid != null) {
+                mem.putLong(header + UUID_MSB_OFFSET, uuid.getMostSignificantBits());
+                mem.putLong(header + UUID_LSB_OFFSET, uuid.getLeastSignificantBits());
+            }
+            mem.putInt(header + HASH_OFFSET, hash);
+            mem.putInt(header + PARTITION_ID_OFFSET, record.getPartitionId());
+            mem.putInt(header + HITS_OFFSET, (int) record.getHits());
+            mem.putInt(header + FLAGS_OFFSET, (record.isCachedAsNull() ? CACHED_AS_NULL_FLAG : 0)
+                    | (uuid != null ? UUID_FLAG : 0));
+            record.attach(this, header, id);
+            return header;
+        }
+
+        private long newBlock(byte[] keyBytes, byte[] valueBytes) {
+            int valueSize = valueBytes == null ? 0 : valueBytes.length;
+            long block = blocks.allocate(KEY_OFFSET + keyBytes.length + valueSize);
+            mem.putInt(block + KEY_SIZE_OFFSET, keyBytes.length);
+            mem.putInt(block + VALUE_SIZE_OFFSET, valueBytes == null ? NULL_VALUE_SIZE : valueSize);
+            mem.copyFromByteArray(keyBytes, 0, block + KEY_OFFSET, keyBytes.length);
+            if (valueBytes != null) {
+                mem.copyFromByteArray(valueBytes, 0, block + KEY_OFFSET + keyBytes.length, valueSize);
+            }
+            return block;
+        }
+
+        private void freeEntry(long header) {
+            freeBlock(mem.getLong(header + KV_ADDRESS_OFFSET));
+            mem.putLong(header + ID_OFFSET, 0L);
+            headers.free(header, HEADER_SIZE);
+        }
+
+        private void freeBlock(long block) {
+            blocks.free(block, blockSize(block));
+        }
+
+        private long blockSize(long block) {
+            return KEY_OFFSET + mem.getInt(block + KEY_SIZE_OFFSET) + Math.max(0, mem.getInt(block + VALUE_SIZE_OFFSET));
+        }
+
+        private void resize(int newCapacity) {
+            long oldTable = table;
+            int oldCapacity = capacity;
+            table = malloc.allocate((long) newCapacity * LONG_SIZE_IN_BYTES);
+            capacity = newCapacity;
+            int mask = newCapacity - 1;
+            for (int i = 0; i < oldCapacity; i++) {
+                long header = mem.getLong(oldTable + (long) i * LONG_SIZE_IN_BYTES);
+                if (header == NULL_ADDRESS) {
+                    continue;
+                }
+                int slot = mem.getInt(header + HASH_OFFSET) & mask;
+                while (headerAt(slot) != NULL_ADDRESS) {
+                    slot = (slot + 1) & mask;
+                }
+                setHeaderAt(slot, header);
+            }
+            malloc.free(oldTable, (long) oldCapacity * LONG_SIZE_IN_BYTES);
+        }
+
+        void sample(ThreadLocalRandom random, int sampleCount,
+                    List<EvictionCandidate<Data, NativeNearCacheRecord>> samples) {
+            if (size == 0) {
+                return;
+            }
+            int mask = capacity - 1;
+            int start = random.nextInt(capacity);
+            for (int i = 0; i < capacity && samples.size() < sampleCount; i++) {
+                long header = headerAt((start + i) & mask);
+                if (header != NULL_ADDRESS) {
+                    samples.add(new NativeEvictionCandidate(readKey(header), read(header)));
+                }
+            }
+        }
+
+        void clear() {
+            if (disposed) {
+                return;
+            }
+            for (int i = 0; i < capacity; i++) {
+                long header = headerAt(i);
+                if (header != NULL_ADDRESS) {
+                    freeEntry(header);
+                    setHeaderAt(i, NULL_ADDRESS);
+                }
+            }
+            size = 0;
+        }
+
+        void dispose() {
+            if (disposed) {
+                return;
+            }
+            clear();
+            malloc.free(table, (long) capacity * LONG_SIZE_IN_BYTES);
+            headers.dispose();
+            blocks.dispose();
+            table = NULL_ADDRESS;
+            capacity = 0;
+            disposed = true;
+        }
+
+        long usedMemory() {
+            return headers.getUsedMemory() + blocks.getUsedMemory() + (long) capacity * LONG_SIZE_IN_BYTES;
+        }
+
+        /**
+         * Entry headers are only reused for other headers of this
+         * segment and every entry gets a new id, so a header whose
+         * id is unchanged is still the entry a record was read from.
+         */
+        private boolean isLive(long header, long id) {
+            return !disposed && mem.getLong(header + ID_OFFSET) == id;
+        }
+
+        void writeLong(long header, long id, int offset, long value) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    mem.putLong(header + offset, value);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void writeInt(long header, long id, int offset, int value) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    mem.putInt(header + offset, value);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        Data readValue(long header, long id) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return isLive(header, id) ? readValue(mem.getLong(header + KV_ADDRESS_OFFSET)) : null;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        void writeAccessTime(long header, long id, long time) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    mem.putOrderedLong(header + LAST_ACCESS_TIME_OFFSET, time);
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        void incrementHits(long header, long id) {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    long address = header + HITS_OFFSET;
+                    int hits;
+                    do {
+                        hits = mem.getIntVolatile(address);
+                    } while (!mem.compareAndSwapInt(address, hits, hits + 1));
+                }
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        void writeFlag(long header, long id, int flag, boolean value) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    int flags = mem.getInt(header + FLAGS_OFFSET);
+                    mem.putInt(header + FLAGS_OFFSET, value ? flags | flag : flags & ~flag);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void writeUuid(long header, long id, UUID uuid) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    int flags = mem.getInt(header + FLAGS_OFFSET);
+                    if (uuid == null) {
+                        mem.putInt(header + FLAGS_OFFSET, flags & ~UUID_FLAG);
+                    } else {
+                        mem.putLong(header + UUID_MSB_OFFSET, uuid.getMostSignificantBits());
+                        mem.putLong(header + UUID_LSB_OFFSET, uuid.getLeastSignificantBits());
+                        mem.putInt(header + FLAGS_OFFSET, flags | UUID_FLAG);
+                    }
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void writeValue(long header, long id, Data value) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (isLive(header, id)) {
+                    long oldBlock = mem.getLong(header + KV_ADDRESS_OFFSET);
+                    byte[] keyBytes = new byte[mem.getInt(oldBlock + KEY_SIZE_OFFSET)];
+                    mem.copyToByteArray(oldBlock + KEY_OFFSET, keyBytes, 0, keyBytes.length);
+                    long block = newBlock(keyBytes, value == null ? null : value.toByteArray());
+                    mem.putLong(header + KV_ADDRESS_OFFSET, block);
+                    freeBlock(oldBlock);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Iterates over the segments slot by slot, locking a segment only
+     * for the duration of a single read.
+     */
+    private final class EntryIterator implements Iterator<Entry<Data, NativeNearCacheRecord>> {
+
+        private int segmentIndex;
+        private int slot;
+        private Entry<Data, NativeNearCacheRecord> next;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<Data, NativeNearCacheRecord> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<Data, NativeNearCacheRecord> entry = next;
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            next = null;
+            for (; segmentIndex < segments.length; segmentIndex++, slot = 0) {
+                Segment segment = segments[segmentIndex];
+                Lock lock = segment.lock.readLock();
+                lock.lock();
+                try {
+                    while (slot < segment.capacity) {
+                        long header = segment.headerAt(slot++);
+                        if (header != NULL_ADDRESS) {
+                            next = new SimpleImmutableEntry<>(segment.readKey(header), segment.read(header));
+                            return;
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private final class NativeEvictionCandidate implements EvictionCandidate<Data, NativeNearCacheRecord> {
+
+        private final Data key;
+        private final NativeNearCacheRecord record;
+
+        NativeEvictionCandidate(Data key, NativeNearCacheRecord record) {
+            this.key = key;
+            this.record = record;
+        }
+
+        @Override
+        public Data getAccessor() {
+            return key;
+        }
+
+        @Override
+        public NativeNearCacheRecord getEvictable() {
+            return record;
+        }
+
+        @Override
+        public Object getKey() {
+            return serializationService.toObject(key);
+        }
+
+        @Override
+        public Object getValue() {
+            return serializationService.toObject(record.getValue());
+        }
+
+        @Override
+        public long getCreationTime() {
+            return record.getCreationTime();
+        }
+
+        @Override
+        public long getLastAccessTime() {
+            return record.getLastAccessTime();
+        }
+
+        @Override
+        public long getHits() {
+            return record.getHits();
+        }
+    }
+}
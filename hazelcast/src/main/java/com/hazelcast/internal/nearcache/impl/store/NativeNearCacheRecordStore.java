@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.adapter.DataStructureAdapter;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.nearcache.impl.maxsize.EntryCountNearCacheEvictionChecker;
+import com.hazelcast.internal.nearcache.impl.preloader.NearCachePreloader;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.HEADER_SIZE;
+import static com.hazelcast.internal.nearcache.impl.store.NativeNearCacheRecordMap.KEY_OFFSET;
+import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+import static java.lang.String.format;
+
+/**
+ * {@link com.hazelcast.internal.nearcache.NearCacheRecordStore} implementation
+ * for {@link com.hazelcast.config.InMemoryFormat#BINARY} Near Caches with
+ * {@link NearCacheConfig#isOffHeapStorageEnabled() off-heap storage} enabled.
+ * <p>
+ * Serialized keys, values and record metadata are kept in a
+ * {@link NativeNearCacheRecordMap}, so the number of cached entries does not
+ * affect the size of the heap. The memory is allocated through the memory
+ * manager shared by all Near Caches of a Near Cache manager, and released
+ * when the record store is destroyed.
+ *
+ * @param <K> the type of the key stored in Near Cache, always {@link Data}
+ * @param <V> the type of the value stored in Near Cache
+ */
+public class NativeNearCacheRecordStore<K, V>
+        extends AbstractNearCacheRecordStore<K, V, Data, NativeNearCacheRecord, NativeNearCacheRecordMap> {
+
+    private static final int DEFAULT_SEGMENT_COUNT = 16;
+    private static final int DEFAULT_INITIAL_CAPACITY = 1000;
+
+    private final MemoryManager memoryManager;
+    private final NearCachePreloader<K> nearCachePreloader;
+    private final BiFunction<Data, NativeNearCacheRecord, NativeNearCacheRecord> invalidatorFunction
+            = createInvalidatorFunction();
+
+    public NativeNearCacheRecordStore(String name, NearCacheConfig nearCacheConfig,
+                                      SerializationService serializationService, ClassLoader classLoader,
+                                      MemoryManager memoryManager) {
+        super(nearCacheConfig, serializationService, classLoader);
+        this.memoryManager = memoryManager;
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        this.nearCachePreloader = preloaderConfig.isEnabled()
+                ? new NearCachePreloader<>(name, preloaderConfig, nearCacheStats, serializationService) : null;
+    }
+
+    @Override
+    protected EvictionChecker createNearCacheEvictionChecker(EvictionConfig evictionConfig,
+                                                             NearCacheConfig nearCacheConfig) {
+        MaxSizePolicy maxSizePolicy = evictionConfig.getMaxSizePolicy();
+        if (maxSizePolicy == MaxSizePolicy.ENTRY_COUNT) {
+            return new EntryCountNearCacheEvictionChecker(evictionConfig.getSize(), records);
+        }
+
+        throw new IllegalArgumentException(format("Invalid max-size policy (%s) for %s! Only %s is supported.",
+                maxSizePolicy, getClass().getName(), MaxSizePolicy.ENTRY_COUNT));
+    }
+
+    @Override
+    protected NativeNearCacheRecordMap createNearCacheRecordMap(NearCacheConfig nearCacheConfig) {
+        return new NativeNearCacheRecordMap(memoryManager, serializationService,
+                DEFAULT_SEGMENT_COUNT, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    protected long getKeyStorageMemoryCost(K key) {
+        // keys are stored in serialized form, converting a Data key is a no-op
+        return toData(key).totalSize();
+    }
+
+    @Override
+    protected long getRecordStorageMemoryCost(NativeNearCacheRecord record) {
+        if (record == null) {
+            return 0L;
+        }
+        return HEADER_SIZE + KEY_OFFSET + record.getValueSize();
+    }
+
+    @Override
+    protected NativeNearCacheRecord createRecord(V value) {
+        Data dataValue = toData(value);
+        long creationTime = currentTimeMillis();
+        if (timeToLiveMillis > 0) {
+            return new NativeNearCacheRecord(dataValue, creationTime, creationTime + timeToLiveMillis);
+        } else {
+            return new NativeNearCacheRecord(dataValue, creationTime, TIME_NOT_SET);
+        }
+    }
+
+    @Override
+    protected void updateRecordValue(NativeNearCacheRecord record, V value) {
+        record.setValue(toData(value));
+    }
+
+    @Override
+    public NativeNearCacheRecord getRecord(K key) {
+        return records.get(toData(key));
+    }
+
+    @Override
+    protected NativeNearCacheRecord putRecord(K key, NativeNearCacheRecord record) {
+        NativeNearCacheRecord oldRecord = records.put(toData(key), record);
+        nearCacheStats.incrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, record));
+        if (oldRecord != null) {
+            nearCacheStats.decrementOwnedEntryMemoryCost(getTotalStorageMemoryCost(key, oldRecord));
+        }
+        return oldRecord;
+    }
+
+    @Override
+    protected Data toRecordKey(K key) {
+        return toData(key);
+    }
+
+    @Override
+    protected boolean containsRecordKey(K key) {
+        return records.containsKey(toData(key));
+    }
+
+    @Override
+    public void onEvict(Data key, NativeNearCacheRecord record, boolean wasExpired) {
+        if (!canUpdateStats(record)) {
+            return;
+        }
+        super.onEvict(key, record, wasExpired);
+        nearCacheStats.decrementOwnedEntryMemoryCost(key.totalSize() + getRecordStorageMemoryCost(record));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void doExpiration() {
+        for (Map.Entry<Data, NativeNearCacheRecord> entry : records.entrySet()) {
+            K key = (K) entry.getKey();
+            NativeNearCacheRecord value = entry.getValue();
+            if (isRecordExpired(value)) {
+                invalidate(key);
+                onExpire(key, value);
+            }
+        }
+    }
+
+    @Override
+    public void loadKeys(DataStructureAdapter<Object, ?> adapter) {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.loadKeys(adapter);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void storeKeys() {
+        if (nearCachePreloader != null) {
+            nearCachePreloader.storeKeys((Iterator<K>) (Iterator) records.keySet().iterator());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        records.dispose();
+        if (nearCachePreloader != null) {
+            nearCachePreloader.destroy();
+        }
+    }
+
+    @Nullable
+    @Override
+    public V tryPublishReserved(K key, V value, long reservationId, boolean deserialize) {
+        NativeNearCacheRecord existingRecord = records.applyIfPresent(toData(key),
+                (keyData, reservedRecord) -> publishReservedRecord(key, value, reservedRecord, reservationId));
+
+        if (existingRecord == null || !deserialize) {
+            return null;
+        }
+        return toValue(existingRecord.getValue());
+    }
+
+    @Override
+    protected NativeNearCacheRecord reserveForReadUpdate(K key, Data keyData, long reservationId) {
+        return records.applyIfAbsent(toData(key), k -> newReservationRecord(key, keyData, reservationId));
+    }
+
+    @Override
+    protected NativeNearCacheRecord reserveForWriteUpdate(K key, Data keyData, long reservationId) {
+        return records.apply(toData(key),
+                (k, existingRecord) -> reserveForWriteUpdate(key, keyData, existingRecord, reservationId));
+    }
+
+    @Override
+    public void invalidate(K key) {
+        records.applyIfPresent(toData(key), invalidatorFunction);
+
+        nearCacheStats.incrementInvalidationRequests();
+    }
+
+    private BiFunction<Data, NativeNearCacheRecord, NativeNearCacheRecord> createInvalidatorFunction() {
+        return (key, record) -> {
+            if (canUpdateStats(record)) {
+                nearCacheStats.decrementOwnedEntryCount();
+                nearCacheStats.decrementOwnedEntryMemoryCost(key.totalSize() + getRecordStorageMemoryCost(record));
+                nearCacheStats.incrementInvalidations();
+            }
+            return null;
+        };
+    }
+}
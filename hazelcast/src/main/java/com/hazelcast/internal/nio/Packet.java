@@ -20,6 +20,8 @@ import com.hazelcast.internal.networking.OutboundFrame;
 import com.hazelcast.internal.server.ServerConnection;
 import com.hazelcast.internal.serialization.impl.HeapData;
 
+import java.util.Arrays;
+
 import static com.hazelcast.internal.nio.PacketIOHelper.HEADER_SIZE;
 
 /**
@@ -110,6 +112,10 @@ public final class Packet extends HeapData implements OutboundFrame {
     private int partitionId;
     private transient ServerConnection conn;
 
+    // only set if the payload is borrowed from a pool, it is then usually longer than the packet
+    private transient PacketPayloadPool payloadPool;
+    private int payloadSize;
+
     public Packet() {
         raiseFlags(FLAG_4_0);
     }
@@ -124,6 +130,23 @@ public final class Packet extends HeapData implements OutboundFrame {
         raiseFlags(FLAG_4_0);
     }
 
+    /**
+     * Creates a Packet whose payload is borrowed from the given pool. Only the
+     * first {@code payloadSize} bytes of the payload belong to the packet.
+     * Once the payload isn't read any more, it should be handed back with
+     * {@link #releasePayload()}.
+     *
+     * @param payload     the pooled payload
+     * @param payloadSize the number of bytes of the payload used by the packet
+     * @param partitionId the partition ID
+     * @param payloadPool the pool the payload was borrowed from
+     */
+    public Packet(byte[] payload, int payloadSize, int partitionId, PacketPayloadPool payloadPool) {
+        this(payload, partitionId);
+        this.payloadSize = payloadSize;
+        this.payloadPool = payloadPool;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -216,6 +239,61 @@ public final class Packet extends HeapData implements OutboundFrame {
         return partitionId;
     }
 
+    /**
+     * Returns the size of the packet's payload. If the payload is pooled, the
+     * array returned by {@link #payloadBuffer()} can be longer than that.
+     */
+    @Override
+    public int totalSize() {
+        return payloadPool != null ? payloadSize : super.totalSize();
+    }
+
+    /**
+     * Returns a copy of the payload if it's pooled, so the returned array has
+     * the exact size of the payload and stays valid after {@link #releasePayload()}.
+     */
+    @Override
+    public byte[] toByteArray() {
+        return payloadPool != null ? Arrays.copyOf(payload, payloadSize) : payload;
+    }
+
+    /**
+     * Returns the payload without copying it. If the payload is pooled, only
+     * the first {@link #totalSize()} bytes of the array belong to the packet
+     * and the array is reused once {@link #releasePayload()} is called. Only
+     * meant for reading the payload in place before it's released, i.e. when
+     * deserializing the operation the packet contains. Use
+     * {@link #toByteArray()} otherwise.
+     */
+    public byte[] payloadBuffer() {
+        return payload;
+    }
+
+    /**
+     * @return {@code true} if the payload is borrowed from a {@link PacketPayloadPool}
+     */
+    public boolean hasPooledPayload() {
+        return payloadPool != null;
+    }
+
+    /**
+     * Hands a pooled payload back to its pool, the packet is empty afterwards.
+     * Must only be called by the single owner of the packet once nothing reads
+     * the payload any more, e.g. when the operation it contains has been
+     * deserialized. Does nothing if the payload isn't pooled.
+     */
+    public void releasePayload() {
+        PacketPayloadPool pool = payloadPool;
+        if (pool == null) {
+            return;
+        }
+        byte[] pooledPayload = payload;
+        payloadPool = null;
+        payload = null;
+        payloadSize = 0;
+        pool.free(pooledPayload);
+    }
+
     @Override
     public boolean isUrgent() {
         return isFlagRaised(FLAG_URGENT);
@@ -21,6 +21,8 @@ import java.nio.ByteBuffer;
 import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
 import static com.hazelcast.internal.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_CONTROL;
+import static com.hazelcast.internal.nio.Packet.FLAG_OP_RESPONSE;
 import static com.hazelcast.internal.nio.Packet.VERSION;
 
 /**
@@ -34,16 +36,36 @@ import static com.hazelcast.internal.nio.Packet.VERSION;
  * write at the same time, you need to have 2 instances.
  *
  * A {@link PacketIOHelper} is designed to be reused.
+ *
+ * A reading {@link PacketIOHelper} can be given a {@link PacketPayloadPool}; the payloads of operation packets are then
+ * borrowed from that pool instead of being allocated. Such an operation packet is only read by the operation thread which
+ * deserializes it, so that thread can hand the payload back as soon as the operation is deserialized. The other packets
+ * can be kept around by their consumers and are never pooled.
  */
 public class PacketIOHelper {
     static final int HEADER_SIZE = BYTE_SIZE_IN_BYTES + SHORT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
 
+    private final PacketPayloadPool payloadPool;
+
     private int valueOffset;
     private int size;
     private boolean headerComplete;
     private char flags;
     private int partitionId;
     private byte[] payload;
+    private boolean pooledPayload;
+
+    public PacketIOHelper() {
+        this(null);
+    }
+
+    /**
+     * @param payloadPool the pool to borrow the payloads of read operation packets from, or {@code null} to allocate all
+     *                    payloads
+     */
+    public PacketIOHelper(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
 
     /**
      * Writes the packet data to the supplied {@code ByteBuffer}, up to the buffer's limit. If it returns {@code false},
@@ -131,7 +153,10 @@ public class PacketIOHelper {
         }
 
         if (readValue(src)) {
-            Packet packet = new Packet(payload, partitionId).resetFlagsTo(flags);
+            Packet packet = pooledPayload
+                    ? new Packet(payload, size, partitionId, payloadPool)
+                    : new Packet(payload, partitionId);
+            packet.resetFlagsTo(flags);
             reset();
             return packet;
         } else {
@@ -142,12 +167,14 @@ public class PacketIOHelper {
     private void reset() {
         headerComplete = false;
         payload = null;
+        pooledPayload = false;
         valueOffset = 0;
     }
 
     private boolean readValue(ByteBuffer src) {
         if (payload == null) {
-            payload = new byte[size];
+            pooledPayload = isPoolable();
+            payload = pooledPayload ? payloadPool.allocate(size) : new byte[size];
         }
 
         if (size > 0) {
@@ -177,4 +204,11 @@ public class PacketIOHelper {
         return true;
     }
 
+    private boolean isPoolable() {
+        if (payloadPool == null || !PacketPayloadPool.isPoolable(size)) {
+            return false;
+        }
+        return Packet.Type.fromFlags(flags) == Packet.Type.OPERATION
+                && (flags & (FLAG_OP_RESPONSE | FLAG_OP_CONTROL)) == 0;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.nio;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A pool of byte arrays used as the payload of inbound operation packets, so
+ * that decoding a packet doesn't need a fresh allocation for every payload.
+ * <p>
+ * The arrays come in power-of-two size classes, so a pooled payload is usually
+ * longer than the packet it carries; see {@link Packet#totalSize()}. A payload
+ * is borrowed by the IO thread which decodes the packet and handed back with
+ * {@link Packet#releasePayload()} by the thread which deserializes it. A
+ * payload which is never handed back, e.g. because its packet got dropped, is
+ * simply garbage collected.
+ * <p>
+ * Every size class is a fixed number of slots which are emptied and filled
+ * with atomic operations, so the pool neither blocks nor allocates. The scan
+ * over the slots starts at a random one to spread the threads using the pool.
+ */
+public final class PacketPayloadPool {
+
+    static final int MIN_POOLED_SIZE = 1 << 9;
+    static final int MAX_POOLED_SIZE = 1 << 16;
+    static final int SLOTS_PER_SIZE_CLASS = 64;
+
+    private static final int MIN_POOLED_SIZE_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    private static final int SIZE_CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_POOLED_SIZE_SHIFT + 1;
+    private static final int SLOT_MASK = SLOTS_PER_SIZE_CLASS - 1;
+
+    private final AtomicReferenceArray<byte[]>[] sizeClasses;
+
+    @SuppressWarnings("unchecked")
+    public PacketPayloadPool() {
+        sizeClasses = new AtomicReferenceArray[SIZE_CLASS_COUNT];
+        for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+            sizeClasses[i] = new AtomicReferenceArray<>(SLOTS_PER_SIZE_CLASS);
+        }
+    }
+
+    /**
+     * Checks if a payload of the given size should be taken from the pool.
+     * Small payloads are cheaper to allocate than to pool and big ones would
+     * keep too much memory alive.
+     *
+     * @param size the size of the payload
+     * @return {@code true} if the payload should be pooled
+     */
+    public static boolean isPoolable(int size) {
+        return size >= MIN_POOLED_SIZE && size <= MAX_POOLED_SIZE;
+    }
+
+    /**
+     * Borrows a payload which is at least {@code size} bytes long.
+     *
+     * @param size the minimum length of the payload, see {@link #isPoolable(int)}
+     * @return the payload
+     */
+    public byte[] allocate(int size) {
+        int sizeClass = sizeClass(size);
+        AtomicReferenceArray<byte[]> slots = sizeClasses[sizeClass];
+        int start = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS; i++) {
+            int slot = (start + i) & SLOT_MASK;
+            if (slots.get(slot) != null) {
+                byte[] payload = slots.getAndSet(slot, null);
+                if (payload != null) {
+                    return payload;
+                }
+            }
+        }
+        return new byte[MIN_POOLED_SIZE << sizeClass];
+    }
+
+    /**
+     * Hands a payload obtained from {@link #allocate(int)} back to the pool.
+     * The payload must not be used by the caller afterwards.
+     *
+     * @param payload the payload
+     */
+    public void free(byte[] payload) {
+        AtomicReferenceArray<byte[]> slots = sizeClasses[sizeClass(payload.length)];
+        int start = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS; i++) {
+            int slot = (start + i) & SLOT_MASK;
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, payload)) {
+                return;
+            }
+        }
+        // all slots are taken, the payload is left to the garbage collector
+    }
+
+    private static int sizeClass(int size) {
+        int shift = Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+        return Math.max(shift - MIN_POOLED_SIZE_SHIFT, 0);
+    }
+}
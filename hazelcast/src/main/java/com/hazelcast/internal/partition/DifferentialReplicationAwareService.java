@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.internal.services.ServiceNamespace;
+
+import javax.annotation.Nullable;
+
+/**
+ * {@code DifferentialReplicationAwareService} is an extension to the {@link FragmentedMigrationAwareService}
+ * which maintains Merkle trees over its replica fragments.
+ * <p>
+ * When a backup replica requests synchronization, it sends the hashes of the leaves of its Merkle trees along
+ * with the request. These are passed to the primary replica in the {@link PartitionReplicationEvent}, so that
+ * {@link #prepareReplicationOperation(PartitionReplicationEvent, java.util.Collection)} can transfer only the
+ * data belonging to the Merkle tree leaves which differ between the replicas, instead of the whole fragment.
+ *
+ * @see PartitionReplicationEvent#getReplicaMerkleTreeLeaves(ServiceNamespace)
+ */
+public interface DifferentialReplicationAwareService extends FragmentedMigrationAwareService {
+
+    /**
+     * Returns the hashes of the leaves of the Merkle tree maintained over
+     * the given replica fragment of the local partition replica.
+     * <p>
+     * This method is called on the partition thread.
+     *
+     * @param partitionId the partition ID
+     * @param namespace   namespace of the replica fragment
+     * @return hashes of the Merkle tree leaves or {@code null} if no Merkle tree is
+     * maintained for the fragment, in which case it is synchronized fully
+     */
+    @Nullable
+    int[] getMerkleTreeLeaves(int partitionId, ServiceNamespace namespace);
+}
@@ -17,8 +17,11 @@
 package com.hazelcast.internal.partition;
 
 import com.hazelcast.cluster.Address;
+import com.hazelcast.internal.services.ServiceNamespace;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * An event send to {@link MigrationAwareService} when partition changes happen.
@@ -32,6 +35,8 @@ public class PartitionReplicationEvent {
     @Nullable
     private final Address target;
 
+    private final Map<ServiceNamespace, int[]> replicaMerkleTreeLeaves;
+
     /**
      * Creates a PartitionReplicationEvent
      *
@@ -39,9 +44,23 @@ public class PartitionReplicationEvent {
      * @param replicaIndex the replica index
      */
     public PartitionReplicationEvent(Address target, int partitionId, int replicaIndex) {
+        this(target, partitionId, replicaIndex, Collections.emptyMap());
+    }
+
+    /**
+     * Creates a PartitionReplicationEvent
+     *
+     * @param partitionId             the partition ID
+     * @param replicaIndex            the replica index
+     * @param replicaMerkleTreeLeaves the hashes of the Merkle tree leaves of the
+     *                                replica being synchronized, per namespace
+     */
+    public PartitionReplicationEvent(Address target, int partitionId, int replicaIndex,
+                                     Map<ServiceNamespace, int[]> replicaMerkleTreeLeaves) {
         this.target = target;
         this.partitionId = partitionId;
         this.replicaIndex = replicaIndex;
+        this.replicaMerkleTreeLeaves = replicaMerkleTreeLeaves;
     }
 
     /**
@@ -66,6 +85,20 @@ public class PartitionReplicationEvent {
         return target;
     }
 
+    /**
+     * Returns the hashes of the Merkle tree leaves of the replica being
+     * synchronized for the given namespace.
+     *
+     * @param namespace the namespace of the replica fragment
+     * @return the hashes of the Merkle tree leaves or {@code null} if the replica
+     * didn't provide them and the namespace has to be replicated fully
+     * @see DifferentialReplicationAwareService
+     */
+    @Nullable
+    public int[] getReplicaMerkleTreeLeaves(ServiceNamespace namespace) {
+        return replicaMerkleTreeLeaves.get(namespace);
+    }
+
     @Override
     public String toString() {
         return "PartitionReplicationEvent{partitionId=" + partitionId + ", replicaIndex=" + replicaIndex + '}';
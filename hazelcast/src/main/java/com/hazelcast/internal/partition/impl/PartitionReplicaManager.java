@@ -19,6 +19,7 @@ package com.hazelcast.internal.partition.impl;
 import com.hazelcast.cluster.Member;
 import com.hazelcast.instance.impl.Node;
 import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.NonFragmentedServiceNamespace;
 import com.hazelcast.internal.partition.PartitionReplica;
@@ -36,9 +37,11 @@ import com.hazelcast.internal.util.scheduler.ScheduledEntry;
 import com.hazelcast.internal.util.scheduler.ScheduledEntryProcessor;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.executionservice.ExecutionService;
 import com.hazelcast.spi.impl.executionservice.TaskScheduler;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.UrgentSystemOperation;
 import com.hazelcast.spi.properties.ClusterProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
@@ -48,8 +51,10 @@ import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -59,6 +64,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_REPLICA_SYNC_SEMAPHORE;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.PARTITIONS_METRIC_PARTITION_REPLICA_MANAGER_SYNC_REQUEST_COUNTER;
+import static com.hazelcast.internal.util.ThreadUtil.isRunningOnPartitionThread;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static java.lang.String.format;
 import static java.util.Collections.newSetFromMap;
@@ -102,6 +108,7 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
 
     private final long partitionMigrationTimeout;
     private final int maxParallelReplications;
+    private final boolean merkleTreeReplicaSyncEnabled;
 
     PartitionReplicaManager(Node node, InternalPartitionServiceImpl partitionService) {
         this.node = node;
@@ -115,6 +122,7 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         HazelcastProperties properties = node.getProperties();
         partitionMigrationTimeout = properties.getMillis(ClusterProperty.PARTITION_MIGRATION_TIMEOUT);
         maxParallelReplications = properties.getInteger(ClusterProperty.PARTITION_MAX_PARALLEL_REPLICATIONS);
+        merkleTreeReplicaSyncEnabled = properties.getBoolean(ClusterProperty.PARTITION_MERKLE_TREE_REPLICA_SYNC_ENABLED);
         replicaSyncSemaphore = new Semaphore(maxParallelReplications);
 
         replicaVersions = new PartitionReplicaVersions[partitionCount];
@@ -252,13 +260,48 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
         replicaSyncRequestsCounter.inc();
 
+        if (merkleTreeReplicaSyncEnabled) {
+            // Merkle trees are mutated on the partition thread, so their
+            // leaves are collected there before the request is sent
+            nodeEngine.getOperationService().execute(
+                    new SendSyncReplicaRequestTask(partitionId, namespaces, replicaIndex, target));
+        } else {
+            sendSyncReplicaRequest(partitionId, namespaces, Collections.emptyMap(), replicaIndex, target);
+        }
+    }
+
+    private void sendSyncReplicaRequest(int partitionId, Collection<ServiceNamespace> namespaces,
+                                        Map<ServiceNamespace, int[]> merkleTreeLeaves, int replicaIndex,
+                                        PartitionReplica target) {
         Operation syncRequest = ALLOW_OFFLOAD
-                ? new PartitionReplicaSyncRequestOffloadable(namespaces, partitionId, replicaIndex)
-                : new PartitionReplicaSyncRequest(namespaces, partitionId, replicaIndex);
+                ? new PartitionReplicaSyncRequestOffloadable(namespaces, merkleTreeLeaves, partitionId, replicaIndex)
+                : new PartitionReplicaSyncRequest(namespaces, merkleTreeLeaves, partitionId, replicaIndex);
 
         nodeEngine.getOperationService().send(syncRequest, target.address());
     }
 
+    /**
+     * Collects the hashes of the Merkle tree leaves of the local replica fragments, so that the partition owner
+     * can send only the entries that differ. Must be called on the partition thread.
+     */
+    private Map<ServiceNamespace, int[]> collectMerkleTreeLeaves(int partitionId, Collection<ServiceNamespace> namespaces) {
+        assert isRunningOnPartitionThread() : "Merkle tree leaves must be collected on the partition thread";
+
+        Map<ServiceNamespace, int[]> merkleTreeLeaves = new HashMap<>();
+        for (DifferentialReplicationAwareService service : nodeEngine.getServices(DifferentialReplicationAwareService.class)) {
+            for (ServiceNamespace namespace : namespaces) {
+                if (!service.isKnownServiceNamespace(namespace)) {
+                    continue;
+                }
+                int[] leaves = service.getMerkleTreeLeaves(partitionId, namespace);
+                if (leaves != null) {
+                    merkleTreeLeaves.put(namespace, leaves);
+                }
+            }
+        }
+        return merkleTreeLeaves;
+    }
+
     private Collection<ServiceNamespace> registerSyncInfoForNamespaces(int partitionId,
                                                                        Collection<ServiceNamespace> requestedNamespaces,
                                                                        int replicaIndex, PartitionReplica target, int permits) {
@@ -664,4 +707,35 @@ public class PartitionReplicaManager implements PartitionReplicaVersionManager {
         }
 
     }
+
+    /**
+     * Sends a replica sync request from the partition thread, along with the
+     * Merkle tree leaves of the local replica fragments.
+     */
+    private final class SendSyncReplicaRequestTask implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        private final int partitionId;
+        private final Collection<ServiceNamespace> namespaces;
+        private final int replicaIndex;
+        private final PartitionReplica target;
+
+        SendSyncReplicaRequestTask(int partitionId, Collection<ServiceNamespace> namespaces, int replicaIndex,
+                                   PartitionReplica target) {
+            this.partitionId = partitionId;
+            this.namespaces = namespaces;
+            this.replicaIndex = replicaIndex;
+            this.target = target;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            Map<ServiceNamespace, int[]> merkleTreeLeaves = collectMerkleTreeLeaves(partitionId, namespaces);
+            sendSyncReplicaRequest(partitionId, namespaces, merkleTreeLeaves, replicaIndex, target);
+        }
+    }
 }
@@ -35,6 +35,7 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.impl.Versioned;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.spi.impl.operationservice.Operation;
 import com.hazelcast.spi.impl.operationservice.OperationService;
@@ -45,10 +46,13 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.readCollection;
 import static com.hazelcast.internal.serialization.impl.SerializationUtil.writeCollection;
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
+import static com.hazelcast.internal.util.MapUtil.createHashMap;
 
 /**
  * The request sent from a replica to the partition owner to
@@ -62,17 +66,28 @@ import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
  * An empty response can be sent if the current replica version is 0.
  */
 public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
-        implements PartitionAwareOperation, MigrationCycleOperation {
+        implements PartitionAwareOperation, MigrationCycleOperation, Versioned {
 
     protected volatile Collection<ServiceNamespace> namespaces;
 
+    // hashes of the Merkle tree leaves of the requesting replica, see DifferentialReplicationAwareService
+    protected Map<ServiceNamespace, int[]> merkleTreeLeaves;
+
     public PartitionReplicaSyncRequest() {
         namespaces = Collections.emptyList();
+        merkleTreeLeaves = Collections.emptyMap();
     }
 
     public PartitionReplicaSyncRequest(Collection<ServiceNamespace> namespaces,
                                        int partitionId, int replicaIndex) {
+        this(namespaces, Collections.emptyMap(), partitionId, replicaIndex);
+    }
+
+    public PartitionReplicaSyncRequest(Collection<ServiceNamespace> namespaces,
+                                       Map<ServiceNamespace, int[]> merkleTreeLeaves,
+                                       int partitionId, int replicaIndex) {
         this.namespaces = namespaces;
+        this.merkleTreeLeaves = merkleTreeLeaves;
         setPartitionId(partitionId);
         setReplicaIndex(replicaIndex);
     }
@@ -149,7 +164,7 @@ public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
         InternalPartitionServiceImpl partitionService = getService();
         try {
             PartitionReplicationEvent event = new PartitionReplicationEvent(getCallerAddress(),
-                    partitionId(), getReplicaIndex());
+                    partitionId(), getReplicaIndex(), merkleTreeLeaves);
             Iterator<ServiceNamespace> iterator = namespaces.iterator();
             for (int i = 0; i < permits; i++) {
                 ServiceNamespace namespace = iterator.next();
@@ -333,11 +348,38 @@ public class PartitionReplicaSyncRequest extends AbstractPartitionOperation
     @Override
     protected void writeInternal(ObjectDataOutput out) throws IOException {
         writeCollection(namespaces, out);
+        writeMerkleTreeLeaves(out);
     }
 
     @Override
     protected void readInternal(ObjectDataInput in) throws IOException {
         namespaces = readCollection(in);
+        readMerkleTreeLeaves(in);
+    }
+
+    protected final void writeMerkleTreeLeaves(ObjectDataOutput out) throws IOException {
+        // RU_COMPAT_5_3
+        if (out.getVersion().isGreaterOrEqual(V5_4)) {
+            out.writeInt(merkleTreeLeaves.size());
+            for (Map.Entry<ServiceNamespace, int[]> entry : merkleTreeLeaves.entrySet()) {
+                out.writeObject(entry.getKey());
+                out.writeIntArray(entry.getValue());
+            }
+        }
+    }
+
+    protected final void readMerkleTreeLeaves(ObjectDataInput in) throws IOException {
+        // RU_COMPAT_5_3
+        if (in.getVersion().isGreaterOrEqual(V5_4)) {
+            int size = in.readInt();
+            merkleTreeLeaves = createHashMap(size);
+            for (int i = 0; i < size; i++) {
+                ServiceNamespace namespace = in.readObject();
+                merkleTreeLeaves.put(namespace, in.readIntArray());
+            }
+        } else {
+            merkleTreeLeaves = Collections.emptyMap();
+        }
     }
 
     @Override
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.InboundHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static com.hazelcast.internal.server.tcp.FrameCompressionEncoder.COMPRESSED_FLAG;
+import static com.hazelcast.internal.server.tcp.FrameCompressionEncoder.HEADER_SIZE;
+import static com.hazelcast.internal.server.tcp.FrameCompressionEncoder.MAX_BLOCK_SIZE;
+import static com.hazelcast.spi.properties.ClusterProperty.NETWORK_COMPRESSION_ENABLED;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * The {@link InboundHandler} that restores the byte stream written by a
+ * {@link FrameCompressionEncoder} and hands it over to the {@link PacketDecoder}.
+ * <p>
+ * A frame is only processed once it has been received completely. Its content
+ * is then written to the dst buffer as far as it fits; the remainder is
+ * written on the next calls, after the {@link PacketDecoder} has made room.
+ * <p>
+ * The inflater is ended when the channel closes. That may happen on another
+ * thread while the handler is running, so the inflater is only used while
+ * holding its lock.
+ *
+ * @see FrameCompressionEncoder
+ */
+public class FrameCompressionDecoder extends InboundHandler<ByteBuffer, ByteBuffer> {
+
+    private final FrameCompressionStats stats;
+    private final Inflater inflater = new Inflater();
+    private final byte[] frame = new byte[MAX_BLOCK_SIZE];
+    // guarded by inflater
+    private boolean inflaterEnded;
+
+    // the state of the frame which is being written to the dst buffer
+    private boolean framePending;
+    private boolean frameCompressed;
+    private int frameLength;
+    private int frameOffset;
+
+    public FrameCompressionDecoder(FrameCompressionStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void handlerAdded() {
+        initSrcBuffer(max(channel.options().getOption(SO_RCVBUF), HEADER_SIZE + MAX_BLOCK_SIZE));
+        channel.addCloseListener(closedChannel -> endInflater());
+    }
+
+    @Override
+    public HandlerStatus onRead() throws Exception {
+        src.flip();
+        try {
+            for (; ; ) {
+                if (framePending && !writePendingFrame()) {
+                    // the dst buffer is full, continue once the PacketDecoder has drained it
+                    return DIRTY;
+                }
+                if (!readFrame()) {
+                    return CLEAN;
+                }
+            }
+        } finally {
+            compactOrClear(src);
+        }
+    }
+
+    /**
+     * Reads the next frame from the src buffer if it has been fully received.
+     *
+     * @return {@code true} if a frame was read, {@code false} otherwise
+     */
+    private boolean readFrame() throws IOException {
+        if (src.remaining() < HEADER_SIZE) {
+            return false;
+        }
+        int header = src.getInt(src.position());
+        int length = header & ~COMPRESSED_FLAG;
+        if (length > MAX_BLOCK_SIZE) {
+            throw new IOException("Malformed compressed frame of " + length + " bytes received on " + channel
+                    + ", make sure all members use the same value of " + NETWORK_COMPRESSION_ENABLED.getName());
+        }
+        if (src.remaining() < HEADER_SIZE + length) {
+            return false;
+        }
+        src.position(src.position() + HEADER_SIZE);
+        src.get(frame, 0, length);
+
+        framePending = true;
+        frameCompressed = (header & COMPRESSED_FLAG) != 0;
+        frameLength = length;
+        frameOffset = 0;
+        return true;
+    }
+
+    /**
+     * Writes as much of the pending frame to the dst buffer as fits.
+     *
+     * @return {@code true} if the whole frame has been written, {@code false}
+     * if the dst buffer is full
+     */
+    private boolean writePendingFrame() throws IOException {
+        if (frameCompressed) {
+            long startNanos = System.nanoTime();
+            try {
+                framePending = !inflateFrame();
+            } catch (DataFormatException e) {
+                throw new IOException("Malformed compressed frame received on " + channel, e);
+            }
+            stats.onDecompressed(System.nanoTime() - startNanos);
+            if (framePending && dst.hasRemaining()) {
+                throw new IOException("Truncated compressed frame received on " + channel);
+            }
+        } else {
+            int n = min(dst.remaining(), frameLength - frameOffset);
+            dst.put(frame, frameOffset, n);
+            frameOffset += n;
+            framePending = frameOffset < frameLength;
+        }
+        return !framePending;
+    }
+
+    /**
+     * Inflates the pending compressed frame into the dst buffer. The frame's
+     * input is passed to the inflater on the first call, which is tracked
+     * with the {@link #frameOffset}.
+     *
+     * @return {@code true} if the whole frame has been inflated or the
+     * channel is closed, {@code false} if the dst buffer is full
+     */
+    private boolean inflateFrame() throws DataFormatException {
+        synchronized (inflater) {
+            if (inflaterEnded) {
+                return true;
+            }
+            if (frameOffset == 0) {
+                inflater.reset();
+                inflater.setInput(frame, 0, frameLength);
+                frameOffset = frameLength;
+            }
+            inflater.inflate(dst);
+            return inflater.finished();
+        }
+    }
+
+    private void endInflater() {
+        synchronized (inflater) {
+            inflaterEnded = true;
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.networking.OutboundHandler;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.IOUtil.compactOrClear;
+import static java.lang.Math.min;
+
+/**
+ * An {@link OutboundHandler} that compresses the byte stream produced by the
+ * {@link PacketEncoder} of a member to member connection.
+ * <p>
+ * The bytes are cut into blocks of at most {@link #MAX_BLOCK_SIZE} bytes and
+ * each block is deflated on its own, so a block always contains whatever the
+ * {@link PacketEncoder} managed to write since the previous call. Under load
+ * that is many packets, which compress much better than each packet would on
+ * its own. Every block is written as a frame: an int header holding the length
+ * of the frame body, with the {@link #COMPRESSED_FLAG} bit raised if the body
+ * is deflated, followed by the body. Blocks which don't shrink are written
+ * uncompressed.
+ * <p>
+ * The deflater is ended when the channel closes. That may happen on another
+ * thread while the handler is running, so the deflater is only used while
+ * holding its lock.
+ *
+ * @see FrameCompressionDecoder
+ */
+public class FrameCompressionEncoder extends OutboundHandler<ByteBuffer, ByteBuffer> {
+
+    static final int MAX_BLOCK_SIZE = 1 << 15;
+    static final int COMPRESSED_FLAG = 1 << 31;
+    static final int HEADER_SIZE = INT_SIZE_IN_BYTES;
+
+    /**
+     * Blocks smaller than this are not worth the deflater's effort.
+     */
+    static final int MIN_COMPRESSIBLE_SIZE = 64;
+
+    private final FrameCompressionStats stats;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final byte[] rawBlock = new byte[MAX_BLOCK_SIZE];
+    private final byte[] compressedBlock = new byte[MAX_BLOCK_SIZE];
+    // guarded by deflater
+    private boolean deflaterEnded;
+
+    public FrameCompressionEncoder(FrameCompressionStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void handlerAdded() {
+        initDstBuffer();
+        channel.addCloseListener(closedChannel -> endDeflater());
+    }
+
+    @Override
+    public HandlerStatus onWrite() {
+        compactOrClear(dst);
+        try {
+            while (src.hasRemaining()) {
+                int blockSize = min(min(src.remaining(), MAX_BLOCK_SIZE), dst.remaining() - HEADER_SIZE);
+                if (blockSize <= 0) {
+                    // the dst buffer is full, the rest will be written once the socket drains it
+                    return DIRTY;
+                }
+                src.get(rawBlock, 0, blockSize);
+                writeFrame(blockSize);
+            }
+            return CLEAN;
+        } finally {
+            dst.flip();
+        }
+    }
+
+    private void writeFrame(int blockSize) {
+        long startNanos = System.nanoTime();
+        int compressedSize = blockSize < MIN_COMPRESSIBLE_SIZE ? blockSize : deflate(blockSize);
+        if (compressedSize < blockSize) {
+            dst.putInt(COMPRESSED_FLAG | compressedSize);
+            dst.put(compressedBlock, 0, compressedSize);
+        } else {
+            dst.putInt(blockSize);
+            dst.put(rawBlock, 0, blockSize);
+        }
+        stats.onCompressed(blockSize, HEADER_SIZE + min(compressedSize, blockSize), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Deflates the first {@code blockSize} bytes of the {@link #rawBlock} into
+     * the {@link #compressedBlock}.
+     *
+     * @return the size of the compressed block, or {@code blockSize} if it
+     * doesn't compress into fewer bytes or the channel is closed
+     */
+    private int deflate(int blockSize) {
+        synchronized (deflater) {
+            if (deflaterEnded) {
+                return blockSize;
+            }
+            deflater.reset();
+            deflater.setInput(rawBlock, 0, blockSize);
+            deflater.finish();
+            int compressedSize = deflater.deflate(compressedBlock, 0, blockSize);
+            return deflater.finished() ? compressedSize : blockSize;
+        }
+    }
+
+    private void endDeflater() {
+        synchronized (deflater) {
+            deflaterEnded = true;
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_COMPRESSION_BYTES_IN;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_COMPRESSION_BYTES_OUT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_COMPRESSION_BYTES_SAVED;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_COMPRESSION_COMPRESS_TIME_NANOS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.TCP_METRIC_COMPRESSION_DECOMPRESS_TIME_NANOS;
+import static com.hazelcast.internal.metrics.ProbeUnit.BYTES;
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * The statistics of the {@link FrameCompressionEncoder} and
+ * {@link FrameCompressionDecoder} instances of a member, shared by all of its
+ * member connections.
+ */
+public final class FrameCompressionStats {
+
+    @Probe(name = TCP_METRIC_COMPRESSION_BYTES_IN, unit = BYTES)
+    private final MwCounter bytesIn = newMwCounter();
+    @Probe(name = TCP_METRIC_COMPRESSION_BYTES_OUT, unit = BYTES)
+    private final MwCounter bytesOut = newMwCounter();
+    @Probe(name = TCP_METRIC_COMPRESSION_COMPRESS_TIME_NANOS, unit = NS)
+    private final MwCounter compressTimeNanos = newMwCounter();
+    @Probe(name = TCP_METRIC_COMPRESSION_DECOMPRESS_TIME_NANOS, unit = NS)
+    private final MwCounter decompressTimeNanos = newMwCounter();
+
+    /**
+     * Records a block written by a {@link FrameCompressionEncoder}.
+     *
+     * @param rawBytes   the number of bytes handed to the encoder
+     * @param frameBytes the number of bytes written to the network, including
+     *                   the frame header
+     * @param nanos      the time spent compressing the block
+     */
+    void onCompressed(int rawBytes, int frameBytes, long nanos) {
+        bytesIn.inc(rawBytes);
+        bytesOut.inc(frameBytes);
+        compressTimeNanos.inc(nanos);
+    }
+
+    void onDecompressed(long nanos) {
+        decompressTimeNanos.inc(nanos);
+    }
+
+    /**
+     * Returns the number of bytes which didn't have to be sent thanks to the
+     * compression. Can be negative if the data doesn't compress at all, since
+     * every block carries a small header.
+     */
+    @Probe(name = TCP_METRIC_COMPRESSION_BYTES_SAVED, unit = BYTES)
+    public long bytesSaved() {
+        return bytesIn.get() - bytesOut.get();
+    }
+
+    public long compressTimeNanos() {
+        return compressTimeNanos.get();
+    }
+
+    public long decompressTimeNanos() {
+        return decompressTimeNanos.get();
+    }
+}
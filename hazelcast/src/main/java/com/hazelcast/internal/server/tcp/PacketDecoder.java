@@ -21,6 +21,7 @@ import com.hazelcast.internal.networking.HandlerStatus;
 import com.hazelcast.internal.networking.nio.InboundHandlerWithCounters;
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.server.ServerConnection;
 
 import java.nio.ByteBuffer;
@@ -42,11 +43,20 @@ import static com.hazelcast.internal.nio.Packet.FLAG_URGENT;
 public class PacketDecoder extends InboundHandlerWithCounters<ByteBuffer, Consumer<Packet>> {
 
     protected final ServerConnection connection;
-    private final PacketIOHelper packetReader = new PacketIOHelper();
+    private final PacketIOHelper packetReader;
 
     public PacketDecoder(ServerConnection connection, Consumer<Packet> dst) {
+        this(connection, dst, null);
+    }
+
+    /**
+     * @param payloadPool the pool to borrow the payloads of operation packets
+     *                    from, or {@code null} to allocate all payloads
+     */
+    public PacketDecoder(ServerConnection connection, Consumer<Packet> dst, PacketPayloadPool payloadPool) {
         this.connection = connection;
         this.dst = dst;
+        this.packetReader = new PacketIOHelper(payloadPool);
     }
 
     @Override
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.internal.metrics.Probe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongSupplier;
+
+import static com.hazelcast.internal.metrics.ProbeUnit.NS;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater;
+
+/**
+ * A concurrent, mergeable latency histogram with log-linear buckets, in the
+ * spirit of HdrHistogram.
+ * <p>
+ * Unlike {@link LatencyDistribution}, which has one bucket per power of two,
+ * every power of two is split into {@value #SUB_BUCKET_COUNT} linear
+ * sub-buckets, so a percentile is reported with a relative error of at most
+ * {@code 1/}{@value #SUB_BUCKET_COUNT} (about 6%).
+ * <p>
+ * <h3>Bucket layout</h3>
+ * Latencies are recorded in nanoseconds. The values below
+ * {@value #SUB_BUCKET_COUNT} have a bucket each. A value {@code v} with its
+ * highest set bit at position {@code e >= }{@value #SUB_BUCKET_BITS} goes to
+ * the sub-bucket selected by the {@value #SUB_BUCKET_BITS} bits right below
+ * the highest set bit:
+ * <pre>
+ * index = (e - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + ((v >> (e - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1))
+ * </pre>
+ * Values of {@code 2^}{@value #MAX_EXPONENT} nanoseconds (about 73 minutes)
+ * or more are recorded in the last bucket.
+ * <p>
+ * Recording is lock-free. The bucket array is allocated on the first record,
+ * so a histogram which is never used costs only a few fields. The percentiles
+ * are exposed as probes, so a histogram can be collected by the metrics
+ * system with a descriptor naming the measured operation.
+ * <p>
+ * <h3>Window</h3>
+ * A histogram created with a window reports only the recent latencies. The
+ * recorded latencies are moved aside when a window ends and dropped when the
+ * next one ends, so the reported values cover between one and two windows.
+ * A histogram created without a window reports all latencies recorded since
+ * its creation or the last {@link #reset()}.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The window of the histograms which measure the operation latencies of
+     * data structures.
+     */
+    public static final long DEFAULT_WINDOW_MILLIS = MINUTES.toMillis(1);
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int MAX_EXPONENT = 42;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private static final int PERCENT = 100;
+    private static final double P50 = 50;
+    private static final double P99 = 99;
+    private static final double P999 = 99.9;
+
+    private static final AtomicReferenceFieldUpdater<LatencyHistogram, AtomicLongArray> BUCKETS
+            = AtomicReferenceFieldUpdater.newUpdater(LatencyHistogram.class, AtomicLongArray.class, "buckets");
+    private static final AtomicLongFieldUpdater<LatencyHistogram> COUNT = newUpdater(LatencyHistogram.class, "count");
+    private static final AtomicLongFieldUpdater<LatencyHistogram> MAX_NANOS = newUpdater(LatencyHistogram.class, "maxNanos");
+    private static final AtomicLongFieldUpdater<LatencyHistogram> WINDOW_START_NANOS
+            = newUpdater(LatencyHistogram.class, "windowStartNanos");
+    private static final Interval EMPTY = new Interval(null, 0, 0);
+
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    private volatile AtomicLongArray buckets;
+    private volatile long count;
+    private volatile long maxNanos;
+    private volatile long windowStartNanos;
+    private volatile Interval previous = EMPTY;
+
+    /**
+     * Creates a histogram which reports all recorded latencies.
+     */
+    public LatencyHistogram() {
+        this(0, Timer::nanos);
+    }
+
+    /**
+     * Creates a histogram which reports the latencies recorded in the last
+     * one to two windows.
+     *
+     * @param windowMillis the length of the window in milliseconds
+     */
+    public LatencyHistogram(long windowMillis) {
+        this(MILLISECONDS.toNanos(windowMillis), Timer::nanos);
+        checkTrue(windowMillis > 0, "windowMillis must be positive");
+    }
+
+    LatencyHistogram(long windowNanos, LongSupplier nanoClock) {
+        this.windowNanos = windowNanos;
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyNanos the latency in nanoseconds, a negative value is
+     *                     recorded as zero since the nano clock is not
+     *                     guaranteed to be monotonic
+     */
+    public void recordNanos(long latencyNanos) {
+        recordNanos(latencyNanos, 1);
+    }
+
+    /**
+     * Records the same latency {@code count} times.
+     *
+     * @param latencyNanos the latency in nanoseconds
+     * @param count        the number of times the latency is recorded
+     */
+    public void recordNanos(long latencyNanos, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long nanos = Math.max(0, latencyNanos);
+        rotateIfWindowEnded();
+        getOrCreateBuckets().addAndGet(bucketIndex(nanos), count);
+        COUNT.addAndGet(this, count);
+        updateMax(nanos);
+    }
+
+    /**
+     * Adds the latencies reported by the given histogram to the current
+     * window of this one.
+     *
+     * @param other the histogram to merge
+     */
+    public void merge(LatencyHistogram other) {
+        other.rotateIfWindowEnded();
+        rotateIfWindowEnded();
+        Interval otherPrevious = other.previous;
+        AtomicLongArray otherBuckets = other.buckets;
+        if (otherBuckets == null && otherPrevious.buckets == null) {
+            return;
+        }
+        AtomicLongArray buckets = getOrCreateBuckets();
+        long mergedCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucketCount = otherPrevious.bucketCount(i) + (otherBuckets == null ? 0 : otherBuckets.get(i));
+            if (bucketCount != 0) {
+                buckets.addAndGet(i, bucketCount);
+                mergedCount += bucketCount;
+            }
+        }
+        COUNT.addAndGet(this, mergedCount);
+        updateMax(Math.max(other.maxNanos, otherPrevious.maxNanos));
+    }
+
+    /**
+     * Clears the recorded latencies. Concurrently recorded latencies may or
+     * may not be cleared.
+     */
+    public void reset() {
+        previous = EMPTY;
+        clearCurrent();
+    }
+
+    @Probe(name = "count")
+    public long getCount() {
+        rotateIfWindowEnded();
+        return count + previous.count;
+    }
+
+    @Probe(name = "max", unit = NS)
+    public long getMaxNanos() {
+        rotateIfWindowEnded();
+        return Math.max(maxNanos, previous.maxNanos);
+    }
+
+    @Probe(name = "p50", unit = NS)
+    public long getP50Nanos() {
+        return getValueAtPercentile(P50);
+    }
+
+    @Probe(name = "p99", unit = NS)
+    public long getP99Nanos() {
+        return getValueAtPercentile(P99);
+    }
+
+    @Probe(name = "p999", unit = NS)
+    public long getP999Nanos() {
+        return getValueAtPercentile(P999);
+    }
+
+    /**
+     * Returns the latency below or at which the given percentage of the
+     * recorded latencies fall. The returned value is the highest value of the
+     * matching bucket, capped at the maximum recorded latency.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the latency in nanoseconds, or {@code 0} if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        checkTrue(percentile >= 0 && percentile <= PERCENT, "percentile must be between 0 and 100");
+        rotateIfWindowEnded();
+        Interval previous = this.previous;
+        AtomicLongArray buckets = this.buckets;
+        long count = this.count + previous.count;
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / PERCENT));
+        long max = Math.max(maxNanos, previous.maxNanos);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += previous.bucketCount(i) + (buckets == null ? 0 : buckets.get(i));
+            if (seen >= rank) {
+                return Math.min(bucketMaxNanos(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Moves the current latencies aside if the window ended, or drops them if
+     * the next window ended as well. Only the thread which advances the
+     * window start rotates, latencies recorded concurrently may end up in
+     * either window.
+     */
+    private void rotateIfWindowEnded() {
+        if (windowNanos == 0) {
+            return;
+        }
+        long start = windowStartNanos;
+        long now = nanoClock.getAsLong();
+        long elapsed = now - start;
+        if (elapsed < windowNanos || !WINDOW_START_NANOS.compareAndSet(this, start, now)) {
+            return;
+        }
+        previous = elapsed < 2 * windowNanos ? Interval.copyOf(buckets, count, maxNanos) : EMPTY;
+        clearCurrent();
+    }
+
+    private void clearCurrent() {
+        AtomicLongArray buckets = this.buckets;
+        if (buckets != null) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+        }
+        count = 0;
+        maxNanos = 0;
+    }
+
+    private AtomicLongArray getOrCreateBuckets() {
+        AtomicLongArray buckets = this.buckets;
+        if (buckets == null) {
+            BUCKETS.compareAndSet(this, null, new AtomicLongArray(BUCKET_COUNT));
+            buckets = this.buckets;
+        }
+        return buckets;
+    }
+
+    private void updateMax(long nanos) {
+        for (; ; ) {
+            long currentMax = maxNanos;
+            if (nanos <= currentMax || MAX_NANOS.compareAndSet(this, currentMax, nanos)) {
+                return;
+            }
+        }
+    }
+
+    static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (nanos >> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketMaxNanos(int index) {
+        int group = index >> SUB_BUCKET_BITS;
+        int subBucket = index & (SUB_BUCKET_COUNT - 1);
+        if (group == 0) {
+            return subBucket;
+        }
+        int shift = group - 1;
+        long min = (long) (SUB_BUCKET_COUNT + subBucket) << shift;
+        return min + (1L << shift) - 1;
+    }
+
+    /**
+     * The latencies recorded in the previous window.
+     */
+    private static final class Interval {
+        final long[] buckets;
+        final long count;
+        final long maxNanos;
+
+        Interval(long[] buckets, long count, long maxNanos) {
+            this.buckets = buckets;
+            this.count = count;
+            this.maxNanos = maxNanos;
+        }
+
+        static Interval copyOf(AtomicLongArray buckets, long count, long maxNanos) {
+            if (buckets == null || count == 0) {
+                return EMPTY;
+            }
+            long[] copy = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy[i] = buckets.get(i);
+            }
+            return new Interval(copy, count, maxNanos);
+        }
+
+        long bucketCount(int index) {
+            return buckets == null ? 0 : buckets[index];
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{"
+                + "count=" + getCount()
+                + ", p50=" + getP50Nanos()
+                + ", p99=" + getP99Nanos()
+                + ", p999=" + getP999Nanos()
+                + ", max=" + getMaxNanos()
+                + '}';
+    }
+}
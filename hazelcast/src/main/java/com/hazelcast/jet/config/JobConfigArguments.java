@@ -52,6 +52,95 @@ public final class JobConfigArguments {
      */
     public static final String KEY_JOB_IS_SUSPENDABLE = "__jet.jobIsSuspendable";
 
+    /**
+     * The key under which the caller enables spilling to disk for the
+     * sorting and grouping processors. The value is a {@link String} with
+     * the path of a local directory on each member.
+     * <p>
+     * If set, a processor that reaches the {@linkplain
+     * JobConfig#setMaxProcessorAccumulatedRecords(long) accumulation limit}
+     * writes its state into files in that directory and merges them when
+     * producing its output, instead of failing the job. If not set, which
+     * is the default, the job fails when the limit is reached. The
+     * processors block on the file I/O, so they are non-cooperative if this
+     * is set.
+     * <p>
+     * SQL sets it only for jobs created by {@code CREATE JOB} with the {@code
+     * spillDirectory} option. Other SQL queries never spill.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_SPILL_DIRECTORY = "__jet.spillDirectory";
+
+    /**
+     * The key under which the caller enables incremental snapshots. The
+     * value is an {@link Integer}: every N-th automatic snapshot contains the
+     * full state of the job, the snapshots in between contain only the keyed
+     * state that changed since the previous snapshot.
+     * <p>
+     * Only processors that support it write the changed state only, the
+     * others always save their full state. Restoring from an incremental
+     * snapshot reads the last full snapshot and applies the changes on top of
+     * it. A value of 1 or less, which is the default, disables incremental
+     * snapshots.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_FULL_SNAPSHOT_INTERVAL = "__jet.fullSnapshotInterval";
+
+    /**
+     * The key under which the caller enables keeping the keyed state of the
+     * stateful mapping processors on the local disk. The value is a {@link
+     * String} with the path of a local directory on each member.
+     * <p>
+     * If set, the processors of stateful map, flat map and filter stages keep
+     * only the most recently used keys in memory, see {@link
+     * #KEY_STATE_CACHE_SIZE}, and the rest in files in that directory, so the
+     * number of keys is limited by the disk instead of the heap. The state on
+     * the disk isn't subject to the {@linkplain
+     * JobConfig#setMaxProcessorAccumulatedRecords(long) accumulation limit}.
+     * Keys are compared by their serialized form. The processors block on
+     * file I/O, so they run on dedicated threads instead of the cooperative
+     * ones. If not set, which is the default, the state is kept on the heap.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_STATE_DIRECTORY = "__jet.stateDirectory";
+
+    /**
+     * The key under which the caller sets the number of keys each processor
+     * keeps in memory if the {@linkplain #KEY_STATE_DIRECTORY keyed state is
+     * kept on the disk}. The value is an {@link Integer}, the default is
+     * 16384.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_STATE_CACHE_SIZE = "__jet.stateCacheSize";
+
+    /**
+     * The key under which the caller enables the event-time alignment of
+     * source partitions. The value is a {@link Long}: the maximum amount of
+     * event time, in the units of the event timestamps, a source partition's
+     * watermark may be ahead of the lowest watermark of the other active
+     * partitions read by the same source processor.
+     * <p>
+     * Sources that support it pause reading from a partition that gets too
+     * far ahead until the lagging partitions catch up or become idle. This
+     * bounds the data buffered by the windowing and joining stages when some
+     * partitions lag, because the watermark is held back by the slowest
+     * partition. A value of 0 or less, which is the default, disables the
+     * alignment.
+     * <p>
+     * The alignment requires a positive {@linkplain
+     * com.hazelcast.jet.core.EventTimePolicy#idleTimeoutMillis() idle timeout}
+     * in the event time policy of the source, otherwise the source fails to
+     * start. A partition that receives no events would hold the other
+     * partitions back forever.
+     *
+     * @since 5.4
+     */
+    public static final String KEY_MAX_EVENT_TIME_DRIFT = "__jet.maxEventTimeDrift";
+
     private JobConfigArguments() {
     }
 }
@@ -30,7 +30,9 @@ import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
 
 import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
+import static com.hazelcast.internal.util.Preconditions.checkTrue;
 import static com.hazelcast.jet.core.SlidingWindowPolicy.tumblingWinPolicy;
+import static com.hazelcast.jet.impl.util.Util.subtractClamped;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
@@ -75,6 +77,15 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
  * are broadcast to all processors. The mapper ensures that watermarks are
  * emitted according to the throttling frame size.
  *
+ * <h4>5. Event-time alignment of partitions</h4>
+ *
+ * While one partition lags, the watermark is held back and the events from
+ * the other partitions accumulate in the windowing stages downstream. If a
+ * {@linkplain #setMaxEventTimeDrift maximum event-time drift} is set, the
+ * mapper reports the partitions whose watermark is too far ahead of the
+ * others, see {@link #isPartitionAhead}, and the source can pause reading
+ * them until the lagging partitions catch up.
+ *
  * <h3>Usage</h3>
  *
  * The API is designed to be used as a flat-mapping step in the {@link
@@ -152,6 +163,9 @@ public class EventTimeMapper<T> {
     private long lastEmittedWm = Long.MIN_VALUE;
     private long topObservedWm = Long.MIN_VALUE;
     private boolean allAreIdle;
+    private long maxEventTimeDrift;
+    // the lowest watermark of the active partitions that have a watermark
+    private long alignmentWm = Long.MIN_VALUE;
 
     /**
      * The partition count is initially set to 0, call {@link #addPartitions}
@@ -246,6 +260,7 @@ public class EventTimeMapper<T> {
 
     private void handleNoEventInternal(long now, long maxWmValue) {
         long min = Long.MAX_VALUE;
+        long minWithWm = Long.MAX_VALUE;
         for (int i = 0; i < watermarks.length; i++) {
             if (idleTimeoutNanos > 0 && markIdleAt[i] <= now) {
                 continue;
@@ -254,7 +269,11 @@ public class EventTimeMapper<T> {
             watermarks[i] = Math.max(watermarks[i], Math.min(wmPolicies[i].getCurrentWatermark(), maxWmValue));
             topObservedWm = Math.max(topObservedWm, watermarks[i]);
             min = Math.min(min, watermarks[i]);
+            if (watermarks[i] != Long.MIN_VALUE) {
+                minWithWm = Math.min(minWithWm, watermarks[i]);
+            }
         }
+        alignmentWm = minWithWm == Long.MAX_VALUE ? Long.MIN_VALUE : minWithWm;
 
         if (min == Long.MAX_VALUE) {
             if (allAreIdle) {
@@ -345,6 +364,47 @@ public class EventTimeMapper<T> {
         return res;
     }
 
+    /**
+     * Sets the maximum amount of event time a partition's watermark may be
+     * ahead of the lowest watermark of the other active partitions, see
+     * {@link #isPartitionAhead}. A value of 0 or less, which is the default,
+     * disables the alignment.
+     * <p>
+     * The alignment requires an {@linkplain EventTimePolicy#idleTimeoutMillis()
+     * idle timeout}. Without it, a partition that receives no events would
+     * hold the other partitions back forever.
+     *
+     * @throws IllegalArgumentException if a positive drift is set and the
+     *         idle timeout is disabled
+     * @since 5.4
+     */
+    public void setMaxEventTimeDrift(long maxEventTimeDrift) {
+        checkTrue(maxEventTimeDrift <= 0 || idleTimeoutNanos > 0,
+                "The maximum event-time drift requires a positive idle timeout in the event time policy");
+        this.maxEventTimeDrift = maxEventTimeDrift;
+    }
+
+    /**
+     * Returns true if the watermark of the given partition is more than the
+     * {@linkplain #setMaxEventTimeDrift maximum event-time drift} ahead of
+     * the lowest watermark of the active partitions. The source should stop
+     * reading from such a partition until this method returns false again,
+     * which happens when the lagging partitions catch up or become idle.
+     * Partitions without any event so far and idle partitions don't hold
+     * the other partitions back.
+     * <p>
+     * Always returns false if no maximum drift is set.
+     *
+     * @param partitionIndex 0-based source partition index
+     * @since 5.4
+     */
+    public boolean isPartitionAhead(int partitionIndex) {
+        return maxEventTimeDrift > 0
+                && alignmentWm != Long.MIN_VALUE
+                && watermarks[partitionIndex] != Long.MIN_VALUE
+                && subtractClamped(watermarks[partitionIndex], alignmentWm) > maxEventTimeDrift;
+    }
+
     /**
      * Returns the current partition count.
      */
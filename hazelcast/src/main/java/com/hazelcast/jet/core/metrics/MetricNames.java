@@ -195,6 +195,40 @@ public final class MetricNames {
      */
     public static final String DISTRIBUTED_BYTES_OUT = "distributedBytesOut";
 
+    /**
+     * Tracks the number of bytes which didn't have to be sent over the
+     * network thanks to the {@linkplain
+     * com.hazelcast.jet.config.EdgeConfig#setCompressionEnabled compression}
+     * of DISTRIBUTED output {@link Edge}s. The value is negative if the data
+     * doesn't compress. It can be identified by the same tags as {@link
+     * #DISTRIBUTED_BYTES_OUT}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_BYTES_SAVED = "distributedBytesSaved";
+
+    /**
+     * Tracks the time, in nanoseconds, spent compressing the data of
+     * DISTRIBUTED output {@link Edge}s with {@linkplain
+     * com.hazelcast.jet.config.EdgeConfig#setCompressionEnabled compression}
+     * enabled. It can be identified by the same tags as {@link
+     * #DISTRIBUTED_BYTES_OUT}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_COMPRESSION_TIME = "distributedCompressionTime";
+
+    /**
+     * Tracks the time, in nanoseconds, spent decompressing the data of
+     * DISTRIBUTED input {@link Edge}s with {@linkplain
+     * com.hazelcast.jet.config.EdgeConfig#setCompressionEnabled compression}
+     * enabled. It can be identified by the same tags as {@link
+     * #DISTRIBUTED_BYTES_IN}.
+     *
+     * @since 5.4
+     */
+    public static final String DISTRIBUTED_DECOMPRESSION_TIME = "distributedDecompressionTime";
+
     /**
      * {@linkplain JobStatus#getId() Numerical ID} of the job's status.
      *
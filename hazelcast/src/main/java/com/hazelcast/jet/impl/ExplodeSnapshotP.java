@@ -21,10 +21,13 @@ import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.impl.execution.BroadcastEntry;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataIncrementalMarker;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
+import com.hazelcast.projection.Projections;
 
 import javax.annotation.Nonnull;
 import java.util.HashMap;
@@ -32,16 +35,35 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.incrementalMarker;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.isIncrementalChunk;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 
+/**
+ * Reads the chunks of a snapshot and emits the entries in them to the
+ * processors of the vertex which saved them.
+ * <p>
+ * If the snapshot is incremental, the chunks written with {@link
+ * SnapshotDataIncrementalMarker} are read from all snapshots starting with the
+ * full snapshot it's based on. Each of the snapshots is read by a {@link
+ * #readSnapshotChunksP separate source} connected to a separate ordinal, with
+ * edge priorities in the order of snapshot IDs, so that a later change
+ * overwrites an earlier one. Broadcast entries are emitted only from the
+ * latest snapshot.
+ */
 public class ExplodeSnapshotP extends AbstractProcessor {
 
     private final Map<String, FlatMapper<byte[], Object>> vertexToFlatMapper = new HashMap<>();
     private final long expectedSnapshotId;
+    private final long baseSnapshotId;
+    private boolean skipBroadcastEntries;
+    private byte[] incrementalMarker;
     private InternalSerializationService serializationService;
 
-    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId) {
+    ExplodeSnapshotP(Map<String, Integer> vertexToOrdinal, long expectedSnapshotId, long baseSnapshotId) {
         this.expectedSnapshotId = expectedSnapshotId;
+        this.baseSnapshotId = baseSnapshotId;
         for (Entry<String, Integer> en : vertexToOrdinal.entrySet()) {
             Object oldValue = vertexToFlatMapper.put(en.getKey(), flatMapper(en.getValue(), this::traverser));
             assert oldValue == null : "Duplicate ordinal: " + en.getValue();
@@ -51,6 +73,17 @@ public class ExplodeSnapshotP extends AbstractProcessor {
     @Override
     protected void init(@Nonnull Context context) {
         serializationService = ((ProcCtx) context).serializationService();
+        incrementalMarker = incrementalMarker(serializationService);
+    }
+
+    /**
+     * Returns a supplier of processors reading the chunks of the given
+     * snapshot from the snapshot map.
+     */
+    static ProcessorMetaSupplier readSnapshotChunksP(String mapName, long snapshotId) {
+        return readMapP(mapName,
+                e -> e.getKey() instanceof SnapshotDataKey && ((SnapshotDataKey) e.getKey()).snapshotId() == snapshotId,
+                Projections.<Entry<Object, Object>>identity());
     }
 
     /* We can't close the BufferObjectDataInput cleanly. We close it when the returned traverser is fully iterated,
@@ -60,21 +93,30 @@ public class ExplodeSnapshotP extends AbstractProcessor {
     @SuppressWarnings("squid:S2095")
     private Traverser<Object> traverser(byte[] data) {
         BufferObjectDataInput in = serializationService.createObjectDataInput(data);
+        boolean skipBroadcast = skipBroadcastEntries;
 
         return () -> uncheckCall(() -> {
-            Object key = serializationService.readObject(in, true);
-            if (key == SnapshotDataValueTerminator.INSTANCE) {
-                return null;
+            while (true) {
+                Object key = serializationService.readObject(in, true);
+                if (key == SnapshotDataValueTerminator.INSTANCE) {
+                    return null;
+                }
+                if (key == SnapshotDataIncrementalMarker.INSTANCE) {
+                    continue;
+                }
+                Object value = serializationService.readObject(in, true);
+                if (!(key instanceof BroadcastKey)) {
+                    return entry(key, value);
+                }
+                if (!skipBroadcast) {
+                    return new BroadcastEntry(key, value);
+                }
             }
-            Object value = serializationService.readObject(in, true);
-            return key instanceof BroadcastKey
-                    ? new BroadcastEntry(key, value)
-                    : entry(key, value);
         });
     }
 
     @Override
-    protected boolean tryProcess0(@Nonnull Object item) {
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
         if (((Entry) item).getKey() instanceof SnapshotValidationRecord.SnapshotValidationKey) {
             // ignore the validation record
             return true;
@@ -91,12 +133,22 @@ public class ExplodeSnapshotP extends AbstractProcessor {
             return true;
         }
         long snapshotId = castItem.getKey().snapshotId();
-        if (snapshotId != expectedSnapshotId) {
-            getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
-                    + expectedSnapshotId + ", found=" + snapshotId);
+        boolean inRange = snapshotId >= baseSnapshotId && snapshotId <= expectedSnapshotId;
+        if (snapshotId != expectedSnapshotId && !(inRange && isIncrementalChunk(castItem.getValue(), incrementalMarker))) {
+            if (!inRange) {
+                getLogger().warning("Data for unexpected snapshot ID encountered, ignoring. Expected="
+                        + expectedSnapshotId + ", found=" + snapshotId);
+            }
+            // else it's the full state of a vertex not supporting incremental snapshots saved to
+            // an earlier snapshot, the latest snapshot contains it too
             return true;
         }
-        return flatMapper.tryProcess(castItem.getValue());
+        return explode(flatMapper, castItem);
+    }
+
+    private boolean explode(FlatMapper<byte[], Object> flatMapper, Entry<SnapshotDataKey, byte[]> chunk) {
+        skipBroadcastEntries = chunk.getKey().snapshotId() != expectedSnapshotId;
+        return flatMapper.tryProcess(chunk.getValue());
     }
 
     @Override
@@ -160,9 +160,13 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
         this.ongoingExportedSnapshotName = exportedSnapshotName;
     }
 
+    /**
+     * @param isIncremental true if the snapshot was written to the data map of
+     *                      the current snapshot, on top of it
+     */
     public SnapshotStats ongoingSnapshotDone(
             long numBytes, long numKeys, long numChunks, @Nullable String failureText,
-            boolean isTerminal
+            boolean isTerminal, boolean isIncremental
     ) {
         lastSnapshotFailure = failureText;
         SnapshotStats res = new SnapshotStats(
@@ -172,8 +176,9 @@ public class JobExecutionRecord implements IdentifiedDataSerializable {
             boolean isExport = ongoingExportedSnapshotName != null;
             boolean isExportOnly = isExport && !isTerminal;
 
-            if (!isExport) {
-                // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported one
+            if (!isExport && !isIncremental) {
+                // switch dataMapIndex only if the snapshot was successful, and it wasn't an exported
+                // or an incremental one
                 dataMapIndex = ongoingDataMapIndex();
             }
 
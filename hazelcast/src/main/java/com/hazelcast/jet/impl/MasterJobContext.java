@@ -94,6 +94,7 @@ import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.Edge.between;
+import static com.hazelcast.jet.core.Edge.from;
 import static com.hazelcast.jet.core.JobStatus.COMPLETED;
 import static com.hazelcast.jet.core.JobStatus.FAILED;
 import static com.hazelcast.jet.core.JobStatus.NOT_RUNNING;
@@ -104,6 +105,7 @@ import static com.hazelcast.jet.core.JobStatus.SUSPENDED_EXPORTING_SNAPSHOT;
 import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
 import static com.hazelcast.jet.datamodel.Tuple2.tuple2;
 import static com.hazelcast.jet.impl.JobClassLoaderService.JobPhase.COORDINATOR;
+import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 import static com.hazelcast.jet.impl.JobRepository.exportedSnapshotMapName;
 import static com.hazelcast.jet.impl.SnapshotValidator.validateSnapshot;
 import static com.hazelcast.jet.impl.TerminationMode.ActionAfterTerminate.RESTART;
@@ -521,19 +523,33 @@ public class MasterJobContext {
         // snapshot map is not updated here, so it does not need to be
         // configured with failOnIndeterminateOperationState
         IMap<Object, Object> snapshotMap = mc.nodeEngine().getHazelcastInstance().getMap(mapName);
-        long resolvedSnapshotId = validateSnapshot(
-                snapshotId, snapshotMap, mc.jobIdString(), snapshotName);
+        SnapshotValidationRecord validationRecord = validateSnapshot(
+                snapshotId, snapshotMap, mc.jobIdString(), snapshotName, mc.nodeEngine().getSerializationService());
+        long resolvedSnapshotId = snapshotId != NO_SNAPSHOT ? snapshotId : validationRecord.snapshotId();
+        long baseSnapshotId = validationRecord.baseSnapshotId();
         logger.info(String.format(
-                "About to restore the state of %s from snapshot %d, mapName = %s",
-                mc.jobIdString(), resolvedSnapshotId, mapName));
+                "About to restore the state of %s from snapshot %d%s, mapName = %s",
+                mc.jobIdString(), resolvedSnapshotId,
+                baseSnapshotId != resolvedSnapshotId ? " based on snapshot " + baseSnapshotId : "", mapName));
         List<Vertex> originalVertices = new ArrayList<>();
         dag.iterator().forEachRemaining(originalVertices::add);
 
         Map<String, Integer> vertexToOrdinal = new HashMap<>();
-        Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
         Vertex explodeVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "explode",
-                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId));
-        dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+                () -> new ExplodeSnapshotP(vertexToOrdinal, resolvedSnapshotId, baseSnapshotId));
+        if (baseSnapshotId == resolvedSnapshotId) {
+            Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read", readMapP(mapName));
+            dag.edge(between(readSnapshotVertex, explodeVertex).isolated());
+        } else {
+            // Read each snapshot since the base one by a separate vertex. The edge priorities make
+            // the explode processors apply the snapshots in order without buffering the later ones.
+            for (long id = baseSnapshotId; id <= resolvedSnapshotId; id++) {
+                int ordinal = (int) (id - baseSnapshotId);
+                Vertex readSnapshotVertex = dag.newVertex(SNAPSHOT_VERTEX_PREFIX + "read-" + id,
+                        ExplodeSnapshotP.readSnapshotChunksP(mapName, id));
+                dag.edge(from(readSnapshotVertex).to(explodeVertex, ordinal).isolated().priority(ordinal));
+            }
+        }
 
         int index = 0;
         // add the edges
@@ -26,6 +26,7 @@ import com.hazelcast.jet.impl.execution.init.ExecutionPlan;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation;
 import com.hazelcast.jet.impl.operation.SnapshotPhase1Operation.SnapshotPhase1Result;
 import com.hazelcast.jet.impl.operation.SnapshotPhase2Operation;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.jet.impl.util.LoggingUtil;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.IMap;
@@ -47,11 +48,15 @@ import java.util.logging.Level;
 
 import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.core.JobStatus.RUNNING;
+import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
 import static com.hazelcast.jet.impl.JobRepository.exportedSnapshotMapName;
 import static com.hazelcast.jet.impl.JobRepository.safeImap;
 import static com.hazelcast.jet.impl.JobRepository.snapshotDataMapName;
 import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.incrementalMarker;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.isIncrementalChunk;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
+import static com.hazelcast.jet.impl.util.Util.fullSnapshotInterval;
 import static com.hazelcast.jet.impl.util.Util.jobNameAndExecutionId;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 
@@ -77,6 +82,31 @@ class MasterSnapshotContext {
     @Nonnull
     private volatile CompletableFuture<Void> terminalSnapshotFuture = completedFuture(null);
 
+    /**
+     * The ID of the full snapshot on which the next automatic snapshot can be
+     * based, or {@link JobExecutionRecord#NO_SNAPSHOT} if it must be full. The
+     * first snapshot in each execution and the snapshot after a failed one are
+     * full. Accessed only in synchronized code.
+     */
+    private long baseSnapshotId = NO_SNAPSHOT;
+
+    /**
+     * The number of successful snapshots since and including the {@link
+     * #baseSnapshotId}, and the number of chunks and bytes restored from the
+     * last one: the incremental chunks of all of them and the other chunks of
+     * the last one.
+     */
+    private int numSnapshotsSinceBase;
+    private long numChunksSinceBase;
+    private long numBytesSinceBase;
+
+    /**
+     * The number of chunks and bytes of the last successful snapshot which
+     * aren't incremental. The next snapshot replaces them.
+     */
+    private long numNonIncrementalChunksOfLast;
+    private long numNonIncrementalBytesOfLast;
+
     private class SnapshotRequest {
         /**
          * User-specified name of the snapshot or null, if no name is specified
@@ -93,6 +123,12 @@ class MasterSnapshotContext {
          * be null.
          */
         final CompletableFuture<Void> future;
+        /**
+         * If true, the snapshot is written on top of the current snapshot,
+         * the processors that support it save only the changed state. Decided
+         * when the snapshot begins.
+         */
+        boolean isIncremental;
 
         SnapshotRequest(@Nullable String snapshotName, boolean isTerminal, @Nullable CompletableFuture<Void> future) {
             this.snapshotName = snapshotName;
@@ -112,12 +148,14 @@ class MasterSnapshotContext {
         }
 
         public int snapshotFlags() {
-            return SnapshotFlags.create(isTerminal, isExport());
+            return SnapshotFlags.create(isTerminal, isExport(), isIncremental);
         }
 
         public String mapName() {
             return isExport() ? exportedSnapshotMapName(snapshotName)
-                    : snapshotDataMapName(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
+                    : snapshotDataMapName(mc.jobId(), isIncremental
+                            ? mc.jobExecutionRecord().dataMapIndex()
+                            : mc.jobExecutionRecord().ongoingDataMapIndex());
         }
 
         /**
@@ -202,6 +240,7 @@ class MasterSnapshotContext {
                     return;
                 }
                 snapshotInProgress = true;
+                requestedSnapshot.isIncremental = canBeIncremental(requestedSnapshot);
                 mc.jobExecutionRecord().startNewSnapshot(requestedSnapshot.snapshotName);
                 localExecutionId = mc.executionId();
             } finally {
@@ -214,7 +253,9 @@ class MasterSnapshotContext {
 
             try {
                 mc.writeJobExecutionRecordSafe(false);
-                mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                if (!requestedSnapshot.isIncremental) {
+                    mc.nodeEngine().getHazelcastInstance().getMap(mapName).clear();
+                }
             } catch (Exception e) {
                 logger.warning(String.format("Failed to start snapshot %d for %s",
                         newSnapshotId, jobNameAndExecutionId(mc.jobName(), localExecutionId)),
@@ -239,6 +280,17 @@ class MasterSnapshotContext {
         });
     }
 
+    /**
+     * Returns true if incremental snapshots are enabled and the requested
+     * snapshot can be written on top of the current one.
+     */
+    private boolean canBeIncremental(SnapshotRequest requestedSnapshot) {
+        return !requestedSnapshot.isExport()
+                && baseSnapshotId != NO_SNAPSHOT
+                && numSnapshotsSinceBase < fullSnapshotInterval(mc.jobConfig())
+                && mc.jobExecutionRecord().snapshotId() >= baseSnapshotId;
+    }
+
     /**
      * @param responses collected responses from the members
      */
@@ -329,45 +381,21 @@ class MasterSnapshotContext {
                 // Snapshot IMap proxy instance may be shared, but we always want it
                 // to have failOnIndeterminateOperationState enabled.
                 IMap<Object, Object> snapshotMap = safeImap(mc.nodeEngine().getHazelcastInstance().getMap(mapName));
-                try {
-                    SnapshotValidationRecord validationRecord = new SnapshotValidationRecord(snapshotId,
-                            mergedResult.getNumChunks(), mergedResult.getNumBytes(),
-                            mc.jobExecutionRecord().ongoingSnapshotStartTime(), mc.jobId(), mc.jobName(),
-                            mc.jobRecord().getDagJson());
-
-                    // The decision moment for _exported_ snapshots: after this the snapshot is valid to be restored
-                    // from, however it will be not listed by JetInstance.getJobStateSnapshots unless the validation
-                    // record is inserted into the cache below.
-                    //
-                    // Error during update for JobExecutionRecord does not invalidate the _exported_ snapshot.
-                    // JobExecutionRecord data in IMap becomes stale (indicates that the exported snapshot is in progress)
-                    // but it should not cause problems. They may be overwritten later (in-memory values will be correct)
-                    // or ignored when JobExecutionRecord is loaded from IMap.
-                    //
-                    // Terminal exported snapshot is formally valid from this point on, but it is safe to use it
-                    // to restore from only after and only if the job was cleanly terminated due to _this_ snapshot request.
-                    // On API level, using this snapshot is not safe if cancelAndExportSnapshot throws exception
-                    // and the job will not be cancelled but restarted.
-                    Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
-
-                    if (requestedSnapshot.isExport()) {
-                        assert requestedSnapshot.snapshotName != null;
-                        // update also for failed snapshots because the map may have contained different snapshot before
-                        mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
-                    }
-                    if (oldValue != null) {
-                        logger.severe("SnapshotValidationRecord overwritten after writing to '" + mapName
-                                + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
-                    }
-                } catch (Exception e) {
-                    mergedResult.merge(new SnapshotPhase1Result(0, 0, 0, e));
+                // If an incremental snapshot failed, keep the validation record of the snapshot it's based on.
+                // The chunks of the failed snapshot are never restored, they're removed with the whole map
+                // before the next full snapshot is written to it.
+                if (!requestedSnapshot.isIncremental || mergedResult.getError() == null) {
+                    writeValidationRecord(snapshotId, requestedSnapshot, mergedResult, snapshotMap);
                 }
 
                 isSuccess = mergedResult.getError() == null;
                 // update snapshot state in memory after success or failure
                 stats = mc.jobExecutionRecord().ongoingSnapshotDone(
                         mergedResult.getNumBytes(), mergedResult.getNumKeys(), mergedResult.getNumChunks(),
-                        mergedResult.getError(), requestedSnapshot.isTerminal);
+                        mergedResult.getError(), requestedSnapshot.isTerminal, requestedSnapshot.isIncremental);
+                if (!requestedSnapshot.isExportOnly()) {
+                    updateBaseSnapshot(snapshotId, requestedSnapshot, mergedResult);
+                }
 
                 // There is no need to restart job in case of a failed snapshot:
                 // - ongoingSnapshotId is safe in IMap, because it was written at the beginning
@@ -413,6 +441,8 @@ class MasterSnapshotContext {
                 if (!isSuccess) {
                     logger.warning(mc.jobIdString() + " snapshot " + snapshotId + " phase 1 failed on some " +
                             "member(s), one of the failures: " + mergedResult.getError());
+                }
+                if (!isSuccess && !requestedSnapshot.isIncremental) {
                     try {
                         // Clear data of failed snapshot (automatic or exported) to decrease memory usage.
                         // This can be done regardless of skipPhase2 because failed snapshot
@@ -426,10 +456,14 @@ class MasterSnapshotContext {
 
                 // Do not clear snapshot data when JobExecutionRecord update was indeterminate.
                 // It may turn out that this will be a correct snapshot after all.
-                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport()) {
+                if (isSuccess && !skipPhase2 && !requestedSnapshot.isExport() && !requestedSnapshot.isIncremental) {
                     // clear IMap for next automatic snapshot early to decrease memory usage
                     mc.jobRepository().clearSnapshotData(mc.jobId(), mc.jobExecutionRecord().ongoingDataMapIndex());
                 }
+                if (isSuccess && !skipPhase2 && requestedSnapshot.isIncremental) {
+                    // the full state of the non-incremental vertices in the previous snapshots isn't needed anymore
+                    removeReplacedChunks(snapshotMap, snapshotId);
+                }
             } finally {
                 mc.unlock();
             }
@@ -466,6 +500,100 @@ class MasterSnapshotContext {
         });
     }
 
+    private void writeValidationRecord(
+            long snapshotId,
+            SnapshotRequest requestedSnapshot,
+            SnapshotPhase1Result mergedResult,
+            IMap<Object, Object> snapshotMap
+    ) {
+        try {
+            SnapshotValidationRecord validationRecord = createValidationRecord(
+                    snapshotId, requestedSnapshot, mergedResult);
+
+            // The decision moment for _exported_ snapshots: after this the snapshot is valid to be restored
+            // from, however it will be not listed by JetInstance.getJobStateSnapshots unless the validation
+            // record is inserted into the cache below.
+            //
+            // Error during update for JobExecutionRecord does not invalidate the _exported_ snapshot.
+            // JobExecutionRecord data in IMap becomes stale (indicates that the exported snapshot is in progress)
+            // but it should not cause problems. They may be overwritten later (in-memory values will be correct)
+            // or ignored when JobExecutionRecord is loaded from IMap.
+            //
+            // Terminal exported snapshot is formally valid from this point on, but it is safe to use it
+            // to restore from only after and only if the job was cleanly terminated due to _this_ snapshot request.
+            // On API level, using this snapshot is not safe if cancelAndExportSnapshot throws exception
+            // and the job will not be cancelled but restarted.
+            Object oldValue = snapshotMap.put(SnapshotValidationRecord.KEY, validationRecord);
+
+            if (requestedSnapshot.isExport()) {
+                assert requestedSnapshot.snapshotName != null;
+                // update also for failed snapshots because the map may have contained different snapshot before
+                mc.jobRepository().cacheValidationRecord(requestedSnapshot.snapshotName, validationRecord);
+            }
+            if (oldValue != null && !requestedSnapshot.isIncremental) {
+                logger.severe("SnapshotValidationRecord overwritten after writing to '" + snapshotMap.getName()
+                        + "' for " + mc.jobIdString() + ": snapshot data might be corrupted");
+            }
+        } catch (Exception e) {
+            mergedResult.merge(new SnapshotPhase1Result(0, 0, 0, e));
+        }
+    }
+
+    private SnapshotValidationRecord createValidationRecord(
+            long snapshotId, SnapshotRequest requestedSnapshot, SnapshotPhase1Result mergedResult
+    ) {
+        // an incremental snapshot can be restored only together with the snapshots since its base
+        boolean isIncremental = requestedSnapshot.isIncremental;
+        return new SnapshotValidationRecord(snapshotId,
+                isIncremental ? baseSnapshotId : snapshotId,
+                mergedResult.getNumChunks() + (isIncremental ? numChunksSinceBase - numNonIncrementalChunksOfLast : 0),
+                mergedResult.getNumBytes() + (isIncremental ? numBytesSinceBase - numNonIncrementalBytesOfLast : 0),
+                mc.jobExecutionRecord().ongoingSnapshotStartTime(), mc.jobId(), mc.jobName(),
+                mc.jobRecord().getDagJson());
+    }
+
+    private void updateBaseSnapshot(long snapshotId, SnapshotRequest requestedSnapshot, SnapshotPhase1Result mergedResult) {
+        if (mergedResult.getError() != null || requestedSnapshot.isExport()) {
+            // the processors track the changes since the last successful automatic snapshot,
+            // the next snapshot must be full
+            baseSnapshotId = NO_SNAPSHOT;
+            return;
+        }
+        if (!requestedSnapshot.isIncremental) {
+            baseSnapshotId = snapshotId;
+            numSnapshotsSinceBase = 0;
+            numChunksSinceBase = 0;
+            numBytesSinceBase = 0;
+        } else {
+            numChunksSinceBase -= numNonIncrementalChunksOfLast;
+            numBytesSinceBase -= numNonIncrementalBytesOfLast;
+        }
+        numSnapshotsSinceBase++;
+        numChunksSinceBase += mergedResult.getNumChunks();
+        numBytesSinceBase += mergedResult.getNumBytes();
+        numNonIncrementalChunksOfLast = mergedResult.getNumChunks() - mergedResult.getNumIncrementalChunks();
+        numNonIncrementalBytesOfLast = mergedResult.getNumBytes() - mergedResult.getNumIncrementalBytes();
+    }
+
+    /**
+     * Removes the chunks which aren't incremental from the snapshots since the
+     * base snapshot which precede the given one. The vertices which wrote them
+     * saved their full state again to the given snapshot.
+     */
+    private void removeReplacedChunks(IMap<Object, Object> snapshotMap, long snapshotId) {
+        long fromSnapshotId = baseSnapshotId;
+        byte[] incrementalMarker = incrementalMarker(mc.nodeEngine().getSerializationService());
+        try {
+            snapshotMap.removeAll(e -> e.getKey() instanceof SnapshotDataKey
+                    && ((SnapshotDataKey) e.getKey()).snapshotId() >= fromSnapshotId
+                    && ((SnapshotDataKey) e.getKey()).snapshotId() < snapshotId
+                    && !isIncrementalChunk((byte[]) e.getValue(), incrementalMarker));
+        } catch (Exception e) {
+            logger.warning(mc.jobIdString() + ": failed to remove replaced chunks from snapshot map '"
+                    + snapshotMap.getName() + "'", e);
+        }
+    }
+
     /**
      * @param phase1Error error from the phase-1. Null if phase-1 was successful.
      * @param responses collected responses from the members
@@ -541,6 +669,9 @@ class MasterSnapshotContext {
 
     void onExecutionStarted() {
         snapshotInProgress = false;
+        // the processors restored from a snapshot don't know the changes since the
+        // previous one, the first snapshot in each execution is full
+        baseSnapshotId = NO_SNAPSHOT;
         assert snapshotQueue.isEmpty() : "snapshotQueue not empty";
         terminalSnapshotFuture = new CompletableFuture<>();
     }
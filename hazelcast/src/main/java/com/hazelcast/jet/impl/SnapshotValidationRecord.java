@@ -16,18 +16,21 @@
 
 package com.hazelcast.jet.impl;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
 
-public class SnapshotValidationRecord implements IdentifiedDataSerializable {
+public class SnapshotValidationRecord implements IdentifiedDataSerializable, Versioned {
     public static final SnapshotValidationKey KEY = SnapshotValidationKey.KEY;
 
     private long snapshotId;
+    private long baseSnapshotId;
     private long numChunks;
     private long numBytes;
 
@@ -41,7 +44,14 @@ public class SnapshotValidationRecord implements IdentifiedDataSerializable {
 
     SnapshotValidationRecord(long snapshotId, long numChunks, long numBytes, long creationTime, long jobId,
                                     @Nonnull String jobName, @Nonnull String dagJsonString) {
+        this(snapshotId, snapshotId, numChunks, numBytes, creationTime, jobId, jobName, dagJsonString);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    SnapshotValidationRecord(long snapshotId, long baseSnapshotId, long numChunks, long numBytes, long creationTime,
+                             long jobId, @Nonnull String jobName, @Nonnull String dagJsonString) {
         this.snapshotId = snapshotId;
+        this.baseSnapshotId = baseSnapshotId;
         this.numChunks = numChunks;
         this.numBytes = numBytes;
         this.creationTime = creationTime;
@@ -54,6 +64,19 @@ public class SnapshotValidationRecord implements IdentifiedDataSerializable {
         return snapshotId;
     }
 
+    /**
+     * Returns the ID of the full snapshot on which this snapshot is based. If
+     * it's lower than {@link #snapshotId()}, this snapshot is incremental and
+     * the map contains also the chunks of the snapshots between the two.
+     */
+    public long baseSnapshotId() {
+        return baseSnapshotId;
+    }
+
+    /**
+     * Returns the number of chunks of this snapshot, including those of the
+     * snapshots it's based on.
+     */
     public long numChunks() {
         return numChunks;
     }
@@ -97,6 +120,10 @@ public class SnapshotValidationRecord implements IdentifiedDataSerializable {
         out.writeLong(jobId);
         out.writeString(jobName);
         out.writeString(dagJsonString);
+        // RU_COMPAT_5_3
+        if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+            out.writeLong(baseSnapshotId);
+        }
     }
 
     @Override
@@ -108,12 +135,15 @@ public class SnapshotValidationRecord implements IdentifiedDataSerializable {
         jobId = in.readLong();
         jobName = in.readString();
         dagJsonString = in.readString();
+        // RU_COMPAT_5_3
+        baseSnapshotId = in.getVersion().isGreaterOrEqual(Versions.V5_4) ? in.readLong() : snapshotId;
     }
 
     @Override
     public String toString() {
         return "SnapshotValidationRecord{" +
                 "snapshotId=" + snapshotId +
+                ", baseSnapshotId=" + baseSnapshotId +
                 ", numChunks=" + numChunks +
                 ", numBytes=" + numBytes +
                 ", creationTime=" + creationTime +
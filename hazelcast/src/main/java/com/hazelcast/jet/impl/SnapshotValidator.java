@@ -17,11 +17,15 @@
 package com.hazelcast.jet.impl;
 
 import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicate;
 
 import static com.hazelcast.jet.impl.JobExecutionRecord.NO_SNAPSHOT;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.incrementalMarker;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.isIncrementalChunk;
 
 final class SnapshotValidator {
 
@@ -30,6 +34,11 @@ final class SnapshotValidator {
 
     /**
      * Validates a snapshot with the given id.
+     * <p>
+     * If the snapshot map contains an incremental snapshot, the given snapshot
+     * is valid also if it's one of the earlier snapshots in the map, based on
+     * the same full snapshot. This happens when the update of the {@link
+     * JobExecutionRecord} after the last snapshot was indeterminate.
      *
      * @param snapshotId snapshot ID or {@link JobExecutionRecord#NO_SNAPSHOT}
      *                   if snapshot ID is not known
@@ -37,10 +46,14 @@ final class SnapshotValidator {
      * @param jobIdString name and ID of the job, for debug output
      * @param snapshotName user-supplied snapshot name for debug output,
      *                     null if it's not an exported snapshot
-     * @return the snapshot ID of the snapshot being validated
+     * @param serializationService serialization service of the member
+     * @return the validation record of the snapshot map, its {@link
+     *     SnapshotValidationRecord#snapshotId()} is the latest snapshot in the
+     *     map, which is the given one, if it was known
      */
-    static long validateSnapshot(
-            long snapshotId, IMap<Object, Object> snapshotMap, String jobIdString, String snapshotName
+    static SnapshotValidationRecord validateSnapshot(
+            long snapshotId, IMap<Object, Object> snapshotMap, String jobIdString, String snapshotName,
+            SerializationService serializationService
     ) {
         SnapshotValidationRecord validationRecord =
                 (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
@@ -50,23 +63,50 @@ final class SnapshotValidator {
                     "snapshot %s in IMap %s (%d entries) is damaged. Unable to restore the state for %s.",
                     nameOrId, snapshotMap.getName(), snapshotMap.size(), jobIdString));
         }
+        long baseSnapshotId = validationRecord.baseSnapshotId();
+        if (snapshotId != NO_SNAPSHOT && snapshotId != validationRecord.snapshotId()) {
+            if (snapshotId < baseSnapshotId || snapshotId > validationRecord.snapshotId()) {
+                throw new JetException(String.format(
+                        "%s: IMap '%s' was supposed to contain snapshotId %d, but it contains snapshotId %d",
+                        jobIdString, snapshotMap.getName(), snapshotId, validationRecord.snapshotId()));
+            }
+            // An earlier incremental snapshot: the record counts also the chunks of
+            // the later one, we don't know the expected number of chunks.
+            return validationRecord;
+        }
         if (validationRecord.numChunks() != snapshotMap.size() - 1) {
             // fallback validation that counts using aggregate(), ignoring different snapshot IDs
             long filteredCount = snapshotMap.aggregate(
-                    Aggregators.count(),
-                    e -> e.getKey() instanceof SnapshotDataKey
-                            && ((SnapshotDataKey) e.getKey()).snapshotId() == snapshotId);
+                    Aggregators.count(), restoredChunks(validationRecord, serializationService));
             if (validationRecord.numChunks() != filteredCount) {
                 throw new JetException(String.format(
                         "State for %s in IMap '%s' is corrupted: it should have %,d entries, but has %,d",
                         jobIdString, snapshotMap.getName(), validationRecord.numChunks(), snapshotMap.size() - 1));
             }
         }
-        if (snapshotId != NO_SNAPSHOT && snapshotId != validationRecord.snapshotId()) {
-            throw new JetException(String.format(
-                    "%s: IMap '%s' was supposed to contain snapshotId %d, but it contains snapshotId %d",
-                    jobIdString, snapshotMap.getName(), snapshotId, validationRecord.snapshotId()));
+        return validationRecord;
+    }
+
+    /**
+     * Returns a predicate matching the chunks restored from the snapshot of
+     * the given record. From the earlier snapshots since the base snapshot
+     * only the incremental chunks are restored, the other chunks in them
+     * might not be removed yet.
+     */
+    private static Predicate<Object, Object> restoredChunks(
+            SnapshotValidationRecord validationRecord, SerializationService serializationService
+    ) {
+        long baseSnapshotId = validationRecord.baseSnapshotId();
+        long lastSnapshotId = validationRecord.snapshotId();
+        if (baseSnapshotId == lastSnapshotId) {
+            return e -> e.getKey() instanceof SnapshotDataKey
+                    && ((SnapshotDataKey) e.getKey()).snapshotId() == lastSnapshotId;
         }
-        return validationRecord.snapshotId();
+        byte[] incrementalMarker = incrementalMarker(serializationService);
+        return e -> e.getKey() instanceof SnapshotDataKey
+                && ((SnapshotDataKey) e.getKey()).snapshotId() >= baseSnapshotId
+                && ((SnapshotDataKey) e.getKey()).snapshotId() <= lastSnapshotId
+                && (((SnapshotDataKey) e.getKey()).snapshotId() == lastSnapshotId
+                        || isIncrementalChunk((byte[]) e.getValue(), incrementalMarker));
     }
 }
@@ -20,11 +20,13 @@ import com.hazelcast.cluster.Address;
 import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.processor.SourceProcessors;
 import com.hazelcast.jet.pipeline.file.impl.FileProcessorMetaSupplier;
+import com.hazelcast.jet.pipeline.file.impl.FileSplit;
 import com.hazelcast.jet.pipeline.file.impl.FileTraverser;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.logging.Logger;
@@ -32,6 +34,7 @@ import com.hazelcast.security.impl.function.SecuredFunctions;
 import com.hazelcast.security.permission.ConnectorPermission;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
@@ -42,7 +45,6 @@ import java.security.Permission;
 import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import static com.hazelcast.jet.Traversers.traverseIterator;
@@ -61,10 +63,23 @@ import static com.hazelcast.security.permission.ActionConstants.ACTION_READ;
  * threads, so if running a single Jet job with a single file-reading
  * vertex, the optimal value would be in the range of 4-8. Note that any
  * one file is only read by one thread, so extra parallelism won't improve
- * performance if there aren't enough files to read.
+ * performance if there aren't enough files to read, unless the file format
+ * supports reading in splits.
+ * <p>
+ * If a {@code readFileSplitFn} is given, files larger than {@code
+ * minSplitSize} are cut into line-aligned {@linkplain FileSplit splits},
+ * at most one per processor, and each split is read by a different
+ * processor. With a shared file system, a large file is thus read by
+ * processors on all members.
  */
 public final class ReadFilesP<T> extends AbstractProcessor {
 
+    /**
+     * Files up to this size are read by a single processor even if the
+     * format supports reading in splits.
+     */
+    public static final long DEFAULT_MIN_SPLIT_SIZE = 32L << 20;
+
     private static final int DEFAULT_LOCAL_PARALLELISM = 4;
 
     private final String directory;
@@ -72,6 +87,8 @@ public final class ReadFilesP<T> extends AbstractProcessor {
     private final boolean sharedFileSystem;
     private final boolean ignoreFileNotFound;
     private final FunctionEx<? super Path, ? extends Stream<T>> readFileFn;
+    private final FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn;
+    private final long minSplitSize;
 
     private LocalFileTraverser<T> traverser;
 
@@ -80,13 +97,17 @@ public final class ReadFilesP<T> extends AbstractProcessor {
             @Nonnull String glob,
             boolean sharedFileSystem,
             boolean ignoreFileNotFound,
-            @Nonnull FunctionEx<? super Path, ? extends Stream<T>> readFileFn
+            @Nonnull FunctionEx<? super Path, ? extends Stream<T>> readFileFn,
+            @Nullable FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn,
+            long minSplitSize
     ) {
         this.directory = directory;
         this.glob = glob;
         this.sharedFileSystem = sharedFileSystem;
         this.ignoreFileNotFound = ignoreFileNotFound;
         this.readFileFn = readFileFn;
+        this.readFileSplitFn = readFileSplitFn;
+        this.minSplitSize = minSplitSize;
     }
 
     @Override
@@ -100,16 +121,14 @@ public final class ReadFilesP<T> extends AbstractProcessor {
                 directory,
                 glob,
                 ignoreFileNotFound,
-                path -> shouldProcessEvent(path, parallelism, processorIndex),
-                readFileFn
+                processorIndex,
+                parallelism,
+                readFileFn,
+                readFileSplitFn,
+                minSplitSize
         );
     }
 
-    private static boolean shouldProcessEvent(Path path, int parallelism, int processorIndex) {
-        int hashCode = path.hashCode();
-        return ((hashCode & Integer.MAX_VALUE) % parallelism) == processorIndex;
-    }
-
     @Override
     public boolean isCooperative() {
         return false;
@@ -136,11 +155,30 @@ public final class ReadFilesP<T> extends AbstractProcessor {
             boolean sharedFileSystem,
             boolean ignoreFileNotFound,
             @Nonnull FunctionEx<? super Path, ? extends Stream<T>> readFileFn
+    ) {
+        return metaSupplier(directory, glob, sharedFileSystem, ignoreFileNotFound, readFileFn, null, 0);
+    }
+
+    /**
+     * Private API. Returns a meta-supplier of processors that read files
+     * larger than {@code minSplitSize} in splits using the given {@code
+     * readFileSplitFn}, if it's not null.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public static <T> ProcessorMetaSupplier metaSupplier(
+            @Nonnull String directory,
+            @Nonnull String glob,
+            boolean sharedFileSystem,
+            boolean ignoreFileNotFound,
+            @Nonnull FunctionEx<? super Path, ? extends Stream<T>> readFileFn,
+            @Nullable FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn,
+            long minSplitSize
     ) {
         checkSerializable(readFileFn, "readFileFn");
+        checkSerializable(readFileSplitFn, "readFileSplitFn");
 
         return new MetaSupplier<>(DEFAULT_LOCAL_PARALLELISM, directory, glob, sharedFileSystem,
-                ignoreFileNotFound, readFileFn);
+                ignoreFileNotFound, readFileFn, readFileSplitFn, minSplitSize);
     }
 
     private static final class MetaSupplier<T> implements FileProcessorMetaSupplier<T> {
@@ -155,14 +193,19 @@ public final class ReadFilesP<T> extends AbstractProcessor {
         private final boolean sharedFileSystem;
         private final boolean ignoreFileNotFound;
         private final FunctionEx<? super Path, ? extends Stream<T>> readFileFn;
+        private final FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn;
+        private final long minSplitSize;
 
+        @SuppressWarnings("checkstyle:ParameterNumber")
         private MetaSupplier(
                 int localParallelism,
                 String directory,
                 String glob,
                 boolean sharedFileSystem,
                 boolean ignoreFileNotFound,
-                FunctionEx<? super Path, ? extends Stream<T>> readFileFn
+                FunctionEx<? super Path, ? extends Stream<T>> readFileFn,
+                FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn,
+                long minSplitSize
         ) {
             this.localParallelism = localParallelism;
             this.directory = directory;
@@ -170,13 +213,15 @@ public final class ReadFilesP<T> extends AbstractProcessor {
             this.sharedFileSystem = sharedFileSystem;
             this.ignoreFileNotFound = ignoreFileNotFound;
             this.readFileFn = readFileFn;
+            this.readFileSplitFn = readFileSplitFn;
+            this.minSplitSize = minSplitSize;
         }
 
         @Nonnull
         @Override
         public Function<? super Address, ? extends ProcessorSupplier> get(@Nonnull List<Address> addresses) {
             return address -> ProcessorSupplier.of(SecuredFunctions.readFilesProcessorFn(
-                    directory, glob, sharedFileSystem, ignoreFileNotFound, readFileFn
+                    directory, glob, sharedFileSystem, ignoreFileNotFound, readFileFn, readFileSplitFn, minSplitSize
             ));
         }
 
@@ -187,7 +232,7 @@ public final class ReadFilesP<T> extends AbstractProcessor {
 
         @Override
         public FileTraverser<T> traverser() {
-            return new LocalFileTraverser<>(LOGGER, directory, glob, ignoreFileNotFound, path -> true, readFileFn);
+            return new LocalFileTraverser<>(LOGGER, directory, glob, ignoreFileNotFound, 0, 1, readFileFn, null, 0);
         }
 
         @Override
@@ -217,31 +262,42 @@ public final class ReadFilesP<T> extends AbstractProcessor {
         private final Path directory;
         private final String glob;
         private final boolean ignoreFileNotFound;
+        private final int processorIndex;
+        private final int parallelism;
         private final FunctionEx<? super Path, ? extends Stream<T>> readFileFn;
+        private final FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn;
+        private final long minSplitSize;
         private final Traverser<T> delegate;
 
         private DirectoryStream<Path> directoryStream;
         private Stream<T> fileStream;
         private boolean hasResults;
 
+        @SuppressWarnings("checkstyle:ParameterNumber")
         private LocalFileTraverser(
                 ILogger logger,
                 String directory,
                 String glob,
                 boolean ignoreFileNotFound,
-                Predicate<Path> pathFilterFn,
-                FunctionEx<? super Path, ? extends Stream<T>> readFileFn
+                int processorIndex,
+                int parallelism,
+                FunctionEx<? super Path, ? extends Stream<T>> readFileFn,
+                FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn,
+                long minSplitSize
         ) {
             this.logger = logger;
             this.directory = Paths.get(directory);
             this.glob = glob;
             this.ignoreFileNotFound = ignoreFileNotFound;
+            this.processorIndex = processorIndex;
+            this.parallelism = parallelism;
             this.readFileFn = readFileFn;
+            this.readFileSplitFn = readFileSplitFn;
+            this.minSplitSize = minSplitSize;
             this.delegate = traverseIterator(uncheckCall(this::paths))
                     .filter(path -> !Files.isDirectory(path))
                     .peek(path -> hasResults = true)
-                    .filter(pathFilterFn::test)
-                    .flatMap(this::processFile);
+                    .flatMap(this::processPath);
         }
 
         private Iterator<Path> paths() throws IOException {
@@ -257,11 +313,43 @@ public final class ReadFilesP<T> extends AbstractProcessor {
             return directoryStream.iterator();
         }
 
+        /**
+         * Returns the items of the whole file or of its split that this
+         * processor reads. A file is split into at most {@code parallelism}
+         * splits; the first one is assigned to the processor that would read
+         * the whole file, the others to the following processors.
+         */
+        private Traverser<T> processPath(Path path) {
+            int firstProcessor = (path.hashCode() & Integer.MAX_VALUE) % parallelism;
+            if (readFileSplitFn == null || parallelism == 1) {
+                return firstProcessor == processorIndex ? processFile(path) : Traversers.empty();
+            }
+            long size = uncheckCall(() -> Files.size(path));
+            long splitSize = Math.max(minSplitSize, (size + parallelism - 1) / parallelism);
+            if (size <= splitSize) {
+                return firstProcessor == processorIndex ? processFile(path) : Traversers.empty();
+            }
+            long splitIndex = Math.floorMod(processorIndex - firstProcessor, parallelism);
+            long start = splitIndex * splitSize;
+            if (start >= size) {
+                return Traversers.empty();
+            }
+            return processSplit(new FileSplit(path, start, Math.min(size, start + splitSize)));
+        }
+
         private Traverser<T> processFile(Path file) {
             logger.finest("Processing file " + file);
+            return traverseFileStream(readFileFn.apply(file));
+        }
+
+        private Traverser<T> processSplit(FileSplit split) {
+            logger.finest("Processing file split " + split);
+            return traverseFileStream(readFileSplitFn.apply(split));
+        }
 
+        private Traverser<T> traverseFileStream(Stream<T> stream) {
             assert fileStream == null : "fileStream != null";
-            fileStream = readFileFn.apply(file);
+            fileStream = stream;
             return traverseStream(fileStream)
                     .onFirstNull(() -> {
                         fileStream.close();
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.Processor;
+
+/**
+ * Implemented by processors that can save only the keyed state that changed
+ * since the previous snapshot, see {@link
+ * JobConfigArguments#KEY_FULL_SNAPSHOT_INTERVAL}.
+ * <p>
+ * An incremental snapshot contains an entry for each key updated since the
+ * previous automatic snapshot and a {@link Tombstone#INSTANCE} value for each
+ * key removed since then. All {@link com.hazelcast.jet.core.BroadcastKey
+ * broadcast} entries must be saved to every snapshot, they are restored only
+ * from the latest one. When restoring, the processor receives the full state
+ * followed by the changes from each incremental snapshot, in the order in
+ * which they were taken, so it must allow a later value to replace an earlier
+ * one for the same key.
+ * <p>
+ * The changes saved to a snapshot must be forgotten only after a successful
+ * {@link Processor#snapshotCommitFinish(boolean) commit}, after a failed one
+ * they must be saved again to the next snapshot.
+ */
+public interface IncrementalSnapshotProcessor {
+
+    /**
+     * Called before each call to {@link Processor#saveToSnapshot()} for
+     * automatic and terminal snapshots, but not for exported ones. Exported
+     * snapshots always contain the full state and must not forget the
+     * changes tracked since the previous automatic snapshot.
+     *
+     * @param incremental if true, the processor should save only the changed
+     *                    state, otherwise the full state
+     */
+    void prepareSaveToSnapshot(boolean incremental);
+
+    /**
+     * The value saved for a key that was removed since the previous snapshot.
+     */
+    enum Tombstone {
+        INSTANCE
+    }
+}
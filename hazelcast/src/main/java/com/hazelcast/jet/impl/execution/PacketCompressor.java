@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.jet.config.EdgeConfig;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.internal.nio.Bits.BYTE_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.nio.Bits.readIntB;
+import static com.hazelcast.internal.nio.Bits.writeIntB;
+import static com.hazelcast.jet.impl.Networking.PACKET_HEADER_SIZE;
+
+/**
+ * Compresses the packets of a distributed edge with {@linkplain
+ * EdgeConfig#setCompressionEnabled(boolean) compression} enabled.
+ * <p>
+ * The data following the packet header, that is all the items of the
+ * packet, are deflated together as a single block. The compressed packet
+ * consists of the original packet header, a byte telling whether the block
+ * is deflated or stored as is, the length of the uncompressed block and the
+ * block itself. A block is stored as is if deflating doesn't make it smaller.
+ * <p>
+ * An instance isn't thread-safe, the {@link SenderTasklet} and the {@link
+ * ReceiverTasklet} each use their own and {@linkplain #end() end} it when
+ * they are closed.
+ */
+final class PacketCompressor {
+
+    private static final byte STORED = 0;
+    private static final byte DEFLATED = 1;
+    private static final int BLOCK_HEADER_SIZE = BYTE_SIZE_IN_BYTES + INT_SIZE_IN_BYTES;
+
+    private Deflater deflater;
+    private Inflater inflater;
+    private byte[] compressBuffer = new byte[0];
+
+    /**
+     * Returns the compressed form of the given packet.
+     */
+    byte[] compress(byte[] packet) {
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        int blockLength = packet.length - PACKET_HEADER_SIZE;
+        if (compressBuffer.length < blockLength) {
+            compressBuffer = new byte[blockLength];
+        }
+        deflater.reset();
+        deflater.setInput(packet, PACKET_HEADER_SIZE, blockLength);
+        deflater.finish();
+        int compressedLength = deflater.deflate(compressBuffer, 0, blockLength);
+        boolean deflated = deflater.finished() && compressedLength < blockLength;
+
+        byte[] result = new byte[PACKET_HEADER_SIZE + BLOCK_HEADER_SIZE + (deflated ? compressedLength : blockLength)];
+        System.arraycopy(packet, 0, result, 0, PACKET_HEADER_SIZE);
+        result[PACKET_HEADER_SIZE] = deflated ? DEFLATED : STORED;
+        writeIntB(result, PACKET_HEADER_SIZE + BYTE_SIZE_IN_BYTES, blockLength);
+        if (deflated) {
+            System.arraycopy(compressBuffer, 0, result, PACKET_HEADER_SIZE + BLOCK_HEADER_SIZE, compressedLength);
+        } else {
+            System.arraycopy(packet, PACKET_HEADER_SIZE, result, PACKET_HEADER_SIZE + BLOCK_HEADER_SIZE, blockLength);
+        }
+        return result;
+    }
+
+    /**
+     * Restores the original packet from one created by {@link #compress}.
+     */
+    byte[] decompress(byte[] packet) throws IOException {
+        int blockLength = readIntB(packet, PACKET_HEADER_SIZE + BYTE_SIZE_IN_BYTES);
+        int blockOffset = PACKET_HEADER_SIZE + BLOCK_HEADER_SIZE;
+        byte[] result = new byte[PACKET_HEADER_SIZE + blockLength];
+        System.arraycopy(packet, 0, result, 0, PACKET_HEADER_SIZE);
+        if (packet[PACKET_HEADER_SIZE] == STORED) {
+            System.arraycopy(packet, blockOffset, result, PACKET_HEADER_SIZE, blockLength);
+            return result;
+        }
+
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.reset();
+        inflater.setInput(packet, blockOffset, packet.length - blockOffset);
+        try {
+            int inflatedLength = inflater.inflate(result, PACKET_HEADER_SIZE, blockLength);
+            if (inflatedLength != blockLength || !inflater.finished()) {
+                throw new IOException("Corrupted compressed packet, expected " + blockLength
+                        + " bytes, inflated " + inflatedLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted compressed packet", e);
+        }
+        return result;
+    }
+
+    /**
+     * Releases the native memory of the deflater and inflater. The instance
+     * must not be used afterwards.
+     */
+    void end() {
+        if (deflater != null) {
+            deflater.end();
+        }
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+}
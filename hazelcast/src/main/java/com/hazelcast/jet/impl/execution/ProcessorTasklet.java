@@ -353,7 +353,7 @@ public class ProcessorTasklet implements Tasklet {
                 return;
 
             case SAVE_SNAPSHOT:
-                if (doWithClassLoader(context.classLoader(), () -> processor.saveToSnapshot())) {
+                if (doWithClassLoader(context.classLoader(), this::saveToSnapshot)) {
                     progTracker.madeProgress();
                     state = ssContext.isExportOnly() ? EMIT_BARRIER : SNAPSHOT_COMMIT_PREPARE;
                     stateMachineStep(); // recursion
@@ -509,6 +509,13 @@ public class ProcessorTasklet implements Tasklet {
         }
     }
 
+    private boolean saveToSnapshot() {
+        if (processor instanceof IncrementalSnapshotProcessor && !ssContext.isExport()) {
+            ((IncrementalSnapshotProcessor) processor).prepareSaveToSnapshot(ssContext.isIncremental());
+        }
+        return processor.saveToSnapshot();
+    }
+
     private void complete() {
         // check ssContext to see if a snapshot phase should be executed
         if (pendingSnapshotId1 == pendingSnapshotId2) {
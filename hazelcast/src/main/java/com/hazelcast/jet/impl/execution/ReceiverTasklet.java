@@ -97,6 +97,7 @@ public class ReceiverTasklet implements Tasklet {
     private final ArrayDeque<ObjWithPtionIdAndSize> inbox = new ArrayDeque<>();
     private final OutboundCollector collector;
     private final InternalSerializationService serializationService;
+    private final PacketCompressor compressor;
 
     private boolean receptionDone;
 
@@ -106,6 +107,9 @@ public class ReceiverTasklet implements Tasklet {
     @Probe(name = MetricNames.DISTRIBUTED_BYTES_IN, unit = ProbeUnit.BYTES)
     private final Counter bytesInCounter = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.DISTRIBUTED_DECOMPRESSION_TIME, unit = ProbeUnit.NS)
+    private final Counter decompressionTimeCounter = SwCounter.newSwCounter();
+
     //                    FLOW-CONTROL STATE
     //            All arrays are indexed by sender ID.
 
@@ -121,14 +125,16 @@ public class ReceiverTasklet implements Tasklet {
 
     //                 END FLOW-CONTROL STATE
 
+    @SuppressWarnings("checkstyle:parameternumber")
     public ReceiverTasklet(
             OutboundCollector collector, InternalSerializationService serializationService,
-            int rwinMultiplier, int flowControlPeriodMs, LoggingService loggingService,
+            int rwinMultiplier, boolean compressionEnabled, int flowControlPeriodMs, LoggingService loggingService,
             Address sourceAddress, int ordinal, String destinationVertexName,
             Connection memberConnection, String jobPrefix
     ) {
         this.collector = collector;
         this.serializationService = serializationService;
+        this.compressor = compressionEnabled ? new PacketCompressor() : null;
         this.rwinMultiplier = rwinMultiplier;
         this.flowControlPeriodNs = (double) MILLISECONDS.toNanos(flowControlPeriodMs);
         this.sourceAddressString = sourceAddress.toString();
@@ -270,6 +276,13 @@ public class ReceiverTasklet implements Tasklet {
         this.numWaitingInInbox = value;
     }
 
+    @Override
+    public void close() {
+        if (compressor != null) {
+            compressor.end();
+        }
+    }
+
     @Override
     public String toString() {
         return "ReceiverTasklet{" +
@@ -301,6 +314,9 @@ public class ReceiverTasklet implements Tasklet {
             long totalBytes = 0;
             long totalItems = 0;
             for (byte[] payload; (payload = incoming.poll()) != null; ) {
+                if (compressor != null) {
+                    payload = decompress(payload);
+                }
                 BufferObjectDataInput input = serializationService.createObjectDataInput(payload, PACKET_HEADER_SIZE);
                 final int itemCount = input.readInt();
                 for (int i = 0; i < itemCount; i++) {
@@ -321,6 +337,13 @@ public class ReceiverTasklet implements Tasklet {
         }
     }
 
+    private byte[] decompress(byte[] payload) throws IOException {
+        long start = System.nanoTime();
+        byte[] decompressed = compressor.decompress(payload);
+        decompressionTimeCounter.inc(System.nanoTime() - start);
+        return decompressed;
+    }
+
     public void initIncomingQueue(Queue<byte[]> incomingQueue) {
         incoming = incomingQueue;
     }
@@ -63,6 +63,7 @@ public class SenderTasklet implements Tasklet {
     private final BufferObjectDataOutput outputBuffer;
     private final int bufPosPastHeader;
     private final int packetSizeLimit;
+    private final PacketCompressor compressor;
 
     /* Used for metrics */
     private final String destinationAddressString;
@@ -75,6 +76,12 @@ public class SenderTasklet implements Tasklet {
     @Probe(name = MetricNames.DISTRIBUTED_BYTES_OUT, unit = ProbeUnit.BYTES)
     private final Counter bytesOutCounter = SwCounter.newSwCounter();
 
+    @Probe(name = MetricNames.DISTRIBUTED_BYTES_SAVED, unit = ProbeUnit.BYTES)
+    private final Counter bytesSavedCounter = SwCounter.newSwCounter();
+
+    @Probe(name = MetricNames.DISTRIBUTED_COMPRESSION_TIME, unit = ProbeUnit.NS)
+    private final Counter compressionTimeCounter = SwCounter.newSwCounter();
+
     private boolean instreamExhausted;
     // read and written by Jet thread
     private long sentSeq;
@@ -83,12 +90,13 @@ public class SenderTasklet implements Tasklet {
     private volatile int sendSeqLimitCompressed;
     private final Consumer<Object> addToInboxFunction = inbox::add;
 
+    @SuppressWarnings("checkstyle:parameternumber")
     public SenderTasklet(
             InboundEdgeStream inboundEdgeStream,
             NodeEngine nodeEngine,
             Address destinationAddress,
             Connection connection,
-            int destinationVertexId, int packetSizeLimit, long executionId,
+            int destinationVertexId, int packetSizeLimit, boolean compressionEnabled, long executionId,
             String sourceVertexName, int sourceOrdinal,
             InternalSerializationService serializationService
     ) {
@@ -97,6 +105,7 @@ public class SenderTasklet implements Tasklet {
         this.sourceVertexName = sourceVertexName;
         this.sourceOrdinalString = "" + sourceOrdinal;
         this.packetSizeLimit = packetSizeLimit;
+        this.compressor = compressionEnabled ? new PacketCompressor() : null;
         // we use Connection directly because we rely on packets not being transparently skipped or reordered
         this.connection = connection;
         this.outputBuffer = serializationService.createObjectDataOutput(BUFFER_INITIAL_SIZE, BUFFER_FIRST_GROWTH_SIZE);
@@ -114,13 +123,25 @@ public class SenderTasklet implements Tasklet {
         }
         if (tryFillOutputBuffer()) {
             progTracker.madeProgress();
-            if (!connection.write(new Packet(outputBuffer.toByteArray()).setPacketType(Packet.Type.JET))) {
+            if (!connection.write(new Packet(packetPayload()).setPacketType(Packet.Type.JET))) {
                 throw new RestartableException("Connection write failed in " + toString());
             }
         }
         return progTracker.toProgressState();
     }
 
+    private byte[] packetPayload() {
+        byte[] payload = outputBuffer.toByteArray();
+        if (compressor == null) {
+            return payload;
+        }
+        long start = System.nanoTime();
+        byte[] compressed = compressor.compress(payload);
+        compressionTimeCounter.inc(System.nanoTime() - start);
+        bytesSavedCounter.inc(payload.length - compressed.length);
+        return compressed;
+    }
+
     private void tryFillInbox() {
         if (!inbox.isEmpty()) {
             progTracker.notDone();
@@ -177,6 +198,13 @@ public class SenderTasklet implements Tasklet {
         this.sendSeqLimitCompressed = sendSeqLimitCompressed;
     }
 
+    @Override
+    public void close() {
+        if (compressor != null) {
+            compressor.end();
+        }
+    }
+
     @Override
     public String toString() {
         return "SenderTasklet{" +
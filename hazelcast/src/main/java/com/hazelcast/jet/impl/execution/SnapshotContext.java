@@ -128,6 +128,8 @@ public class SnapshotContext {
     private final AtomicLong totalBytes = new AtomicLong();
     private final AtomicLong totalKeys = new AtomicLong();
     private final AtomicLong totalChunks = new AtomicLong();
+    private final AtomicLong totalIncrementalBytes = new AtomicLong();
+    private final AtomicLong totalIncrementalChunks = new AtomicLong();
     private boolean isCancelled;
 
     public SnapshotContext(ILogger logger, String jobNameAndExecutionId, long activeSnapshotId,
@@ -173,6 +175,14 @@ public class SnapshotContext {
         return SnapshotFlags.isExportOnly(snapshotFlags);
     }
 
+    boolean isExport() {
+        return SnapshotFlags.isExport(snapshotFlags);
+    }
+
+    boolean isIncremental() {
+        return SnapshotFlags.isIncremental(snapshotFlags);
+    }
+
     boolean isLastPhase1Successful() {
         return lastPhase1Successful;
     }
@@ -348,9 +358,20 @@ public class SnapshotContext {
      * all async flush operations are done).
      */
     void phase1DoneForTasklet(long numBytes, long numKeys, long numChunks) {
+        phase1DoneForTasklet(numBytes, numKeys, numChunks, false);
+    }
+
+    /**
+     * @param incremental true if the tasklet wrote incremental chunks
+     */
+    void phase1DoneForTasklet(long numBytes, long numKeys, long numChunks, boolean incremental) {
         totalBytes.addAndGet(numBytes);
         totalKeys.addAndGet(numKeys);
         totalChunks.addAndGet(numChunks);
+        if (incremental) {
+            totalIncrementalBytes.addAndGet(numBytes);
+            totalIncrementalChunks.addAndGet(numChunks);
+        }
         int newRemainingTasklets = numRemainingTasklets.decrementAndGet();
         assert newRemainingTasklets >= 0 : "newRemainingTasklets=" + newRemainingTasklets;
         if (newRemainingTasklets == 0) {
@@ -391,14 +412,16 @@ public class SnapshotContext {
             assert phase1Future == null : "phase1Future=" + phase1Future;
             return;
         }
-        phase1Future.complete(
-                new SnapshotPhase1Result(totalBytes.get(), totalKeys.get(), totalChunks.get(), snapshotError.get()));
+        phase1Future.complete(new SnapshotPhase1Result(totalBytes.get(), totalKeys.get(), totalChunks.get(),
+                totalIncrementalBytes.get(), totalIncrementalChunks.get(), snapshotError.get()));
 
         phase1Future = null;
         snapshotError.set(null);
         totalBytes.set(0);
         totalKeys.set(0);
         totalChunks.set(0);
+        totalIncrementalBytes.set(0);
+        totalIncrementalChunks.set(0);
         currentMapName = null;
     }
 
@@ -133,7 +133,7 @@ public class StoreSnapshotTasklet implements Tasklet {
                 long bytes = ssWriter.getTotalPayloadBytes();
                 long keys = ssWriter.getTotalKeys();
                 long chunks = ssWriter.getTotalChunks();
-                snapshotContext.phase1DoneForTasklet(bytes, keys, chunks);
+                snapshotContext.phase1DoneForTasklet(bytes, keys, chunks, ssWriter.isIncremental());
                 metrics.set(new LongLongAccumulator(bytes, keys));
                 ssWriter.resetStats();
                 pendingSnapshotId++;
@@ -66,6 +66,7 @@ import static com.hazelcast.internal.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MAX_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_COOPERATIVE_MIN_MICROSECONDS;
 import static com.hazelcast.spi.properties.ClusterProperty.JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS;
@@ -92,8 +93,11 @@ public class TaskletExecutionService {
     private final Counter blockingWorkerCount = MwCounter.newMwCounter();
     private volatile boolean isShutdown;
     private final Object lock = new Object();
+    // guards the migration of tasklets between cooperative workers
+    private final Object rebalanceLock = new Object();
     private final IdleStrategy idlerCooperative;
     private final IdleStrategy idlerNonCooperative;
+    private final long rebalanceIntervalNanos;
 
     public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, HazelcastProperties properties) {
         hzExecutionService = nodeEngine.getExecutionService();
@@ -110,6 +114,7 @@ public class TaskletExecutionService {
         idlerNonCooperative = createIdler(
             properties, JET_IDLE_NONCOOPERATIVE_MIN_MICROSECONDS, JET_IDLE_NONCOOPERATIVE_MAX_MICROSECONDS
         );
+        rebalanceIntervalNanos = properties.getNanos(JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS);
 
         Arrays.setAll(cooperativeWorkers, i -> new CooperativeWorker());
         Arrays.setAll(cooperativeThreadPool, i -> new CooperativeWorkerThread(cooperativeWorkers[i],
@@ -338,11 +343,17 @@ public class TaskletExecutionService {
 
     private final class CooperativeWorker implements Runnable {
         private static final int COOPERATIVE_LOGGING_THRESHOLD = 5;
+        // a worker busy for a smaller fraction of the interval doesn't move its tasklets
+        private static final double MIN_LOAD_TO_REBALANCE = 0.8;
+        // a tasklet is only moved if it lowers the load of the busier worker by at least this much
+        private static final double MIN_REBALANCE_GAIN = 0.1;
 
         @Probe(name = "taskletCount")
         private final CopyOnWriteArrayList<TaskletTracker> trackers;
         @Probe(name = "iterationCount")
         private final Counter iterationCount = SwCounter.newSwCounter();
+        @Probe(name = "taskletMigrationCount")
+        private final Counter taskletMigrationCount = SwCounter.newSwCounter();
 
         private final ProgressTracker progressTracker = new ProgressTracker();
         // prevent lambda allocation on each iteration
@@ -353,6 +364,13 @@ public class TaskletExecutionService {
         private boolean finestLogEnabled;
         private Thread myThread;
         private Contexts.Container contextContainer;
+        private long windowStart;
+
+        // the fraction of the last rebalancing interval the worker spent
+        // executing tasklets, guarded by rebalanceLock
+        private double load;
+        // guarded by rebalanceLock
+        private boolean exited;
 
         CooperativeWorker() {
             this.trackers = new CopyOnWriteArrayList<>();
@@ -365,6 +383,7 @@ public class TaskletExecutionService {
 
             IdleStrategy idlerLocal = idlerCooperative;
             long idleCount = 0;
+            windowStart = System.nanoTime();
 
             while (!isShutdown) {
                 finestLogEnabled = logger.isFinestEnabled();
@@ -372,6 +391,13 @@ public class TaskletExecutionService {
                 // garbage-free iteration -- relies on implementation in COWArrayList that doesn't use an Iterator
                 trackers.forEach(runTasklet);
                 iterationCount.inc();
+                if (rebalanceIntervalNanos > 0) {
+                    long now = System.nanoTime();
+                    if (now - windowStart >= rebalanceIntervalNanos) {
+                        rebalance(now - windowStart);
+                        windowStart = now;
+                    }
+                }
                 if (!progressTracker.isMadeProgress() && newTaskletSemaphore.drainPermits() > 0) {
                     progressTracker.madeProgress();
                 }
@@ -381,25 +407,33 @@ public class TaskletExecutionService {
                     if (trackers.isEmpty()) {
                         newTaskletSemaphore.drainPermits();
                         if (trackers.isEmpty() && !isShutdown) {
+                            synchronized (rebalanceLock) {
+                                load = 0;
+                            }
                             try {
                                 newTaskletSemaphore.acquire();
                             } catch (InterruptedException e) {
                                 logger.severe("Cooperative worker interrupted", e);
                                 return;
                             }
+                            windowStart = System.nanoTime();
                         }
                     } else {
                         idlerLocal.idle(++idleCount);
                     }
                 }
             }
-            trackers.forEach(t -> t.executionTracker.taskletDone());
-            trackers.clear();
+            // no tasklet can be moved to this worker after this
+            synchronized (rebalanceLock) {
+                exited = true;
+                trackers.forEach(t -> t.executionTracker.taskletDone());
+                trackers.clear();
+            }
         }
 
         private void runTasklet(TaskletTracker t) {
             long start = 0;
-            if (finestLogEnabled) {
+            if (finestLogEnabled || rebalanceIntervalNanos > 0) {
                 start = System.nanoTime();
             }
             try {
@@ -419,15 +453,87 @@ public class TaskletExecutionService {
                 dismissTasklet(t);
             }
 
-            if (finestLogEnabled) {
-                long elapsedMs = NANOSECONDS.toMillis((System.nanoTime() - start));
-                if (elapsedMs > COOPERATIVE_LOGGING_THRESHOLD) {
+            if (finestLogEnabled || rebalanceIntervalNanos > 0) {
+                long elapsed = System.nanoTime() - start;
+                t.busyNanos += elapsed;
+                long elapsedMs = NANOSECONDS.toMillis(elapsed);
+                if (finestLogEnabled && elapsedMs > COOPERATIVE_LOGGING_THRESHOLD) {
                     logger.finest("Cooperative tasklet call of '" + t.tasklet + "' took more than "
                             + COOPERATIVE_LOGGING_THRESHOLD + " ms: " + elapsedMs + "ms");
                 }
             }
         }
 
+        /**
+         * Publishes the load of this worker in the last interval and, if the
+         * worker was busy for most of it, moves one of its tasklets to the
+         * least loaded worker. Only the worker running a tasklet moves it,
+         * between two calls, and the tasklet becomes visible to the target
+         * worker only after it was removed from this one, so it's never
+         * executed by two threads at once.
+         */
+        private void rebalance(long windowNanos) {
+            long busyNanos = 0;
+            for (TaskletTracker t : trackers) {
+                busyNanos += t.busyNanos;
+            }
+            synchronized (rebalanceLock) {
+                load = (double) busyNanos / windowNanos;
+                int targetIndex = load >= MIN_LOAD_TO_REBALANCE && !isShutdown ? leastLoadedWorker() : -1;
+                if (targetIndex >= 0) {
+                    CooperativeWorker target = cooperativeWorkers[targetIndex];
+                    TaskletTracker tracker = trackerToMove(load - target.load, windowNanos);
+                    if (tracker != null) {
+                        double trackerLoad = (double) tracker.busyNanos / windowNanos;
+                        trackers.remove(tracker);
+                        tracker.busyNanos = 0;
+                        target.trackers.add(tracker);
+                        load -= trackerLoad;
+                        target.load += trackerLoad;
+                        taskletMigrationCount.inc();
+                        target.newTaskletSemaphore.release();
+                        LockSupport.unpark(cooperativeThreadPool[targetIndex]);
+                        logFinest(logger, "Moved %s to cooperative worker %d, its load was %.2f",
+                                tracker.tasklet, targetIndex, trackerLoad);
+                    }
+                }
+            }
+            for (TaskletTracker t : trackers) {
+                t.busyNanos = 0;
+            }
+        }
+
+        private int leastLoadedWorker() {
+            int result = -1;
+            for (int i = 0; i < cooperativeWorkers.length; i++) {
+                CooperativeWorker worker = cooperativeWorkers[i];
+                if (worker != this && !worker.exited && (result < 0 || worker.load < cooperativeWorkers[result].load)) {
+                    result = i;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the tracker whose move lowers the load of the busier of this
+         * and the target worker the most, or null, if no move lowers it by at
+         * least {@link #MIN_REBALANCE_GAIN}. A tracker with load {@code l}
+         * lowers it by {@code min(l, loadDifference - l)}.
+         */
+        private TaskletTracker trackerToMove(double loadDifference, long windowNanos) {
+            TaskletTracker result = null;
+            double bestGain = MIN_REBALANCE_GAIN;
+            for (TaskletTracker t : trackers) {
+                double trackerLoad = (double) t.busyNanos / windowNanos;
+                double gain = Math.min(trackerLoad, loadDifference - trackerLoad);
+                if (gain >= bestGain) {
+                    result = t;
+                    bestGain = gain;
+                }
+            }
+            return result;
+        }
+
         private void dismissTasklet(TaskletTracker t) {
             logFinest(logger, "Tasklet %s is done", t.tasklet);
             t.executionTracker.taskletDone();
@@ -439,6 +545,9 @@ public class TaskletExecutionService {
         final Tasklet tasklet;
         final ExecutionTracker executionTracker;
         final ClassLoader jobClassLoader;
+        // time spent in the tasklet's calls in the current rebalancing
+        // interval, accessed only by the worker running the tasklet
+        long busyNanos;
 
         TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader) {
             this.tasklet = tasklet;
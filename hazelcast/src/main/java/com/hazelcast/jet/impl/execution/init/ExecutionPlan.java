@@ -41,6 +41,7 @@ import com.hazelcast.jet.impl.execution.ConcurrentInboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ConveyorCollector;
 import com.hazelcast.jet.impl.execution.ConveyorCollectorWithPartition;
 import com.hazelcast.jet.impl.execution.InboundEdgeStream;
+import com.hazelcast.jet.impl.execution.IncrementalSnapshotProcessor;
 import com.hazelcast.jet.impl.execution.OutboundCollector;
 import com.hazelcast.jet.impl.execution.OutboundEdgeStream;
 import com.hazelcast.jet.impl.execution.ProcessorTasklet;
@@ -95,6 +96,7 @@ import static com.hazelcast.jet.impl.util.ImdgUtil.writeSubject;
 import static com.hazelcast.jet.impl.util.PrefixedLogger.prefix;
 import static com.hazelcast.jet.impl.util.PrefixedLogger.prefixedLogger;
 import static com.hazelcast.jet.impl.util.Util.doWithClassLoader;
+import static com.hazelcast.jet.impl.util.Util.fullSnapshotInterval;
 import static com.hazelcast.jet.impl.util.Util.memoize;
 import static com.hazelcast.spi.impl.executionservice.ExecutionService.JOB_OFFLOADABLE_EXECUTOR;
 import static java.util.Arrays.asList;
@@ -234,7 +236,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext,
                             ConcurrentInboundEdgeStream.create(ssConveyor, 0, 0, true, jobPrefix + "/ssFrom", null),
                             new AsyncSnapshotWriterImpl(nodeEngine, snapshotContext, vertex.name(), memberIndex, memberCount,
-                                    jobSerializationService),
+                                    jobSerializationService, writesIncrementalSnapshots(processors)),
                             storeSnapshotLogger, vertex.name(), higherPriorityVertices.contains(vertex.vertexId()));
                     tasklets.add(ssTasklet);
                 }
@@ -513,6 +515,15 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         return processors;
     }
 
+    /**
+     * Returns true if incremental snapshots are enabled for the job and all
+     * processors of the vertex save only the changed state to them.
+     */
+    private boolean writesIncrementalSnapshots(Collection<? extends Processor> processors) {
+        return fullSnapshotInterval(jobConfig) > 1
+                && processors.stream().allMatch(p -> p instanceof IncrementalSnapshotProcessor);
+    }
+
     private List<OutboundEdgeStream> createOutboundEdgeStreams(VertexDef vertex, int processorIdx) {
         List<OutboundEdgeStream> outboundStreams = new ArrayList<>();
         for (EdgeDef edge : vertex.outboundEdges()) {
@@ -695,8 +706,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     adaptedComparator);
             SenderTasklet t = new SenderTasklet(inboundEdgeStream, nodeEngine, destAddr,
                     memberConnections.get(destAddr),
-                    destVertexId, edge.getConfig().getPacketSizeLimit(), executionId,
-                    edge.sourceVertex().name(), edge.sourceOrdinal(), jobSerializationService
+                    destVertexId, edge.getConfig().getPacketSizeLimit(), edge.getConfig().isCompressionEnabled(),
+                    executionId, edge.sourceVertex().name(), edge.sourceOrdinal(), jobSerializationService
             );
             senderMap.computeIfAbsent(destVertexId, xx -> new HashMap<>())
                     .computeIfAbsent(edge.destOrdinal(), xx -> new HashMap<>())
@@ -789,6 +800,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         ReceiverTasklet receiverTasklet = new ReceiverTasklet(
                                 collector, jobSerializationService,
                                 edge.getConfig().getReceiveWindowMultiplier(),
+                                edge.getConfig().isCompressionEnabled(),
                                 getJetConfig().getFlowControlPeriodMs(),
                                 nodeEngine.getLoggingService(), addr, edge.destOrdinal(), edge.destVertex().name(),
                                 memberConnections.get(addr), jobPrefix);
@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.datamodel.TimestampedItem;
+import com.hazelcast.jet.impl.execution.init.Contexts.InternalProcSupplierCtx;
+import com.hazelcast.jet.impl.memory.StateSegment.MergingIterator;
+import com.hazelcast.jet.impl.memory.StateSegment.Record;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.memory.StateSegment.DELETED;
+
+/**
+ * A {@link KeyedStateBackend} that keeps the states in a log-structured
+ * merge tree on the local disk, with the most recently used states cached on
+ * the heap.
+ * <ul>
+ *     <li>The cache holds up to {@code cacheSize} deserialized states, it's
+ *     the only place where the states are mutated. A state evicted from the
+ *     cache is serialized into the memtable.
+ *
+ *     <li>The memtable is a hash map of the serialized keys and states. When
+ *     it grows over {@value #MEMTABLE_MAX_BYTES} bytes, it's written to a new
+ *     immutable {@link StateSegment} file.
+ *
+ *     <li>The segments are merged when the newer one isn't much smaller than
+ *     the older one, so there's a logarithmic number of them. A lookup goes
+ *     from the newest one to the oldest one and, thanks to their Bloom
+ *     filters, reads only the ones likely to contain the key.
+ * </ul>
+ * To save a snapshot, the cache and the memtable are written to a segment
+ * and the states are read from the immutable segment files, merged.
+ * <p>
+ * To evict the expired keys without scanning all states, each time the
+ * timestamp of a key moves to a new time bucket of the width of {@code
+ * ttl / }{@value #EVICTION_BUCKETS_PER_TTL}, the key is appended to a
+ * {@link SpillFile} of the bucket. When all the timestamps in a bucket
+ * expire, the keys in its file are checked and the expired ones removed. A
+ * key is therefore evicted up to one bucket width later than with the
+ * {@link HeapKeyedStateBackend}.
+ * <p>
+ * Keys are compared by their serialized form.
+ */
+public final class DiskKeyedStateBackend<K, S> implements KeyedStateBackend<K, S> {
+
+    /**
+     * The default number of states cached on the heap.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 16384;
+
+    static final long MEMTABLE_MAX_BYTES = 4L * 1024 * 1024;
+    static final int EVICTION_BUCKETS_PER_TTL = 16;
+
+    /**
+     * Two segments are merged if the older one isn't larger than this many
+     * times the newer one.
+     */
+    private static final int COMPACTION_RATIO = 2;
+    private static final int HASH_MAP_INITIAL_CAPACITY = 16;
+    private static final float HASH_MAP_LOAD_FACTOR = 0.75f;
+
+    private final Path directory;
+    private final Processor.Context context;
+    private final InternalSerializationService serializationService;
+    private final long ttl;
+    private final long bucketWidth;
+    private final LinkedHashMap<K, TimestampedItem<S>> cache;
+    private final Map<Data, byte[]> memtable = new HashMap<>();
+    private final List<StateSegment> segments = new ArrayList<>();
+    private final TreeMap<Long, SpillFile> bucketToKeys = new TreeMap<>();
+    private final EvictingTraverser evictingTraverser = new EvictingTraverser();
+
+    private long memtableBytes;
+    private int nextSegmentId;
+    private MergingIterator entriesIterator;
+
+    private DiskKeyedStateBackend(Path directory, Processor.Context context, long ttl, int cacheSize) {
+        this.directory = directory;
+        this.context = context;
+        this.serializationService = ((InternalProcSupplierCtx) context).serializationService();
+        this.ttl = ttl;
+        this.bucketWidth = Math.max(1, ttl / EVICTION_BUCKETS_PER_TTL);
+        this.cache = new LinkedHashMap<>(HASH_MAP_INITIAL_CAPACITY, HASH_MAP_LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Entry<K, TimestampedItem<S>> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                writeToMemtable(serializationService.toData(eldest.getKey()),
+                        serializationService.toBytes(eldest.getValue()));
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Creates a backend for the given processor, storing its files in a new
+     * subdirectory of the given directory.
+     *
+     * @param ttl the time-to-live of the keys, {@link Long#MAX_VALUE} if the
+     *      keys never expire
+     * @param cacheSize the number of states cached on the heap, at least 1
+     */
+    @Nonnull
+    public static <K, S> DiskKeyedStateBackend<K, S> create(
+            @Nonnull Path directory,
+            @Nonnull Processor.Context context,
+            long ttl,
+            int cacheSize
+    ) {
+        try {
+            Files.createDirectories(directory);
+            Path processorDirectory = Files.createTempDirectory(directory,
+                    "jet-state-" + context.vertexName().replaceAll("\\W", "_") + '-');
+            return new DiskKeyedStateBackend<>(processorDirectory, context, ttl, Math.max(cacheSize, 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a state directory in " + directory, e);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public TimestampedItem<S> getOrCreate(
+            @Nonnull K key,
+            long timestamp,
+            @Nonnull Function<? super K, ? extends TimestampedItem<S>> createFn
+    ) {
+        TimestampedItem<S> state = cache.get(key);
+        if (state == null) {
+            state = load(key);
+            if (state == null) {
+                state = createFn.apply(key);
+            }
+            cache.put(key, state);
+        }
+        long oldTimestamp = state.timestamp();
+        if (timestamp > oldTimestamp) {
+            state.setTimestamp(timestamp);
+            if (oldTimestamp == Long.MIN_VALUE || bucket(oldTimestamp) != bucket(timestamp)) {
+                scheduleEviction(key, timestamp);
+            }
+        }
+        return state;
+    }
+
+    @Nullable
+    @Override
+    public TimestampedItem<S> get(@Nonnull K key) {
+        TimestampedItem<S> state = cache.get(key);
+        return state != null ? state : load(key);
+    }
+
+    @Nullable
+    @Override
+    public TimestampedItem<S> put(@Nonnull K key, @Nonnull TimestampedItem<S> state) {
+        TimestampedItem<S> oldState = cache.get(key);
+        if (oldState == null) {
+            oldState = load(key);
+        }
+        cache.put(key, state);
+        scheduleEviction(key, state.timestamp());
+        return oldState;
+    }
+
+    @Override
+    public void remove(@Nonnull K key) {
+        cache.remove(key);
+        writeToMemtable(serializationService.toData(key), DELETED);
+    }
+
+    @Nonnull
+    @Override
+    public Traverser<Entry<K, TimestampedItem<S>>> evict(long threshold) {
+        evictingTraverser.threshold = threshold;
+        return evictingTraverser;
+    }
+
+    @Nonnull
+    @Override
+    public Traverser<Entry<K, TimestampedItem<S>>> entries() {
+        for (Entry<K, TimestampedItem<S>> entry : cache.entrySet()) {
+            writeToMemtable(serializationService.toData(entry.getKey()), serializationService.toBytes(entry.getValue()));
+        }
+        flushMemtable();
+        entriesIterator = new MergingIterator(segments, true);
+        return Traversers.traverseIterator(entriesIterator)
+                         .map(record -> entry(
+                                 serializationService.<K>toObject(new HeapData(record.key)),
+                                 serializationService.<TimestampedItem<S>>toObject(new HeapData(record.value))))
+                         .onFirstNull(() -> entriesIterator = null);
+    }
+
+    @Override
+    public boolean closeIsCooperative() {
+        return false;
+    }
+
+    @Override
+    public void close() {
+        if (entriesIterator != null) {
+            entriesIterator.close();
+            entriesIterator = null;
+        }
+        evictingTraverser.close();
+        bucketToKeys.values().forEach(SpillFile::delete);
+        bucketToKeys.clear();
+        segments.forEach(StateSegment::delete);
+        segments.clear();
+        cache.clear();
+        memtable.clear();
+        deleteQuietly(directory.toFile());
+    }
+
+    /**
+     * Returns the state of the key stored in the memtable or in the segments,
+     * or null if there's none.
+     */
+    @Nullable
+    private TimestampedItem<S> load(K key) {
+        Data keyData = serializationService.toData(key);
+        byte[] value = memtable.get(keyData);
+        if (value == null) {
+            byte[] keyBytes = keyData.toByteArray();
+            for (int i = segments.size() - 1; i >= 0 && value == null; i--) {
+                value = segments.get(i).find(keyData.hashCode(), keyBytes);
+            }
+        }
+        return value == null || value == DELETED ? null : serializationService.toObject(new HeapData(value));
+    }
+
+    private void writeToMemtable(Data key, byte[] value) {
+        byte[] oldValue = memtable.put(key, value);
+        memtableBytes += oldValue != null ? value.length - oldValue.length : key.totalSize() + value.length;
+        if (memtableBytes >= MEMTABLE_MAX_BYTES) {
+            flushMemtable();
+        }
+    }
+
+    private void flushMemtable() {
+        if (memtable.isEmpty()) {
+            return;
+        }
+        List<Record> records = new ArrayList<>(memtable.size());
+        for (Entry<Data, byte[]> entry : memtable.entrySet()) {
+            records.add(new Record(entry.getKey().hashCode(), entry.getKey().toByteArray(), entry.getValue()));
+        }
+        records.sort(null);
+        segments.add(StateSegment.write(nextSegmentPath(), records.iterator(), records.size()));
+        memtable.clear();
+        memtableBytes = 0;
+        compact();
+    }
+
+    /**
+     * Merges the newest segment with the previous one while it isn't much
+     * smaller. The records of removed keys are dropped when merging into the
+     * oldest segment.
+     */
+    private void compact() {
+        while (segments.size() >= 2) {
+            int last = segments.size() - 1;
+            StateSegment older = segments.get(last - 1);
+            StateSegment newer = segments.get(last);
+            if (older.length() > COMPACTION_RATIO * newer.length()) {
+                return;
+            }
+            List<StateSegment> merged = segments.subList(last - 1, last + 1);
+            MergingIterator records = new MergingIterator(merged, segments.size() == 2);
+            StateSegment result = StateSegment.write(nextSegmentPath(), records, older.count() + newer.count());
+            merged.forEach(StateSegment::delete);
+            merged.clear();
+            segments.add(result);
+        }
+    }
+
+    private Path nextSegmentPath() {
+        return directory.resolve("segment-" + nextSegmentId++ + ".bin");
+    }
+
+    private long bucket(long timestamp) {
+        return Math.floorDiv(timestamp, bucketWidth);
+    }
+
+    private void scheduleEviction(K key, long timestamp) {
+        if (ttl == Long.MAX_VALUE) {
+            return;
+        }
+        bucketToKeys.computeIfAbsent(bucket(timestamp), b -> SpillFile.create(directory, context))
+                    .write(key);
+    }
+
+    /**
+     * Reads the keys from the files of the buckets in which all timestamps
+     * are expired and removes the keys that weren't accessed since.
+     */
+    private final class EvictingTraverser implements Traverser<Entry<K, TimestampedItem<S>>> {
+        private long threshold;
+        private SpillFile bucketFile;
+        private Traverser<K> bucketKeys;
+
+        @Override
+        public Entry<K, TimestampedItem<S>> next() {
+            for (;;) {
+                if (bucketKeys == null && !nextExpiredBucket()) {
+                    return null;
+                }
+                K key = bucketKeys.next();
+                if (key == null) {
+                    bucketFile = null;
+                    bucketKeys = null;
+                    continue;
+                }
+                TimestampedItem<S> state = cache.get(key);
+                if (state == null) {
+                    state = load(key);
+                }
+                if (state != null && state.timestamp() < threshold) {
+                    remove(key);
+                    return entry(key, state);
+                }
+            }
+        }
+
+        private boolean nextExpiredBucket() {
+            Entry<Long, SpillFile> first = bucketToKeys.firstEntry();
+            // all the timestamps in a bucket are expired if the next bucket starts at or before the threshold
+            if (first == null || first.getKey() >= bucket(threshold)) {
+                return false;
+            }
+            bucketToKeys.pollFirstEntry();
+            bucketFile = first.getValue();
+            bucketFile.finishWriting();
+            bucketKeys = bucketFile.reader();
+            return true;
+        }
+
+        void close() {
+            if (bucketFile != null) {
+                bucketFile.delete();
+            }
+            bucketFile = null;
+            bucketKeys = null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.datamodel.TimestampedItem;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+/**
+ * A {@link KeyedStateBackend} that keeps the states in a {@link
+ * LinkedHashMap} on the heap. The map is in access order, the eviction
+ * stops at the first key that isn't expired.
+ */
+public final class HeapKeyedStateBackend<K, S> implements KeyedStateBackend<K, S> {
+
+    private static final int HASH_MAP_INITIAL_CAPACITY = 16;
+    private static final float HASH_MAP_LOAD_FACTOR = 0.75f;
+
+    private final Map<K, TimestampedItem<S>> keyToState =
+            new LinkedHashMap<>(HASH_MAP_INITIAL_CAPACITY, HASH_MAP_LOAD_FACTOR, true);
+    private final EvictingTraverser evictingTraverser = new EvictingTraverser();
+    private final long maxEntries;
+
+    public HeapKeyedStateBackend(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Nonnull
+    @Override
+    public TimestampedItem<S> getOrCreate(
+            @Nonnull K key,
+            long timestamp,
+            @Nonnull Function<? super K, ? extends TimestampedItem<S>> createFn
+    ) {
+        TimestampedItem<S> state = keyToState.computeIfAbsent(key, k -> {
+            if (keyToState.size() == maxEntries) {
+                throw new AccumulationLimitExceededException();
+            }
+            return createFn.apply(k);
+        });
+        if (timestamp > state.timestamp()) {
+            state.setTimestamp(timestamp);
+        }
+        return state;
+    }
+
+    @Nullable
+    @Override
+    public TimestampedItem<S> get(@Nonnull K key) {
+        return keyToState.get(key);
+    }
+
+    @Nullable
+    @Override
+    public TimestampedItem<S> put(@Nonnull K key, @Nonnull TimestampedItem<S> state) {
+        return keyToState.put(key, state);
+    }
+
+    @Override
+    public void remove(@Nonnull K key) {
+        keyToState.remove(key);
+    }
+
+    @Nonnull
+    @Override
+    public Traverser<Entry<K, TimestampedItem<S>>> evict(long threshold) {
+        evictingTraverser.reset(threshold);
+        return evictingTraverser;
+    }
+
+    @Nonnull
+    @Override
+    public Traverser<Entry<K, TimestampedItem<S>>> entries() {
+        return Traversers.traverseIterable(keyToState.entrySet());
+    }
+
+    @Override
+    public boolean closeIsCooperative() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        keyToState.clear();
+    }
+
+    private class EvictingTraverser implements Traverser<Entry<K, TimestampedItem<S>>> {
+        private Iterator<Entry<K, TimestampedItem<S>>> keyToStateIterator;
+        private long threshold;
+
+        void reset(long threshold) {
+            this.threshold = threshold;
+            keyToStateIterator = keyToState.entrySet().iterator();
+        }
+
+        @Override
+        public Entry<K, TimestampedItem<S>> next() {
+            if (keyToStateIterator == null) {
+                return null;
+            }
+            if (keyToStateIterator.hasNext()) {
+                Entry<K, TimestampedItem<S>> entry = keyToStateIterator.next();
+                if (entry.getValue().timestamp() < threshold) {
+                    keyToStateIterator.remove();
+                    return entry;
+                }
+            }
+            keyToStateIterator = null;
+            return null;
+        }
+    }
+}
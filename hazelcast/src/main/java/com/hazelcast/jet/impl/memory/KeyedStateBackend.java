@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.datamodel.TimestampedItem;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Paths;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+/**
+ * Storage for the per-key state of a stateful streaming processor. The state
+ * of each key is a {@link TimestampedItem} with the event time at which the
+ * key was last accessed, the backend uses it to evict the keys that weren't
+ * accessed for a time-to-live.
+ * <p>
+ * The caller can mutate a state it got from the backend until its next call
+ * to the backend, the mutation is then stored with the state.
+ *
+ * @param <K> the type of the key
+ * @param <S> the type of the state
+ *
+ * @see JobConfigArguments#KEY_STATE_DIRECTORY
+ */
+public interface KeyedStateBackend<K, S> {
+
+    /**
+     * Returns the state of the given key, creating it using the {@code
+     * createFn} if it doesn't exist. Sets the timestamp of the state to the
+     * given timestamp, if it's greater.
+     *
+     * @throws AccumulationLimitExceededException if the state is created and
+     *      the backend is full
+     */
+    @Nonnull
+    TimestampedItem<S> getOrCreate(
+            @Nonnull K key,
+            long timestamp,
+            @Nonnull Function<? super K, ? extends TimestampedItem<S>> createFn
+    );
+
+    /**
+     * Returns the state of the given key, or {@code null} if it doesn't
+     * exist. Used when saving a snapshot, the timestamp of the state isn't
+     * updated.
+     */
+    @Nullable
+    TimestampedItem<S> get(@Nonnull K key);
+
+    /**
+     * Sets the state of the given key, used when restoring from a snapshot.
+     *
+     * @return the previous state, or {@code null} if there was none
+     */
+    @Nullable
+    TimestampedItem<S> put(@Nonnull K key, @Nonnull TimestampedItem<S> state);
+
+    /**
+     * Removes the state of the given key, if it exists.
+     */
+    void remove(@Nonnull K key);
+
+    /**
+     * Returns a traverser that removes and returns the states with a timestamp
+     * less than the given threshold. The traverser must be exhausted before
+     * the backend is used for anything else.
+     * <p>
+     * The backend can return only some of the expired states, the rest will
+     * be returned by a later call with a higher threshold.
+     */
+    @Nonnull
+    Traverser<Entry<K, TimestampedItem<S>>> evict(long threshold);
+
+    /**
+     * Returns a traverser over all the states, used when saving to a snapshot.
+     * The backend must not be modified until the traverser is exhausted.
+     */
+    @Nonnull
+    Traverser<Entry<K, TimestampedItem<S>>> entries();
+
+    /**
+     * Returns true if {@link #close()} doesn't block.
+     */
+    boolean closeIsCooperative();
+
+    /**
+     * Releases the resources held by the backend and discards the states.
+     */
+    void close();
+
+    /**
+     * Creates the backend configured for the job of the given processor: a
+     * {@link DiskKeyedStateBackend} if the {@link
+     * JobConfigArguments#KEY_STATE_DIRECTORY} is set, otherwise a {@link
+     * HeapKeyedStateBackend}.
+     *
+     * @param ttl the time-to-live of the keys, {@link Long#MAX_VALUE} if the
+     *      keys never expire
+     */
+    @Nonnull
+    static <K, S> KeyedStateBackend<K, S> create(@Nonnull Processor.Context context, long ttl) {
+        String directory = context.jobConfig().getArgument(JobConfigArguments.KEY_STATE_DIRECTORY);
+        if (directory == null) {
+            return new HeapKeyedStateBackend<>(context.maxProcessorAccumulatedRecords());
+        }
+        Integer cacheSize = context.jobConfig().getArgument(JobConfigArguments.KEY_STATE_CACHE_SIZE);
+        return DiskKeyedStateBackend.create(Paths.get(directory), context, ttl,
+                cacheSize != null ? cacheSize : DiskKeyedStateBackend.DEFAULT_CACHE_SIZE);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.JobConfigArguments;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
+import com.hazelcast.jet.impl.execution.init.Contexts.InternalProcSupplierCtx;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+
+/**
+ * A temporary file into which a processor spills a sequence of items when
+ * its in-memory state reaches the accumulation limit. The items are written
+ * once, in order, and then read back once, in the same order.
+ * <p>
+ * The file is buffered, so writing and reading an item touches the disk only
+ * once per buffer. It's deleted after all items are read, or by {@link
+ * #delete()} if the processor is closed earlier.
+ *
+ * @see JobConfigArguments#KEY_SPILL_DIRECTORY
+ */
+public final class SpillFile {
+
+    /**
+     * Maximum number of spill files merged at the same time. Each file being
+     * read holds a buffer, so if a processor has more files, it first merges
+     * groups of them into longer files.
+     */
+    public static final int MAX_MERGED_FILES = 64;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final InternalSerializationService serializationService;
+    private DataOutputStream out;
+    private DataInputStream in;
+
+    private SpillFile(Path path, InternalSerializationService serializationService) throws IOException {
+        this.path = path;
+        this.serializationService = serializationService;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+    }
+
+    /**
+     * Returns the directory configured by {@link JobConfigArguments#KEY_SPILL_DIRECTORY}
+     * for the job, or {@code null} if spilling is not enabled.
+     */
+    @Nullable
+    public static Path spillDirectory(@Nonnull ProcessorMetaSupplier.Context context) {
+        String directory = context.jobConfig().getArgument(JobConfigArguments.KEY_SPILL_DIRECTORY);
+        return directory == null ? null : Paths.get(directory);
+    }
+
+    /**
+     * Creates a new empty spill file in the given directory.
+     */
+    @Nonnull
+    public static SpillFile create(@Nonnull Path directory, @Nonnull Processor.Context context) {
+        try {
+            Files.createDirectories(directory);
+            Path path = Files.createTempFile(directory, "jet-spill-" + context.vertexName().replaceAll("\\W", "_") + '-',
+                    ".bin");
+            return new SpillFile(path, ((InternalProcSupplierCtx) context).serializationService());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create a spill file in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends the item to the file.
+     */
+    public void write(@Nonnull Object item) {
+        byte[] bytes = serializationService.toBytes(item);
+        try {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to " + path, e);
+        }
+    }
+
+    /**
+     * Flushes and closes the file for writing. After this call the items can
+     * be read using {@link #reader()}.
+     */
+    public void finishWriting() {
+        try {
+            out.close();
+            out = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to " + path, e);
+        }
+    }
+
+    /**
+     * Returns a traverser over the written items. The file is deleted when
+     * the traverser is exhausted. Must be called at most once, after {@link
+     * #finishWriting()}.
+     */
+    @Nonnull
+    public <T> Traverser<T> reader() {
+        assert out == null : "writing not finished";
+        try {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+        return this::readNext;
+    }
+
+    private <T> T readNext() {
+        if (in == null) {
+            return null;
+        }
+        try {
+            int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                delete();
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return serializationService.toObject(new HeapData(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    /**
+     * Closes the file and deletes it from the disk.
+     */
+    public void delete() {
+        closeResource(out);
+        closeResource(in);
+        out = null;
+        in = null;
+        deleteQuietly(path.toFile());
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.memory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+
+/**
+ * An immutable file with the serialized states of a {@link
+ * DiskKeyedStateBackend}, sorted by the hash code of the serialized key and
+ * then by the key's bytes. A file never contains the same key twice, but
+ * the key can be in several files, the one written last is valid.
+ * <p>
+ * Each record is the hash code, the key's length and bytes, and the value's
+ * length and bytes, or a length of {@code -1} if the key was removed. The
+ * file is indexed by the hash code of every {@value #INDEX_INTERVAL}th
+ * record, and has a Bloom filter of the hash codes, both kept in memory, so
+ * that a lookup reads at most a few records, and usually none for a key
+ * that isn't in the file.
+ */
+final class StateSegment {
+
+    /**
+     * The value of a removed key.
+     */
+    static final byte[] DELETED = new byte[0];
+
+    private static final int INDEX_INTERVAL = 32;
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    private static final int BLOOM_HASH_FUNCTIONS = 7;
+    private static final int BLOOM_SECOND_HASH_MULTIPLIER = 0x9E3779B9;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_BLOCK_BUFFER_SIZE = 4 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long length;
+    private final int count;
+    private final int[] indexHashes;
+    private final long[] indexOffsets;
+    private final long[] bloomFilter;
+    private ByteBuffer blockBuffer = ByteBuffer.allocate(INITIAL_BLOCK_BUFFER_SIZE);
+
+    private StateSegment(Path path, long length, int count, int[] indexHashes, long[] indexOffsets, long[] bloomFilter)
+            throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.length = length;
+        this.count = count;
+        this.indexHashes = indexHashes;
+        this.indexOffsets = indexOffsets;
+        this.bloomFilter = bloomFilter;
+    }
+
+    /**
+     * Writes the records to a new file at the given path. The records must
+     * be sorted and must not contain the same key twice.
+     *
+     * @param maxCount the maximum number of records, used to size the Bloom
+     *      filter
+     */
+    @Nonnull
+    static StateSegment write(@Nonnull Path path, @Nonnull Iterator<Record> records, int maxCount) {
+        long[] bloomFilter = new long[(int) ((long) maxCount * BLOOM_BITS_PER_KEY / Long.SIZE) + 1];
+        int[] indexHashes = new int[maxCount / INDEX_INTERVAL + 1];
+        long[] indexOffsets = new long[indexHashes.length];
+        long offset = 0;
+        int count = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE_NEW), BUFFER_SIZE))) {
+            while (records.hasNext()) {
+                Record record = records.next();
+                if (count % INDEX_INTERVAL == 0) {
+                    indexHashes[count / INDEX_INTERVAL] = record.hash;
+                    indexOffsets[count / INDEX_INTERVAL] = offset;
+                }
+                addToBloomFilter(bloomFilter, record.hash);
+                out.writeInt(record.hash);
+                out.writeInt(record.key.length);
+                out.write(record.key);
+                if (record.value == DELETED) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(record.value.length);
+                    out.write(record.value);
+                }
+                offset += record.sizeInFile();
+                count++;
+            }
+        } catch (IOException e) {
+            deleteQuietly(path.toFile());
+            throw new UncheckedIOException("Could not write " + path, e);
+        }
+        assert count <= maxCount : "count=" + count + ", maxCount=" + maxCount;
+        int indexSize = (count + INDEX_INTERVAL - 1) / INDEX_INTERVAL;
+        try {
+            return new StateSegment(path, offset, count,
+                    Arrays.copyOf(indexHashes, indexSize), Arrays.copyOf(indexOffsets, indexSize), bloomFilter);
+        } catch (IOException e) {
+            deleteQuietly(path.toFile());
+            throw new UncheckedIOException("Could not open " + path, e);
+        }
+    }
+
+    /**
+     * Returns the value of the given key, {@link #DELETED} if the key was
+     * removed, or {@code null} if the file doesn't contain the key.
+     */
+    @Nullable
+    byte[] find(int hash, @Nonnull byte[] key) {
+        if (!mightContain(bloomFilter, hash)) {
+            return null;
+        }
+        try {
+            // the records with the hash start in the block after the last index entry with a lower hash
+            for (int block = Math.max(0, lowerIndexEntry(hash)); block < indexOffsets.length; block++) {
+                ByteBuffer buffer = readBlock(block);
+                while (buffer.hasRemaining()) {
+                    int recordHash = buffer.getInt();
+                    if (recordHash > hash) {
+                        return null;
+                    }
+                    int keyLength = buffer.getInt();
+                    boolean found = recordHash == hash && keyEquals(buffer, key, keyLength);
+                    buffer.position(buffer.position() + keyLength);
+                    int valueLength = buffer.getInt();
+                    if (found) {
+                        if (valueLength < 0) {
+                            return DELETED;
+                        }
+                        byte[] value = new byte[valueLength];
+                        buffer.get(value);
+                        return value;
+                    }
+                    buffer.position(buffer.position() + Math.max(valueLength, 0));
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    /**
+     * Returns the position of the last index entry with a hash lower than
+     * the given one, or -1 if there's none.
+     */
+    private int lowerIndexEntry(int hash) {
+        int low = 0;
+        int high = indexHashes.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexHashes[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private ByteBuffer readBlock(int block) throws IOException {
+        long start = indexOffsets[block];
+        long end = block + 1 < indexOffsets.length ? indexOffsets[block + 1] : length;
+        int size = (int) (end - start);
+        if (blockBuffer.capacity() < size) {
+            blockBuffer = ByteBuffer.allocate(Math.max(size, 2 * blockBuffer.capacity()));
+        }
+        blockBuffer.clear().limit(size);
+        while (blockBuffer.hasRemaining()) {
+            if (channel.read(blockBuffer, start + blockBuffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + path);
+            }
+        }
+        return blockBuffer.flip();
+    }
+
+    private static boolean keyEquals(ByteBuffer buffer, byte[] key, int keyLength) {
+        if (keyLength != key.length) {
+            return false;
+        }
+        int position = buffer.position();
+        for (int i = 0; i < keyLength; i++) {
+            if (buffer.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addToBloomFilter(long[] bloomFilter, int hash) {
+        long numBits = (long) bloomFilter.length * Long.SIZE;
+        int secondHash = hash * BLOOM_SECOND_HASH_MULTIPLIER | 1;
+        for (int i = 0; i < BLOOM_HASH_FUNCTIONS; i++) {
+            long bit = Math.floorMod(hash + (long) i * secondHash, numBits);
+            bloomFilter[(int) (bit / Long.SIZE)] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] bloomFilter, int hash) {
+        long numBits = (long) bloomFilter.length * Long.SIZE;
+        int secondHash = hash * BLOOM_SECOND_HASH_MULTIPLIER | 1;
+        for (int i = 0; i < BLOOM_HASH_FUNCTIONS; i++) {
+            long bit = Math.floorMod(hash + (long) i * secondHash, numBits);
+            if ((bloomFilter[(int) (bit / Long.SIZE)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of records in the file.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the size of the file in bytes.
+     */
+    long length() {
+        return length;
+    }
+
+    /**
+     * Returns an iterator that reads the records in order. The iterator closes
+     * the file it opened when it's exhausted, or when it's {@linkplain
+     * Cursor#close() closed}.
+     */
+    @Nonnull
+    Cursor cursor() {
+        try {
+            return new Cursor(new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+
+    /**
+     * Closes the file and deletes it from the disk.
+     */
+    void delete() {
+        closeResource(channel);
+        deleteQuietly(path.toFile());
+    }
+
+    /**
+     * A key, its hash code and its value, all serialized.
+     */
+    static final class Record implements Comparable<Record> {
+        final int hash;
+        final byte[] key;
+        final byte[] value;
+
+        Record(int hash, @Nonnull byte[] key, @Nonnull byte[] value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        long sizeInFile() {
+            return 3 * Integer.BYTES + key.length + value.length;
+        }
+
+        @Override
+        public int compareTo(@Nonnull Record other) {
+            int result = Integer.compare(hash, other.hash);
+            return result != 0 ? result : Arrays.compare(key, other.key);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Record && compareTo((Record) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Reads the records of a file in order.
+     */
+    final class Cursor implements Iterator<Record> {
+        private DataInputStream in;
+        private int remaining = count;
+
+        private Cursor(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (remaining == 0) {
+                close();
+            }
+            return remaining > 0;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                int hash = in.readInt();
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                int valueLength = in.readInt();
+                byte[] value = DELETED;
+                if (valueLength >= 0) {
+                    value = new byte[valueLength];
+                    in.readFully(value);
+                }
+                remaining--;
+                return new Record(hash, key, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read " + path, e);
+            }
+        }
+
+        void close() {
+            closeResource(in);
+            in = null;
+            remaining = 0;
+        }
+    }
+
+    /**
+     * Merges the records of several files into a single sorted sequence. If
+     * a key is in more files, only the record from the file written last is
+     * returned.
+     */
+    static final class MergingIterator implements Iterator<Record> {
+        private final PriorityQueue<Head> heads = new PriorityQueue<>();
+        private final boolean skipDeleted;
+        private Record next;
+
+        /**
+         * @param segments the files, in the order they were written
+         * @param skipDeleted if true, the records of removed keys are skipped
+         */
+        MergingIterator(@Nonnull List<StateSegment> segments, boolean skipDeleted) {
+            this.skipDeleted = skipDeleted;
+            for (int i = 0; i < segments.size(); i++) {
+                Head head = new Head(segments.get(i).cursor(), i);
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !heads.isEmpty()) {
+                Head head = heads.poll();
+                Record record = head.record;
+                // the older records of the same key follow the newest one, skip them
+                while (!heads.isEmpty() && heads.peek().record.compareTo(record) == 0) {
+                    Head older = heads.poll();
+                    if (older.advance()) {
+                        heads.add(older);
+                    }
+                }
+                if (head.advance()) {
+                    heads.add(head);
+                }
+                if (!skipDeleted || record.value != DELETED) {
+                    next = record;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Record next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Record result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Closes the files that weren't read to the end.
+         */
+        void close() {
+            heads.forEach(head -> head.cursor.close());
+            heads.clear();
+        }
+
+        private static final class Head implements Comparable<Head> {
+            final Cursor cursor;
+            final int age;
+            Record record;
+
+            Head(Cursor cursor, int age) {
+                this.cursor = cursor;
+                this.age = age;
+            }
+
+            boolean advance() {
+                record = cursor.hasNext() ? cursor.next() : null;
+                return record != null;
+            }
+
+            @Override
+            public int compareTo(@Nonnull Head other) {
+                int result = record.compareTo(other.record);
+                // newer files first
+                return result != 0 ? result : Integer.compare(other.age, age);
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof Head && compareTo((Head) obj) == 0;
+            }
+
+            @Override
+            public int hashCode() {
+                return record.hashCode();
+            }
+        }
+    }
+}
@@ -16,12 +16,14 @@
 
 package com.hazelcast.jet.impl.operation;
 
+import com.hazelcast.internal.cluster.Versions;
 import com.hazelcast.jet.impl.JetServiceBackend;
 import com.hazelcast.jet.impl.execution.ExecutionContext;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.impl.Versioned;
 
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
@@ -130,19 +132,28 @@ public class SnapshotPhase1Operation extends AsyncJobOperation {
      * The result of {@link SnapshotPhase1Operation} with snapshot statistics
      * and error.
      */
-    public static final class SnapshotPhase1Result implements IdentifiedDataSerializable {
+    public static final class SnapshotPhase1Result implements IdentifiedDataSerializable, Versioned {
         private long numBytes;
         private long numKeys;
         private long numChunks;
+        private long numIncrementalBytes;
+        private long numIncrementalChunks;
         private String error;
 
         public SnapshotPhase1Result() {
         }
 
         public SnapshotPhase1Result(long numBytes, long numKeys, long numChunks, Throwable error) {
+            this(numBytes, numKeys, numChunks, 0, 0, error);
+        }
+
+        public SnapshotPhase1Result(long numBytes, long numKeys, long numChunks, long numIncrementalBytes,
+                                    long numIncrementalChunks, Throwable error) {
             this.numBytes = numBytes;
             this.numKeys = numKeys;
             this.numChunks = numChunks;
+            this.numIncrementalBytes = numIncrementalBytes;
+            this.numIncrementalChunks = numIncrementalChunks;
             this.error = error == null ? null : requireNonNull(error.toString());
         }
 
@@ -158,6 +169,24 @@ public class SnapshotPhase1Operation extends AsyncJobOperation {
             return numChunks;
         }
 
+        /**
+         * Returns the number of bytes in the chunks of the vertices which
+         * write only the changed state to incremental snapshots. It's included
+         * in {@link #getNumBytes()}.
+         */
+        public long getNumIncrementalBytes() {
+            return numIncrementalBytes;
+        }
+
+        /**
+         * Returns the number of the chunks of the vertices which write only
+         * the changed state to incremental snapshots. It's included in {@link
+         * #getNumChunks()}.
+         */
+        public long getNumIncrementalChunks() {
+            return numIncrementalChunks;
+        }
+
         public String getError() {
             return error;
         }
@@ -171,6 +200,8 @@ public class SnapshotPhase1Operation extends AsyncJobOperation {
             numBytes += other.numBytes;
             numKeys += other.numKeys;
             numChunks += other.numChunks;
+            numIncrementalBytes += other.numIncrementalBytes;
+            numIncrementalChunks += other.numIncrementalChunks;
             if (error == null) {
                 error = other.error;
             }
@@ -182,6 +213,8 @@ public class SnapshotPhase1Operation extends AsyncJobOperation {
                     "numBytes=" + numBytes +
                     ", numKeys=" + numKeys +
                     ", numChunks=" + numChunks +
+                    ", numIncrementalBytes=" + numIncrementalBytes +
+                    ", numIncrementalChunks=" + numIncrementalChunks +
                     ", error=" + error +
                     '}';
         }
@@ -202,6 +235,11 @@ public class SnapshotPhase1Operation extends AsyncJobOperation {
             out.writeLong(numKeys);
             out.writeLong(numChunks);
             out.writeString(error);
+            // RU_COMPAT_5_3
+            if (out.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+                out.writeLong(numIncrementalBytes);
+                out.writeLong(numIncrementalChunks);
+            }
         }
 
         @Override
@@ -210,6 +248,11 @@ public class SnapshotPhase1Operation extends AsyncJobOperation {
             numKeys = in.readLong();
             numChunks = in.readLong();
             error = in.readString();
+            // RU_COMPAT_5_3
+            if (in.getVersion().isGreaterOrEqual(Versions.V5_4)) {
+                numIncrementalBytes = in.readLong();
+                numIncrementalChunks = in.readLong();
+            }
         }
     }
 }
@@ -17,23 +17,35 @@
 package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.function.FunctionEx;
+import com.hazelcast.function.SupplierEx;
 import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.processor.SpillingSupplier.SpillingProcessor;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import static com.hazelcast.internal.util.Preconditions.checkTrue;
+import static com.hazelcast.jet.Util.entry;
 import static java.util.Collections.singletonList;
 
 /**
@@ -41,16 +53,30 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If the processor is created through {@link #supplier}, {@linkplain
+ * com.hazelcast.jet.config.JobConfigArguments#KEY_SPILL_DIRECTORY spilling}
+ * is enabled and the aggregate operation has a combine function, the
+ * accumulators are written to a {@link SpillFile} sorted by the hash code of
+ * their key when the accumulation limit is reached. In {@link #complete()}
+ * the runs are merged by hash code and the accumulators of equal keys are
+ * combined. Such a processor is non-cooperative.
  */
-public class GroupP<K, A, R, OUT> extends AbstractProcessor {
+public class GroupP<K, A, R, OUT> extends AbstractProcessor implements SpillingProcessor {
 
     protected final Map<K, A> keyToAcc = new HashMap<>();
 
+    // for testing purposes only
+    int maxMergedFiles = SpillFile.MAX_MERGED_FILES;
+
     private final List<FunctionEx<?, ? extends K>> groupKeyFns;
     private final AggregateOperation<A, R> aggrOp;
     private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
+    private final List<SpillFile> runs = new ArrayList<>();
 
     private long maxEntries;
+    private Processor.Context context;
+    private Path spillDirectory;
     private Traverser<OUT> resultTraverser;
 
     public GroupP(
@@ -73,8 +99,31 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
         this(singletonList(groupKeyFn), aggrOp, mapToOutputFn);
     }
 
+    /**
+     * Returns a supplier of the processors created by the given supplier,
+     * which must create {@code GroupP} instances. If the job enables
+     * spilling, the processors whose aggregate operation has a combine
+     * function are made non-cooperative. Processors not created through this
+     * supplier never spill.
+     */
+    @Nonnull
+    public static ProcessorSupplier supplier(@Nonnull SupplierEx<Processor> simpleSupplier) {
+        return new SpillingSupplier(simpleSupplier);
+    }
+
+    @Override
+    public void setSpillDirectory(@Nullable Path spillDirectory) {
+        this.spillDirectory = aggrOp.combineFn() != null ? spillDirectory : null;
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return spillDirectory == null;
+    }
+
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
+        this.context = context;
         maxEntries = context.maxProcessorAccumulatedRecords();
     }
 
@@ -83,32 +132,107 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
-        A acc = keyToAcc.computeIfAbsent(key, k -> {
+        A acc = keyToAcc.get(key);
+        if (acc == null) {
             if (keyToAcc.size() == maxEntries) {
-                throw new AccumulationLimitExceededException();
+                if (spillDirectory == null) {
+                    throw new AccumulationLimitExceededException();
+                }
+                writeRun(sortedByKeyHash(keyToAcc));
+                keyToAcc.clear();
             }
 
-            return aggrOp.createFn().get();
-        });
+            acc = aggrOp.createFn().get();
+            keyToAcc.put(key, acc);
+        }
         aggrOp.accumulateFn(ordinal).accept(acc, item);
         return true;
     }
 
+    /**
+     * Writes the entries, which must be sorted by the hash code of the key,
+     * to a new run.
+     */
+    private void writeRun(Traverser<Entry<K, A>> entries) {
+        SpillFile run = SpillFile.create(spillDirectory, context);
+        // added first, so that close() deletes it if writing fails
+        runs.add(run);
+        for (Entry<K, A> e; (e = entries.next()) != null; ) {
+            run.write(e.getKey());
+            run.write(e.getValue());
+        }
+        run.finishWriting();
+    }
+
     @Override
     public boolean complete() {
         if (resultTraverser == null) {
-            resultTraverser = new ResultTraverser()
+            Traverser<Entry<K, A>> accumulators;
+            if (runs.isEmpty()) {
+                accumulators = new ResultTraverser();
+            } else {
+                mergeRuns();
+                List<Traverser<Entry<K, A>>> sources = new ArrayList<>();
+                runs.forEach(run -> sources.add(readRun(run)));
+                sources.add(sortedByKeyHash(keyToAcc));
+                keyToAcc.clear();
+                accumulators = new MergingTraverser(sources);
+            }
+            resultTraverser = accumulators
                     // reuse null filtering done by map()
                     .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
         }
         return emitFromTraverser(resultTraverser);
     }
 
+    /**
+     * Merges groups of runs into longer runs, until there are at most {@link
+     * #maxMergedFiles} of them.
+     */
+    private void mergeRuns() {
+        while (runs.size() > maxMergedFiles) {
+            List<Traverser<Entry<K, A>>> sources = new ArrayList<>();
+            runs.subList(0, maxMergedFiles).forEach(run -> sources.add(readRun(run)));
+            writeRun(new MergingTraverser(sources));
+            // the merged runs were deleted when read to the end
+            runs.subList(0, maxMergedFiles).clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        runs.forEach(SpillFile::delete);
+    }
+
     @Override
     public boolean closeIsCooperative() {
         return true;
     }
 
+    @SuppressWarnings("unchecked")
+    private static <K, A> Traverser<Entry<K, A>> readRun(SpillFile run) {
+        Traverser<Object> reader = run.reader();
+        return () -> {
+            K key = (K) reader.next();
+            return key == null ? null : entry(key, (A) reader.next());
+        };
+    }
+
+    /**
+     * Returns a traverser over copies of the entries of the map, sorted by the
+     * hash code of the key. The map can be cleared after this call.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, A> Traverser<Entry<K, A>> sortedByKeyHash(Map<K, A> keyToAcc) {
+        Entry<K, A>[] entries = new Entry[keyToAcc.size()];
+        int i = 0;
+        for (Entry<K, A> e : keyToAcc.entrySet()) {
+            entries[i++] = entry(e.getKey(), e.getValue());
+        }
+        Arrays.sort(entries, Comparator.comparingInt(e -> e.getKey().hashCode()));
+        return Traversers.traverseArray(entries);
+    }
+
     private class ResultTraverser implements Traverser<Entry<K, A>> {
         private final Iterator<Entry<K, A>> iter = keyToAcc.entrySet().iterator();
 
@@ -124,4 +248,71 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
             }
         }
     }
+
+    /**
+     * Merges sequences of accumulators sorted by the hash code of the key,
+     * combining the accumulators of equal keys. The output is sorted by the
+     * hash code too.
+     */
+    private class MergingTraverser implements Traverser<Entry<K, A>> {
+        private final PriorityQueue<RunHead<K, A>> heads =
+                new PriorityQueue<>(Comparator.comparingInt(head -> head.entry.getKey().hashCode()));
+        private final List<Entry<K, A>> sameHash = new ArrayList<>();
+        private int sameHashPosition;
+
+        MergingTraverser(List<Traverser<Entry<K, A>>> sources) {
+            sources.forEach(this::addHead);
+        }
+
+        private void addHead(Traverser<Entry<K, A>> run) {
+            Entry<K, A> entry = run.next();
+            if (entry != null) {
+                heads.add(new RunHead<>(entry, run));
+            }
+        }
+
+        @Override
+        public Entry<K, A> next() {
+            if (sameHashPosition < sameHash.size()) {
+                return sameHash.set(sameHashPosition++, null);
+            }
+            sameHash.clear();
+            sameHashPosition = 0;
+            RunHead<K, A> head = heads.peek();
+            if (head == null) {
+                return null;
+            }
+
+            // Collect the accumulators of all keys with the lowest hash code. Distinct
+            // keys can share a hash code, so equal keys are found by equals().
+            int hash = head.entry.getKey().hashCode();
+            while (head != null && head.entry.getKey().hashCode() == hash) {
+                heads.poll();
+                combineWithEqualKey(head.entry);
+                addHead(head.run);
+                head = heads.peek();
+            }
+            return next();
+        }
+
+        private void combineWithEqualKey(Entry<K, A> entry) {
+            for (Entry<K, A> e : sameHash) {
+                if (e.getKey().equals(entry.getKey())) {
+                    aggrOp.combineFn().accept(e.getValue(), entry.getValue());
+                    return;
+                }
+            }
+            sameHash.add(entry);
+        }
+    }
+
+    private static final class RunHead<K, A> {
+        final Entry<K, A> entry;
+        final Traverser<Entry<K, A>> run;
+
+        RunHead(Entry<K, A> entry, Traverser<Entry<K, A>> run) {
+            this.entry = entry;
+            this.run = run;
+        }
+    }
 }
@@ -31,6 +31,7 @@ import com.hazelcast.jet.core.SlidingWindowPolicy;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.core.function.KeyedWindowResultFunction;
 import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.impl.execution.IncrementalSnapshotProcessor;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
 import com.hazelcast.nio.ObjectDataInput;
@@ -60,9 +61,11 @@ import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Traversers.traverseStream;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
+import static com.hazelcast.jet.impl.util.Util.fullSnapshotInterval;
 import static com.hazelcast.jet.impl.util.Util.logLateEvent;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
@@ -77,7 +80,7 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
  * @param <A> type of the frame accumulator object
  * @param <R> type of the finished result
  */
-public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
+public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor implements IncrementalSnapshotProcessor {
 
     // package-visible for testing
     final Long2ObjectHashMap<Map<K, A>> tsToKeyToAcc = new Long2ObjectHashMap<>();
@@ -127,6 +130,15 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     private Traverser<Object> flushTraverser;
     private Traverser<Entry> snapshotTraverser;
 
+    // Accumulators changed since the last automatic snapshot, by frame. It's null if
+    // incremental snapshots are disabled. Evicted frames aren't tracked, they're
+    // dropped based on nextWinToEmit when restoring.
+    private Long2ObjectHashMap<Map<K, A>> changedFrames;
+    // Changes saved to the ongoing snapshot, they're tracked again if it fails
+    private Long2ObjectHashMap<Map<K, A>> savedChangedFrames;
+    private boolean chainedSave;
+    private boolean incrementalSave;
+
     // Tracks the upper bound for the keyset of tsToKeyToAcc. Serves as an
     // optimization that avoids a full scan over the entire keyset.
     private long topTs = Long.MIN_VALUE;
@@ -186,6 +198,10 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         processingGuarantee = context.processingGuarantee();
         lastTimeEarlyResultsEmitted = NANOSECONDS.toMillis(System.nanoTime());
         maxEntries = context.maxProcessorAccumulatedRecords();
+        // only the last stage saves its state to the snapshot
+        if (isLastStage && fullSnapshotInterval(context.jobConfig()) > 1 && processingGuarantee != NONE) {
+            changedFrames = new Long2ObjectHashMap<>();
+        }
     }
 
     @Override
@@ -251,6 +267,9 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                 .computeIfAbsent(key, createAccFunction);
         aggrOp.accumulateFn(ordinal).accept(acc, item);
         topTs = max(topTs, frameTs);
+        if (changedFrames != null) {
+            changedFrames.computeIfAbsent(frameTs, x -> new HashMap<>()).put(key, acc);
+        }
         return true;
     }
 
@@ -268,13 +287,35 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         return flushBuffers();
     }
 
+    @Override
+    public void prepareSaveToSnapshot(boolean incremental) {
+        chainedSave = true;
+        incrementalSave = incremental;
+    }
+
     @Override
     public boolean saveToSnapshot() {
         if (!isLastStage || flushTraverser != null) {
-            return flushBuffers();
+            if (!flushBuffers()) {
+                return false;
+            }
+            Long2ObjectHashMap<Map<K, A>> changes = takeChangedFrames();
+            if (!isLastStage || changes == null) {
+                return true;
+            }
+            // All frames were flushed, we save no state. An incremental snapshot contains the
+            // nextWinToEmit after all the frames instead, to drop the frames saved to the
+            // previous snapshots when restoring.
+            snapshotTraverser = Traversers.<Entry>singleton(
+                            entry(broadcastKey(Keys.NEXT_WIN_TO_EMIT), topTs + winPolicy.windowSize()))
+                    .onFirstNull(() -> snapshotTraverser = null);
         }
         if (snapshotTraverser == null) {
-            snapshotTraverser = traverseIterable(tsToKeyToAcc.entrySet())
+            Long2ObjectHashMap<Map<K, A>> changes = takeChangedFrames();
+            Long2ObjectHashMap<Map<K, A>> frames = changes != null ? changes : tsToKeyToAcc;
+            snapshotTraverser = traverseIterable(frames.entrySet())
+                    // changes in the frames evicted since they were tracked aren't saved
+                    .filter(e -> frames == tsToKeyToAcc || tsToKeyToAcc.containsKey(e.getKey()))
                     .<Entry>flatMap(e -> traverseIterable(e.getValue().entrySet())
                             .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
                     )
@@ -287,6 +328,45 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         return emitFromTraverserToSnapshot(snapshotTraverser);
     }
 
+    /**
+     * Starts tracking the changes anew if this is an automatic snapshot.
+     * Returns the changes to save, if it is incremental, null otherwise.
+     */
+    @Nullable
+    private Long2ObjectHashMap<Map<K, A>> takeChangedFrames() {
+        Long2ObjectHashMap<Map<K, A>> changes = null;
+        if (chainedSave && changedFrames != null) {
+            if (savedChangedFrames != null) {
+                mergeSavedChangedFrames();
+            }
+            if (incrementalSave) {
+                changes = changedFrames;
+            }
+            savedChangedFrames = changedFrames;
+            changedFrames = new Long2ObjectHashMap<>();
+        }
+        chainedSave = false;
+        return changes;
+    }
+
+    @Override
+    public boolean snapshotCommitFinish(boolean success) {
+        if (savedChangedFrames != null) {
+            if (!success) {
+                mergeSavedChangedFrames();
+            }
+            savedChangedFrames = null;
+        }
+        return true;
+    }
+
+    private void mergeSavedChangedFrames() {
+        for (Entry<Long, Map<K, A>> frame : savedChangedFrames.entrySet()) {
+            Map<K, A> changedFrame = changedFrames.computeIfAbsent(frame.getKey(), x -> new HashMap<>());
+            frame.getValue().forEach(changedFrame::putIfAbsent);
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
@@ -320,6 +400,11 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         tsToKeyToAcc
                 .computeIfAbsent(higherFrameTs, createMapPerTsFunction)
                 .merge((K) k.key, (A) value, (o, n) -> {
+                    if (!badFrameRestored && changedFrames != null) {
+                        // with incremental snapshots, a later snapshot replaces the accumulator
+                        totalKeysInFrames.inc(-1);
+                        return n;
+                    }
                     if (!badFrameRestored) {
                         throw new JetException("Duplicate key in snapshot: " + k);
                     }
@@ -16,30 +16,76 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.function.SupplierEx;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.jet.impl.processor.SpillingSupplier.SpillingProcessor;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import java.util.PriorityQueue;
 
-public class SortP<T> extends AbstractProcessor {
+/**
+ * Batch processor that sorts all received items.
+ * <p>
+ * If the processor is created through {@link #supplier} and {@linkplain
+ * com.hazelcast.jet.config.JobConfigArguments#KEY_SPILL_DIRECTORY spilling}
+ * is enabled, the items accumulated so far are written as a sorted run to a
+ * {@link SpillFile} when the accumulation limit is reached, and the runs are
+ * merged in {@link #complete()}. Such a processor is non-cooperative.
+ */
+public class SortP<T> extends AbstractProcessor implements SpillingProcessor {
+
+    // for testing purposes only
+    int maxMergedFiles = SpillFile.MAX_MERGED_FILES;
 
+    private final Comparator<T> comparator;
     private final PriorityQueue<T> priorityQueue;
-    private final Traverser<T> resultTraverser;
+    private final List<SpillFile> runs = new ArrayList<>();
 
     private long maxItems;
+    private Processor.Context context;
+    private Path spillDirectory;
+    private Traverser<T> resultTraverser;
 
+    @SuppressWarnings("unchecked")
     public SortP(@Nullable Comparator<T> comparator) {
-        this.priorityQueue = new PriorityQueue<>(comparator);
-        this.resultTraverser = priorityQueue::poll;
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
+        this.priorityQueue = new PriorityQueue<>(this.comparator);
+    }
+
+    /**
+     * Returns a supplier of the processors created by the given supplier,
+     * which must create {@code SortP} instances. If the job enables
+     * spilling, the processors are made non-cooperative. Processors not
+     * created through this supplier never spill.
+     */
+    @Nonnull
+    public static ProcessorSupplier supplier(@Nonnull SupplierEx<Processor> simpleSupplier) {
+        return new SpillingSupplier(simpleSupplier);
+    }
+
+    @Override
+    public void setSpillDirectory(@Nullable Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return spillDirectory == null;
     }
 
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
+        this.context = context;
         maxItems = context.maxProcessorAccumulatedRecords();
     }
 
@@ -47,20 +93,105 @@ public class SortP<T> extends AbstractProcessor {
     @SuppressWarnings("unchecked")
     protected boolean tryProcess0(@Nonnull Object item) {
         if (priorityQueue.size() == maxItems) {
-            throw new AccumulationLimitExceededException();
+            if (spillDirectory == null) {
+                throw new AccumulationLimitExceededException();
+            }
+            writeRun(priorityQueue::poll);
         }
-
         priorityQueue.add((T) item);
         return true;
     }
 
+    /**
+     * Writes the items, which must be sorted, to a new run.
+     */
+    private void writeRun(Traverser<T> items) {
+        SpillFile run = SpillFile.create(spillDirectory, context);
+        // added first, so that close() deletes it if writing fails
+        runs.add(run);
+        for (T item; (item = items.next()) != null; ) {
+            run.write(item);
+        }
+        run.finishWriting();
+    }
+
     @Override
     public boolean complete() {
+        if (resultTraverser == null) {
+            if (runs.isEmpty()) {
+                resultTraverser = priorityQueue::poll;
+            } else {
+                mergeRuns();
+                List<Traverser<T>> sources = new ArrayList<>();
+                runs.forEach(run -> sources.add(run.reader()));
+                sources.add(priorityQueue::poll);
+                resultTraverser = new MergingTraverser(sources);
+            }
+        }
         return emitFromTraverser(resultTraverser);
     }
 
+    /**
+     * Merges groups of runs into longer runs, until there are at most {@link
+     * #maxMergedFiles} of them.
+     */
+    private void mergeRuns() {
+        while (runs.size() > maxMergedFiles) {
+            List<Traverser<T>> sources = new ArrayList<>();
+            runs.subList(0, maxMergedFiles).forEach(run -> sources.add(run.reader()));
+            writeRun(new MergingTraverser(sources));
+            // the merged runs were deleted when read to the end
+            runs.subList(0, maxMergedFiles).clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        runs.forEach(SpillFile::delete);
+    }
+
     @Override
     public boolean closeIsCooperative() {
         return true;
     }
+
+    /**
+     * Merges sorted sequences of items into a single sorted sequence.
+     */
+    private final class MergingTraverser implements Traverser<T> {
+        private final PriorityQueue<RunHead<T>> heads = new PriorityQueue<>(
+                (left, right) -> comparator.compare(left.item, right.item));
+
+        MergingTraverser(List<Traverser<T>> sources) {
+            sources.forEach(this::addHead);
+        }
+
+        private void addHead(Traverser<T> run) {
+            T item = run.next();
+            if (item != null) {
+                heads.add(new RunHead<>(item, run));
+            }
+        }
+
+        @Override
+        public T next() {
+            RunHead<T> head = heads.poll();
+            if (head == null) {
+                return null;
+            }
+            T item = head.item;
+            addHead(head.run);
+            return item;
+        }
+    }
+
+    private static final class RunHead<T> {
+        final T item;
+        final Traverser<T> run;
+
+        RunHead(T item, Traverser<T> run) {
+            this.item = item;
+            this.run = run;
+        }
+    }
 }
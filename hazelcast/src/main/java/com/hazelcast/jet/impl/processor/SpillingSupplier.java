@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.function.SupplierEx;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.impl.memory.SpillFile;
+import com.hazelcast.security.PermissionsUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Supplier of processors that can spill their state to a {@link SpillFile}.
+ * It passes the spill directory of the job to the processors before they
+ * are initialized, because a processor that spills blocks on file I/O and
+ * must report that it's non-cooperative.
+ */
+final class SpillingSupplier implements ProcessorSupplier {
+
+    private static final long serialVersionUID = 1L;
+
+    private final SupplierEx<Processor> simpleSupplier;
+    private transient Path spillDirectory;
+
+    SpillingSupplier(SupplierEx<Processor> simpleSupplier) {
+        this.simpleSupplier = simpleSupplier;
+    }
+
+    @Override
+    public void init(@Nonnull Context context) throws Exception {
+        PermissionsUtil.checkPermission(simpleSupplier, context);
+        spillDirectory = SpillFile.spillDirectory(context);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<? extends Processor> get(int count) {
+        return Stream.generate(simpleSupplier)
+                     .limit(count)
+                     .peek(p -> ((SpillingProcessor) p).setSpillDirectory(spillDirectory))
+                     .collect(Collectors.toList());
+    }
+
+    /**
+     * A processor created by {@link SpillingSupplier}.
+     */
+    interface SpillingProcessor {
+
+        /**
+         * Sets the directory to spill to, or {@code null} if spilling is not
+         * enabled. Called before the processor is initialized.
+         */
+        void setSpillDirectory(@Nullable Path spillDirectory);
+    }
+}
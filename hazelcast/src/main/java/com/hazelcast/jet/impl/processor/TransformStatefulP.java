@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.function.SupplierEx;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.internal.util.counters.SwCounter;
@@ -24,33 +25,40 @@ import com.hazelcast.jet.Traversers;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.ResettableSingletonTraverser;
 import com.hazelcast.jet.core.Watermark;
 import com.hazelcast.jet.datamodel.TimestampedItem;
 import com.hazelcast.jet.function.TriFunction;
-import com.hazelcast.jet.impl.memory.AccumulationLimitExceededException;
+import com.hazelcast.jet.impl.execution.IncrementalSnapshotProcessor;
+import com.hazelcast.jet.impl.memory.HeapKeyedStateBackend;
+import com.hazelcast.jet.impl.memory.KeyedStateBackend;
 import com.hazelcast.jet.impl.util.Util;
+import com.hazelcast.security.PermissionsUtil;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_STATE_DIRECTORY;
+import static com.hazelcast.jet.config.ProcessingGuarantee.NONE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
+import static com.hazelcast.jet.impl.util.Util.fullSnapshotInterval;
 import static com.hazelcast.jet.impl.util.Util.logLateEvent;
-import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
-    private static final int HASH_MAP_INITIAL_CAPACITY = 16;
-    private static final float HASH_MAP_LOAD_FACTOR = 0.75f;
+public class TransformStatefulP<T, K, S, R> extends AbstractProcessor implements IncrementalSnapshotProcessor {
     private static final Watermark FLUSHING_WATERMARK = new Watermark(Long.MAX_VALUE);
+    private static final Stored STORED = Stored.INSTANCE;
 
     @Probe(name = "lateEventsDropped")
     private final Counter lateEventsDropped = SwCounter.newSwCounter();
@@ -62,8 +70,6 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
     private final TriFunction<? super S, ? super K, ? super T, ? extends Traverser<R>> statefulFlatMapFn;
     @Nullable
     private final TriFunction<? super S, ? super K, ? super Long, ? extends Traverser<R>> onEvictFn;
-    private final Map<K, TimestampedItem<S>> keyToState =
-            new LinkedHashMap<>(HASH_MAP_INITIAL_CAPACITY, HASH_MAP_LOAD_FACTOR, true);
     private final FlatMapper<T, R> flatMapper = flatMapper(this::flatMapEvent);
 
     private final FlatMapper<Watermark, Object> wmFlatMapper = flatMapper(this::flatMapWm);
@@ -74,7 +80,18 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
     private Traverser<? extends Entry<?, ?>> snapshotTraverser;
     private boolean inComplete;
 
-    private long maxEntries;
+    private boolean cooperative = true;
+    private KeyedStateBackend<K, S> keyToState;
+    private boolean statesOnDisk;
+
+    // Keys changed since the last automatic snapshot, mapped to their state, to STORED
+    // if the state is on the disk, or to a Tombstone, if evicted. It's null if
+    // incremental snapshots are disabled.
+    private Map<K, Object> changedKeys;
+    // Changes saved to the ongoing snapshot, they're tracked again if it fails
+    private Map<K, Object> savedChangedKeys;
+    private boolean chainedSave;
+    private boolean incrementalSave;
 
     public TransformStatefulP(
             long ttl,
@@ -92,9 +109,34 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
         this.onEvictFn = onEvictFn;
     }
 
+    /**
+     * Returns a supplier of the processors created by the given supplier,
+     * which must create {@code TransformStatefulP} instances. If the job
+     * keeps the keyed state on the disk, the processors are made
+     * non-cooperative, because the disk backend blocks on file I/O.
+     * Processors not created through this supplier always keep the state on
+     * the heap.
+     */
+    @Nonnull
+    public static ProcessorSupplier supplier(@Nonnull SupplierEx<Processor> simpleSupplier) {
+        return new KeyedStateSupplier(simpleSupplier);
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return cooperative;
+    }
+
     @Override
     protected void init(@Nonnull Processor.Context context) throws Exception {
-        maxEntries = context.maxProcessorAccumulatedRecords();
+        // the disk backend blocks, it's used only if the supplier made this processor non-cooperative
+        keyToState = cooperative
+                ? new HeapKeyedStateBackend<>(context.maxProcessorAccumulatedRecords())
+                : KeyedStateBackend.create(context, ttl);
+        statesOnDisk = !(keyToState instanceof HeapKeyedStateBackend);
+        if (fullSnapshotInterval(context.jobConfig()) > 1 && context.processingGuarantee() != NONE) {
+            changedKeys = new HashMap<>();
+        }
     }
 
     @Override
@@ -112,14 +154,11 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
             return Traversers.empty();
         }
         K key = keyFn.apply(event);
-        TimestampedItem<S> tsAndState = keyToState.computeIfAbsent(key, (k) -> {
-            if (keyToState.size() == maxEntries) {
-                throw new AccumulationLimitExceededException();
-            }
-
-            return createIfAbsentFn.apply(k);
-        });
-        tsAndState.setTimestamp(max(tsAndState.timestamp(), timestamp));
+        TimestampedItem<S> tsAndState = keyToState.getOrCreate(key, timestamp, createIfAbsentFn);
+        if (changedKeys != null) {
+            // don't keep the states on the heap, they're read from the disk when saved
+            changedKeys.put(key, statesOnDisk ? STORED : tsAndState);
+        }
         S state = tsAndState.item();
         return statefulFlatMapFn.apply(state, key, event);
     }
@@ -143,17 +182,24 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
         return tryProcessWatermark(FLUSHING_WATERMARK);
     }
 
+    @Override
+    public void close() {
+        if (keyToState != null) {
+            keyToState.close();
+        }
+    }
+
     @Override
     public boolean closeIsCooperative() {
-        return true;
+        return keyToState == null || keyToState.closeIsCooperative();
     }
 
     private class EvictingTraverser implements Traverser<Traverser<?>> {
-        private Iterator<Entry<K, TimestampedItem<S>>> keyToStateIterator;
+        private Traverser<Entry<K, TimestampedItem<S>>> evictedEntries;
         private final ResettableSingletonTraverser<Watermark> wmTraverser = new ResettableSingletonTraverser<>();
 
         void reset(Watermark wm) {
-            keyToStateIterator = keyToState.entrySet().iterator();
+            evictedEntries = keyToState.evict(Util.subtractClamped(currentWm, ttl));
             if (wm == FLUSHING_WATERMARK) {
                 // don't forward the flushing watermark
                 return;
@@ -163,21 +209,18 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
 
         @Override
         public Traverser<?> next() {
-            if (keyToStateIterator == null) {
+            if (evictedEntries == null) {
                 return null;
             }
-            while (keyToStateIterator.hasNext()) {
-                Entry<K, TimestampedItem<S>> entry = keyToStateIterator.next();
-                long lastTouched = entry.getValue().timestamp();
-                if (lastTouched >= Util.subtractClamped(currentWm, ttl)) {
-                    break;
+            for (Entry<K, TimestampedItem<S>> entry; (entry = evictedEntries.next()) != null; ) {
+                if (changedKeys != null) {
+                    changedKeys.put(entry.getKey(), Tombstone.INSTANCE);
                 }
-                keyToStateIterator.remove();
                 if (onEvictFn != null) {
                     return onEvictFn.apply(entry.getValue().item(), entry.getKey(), currentWm);
                 }
             }
-            keyToStateIterator = null;
+            evictedEntries = null;
             return wmTraverser;
         }
     }
@@ -186,31 +229,138 @@ public class TransformStatefulP<T, K, S, R> extends AbstractProcessor {
         WATERMARK
     }
 
+    /**
+     * The value of a changed key in {@link #changedKeys} if its state is read
+     * from the backend when saved.
+     */
+    private enum Stored {
+        INSTANCE
+    }
+
+    @Override
+    public void prepareSaveToSnapshot(boolean incremental) {
+        chainedSave = true;
+        incrementalSave = incremental;
+    }
+
     @Override
     public boolean saveToSnapshot() {
         if (inComplete) {
             // If we are in completing phase, we can have a half-emitted item. Instead of finishing it and
             // writing a snapshot, we finish the final items and save no state.
-            return complete();
+            if (changedKeys == null) {
+                return complete();
+            }
+            // With incremental snapshots the earlier snapshots of the chain still hold the state, so
+            // the tombstones of the flushed keys are saved, see createSnapshotTraverser().
+            if (!complete()) {
+                return false;
+            }
         }
         if (snapshotTraverser == null) {
-            snapshotTraverser = Traversers.<Entry<?, ?>>traverseIterable(keyToState.entrySet())
-                    .append(entry(broadcastKey(SnapshotKeys.WATERMARK), currentWm))
-                    .onFirstNull(() -> snapshotTraverser = null);
+            snapshotTraverser = createSnapshotTraverser();
         }
         return emitFromTraverserToSnapshot(snapshotTraverser);
     }
 
+    private Traverser<? extends Entry<?, ?>> createSnapshotTraverser() {
+        // the changes to save if this snapshot is incremental, null otherwise
+        Map<K, Object> changes = null;
+        if (chainedSave && changedKeys != null) {
+            if (savedChangedKeys != null) {
+                mergeSavedChangedKeys();
+            }
+            if (incrementalSave) {
+                changes = changedKeys;
+            }
+            savedChangedKeys = changedKeys;
+            changedKeys = new HashMap<>();
+        }
+        chainedSave = false;
+        Traverser<Entry<?, ?>> traverser;
+        if (inComplete) {
+            // In completing phase we save no state. An incremental snapshot contains tombstones for all
+            // the keys instead, to remove the state saved to the previous snapshots.
+            traverser = changes == null
+                    ? Traversers.empty()
+                    : Traversers.traverseItems(Traversers.traverseIterable(changes.keySet()),
+                                    keyToState.entries().map(Entry::getKey))
+                                .flatMap(keys -> keys)
+                                .map(key -> entry(key, Tombstone.INSTANCE));
+        } else {
+            traverser = (changes != null
+                    ? Traversers.traverseIterable(changes.entrySet()).<Entry<?, ?>>map(this::storedChange)
+                    : keyToState.entries().<Entry<?, ?>>map(e -> e))
+                    .append(entry(broadcastKey(SnapshotKeys.WATERMARK), currentWm));
+        }
+        return traverser.onFirstNull(() -> snapshotTraverser = null);
+    }
+
+    private Entry<K, Object> storedChange(Entry<K, Object> change) {
+        if (change.getValue() != STORED) {
+            return change;
+        }
+        TimestampedItem<S> state = keyToState.get(change.getKey());
+        return entry(change.getKey(), state != null ? state : Tombstone.INSTANCE);
+    }
+
+    @Override
+    public boolean snapshotCommitFinish(boolean success) {
+        if (savedChangedKeys != null) {
+            if (!success) {
+                mergeSavedChangedKeys();
+            }
+            savedChangedKeys = null;
+        }
+        return true;
+    }
+
+    private void mergeSavedChangedKeys() {
+        // changes tracked after the save are newer, they take precedence
+        savedChangedKeys.forEach(changedKeys::putIfAbsent);
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
         if (key instanceof BroadcastKey) {
             assert ((BroadcastKey<?>) key).key() == SnapshotKeys.WATERMARK : "Unexpected " + key;
             long wm = (long) value;
             currentWm = (currentWm == Long.MIN_VALUE) ? wm : min(currentWm, wm);
+        } else if (value == Tombstone.INSTANCE) {
+            // removed in a later incremental snapshot
+            keyToState.remove((K) key);
         } else {
-            @SuppressWarnings("unchecked")
             TimestampedItem<S> old = keyToState.put((K) key, (TimestampedItem<S>) value);
-            assert old == null : "Duplicate key '" + key + '\'';
+            // with incremental snapshots, a later snapshot replaces the state
+            assert old == null || changedKeys != null : "Duplicate key '" + key + '\'';
+        }
+    }
+
+    private static final class KeyedStateSupplier implements ProcessorSupplier {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SupplierEx<Processor> simpleSupplier;
+        private transient boolean statesOnDisk;
+
+        KeyedStateSupplier(SupplierEx<Processor> simpleSupplier) {
+            this.simpleSupplier = simpleSupplier;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) throws Exception {
+            PermissionsUtil.checkPermission(simpleSupplier, context);
+            statesOnDisk = context.jobConfig().getArgument(KEY_STATE_DIRECTORY) != null;
+        }
+
+        @Nonnull
+        @Override
+        public Collection<? extends Processor> get(int count) {
+            return Stream.generate(simpleSupplier)
+                         .limit(count)
+                         .peek(p -> ((TransformStatefulP<?, ?, ?, ?>) p).cooperative = !statesOnDisk)
+                         .collect(Collectors.toList());
         }
     }
 }
@@ -43,4 +43,10 @@ public interface AsyncSnapshotWriter {
     long getTotalPayloadBytes();
     long getTotalKeys();
     long getTotalChunks();
+
+    /**
+     * Returns true if the written chunks are marked as incremental, see
+     * {@link AsyncSnapshotWriterImpl.SnapshotDataIncrementalMarker}.
+     */
+    boolean isIncremental();
 }
@@ -21,6 +21,7 @@ import com.hazelcast.internal.nio.Bits;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.SerializationConstants;
 import com.hazelcast.jet.impl.JetServiceBackend;
@@ -57,6 +58,8 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     final int usableChunkCapacity; // this includes the serialization header for byte[], but not the terminator
     final byte[] serializedByteArrayHeader = new byte[3 * Bits.INT_SIZE_IN_BYTES];
     final byte[] valueTerminator;
+    // written after the byte[] header of each chunk, empty if the chunks aren't incremental
+    final byte[] chunkMarker;
     final AtomicInteger numConcurrentAsyncOps;
 
     private final IPartitionService partitionService;
@@ -88,7 +91,23 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                                    int memberIndex,
                                    int memberCount,
                                    InternalSerializationService serializationService) {
-        this(DEFAULT_CHUNK_SIZE, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService);
+        this(nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService, false);
+    }
+
+    /**
+     * @param incrementalChunks if true, each chunk starts with {@link
+     *     SnapshotDataIncrementalMarker} to indicate that the processors of
+     *     the vertex save only the changed state to incremental snapshots
+     */
+    public AsyncSnapshotWriterImpl(NodeEngine nodeEngine,
+                                   SnapshotContext snapshotContext,
+                                   String vertexName,
+                                   int memberIndex,
+                                   int memberCount,
+                                   InternalSerializationService serializationService,
+                                   boolean incrementalChunks) {
+        this(DEFAULT_CHUNK_SIZE, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService,
+                incrementalChunks);
     }
 
     // for test
@@ -99,6 +118,19 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                             int memberIndex,
                             int memberCount,
                             InternalSerializationService serializationService) {
+        this(chunkSize, nodeEngine, snapshotContext, vertexName, memberIndex, memberCount, serializationService, false);
+    }
+
+    // for test
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    AsyncSnapshotWriterImpl(int chunkSize,
+                            NodeEngine nodeEngine,
+                            SnapshotContext snapshotContext,
+                            String vertexName,
+                            int memberIndex,
+                            int memberCount,
+                            InternalSerializationService serializationService,
+                            boolean incrementalChunks) {
         if (Integer.bitCount(chunkSize) != 1) {
             throw new IllegalArgumentException("chunkSize must be a power of two, but is " + chunkSize);
         }
@@ -117,31 +149,55 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         Bits.writeInt(serializedByteArrayHeader, Bits.INT_SIZE_IN_BYTES, SerializationConstants.CONSTANT_TYPE_BYTE_ARRAY,
                 true);
 
-        buffers = createAndInitBuffers(chunkSize, partitionService.getPartitionCount(), serializedByteArrayHeader);
+        chunkMarker = incrementalChunks ? incrementalMarker(serializationService) : new byte[0];
+        buffers = createAndInitBuffers(chunkSize, partitionService.getPartitionCount(), serializedByteArrayHeader,
+                chunkMarker);
         JetServiceBackend jetServiceBackend = nodeEngine.getService(JetServiceBackend.SERVICE_NAME);
         this.partitionKeys = jetServiceBackend.getSharedPartitionKeys();
         this.partitionSequence = memberIndex;
 
         this.numConcurrentAsyncOps = jetServiceBackend.numConcurrentAsyncOps();
 
-        byte[] valueTerminatorWithHeader = serializationService.toData(SnapshotDataValueTerminator.INSTANCE).toByteArray();
-        valueTerminator = Arrays.copyOfRange(valueTerminatorWithHeader, HeapData.TYPE_OFFSET,
-                valueTerminatorWithHeader.length);
-        usableChunkCapacity = chunkSize - valueTerminator.length - serializedByteArrayHeader.length;
+        valueTerminator = serializeWithoutHeader(serializationService, SnapshotDataValueTerminator.INSTANCE);
+        usableChunkCapacity = chunkSize - valueTerminator.length - serializedByteArrayHeader.length - chunkMarker.length;
         if (usableChunkCapacity <= 0) {
             throw new IllegalArgumentException("too small chunk size: " + chunkSize);
         }
     }
 
+    private static byte[] serializeWithoutHeader(SerializationService serializationService, Object object) {
+        byte[] bytesWithHeader = serializationService.toData(object).toByteArray();
+        return Arrays.copyOfRange(bytesWithHeader, HeapData.TYPE_OFFSET, bytesWithHeader.length);
+    }
+
+    /**
+     * Returns the serialized {@link SnapshotDataIncrementalMarker} with which
+     * the chunks of incremental vertices start.
+     */
+    public static byte[] incrementalMarker(SerializationService serializationService) {
+        return serializeWithoutHeader(serializationService, SnapshotDataIncrementalMarker.INSTANCE);
+    }
+
+    /**
+     * Returns true if the given chunk, read from the snapshot map, starts with
+     * the given {@linkplain #incrementalMarker incremental marker}.
+     */
+    public static boolean isIncrementalChunk(byte[] chunk, byte[] incrementalMarker) {
+        return chunk.length >= incrementalMarker.length
+                && Arrays.equals(chunk, 0, incrementalMarker.length, incrementalMarker, 0, incrementalMarker.length);
+    }
+
     private static CustomByteArrayOutputStream[] createAndInitBuffers(
             int chunkSize,
             int partitionCount,
-            byte[] serializedByteArrayHeader
+            byte[] serializedByteArrayHeader,
+            byte[] chunkMarker
     ) {
         CustomByteArrayOutputStream[] buffers = new CustomByteArrayOutputStream[partitionCount];
         for (int i = 0; i < buffers.length; i++) {
             buffers[i] = new CustomByteArrayOutputStream(chunkSize);
             buffers[i].write(serializedByteArrayHeader, 0, serializedByteArrayHeader.length);
+            buffers[i].write(chunkMarker, 0, chunkMarker.length);
         }
         return buffers;
     }
@@ -170,15 +226,19 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         // ByteArrayOutputStream since it would expand it beyond its maximum capacity.
         if (length > usableChunkCapacity) {
             return putAsyncToMap(partitionId, () -> {
-                byte[] data = new byte[serializedByteArrayHeader.length + length + valueTerminator.length];
+                byte[] data = new byte[serializedByteArrayHeader.length + chunkMarker.length + length
+                        + valueTerminator.length];
                 totalKeys++;
                 int offset = 0;
                 System.arraycopy(serializedByteArrayHeader, 0, data, offset, serializedByteArrayHeader.length);
                 offset += serializedByteArrayHeader.length - Bits.INT_SIZE_IN_BYTES;
 
-                Bits.writeInt(data, offset, length + valueTerminator.length, useBigEndian);
+                Bits.writeInt(data, offset, chunkMarker.length + length + valueTerminator.length, useBigEndian);
                 offset += Bits.INT_SIZE_IN_BYTES;
 
+                System.arraycopy(chunkMarker, 0, data, offset, chunkMarker.length);
+                offset += chunkMarker.length;
+
                 copyWithoutHeader(entry.getKey(), data, offset);
                 offset += entry.getKey().totalSize() - HeapData.TYPE_OFFSET;
 
@@ -225,7 +285,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     }
 
     private boolean containsOnlyHeader(CustomByteArrayOutputStream buffer) {
-        return buffer.size() == serializedByteArrayHeader.length;
+        return buffer.size() == serializedByteArrayHeader.length + chunkMarker.length;
     }
 
     private Data getBufferContentsAndClear(CustomByteArrayOutputStream buffer) {
@@ -234,6 +294,7 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         updateSerializedBytesLength(data);
         buffer.reset();
         buffer.write(serializedByteArrayHeader, 0, serializedByteArrayHeader.length);
+        buffer.write(chunkMarker, 0, chunkMarker.length);
         return new HeapData(data);
     }
 
@@ -449,6 +510,38 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
     }
 
+    /**
+     * Written at the beginning of each chunk of a vertex whose processors save
+     * only the changed state to incremental snapshots. When restoring, such
+     * chunks from all snapshots since the last full one are applied in order,
+     * other chunks are used only from the latest snapshot.
+     */
+    public static final class SnapshotDataIncrementalMarker implements IdentifiedDataSerializable {
+
+        public static final IdentifiedDataSerializable INSTANCE = new SnapshotDataIncrementalMarker();
+
+        private SnapshotDataIncrementalMarker() {
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return JetInitDataSerializerHook.ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_INCREMENTAL_MARKER;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) {
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) {
+        }
+    }
+
     /**
      * Non-synchronized variant of {@code java.io.ByteArrayOutputStream} with capacity limit.
      */
@@ -524,4 +617,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     public long getTotalChunks() {
         return totalChunks;
     }
+
+    @Override
+    public boolean isIncremental() {
+        return chunkMarker.length > 0;
+    }
 }
@@ -93,7 +93,9 @@ import java.util.stream.Stream;
 import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.Util.idToString;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_FULL_SNAPSHOT_INTERVAL;
 import static com.hazelcast.jet.config.JobConfigArguments.KEY_JOB_IS_SUSPENDABLE;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_MAX_EVENT_TIME_DRIFT;
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeMapP;
 import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
@@ -148,6 +150,28 @@ public final class Util {
         return argument == null || argument;
     }
 
+    /**
+     * Returns the number of automatic snapshots between two full snapshots
+     * configured with {@link
+     * com.hazelcast.jet.config.JobConfigArguments#KEY_FULL_SNAPSHOT_INTERVAL},
+     * or 1, if incremental snapshots are disabled.
+     */
+    public static int fullSnapshotInterval(JobConfig jobConfig) {
+        Integer argument = jobConfig.getArgument(KEY_FULL_SNAPSHOT_INTERVAL);
+        return argument == null ? 1 : Math.max(argument, 1);
+    }
+
+    /**
+     * Returns the maximum event-time drift between source partitions
+     * configured with {@link
+     * com.hazelcast.jet.config.JobConfigArguments#KEY_MAX_EVENT_TIME_DRIFT},
+     * or 0, if the alignment is disabled.
+     */
+    public static long maxEventTimeDrift(JobConfig jobConfig) {
+        Number argument = jobConfig.getArgument(KEY_MAX_EVENT_TIME_DRIFT);
+        return argument == null ? 0 : Math.max(argument.longValue(), 0);
+    }
+
     public static <T> Supplier<T> memoize(Supplier<T> onceSupplier) {
         return new MemoizingSupplier<>(onceSupplier);
     }
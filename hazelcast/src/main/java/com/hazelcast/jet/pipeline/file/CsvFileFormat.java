@@ -39,6 +39,9 @@ public class CsvFileFormat<T> implements FileFormat<T> {
 
     private final Class<T> clazz;
     private final List<String> fieldNames;
+    // stored negated, so that the default is kept when deserializing an
+    // instance of a version without this field
+    private boolean singleLineRecords;
 
     /**
      * Creates {@link CsvFileFormat}. See {@link FileFormat#csv} for more
@@ -73,6 +76,37 @@ public class CsvFileFormat<T> implements FileFormat<T> {
         return clazz;
     }
 
+    /**
+     * Specifies if the CSV parser should accept records spanning multiple
+     * lines, that is, quoted values containing line breaks.
+     * <p>
+     * Such records are accepted by default, but they prevent reading a file
+     * in parallel, because the file is split at line boundaries.
+     * <p>
+     * Set this to false when reading large CSV files from the local file
+     * system. Each line in the file must then contain exactly one record.
+     * Each file is still read by a single processor when Hadoop is used.
+     *
+     * @param multiline true, if the CSV parser should accept records
+     *                  spanning multiple lines, defaults to true
+     * @since 5.4
+     */
+    @Nonnull
+    public CsvFileFormat<T> multiline(boolean multiline) {
+        this.singleLineRecords = !multiline;
+        return this;
+    }
+
+    /**
+     * Specifies if the CSV parser should accept records spanning multiple
+     * lines.
+     *
+     * @since 5.4
+     */
+    public boolean isMultiline() {
+        return !singleLineRecords;
+    }
+
     /**
      * Return the desired list of fields that is used with {@code String[]}
      * class.
@@ -91,11 +125,13 @@ public class CsvFileFormat<T> implements FileFormat<T> {
             return false;
         }
         CsvFileFormat<?> that = (CsvFileFormat<?>) o;
-        return Objects.equals(clazz, that.clazz) && Objects.equals(fieldNames, that.fieldNames);
+        return singleLineRecords == that.singleLineRecords
+                && Objects.equals(clazz, that.clazz)
+                && Objects.equals(fieldNames, that.fieldNames);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(clazz, fieldNames);
+        return Objects.hash(clazz, fieldNames, singleLineRecords);
     }
 }
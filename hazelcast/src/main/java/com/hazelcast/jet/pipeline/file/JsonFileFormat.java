@@ -64,13 +64,11 @@ public class JsonFileFormat<T> implements FileFormat<T> {
      * multiple lines.
      * <p>
      * The parser handles JSON records spanning multiple lines by default,
-     * but it prevents reading the file in parallel when using the Hadoop
-     * based connector, because the file is split at arbitrary positions.
+     * but it prevents reading the file in parallel, because the file is
+     * split at arbitrary positions.
      * <p>
-     * Set this to false when reading large JSON files using Hadoop
-     * connector. Each line in the file must contain exactly one JSON record.
-     * <p>
-     * This setting has no effect when Hadoop is not used.
+     * Set this to false when reading large JSON files. Each line in the file
+     * must contain exactly one JSON record.
      *
      * @param multiline true, if the JSON parser should accept records
      *                  spanning multiple lines, defaults to true
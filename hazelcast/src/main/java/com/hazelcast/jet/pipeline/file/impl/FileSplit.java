@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.pipeline.file.impl;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.hazelcast.internal.nio.IOUtil.unmap;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * A byte range of a local file that is read independently of the rest of
+ * the file. The range boundaries are aligned to line starts: a split owns
+ * every line that starts within {@code [start, end)}, so the last line of
+ * a split may extend past {@code end} and a split starting in the middle
+ * of a line skips that line, because the preceding split reads it.
+ * Adjacent splits therefore read every line of the file exactly once.
+ * <p>
+ * The content is read through memory-mapped windows of the file. Each
+ * window is unmapped as soon as it's read, and the last one when the
+ * stream is closed.
+ */
+public final class FileSplit {
+
+    private static final int MAPPING_WINDOW_SIZE = 64 << 20;
+    private static final int SCAN_BUFFER_SIZE = 8192;
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final Path path;
+    private final long start;
+    private final long end;
+
+    public FileSplit(@Nonnull Path path, long start, long end) {
+        this.path = path;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Nonnull
+    public Path path() {
+        return path;
+    }
+
+    public long start() {
+        return start;
+    }
+
+    public long end() {
+        return end;
+    }
+
+    /**
+     * Opens a stream over the lines this split owns. The returned stream
+     * must be closed by the caller.
+     */
+    @Nonnull
+    public InputStream open() throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long alignedStart = lineStartAtOrAfter(channel, Math.min(start, size), size);
+            long alignedEnd = lineStartAtOrAfter(channel, Math.min(end, size), size);
+            return new MappedInputStream(channel, alignedStart, alignedEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns true if text in the given charset can be split at {@code '\n'}
+     * bytes, that is, if the line feed is encoded as a single byte that is
+     * never a part of the encoding of another character.
+     */
+    public static boolean isSplittable(@Nonnull Charset charset) {
+        return charset.contains(US_ASCII) && Arrays.equals(NEW_LINE, "\n".getBytes(charset));
+    }
+
+    /**
+     * Returns the offset of the first line starting at or after the given
+     * position: the position itself if it is 0 or follows a line feed,
+     * otherwise the offset after the next line feed, or the file size if
+     * there's none.
+     */
+    private static long lineStartAtOrAfter(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        for (long offset = position - 1; offset < size; ) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return path + "[" + start + ".." + end + ")";
+    }
+
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.end = end;
+            this.windowStart = start;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureWindow()) {
+                return -1;
+            }
+            return Byte.toUnsignedInt(window.get());
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureWindow()) {
+                return -1;
+            }
+            int count = Math.min(len, window.remaining());
+            window.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return window == null ? 0 : window.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            unmap(window);
+            window = null;
+            channel.close();
+        }
+
+        /**
+         * Makes sure there are bytes remaining in the current window, mapping
+         * the next part of the range if needed. Returns false at the end of
+         * the range.
+         */
+        private boolean ensureWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            if (window != null) {
+                windowStart += window.capacity();
+                unmap(window);
+                window = null;
+            }
+            if (windowStart >= end) {
+                return false;
+            }
+            long length = Math.min(MAPPING_WINDOW_SIZE, end - windowStart);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            return true;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.core.processor.SourceProcessors;
+import com.hazelcast.jet.impl.connector.ReadFilesP;
 import com.hazelcast.jet.json.JsonUtil;
 import com.hazelcast.jet.pipeline.file.FileFormat;
 import com.hazelcast.jet.pipeline.file.JsonFileFormat;
@@ -42,7 +43,9 @@ import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.stream.Stream;
 
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -82,8 +85,13 @@ public class LocalFileSourceFactory implements FileSourceFactory {
                     "Did you provide correct modules on classpath?");
         }
         FunctionEx<Path, Stream<T>> mapFn = readFileFnProvider.createReadFileFn(format);
-        return SourceProcessors.readFilesP(fsc.getPath(), fsc.getGlob(), fsc.isSharedFileSystem(),
-                fsc.isIgnoreFileNotFound(), mapFn);
+        FunctionEx<FileSplit, Stream<T>> mapSplitFn = readFileFnProvider.createReadFileSplitFn(format);
+        if (mapSplitFn == null) {
+            return SourceProcessors.readFilesP(fsc.getPath(), fsc.getGlob(), fsc.isSharedFileSystem(),
+                    fsc.isIgnoreFileNotFound(), mapFn);
+        }
+        return ReadFilesP.metaSupplier(fsc.getPath(), fsc.getGlob(), fsc.isSharedFileSystem(),
+                fsc.isIgnoreFileNotFound(), mapFn, mapSplitFn, ReadFilesP.DEFAULT_MIN_SPLIT_SIZE);
     }
 
     @SuppressFBWarnings("OBL_UNSATISFIED_OBLIGATION")
@@ -102,8 +110,32 @@ public class LocalFileSourceFactory implements FileSourceFactory {
         abstract <T> FunctionEx<InputStream, Stream<T>> mapInputStreamFn(FileFormat<T> format);
     }
 
+    /**
+     * Reads line-delimited formats, which can also be read in splits: the
+     * stream of a split's lines is parsed in the same way as a whole file.
+     */
+    @SuppressFBWarnings("OBL_UNSATISFIED_OBLIGATION")
+    private abstract static class AbstractReadLinesFnProvider extends AbstractReadFileFnProvider {
+
+        @Override
+        public <T> FunctionEx<FileSplit, Stream<T>> createReadFileSplitFn(@Nonnull FileFormat<T> format) {
+            if (!isSplittable(format)) {
+                return null;
+            }
+            FunctionEx<InputStream, Stream<T>> mapInputStreamFn = mapInputStreamFn(format);
+            return split -> {
+                InputStream is = split.open();
+                return mapInputStreamFn.apply(is).onClose(() -> uncheckRun(is::close));
+            };
+        }
+
+        abstract boolean isSplittable(FileFormat<?> format);
+    }
+
     private static class JsonReadFileFnProvider implements ReadFileFnProvider {
 
+        private static final LinesReadFileFnProvider LINES_PROVIDER = new LinesReadFileFnProvider();
+
         @Nonnull
         @Override
         @SuppressWarnings("unchecked")
@@ -125,6 +157,27 @@ public class LocalFileSourceFactory implements FileSourceFactory {
             };
         }
 
+        /**
+         * Files with one record per line are read in splits, parsing each
+         * non-blank line separately.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> FunctionEx<FileSplit, Stream<T>> createReadFileSplitFn(@Nonnull FileFormat<T> format) {
+            JsonFileFormat<T> jsonFileFormat = (JsonFileFormat<T>) format;
+            if (jsonFileFormat.isMultiline()) {
+                return null;
+            }
+            Class<T> formatClazz = jsonFileFormat.clazz();
+            FunctionEx<FileSplit, Stream<String>> readLinesFn =
+                    LINES_PROVIDER.createReadFileSplitFn(FileFormat.lines(UTF_8));
+            return split -> readLinesFn.apply(split)
+                    .filter(line -> !line.isBlank())
+                    .map(line -> formatClazz == null
+                            ? (T) uncheckCall(() -> JsonUtil.mapFrom(line))
+                            : uncheckCall(() -> JsonUtil.beanFrom(line, formatClazz)));
+        }
+
         @Nonnull
         @Override
         public String format() {
@@ -132,7 +185,7 @@ public class LocalFileSourceFactory implements FileSourceFactory {
         }
     }
 
-    private static class LinesReadFileFnProvider extends AbstractReadFileFnProvider {
+    private static class LinesReadFileFnProvider extends AbstractReadLinesFnProvider {
 
         @Nonnull @Override
         @SuppressWarnings("unchecked")
@@ -145,6 +198,11 @@ public class LocalFileSourceFactory implements FileSourceFactory {
             };
         }
 
+        @Override
+        boolean isSplittable(FileFormat<?> format) {
+            return FileSplit.isSplittable(((LinesTextFileFormat) format).charset());
+        }
+
         @Nonnull @Override
         public String format() {
             return LinesTextFileFormat.FORMAT_LINES;
@@ -20,6 +20,7 @@ import com.hazelcast.function.FunctionEx;
 import com.hazelcast.jet.pipeline.file.FileFormat;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.nio.file.Path;
 import java.util.stream.Stream;
 
@@ -39,6 +40,20 @@ public interface ReadFileFnProvider {
     @Nonnull
     <T> FunctionEx<Path, Stream<T>> createReadFileFn(@Nonnull FileFormat<T> format);
 
+    /**
+     * Takes a {@link FileFormat} and uses it to create and return a function
+     * that maps a line-aligned {@link FileSplit} of a local file to a stream
+     * of items that the file source should emit. Large files are then read
+     * in parallel by multiple processors, each reading one split.
+     * <p>
+     * Returns {@code null} if the format, or its current configuration,
+     * can't be read in splits. That's the default.
+     */
+    @Nullable
+    default <T> FunctionEx<FileSplit, Stream<T>> createReadFileSplitFn(@Nonnull FileFormat<T> format) {
+        return null;
+    }
+
     /**
      * Returns a string that identifies the {@link FileFormat} supported by
      * this function provider.
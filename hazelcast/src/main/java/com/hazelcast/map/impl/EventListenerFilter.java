@@ -25,6 +25,7 @@ import com.hazelcast.spi.impl.eventservice.impl.TrueEventFilter;
 
 import java.io.IOException;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
 import static com.hazelcast.map.impl.MapListenerFlagOperator.SET_ALL_LISTENER_FLAGS;
 
 /**
@@ -45,6 +46,12 @@ import static com.hazelcast.map.impl.MapListenerFlagOperator.SET_ALL_LISTENER_FL
  * Other events, like {@link EntryEventType#EVICTED} or {@link EntryEventType#EXPIRED}, will not be sent over wire.
  * This may help to reduce load on eventing system and network.
  *
+ * <p>
+ * The filter also carries the batching options of a
+ * {@link com.hazelcast.map.listener.BatchingMapListener BatchingMapListener},
+ * the entry events of such a listener are buffered by the publishing member
+ * and sent in batches.
+ *
  * @see MapListenerFlagOperator#setAndGetListenerFlags(ListenerAdapter)
  * @see com.hazelcast.map.listener.MapListener
  * @since 3.6
@@ -56,6 +63,13 @@ public class EventListenerFilter implements EventFilter, IdentifiedDataSerializa
      */
     private int listenerFlags;
     private EventFilter eventFilter;
+    /**
+     * Maximum number of entry events in a batch, {@code 0} if the entry
+     * events aren't batched.
+     */
+    private int eventBatchSize;
+    private long eventBatchDelayMillis;
+    private boolean eventCoalescing;
 
     public EventListenerFilter() {
         this(SET_ALL_LISTENER_FLAGS, TrueEventFilter.INSTANCE);
@@ -66,16 +80,36 @@ public class EventListenerFilter implements EventFilter, IdentifiedDataSerializa
         this.eventFilter = eventFilter == null ? TrueEventFilter.INSTANCE : eventFilter;
     }
 
+    public EventListenerFilter(int listenerFlags, EventFilter eventFilter, int eventBatchSize,
+                               long eventBatchDelayMillis, boolean eventCoalescing) {
+        this(listenerFlags, eventFilter);
+        this.eventBatchSize = eventBatchSize;
+        this.eventBatchDelayMillis = eventBatchDelayMillis;
+        this.eventCoalescing = eventCoalescing;
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeObject(eventFilter);
         out.writeInt(listenerFlags);
+        // RU_COMPAT_5_3
+        if (out.getVersion().isGreaterOrEqual(V5_4)) {
+            out.writeInt(eventBatchSize);
+            out.writeLong(eventBatchDelayMillis);
+            out.writeBoolean(eventCoalescing);
+        }
     }
 
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         eventFilter = in.readObject();
         listenerFlags = in.readInt();
+        // RU_COMPAT_5_3
+        if (in.getVersion().isGreaterOrEqual(V5_4)) {
+            eventBatchSize = in.readInt();
+            eventBatchDelayMillis = in.readLong();
+            eventCoalescing = in.readBoolean();
+        }
     }
 
     @Override
@@ -88,11 +122,33 @@ public class EventListenerFilter implements EventFilter, IdentifiedDataSerializa
         return eventFilter;
     }
 
+    /**
+     * @return {@code true} if the entry events are delivered in batches
+     */
+    public boolean isEventBatching() {
+        return eventBatchSize > 0;
+    }
+
+    public int getEventBatchSize() {
+        return eventBatchSize;
+    }
+
+    public long getEventBatchDelayMillis() {
+        return eventBatchDelayMillis;
+    }
+
+    public boolean isEventCoalescing() {
+        return eventCoalescing;
+    }
+
     @Override
     public String toString() {
         return "EventListenerFilter{"
                 + "listenerFlags=" + listenerFlags
                 + ", eventFilter=" + eventFilter
+                + ", eventBatchSize=" + eventBatchSize
+                + ", eventBatchDelayMillis=" + eventBatchDelayMillis
+                + ", eventCoalescing=" + eventCoalescing
                 + '}';
     }
 
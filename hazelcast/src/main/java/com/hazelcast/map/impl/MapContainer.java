@@ -19,6 +19,7 @@ package com.hazelcast.map.impl;
 import com.hazelcast.config.CacheDeserializedValues;
 import com.hazelcast.config.Config;
 import com.hazelcast.config.EventJournalConfig;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.instance.impl.Node;
@@ -38,6 +39,7 @@ import com.hazelcast.internal.util.ThreadUtil;
 import com.hazelcast.map.impl.eviction.EvictionChecker;
 import com.hazelcast.map.impl.eviction.Evictor;
 import com.hazelcast.map.impl.eviction.EvictorImpl;
+import com.hazelcast.map.impl.eviction.TinyLfuEvictor;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.nearcache.invalidation.InvalidationListener;
 import com.hazelcast.map.impl.query.QueryEntryFactory;
@@ -237,6 +239,9 @@ public class MapContainer {
                                  int evictionBatchSize, IPartitionService partitionService) {
         EvictionChecker evictionChecker = new EvictionChecker(getMemoryInfoAccessor(), mapServiceContext);
 
+        if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.W_TINY_LFU) {
+            return new TinyLfuEvictor(evictionPolicyComparator, evictionChecker, evictionBatchSize, partitionService);
+        }
         return new EvictorImpl(evictionPolicyComparator, evictionChecker, evictionBatchSize, partitionService);
     }
 
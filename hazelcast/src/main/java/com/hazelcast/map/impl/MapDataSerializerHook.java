@@ -25,6 +25,7 @@ import com.hazelcast.internal.nearcache.impl.invalidation.SingleNearCacheInvalid
 import com.hazelcast.internal.serialization.DataSerializerHook;
 import com.hazelcast.internal.serialization.impl.ArrayDataSerializableFactory;
 import com.hazelcast.internal.serialization.impl.FactoryIdHelper;
+import com.hazelcast.map.impl.event.EntryEventDataBatch;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.map.impl.journal.DeserializingEventJournalMapEvent;
@@ -44,6 +45,8 @@ import com.hazelcast.map.impl.operation.ClearOperationFactory;
 import com.hazelcast.map.impl.operation.ContainsKeyOperation;
 import com.hazelcast.map.impl.operation.ContainsValueOperation;
 import com.hazelcast.map.impl.operation.ContainsValueOperationFactory;
+import com.hazelcast.map.impl.operation.ContinuousAggregationOperation;
+import com.hazelcast.map.impl.operation.ContinuousAggregationOperationFactory;
 import com.hazelcast.map.impl.operation.DeleteOperation;
 import com.hazelcast.map.impl.operation.EntryBackupOperation;
 import com.hazelcast.map.impl.operation.EntryOffloadableSetUnlockOperation;
@@ -113,12 +116,17 @@ import com.hazelcast.map.impl.operation.PutTransientOperation;
 import com.hazelcast.map.impl.operation.PutTransientWithExpiryOperation;
 import com.hazelcast.map.impl.operation.PutWithExpiryOperation;
 import com.hazelcast.map.impl.operation.RemoveBackupOperation;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationBackupOperation;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationOperation;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationOperationFactory;
 import com.hazelcast.map.impl.operation.RemoveFromLoadAllOperation;
 import com.hazelcast.map.impl.operation.RemoveIfSameOperation;
 import com.hazelcast.map.impl.operation.RemoveInterceptorOperation;
 import com.hazelcast.map.impl.operation.RemoveOperation;
 import com.hazelcast.map.impl.operation.ReplaceIfSameOperation;
 import com.hazelcast.map.impl.operation.ReplaceOperation;
+import com.hazelcast.map.impl.operation.RestorePersistedEntriesBackupOperation;
+import com.hazelcast.map.impl.operation.RestorePersistedEntriesOperation;
 import com.hazelcast.map.impl.operation.SetOperation;
 import com.hazelcast.map.impl.operation.SetTtlBackupOperation;
 import com.hazelcast.map.impl.operation.SetTtlOperation;
@@ -327,8 +335,16 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int INDEX_ITERATION_POINTER = 156;
     public static final int MAP_FETCH_INDEX_OPERATION_RESULT = 157;
     public static final int MAP_CHUNK = 158;
+    public static final int ENTRY_EVENT_DATA_BATCH = 159;
+    public static final int CONTINUOUS_AGGREGATION = 160;
+    public static final int CONTINUOUS_AGGREGATION_FACTORY = 161;
+    public static final int REMOVE_CONTINUOUS_AGGREGATION = 162;
+    public static final int REMOVE_CONTINUOUS_AGGREGATION_BACKUP = 163;
+    public static final int REMOVE_CONTINUOUS_AGGREGATION_FACTORY = 164;
+    public static final int RESTORE_PERSISTED_ENTRIES = 165;
+    public static final int RESTORE_PERSISTED_ENTRIES_BACKUP = 166;
 
-    private static final int LEN = MAP_CHUNK + 1;
+    private static final int LEN = RESTORE_PERSISTED_ENTRIES_BACKUP + 1;
 
     @Override
     public int getFactoryId() {
@@ -494,6 +510,14 @@ public final class MapDataSerializerHook implements DataSerializerHook {
         constructors[INDEX_ITERATION_POINTER] = IndexIterationPointer::new;
         constructors[MAP_FETCH_INDEX_OPERATION_RESULT] = MapFetchIndexOperationResult::new;
         constructors[MAP_CHUNK] = MapChunk::new;
+        constructors[ENTRY_EVENT_DATA_BATCH] = EntryEventDataBatch::new;
+        constructors[CONTINUOUS_AGGREGATION] = ContinuousAggregationOperation::new;
+        constructors[CONTINUOUS_AGGREGATION_FACTORY] = ContinuousAggregationOperationFactory::new;
+        constructors[REMOVE_CONTINUOUS_AGGREGATION] = RemoveContinuousAggregationOperation::new;
+        constructors[REMOVE_CONTINUOUS_AGGREGATION_BACKUP] = RemoveContinuousAggregationBackupOperation::new;
+        constructors[REMOVE_CONTINUOUS_AGGREGATION_FACTORY] = RemoveContinuousAggregationOperationFactory::new;
+        constructors[RESTORE_PERSISTED_ENTRIES] = RestorePersistedEntriesOperation::new;
+        constructors[RESTORE_PERSISTED_ENTRIES_BACKUP] = RestorePersistedEntriesBackupOperation::new;
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -46,6 +46,7 @@ public class MapManagedService implements ManagedService {
                     new ObjectNamespaceLockStoreInfoConstructorFunction());
         }
         mapServiceContext.initPartitionsContainers();
+        mapServiceContext.getMapPersistenceService().start();
     }
 
     @Override
@@ -21,6 +21,7 @@ import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkSuppliers;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
 import com.hazelcast.internal.partition.MigrationEndpoint;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
 import com.hazelcast.internal.partition.PartitionMigrationEvent;
@@ -42,10 +43,14 @@ import com.hazelcast.query.impl.IndexRegistry;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import static com.hazelcast.config.CacheDeserializedValues.NEVER;
@@ -54,6 +59,7 @@ import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.flushAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.removeAccumulator;
 import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sendEndOfSequenceEvents;
+import static java.util.Collections.singleton;
 
 /**
  * Defines migration behavior of map service.
@@ -61,7 +67,7 @@ import static com.hazelcast.map.impl.querycache.publisher.AccumulatorSweeper.sen
  * @see MapService
  */
 class MapMigrationAwareService
-        implements ChunkedMigrationAwareService, OffloadedReplicationPreparation {
+        implements ChunkedMigrationAwareService, DifferentialReplicationAwareService, OffloadedReplicationPreparation {
 
     protected final PartitionContainer[] containers;
     protected final MapServiceContext mapServiceContext;
@@ -138,19 +144,56 @@ class MapMigrationAwareService
 
         int partitionId = event.getPartitionId();
 
-        Operation operation = new MapReplicationOperation(containers[partitionId],
+        MapReplicationOperation operation = new MapReplicationOperation(containers[partitionId],
                 namespaces, partitionId, event.getReplicaIndex());
+        operation.setMerkleTreeDiffByMapName(getMerkleTreeDiffByMapName(event, namespaces));
         operation.setService(mapServiceContext.getService());
         operation.setNodeEngine(mapServiceContext.getNodeEngine());
 
         return operation;
     }
 
+    /**
+     * Compares the Merkle trees of the local record stores with the
+     * Merkle tree leaves sent by the replica being synchronized.
+     *
+     * @return the differing {@code [leafOrder, leafHash]} pairs per map,
+     * maps missing from the result are replicated fully
+     */
+    private Map<String, int[]> getMerkleTreeDiffByMapName(PartitionReplicationEvent event,
+                                                          Collection<ServiceNamespace> namespaces) {
+        Map<String, int[]> merkleTreeDiffByMapName = null;
+        for (ServiceNamespace namespace : namespaces) {
+            int[] replicaLeaves = event.getReplicaMerkleTreeLeaves(namespace);
+            if (replicaLeaves == null) {
+                continue;
+            }
+            String mapName = ((ObjectNamespace) namespace).getObjectName();
+            RecordStore recordStore = containers[event.getPartitionId()].getExistingRecordStore(mapName);
+            MerkleTree merkleTree = recordStore != null ? recordStore.getMerkleTree() : null;
+            int[] diff = merkleTree != null ? MerkleTreeUtil.compareLeaves(merkleTree, replicaLeaves) : null;
+            if (diff != null) {
+                if (merkleTreeDiffByMapName == null) {
+                    merkleTreeDiffByMapName = new HashMap<>();
+                }
+                merkleTreeDiffByMapName.put(mapName, diff);
+            }
+        }
+        return merkleTreeDiffByMapName;
+    }
+
     @Override
     public ChunkSupplier newChunkSupplier(PartitionReplicationEvent event,
                                           Collection<ServiceNamespace> namespaces) {
         List<ChunkSupplier> chain = new ArrayList<>(namespaces.size());
         for (ServiceNamespace namespace : namespaces) {
+            if (event.getReplicaMerkleTreeLeaves(namespace) != null) {
+                // differential replication sends only the differing
+                // leaves, which fit in a single replication operation
+                chain.add(ChunkSuppliers.newSingleChunkSupplier(
+                        () -> prepareReplicationOperation(event, singleton(namespace))));
+                continue;
+            }
             chain.add(new MapChunkSupplier(mapServiceContext, namespace,
                     event.getPartitionId(), event.getReplicaIndex()));
         }
@@ -158,6 +201,18 @@ class MapMigrationAwareService
         return ChunkSuppliers.newChainedChunkSupplier(chain);
     }
 
+    @Override
+    public int[] getMerkleTreeLeaves(int partitionId, ServiceNamespace namespace) {
+        String mapName = ((ObjectNamespace) namespace).getObjectName();
+        RecordStore recordStore = containers[partitionId].getExistingRecordStore(mapName);
+        if (recordStore == null || recordStore.size() == 0) {
+            // nothing to compare, full replication is cheaper
+            return null;
+        }
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        return merkleTree != null ? MerkleTreeUtil.getLeaves(merkleTree) : null;
+    }
+
     boolean assertAllKnownNamespaces(Collection<ServiceNamespace> namespaces) {
         for (ServiceNamespace namespace : namespaces) {
             assert isKnownServiceNamespace(namespace)
@@ -186,6 +241,8 @@ class MapMigrationAwareService
             partitionContainer.cleanUpOnMigration(event.getNewReplicaIndex());
         }
 
+        mapServiceContext.getMapPersistenceService().commitMigration(event);
+
         for (RecordStore recordStore : partitionContainer.getAllRecordStores()) {
             // in case the record store has been created without
             // loading during migration trigger again if loading
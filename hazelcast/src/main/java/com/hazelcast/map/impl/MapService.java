@@ -24,8 +24,10 @@ import com.hazelcast.internal.cluster.ClusterStateListener;
 import com.hazelcast.internal.metrics.DynamicMetricsProvider;
 import com.hazelcast.internal.metrics.MetricDescriptor;
 import com.hazelcast.internal.metrics.MetricsCollectionContext;
+import com.hazelcast.internal.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.internal.partition.ChunkSupplier;
 import com.hazelcast.internal.partition.ChunkedMigrationAwareService;
+import com.hazelcast.internal.partition.DifferentialReplicationAwareService;
 import com.hazelcast.internal.partition.IPartitionLostEvent;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.partition.OffloadedReplicationPreparation;
@@ -35,6 +37,7 @@ import com.hazelcast.internal.partition.PartitionReplicationEvent;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.services.ClientAwareService;
 import com.hazelcast.internal.services.DistributedObjectNamespace;
+import com.hazelcast.internal.services.GracefulShutdownAwareService;
 import com.hazelcast.internal.services.LockInterceptorService;
 import com.hazelcast.internal.services.ManagedService;
 import com.hazelcast.internal.services.NotifiableEventListener;
@@ -48,9 +51,12 @@ import com.hazelcast.internal.services.StatisticsAwareService;
 import com.hazelcast.internal.services.TenantContextAwareService;
 import com.hazelcast.internal.services.TransactionalService;
 import com.hazelcast.internal.services.WanSupportingService;
+import com.hazelcast.internal.util.LatencyHistogram;
 import com.hazelcast.internal.util.MutableLong;
 import com.hazelcast.map.LocalMapStats;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
+import com.hazelcast.map.impl.mapstore.MapStoreManager;
+import com.hazelcast.map.impl.mapstore.writebehind.WriteBehindManager;
 import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nearcache.NearCacheStats;
 import com.hazelcast.query.LocalIndexStats;
@@ -73,6 +79,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.core.EntryEventType.INVALIDATION;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_DISCRIMINATOR_NAME;
@@ -81,8 +88,11 @@ import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFI
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_ENTRY_PROCESSOR_OFFLOADABLE_EXECUTOR;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_INDEX;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_MAP_STORE_OFFLOADED_OPERATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_LATENCY;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_NEARCACHE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_PREFIX_WRITE_BEHIND;
 import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_TAG_INDEX;
+import static com.hazelcast.internal.metrics.impl.ProviderHelper.provideLatencies;
 
 /**
  * Defines map service behavior.
@@ -110,7 +120,8 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         SplitBrainProtectionAwareService, NotifiableEventListener,
         ClusterStateListener, LockInterceptorService<Data>,
         DynamicMetricsProvider, TenantContextAwareService,
-        OffloadedReplicationPreparation {
+        OffloadedReplicationPreparation, DifferentialReplicationAwareService,
+        GracefulShutdownAwareService {
 
     public static final String SERVICE_NAME = "hz:impl:mapService";
 
@@ -276,7 +287,15 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
     @Override
     public void onDeregister(Object service, String serviceName, String mapName, EventRegistration registration) {
         EventFilter filter = registration.getFilter();
-        if (!(filter instanceof EventListenerFilter) || !filter.eval(INVALIDATION.getType())) {
+        if (!(filter instanceof EventListenerFilter)) {
+            return;
+        }
+
+        if (((EventListenerFilter) filter).isEventBatching()) {
+            mapServiceContext.getMapEventPublisher().flushEventBatches(registration.getId());
+        }
+
+        if (!filter.eval(INVALIDATION.getType())) {
             return;
         }
 
@@ -284,6 +303,13 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         mapContainer.decreaseInvalidationListenerCount();
     }
 
+    @Override
+    public boolean onShutdown(long timeout, TimeUnit unit) {
+        // publishes the buffered entry events while the subscribers can still be reached
+        mapServiceContext.getMapEventPublisher().shutdownEventBatching();
+        return true;
+    }
+
     public int getMigrationStamp() {
         return migrationAwareService.getMigrationStamp();
     }
@@ -341,6 +367,12 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
                     .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapName);
             context.collect(dsDescriptor, localInstanceStats);
 
+            // operation latencies
+            if (localInstanceStats instanceof LocalMapStatsImpl) {
+                Map<String, LatencyHistogram> histograms = ((LocalMapStatsImpl) localInstanceStats).getLatencyHistograms();
+                provideLatencies(descriptor, context, MAP_PREFIX_LATENCY, MAP_DISCRIMINATOR_NAME, mapName, histograms);
+            }
+
             // index
             Map<String, LocalIndexStats> indexStats = localInstanceStats.getIndexStats();
             for (Map.Entry<String, LocalIndexStats> indexEntry : indexStats.entrySet()) {
@@ -374,6 +406,25 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
 
         // mapStore offloaded operations
         setMapStoreOffloadedOperationMetrics(descriptor, context);
+
+        // write-behind flushing
+        setWriteBehindMetrics(descriptor, context);
+    }
+
+    private void setWriteBehindMetrics(MetricDescriptor descriptor, MetricsCollectionContext context) {
+        for (MapContainer mapContainer : mapServiceContext.getMapContainers().values()) {
+            if (!mapContainer.getMapConfig().isStatisticsEnabled()) {
+                continue;
+            }
+            MapStoreManager mapStoreManager = mapContainer.getMapStoreContext().getMapStoreManager();
+            if (mapStoreManager instanceof WriteBehindManager) {
+                MetricDescriptor writeBehindDescriptor = descriptor
+                        .copy()
+                        .withPrefix(MAP_PREFIX_WRITE_BEHIND)
+                        .withDiscriminator(MAP_DISCRIMINATOR_NAME, mapContainer.getName());
+                context.collect(writeBehindDescriptor, ((WriteBehindManager) mapStoreManager).getStoreWorker());
+            }
+        }
     }
 
     private void setMapStoreOffloadedOperationMetrics(MetricDescriptor descriptor,
@@ -416,6 +467,11 @@ public class MapService implements ManagedService, ChunkedMigrationAwareService,
         return migrationAwareService.newChunkSupplier(event, namespace);
     }
 
+    @Override
+    public int[] getMerkleTreeLeaves(int partitionId, ServiceNamespace namespace) {
+        return migrationAwareService.getMerkleTreeLeaves(partitionId, namespace);
+    }
+
     /**
      * Looks up the User Code Namespace name associated with the specified map name. This starts
      * by looking for an existing {@link MapContainer} and checking its defined
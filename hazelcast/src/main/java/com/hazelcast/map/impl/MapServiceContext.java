@@ -23,12 +23,14 @@ import com.hazelcast.config.MapStoreConfig;
 import com.hazelcast.config.PartitioningAttributeConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.internal.util.comparators.ValueComparator;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
 import com.hazelcast.map.impl.journal.MapEventJournal;
+import com.hazelcast.map.impl.persistence.MapPersistenceService;
 import com.hazelcast.map.impl.mapstore.writebehind.NodeWideUsedCapacityCounter;
 import com.hazelcast.map.impl.nearcache.MapNearCacheManager;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
@@ -182,6 +184,8 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     MapEventJournal getEventJournal();
 
+    MapPersistenceService getMapPersistenceService();
+
     QueryEngine getQueryEngine(String name);
 
     QueryRunner getMapQueryRunner(String name);
@@ -232,6 +236,12 @@ public interface MapServiceContext extends MapServiceContextInterceptorSupport,
 
     NodeWideUsedCapacityCounter getNodeWideUsedCapacityCounter();
 
+    /**
+     * @return member-wide memory manager used by
+     * maps which have off-heap storage enabled
+     */
+    MemoryManager getOffHeapMemoryManager();
+
     ExecutorStats getOffloadedEntryProcessorExecutorStats();
 
     /**
@@ -22,6 +22,9 @@ import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.PartitioningAttributeConfig;
 import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.internal.eviction.ExpirationManager;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.internal.serialization.DataType;
@@ -43,6 +46,7 @@ import com.hazelcast.map.impl.event.MapEventPublisherImpl;
 import com.hazelcast.map.impl.eviction.MapClearExpiredRecordsTask;
 import com.hazelcast.map.impl.journal.MapEventJournal;
 import com.hazelcast.map.impl.journal.RingbufferMapEventJournalImpl;
+import com.hazelcast.map.impl.persistence.MapPersistenceService;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.writebehind.NodeWideUsedCapacityCounter;
@@ -69,6 +73,7 @@ import com.hazelcast.map.impl.querycache.NodeQueryCacheContext;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.recordstore.DefaultRecordStore;
 import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.listener.BatchingMapListener;
 import com.hazelcast.map.listener.MapPartitionLostListener;
 import com.hazelcast.partition.PartitioningStrategy;
 import com.hazelcast.query.impl.DefaultIndexProvider;
@@ -97,7 +102,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
+import static com.hazelcast.internal.cluster.Versions.V5_4;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
 import static com.hazelcast.internal.util.ConcurrencyUtil.CALLER_RUNS;
+import static com.hazelcast.internal.util.Preconditions.checkNotNegative;
 import static com.hazelcast.internal.util.Preconditions.checkPositive;
 import static com.hazelcast.internal.util.SetUtil.immutablePartitionIdSet;
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
@@ -111,6 +119,7 @@ import static com.hazelcast.spi.impl.operationservice.Operation.GENERIC_PARTITIO
 import static com.hazelcast.spi.properties.ClusterProperty.AGGREGATION_ACCUMULATION_PARALLEL_EVALUATION;
 import static com.hazelcast.spi.properties.ClusterProperty.INDEX_COPY_BEHAVIOR;
 import static com.hazelcast.spi.properties.ClusterProperty.OPERATION_CALL_TIMEOUT_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_MERKLE_TREE_REPLICA_SYNC_ENABLED;
 import static com.hazelcast.spi.properties.ClusterProperty.QUERY_PREDICATE_PARALLEL_EVALUATION;
 import static java.lang.Thread.currentThread;
 
@@ -128,6 +137,7 @@ class MapServiceContextImpl implements MapServiceContext {
     private final EventService eventService;
     private final QueryRunner mapQueryRunner;
     private final MapEventJournal eventJournal;
+    private final MapPersistenceService persistenceService;
     private final QueryOptimizer queryOptimizer;
     private final MapEventPublisher mapEventPublisher;
     private final QueryCacheContext queryCacheContext;
@@ -149,11 +159,14 @@ class MapServiceContextImpl implements MapServiceContext {
     private final ExecutorStats offloadedExecutorStats = new ExecutorStats();
     private final AtomicReference<PartitionIdSet> cachedOwnedPartitions = new AtomicReference<>();
 
+    private volatile MemoryManager offHeapMemoryManager;
+
     /**
      * @see {@link MapKeyLoader#DEFAULT_LOADED_KEY_LIMIT_PER_NODE}
      */
     private final Semaphore nodeWideLoadedKeyLimiter;
     private final boolean forceOffloadEnabled;
+    private final boolean merkleTreeReplicaSyncEnabled;
     private final long maxSuccessiveOffloadedOpRunNanos;
 
     private MapService mapService;
@@ -171,6 +184,7 @@ class MapServiceContextImpl implements MapServiceContext {
         this.localMapStatsProvider = createLocalMapStatsProvider();
         this.mapEventPublisher = createMapEventPublisherSupport();
         this.eventJournal = createEventJournal();
+        this.persistenceService = new MapPersistenceService(this);
         this.queryOptimizer = newOptimizer(nodeEngine.getProperties());
         this.resultProcessorRegistry = createResultProcessorRegistry(serializationService);
         this.partitionScanRunner = createPartitionScanRunner();
@@ -188,6 +202,8 @@ class MapServiceContextImpl implements MapServiceContext {
                 .getBoolean(FORCE_OFFLOAD_ALL_OPERATIONS);
         this.maxSuccessiveOffloadedOpRunNanos = nodeEngine.getProperties()
                 .getNanos(MAX_SUCCESSIVE_OFFLOADED_OP_RUN_NANOS);
+        this.merkleTreeReplicaSyncEnabled = nodeEngine.getProperties()
+                .getBoolean(PARTITION_MERKLE_TREE_REPLICA_SYNC_ENABLED);
         if (this.forceOffloadEnabled) {
             logger.info("Force offload is enabled for all maps. This "
                     + "means all map operations will run as if they have map-store configured. "
@@ -499,14 +515,19 @@ class MapServiceContextImpl implements MapServiceContext {
 
     @Override
     public void reset() {
+        mapEventPublisher.flushEventBatches();
         removeAllRecordStoresOfAllMaps(false, false);
+        disposeOffHeapMemoryManager();
         mapNearCacheManager.reset();
         offloadedExecutorStats.clear();
     }
 
     @Override
     public void shutdown() {
+        mapEventPublisher.shutdownEventBatching();
+        persistenceService.shutdown();
         removeAllRecordStoresOfAllMaps(true, false);
+        disposeOffHeapMemoryManager();
         mapNearCacheManager.shutdown();
         mapContainers.clear();
         expirationManager.onShutdown();
@@ -575,6 +596,11 @@ class MapServiceContextImpl implements MapServiceContext {
         return eventJournal;
     }
 
+    @Override
+    public MapPersistenceService getMapPersistenceService() {
+        return persistenceService;
+    }
+
     @Override
     public QueryEngine getQueryEngine(String mapName) {
         return queryEngine;
@@ -767,7 +793,7 @@ class MapServiceContextImpl implements MapServiceContext {
 
     private EventRegistration addListenerInternal(Object listener, EventFilter filter, String mapName, boolean local) {
         ListenerAdapter listenerAdaptor = createListenerAdapter(listener);
-        filter = adoptEventFilter(filter, listenerAdaptor);
+        filter = adoptEventFilter(filter, listenerAdaptor, listener, local);
 
         if (local) {
             return eventService.registerLocalListener(SERVICE_NAME, mapName, filter, listenerAdaptor);
@@ -778,19 +804,36 @@ class MapServiceContextImpl implements MapServiceContext {
 
     private CompletableFuture<UUID> addListenerInternalAsync(Object listener, EventFilter filter, String mapName) {
         ListenerAdapter listenerAdaptor = createListenerAdapter(listener);
-        filter = adoptEventFilter(filter, listenerAdaptor);
+        filter = adoptEventFilter(filter, listenerAdaptor, listener, false);
         return eventService.registerListenerAsync(SERVICE_NAME, mapName, filter, listenerAdaptor)
                 .thenApplyAsync(EventRegistration::getId, CALLER_RUNS);
     }
 
-    private EventFilter adoptEventFilter(EventFilter filter, ListenerAdapter listenerAdaptor) {
+    private EventFilter adoptEventFilter(EventFilter filter, ListenerAdapter listenerAdaptor,
+                                         Object listener, boolean local) {
         if (!(filter instanceof EventListenerFilter)) {
             int enabledListeners = setAndGetListenerFlags(listenerAdaptor);
-            filter = new EventListenerFilter(enabledListeners, filter);
+            filter = listener instanceof BatchingMapListener && canBatchEvents(local)
+                    ? newBatchingEventListenerFilter(enabledListeners, filter, (BatchingMapListener) listener)
+                    : new EventListenerFilter(enabledListeners, filter);
         }
         return filter;
     }
 
+    private boolean canBatchEvents(boolean local) {
+        // RU_COMPAT_5_3
+        return local || nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(V5_4);
+    }
+
+    private static EventFilter newBatchingEventListenerFilter(int enabledListeners, EventFilter filter,
+                                                              BatchingMapListener listener) {
+        int batchSize = checkPositive("eventBatchSize", listener.getEventBatchSize());
+        long batchDelayMillis = checkNotNegative(listener.getEventBatchDelayMillis(),
+                "eventBatchDelayMillis must not be negative");
+        return new EventListenerFilter(enabledListeners, filter, batchSize, batchDelayMillis,
+                listener.isEventCoalescingEnabled());
+    }
+
     @Override
     public boolean removeEventListener(String mapName, UUID registrationId) {
         return eventService.deregisterListener(SERVICE_NAME, mapName, registrationId);
@@ -931,6 +974,42 @@ class MapServiceContextImpl implements MapServiceContext {
         return nodeWideUsedCapacityCounter;
     }
 
+    @Override
+    public MemoryManager getOffHeapMemoryManager() {
+        MemoryManager memoryManager = offHeapMemoryManager;
+        if (memoryManager == null) {
+            synchronized (this) {
+                memoryManager = offHeapMemoryManager;
+                if (memoryManager == null) {
+                    memoryManager = new MemoryManagerBean(new UnsafeMemoryAllocator(), MEM);
+                    offHeapMemoryManager = memoryManager;
+                }
+            }
+        }
+        return memoryManager;
+    }
+
+    /**
+     * Disposes the off-heap memory manager once the record stores using it
+     * are destroyed. A new one is created if off-heap storage is used again.
+     */
+    private synchronized void disposeOffHeapMemoryManager() {
+        if (offHeapMemoryManager != null) {
+            offHeapMemoryManager.dispose();
+            offHeapMemoryManager = null;
+        }
+    }
+
+    @Override
+    public boolean shouldEnableMerkleTree(MapConfig mapConfig, boolean log) {
+        // trees are kept over on-heap entries only, they are used to
+        // synchronize stale backup replicas with a delta when opted in
+        return merkleTreeReplicaSyncEnabled
+                && Boolean.TRUE.equals(mapConfig.getMerkleTreeConfig().getEnabled())
+                && mapConfig.getInMemoryFormat() != InMemoryFormat.NATIVE
+                && !mapConfig.isOffHeapStorageEnabled();
+    }
+
     // used only for testing purposes
     PartitioningStrategyFactory getPartitioningStrategyFactory() {
         return partitioningStrategyFactory;
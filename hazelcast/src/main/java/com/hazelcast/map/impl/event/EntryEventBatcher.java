@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.event;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.util.Clock;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.EventListenerFilter;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.eventservice.EventRegistration;
+import com.hazelcast.spi.impl.eventservice.EventService;
+import com.hazelcast.spi.properties.HazelcastProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Buffers the entry events of the registrations which have event batching
+ * enabled and publishes them as {@link EntryEventDataBatch}es.
+ * <p>
+ * The events are buffered per registration and partition. A buffer is
+ * published by the thread which fills it up to the batch size, or by a
+ * periodic flush task once the oldest buffered event is older than the
+ * batch delay of the registration. A buffer is published while holding its
+ * lock and the partition ID is used as the order key, so the events of a
+ * key are still delivered in order.
+ * <p>
+ * When coalescing is enabled, a buffer keeps only the latest event of each
+ * key.
+ */
+public class EntryEventBatcher {
+
+    /**
+     * Period of the task which publishes the event batches whose batch delay
+     * has passed. This is the resolution of the batch delay.
+     */
+    public static final String PROP_FLUSH_PERIOD_MILLIS = "hazelcast.map.event.batch.flush.period.millis";
+    public static final HazelcastProperty FLUSH_PERIOD_MILLIS
+            = new HazelcastProperty(PROP_FLUSH_PERIOD_MILLIS, 10, MILLISECONDS);
+
+    /**
+     * Maximum number of entry events in a batch published to the member a
+     * client map listener is registered on. The client protocol has no batch
+     * event, so the member still sends the events to the client one by one,
+     * but the members exchange them in batches. Batching of client listener
+     * events is disabled if it's {@code 0}, which is the default.
+     */
+    public static final String PROP_CLIENT_EVENT_BATCH_SIZE = "hazelcast.map.event.batch.client.size";
+    public static final HazelcastProperty CLIENT_EVENT_BATCH_SIZE
+            = new HazelcastProperty(PROP_CLIENT_EVENT_BATCH_SIZE, 0);
+
+    /**
+     * Maximum time an entry event of a client map listener is buffered
+     * before its batch is published, see {@link #CLIENT_EVENT_BATCH_SIZE}.
+     */
+    public static final String PROP_CLIENT_EVENT_BATCH_DELAY_MILLIS = "hazelcast.map.event.batch.client.delay.millis";
+    public static final HazelcastProperty CLIENT_EVENT_BATCH_DELAY_MILLIS
+            = new HazelcastProperty(PROP_CLIENT_EVENT_BATCH_DELAY_MILLIS, 100, MILLISECONDS);
+
+    /**
+     * If enabled, only the latest entry event of each key in a batch is
+     * published to a client map listener, see {@link #CLIENT_EVENT_BATCH_SIZE}.
+     */
+    public static final String PROP_CLIENT_EVENT_COALESCING = "hazelcast.map.event.batch.client.coalescing";
+    public static final HazelcastProperty CLIENT_EVENT_COALESCING
+            = new HazelcastProperty(PROP_CLIENT_EVENT_COALESCING, false);
+
+    private final EventService eventService;
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final int partitionCount;
+    private final AtomicBoolean flushTaskStarted = new AtomicBoolean();
+    private final ConcurrentMap<UUID, RegistrationBuffers> buffersByRegistration = new ConcurrentHashMap<>();
+    private volatile boolean shutdown;
+
+    public EntryEventBatcher(NodeEngine nodeEngine) {
+        this.nodeEngine = nodeEngine;
+        this.eventService = nodeEngine.getEventService();
+        this.logger = nodeEngine.getLogger(EntryEventBatcher.class);
+        this.partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+    }
+
+    /**
+     * Adds the event to the buffer of the registration for the partition.
+     * The buffer is published if it reached the batch size.
+     *
+     * @param mapName      the map name
+     * @param registration the registration the event is published to
+     * @param filter       the batching filter of the registration
+     * @param partitionId  the partition ID of the event key
+     * @param eventData    the event to publish
+     */
+    public void add(String mapName, EventRegistration registration, EventListenerFilter filter, int partitionId,
+                    EntryEventData eventData) {
+        startFlushTaskIfNeeded();
+        RegistrationBuffers buffers = buffersByRegistration.computeIfAbsent(registration.getId(),
+                id -> new RegistrationBuffers(mapName, registration, filter));
+        buffers.getOrCreate(partitionId).add(eventData, Clock.currentTimeMillis());
+    }
+
+    private void startFlushTaskIfNeeded() {
+        if (!flushTaskStarted.get() && flushTaskStarted.compareAndSet(false, true)) {
+            long periodMillis = nodeEngine.getProperties().getMillis(FLUSH_PERIOD_MILLIS);
+            nodeEngine.getExecutionService()
+                    .scheduleWithRepetition(this::flushDueBatches, periodMillis, periodMillis, MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publishes the buffers whose batch delay has passed and drops the
+     * buffers of the registrations which no longer exist.
+     */
+    void flushDueBatches() {
+        long now = Clock.currentTimeMillis();
+        for (RegistrationBuffers buffers : buffersByRegistration.values()) {
+            try {
+                if (isRegistered(buffers.mapName, buffers.registration)) {
+                    buffers.flushDue(now);
+                } else {
+                    buffersByRegistration.remove(buffers.registration.getId(), buffers);
+                }
+            } catch (Exception e) {
+                logger.warning("Event batch publication error for registration: " + buffers.registration, e);
+            }
+        }
+    }
+
+    /**
+     * Publishes the buffered events of the registration and drops its
+     * buffers. Called when the registration is removed, so the events
+     * published before the removal are not lost.
+     *
+     * @param registrationId the ID of the registration
+     */
+    public void flush(UUID registrationId) {
+        RegistrationBuffers buffers = buffersByRegistration.remove(registrationId);
+        if (buffers != null) {
+            buffers.flushAll();
+        }
+    }
+
+    /**
+     * Publishes the buffered events of all registrations and drops the
+     * buffers. Called when the map service is shut down or reset.
+     */
+    public void flushAll() {
+        for (UUID registrationId : buffersByRegistration.keySet()) {
+            try {
+                flush(registrationId);
+            } catch (Exception e) {
+                logger.warning("Event batch publication error for registration: " + registrationId, e);
+            }
+        }
+    }
+
+    /**
+     * Publishes the buffered events of all registrations and stops batching,
+     * the events added afterwards are published right away. Called when the
+     * member shuts down, while the other members can still be reached.
+     */
+    public void shutdown() {
+        shutdown = true;
+        flushAll();
+    }
+
+    private boolean isRegistered(String mapName, EventRegistration registration) {
+        Collection<EventRegistration> registrations = eventService.getRegistrations(SERVICE_NAME, mapName);
+        for (EventRegistration current : registrations) {
+            if (current.getId().equals(registration.getId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class RegistrationBuffers {
+
+        private final String mapName;
+        private final EventRegistration registration;
+        private final EventListenerFilter filter;
+        private final AtomicReferenceArray<EventBuffer> buffers = new AtomicReferenceArray<>(partitionCount);
+
+        RegistrationBuffers(String mapName, EventRegistration registration, EventListenerFilter filter) {
+            this.mapName = mapName;
+            this.registration = registration;
+            this.filter = filter;
+        }
+
+        EventBuffer getOrCreate(int partitionId) {
+            EventBuffer buffer = buffers.get(partitionId);
+            if (buffer == null) {
+                buffer = new EventBuffer(mapName, registration, filter, partitionId);
+                if (!buffers.compareAndSet(partitionId, null, buffer)) {
+                    buffer = buffers.get(partitionId);
+                }
+            }
+            return buffer;
+        }
+
+        void flushDue(long now) {
+            for (int i = 0; i < partitionCount; i++) {
+                EventBuffer buffer = buffers.get(i);
+                if (buffer != null) {
+                    buffer.flushIfDue(now);
+                }
+            }
+        }
+
+        void flushAll() {
+            for (int i = 0; i < partitionCount; i++) {
+                EventBuffer buffer = buffers.get(i);
+                if (buffer != null) {
+                    buffer.flushIfNotEmpty();
+                }
+            }
+        }
+    }
+
+    private final class EventBuffer {
+
+        private final String mapName;
+        private final EventRegistration registration;
+        private final int partitionId;
+        private final int batchSize;
+        private final long batchDelayMillis;
+        private final Map<Data, EntryEventData> coalescedEvents;
+        private final List<EntryEventData> events;
+        private long firstEventTimeMillis;
+
+        EventBuffer(String mapName, EventRegistration registration, EventListenerFilter filter, int partitionId) {
+            this.mapName = mapName;
+            this.registration = registration;
+            this.partitionId = partitionId;
+            this.batchSize = filter.getEventBatchSize();
+            this.batchDelayMillis = filter.getEventBatchDelayMillis();
+            this.coalescedEvents = filter.isEventCoalescing() ? new LinkedHashMap<>() : null;
+            this.events = filter.isEventCoalescing() ? null : new ArrayList<>();
+        }
+
+        synchronized void add(EntryEventData eventData, long now) {
+            if (size() == 0) {
+                firstEventTimeMillis = now;
+            }
+            if (coalescedEvents != null) {
+                // re-insert to keep the buffer in the order of the latest events
+                coalescedEvents.remove(eventData.getDataKey());
+                coalescedEvents.put(eventData.getDataKey(), eventData);
+            } else {
+                events.add(eventData);
+            }
+            if (size() >= batchSize || shutdown) {
+                flush();
+            }
+        }
+
+        synchronized void flushIfDue(long now) {
+            if (size() > 0 && now - firstEventTimeMillis >= batchDelayMillis) {
+                flush();
+            }
+        }
+
+        synchronized void flushIfNotEmpty() {
+            if (size() > 0) {
+                flush();
+            }
+        }
+
+        private int size() {
+            return coalescedEvents != null ? coalescedEvents.size() : events.size();
+        }
+
+        private void flush() {
+            List<EntryEventData> batch;
+            if (coalescedEvents != null) {
+                batch = new ArrayList<>(coalescedEvents.values());
+                coalescedEvents.clear();
+            } else {
+                batch = new ArrayList<>(events);
+                events.clear();
+            }
+            eventService.publishEvent(SERVICE_NAME, registration,
+                    new EntryEventDataBatch(mapName, batch), partitionId);
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.hazelcast.internal.serialization.Data;
 import com.hazelcast.map.impl.wan.WanMapEntryView;
 
 import javax.annotation.Nonnull;
+import java.util.UUID;
 
 /**
  * Helper methods for publishing events related to map
@@ -119,4 +120,25 @@ public interface MapEventPublisher {
      * registered for the specified {@code mapName}.
      */
     boolean hasEventListener(String mapName);
+
+    /**
+     * Publishes the entry events buffered for the batching listener
+     * registration, see {@link com.hazelcast.map.listener.BatchingMapListener}.
+     *
+     * @param registrationId the ID of the removed registration
+     */
+    void flushEventBatches(UUID registrationId);
+
+    /**
+     * Publishes the entry events buffered for all batching listener
+     * registrations.
+     */
+    void flushEventBatches();
+
+    /**
+     * Publishes the entry events buffered for all batching listener
+     * registrations and stops batching, the entry events are published
+     * one by one afterwards. Called when the member shuts down.
+     */
+    void shutdownEventBatching();
 }
@@ -46,6 +46,7 @@ import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.UUID;
 
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
@@ -77,6 +78,7 @@ public class MapEventPublisherImpl implements MapEventPublisher {
     protected final FilteringStrategy filteringStrategy;
     protected final InternalSerializationService serializationService;
     protected final QueryCacheEventPublisher queryCacheEventPublisher;
+    protected final EntryEventBatcher entryEventBatcher;
     protected final ILogger logger;
 
     public MapEventPublisherImpl(MapServiceContext mapServiceContext) {
@@ -94,6 +96,7 @@ public class MapEventPublisherImpl implements MapEventPublisher {
         }
         this.queryCacheEventPublisher = new QueryCacheEventPublisher(filteringStrategy,
                 mapServiceContext.getQueryCacheContext(), serializationService);
+        this.entryEventBatcher = new EntryEventBatcher(nodeEngine);
     }
 
     @Override
@@ -249,7 +252,12 @@ public class MapEventPublisherImpl implements MapEventPublisher {
             EntryEventData eventDataToBePublished = eventDataCache
                     .getOrCreateEventData(mapName, caller, dataKey, newValue, oldValue, mergingValue, eventTypeForPublishing,
                             isIncludeValue(filter));
-            eventService.publishEvent(SERVICE_NAME, registration, eventDataToBePublished, orderKey);
+            if (isEventBatching(filter)) {
+                entryEventBatcher.add(mapName, registration, (EventListenerFilter) filter,
+                        partitionService.getPartitionId(dataKey), eventDataToBePublished);
+            } else {
+                eventService.publishEvent(SERVICE_NAME, registration, eventDataToBePublished, orderKey);
+            }
         } catch (Exception ex) {
             logger.warning("Event publication error for registration: " + registration, ex);
         }
@@ -277,6 +285,10 @@ public class MapEventPublisherImpl implements MapEventPublisher {
         }
     }
 
+    private static boolean isEventBatching(EventFilter filter) {
+        return filter instanceof EventListenerFilter && ((EventListenerFilter) filter).isEventBatching();
+    }
+
     /**
      * Return {@code true} if the {@code filter} requires the entry
      * values (old, new, merging) to be included in the event.
@@ -334,6 +346,21 @@ public class MapEventPublisherImpl implements MapEventPublisher {
         return eventService.hasEventRegistration(SERVICE_NAME, mapName);
     }
 
+    @Override
+    public void flushEventBatches(UUID registrationId) {
+        entryEventBatcher.flush(registrationId);
+    }
+
+    @Override
+    public void flushEventBatches() {
+        entryEventBatcher.flushAll();
+    }
+
+    @Override
+    public void shutdownEventBatching() {
+        entryEventBatcher.shutdown();
+    }
+
     /**
      * Return all listener registrations for the map with {@code mapName}.
      *
@@ -74,6 +74,8 @@ public class MapEventPublishingService implements EventPublishingService<Object,
                 dispatchLocalEventData(((LocalCacheWideEventData) eventData), listener);
             } else if (eventData instanceof EntryEventData) {
                 dispatchEntryEventData((EntryEventData) eventData, listener);
+            } else if (eventData instanceof EntryEventDataBatch) {
+                dispatchEntryEventDataBatch((EntryEventDataBatch) eventData, listener);
             } else if (eventData instanceof MapEventData) {
                 dispatchMapEventData((MapEventData) eventData, listener);
             } else if (eventData instanceof MapPartitionEventData) {
@@ -95,6 +97,8 @@ public class MapEventPublishingService implements EventPublishingService<Object,
             mapName = ((EventData) eventData).getMapName();
         } else if (eventData instanceof IMapEvent) {
             mapName = ((IMapEvent) eventData).getName();
+        } else if (eventData instanceof EntryEventDataBatch) {
+            mapName = ((EntryEventDataBatch) eventData).getMapName();
         } else {
             throw new IllegalArgumentException("Unknown event data type: " + eventData.getClass());
         }
@@ -193,6 +197,12 @@ public class MapEventPublishingService implements EventPublishingService<Object,
         callListener(listener, event);
     }
 
+    private void dispatchEntryEventDataBatch(EntryEventDataBatch batch, ListenerAdapter listener) {
+        for (EntryEventData entryEventData : batch.getEvents()) {
+            dispatchEntryEventData(entryEventData, listener);
+        }
+    }
+
     private Member getMember(EventData eventData) {
         Member member = nodeEngine.getClusterService().getMember(eventData.getCaller());
         if (member == null) {
@@ -85,4 +85,25 @@ public interface Evictor {
      */
     boolean checkEvictable(RecordStore recordStore);
 
+    /**
+     * Notifies this evictor about an access to an entry of the
+     * supplied record-store, either a read or a write. Used by
+     * frequency based eviction policies, others ignore it.
+     *
+     * @param recordStore the recordStore
+     * @param key         the key of the accessed entry
+     */
+    default void onEntryAccess(RecordStore recordStore, Data key) {
+    }
+
+    /**
+     * Notifies this evictor that the supplied record-store
+     * was reset or destroyed, e.g. because its partition
+     * migrated away. Evictors which keep state per
+     * partition release it, others ignore it.
+     *
+     * @param recordStore the recordStore
+     */
+    default void onReset(RecordStore recordStore) {
+    }
 }
@@ -40,7 +40,7 @@ public class EvictorImpl implements Evictor {
     protected final EvictionPolicyComparator policy;
     protected final IPartitionService partitionService;
 
-    private final int batchSize;
+    protected final int batchSize;
 
     public EvictorImpl(EvictionPolicyComparator policy,
                        EvictionChecker evictionChecker, int batchSize,
@@ -63,7 +63,7 @@ public class EvictorImpl implements Evictor {
             if (entryView == null) {
                 return;
             }
-            evictEntry(recordStore, entryView, now, backup);
+            evictEntry(recordStore, getDataKeyFromEntryView(entryView), now, backup);
         }
     }
 
@@ -72,9 +72,8 @@ public class EvictorImpl implements Evictor {
         // NOP.
     }
 
-    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
-    private EntryView selectEvictableEntry(RecordStore recordStore, Data excludedKey,
-                                           long now, boolean backup) {
+    protected EntryView selectEvictableEntry(RecordStore recordStore, Data excludedKey,
+                                             long now, boolean backup) {
         EntryView excluded = null;
         EntryView selected = null;
 
@@ -94,7 +93,7 @@ public class EvictorImpl implements Evictor {
             }
 
             if (selected == null
-                    || policy.compare(current, selected) < 0) {
+                    || isMoreEligible(recordStore, current, selected)) {
                 selected = current;
             }
         }
@@ -102,10 +101,17 @@ public class EvictorImpl implements Evictor {
         return selected == null ? excluded : selected;
     }
 
-    private void evictEntry(RecordStore recordStore, EntryView selectedEntry,
-                            long now, boolean backup) {
-        Data dataKey = getDataKeyFromEntryView(selectedEntry);
+    /**
+     * @return {@code true} if {@code current} should rather be evicted
+     * than {@code selected}
+     */
+    @SuppressWarnings("checkstyle:rvcheckcomparetoforspecificreturnvalue")
+    protected boolean isMoreEligible(RecordStore recordStore, EntryView current, EntryView selected) {
+        return policy.compare(current, selected) < 0;
+    }
 
+    protected void evictEntry(RecordStore recordStore, Data dataKey,
+                              long now, boolean backup) {
         if (recordStore.isLocked(dataKey)) {
             return;
         }
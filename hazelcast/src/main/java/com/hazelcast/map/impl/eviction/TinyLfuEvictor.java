@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.eviction;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.eviction.impl.evaluator.FrequencySketch;
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.eviction.EvictionPolicyComparator;
+
+import static com.hazelcast.internal.util.ThreadUtil.assertRunningOnPartitionThread;
+
+/**
+ * {@link Evictor} of the {@link com.hazelcast.config.EvictionPolicy#W_TINY_LFU}
+ * policy.
+ * <p>
+ * Keeps a {@link FrequencySketch} per partition which records every read
+ * and write of an entry, and also reads of missing keys. The sampled entry
+ * with the lowest estimated frequency is evicted, the recency based {@code
+ * policy} breaks ties.
+ * <p>
+ * The entry whose addition triggered the eviction is never evicted, since
+ * that would silently drop a successful put. It becomes the admission
+ * candidate of its partition instead: on the next eviction it is evicted
+ * rather than the sampled victim unless it is estimated to be accessed more
+ * often, so the hot entries survive a scan of one-hit-wonders. A key which
+ * was requested often before it was put starts with a high estimate and is
+ * admitted.
+ * <p>
+ * The sketches and the candidates are only accessed from the partition
+ * threads.
+ */
+public class TinyLfuEvictor extends EvictorImpl {
+
+    private final FrequencySketch[] sketches;
+    private final Data[] candidates;
+
+    public TinyLfuEvictor(EvictionPolicyComparator policy,
+                          EvictionChecker evictionChecker, int batchSize,
+                          IPartitionService partitionService) {
+        super(policy, evictionChecker, batchSize, partitionService);
+        this.sketches = new FrequencySketch[partitionService.getPartitionCount()];
+        this.candidates = new Data[partitionService.getPartitionCount()];
+    }
+
+    @Override
+    public void evict(RecordStore recordStore, Data excludedKey) {
+        assertRunningOnPartitionThread();
+
+        int partitionId = recordStore.getPartitionId();
+        Data candidateKey = candidates[partitionId];
+        if (excludedKey != null) {
+            candidates[partitionId] = excludedKey;
+        }
+        long now = getNow();
+        boolean backup = isBackup(recordStore);
+        for (int i = 0; i < batchSize; i++) {
+            EntryView entryView = selectEvictableEntry(recordStore, excludedKey, now, backup);
+            if (entryView == null) {
+                return;
+            }
+            Data victimKey = getDataKeyFromEntryView(entryView);
+            if (victimKey.equals(excludedKey)) {
+                // only the excluded entry was sampled
+                return;
+            }
+            if (i == 0 && !admit(getSketch(recordStore), recordStore, candidateKey, victimKey, excludedKey, now, backup)) {
+                victimKey = candidateKey;
+            }
+            evictEntry(recordStore, victimKey, now, backup);
+        }
+    }
+
+    @Override
+    public void onEntryAccess(RecordStore recordStore, Data key) {
+        FrequencySketch sketch = getSketch(recordStore);
+        sketch.ensureCapacity(recordStore.size());
+        sketch.increment(key.hashCode());
+    }
+
+    @Override
+    public void onReset(RecordStore recordStore) {
+        // don't keep the evicted or migrated keys reachable
+        int partitionId = recordStore.getPartitionId();
+        candidates[partitionId] = null;
+        sketches[partitionId] = null;
+    }
+
+    @Override
+    protected boolean isMoreEligible(RecordStore recordStore, EntryView current, EntryView selected) {
+        FrequencySketch sketch = getSketch(recordStore);
+        int currentFrequency = sketch.frequency(getDataKeyFromEntryView(current).hashCode());
+        int selectedFrequency = sketch.frequency(getDataKeyFromEntryView(selected).hashCode());
+        if (currentFrequency != selectedFrequency) {
+            return currentFrequency < selectedFrequency;
+        }
+        return super.isMoreEligible(recordStore, current, selected);
+    }
+
+    // package-private for testing
+    Data getCandidate(RecordStore recordStore) {
+        return candidates[recordStore.getPartitionId()];
+    }
+
+    // package-private for testing
+    FrequencySketch getSketch(RecordStore recordStore) {
+        int partitionId = recordStore.getPartitionId();
+        FrequencySketch sketch = sketches[partitionId];
+        if (sketch == null) {
+            sketch = new FrequencySketch();
+            sketches[partitionId] = sketch;
+        }
+        return sketch;
+    }
+
+    /**
+     * @return {@code true} if the previous admission candidate should be kept
+     * and the sampled victim evicted
+     */
+    private static boolean admit(FrequencySketch sketch, RecordStore recordStore, Data candidateKey,
+                                 Data victimKey, Data excludedKey, long now, boolean backup) {
+        if (candidateKey == null || candidateKey.equals(victimKey) || candidateKey.equals(excludedKey)) {
+            return true;
+        }
+        if (!recordStore.existInMemory(candidateKey) || recordStore.isExpired(victimKey, now, backup)) {
+            return true;
+        }
+        return sketch.frequency(candidateKey.hashCode()) > sketch.frequency(victimKey.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuEvictor{"
+                + ", evictionPolicyComparator=" + policy
+                + ", batchSize=" + batchSize
+                + '}';
+    }
+}
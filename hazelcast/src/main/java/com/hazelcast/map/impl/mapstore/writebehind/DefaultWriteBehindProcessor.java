@@ -20,6 +20,7 @@ import com.hazelcast.map.EntryLoader.MetadataAwareValue;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.spi.properties.HazelcastProperties;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -32,6 +33,7 @@ import java.util.Set;
 
 import static com.hazelcast.internal.util.CollectionUtil.isNotEmpty;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -52,9 +54,37 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
 
     private final List<StoreListener> storeListeners;
 
+    /**
+     * Target latency of a batch store operation, {@code 0} if the batch size
+     * is not adapted.
+     *
+     * @see #adaptWriteBatchSize(int, long)
+     */
+    private final long targetBatchLatencyNanos;
+
+    /**
+     * Current write batch size, between {@code 1} and {@link #writeBatchSize}.
+     * Updated concurrently by the flush workers, a lost update only delays
+     * the adaptation.
+     */
+    private volatile int currentWriteBatchSize;
+
     DefaultWriteBehindProcessor(MapStoreContext mapStoreContext) {
         super(mapStoreContext);
         this.storeListeners = new ArrayList<>(2);
+        HazelcastProperties properties = mapStoreContext.getMapServiceContext().getNodeEngine().getProperties();
+        this.targetBatchLatencyNanos = properties.getNanos(MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS);
+        this.currentWriteBatchSize = writeBatchSize;
+    }
+
+    /**
+     * Returns the current write batch size, which is the configured write
+     * batch size unless it is adapted to the store latency.
+     *
+     * @return the current write batch size
+     */
+    int getCurrentWriteBatchSize() {
+        return currentWriteBatchSize;
     }
 
     @Override
@@ -308,18 +338,44 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
      */
     private Map<Integer, List<DelayedEntry>> doStoreUsingBatchSize(List<DelayedEntry> sortedDelayedEntries) {
         Map<Integer, List<DelayedEntry>> failsPerPartition = new HashMap<>();
-        int page = 0;
-        List<DelayedEntry> delayedEntryList;
-        while ((delayedEntryList = getBatchChunk(sortedDelayedEntries, writeBatchSize, page++)) != null) {
+        int start = 0;
+        while (start < sortedDelayedEntries.size()) {
+            int batchSize = currentWriteBatchSize;
+            int end = Math.min(start + batchSize, sortedDelayedEntries.size());
+            List<DelayedEntry> delayedEntryList = sortedDelayedEntries.subList(start, end);
+            long startNanos = System.nanoTime();
             Map<Integer, List<DelayedEntry>> fails = processInternal(delayedEntryList);
+            adaptWriteBatchSize(delayedEntryList.size(), System.nanoTime() - startNanos);
             Set<Map.Entry<Integer, List<DelayedEntry>>> entries = fails.entrySet();
             for (Map.Entry<Integer, List<DelayedEntry>> entry : entries) {
                 addFailsTo(failsPerPartition, entry.getValue());
             }
+            start = end;
         }
         return failsPerPartition;
     }
 
+    /**
+     * Adapts the write batch size to the latency of the last batch: the
+     * size is halved when the batch took longer than the target and it is
+     * increased additively, up to the configured write batch size, when a
+     * full batch took less than half of the target.
+     *
+     * @param batchSize    size of the last batch
+     * @param latencyNanos latency of the last batch
+     */
+    private void adaptWriteBatchSize(int batchSize, long latencyNanos) {
+        if (targetBatchLatencyNanos <= 0) {
+            return;
+        }
+        int current = currentWriteBatchSize;
+        if (latencyNanos > targetBatchLatencyNanos) {
+            currentWriteBatchSize = Math.max(1, current >> 1);
+        } else if (batchSize >= current && latencyNanos < targetBatchLatencyNanos >> 1) {
+            currentWriteBatchSize = Math.min(writeBatchSize, current + Math.max(1, writeBatchSize >> 3));
+        }
+    }
+
     private List<DelayedEntry> retryCall(RetryTask task) {
         boolean result = false;
         Exception exception = null;
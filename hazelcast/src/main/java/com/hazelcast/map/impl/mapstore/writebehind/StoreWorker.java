@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.mapstore.writebehind;
 
 import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.mapstore.MapDataStore;
@@ -35,8 +36,21 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_FAILED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_FLUSH_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_LAG;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_QUEUE_SIZE;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_STORED_ENTRY_COUNT;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.MAP_METRIC_WRITE_BEHIND_WRITE_BATCH_SIZE;
+import static com.hazelcast.internal.metrics.ProbeUnit.MS;
 import static com.hazelcast.internal.util.CollectionUtil.isEmpty;
+import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
+import static com.hazelcast.spi.impl.executionservice.ExecutionService.MAP_WRITE_BEHIND_EXECUTOR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_FLUSH_CONCURRENCY;
 import static java.lang.Thread.currentThread;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -45,7 +59,13 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * That thread uses this runnable task to process write-behind-queues. This task collects entries from
  * write behind queues and passes them to {@link #writeBehindProcessor}.
  * <p>
- * Only one {@link StoreWorker} task is created for a map on a member.
+ * Only one {@link StoreWorker} task is created for a map on a member. When the
+ * {@link com.hazelcast.spi.properties.ClusterProperty#MAP_WRITE_BEHIND_FLUSH_CONCURRENCY
+ * flush concurrency} is greater than one, the owned partitions are striped over
+ * that many flush workers which store their entries concurrently on the
+ * {@link com.hazelcast.spi.impl.executionservice.ExecutionService#MAP_WRITE_BEHIND_EXECUTOR
+ * write-behind executor}. The entries of a partition are always stored by the
+ * same worker, so their order is preserved.
  */
 public class StoreWorker implements Runnable {
     private final String mapName;
@@ -59,6 +79,22 @@ public class StoreWorker implements Runnable {
     private final long backupDelayMillis;
     private final long writeDelayMillis;
     private final int partitionCount;
+    private final int flushConcurrency;
+    private final AtomicLong storedEntryCount = new AtomicLong();
+    private final AtomicLong failedEntryCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    /**
+     * Number of entries in the write-behind queues of the owned partitions
+     * observed by the last run.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_QUEUE_SIZE)
+    private volatile long queueSize;
+    /**
+     * Time the oldest entry stored by the last run waited after its store
+     * time, that is, how much the write-behind falls behind the write delay.
+     */
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_LAG, unit = MS)
+    private volatile long lagMillis;
     /**
      * Entries are fetched from write-behind-queues according to highestStoreTime. If an entry
      * has a store-time which is smaller than or equal to the highestStoreTime, it will be processed.
@@ -79,6 +115,38 @@ public class StoreWorker implements Runnable {
         this.lastHighestStoreTime = Clock.currentTimeMillis();
         this.writeDelayMillis = SECONDS.toMillis(getWriteDelaySeconds(mapStoreContext));
         this.partitionCount = partitionService.getPartitionCount();
+        this.flushConcurrency = Math.max(1, Math.min(partitionCount,
+                nodeEngine.getProperties().getInteger(MAP_WRITE_BEHIND_FLUSH_CONCURRENCY)));
+    }
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_FLUSH_COUNT)
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_STORED_ENTRY_COUNT)
+    public long getStoredEntryCount() {
+        return storedEntryCount.get();
+    }
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_FAILED_ENTRY_COUNT)
+    public long getFailedEntryCount() {
+        return failedEntryCount.get();
+    }
+
+    @Probe(name = MAP_METRIC_WRITE_BEHIND_WRITE_BATCH_SIZE)
+    public int getWriteBatchSize() {
+        return writeBehindProcessor instanceof DefaultWriteBehindProcessor
+                ? ((DefaultWriteBehindProcessor) writeBehindProcessor).getCurrentWriteBatchSize()
+                : 0;
+    }
+
+    public long getQueueSize() {
+        return queueSize;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
     }
 
 
@@ -119,8 +187,9 @@ public class StoreWorker implements Runnable {
 
         lastHighestStoreTime = ownerHighestStoreTime;
 
-        List<DelayedEntry> ownersList = null;
+        List<DelayedEntry>[] ownersListsByStripe = new List[flushConcurrency];
         List<DelayedEntry> backupsList = null;
+        long ownedQueueSize = 0;
 
         for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
             if (currentThread().isInterrupted()) {
@@ -138,16 +207,16 @@ public class StoreWorker implements Runnable {
                 backupsList = initListIfNull(backupsList, partitionCount);
                 selectEntriesToStore(recordStore, backupsList, backupHighestStoreTime);
             } else {
-                ownersList = initListIfNull(ownersList, partitionCount);
-                selectEntriesToStore(recordStore, ownersList, ownerHighestStoreTime);
+                int stripe = partitionId % flushConcurrency;
+                ownersListsByStripe[stripe] = initListIfNull(ownersListsByStripe[stripe], partitionCount);
+                selectEntriesToStore(recordStore, ownersListsByStripe[stripe], ownerHighestStoreTime);
+                ownedQueueSize += getWriteBehindQueue(recordStore).size();
             }
         }
 
-        if (!isEmpty(ownersList)) {
-            Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
-            removeFinishedStoreOperationsFromQueues(mapName, ownersList);
-            reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
-        }
+        queueSize = ownedQueueSize;
+        lagMillis = calculateLagMillis(ownersListsByStripe, now);
+        storeOwnedEntries(ownersListsByStripe);
 
         if (!isEmpty(backupsList)) {
             doInBackup(backupsList);
@@ -157,6 +226,78 @@ public class StoreWorker implements Runnable {
 
     }
 
+    /**
+     * Stores the owned entries of the stripes. The first non-empty stripe is
+     * stored on the calling thread, the others on the write-behind executor.
+     */
+    private void storeOwnedEntries(List<DelayedEntry>[] ownersListsByStripe) {
+        List<Future<?>> futures = null;
+        List<DelayedEntry> callerRunsList = null;
+        for (List<DelayedEntry> ownersList : ownersListsByStripe) {
+            if (isEmpty(ownersList)) {
+                continue;
+            }
+            if (callerRunsList == null) {
+                callerRunsList = ownersList;
+            } else {
+                futures = futures == null ? new ArrayList<>(flushConcurrency) : futures;
+                futures.add(executionService.submit(MAP_WRITE_BEHIND_EXECUTOR, () -> storeStripe(ownersList)));
+            }
+        }
+
+        if (callerRunsList != null) {
+            storeStripe(callerRunsList);
+            flushCount.incrementAndGet();
+        }
+
+        if (futures != null) {
+            waitForStripes(futures);
+        }
+    }
+
+    private void storeStripe(List<DelayedEntry> ownersList) {
+        Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(ownersList);
+        removeFinishedStoreOperationsFromQueues(mapName, ownersList);
+        reAddFailedStoreOperationsToQueues(mapName, failuresPerPartition);
+
+        int failed = 0;
+        for (List<DelayedEntry> failures : failuresPerPartition.values()) {
+            failed += failures.size();
+        }
+        storedEntryCount.addAndGet(ownersList.size() - failed);
+        failedEntryCount.addAndGet(failed);
+    }
+
+    private static void waitForStripes(List<Future<?>> futures) {
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            }
+        }
+        if (failure != null) {
+            throw rethrow(failure);
+        }
+    }
+
+    private static long calculateLagMillis(List<DelayedEntry>[] ownersListsByStripe, long now) {
+        long oldestStoreTime = Long.MAX_VALUE;
+        for (List<DelayedEntry> ownersList : ownersListsByStripe) {
+            if (ownersList == null) {
+                continue;
+            }
+            for (DelayedEntry entry : ownersList) {
+                oldestStoreTime = Math.min(oldestStoreTime, entry.getStoreTime());
+            }
+        }
+        return oldestStoreTime == Long.MAX_VALUE ? 0 : Math.max(0, now - oldestStoreTime);
+    }
+
     private static List<DelayedEntry> initListIfNull(List<DelayedEntry> list, int capacity) {
         if (list == null) {
             list = new ArrayList<>(capacity);
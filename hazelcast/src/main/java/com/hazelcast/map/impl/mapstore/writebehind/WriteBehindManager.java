@@ -42,6 +42,10 @@ public class WriteBehindManager implements MapStoreManager {
         this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor);
     }
 
+    public StoreWorker getStoreWorker() {
+        return storeWorker;
+    }
+
     @Override
     public void start() {
         storeWorker.start();
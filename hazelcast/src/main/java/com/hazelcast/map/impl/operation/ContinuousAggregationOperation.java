@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Returns the partial state of a continuous aggregation of a single
+ * partition, registering the aggregation on the partition first if
+ * needed. A copy of the state is returned, so that the caller can not
+ * modify the state maintained by the record store.
+ */
+public class ContinuousAggregationOperation extends MapOperation
+        implements PartitionAwareOperation {
+
+    private String aggregationName;
+    private InvertibleAggregator aggregator;
+    private transient Object result;
+
+    public ContinuousAggregationOperation() {
+    }
+
+    public ContinuousAggregationOperation(String name, String aggregationName, InvertibleAggregator aggregator) {
+        super(name);
+        this.aggregationName = aggregationName;
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    protected void runInternal() {
+        InvertibleAggregator partial = recordStore.getOrCreateContinuousAggregation(aggregationName, aggregator);
+        SerializationService serializationService = getNodeEngine().getSerializationService();
+        result = serializationService.toObject(serializationService.toData(partial));
+    }
+
+    @Override
+    public Object getResponse() {
+        return result;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(aggregationName);
+        out.writeObject(aggregator);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        aggregationName = in.readString();
+        aggregator = in.readObject();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.CONTINUOUS_AGGREGATION;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.Operation;
+
+import java.io.IOException;
+
+public class ContinuousAggregationOperationFactory extends AbstractMapOperationFactory {
+
+    private String aggregationName;
+    private InvertibleAggregator aggregator;
+
+    public ContinuousAggregationOperationFactory() {
+    }
+
+    public ContinuousAggregationOperationFactory(String name, String aggregationName, InvertibleAggregator aggregator) {
+        super(name);
+        this.aggregationName = aggregationName;
+        this.aggregator = aggregator;
+    }
+
+    @Override
+    public Operation createOperation() {
+        return new ContinuousAggregationOperation(name, aggregationName, aggregator);
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeString(name);
+        out.writeString(aggregationName);
+        out.writeObject(aggregator);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        name = in.readString();
+        aggregationName = in.readString();
+        aggregator = in.readObject();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.CONTINUOUS_AGGREGATION_FACTORY;
+    }
+}
@@ -400,7 +400,11 @@ public final class EntryOperator {
             return;
         }
 
+        long startNanos = Timer.nanos();
         result = ss.toData(entryProcessor.process(entry));
+        if (mapContainer.getMapConfig().isStatisticsEnabled()) {
+            stats.recordEntryProcessorLatencyNanos(Timer.nanosElapsed(startNanos));
+        }
     }
 
     private void throwModificationInReadOnlyException() {
@@ -31,6 +31,7 @@ import com.hazelcast.internal.services.ServiceNamespace;
 import com.hazelcast.internal.util.Clock;
 import com.hazelcast.internal.util.ExceptionUtil;
 import com.hazelcast.internal.util.ThreadUtil;
+import com.hazelcast.internal.util.collection.IntHashSet;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.MapService;
@@ -50,6 +51,8 @@ import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.IndexRegistry;
 import com.hazelcast.query.impl.InternalIndex;
 import com.hazelcast.query.impl.MapIndexInfo;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTreeUtil;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -260,8 +263,35 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
     }
 
     protected void initializeRecordStore(String mapName, RecordStore recordStore) {
-        if (!merkleTreeDiffByMapName.containsKey(mapName)) {
+        int[] diffNodeOrder = merkleTreeDiffByMapName.get(mapName);
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        if (diffNodeOrder == null || merkleTree == null) {
             recordStore.reset();
+        } else {
+            removeRecordsOfMerkleTreeLeaves(recordStore, merkleTree, diffNodeOrder);
+        }
+    }
+
+    /**
+     * Removes the local records of the Merkle tree leaves which differ
+     * from the primary replica. These leaves are replaced with the records
+     * received from the primary, the rest of the replica is kept.
+     */
+    private static void removeRecordsOfMerkleTreeLeaves(RecordStore<Record> recordStore, MerkleTree merkleTree,
+                                                        int[] diffNodeOrder) {
+        if (diffNodeOrder.length == 0) {
+            return;
+        }
+        IntHashSet diffLeaves = MerkleTreeUtil.setOfNodeOrders(diffNodeOrder);
+        int leafLevel = merkleTree.depth() - 1;
+        List<Data> keysToRemove = new ArrayList<>();
+        recordStore.forEach((dataKey, record) -> {
+            if (diffLeaves.contains(MerkleTreeUtil.getLeafOrderForHash(dataKey.hashCode(), leafLevel))) {
+                keysToRemove.add(dataKey);
+            }
+        }, true, true);
+        for (Data dataKey : keysToRemove) {
+            recordStore.removeReplicatedRecord(dataKey, true);
         }
     }
 
@@ -366,7 +396,34 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable, Ve
 
     protected void writeDifferentialData(String mapName,
                                          RecordStore<Record> recordStore, ObjectDataOutput out) throws IOException {
-        throw new UnsupportedOperationException();
+        int[] diffNodeOrder = merkleTreeDiffByMapName.get(mapName);
+        out.writeIntArray(diffNodeOrder);
+
+        List<Data> keys = new ArrayList<>();
+        List<Record> records = new ArrayList<>();
+        if (diffNodeOrder.length > 0) {
+            IntHashSet diffLeaves = MerkleTreeUtil.setOfNodeOrders(diffNodeOrder);
+            int leafLevel = recordStore.getMerkleTree().depth() - 1;
+            recordStore.forEach((dataKey, record) -> {
+                if (diffLeaves.contains(MerkleTreeUtil.getLeafOrderForHash(dataKey.hashCode(), leafLevel))) {
+                    keys.add(dataKey);
+                    records.add(record);
+                }
+            }, operation.getReplicaIndex() != 0, true);
+        }
+
+        SerializationService ss = getSerializationService(recordStore.getMapContainer());
+        out.writeInt(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Data dataKey = keys.get(i);
+            Record record = records.get(i);
+            IOUtil.writeData(out, dataKey);
+            Records.writeRecord(out, record, ss.toData(record.getValue()));
+            Records.writeExpiry(out, recordStore.getExpirySystem().getExpiryMetadata(dataKey));
+        }
+        LocalReplicationStatsImpl replicationStats = statsByMapName.get(recordStore.getName());
+        replicationStats.incrementDiffPartitionReplicationCount();
+        replicationStats.incrementDiffPartitionReplicationRecordsCount(keys.size());
     }
 
     private void writeRecordStoreData(RecordStore<Record> recordStore, ObjectDataOutput out)
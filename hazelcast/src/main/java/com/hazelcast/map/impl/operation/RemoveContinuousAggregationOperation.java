@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+/**
+ * Stops maintaining a continuous aggregation on a partition. The
+ * aggregation is removed from the backup replicas too, since they
+ * keep maintaining it once they have been primary replicas.
+ */
+public class RemoveContinuousAggregationOperation extends MapOperation
+        implements PartitionAwareOperation, BackupAwareOperation {
+
+    private String aggregationName;
+    private boolean removed;
+
+    public RemoveContinuousAggregationOperation() {
+        this(null, null);
+    }
+
+    public RemoveContinuousAggregationOperation(String name, String aggregationName) {
+        super(name);
+        this.aggregationName = aggregationName;
+        createRecordStoreOnDemand = false;
+    }
+
+    @Override
+    protected void runInternal() {
+        if (recordStore != null) {
+            removed = recordStore.removeContinuousAggregation(aggregationName);
+        }
+    }
+
+    @Override
+    public Object getResponse() {
+        return removed;
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return true;
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return mapContainer.getAsyncBackupCount();
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new RemoveContinuousAggregationBackupOperation(name, aggregationName);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeString(aggregationName);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        aggregationName = in.readString();
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.REMOVE_CONTINUOUS_AGGREGATION;
+    }
+}
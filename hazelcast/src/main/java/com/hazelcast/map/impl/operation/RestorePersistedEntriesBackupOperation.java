@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupOperation;
+
+import java.io.IOException;
+
+import static com.hazelcast.map.impl.operation.RestorePersistedEntriesOperation.putRestoredEntries;
+
+public class RestorePersistedEntriesBackupOperation extends MapOperation implements BackupOperation {
+
+    private MapEntries entries;
+
+    public RestorePersistedEntriesBackupOperation() {
+    }
+
+    public RestorePersistedEntriesBackupOperation(String name, MapEntries entries) {
+        super(name);
+        this.entries = entries;
+    }
+
+    @Override
+    protected void runInternal() {
+        putRestoredEntries(recordStore, entries);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        entries.writeData(out);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        entries = new MapEntries();
+        entries.readData(in);
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.RESTORE_PERSISTED_ENTRIES_BACKUP;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.map.impl.recordstore.expiry.ExpiryMetadata;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.spi.impl.operationservice.BackupAwareOperation;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.PartitionAwareOperation;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.util.Clock.currentTimeMillis;
+
+/**
+ * Puts the entries of a partition restored by the map persistence into its
+ * record store, if the record store is empty. Otherwise the partition has
+ * been restored from another log already, or it was changed by the running
+ * cluster after the log was written, and the restored entries are ignored.
+ * <p>
+ * The entries are put like replicated records: no events are published,
+ * the {@code MapStore} isn't called and nothing is replicated over WAN.
+ *
+ * @see com.hazelcast.map.impl.persistence.MapPersistenceService
+ */
+public class RestorePersistedEntriesOperation extends MapOperation
+        implements PartitionAwareOperation, BackupAwareOperation {
+
+    private MapEntries entries;
+    private boolean restored;
+
+    public RestorePersistedEntriesOperation() {
+    }
+
+    public RestorePersistedEntriesOperation(String name, MapEntries entries) {
+        super(name);
+        this.entries = entries;
+    }
+
+    @Override
+    protected void runInternal() {
+        if (recordStore.size() == 0) {
+            putRestoredEntries(recordStore, entries);
+            restored = true;
+        }
+    }
+
+    static void putRestoredEntries(RecordStore<Record> recordStore, MapEntries entries) {
+        long now = currentTimeMillis();
+        for (int i = 0; i < entries.size(); i++) {
+            Data key = entries.getKey(i);
+            Record record = recordStore.createRecord(key, entries.getValue(i), now);
+            recordStore.putOrUpdateReplicatedRecord(key, record, ExpiryMetadata.NULL, true, now);
+        }
+    }
+
+    @Override
+    public Object getResponse() {
+        return restored;
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return restored;
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return mapContainer.getBackupCount();
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return mapContainer.getAsyncBackupCount();
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        return new RestorePersistedEntriesBackupOperation(name, entries);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        entries.writeData(out);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        entries = new MapEntries();
+        entries.readData(in);
+    }
+
+    @Override
+    public int getClassId() {
+        return MapDataSerializerHook.RESTORE_PERSISTED_ENTRIES;
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.config.DataPersistenceConfig;
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.partition.PartitionMigrationEvent;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.util.DirectoryLock;
+import com.hazelcast.internal.util.RuntimeAvailableProcessors;
+import com.hazelcast.internal.util.UuidUtil;
+import com.hazelcast.internal.util.executor.ExecutorType;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.operation.RestorePersistedEntriesOperation;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.impl.NodeEngine;
+import com.hazelcast.spi.impl.executionservice.ExecutionService;
+import com.hazelcast.spi.impl.operationservice.Operation;
+import com.hazelcast.spi.impl.operationservice.OperationService;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.internal.partition.MigrationEndpoint.DESTINATION;
+import static com.hazelcast.internal.partition.MigrationEndpoint.SOURCE;
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_PERSISTENCE_BASE_DIR;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_PERSISTENCE_FLUSH_INTERVAL_MILLIS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Persists the entries of the maps with an enabled {@link DataPersistenceConfig}
+ * to disk and loads them back into the cluster after a restart. It is enabled
+ * by setting {@link com.hazelcast.spi.properties.ClusterProperty#MAP_PERSISTENCE_BASE_DIR}.
+ * <p>
+ * Every primary replica of a persisted map partition which is owned by this
+ * member logs its changes to a {@link PartitionLog} through a {@link
+ * MutationObserver}, so each partition is persisted by a single member. The
+ * logs are flushed by a single background thread every {@link
+ * com.hazelcast.spi.properties.ClusterProperty#MAP_PERSISTENCE_FLUSH_INTERVAL_MILLIS}
+ * and compacted by another one. When a replica becomes the primary, e.g. by
+ * a migration or the promotion of a backup, its entries are written to a
+ * fresh log. When it stops being the primary, its log is cleared.
+ * <p>
+ * The logs are kept in {@code <member dir>/maps/<map name>/<partition id>},
+ * where the member dir is the first subdirectory of the base directory which
+ * isn't locked by another member. On start, the logs of the previous run are
+ * moved aside, so that the entries loaded into the cluster are logged again
+ * by their new owners. After the member has joined the cluster and before
+ * it is reported as started, the moved logs are read in parallel, one
+ * partition per task, and their entries are sent to the owners of their
+ * partitions. An owner puts them directly into the record store, without
+ * events, {@code MapStore} calls or WAN replication, but only if the record
+ * store is empty, see {@link com.hazelcast.map.impl.operation.RestorePersistedEntriesOperation}.
+ * So the partitions which a member restarting after a crash persisted are
+ * not restored if the running cluster kept them, and the keys removed in
+ * the meantime are not brought back. The moved logs are deleted once all of
+ * their entries are loaded.
+ * <p>
+ * The restore can't tell which of two logs of a partition is newer: if a
+ * member crashed and then the whole cluster was restarted without it
+ * rejoining in between, its stale logs may be restored instead of the ones
+ * of the member which took its partitions over.
+ * <p>
+ * Only the keys and values are persisted: the entries are restored without
+ * their expiration times and statistics.
+ */
+public class MapPersistenceService {
+
+    static final String MAPS_DIR_NAME = "maps";
+    static final String RESTORE_DIR_PREFIX = "restore-";
+
+    private static final String FLUSH_EXECUTOR = "hz:map-persistence-flush";
+    private static final String COMPACTION_EXECUTOR = "hz:map-persistence-compaction";
+    private static final String RESTORE_EXECUTOR = "hz:map-persistence-restore";
+    private static final long COMPACTION_INTERVAL_MILLIS = 1000;
+
+    private final MapServiceContext mapServiceContext;
+    private final NodeEngine nodeEngine;
+    private final ILogger logger;
+    private final File baseDir;
+    private final long flushIntervalMillis;
+    private final ConcurrentMap<String, AtomicReferenceArray<PartitionLog>> logs = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile DirectoryLock memberDirLock;
+    private volatile Path mapsDir;
+    private ScheduledFuture<?> flushTask;
+    private ScheduledFuture<?> compactionTask;
+
+    public MapPersistenceService(MapServiceContext mapServiceContext) {
+        this.mapServiceContext = mapServiceContext;
+        this.nodeEngine = mapServiceContext.getNodeEngine();
+        this.logger = nodeEngine.getLogger(getClass());
+        HazelcastProperties properties = nodeEngine.getProperties();
+        String baseDir = properties.getString(MAP_PERSISTENCE_BASE_DIR);
+        this.baseDir = baseDir != null ? new File(baseDir).getAbsoluteFile() : null;
+        this.flushIntervalMillis = properties.getMillis(MAP_PERSISTENCE_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public boolean isEnabled() {
+        return baseDir != null;
+    }
+
+    /**
+     * Locks the member directory, moves the logs of the previous run aside
+     * and starts the background tasks. The moved logs are restored by {@link
+     * #restore()} once the member has joined the cluster.
+     */
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        try {
+            memberDirLock = lockMemberDir();
+            Path memberDir = memberDirLock.getDir().toPath();
+            mapsDir = memberDir.resolve(MAPS_DIR_NAME);
+            if (Files.exists(mapsDir)) {
+                List<Path> restoreDirs = listRestoreDirs(memberDir);
+                long sequence = restoreDirs.isEmpty() ? 0 : restoreSequence(restoreDirs.get(0)) + 1;
+                Files.move(mapsDir, memberDir.resolve(RESTORE_DIR_PREFIX + sequence), ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new HazelcastException("Could not initialize the map persistence directory in " + baseDir, e);
+        }
+        running = true;
+
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        executionService.register(FLUSH_EXECUTOR, 1, Integer.MAX_VALUE, ExecutorType.CACHED);
+        executionService.register(COMPACTION_EXECUTOR, 1, Integer.MAX_VALUE, ExecutorType.CACHED);
+        flushTask = executionService.scheduleWithRepetition(FLUSH_EXECUTOR, this::flushAll,
+                flushIntervalMillis, flushIntervalMillis, MILLISECONDS);
+        compactionTask = executionService.scheduleWithRepetition(COMPACTION_EXECUTOR, this::compactAll,
+                COMPACTION_INTERVAL_MILLIS, COMPACTION_INTERVAL_MILLIS, MILLISECONDS);
+        logger.info("Map persistence is enabled, using " + memberDirLock.getDir());
+    }
+
+    /**
+     * Stops the background tasks, flushes and closes all logs. The changes
+     * made afterwards, e.g. clearing the record stores during the shutdown,
+     * are not persisted.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+
+        flushTask.cancel(false);
+        compactionTask.cancel(false);
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        executionService.shutdownExecutor(FLUSH_EXECUTOR);
+        executionService.shutdownExecutor(COMPACTION_EXECUTOR);
+        for (AtomicReferenceArray<PartitionLog> mapLogs : logs.values()) {
+            for (int i = 0; i < mapLogs.length(); i++) {
+                PartitionLog log = mapLogs.get(i);
+                if (log != null) {
+                    try {
+                        log.close();
+                    } catch (IOException e) {
+                        logger.warning("Could not close the map persistence log in " + log.dir(), e);
+                    }
+                }
+            }
+        }
+        logs.clear();
+        memberDirLock.release();
+    }
+
+    /**
+     * Creates the observer which persists the changes of the given partition
+     * of the given map.
+     *
+     * @return the observer, or {@code null} if the map is not persisted
+     */
+    @Nullable
+    public MutationObserver<Record> createMutationObserver(@Nonnull MapContainer mapContainer, int partitionId) {
+        DataPersistenceConfig config = mapContainer.getMapConfig().getDataPersistenceConfig();
+        if (!running || !config.isEnabled()) {
+            return null;
+        }
+        String mapName = mapContainer.getName();
+        PartitionLog log = getOrCreateLog(mapName, partitionId, config.isFsync());
+        return new PersistingMutationObserver(this, nodeEngine.getSerializationService(),
+                nodeEngine.getPartitionService(), mapName, partitionId, log);
+    }
+
+    PartitionLog getOrCreateLog(String mapName, int partitionId, boolean fsync) {
+        AtomicReferenceArray<PartitionLog> mapLogs = logs.computeIfAbsent(mapName,
+                name -> new AtomicReferenceArray<>(nodeEngine.getPartitionService().getPartitionCount()));
+        PartitionLog log = mapLogs.get(partitionId);
+        while (log == null || log.isClosed()) {
+            PartitionLog newLog = new PartitionLog(mapsDir.resolve(toDirName(mapName))
+                    .resolve(Integer.toString(partitionId)), fsync);
+            if (mapLogs.compareAndSet(partitionId, log, newLog)) {
+                return newLog;
+            }
+            log = mapLogs.get(partitionId);
+        }
+        return log;
+    }
+
+    /**
+     * Moves the log of a partition along with its primary replica. When this
+     * member becomes the primary owner, the entries of the replica are written
+     * to its log, which is cleared first. When it stops being the primary
+     * owner, the log is cleared. Called on the partition thread.
+     */
+    public void commitMigration(PartitionMigrationEvent event) {
+        if (!running) {
+            return;
+        }
+        boolean promoted = event.getMigrationEndpoint() == DESTINATION && event.getNewReplicaIndex() == 0;
+        boolean demoted = event.getMigrationEndpoint() == SOURCE && event.getCurrentReplicaIndex() == 0;
+        if (!promoted && !demoted) {
+            return;
+        }
+        int partitionId = event.getPartitionId();
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        for (RecordStore recordStore : mapServiceContext.getPartitionContainer(partitionId).getAllRecordStores()) {
+            AtomicReferenceArray<PartitionLog> mapLogs = logs.get(recordStore.getName());
+            PartitionLog log = mapLogs != null ? mapLogs.get(partitionId) : null;
+            if (log == null) {
+                continue;
+            }
+            log.clear();
+            if (promoted) {
+                recordStore.forEach((BiConsumer<Data, Record>) (key, record) ->
+                        log.put(key, serializationService.toData(record.getValue())), false);
+            }
+        }
+    }
+
+    void destroyLog(String mapName, int partitionId, PartitionLog log) {
+        AtomicReferenceArray<PartitionLog> mapLogs = logs.get(mapName);
+        if (mapLogs != null) {
+            mapLogs.compareAndSet(partitionId, log, null);
+        }
+        log.destroy();
+    }
+
+    private void flushAll() {
+        for (AtomicReferenceArray<PartitionLog> mapLogs : logs.values()) {
+            for (int i = 0; i < mapLogs.length(); i++) {
+                PartitionLog log = mapLogs.get(i);
+                if (log == null) {
+                    continue;
+                }
+                try {
+                    log.flush();
+                } catch (IOException e) {
+                    logger.warning("Could not flush the map persistence log in " + log.dir(), e);
+                }
+            }
+        }
+    }
+
+    private void compactAll() {
+        for (AtomicReferenceArray<PartitionLog> mapLogs : logs.values()) {
+            for (int i = 0; i < mapLogs.length(); i++) {
+                PartitionLog log = mapLogs.get(i);
+                if (log == null) {
+                    continue;
+                }
+                try {
+                    log.compact();
+                } catch (IOException e) {
+                    if (!log.isClosed()) {
+                        logger.warning("Could not compact the map persistence log in " + log.dir(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts the entries of the logs moved aside on start into the cluster,
+     * the ones of the newest logs first, and deletes the logs. If this fails,
+     * the logs are kept and loaded again on the next start. Called once the
+     * member has joined the cluster, before it is reported as started.
+     */
+    public void restore() {
+        if (!running) {
+            return;
+        }
+        Path memberDir = memberDirLock.getDir().toPath();
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        try {
+            List<Path> restoreDirs = listRestoreDirs(memberDir);
+            if (restoreDirs.isEmpty()) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            executionService.register(RESTORE_EXECUTOR, RuntimeAvailableProcessors.get(), Integer.MAX_VALUE,
+                    ExecutorType.CACHED);
+            ExecutorService executor = executionService.getExecutor(RESTORE_EXECUTOR);
+            long entryCount = 0;
+            for (Path restoreDir : restoreDirs) {
+                entryCount += restore(restoreDir, executor);
+            }
+            for (Path restoreDir : restoreDirs) {
+                delete(restoreDir);
+            }
+            logger.info("Restored " + entryCount + " map entries from " + memberDir + " in "
+                    + NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (Exception e) {
+            logger.severe("Could not restore the persisted map entries, they are kept in " + memberDir
+                    + " and loaded again on the next start", e);
+        } finally {
+            executionService.shutdownExecutor(RESTORE_EXECUTOR);
+        }
+    }
+
+    private long restore(Path restoreDir, ExecutorService executor) throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (File mapDir : listDirs(restoreDir.toFile())) {
+            String mapName = fromDirName(mapDir.getName());
+            if (!nodeEngine.getConfig().findMapConfig(mapName).getDataPersistenceConfig().isEnabled()) {
+                logger.info("Skipping the persisted entries of map '" + mapName + "', its persistence is disabled");
+                continue;
+            }
+            for (File partitionDir : listDirs(mapDir)) {
+                futures.add(executor.submit(() -> restorePartition(mapName, partitionDir.toPath())));
+            }
+        }
+
+        long entryCount = 0;
+        for (Future<Integer> future : futures) {
+            entryCount += future.get();
+        }
+        return entryCount;
+    }
+
+    /**
+     * Sends the entries of a partition log to the owners of their partitions.
+     * Normally they all belong to the partition of the log, unless the
+     * partition count has changed.
+     *
+     * @return the number of the restored entries
+     */
+    private int restorePartition(String mapName, Path dir) throws Exception {
+        Map<Data, Data> entries = PartitionLogReader.read(dir);
+        IPartitionService partitionService = nodeEngine.getPartitionService();
+        Map<Integer, MapEntries> entriesByPartition = new HashMap<>();
+        for (Map.Entry<Data, Data> entry : entries.entrySet()) {
+            entriesByPartition.computeIfAbsent(partitionService.getPartitionId(entry.getKey()), id -> new MapEntries())
+                              .add(entry.getKey(), entry.getValue());
+        }
+
+        OperationService operationService = nodeEngine.getOperationService();
+        int restoredCount = 0;
+        for (Map.Entry<Integer, MapEntries> entry : entriesByPartition.entrySet()) {
+            Operation operation = new RestorePersistedEntriesOperation(mapName, entry.getValue());
+            boolean restored = operationService.<Boolean>invokeOnPartition(SERVICE_NAME, operation, entry.getKey())
+                                               .get();
+            if (restored) {
+                restoredCount += entry.getValue().size();
+            } else {
+                logger.fine("Skipping the persisted entries of map '" + mapName + "' in partition " + entry.getKey()
+                        + ", the partition is not empty");
+            }
+        }
+        return restoredCount;
+    }
+
+    private DirectoryLock lockMemberDir() throws IOException {
+        Files.createDirectories(baseDir.toPath());
+        for (File dir : listDirs(baseDir)) {
+            try {
+                return DirectoryLock.lockForDirectory(dir, logger);
+            } catch (HazelcastException e) {
+                logger.fine("Skipping " + dir + ", it is used by another member");
+            }
+        }
+        File dir = new File(baseDir, UuidUtil.newUnsecureUuidString());
+        Files.createDirectories(dir.toPath());
+        return DirectoryLock.lockForDirectory(dir, logger);
+    }
+
+    /**
+     * Returns the directories with the logs of the previous runs, the newest
+     * first.
+     */
+    private static List<Path> listRestoreDirs(Path memberDir) throws IOException {
+        List<Path> dirs = new ArrayList<>();
+        for (File dir : listDirs(memberDir.toFile())) {
+            if (dir.getName().startsWith(RESTORE_DIR_PREFIX)) {
+                dirs.add(dir.toPath());
+            }
+        }
+        dirs.sort((d1, d2) -> Long.compare(restoreSequence(d2), restoreSequence(d1)));
+        return dirs;
+    }
+
+    private static long restoreSequence(Path restoreDir) {
+        return Long.parseLong(restoreDir.getFileName().toString().substring(RESTORE_DIR_PREFIX.length()));
+    }
+
+    private static List<File> listDirs(File dir) throws IOException {
+        File[] dirs = dir.listFiles(File::isDirectory);
+        if (dirs == null) {
+            throw new IOException("Could not list files in " + dir);
+        }
+        Arrays.sort(dirs);
+        return Arrays.asList(dirs);
+    }
+
+    /**
+     * Map names may contain characters which are not allowed in file names,
+     * so they are encoded.
+     */
+    static String toDirName(String mapName) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mapName.getBytes(UTF_8));
+    }
+
+    static String fromDirName(String dirName) {
+        return new String(Base64.getUrlDecoder().decode(dirName), UTF_8);
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.persistence.PartitionLogReader.RecordConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.internal.nio.IOUtil.closeResource;
+import static com.hazelcast.internal.nio.IOUtil.delete;
+import static com.hazelcast.internal.nio.IOUtil.deleteQuietly;
+import static com.hazelcast.internal.nio.IOUtil.fsyncDir;
+import static com.hazelcast.internal.util.Preconditions.checkPositive;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log of the changes made to one partition of a map.
+ * <p>
+ * The partition thread only appends records to an in-memory buffer. The
+ * buffer is written to the active chunk file by {@link #flush()}, which is
+ * called periodically by a background thread, so that the records appended
+ * to all partitions during a flush interval are written and fsynced together
+ * (group commit) and a put never waits for the disk. The active chunk is
+ * sealed and a new one is started when it grows beyond the maximum chunk
+ * size.
+ * <p>
+ * Overwritten and removed entries leave garbage in the sealed chunks.
+ * {@link #compact()} rewrites the sealed chunks into a single chunk which
+ * contains only the live entries once they are at least twice as large as
+ * the result of the previous compaction. The chunks are streamed twice:
+ * first to find the last put record of each live key, then to copy these
+ * records, so only the keys are held on the heap. The compacted chunk starts with a
+ * clear record and replaces the newest of the chunks it was created from,
+ * so the older chunks are overridden even if deleting them fails. Likewise,
+ * a clear record appended by {@link #clear()} is written to a new chunk,
+ * after which all older chunks are deleted.
+ * <p>
+ * A chunk file is a sequence of records of the following layout:
+ * <pre>
+ *   int  length of the rest of the record
+ *   int  CRC32 of the rest of the record
+ *   byte record type; {@link #PUT_RECORD}, {@link #REMOVE_RECORD} or {@link #CLEAR_RECORD}
+ *   int  length of the key, only in put records
+ *   ...  the key and the value of a put record, or the key of a remove record
+ * </pre>
+ *
+ * @see PartitionLogReader
+ */
+final class PartitionLog {
+
+    /**
+     * Default maximum size of a chunk file in bytes.
+     */
+    static final int DEFAULT_MAX_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    static final String CHUNK_FILE_PREFIX = "chunk-";
+    static final String CHUNK_FILE_SUFFIX = ".log";
+    static final String TMP_FILE_SUFFIX = ".tmp";
+    static final byte PUT_RECORD = 1;
+    static final byte REMOVE_RECORD = 2;
+    static final byte CLEAR_RECORD = 3;
+    static final int RECORD_HEADER_LENGTH = Integer.BYTES + Integer.BYTES;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int COMPACTION_BUFFER_SIZE = 64 * 1024;
+
+    private final Path dir;
+    private final boolean fsync;
+    private final int maxChunkSize;
+    private final Object ioMutex = new Object();
+
+    // guarded by this
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private boolean clearPending;
+    private boolean closed;
+
+    // guarded by ioMutex
+    private final Deque<Chunk> sealedChunks = new ArrayDeque<>();
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private boolean opened;
+    private FileChannel channel;
+    private Chunk activeChunk;
+    private long nextChunkSequence;
+    private long compactedSize;
+
+    PartitionLog(@Nonnull Path dir, boolean fsync) {
+        this(dir, fsync, DEFAULT_MAX_CHUNK_SIZE);
+    }
+
+    PartitionLog(@Nonnull Path dir, boolean fsync, int maxChunkSize) {
+        this.dir = dir;
+        this.fsync = fsync;
+        this.maxChunkSize = checkPositive("maxChunkSize", maxChunkSize);
+    }
+
+    Path dir() {
+        return dir;
+    }
+
+    void put(@Nonnull Data key, @Nonnull Data value) {
+        byte[] keyBytes = key.toByteArray();
+        byte[] valueBytes = value.toByteArray();
+        synchronized (this) {
+            if (!closed) {
+                pending = appendRecord(pending, crc, PUT_RECORD, keyBytes, valueBytes);
+            }
+        }
+    }
+
+    void remove(@Nonnull Data key) {
+        byte[] keyBytes = key.toByteArray();
+        synchronized (this) {
+            if (!closed) {
+                pending = appendRecord(pending, crc, REMOVE_RECORD, keyBytes, null);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        if (closed) {
+            return;
+        }
+        // the records appended before are overridden by the clear record
+        pending.clear();
+        pending = appendRecord(pending, crc, CLEAR_RECORD, null, null);
+        clearPending = true;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Writes the records appended since the previous flush to the active
+     * chunk and fsyncs it, if configured.
+     *
+     * @return {@code true} if there was anything to write
+     */
+    boolean flush() throws IOException {
+        synchronized (ioMutex) {
+            ByteBuffer buffer;
+            boolean clear;
+            synchronized (this) {
+                if (closed || pending.position() == 0) {
+                    return false;
+                }
+                buffer = pending;
+                clear = clearPending;
+                pending = spare;
+                clearPending = false;
+            }
+            spare = buffer;
+            try {
+                write(buffer, clear);
+            } finally {
+                buffer.clear();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Rewrites the sealed chunks into a single chunk if they are at least
+     * twice as large as the previous compacted chunk. The chunks are read and
+     * rewritten without blocking {@link #flush()}.
+     *
+     * @return {@code true} if the chunks were compacted
+     */
+    boolean compact() throws IOException {
+        List<Chunk> chunks;
+        synchronized (ioMutex) {
+            if (isClosed() || sealedChunks.size() < 2
+                    || sealedSize() < 2 * Math.max(compactedSize, maxChunkSize)) {
+                return false;
+            }
+            chunks = new ArrayList<>(sealedChunks);
+        }
+
+        long[] liveRecords = findLiveRecords(chunks);
+        Chunk target = chunks.get(chunks.size() - 1);
+        Path tmp = dir.resolve(target.path.getFileName() + TMP_FILE_SUFFIX);
+        long size = writeCompacted(tmp, chunks, liveRecords);
+
+        synchronized (ioMutex) {
+            if (isClosed() || sealedChunks.peekFirst() != chunks.get(0)) {
+                // the log was cleared or closed in the meantime
+                deleteQuietly(tmp.toFile());
+                return false;
+            }
+            Files.move(tmp, target.path, ATOMIC_MOVE, REPLACE_EXISTING);
+            for (int i = 1; i < chunks.size(); i++) {
+                delete(sealedChunks.pollFirst().path);
+            }
+            target.size = size;
+            compactedSize = size;
+            return true;
+        }
+    }
+
+    /**
+     * Flushes the pending records and closes the log. Records appended
+     * afterwards are ignored.
+     */
+    void close() throws IOException {
+        synchronized (ioMutex) {
+            try {
+                flush();
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                }
+                closeResource(channel);
+                channel = null;
+            }
+        }
+    }
+
+    /**
+     * Closes the log and deletes its directory.
+     */
+    void destroy() {
+        synchronized (ioMutex) {
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+            closeResource(channel);
+            channel = null;
+            delete(dir);
+        }
+    }
+
+    private void write(ByteBuffer buffer, boolean clear) throws IOException {
+        if (clear || channel == null || activeChunk.size >= maxChunkSize) {
+            rollChunk();
+        }
+
+        buffer.flip();
+        activeChunk.size += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+
+        if (clear) {
+            while (!sealedChunks.isEmpty()) {
+                delete(sealedChunks.pollFirst().path);
+            }
+            compactedSize = 0;
+        }
+    }
+
+    private void rollChunk() throws IOException {
+        if (!opened) {
+            open();
+        }
+        if (channel != null) {
+            closeResource(channel);
+            sealedChunks.add(activeChunk);
+        }
+
+        activeChunk = new Chunk(dir.resolve(chunkFileName(nextChunkSequence)), nextChunkSequence++);
+        channel = FileChannel.open(activeChunk.path, CREATE_NEW, WRITE);
+        if (fsync) {
+            fsyncDir(dir);
+        }
+    }
+
+    /**
+     * Creates the directory of the log and picks up the chunks left behind
+     * by a previous log of the same partition, so that they can be compacted
+     * or deleted by a clear record like the chunks of this log.
+     */
+    private void open() throws IOException {
+        Files.createDirectories(dir);
+        for (Chunk chunk : listChunks(dir)) {
+            sealedChunks.add(chunk);
+            nextChunkSequence = chunk.sequence + 1;
+        }
+        opened = true;
+    }
+
+    private long sealedSize() {
+        long size = 0;
+        for (Chunk chunk : sealedChunks) {
+            size += chunk.size;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the ordinals of the put records of the live entries in the
+     * given chunks, in ascending order. The records are numbered from 0 in
+     * the order they are read.
+     */
+    private static long[] findLiveRecords(List<Chunk> chunks) throws IOException {
+        Map<Data, Long> liveRecords = new HashMap<>();
+        long[] ordinal = {0};
+        for (Chunk chunk : chunks) {
+            PartitionLogReader.forEachRecord(chunk.path, (body, checksum) -> {
+                long recordOrdinal = ordinal[0]++;
+                if (body[0] == PUT_RECORD) {
+                    liveRecords.put(PartitionLogReader.key(body), recordOrdinal);
+                } else if (body[0] == REMOVE_RECORD) {
+                    liveRecords.remove(PartitionLogReader.key(body));
+                } else {
+                    liveRecords.clear();
+                }
+            });
+        }
+        long[] ordinals = new long[liveRecords.size()];
+        int i = 0;
+        for (long recordOrdinal : liveRecords.values()) {
+            ordinals[i++] = recordOrdinal;
+        }
+        Arrays.sort(ordinals);
+        return ordinals;
+    }
+
+    private static long writeCompacted(Path file, List<Chunk> chunks, long[] liveRecords) throws IOException {
+        try (FileChannel out = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            CompactedChunkWriter writer = new CompactedChunkWriter(out, liveRecords);
+            for (Chunk chunk : chunks) {
+                PartitionLogReader.forEachRecord(chunk.path, writer);
+            }
+            long size = writer.finish();
+            out.force(true);
+            return size;
+        }
+    }
+
+    private static int writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    /**
+     * Appends a record to the given buffer.
+     *
+     * @return the given buffer, or a larger copy of it if the record didn't fit
+     */
+    static ByteBuffer appendRecord(ByteBuffer buffer, CRC32 crc, byte type,
+                                   @Nullable byte[] key, @Nullable byte[] value) {
+        int payloadLength = key != null ? key.length : 0;
+        if (value != null) {
+            payloadLength += Integer.BYTES + value.length;
+        }
+        buffer = ensureCapacity(buffer, RECORD_HEADER_LENGTH + Byte.BYTES + payloadLength);
+
+        int start = buffer.position();
+        int bodyStart = start + RECORD_HEADER_LENGTH;
+        buffer.position(bodyStart);
+        buffer.put(type);
+        if (value != null) {
+            buffer.putInt(key.length).put(key).put(value);
+        } else if (key != null) {
+            buffer.put(key);
+        }
+
+        int bodyLength = buffer.position() - bodyStart;
+        crc.reset();
+        crc.update(buffer.array(), bodyStart, bodyLength);
+        buffer.putInt(start, bodyLength)
+              .putInt(start + Integer.BYTES, (int) crc.getValue());
+        return buffer;
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int length) {
+        if (buffer.remaining() >= length) {
+            return buffer;
+        }
+
+        int newCapacity = buffer.capacity();
+        while (newCapacity - buffer.position() < length) {
+            newCapacity <<= 1;
+        }
+        ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+        buffer.flip();
+        newBuffer.put(buffer);
+        return newBuffer;
+    }
+
+    static String chunkFileName(long sequence) {
+        return CHUNK_FILE_PREFIX + sequence + CHUNK_FILE_SUFFIX;
+    }
+
+    /**
+     * Returns the chunk files in the given directory, in the order they were
+     * created. Leftover temporary files of an interrupted compaction are
+     * deleted.
+     */
+    static List<Chunk> listChunks(Path dir) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        File[] files = dir.toFile().listFiles();
+        if (files == null) {
+            throw new IOException("Could not list files in " + dir);
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(TMP_FILE_SUFFIX)) {
+                delete(file.toPath());
+                continue;
+            }
+            if (!name.startsWith(CHUNK_FILE_PREFIX) || !name.endsWith(CHUNK_FILE_SUFFIX)) {
+                continue;
+            }
+            try {
+                long sequence = Long.parseLong(name.substring(CHUNK_FILE_PREFIX.length(),
+                        name.length() - CHUNK_FILE_SUFFIX.length()));
+                Chunk chunk = new Chunk(file.toPath(), sequence);
+                chunk.size = file.length();
+                chunks.add(chunk);
+            } catch (NumberFormatException e) {
+                throw new IOException("Unrecognized chunk file: " + file, e);
+            }
+        }
+        chunks.sort((c1, c2) -> Long.compare(c1.sequence, c2.sequence));
+        return chunks;
+    }
+
+    /**
+     * Copies the live put records to the compacted chunk, after a clear record.
+     */
+    private static final class CompactedChunkWriter implements RecordConsumer {
+
+        private final FileChannel out;
+        private final long[] liveRecords;
+        private ByteBuffer buffer = ByteBuffer.allocate(COMPACTION_BUFFER_SIZE);
+        private long ordinal;
+        private int nextLive;
+        private long size;
+
+        CompactedChunkWriter(FileChannel out, long[] liveRecords) {
+            this.out = out;
+            this.liveRecords = liveRecords;
+            buffer = appendRecord(buffer, new CRC32(), CLEAR_RECORD, null, null);
+        }
+
+        @Override
+        public void accept(byte[] body, int checksum) throws IOException {
+            if (nextLive < liveRecords.length && ordinal == liveRecords[nextLive]) {
+                nextLive++;
+                buffer = ensureCapacity(buffer, RECORD_HEADER_LENGTH + body.length);
+                buffer.putInt(body.length).putInt(checksum).put(body);
+                if (buffer.position() >= COMPACTION_BUFFER_SIZE) {
+                    size += writeFully(out, buffer);
+                }
+            }
+            ordinal++;
+        }
+
+        long finish() throws IOException {
+            size += writeFully(out, buffer);
+            return size;
+        }
+    }
+
+    static final class Chunk {
+        final Path path;
+        final long sequence;
+        long size;
+
+        Chunk(Path path, long sequence) {
+            this.path = path;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.persistence.PartitionLog.Chunk;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static com.hazelcast.map.impl.persistence.PartitionLog.CLEAR_RECORD;
+import static com.hazelcast.map.impl.persistence.PartitionLog.PUT_RECORD;
+import static com.hazelcast.map.impl.persistence.PartitionLog.RECORD_HEADER_LENGTH;
+import static com.hazelcast.map.impl.persistence.PartitionLog.REMOVE_RECORD;
+
+/**
+ * Restores the entries written by a {@link PartitionLog}.
+ * <p>
+ * The chunks are replayed in the order they were created, streaming their
+ * records. A record that was only partially written before a crash (i.e.
+ * it is cut short or its checksum doesn't match) ends the replay of its
+ * chunk, since it can only be at the end of the chunk which was active at
+ * the time.
+ */
+final class PartitionLogReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private PartitionLogReader() {
+    }
+
+    /**
+     * Returns the live entries of the log in the given directory.
+     */
+    @Nonnull
+    static Map<Data, Data> read(@Nonnull Path dir) throws IOException {
+        Map<Data, Data> entries = new LinkedHashMap<>();
+        for (Chunk chunk : PartitionLog.listChunks(dir)) {
+            replay(chunk.path, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Applies the records of the given chunk file to the given entries.
+     */
+    static void replay(@Nonnull Path chunk, @Nonnull Map<Data, Data> entries) throws IOException {
+        forEachRecord(chunk, (body, checksum) -> {
+            switch (body[0]) {
+                case PUT_RECORD:
+                    entries.put(key(body), new HeapData(Arrays.copyOfRange(body, valueOffset(body), body.length)));
+                    break;
+                case REMOVE_RECORD:
+                    entries.remove(key(body));
+                    break;
+                case CLEAR_RECORD:
+                    entries.clear();
+                    break;
+                default:
+                    throw new IOException("Unknown record type " + body[0] + " in " + chunk);
+            }
+        });
+    }
+
+    /**
+     * Reads the valid records of the given chunk file one by one and passes
+     * their bodies, starting with the record type, to the given consumer.
+     */
+    static void forEachRecord(@Nonnull Path chunk, @Nonnull RecordConsumer consumer) throws IOException {
+        long remaining = Files.size(chunk);
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(chunk), READ_BUFFER_SIZE))) {
+            while (remaining >= RECORD_HEADER_LENGTH) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                remaining -= RECORD_HEADER_LENGTH;
+                if (length < Byte.BYTES || length > remaining) {
+                    return;
+                }
+                byte[] body = new byte[length];
+                in.readFully(body);
+                remaining -= length;
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    return;
+                }
+                consumer.accept(body, checksum);
+            }
+        }
+    }
+
+    /**
+     * Returns the key of a put or remove record body.
+     */
+    static Data key(byte[] body) {
+        if (body[0] == REMOVE_RECORD) {
+            return new HeapData(Arrays.copyOfRange(body, Byte.BYTES, body.length));
+        }
+        int keyStart = Byte.BYTES + Integer.BYTES;
+        return new HeapData(Arrays.copyOfRange(body, keyStart, valueOffset(body)));
+    }
+
+    private static int valueOffset(byte[] body) {
+        int keyLength = ByteBuffer.wrap(body, Byte.BYTES, Integer.BYTES).getInt();
+        return Byte.BYTES + Integer.BYTES + keyLength;
+    }
+
+    /**
+     * Consumer of the records read by {@link #forEachRecord}.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        /**
+         * @param body     the record without the header, starting with the record type
+         * @param checksum the checksum of the body
+         */
+        void accept(byte[] body, int checksum) throws IOException;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.partition.IPartitionService;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.MutationObserver;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Logs the changes of a record store to its {@link PartitionLog}. The
+ * records are only buffered here, they are written to disk by the flush
+ * task of the {@link MapPersistenceService}.
+ * <p>
+ * Only the changes of the primary replica are logged, so that a partition
+ * is persisted by a single member. A backup replica starts logging when it
+ * is promoted, see {@link MapPersistenceService#commitMigration}.
+ */
+class PersistingMutationObserver implements MutationObserver<Record> {
+
+    private final MapPersistenceService persistenceService;
+    private final SerializationService serializationService;
+    private final IPartitionService partitionService;
+    private final String mapName;
+    private final int partitionId;
+    private final PartitionLog log;
+
+    PersistingMutationObserver(MapPersistenceService persistenceService, SerializationService serializationService,
+                               IPartitionService partitionService, String mapName, int partitionId, PartitionLog log) {
+        this.persistenceService = persistenceService;
+        this.serializationService = serializationService;
+        this.partitionService = partitionService;
+        this.mapName = mapName;
+        this.partitionId = partitionId;
+        this.log = log;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        if (backup) {
+            return;
+        }
+        log.put(key, serializationService.toData(record.getValue()));
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, boolean populateIndex) {
+        // the records of a migrating primary replica are logged when the
+        // migration is committed, the ones of the backups are not logged
+        if (!partitionService.isPartitionOwner(partitionId)) {
+            return;
+        }
+        log.put(key, serializationService.toData(record.getValue()));
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        if (backup) {
+            return;
+        }
+        log.put(key, serializationService.toData(newValue));
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        if (backup) {
+            return;
+        }
+        log.remove(key);
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        if (backup) {
+            return;
+        }
+        log.remove(key);
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        if (backup) {
+            return;
+        }
+        log.put(key, serializationService.toData(record.getValue()));
+    }
+
+    @Override
+    public void onReset() {
+        log.clear();
+    }
+
+    @Override
+    public void onClear() {
+        log.clear();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        // on shutdown, the logs are closed by the service and kept
+        if (!isDuringShutdown) {
+            persistenceService.destroyLog(mapName, partitionId, log);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.proxy;
 
 import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.core.ManagedContext;
@@ -88,6 +89,7 @@ import java.util.function.Function;
 
 import static com.hazelcast.internal.util.ExceptionUtil.rethrow;
 import static com.hazelcast.internal.util.MapUtil.createHashMap;
+import static com.hazelcast.internal.util.Preconditions.checkInstanceOf;
 import static com.hazelcast.internal.util.Preconditions.checkNoNullInside;
 import static com.hazelcast.internal.util.Preconditions.checkNotNull;
 import static com.hazelcast.internal.util.Preconditions.checkPositive;
@@ -935,6 +937,55 @@ public class MapProxyImpl<K, V> extends MapProxySupport<K, V> implements EventJo
         return result.<R>getAggregator().aggregate();
     }
 
+    /**
+     * Returns the result of the continuous aggregation registered under
+     * the given name.
+     * <p>
+     * The first call for a name registers the aggregation on every
+     * partition, which accumulates all entries of the partition once.
+     * Afterwards each partition maintains its partial aggregation state
+     * on every mutation, and this method only has to combine the partial
+     * states. Its cost then depends on the partition count instead of
+     * the entry count.
+     * <p>
+     * Only the aggregators which can revert an accumulation are
+     * supported: count, distinct count, the integer, long, BigDecimal
+     * and BigInteger sums and the integer and long averages. Expired
+     * entries are aggregated until they are evicted.
+     *
+     * @param aggregationName name of the continuous aggregation
+     * @param aggregator      aggregator in its initial state
+     * @param <R>             type of the result
+     * @return the result of the aggregation
+     * @throws IllegalArgumentException if the aggregator is not invertible or if the
+     *                                  aggregation is registered with a different aggregator
+     * @see #removeContinuousAggregation(String)
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R continuousAggregate(@Nonnull String aggregationName,
+                                     @Nonnull Aggregator<? super Map.Entry<K, V>, R> aggregator) {
+        checkNotNull(aggregationName, "Aggregation name cannot be null!");
+        checkNotNull(aggregator, NULL_AGGREGATOR_IS_NOT_ALLOWED);
+        InvertibleAggregator invertibleAggregator = checkInstanceOf(InvertibleAggregator.class, aggregator,
+                aggregator.getClass().getSimpleName() + " is not supported by continuous aggregations");
+
+        return (R) continuousAggregateInternal(aggregationName, invertibleAggregator).aggregate();
+    }
+
+    /**
+     * Stops maintaining the continuous aggregation registered under the
+     * given name.
+     *
+     * @param aggregationName name of the continuous aggregation
+     * @return {@code true} if the aggregation was registered
+     * @see #continuousAggregate(String, Aggregator)
+     */
+    public boolean removeContinuousAggregation(@Nonnull String aggregationName) {
+        checkNotNull(aggregationName, "Aggregation name cannot be null!");
+
+        return removeContinuousAggregationInternal(aggregationName);
+    }
+
     @Override
     public <R> Collection<R> project(@Nonnull Projection<? super Map.Entry<K, V>, R> projection) {
         return project(projection, Predicates.alwaysTrue());
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.proxy;
 
 import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.config.EntryListenerConfig;
 import com.hazelcast.config.InMemoryFormat;
@@ -59,11 +60,13 @@ import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.operation.AddIndexOperation;
 import com.hazelcast.map.impl.operation.AddInterceptorOperationSupplier;
 import com.hazelcast.map.impl.operation.AwaitMapFlushOperation;
+import com.hazelcast.map.impl.operation.ContinuousAggregationOperationFactory;
 import com.hazelcast.map.impl.operation.IsEmptyOperationFactory;
 import com.hazelcast.map.impl.operation.IsKeyLoadFinishedOperation;
 import com.hazelcast.map.impl.operation.IsPartitionLoadedOperationFactory;
 import com.hazelcast.map.impl.operation.MapOperation;
 import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.map.impl.operation.RemoveContinuousAggregationOperationFactory;
 import com.hazelcast.map.impl.operation.RemoveInterceptorOperationSupplier;
 import com.hazelcast.map.impl.query.Query;
 import com.hazelcast.map.impl.query.QueryEngine;
@@ -841,6 +844,42 @@ abstract class MapProxySupport<K, V>
         }
     }
 
+    protected Aggregator continuousAggregateInternal(String aggregationName, InvertibleAggregator aggregator) {
+        try {
+            OperationFactory operationFactory = new ContinuousAggregationOperationFactory(name, aggregationName, aggregator);
+            Map<Integer, Object> results = operationService.invokeOnAllPartitions(SERVICE_NAME, operationFactory);
+            incrementOtherOperationsStat();
+            Aggregator combined = null;
+            for (Object result : results.values()) {
+                Aggregator partial = toObject(result);
+                if (combined == null) {
+                    combined = partial;
+                } else {
+                    combined.combine(partial);
+                }
+            }
+            combined.onCombinationFinished();
+            return combined;
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    protected boolean removeContinuousAggregationInternal(String aggregationName) {
+        try {
+            OperationFactory operationFactory = new RemoveContinuousAggregationOperationFactory(name, aggregationName);
+            Map<Integer, Object> results = operationService.invokeOnAllPartitions(SERVICE_NAME, operationFactory);
+            incrementOtherOperationsStat();
+            boolean removed = false;
+            for (Object result : results.values()) {
+                removed |= (Boolean) toObject(result);
+            }
+            return removed;
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
     public boolean containsValueInternal(Data dataValue) {
         try {
             OperationFactory operationFactory = operationProvider.createContainsValueOperationFactory(name, dataValue);
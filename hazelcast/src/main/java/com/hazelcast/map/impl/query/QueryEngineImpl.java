@@ -21,6 +21,7 @@ import com.hazelcast.core.HazelcastException;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.partition.IPartitionService;
 import com.hazelcast.internal.util.IterationType;
+import com.hazelcast.internal.util.Timer;
 import com.hazelcast.internal.util.collection.PartitionIdSet;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.QueryResultSizeExceededException;
@@ -99,9 +100,25 @@ public class QueryEngineImpl implements QueryEngine {
         this.disableMigrationFallback = nodeEngine.getProperties().getBoolean(DISABLE_MIGRATION_FALLBACK);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Result execute(Query query, Target target) {
+        long startNanos = Timer.nanos();
+        try {
+            return executeInternal(query, target);
+        } finally {
+            recordQueryLatency(query.getMapName(), Timer.nanosElapsed(startNanos));
+        }
+    }
+
+    private void recordQueryLatency(String mapName, long latencyNanos) {
+        if (mapServiceContext.getMapContainer(mapName).getMapConfig().isStatisticsEnabled()) {
+            mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(mapName)
+                    .recordQueryLatencyNanos(latencyNanos);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result executeInternal(Query query, Target target) {
         Query adjustedQuery = adjustQuery(query);
         switch (target.mode()) {
             case ALL_NODES:
@@ -24,6 +24,7 @@ import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.map.impl.MapContainer;
 
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
+import static com.hazelcast.map.impl.record.RecordFactory.isRecencyBased;
 
 public class DataRecordFactory implements RecordFactory<Data> {
 
@@ -59,7 +60,7 @@ public class DataRecordFactory implements RecordFactory<Data> {
         }
 
         if (hasEviction) {
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LRU) {
+            if (isRecencyBased(mapConfig.getEvictionConfig().getEvictionPolicy())) {
                 return new CachedSimpleRecordWithLRUEviction(valueData);
             }
 
@@ -84,7 +85,7 @@ public class DataRecordFactory implements RecordFactory<Data> {
         }
 
         if (hasEviction) {
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LRU) {
+            if (isRecencyBased(mapConfig.getEvictionConfig().getEvictionPolicy())) {
                 return new SimpleRecordWithLRUEviction<>(valueData);
             }
 
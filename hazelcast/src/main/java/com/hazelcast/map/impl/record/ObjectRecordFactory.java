@@ -25,6 +25,7 @@ import com.hazelcast.map.impl.MapContainer;
 import javax.annotation.Nonnull;
 
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
+import static com.hazelcast.map.impl.record.RecordFactory.isRecencyBased;
 
 public class ObjectRecordFactory implements RecordFactory<Object> {
 
@@ -56,7 +57,7 @@ public class ObjectRecordFactory implements RecordFactory<Object> {
         }
 
         if (hasEviction) {
-            if (mapConfig.getEvictionConfig().getEvictionPolicy() == EvictionPolicy.LRU) {
+            if (isRecencyBased(mapConfig.getEvictionConfig().getEvictionPolicy())) {
                 return new SimpleRecordWithLRUEviction<>(objectValue);
             }
 
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.internal.serialization.Data;
 
 /**
@@ -26,4 +27,14 @@ import com.hazelcast.internal.serialization.Data;
 public interface RecordFactory<T> {
 
     Record<T> newRecord(Data key, Object value);
+
+    /**
+     * @return {@code true} if the eviction policy only needs the last
+     * access time of a record. {@link EvictionPolicy#W_TINY_LFU} keeps
+     * frequencies in a sketch outside the records and uses recency to
+     * break ties.
+     */
+    static boolean isRecencyBased(EvictionPolicy evictionPolicy) {
+        return evictionPolicy == EvictionPolicy.LRU || evictionPolicy == EvictionPolicy.W_TINY_LFU;
+    }
 }
@@ -86,8 +86,12 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
     @Override
     public void evictEntries(Data excludedKey) {
+        Evictor evictor = mapContainer.getEvictor();
+        if (excludedKey != null) {
+            evictor.onEntryAccess(this, excludedKey);
+        }
         if (shouldEvict()) {
-            mapContainer.getEvictor().evict(this, excludedKey);
+            evictor.evict(this, excludedKey);
         }
     }
 
@@ -182,6 +186,7 @@ public abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     @Override
     public void accessRecord(Data dataKey, Record record, long now) {
         record.onAccess(now);
+        mapContainer.getEvictor().onEntryAccess(this, dataKey);
         updateStatsOnGet(now);
         expirySystem.extendExpiryTime(dataKey, now);
     }
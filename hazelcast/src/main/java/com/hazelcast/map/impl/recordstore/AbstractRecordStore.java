@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.recordstore;
 
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
 import com.hazelcast.config.EventJournalConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
@@ -44,12 +45,14 @@ import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.map.impl.record.RecordReaderWriter;
 import com.hazelcast.spi.impl.NodeEngine;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import javax.annotation.Nonnull;
 
 /**
  * Contains record store common parts.
  */
+@SuppressWarnings("checkstyle:classfanoutcomplexity")
 abstract class AbstractRecordStore implements RecordStore<Record> {
 
     protected final int partitionId;
@@ -68,6 +71,8 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     protected RecordFactory recordFactory;
     protected Storage<Data, Record> storage;
     protected IndexingMutationObserver<Record> indexingObserver;
+    protected MerkleTreeMutationObserver merkleTreeObserver;
+    protected ContinuousAggregationMutationObserver continuousAggregationObserver;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
         this.name = mapContainer.getName();
@@ -89,6 +94,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
         MapConfig mapConfig = mapContainer.getMapConfig();
         switch (mapConfig.getInMemoryFormat()) {
             case BINARY:
+                if (mapConfig.isOffHeapStorageEnabled()) {
+                    return new OffHeapRecordFactory(mapServiceContext.getOffHeapMemoryManager(), serializationService);
+                }
                 return new DataRecordFactory(mapContainer, serializationService);
             case OBJECT:
                 return new ObjectRecordFactory(mapContainer, serializationService);
@@ -127,15 +135,52 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
                     JsonMetadataInitializer.INSTANCE, getOrCreateMetadataStore()));
         }
 
+        // Add observer for map persistence
+        MutationObserver<Record> persistenceObserver = mapServiceContext.getMapPersistenceService()
+                .createMutationObserver(mapContainer, partitionId);
+        if (persistenceObserver != null) {
+            mutationObserver.add(persistenceObserver);
+        }
+
         // Add observer for indexing
         indexingObserver = new IndexingMutationObserver<>(this, serializationService);
         mutationObserver.add(indexingObserver);
+
+        // Add observer for merkle tree
+        MapConfig mapConfig = mapContainer.getMapConfig();
+        if (mapServiceContext.shouldEnableMerkleTree(mapConfig, false)) {
+            merkleTreeObserver = new MerkleTreeMutationObserver(serializationService,
+                    mapConfig.getMerkleTreeConfig().getDepth());
+            mutationObserver.add(merkleTreeObserver);
+        }
     }
 
     public IndexingMutationObserver<Record> getIndexingObserver() {
         return indexingObserver;
     }
 
+    @Override
+    public MerkleTree getMerkleTree() {
+        return merkleTreeObserver != null ? merkleTreeObserver.getMerkleTree() : null;
+    }
+
+    @Override
+    public InvertibleAggregator getOrCreateContinuousAggregation(String name, InvertibleAggregator aggregator) {
+        if (continuousAggregationObserver == null) {
+            // added lazily, so that only the maps with continuous
+            // aggregations pay for the extra observer
+            continuousAggregationObserver = new ContinuousAggregationMutationObserver(this,
+                    serializationService, mapContainer.getExtractors());
+            mutationObserver.add(continuousAggregationObserver);
+        }
+        return continuousAggregationObserver.getOrCreateAggregation(name, aggregator);
+    }
+
+    @Override
+    public boolean removeContinuousAggregation(String name) {
+        return continuousAggregationObserver != null && continuousAggregationObserver.removeAggregation(name);
+    }
+
     @Override
     public InMemoryFormat getInMemoryFormat() {
         return inMemoryFormat;
@@ -175,6 +220,9 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
     }
 
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
+        if (recordFactory instanceof OffHeapRecordFactory) {
+            return new OffHeapStorage((OffHeapRecordFactory) recordFactory, getExpirySystem(), serializationService);
+        }
         return new StorageImpl(memoryFormat, getExpirySystem(), serializationService);
     }
 
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.query.impl.CachedQueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains the partial states of the continuous aggregations registered
+ * on a single record store.
+ * <p>
+ * Each aggregation is seeded by accumulating all entries of the record
+ * store once, afterwards it is kept up-to-date by accumulating the added
+ * values and deaccumulating the replaced and removed ones. Reading the
+ * aggregation result of a map therefore only has to combine one partial
+ * state per partition.
+ * <p>
+ * Not thread-safe, all callbacks are expected on the partition thread.
+ */
+public class ContinuousAggregationMutationObserver implements MutationObserver<Record> {
+
+    private final RecordStore<Record> recordStore;
+    private final SerializationService serializationService;
+    private final CachedQueryEntry queryEntry;
+    private final Map<String, Aggregation> aggregations = new HashMap<>();
+
+    public ContinuousAggregationMutationObserver(RecordStore<Record> recordStore,
+                                                 SerializationService serializationService,
+                                                 Extractors extractors) {
+        this.recordStore = recordStore;
+        this.serializationService = serializationService;
+        this.queryEntry = new CachedQueryEntry(serializationService, extractors);
+    }
+
+    /**
+     * Returns the partial state of the continuous aggregation registered
+     * under the given name. If there is no such aggregation yet, it is
+     * registered by accumulating all entries of the record store into a
+     * copy of the given aggregator.
+     *
+     * @param name       name of the aggregation
+     * @param aggregator aggregator in its initial state
+     * @throws IllegalArgumentException if the aggregation is already registered
+     *                                  with a different aggregator
+     */
+    public InvertibleAggregator getOrCreateAggregation(String name, InvertibleAggregator aggregator) {
+        Data initialState = serializationService.toData(aggregator);
+        Aggregation aggregation = aggregations.get(name);
+        if (aggregation == null) {
+            aggregation = new Aggregation(initialState);
+            InvertibleAggregator partial = aggregation.partial;
+            recordStore.forEach((key, record) -> partial.accumulate(queryEntry.init(key, record.getValue())),
+                    false, true);
+            aggregations.put(name, aggregation);
+        } else if (!aggregation.initialState.equals(initialState)) {
+            throw new IllegalArgumentException("Continuous aggregation " + name
+                    + " is already registered with a different aggregator");
+        }
+        return aggregation.partial;
+    }
+
+    /**
+     * @return {@code true} if an aggregation was registered under the given name
+     */
+    public boolean removeAggregation(String name) {
+        return aggregations.remove(name) != null;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        accumulate(key, record.getValue());
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, boolean populateIndex) {
+        if (oldValue != null) {
+            deaccumulate(key, oldValue);
+        }
+        accumulate(key, record.getValue());
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        deaccumulate(key, oldValue);
+        accumulate(key, record.getValue());
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        deaccumulate(key, record.getValue());
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        deaccumulate(key, record.getValue());
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        accumulate(key, record.getValue());
+    }
+
+    @Override
+    public void onReset() {
+        resetAggregations();
+    }
+
+    @Override
+    public void onClear() {
+        resetAggregations();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        aggregations.clear();
+    }
+
+    private void accumulate(Data key, Object value) {
+        if (aggregations.isEmpty()) {
+            return;
+        }
+        queryEntry.init(key, value);
+        for (Aggregation aggregation : aggregations.values()) {
+            aggregation.partial.accumulate(queryEntry);
+        }
+    }
+
+    private void deaccumulate(Data key, Object value) {
+        if (aggregations.isEmpty()) {
+            return;
+        }
+        queryEntry.init(key, value);
+        for (Aggregation aggregation : aggregations.values()) {
+            aggregation.partial.deaccumulate(queryEntry);
+        }
+    }
+
+    private void resetAggregations() {
+        for (Aggregation aggregation : aggregations.values()) {
+            aggregation.reset();
+        }
+    }
+
+    private final class Aggregation {
+
+        // serialized aggregator in its initial state
+        private final Data initialState;
+        private InvertibleAggregator partial;
+
+        private Aggregation(Data initialState) {
+            this.initialState = initialState;
+            reset();
+        }
+
+        private void reset() {
+            partial = serializationService.toObject(initialState);
+        }
+    }
+}
@@ -240,18 +240,20 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public Record putOrUpdateReplicatedRecord(Data dataKey, Record replicatedRecord,
                                               ExpiryMetadata expiryMetadata,
                                               boolean indexesMustBePopulated, long now) {
+        Object oldValue = null;
         Record newRecord = storage.get(dataKey);
         if (newRecord == null) {
             newRecord = createRecord(dataKey, replicatedRecord != null
                     ? replicatedRecord.getValue() : null, now);
             storage.put(dataKey, newRecord);
         } else {
+            oldValue = newRecord.getValue();
             storage.updateRecordValue(dataKey, newRecord, replicatedRecord.getValue());
         }
 
         Records.copyMetadataFrom(replicatedRecord, newRecord);
         expirySystem.add(dataKey, expiryMetadata, now);
-        mutationObserver.onReplicationPutRecord(dataKey, newRecord, indexesMustBePopulated);
+        mutationObserver.onReplicationPutRecord(dataKey, newRecord, oldValue, indexesMustBePopulated);
 
         return newRecord;
     }
@@ -740,6 +742,11 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             record = loadRecordOrNull(key, backup, callerAddress, now);
             record = evictIfExpired(key, now, backup) ? null : record;
         }
+        if (record == null && touch && !backup) {
+            // a miss counts for frequency based eviction too, so a key
+            // which is requested often is kept once it is put
+            mapContainer.getEvictor().onEntryAccess(this, key);
+        }
         Object value = record == null ? null : record.getValue();
         value = mapServiceContext.interceptGet(interceptorRegistry, value);
 
@@ -1610,6 +1617,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             expirySystem.clear();
             storage.clear(false);
             stats.reset();
+            mapContainer.getEvictor().onReset(this);
         }
     }
 
@@ -1622,6 +1630,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void clearPartition(boolean onShutdown, boolean onStorageDestroy) {
         clearLockStore();
         mapDataStore.reset();
+        mapContainer.getEvictor().onReset(this);
 
         if (onShutdown) {
             if (hasPooledMemoryAllocator()) {
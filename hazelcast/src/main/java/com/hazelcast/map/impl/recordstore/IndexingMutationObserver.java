@@ -54,7 +54,7 @@ public class IndexingMutationObserver<R extends Record> implements MutationObser
     }
 
     @Override
-    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, boolean populateIndex) {
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, Object oldValue, boolean populateIndex) {
         if (populateIndex) {
             saveIndex(key, record, null, Index.OperationSource.SYSTEM);
         }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.wan.impl.merkletree.ArrayMerkleTree;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Maintains a {@link MerkleTree} over the entries of a single record
+ * store. The tree is used to find the entries which differ between the
+ * primary and a backup replica of a partition, so that only those have
+ * to be transferred during replica synchronization.
+ * <p>
+ * Each entry contributes the combination of its serialized key and value
+ * hashes to the leaf selected by the hash of its key. Serialized forms
+ * are used so that replicas holding equal entries compute equal hashes
+ * regardless of the in-memory format.
+ * <p>
+ * Not thread-safe, all callbacks are expected on the partition thread.
+ */
+public class MerkleTreeMutationObserver implements MutationObserver<Record> {
+
+    private static final int HASH_MULTIPLIER = 31;
+
+    private final SerializationService serializationService;
+    private final MerkleTree merkleTree;
+
+    public MerkleTreeMutationObserver(SerializationService serializationService, int depth) {
+        this.serializationService = serializationService;
+        this.merkleTree = new ArrayMerkleTree(depth);
+    }
+
+    public MerkleTree getMerkleTree() {
+        return merkleTree;
+    }
+
+    @Override
+    public void onPutRecord(@Nonnull Data key, Record record, Object oldValue, boolean backup) {
+        add(key, record.getValue());
+    }
+
+    @Override
+    public void onReplicationPutRecord(@Nonnull Data key, @Nonnull Record record, Object oldValue, boolean populateIndex) {
+        if (oldValue == null) {
+            add(key, record.getValue());
+        } else {
+            merkleTree.updateReplace(key, entryHash(key, oldValue), entryHash(key, record.getValue()));
+        }
+    }
+
+    @Override
+    public void onUpdateRecord(@Nonnull Data key, @Nonnull Record record,
+                               Object oldValue, Object newValue, boolean backup) {
+        merkleTree.updateReplace(key, entryHash(key, oldValue), entryHash(key, record.getValue()));
+    }
+
+    @Override
+    public void onRemoveRecord(@Nonnull Data key, Record record, boolean backup) {
+        remove(key, record.getValue());
+    }
+
+    @Override
+    public void onEvictRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        remove(key, record.getValue());
+    }
+
+    @Override
+    public void onLoadRecord(@Nonnull Data key, @Nonnull Record record, boolean backup) {
+        add(key, record.getValue());
+    }
+
+    @Override
+    public void onReset() {
+        merkleTree.clear();
+    }
+
+    @Override
+    public void onClear() {
+        merkleTree.clear();
+    }
+
+    @Override
+    public void onDestroy(boolean isDuringShutdown, boolean internal) {
+        merkleTree.clear();
+    }
+
+    private void add(Data key, Object value) {
+        merkleTree.updateAdd(key, entryHash(key, value));
+    }
+
+    private void remove(Data key, Object value) {
+        merkleTree.updateRemove(key, entryHash(key, value));
+    }
+
+    private Integer entryHash(Data key, Object value) {
+        Data valueData = serializationService.toData(value);
+        int valueHash = valueData == null ? 0 : valueData.hashCode();
+        return HASH_MULTIPLIER * key.hashCode() + valueHash;
+    }
+}
@@ -21,6 +21,7 @@ import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.internal.serialization.Data;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Interface for observing {@link RecordStore} mutations
@@ -41,15 +42,17 @@ public interface MutationObserver<R extends Record> {
     void onPutRecord(@Nonnull Data key, R record, Object oldValue, boolean backup);
 
     /**
-     * Called when a new record is added to the {@link RecordStore} due
-     * to replication
+     * Called when a record is added to or replaced in the {@link RecordStore}
+     * due to replication
      *
      * @param key           The key of the record
      * @param record        The record
+     * @param oldValue      The value the replicated record replaced, or
+     *                      {@code null} if there was no record for the key
      * @param populateIndex  {@code true} if
      *                      indexing can be done, otherwise {@code false}
      */
-    void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, boolean populateIndex);
+    void onReplicationPutRecord(@Nonnull Data key, @Nonnull R record, @Nullable Object oldValue, boolean populateIndex);
 
     /**
      * Called when a new record is updated
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordReaderWriter;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.util.TimeStripUtil.recomputeWithBaseTime;
+import static com.hazelcast.internal.util.TimeStripUtil.stripBaseTime;
+import static com.hazelcast.map.impl.record.RecordReaderWriter.DATA_RECORD_WITH_STATS_READER_WRITER;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.CREATION_TIME_OFFSET;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.HITS_OFFSET;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.LAST_ACCESS_TIME_OFFSET;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.LAST_STORED_TIME_OFFSET;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.LAST_UPDATE_TIME_OFFSET;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.VALUE_OFFSET;
+import static com.hazelcast.map.impl.recordstore.OffHeapRecordFactory.VERSION_OFFSET;
+
+/**
+ * Flyweight {@link Record} view over an entry block allocated by an
+ * {@link OffHeapRecordFactory}. All reads and writes of an attached record
+ * go directly to off-heap memory, so the instance itself carries no record
+ * state and can be created and discarded freely.
+ * <p>
+ * A record created by {@link OffHeapRecordFactory#newRecord} is detached:
+ * it keeps its value and metadata on-heap and owns no off-heap memory, so
+ * a record which is never stored doesn't leak. It is attached to an entry
+ * block when it is {@link OffHeapStorage#put put} into the storage, after
+ * which it is a view over the block like any other instance.
+ * <p>
+ * {@link #getValue()} returns an on-heap copy of the off-heap value.
+ */
+public final class OffHeapRecord implements Record<Data> {
+
+    private final OffHeapRecordFactory factory;
+    private long address;
+
+    // state of a detached record, unused once it is attached
+    private Data value;
+    private int version;
+    private int hits;
+    private int lastAccessTime = UNSET;
+    private int lastUpdateTime = UNSET;
+    private int creationTime = UNSET;
+    private int lastStoredTime = UNSET;
+
+    OffHeapRecord(OffHeapRecordFactory factory, long address) {
+        this.factory = factory;
+        this.address = address;
+    }
+
+    /**
+     * Creates a detached record.
+     */
+    OffHeapRecord(OffHeapRecordFactory factory, Data value) {
+        this(factory, NULL_ADDRESS);
+        this.value = value;
+    }
+
+    OffHeapRecordFactory getFactory() {
+        return factory;
+    }
+
+    long getAddress() {
+        return address;
+    }
+
+    boolean isDetached() {
+        return address == NULL_ADDRESS;
+    }
+
+    /**
+     * Makes this detached record a view over the given entry block, which
+     * must already hold the state of this record.
+     */
+    void attach(long address) {
+        assert isDetached();
+        this.address = address;
+        this.value = null;
+    }
+
+    @Override
+    public Data getValue() {
+        return isDetached() ? value : factory.readValue(address);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        if (isDetached()) {
+            this.value = value;
+        } else {
+            factory.writeValue(address, value);
+        }
+    }
+
+    @Override
+    public long getCost() {
+        if (isDetached()) {
+            return value == null ? 0L : VALUE_OFFSET + value.totalSize();
+        }
+        return factory.getEntryCost(address);
+    }
+
+    @Override
+    public int getVersion() {
+        return isDetached() ? version : factory.getInt(address, VERSION_OFFSET);
+    }
+
+    @Override
+    public void setVersion(int version) {
+        if (isDetached()) {
+            this.version = version;
+        } else {
+            factory.putInt(address, VERSION_OFFSET, version);
+        }
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return recomputeWithBaseTime(getRawLastAccessTime());
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        setRawLastAccessTime(stripBaseTime(lastAccessTime));
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return recomputeWithBaseTime(getRawLastUpdateTime());
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        setRawLastUpdateTime(stripBaseTime(lastUpdateTime));
+    }
+
+    @Override
+    public long getCreationTime() {
+        return recomputeWithBaseTime(getRawCreationTime());
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        setRawCreationTime(stripBaseTime(creationTime));
+    }
+
+    @Override
+    public int getHits() {
+        return isDetached() ? hits : factory.getInt(address, HITS_OFFSET);
+    }
+
+    @Override
+    public void setHits(int hits) {
+        if (isDetached()) {
+            this.hits = hits;
+        } else {
+            factory.putInt(address, HITS_OFFSET, hits);
+        }
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        int lastStoredTime = getRawLastStoredTime();
+        if (lastStoredTime == UNSET) {
+            return 0L;
+        }
+        return recomputeWithBaseTime(lastStoredTime);
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+        setRawLastStoredTime(stripBaseTime(lastStoredTime));
+    }
+
+    @Override
+    public RecordReaderWriter getMatchingRecordReaderWriter() {
+        return DATA_RECORD_WITH_STATS_READER_WRITER;
+    }
+
+    @Override
+    public int getRawCreationTime() {
+        return isDetached() ? creationTime : factory.getInt(address, CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawCreationTime(int creationTime) {
+        if (isDetached()) {
+            this.creationTime = creationTime;
+        } else {
+            factory.putInt(address, CREATION_TIME_OFFSET, creationTime);
+        }
+    }
+
+    @Override
+    public int getRawLastAccessTime() {
+        return isDetached() ? lastAccessTime : factory.getInt(address, LAST_ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastAccessTime(int lastAccessTime) {
+        if (isDetached()) {
+            this.lastAccessTime = lastAccessTime;
+        } else {
+            factory.putInt(address, LAST_ACCESS_TIME_OFFSET, lastAccessTime);
+        }
+    }
+
+    @Override
+    public int getRawLastUpdateTime() {
+        return isDetached() ? lastUpdateTime : factory.getInt(address, LAST_UPDATE_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastUpdateTime(int lastUpdateTime) {
+        if (isDetached()) {
+            this.lastUpdateTime = lastUpdateTime;
+        } else {
+            factory.putInt(address, LAST_UPDATE_TIME_OFFSET, lastUpdateTime);
+        }
+    }
+
+    @Override
+    public int getRawLastStoredTime() {
+        return isDetached() ? lastStoredTime : factory.getInt(address, LAST_STORED_TIME_OFFSET);
+    }
+
+    @Override
+    public void setRawLastStoredTime(int lastStoredTime) {
+        if (isDetached()) {
+            this.lastStoredTime = lastStoredTime;
+        } else {
+            factory.putInt(address, LAST_STORED_TIME_OFFSET, lastStoredTime);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OffHeapRecord)) {
+            return false;
+        }
+        OffHeapRecord that = (OffHeapRecord) o;
+        return !isDetached() && address == that.address && factory == that.factory;
+    }
+
+    @Override
+    public int hashCode() {
+        return isDetached() ? System.identityHashCode(this) : Long.hashCode(address);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapRecord{"
+                + "address=" + address
+                + ", version=" + getVersion()
+                + ", hits=" + getHits()
+                + ", lastAccessTime=" + getRawLastAccessTime()
+                + ", lastUpdateTime=" + getRawLastUpdateTime()
+                + ", creationTime=" + getRawCreationTime()
+                + '}';
+    }
+}
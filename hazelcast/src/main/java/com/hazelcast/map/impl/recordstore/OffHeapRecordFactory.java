@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordFactory;
+import com.hazelcast.map.impl.record.Records;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.internal.serialization.impl.HeapData.TYPE_OFFSET;
+import static com.hazelcast.map.impl.record.Record.UNSET;
+
+/**
+ * {@link RecordFactory} which creates {@link OffHeapRecord}s. Keys, values
+ * and record metadata are written into blocks allocated from the supplied
+ * {@link MemoryManager}, so no per-entry object is retained on the heap.
+ * <p>
+ * Layout of an entry block:
+ * <pre>
+ * offset  size  field
+ *  0      8     next entry address
+ *  8      8     value block address
+ * 16      4     version
+ * 20      4     hits
+ * 24      4     last access time
+ * 28      4     last update time
+ * 32      4     creation time
+ * 36      4     last stored time
+ * 40      4     key hash
+ * 44      4     key size
+ * 48      n     key bytes
+ * </pre>
+ * The {@code next} slot links the entry into a bucket chain of
+ * {@link OffHeapStorage} or into its list of deferred blocks. A value block
+ * consists of an {@code int} size followed by the serialized value bytes.
+ * <p>
+ * Not thread-safe, instances are confined to a partition thread.
+ */
+public class OffHeapRecordFactory implements RecordFactory<Data> {
+
+    static final int NEXT_OFFSET = 0;
+    static final int VALUE_ADDRESS_OFFSET = 8;
+    static final int VERSION_OFFSET = 16;
+    static final int HITS_OFFSET = 20;
+    static final int LAST_ACCESS_TIME_OFFSET = 24;
+    static final int LAST_UPDATE_TIME_OFFSET = 28;
+    static final int CREATION_TIME_OFFSET = 32;
+    static final int LAST_STORED_TIME_OFFSET = 36;
+    static final int KEY_HASH_OFFSET = 40;
+    static final int KEY_SIZE_OFFSET = 44;
+    static final int KEY_OFFSET = 48;
+
+    static final int VALUE_SIZE_OFFSET = 0;
+    static final int VALUE_OFFSET = INT_SIZE_IN_BYTES;
+
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final SerializationService ss;
+
+    public OffHeapRecordFactory(MemoryManager memoryManager, SerializationService ss) {
+        this.malloc = memoryManager.getAllocator();
+        this.mem = memoryManager.getAccessor();
+        this.ss = ss;
+    }
+
+    /**
+     * Creates a detached record which doesn't own any off-heap memory yet.
+     * Its entry block is allocated when the record is
+     * {@link OffHeapStorage#put put} into a storage, see {@link #attach}.
+     */
+    @Override
+    public Record<Data> newRecord(Data key, Object value) {
+        return new OffHeapRecord(this, ss.toData(value));
+    }
+
+    /**
+     * Allocates an entry block holding the state of the given detached
+     * record and attaches the record to it.
+     *
+     * @return address of the new entry block
+     */
+    long attach(Data key, OffHeapRecord record) {
+        long address = allocateEntry(key, record.getValue());
+        mem.putInt(address + VERSION_OFFSET, record.getVersion());
+        mem.putInt(address + HITS_OFFSET, record.getHits());
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, record.getRawLastAccessTime());
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, record.getRawLastUpdateTime());
+        mem.putInt(address + CREATION_TIME_OFFSET, record.getRawCreationTime());
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, record.getRawLastStoredTime());
+        record.attach(address);
+        return address;
+    }
+
+    /**
+     * Copies the given, possibly on-heap, record into a new entry block.
+     *
+     * @return address of the new entry block
+     */
+    long copyOf(Data key, Record record) {
+        long address = allocateEntry(key, ss.toData(record.getValue()));
+        Records.copyMetadataFrom(record, new OffHeapRecord(this, address));
+        return address;
+    }
+
+    private long allocateEntry(Data key, Data value) {
+        byte[] keyBytes = key.toByteArray();
+        long address = malloc.allocate(KEY_OFFSET + keyBytes.length);
+        mem.putLong(address + NEXT_OFFSET, NULL_ADDRESS);
+        mem.putLong(address + VALUE_ADDRESS_OFFSET, NULL_ADDRESS);
+        mem.putInt(address + VERSION_OFFSET, 0);
+        mem.putInt(address + HITS_OFFSET, 0);
+        mem.putInt(address + LAST_ACCESS_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_UPDATE_TIME_OFFSET, UNSET);
+        mem.putInt(address + CREATION_TIME_OFFSET, UNSET);
+        mem.putInt(address + LAST_STORED_TIME_OFFSET, UNSET);
+        mem.putInt(address + KEY_HASH_OFFSET, key.hashCode());
+        mem.putInt(address + KEY_SIZE_OFFSET, keyBytes.length);
+        mem.copyFromByteArray(keyBytes, 0, address + KEY_OFFSET, keyBytes.length);
+        writeValue(address, value);
+        return address;
+    }
+
+    Data readKey(long address) {
+        byte[] bytes = new byte[getInt(address, KEY_SIZE_OFFSET)];
+        mem.copyToByteArray(address + KEY_OFFSET, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    int getKeyHash(long address) {
+        return getInt(address, KEY_HASH_OFFSET);
+    }
+
+    /**
+     * Compares the stored key with the given one the same way
+     * {@link HeapData#equals(Object)} does, i.e. ignoring the
+     * partition hash.
+     */
+    boolean keyEquals(long address, Data key, int keyHash) {
+        if (getKeyHash(address) != keyHash) {
+            return false;
+        }
+        byte[] keyBytes = key.toByteArray();
+        if (getInt(address, KEY_SIZE_OFFSET) != keyBytes.length) {
+            return false;
+        }
+        long keyAddress = address + KEY_OFFSET;
+        for (int i = keyBytes.length - 1; i >= TYPE_OFFSET; i--) {
+            if (mem.getByte(keyAddress + i) != keyBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Data readValue(long address) {
+        long valueAddress = getLong(address, VALUE_ADDRESS_OFFSET);
+        if (valueAddress == NULL_ADDRESS) {
+            return null;
+        }
+        byte[] bytes = new byte[mem.getInt(valueAddress + VALUE_SIZE_OFFSET)];
+        mem.copyToByteArray(valueAddress + VALUE_OFFSET, bytes, 0, bytes.length);
+        return new HeapData(bytes);
+    }
+
+    void writeValue(long address, Data value) {
+        freeValue(address);
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.toByteArray();
+        long valueAddress = malloc.allocate(VALUE_OFFSET + bytes.length);
+        mem.putInt(valueAddress + VALUE_SIZE_OFFSET, bytes.length);
+        mem.copyFromByteArray(bytes, 0, valueAddress + VALUE_OFFSET, bytes.length);
+        putLong(address, VALUE_ADDRESS_OFFSET, valueAddress);
+    }
+
+    /**
+     * @return number of off-heap bytes occupied by the value of the entry
+     */
+    long getValueCost(long address) {
+        long valueAddress = getLong(address, VALUE_ADDRESS_OFFSET);
+        return valueAddress == NULL_ADDRESS ? 0L : VALUE_OFFSET + mem.getInt(valueAddress + VALUE_SIZE_OFFSET);
+    }
+
+    /**
+     * @return number of off-heap bytes occupied by the entry, including its value
+     */
+    long getEntryCost(long address) {
+        return KEY_OFFSET + getInt(address, KEY_SIZE_OFFSET) + getValueCost(address);
+    }
+
+    void free(long address) {
+        freeValue(address);
+        malloc.free(address, KEY_OFFSET + getInt(address, KEY_SIZE_OFFSET));
+    }
+
+    private void freeValue(long address) {
+        long valueAddress = getLong(address, VALUE_ADDRESS_OFFSET);
+        if (valueAddress == NULL_ADDRESS) {
+            return;
+        }
+        malloc.free(valueAddress, VALUE_OFFSET + mem.getInt(valueAddress + VALUE_SIZE_OFFSET));
+        putLong(address, VALUE_ADDRESS_OFFSET, NULL_ADDRESS);
+    }
+
+    long getNext(long address) {
+        return getLong(address, NEXT_OFFSET);
+    }
+
+    void setNext(long address, long next) {
+        putLong(address, NEXT_OFFSET, next);
+    }
+
+    int getInt(long address, int offset) {
+        return mem.getInt(address + offset);
+    }
+
+    void putInt(long address, int offset, int value) {
+        mem.putInt(address + offset, value);
+    }
+
+    long getLong(long address, int offset) {
+        return mem.getLong(address + offset);
+    }
+
+    void putLong(long address, int offset, long value) {
+        mem.putLong(address + offset, value);
+    }
+
+    MemoryAllocator getAllocator() {
+        return malloc;
+    }
+
+    MemoryAccessor getAccessor() {
+        return mem;
+    }
+}
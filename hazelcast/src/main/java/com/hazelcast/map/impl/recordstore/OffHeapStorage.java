@@ -0,0 +1,492 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.EntryCostEstimator;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+import static com.hazelcast.internal.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * {@link Storage} which keeps keys, values and record metadata off-heap.
+ * <p>
+ * Entries are kept in a chained hash table whose bucket array and entry
+ * blocks are allocated through the {@link MemoryAllocator} of the given
+ * {@link OffHeapRecordFactory}. Since entry blocks never move, the
+ * {@link OffHeapRecord} flyweights handed out by this storage stay valid
+ * while the table is resized.
+ * <p>
+ * Removed entries are not freed immediately but are kept until
+ * {@link #disposeDeferredBlocks()} is called at the end of the operation,
+ * so that records obtained earlier in the same operation can still be read.
+ * <p>
+ * The expiry metadata of entries with a TTL or max-idle is not part of the
+ * entry blocks: the {@link ExpirySystem} of the record store still keeps it
+ * on-heap, keyed by an on-heap copy of the key.
+ * <p>
+ * Not thread-safe, an instance is confined to its partition thread.
+ */
+public class OffHeapStorage implements Storage<Data, Record> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 256;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int SLOT_SIZE = LONG_SIZE_IN_BYTES;
+
+    private final OffHeapRecordFactory recordFactory;
+    private final MemoryAllocator malloc;
+    private final MemoryAccessor mem;
+    private final ExpirySystem expirySystem;
+    private final SerializationService serializationService;
+
+    private long tableAddress = NULL_ADDRESS;
+    private int capacity;
+    private int size;
+    private long deferredHead = NULL_ADDRESS;
+
+    // not final for testing purposes.
+    private EntryCostEstimator<Data, Record> entryCostEstimator = new OffHeapEntryCostEstimator();
+
+    OffHeapStorage(OffHeapRecordFactory recordFactory, ExpirySystem expirySystem,
+                   SerializationService serializationService) {
+        this.recordFactory = recordFactory;
+        this.malloc = recordFactory.getAllocator();
+        this.mem = recordFactory.getAccessor();
+        this.expirySystem = expirySystem;
+        this.serializationService = serializationService;
+        allocateTable(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    @Override
+    public void put(Data key, Record record) {
+        long address = toOwnedEntry(key, record);
+        long existing = find(key);
+        if (existing == address) {
+            return;
+        }
+        if (existing != NULL_ADDRESS) {
+            unlinkAndDefer(existing);
+        }
+        link(address);
+        size++;
+        updateCostEstimate(recordFactory.getEntryCost(address));
+
+        if (size > capacity * LOAD_FACTOR) {
+            resize(capacity << 1);
+        }
+    }
+
+    private long toOwnedEntry(Data key, Record record) {
+        if (record instanceof OffHeapRecord && ((OffHeapRecord) record).getFactory() == recordFactory) {
+            OffHeapRecord offHeapRecord = (OffHeapRecord) record;
+            return offHeapRecord.isDetached() ? recordFactory.attach(key, offHeapRecord) : offHeapRecord.getAddress();
+        }
+        return recordFactory.copyOf(key, record);
+    }
+
+    @Override
+    public Record updateRecordValue(Data key, Record record, Object value) {
+        updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
+
+        record.setValue(serializationService.toData(value));
+
+        updateCostEstimate(entryCostEstimator.calculateValueCost(record));
+        return record;
+    }
+
+    @Override
+    public Record get(Data key) {
+        long address = find(key);
+        return address == NULL_ADDRESS ? null : new OffHeapRecord(recordFactory, address);
+    }
+
+    @Override
+    public Record getIfSameKey(Data key) {
+        throw new UnsupportedOperationException("OffHeapStorage#getIfSameKey");
+    }
+
+    @Override
+    public void removeRecord(Data dataKey, @Nonnull Record record) {
+        long address = find(dataKey);
+        if (address != NULL_ADDRESS) {
+            unlinkAndDefer(address);
+        }
+    }
+
+    @Override
+    public boolean containsKey(Data key) {
+        return find(key) != NULL_ADDRESS;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Data, Record>> mutationTolerantIterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear(boolean isDuringShutdown) {
+        if (tableAddress != NULL_ADDRESS) {
+            for (int bucket = 0; bucket < capacity; bucket++) {
+                long slot = slotAddress(bucket);
+                long address = mem.getLong(slot);
+                while (address != NULL_ADDRESS) {
+                    long next = recordFactory.getNext(address);
+                    recordFactory.free(address);
+                    address = next;
+                }
+                mem.putLong(slot, NULL_ADDRESS);
+            }
+        }
+        size = 0;
+        disposeDeferredBlocks();
+
+        entryCostEstimator.reset();
+    }
+
+    @Override
+    public void destroy(boolean isDuringShutdown) {
+        clear(isDuringShutdown);
+        if (tableAddress != NULL_ADDRESS) {
+            malloc.free(tableAddress, (long) capacity * SLOT_SIZE);
+            tableAddress = NULL_ADDRESS;
+            capacity = 0;
+        }
+    }
+
+    @Override
+    public EntryCostEstimator getEntryCostEstimator() {
+        return entryCostEstimator;
+    }
+
+    @Override
+    public void setEntryCostEstimator(EntryCostEstimator entryCostEstimator) {
+        this.entryCostEstimator = entryCostEstimator;
+    }
+
+    @Override
+    public void disposeDeferredBlocks() {
+        long address = deferredHead;
+        while (address != NULL_ADDRESS) {
+            long next = recordFactory.getNext(address);
+            recordFactory.free(address);
+            address = next;
+        }
+        deferredHead = NULL_ADDRESS;
+    }
+
+    @Override
+    public Iterable<EntryView> getRandomSamples(int sampleCount) {
+        List<EntryView> samples = new ArrayList<>(sampleCount);
+        if (size == 0) {
+            return samples;
+        }
+        int mask = capacity - 1;
+        int firstBucket = ThreadLocalRandom.current().nextInt(capacity);
+        for (int i = 0; i < capacity && samples.size() < sampleCount; i++) {
+            long address = mem.getLong(slotAddress((firstBucket + i) & mask));
+            while (address != NULL_ADDRESS && samples.size() < sampleCount) {
+                Data key = recordFactory.readKey(address);
+                samples.add(new LazyEvictableEntryView<>(key, new OffHeapRecord(recordFactory, address),
+                        expirySystem.getExpiryMetadata(key), serializationService));
+                address = recordFactory.getNext(address);
+            }
+        }
+        return samples;
+    }
+
+    @Override
+    public MapKeysWithCursor fetchKeys(IterationPointer[] pointers, int size) {
+        List<Data> keys = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size,
+                address -> keys.add(recordFactory.readKey(address)));
+        return new MapKeysWithCursor(keys, newPointers);
+    }
+
+    @Override
+    public MapEntriesWithCursor fetchEntries(IterationPointer[] pointers, int size) {
+        List<Map.Entry<Data, Data>> entries = new ArrayList<>(size);
+        IterationPointer[] newPointers = fetchNext(pointers, size,
+                address -> entries.add(new AbstractMap.SimpleEntry<>(recordFactory.readKey(address),
+                        recordFactory.readValue(address))));
+        return new MapEntriesWithCursor(entries, newPointers);
+    }
+
+    @Override
+    public Data extractDataKeyFromLazy(EntryView entryView) {
+        return ((LazyEvictableEntryView) entryView).getDataKey();
+    }
+
+    @Override
+    public Data toBackingDataKeyFormat(Data key) {
+        return key;
+    }
+
+    protected void updateCostEstimate(long entrySize) {
+        entryCostEstimator.adjustEstimateBy(entrySize);
+    }
+
+    private long find(Data key) {
+        if (tableAddress == NULL_ADDRESS) {
+            return NULL_ADDRESS;
+        }
+        int hash = key.hashCode();
+        long address = mem.getLong(slotAddress(bucketOf(hash, capacity)));
+        while (address != NULL_ADDRESS) {
+            if (recordFactory.keyEquals(address, key, hash)) {
+                return address;
+            }
+            address = recordFactory.getNext(address);
+        }
+        return NULL_ADDRESS;
+    }
+
+    private void link(long address) {
+        long slot = slotAddress(bucketOf(recordFactory.getKeyHash(address), capacity));
+        recordFactory.setNext(address, mem.getLong(slot));
+        mem.putLong(slot, address);
+    }
+
+    private void unlinkAndDefer(long address) {
+        long slot = slotAddress(bucketOf(recordFactory.getKeyHash(address), capacity));
+        long previous = NULL_ADDRESS;
+        long current = mem.getLong(slot);
+        while (current != address) {
+            previous = current;
+            current = recordFactory.getNext(current);
+        }
+        long next = recordFactory.getNext(address);
+        if (previous == NULL_ADDRESS) {
+            mem.putLong(slot, next);
+        } else {
+            recordFactory.setNext(previous, next);
+        }
+        size--;
+        updateCostEstimate(-recordFactory.getEntryCost(address));
+
+        recordFactory.setNext(address, deferredHead);
+        deferredHead = address;
+    }
+
+    private void allocateTable(int newCapacity) {
+        tableAddress = malloc.allocate((long) newCapacity * SLOT_SIZE);
+        capacity = newCapacity;
+    }
+
+    private void resize(int newCapacity) {
+        long oldTableAddress = tableAddress;
+        int oldCapacity = capacity;
+        allocateTable(newCapacity);
+        for (int bucket = 0; bucket < oldCapacity; bucket++) {
+            long address = mem.getLong(oldTableAddress + (long) bucket * SLOT_SIZE);
+            while (address != NULL_ADDRESS) {
+                long next = recordFactory.getNext(address);
+                link(address);
+                address = next;
+            }
+        }
+        malloc.free(oldTableAddress, (long) oldCapacity * SLOT_SIZE);
+    }
+
+    private long slotAddress(int bucket) {
+        return tableAddress + (long) bucket * SLOT_SIZE;
+    }
+
+    private static int bucketOf(int hash, int tableCapacity) {
+        // key hashes are already murmur-mixed, see HeapData#hashCode
+        return hash & (tableCapacity - 1);
+    }
+
+    /**
+     * Visits whole buckets, starting at the given {@code pointers}, until at
+     * least {@code size} entries have been passed to the {@code entryConsumer}.
+     * Resizes which happened in between calls are handled the same way as in
+     * {@link com.hazelcast.internal.util.SampleableConcurrentHashMap}.
+     *
+     * @return the pointers defining the state where iteration has ended
+     */
+    private IterationPointer[] fetchNext(IterationPointer[] pointers, int size, LongConsumer entryConsumer) {
+        pointers = checkPointers(pointers, capacity);
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+
+        int nextTableIndex;
+        if (lastPointer.getIndex() >= 0 && lastPointer.getIndex() < capacity) {
+            nextTableIndex = lastPointer.getIndex();
+        } else {
+            nextTableIndex = capacity - 1;
+        }
+        int counter = 0;
+        while (nextTableIndex >= 0 && counter < size) {
+            long address = mem.getLong(slotAddress(nextTableIndex--));
+            while (address != NULL_ADDRESS) {
+                if (hasNotBeenObserved(recordFactory.getKeyHash(address), pointers)) {
+                    entryConsumer.accept(address);
+                    counter++;
+                }
+                address = recordFactory.getNext(address);
+            }
+        }
+        lastPointer.setIndex(nextTableIndex);
+        return pointers;
+    }
+
+    private static IterationPointer[] checkPointers(IterationPointer[] pointers, int currentTableSize) {
+        IterationPointer lastPointer = pointers[pointers.length - 1];
+        boolean iterationStarted = lastPointer.getSize() == -1;
+        boolean tableResized = lastPointer.getSize() != currentTableSize;
+        int newLength = !iterationStarted && tableResized ? pointers.length + 1 : pointers.length;
+
+        IterationPointer[] updatedPointers = new IterationPointer[newLength];
+        for (int i = 0; i < pointers.length; i++) {
+            updatedPointers[i] = new IterationPointer(pointers[i]);
+        }
+
+        if (iterationStarted || tableResized) {
+            updatedPointers[updatedPointers.length - 1] = new IterationPointer(Integer.MAX_VALUE, currentTableSize);
+        }
+        return updatedPointers;
+    }
+
+    private static boolean hasNotBeenObserved(int keyHash, IterationPointer[] pointers) {
+        // check only the pointers up to the last, we haven't observed it with the last pointer
+        for (int i = 0; i < pointers.length - 1; i++) {
+            IterationPointer iterationPointer = pointers[i];
+            if (bucketOf(keyHash, iterationPointer.getSize()) > iterationPointer.getIndex()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Iterates over the storage bucket by bucket, keeping only on-heap copies
+     * of the keys of the current bucket between calls. Each key is looked up
+     * again before its entry is returned, so the iterator can be kept across
+     * operations which remove entries and dispose their off-heap blocks.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<Data, Record>> {
+
+        private final ArrayDeque<Data> keys = new ArrayDeque<>();
+        private IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+
+        @Override
+        public boolean hasNext() {
+            return advance() != NULL_ADDRESS;
+        }
+
+        @Override
+        public Map.Entry<Data, Record> next() {
+            long address = advance();
+            if (address == NULL_ADDRESS) {
+                throw new NoSuchElementException();
+            }
+            return new AbstractMap.SimpleImmutableEntry<>(keys.pollFirst(), new OffHeapRecord(recordFactory, address));
+        }
+
+        private long advance() {
+            for (;;) {
+                Data key = keys.peekFirst();
+                if (key == null) {
+                    if (!fetchKeysOfNextBucket()) {
+                        return NULL_ADDRESS;
+                    }
+                    continue;
+                }
+                long address = find(key);
+                if (address != NULL_ADDRESS) {
+                    return address;
+                }
+                keys.pollFirst();
+            }
+        }
+
+        private boolean fetchKeysOfNextBucket() {
+            while (tableAddress != NULL_ADDRESS && pointers[pointers.length - 1].getIndex() >= 0) {
+                pointers = fetchNext(pointers, 1, address -> keys.add(recordFactory.readKey(address)));
+                if (!keys.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Estimates the off-heap footprint of the stored entries.
+     */
+    private final class OffHeapEntryCostEstimator implements EntryCostEstimator<Data, Record> {
+
+        private long estimate;
+
+        @Override
+        public long getEstimate() {
+            return estimate;
+        }
+
+        @Override
+        public void adjustEstimateBy(long adjustment) {
+            estimate += adjustment;
+        }
+
+        @Override
+        public long calculateValueCost(Record record) {
+            if (record instanceof OffHeapRecord) {
+                return recordFactory.getValueCost(((OffHeapRecord) record).getAddress());
+            }
+            return 0L;
+        }
+
+        @Override
+        public long calculateEntryCost(Data key, Record record) {
+            return record.getCost();
+        }
+
+        @Override
+        public void reset() {
+            estimate = 0L;
+        }
+    }
+}
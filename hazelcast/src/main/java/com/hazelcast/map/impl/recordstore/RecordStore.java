@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.recordstore;
 
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
 import com.hazelcast.cluster.Address;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
@@ -43,6 +44,7 @@ import com.hazelcast.spi.exception.RetryableHazelcastException;
 import com.hazelcast.spi.merge.SplitBrainMergePolicy;
 import com.hazelcast.spi.merge.SplitBrainMergeTypes.MapMergeTypes;
 import com.hazelcast.wan.impl.CallerProvenance;
+import com.hazelcast.wan.impl.merkletree.MerkleTree;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -315,6 +317,37 @@ public interface RecordStore<R extends Record> {
      */
     void removeReplicatedRecord(Data dataKey, boolean backup);
 
+    /**
+     * Returns the Merkle tree maintained over the entries of this
+     * record store. Should only be accessed on the partition thread.
+     *
+     * @return the Merkle tree or {@code null} if Merkle trees
+     * are not enabled for this map
+     */
+    @Nullable
+    MerkleTree getMerkleTree();
+
+    /**
+     * Returns the partial state of the continuous aggregation registered
+     * under the given name on this record store. If there is no such
+     * aggregation yet, it is registered by accumulating all entries of
+     * this record store once, afterwards the state is maintained on each
+     * mutation. Should only be accessed on the partition thread.
+     *
+     * @param name       name of the continuous aggregation
+     * @param aggregator aggregator in its initial state
+     * @return the partial aggregation state of this record store
+     */
+    InvertibleAggregator getOrCreateContinuousAggregation(String name, InvertibleAggregator aggregator);
+
+    /**
+     * Stops maintaining the continuous aggregation registered under the given name.
+     *
+     * @param name name of the continuous aggregation
+     * @return {@code true} if the aggregation was registered on this record store
+     */
+    boolean removeContinuousAggregation(String name);
+
     void forEach(BiConsumer<Data, R> consumer, boolean backup);
 
     void forEach(BiConsumer<Data, Record> consumer, boolean backup, boolean includeExpiredRecords);
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.listener;
+
+/**
+ * A {@link MapListener} which opts in to batched delivery of entry events.
+ * <p>
+ * Instead of publishing each entry event to the listener as soon as it
+ * happens, the members buffer the events per listener and partition and
+ * send them in batches when {@link #getEventBatchSize()} events are
+ * collected or the oldest buffered event waited for
+ * {@link #getEventBatchDelayMillis()}. The listener is still notified
+ * once per event and the events of a key are delivered in order, but the
+ * number of messages sent over the network scales with the flush rate
+ * instead of the write rate.
+ * <p>
+ * When {@linkplain #isEventCoalescingEnabled() coalescing} is enabled,
+ * only the latest event of each key in a batch is delivered, so the
+ * listener observes the latest value of the key but may miss the
+ * intermediate ones. For example, an {@code ADDED} event followed by
+ * a {@code REMOVED} event of the same key in the same batch results in
+ * a single {@code REMOVED} event.
+ * <p>
+ * Implement it next to the {@link MapListener} sub-interfaces of the
+ * events of interest:
+ * <pre>{@code
+ * class PriceListener implements EntryUpdatedListener<String, Price>, BatchingMapListener {
+ *     public void entryUpdated(EntryEvent<String, Price> event) { ... }
+ *
+ *     public boolean isEventCoalescingEnabled() {
+ *         return true;
+ *     }
+ * }
+ * }</pre>
+ * Batching applies to entry events of listeners registered on members,
+ * map-wide events like {@code CLEAR_ALL} are delivered immediately. It
+ * takes effect only when all members of the cluster are on version 5.4 or
+ * later, otherwise the events are delivered one by one.
+ *
+ * @since 5.4
+ */
+public interface BatchingMapListener extends MapListener {
+
+    /**
+     * Default maximum number of events in a batch.
+     */
+    int DEFAULT_EVENT_BATCH_SIZE = 100;
+
+    /**
+     * Default maximum time in milliseconds an event waits in a batch.
+     */
+    long DEFAULT_EVENT_BATCH_DELAY_MILLIS = 100;
+
+    /**
+     * Returns the maximum number of events in a batch. A batch is sent as
+     * soon as it is full. Must be positive.
+     *
+     * @return the maximum number of events in a batch
+     */
+    default int getEventBatchSize() {
+        return DEFAULT_EVENT_BATCH_SIZE;
+    }
+
+    /**
+     * Returns the maximum time in milliseconds an event waits in a batch
+     * before the batch is sent, even if it isn't full. Must not be negative.
+     *
+     * @return the maximum delay of an event in milliseconds
+     */
+    default long getEventBatchDelayMillis() {
+        return DEFAULT_EVENT_BATCH_DELAY_MILLIS;
+    }
+
+    /**
+     * Returns whether only the latest event of each key in a batch is
+     * delivered.
+     *
+     * @return {@code true} if the events of a key are coalesced in a batch
+     */
+    default boolean isEventCoalescingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,736 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.core.TypeConverter;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.query.Predicate;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR;
+import static com.hazelcast.query.impl.OrderedIndexStore.DATA_COMPARATOR_REVERSED;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptySet;
+
+/**
+ * Store indexes rankly in a B+ tree with primitive {@code long} keys.
+ * <p>
+ * The key encoding is chosen by the first non-null value inserted into the
+ * store: integral numbers are stored as is, floating-point numbers as their
+ * order-preserving bit patterns and temporal values as their distance from
+ * the epoch. Compared to {@link OrderedIndexStore}, searches don't compare
+ * boxed values and range scans walk dense leaf arrays, which is considerably
+ * friendlier to CPU caches.
+ * <p>
+ * The tree is copy-on-write, so SQL iterators traverse a snapshot of it
+ * without any locking. Records sharing a value are kept in a per-value map,
+ * as in {@link OrderedIndexStore}, so only the first record of a value and
+ * the removal of the last one modify the tree.
+ * <p>
+ * If a value which can't be encoded by the chosen encoding is inserted, e.g.
+ * a string or a composite value, the store moves all its records to a skip
+ * list ordered by {@link OrderedIndexStore#SPECIAL_AWARE_COMPARATOR} and
+ * works as {@link OrderedIndexStore} from then on.
+ */
+@SuppressWarnings("rawtypes")
+public class BPlusTreeIndexStore extends BaseSingleValueIndexStore {
+
+    private final boolean copyOnWrite;
+
+    private volatile KeyCodec codec;
+    private volatile LongBPlusTree<Bucket> tree = LongBPlusTree.empty();
+    private volatile Bucket nullBucket;
+    private volatile ConcurrentSkipListMap<Comparable, Bucket> fallback;
+
+    public BPlusTreeIndexStore(IndexCopyBehavior copyOn) {
+        super(copyOn, true);
+        assert copyOn != null;
+        this.copyOnWrite = copyOn == IndexCopyBehavior.COPY_ON_WRITE;
+    }
+
+    @Override
+    Object insertInternal(Comparable value, QueryableEntry record) {
+        ConcurrentSkipListMap<Comparable, Bucket> fallback = this.fallback;
+        if (fallback == null && value != NULL && !accepts(value)) {
+            fallback = switchToFallback();
+        }
+
+        Bucket bucket;
+        if (fallback != null) {
+            bucket = fallback.computeIfAbsent(value, this::newBucket);
+        } else if (value == NULL) {
+            bucket = nullBucket;
+            if (bucket == null) {
+                bucket = newBucket(NULL);
+                nullBucket = bucket;
+            }
+        } else {
+            long key = codec.encode(value);
+            bucket = tree.get(key);
+            if (bucket == null) {
+                bucket = newBucket(value);
+                tree = tree.put(key, bucket);
+            }
+        }
+        return bucket.put(record);
+    }
+
+    @Override
+    Object removeInternal(Comparable value, Data recordKey) {
+        ConcurrentSkipListMap<Comparable, Bucket> fallback = this.fallback;
+        if (fallback != null) {
+            Bucket bucket = fallback.get(value);
+            Object oldValue = removeFromBucket(bucket, recordKey);
+            if (bucket != null && bucket.isEmpty()) {
+                fallback.remove(value);
+            }
+            return oldValue;
+        }
+
+        if (value == NULL) {
+            Bucket bucket = nullBucket;
+            Object oldValue = removeFromBucket(bucket, recordKey);
+            if (bucket != null && bucket.isEmpty()) {
+                nullBucket = null;
+            }
+            return oldValue;
+        }
+
+        KeyCodec codec = this.codec;
+        if (codec == null || !codec.accepts(value)) {
+            return null;
+        }
+        long key = codec.encode(value);
+        Bucket bucket = tree.get(key);
+        Object oldValue = removeFromBucket(bucket, recordKey);
+        if (bucket != null && bucket.isEmpty()) {
+            tree = tree.remove(key);
+        }
+        return oldValue;
+    }
+
+    private static Object removeFromBucket(Bucket bucket, Data recordKey) {
+        return bucket == null ? null : bucket.remove(recordKey);
+    }
+
+    @Override
+    public Comparable canonicalizeQueryArgumentScalar(Comparable value) {
+        // We still need to canonicalize query arguments for ordered indexes to
+        // support InPredicate queries.
+        return Comparables.canonicalizeForHashLookup(value);
+    }
+
+    @Override
+    public Comparable canonicalizeScalarForStorage(Comparable value) {
+        // Returning the original value since ordered indexes are not supporting
+        // hash lookups on their stored values, so there is no need in providing
+        // canonical representations.
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            codec = null;
+            tree = LongBPlusTree.empty();
+            nullBucket = null;
+            fallback = null;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public boolean isEvaluateOnly() {
+        return false;
+    }
+
+    @Override
+    public boolean canEvaluate(Class<? extends Predicate> predicateClass) {
+        return false;
+    }
+
+    @Override
+    public Set<QueryableEntry> evaluate(Predicate predicate, TypeConverter converter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(boolean descending) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(@Nonnull Comparable value) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(value, false));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(Comparison comparison, Comparable searchedValue, boolean descending) {
+        return new OrderedIndexStore.IteratorFromBatch(getSqlRecordIteratorBatch(comparison, searchedValue, descending));
+    }
+
+    @Override
+    public Iterator<QueryableEntry> getSqlRecordIterator(
+        Comparable from,
+        boolean fromInclusive,
+        Comparable to,
+        boolean toInclusive,
+        boolean descending
+    ) {
+        return new OrderedIndexStore.IteratorFromBatch(
+                getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(@Nonnull Comparable value, boolean descending) {
+        Bucket bucket = getBucket(value);
+
+        if (bucket == null) {
+            return emptyIterator();
+        } else {
+            return Stream.of(new IndexKeyEntries(value, bucket.iterator(descending))).iterator();
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(boolean descending) {
+        return new IndexKeyEntriesIterator(buckets(NULL, true, POSITIVE_INFINITY, true, descending), descending);
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparison comparison,
+            @Nonnull Comparable searchedValue,
+            boolean descending
+    ) {
+        switch (comparison) {
+            case LESS:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, false, descending);
+            case LESS_OR_EQUAL:
+                return getSqlRecordIteratorBatch(NULL, false, searchedValue, true, descending);
+            case GREATER:
+                return getSqlRecordIteratorBatch(searchedValue, false, POSITIVE_INFINITY, true, descending);
+            case GREATER_OR_EQUAL:
+                return getSqlRecordIteratorBatch(searchedValue, true, POSITIVE_INFINITY, true, descending);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Iterator<IndexKeyEntries> getSqlRecordIteratorBatch(
+            @Nonnull Comparable from,
+            boolean fromInclusive,
+            @Nonnull Comparable to,
+            boolean toInclusive,
+            boolean descending
+    ) {
+        int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+
+        if (order == 0) {
+            if (!fromInclusive || !toInclusive) {
+                return emptyIterator();
+            }
+            return getSqlRecordIteratorBatch(from, descending);
+        } else if (order > 0) {
+            return emptyIterator();
+        }
+
+        return new IndexKeyEntriesIterator(buckets(from, fromInclusive, to, toInclusive, descending), descending);
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            Bucket bucket = getBucket(value);
+            return toSingleResultSet(bucket == null ? null : bucket.records);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            MultiResultSet results = createMultiResultSet();
+            for (Comparable value : values) {
+                Bucket bucket = getBucket(value);
+                if (bucket != null) {
+                    copyToMultiResultSet(results, bucket.records);
+                }
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparison comparison, Comparable searchedValue) {
+        switch (comparison) {
+            case LESS:
+                return getRecords(NULL, false, searchedValue, false);
+            case LESS_OR_EQUAL:
+                return getRecords(NULL, false, searchedValue, true);
+            case GREATER:
+                return getRecords(searchedValue, false, POSITIVE_INFINITY, true);
+            case GREATER_OR_EQUAL:
+                return getRecords(searchedValue, true, POSITIVE_INFINITY, true);
+            default:
+                throw new IllegalArgumentException("Unrecognized comparison: " + comparison);
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive) {
+        takeReadLock();
+        try {
+            int order = SPECIAL_AWARE_COMPARATOR.compare(from, to);
+            if (order == 0) {
+                if (!fromInclusive || !toInclusive) {
+                    return emptySet();
+                }
+                Bucket bucket = getBucket(from);
+                return toSingleResultSet(bucket == null ? null : bucket.records);
+            } else if (order > 0) {
+                return emptySet();
+            }
+            MultiResultSet results = createMultiResultSet();
+            Iterator<Bucket> buckets = buckets(from, fromInclusive, to, toInclusive, false);
+            while (buckets.hasNext()) {
+                copyToMultiResultSet(results, buckets.next().records);
+            }
+            return results;
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Comparator<Data> getKeyComparator(boolean isDescending) {
+        return isDescending ? DATA_COMPARATOR_REVERSED : DATA_COMPARATOR;
+    }
+
+    /**
+     * Checks whether the given non-null value can be stored in the tree,
+     * choosing the key encoding if it's the first value stored.
+     */
+    private boolean accepts(Comparable value) {
+        if (codec == null) {
+            codec = KeyCodec.forValue(value);
+            return codec != null;
+        }
+        return codec.accepts(value);
+    }
+
+    private ConcurrentSkipListMap<Comparable, Bucket> switchToFallback() {
+        ConcurrentSkipListMap<Comparable, Bucket> fallback = new ConcurrentSkipListMap<>(SPECIAL_AWARE_COMPARATOR);
+        if (nullBucket != null) {
+            fallback.put(NULL, nullBucket);
+        }
+        Iterator<Bucket> buckets = tree.iterator(false);
+        while (buckets.hasNext()) {
+            Bucket bucket = buckets.next();
+            fallback.put(bucket.value, bucket);
+        }
+        // readers still traversing the tree see the same buckets
+        this.fallback = fallback;
+        return fallback;
+    }
+
+    private Bucket getBucket(Comparable value) {
+        ConcurrentSkipListMap<Comparable, Bucket> fallback = this.fallback;
+        if (fallback != null) {
+            return fallback.get(value);
+        }
+        if (value == NULL) {
+            return nullBucket;
+        }
+
+        KeyCodec codec = this.codec;
+        if (codec != null && codec.acceptsArgument(value)) {
+            return tree.get(codec.encode(value));
+        }
+        // the value has no exact key, look for an equal one
+        Iterator<Bucket> buckets = tree.iterator(false);
+        while (buckets.hasNext()) {
+            Bucket bucket = buckets.next();
+            if (SPECIAL_AWARE_COMPARATOR.compare(bucket.value, value) == 0) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the buckets in the given range. The {@code from} bound may be
+     * {@link AbstractIndex#NULL} and the {@code to} bound may be {@link
+     * CompositeValue#POSITIVE_INFINITY}, both meaning the range is unbounded
+     * on that side.
+     */
+    @SuppressWarnings("checkstyle:NPathComplexity")
+    private Iterator<Bucket> buckets(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                     boolean descending) {
+        ConcurrentSkipListMap<Comparable, Bucket> fallback = this.fallback;
+        if (fallback != null) {
+            NavigableMap<Comparable, Bucket> subMap = fallback.subMap(from, fromInclusive, to, toInclusive);
+            return (descending ? subMap.descendingMap() : subMap).values().iterator();
+        }
+
+        Bucket nullBucket = from == NULL && fromInclusive ? this.nullBucket : null;
+        Iterator<Bucket> buckets = treeBuckets(from, fromInclusive, to, toInclusive, descending);
+        if (nullBucket == null) {
+            return buckets;
+        }
+        Iterator<Bucket> nullBuckets = Stream.of(nullBucket).iterator();
+        return descending ? new ConcatIterator<>(buckets, nullBuckets) : new ConcatIterator<>(nullBuckets, buckets);
+    }
+
+    private Iterator<Bucket> treeBuckets(Comparable from, boolean fromInclusive, Comparable to, boolean toInclusive,
+                                         boolean descending) {
+        LongBPlusTree<Bucket> tree = this.tree;
+        KeyCodec codec = this.codec;
+        if (codec == null) {
+            return emptyIterator();
+        }
+
+        boolean fromUnbounded = from == NULL;
+        boolean toUnbounded = to == POSITIVE_INFINITY;
+        if ((fromUnbounded || codec.acceptsArgument(from)) && (toUnbounded || codec.acceptsArgument(to))) {
+            long fromKey = fromUnbounded ? Long.MIN_VALUE : codec.encode(from);
+            long toKey = toUnbounded ? Long.MAX_VALUE : codec.encode(to);
+            return tree.iterator(fromKey, fromInclusive || fromUnbounded, toKey, toInclusive || toUnbounded, descending);
+        }
+
+        // a bound has no exact key, filter all the buckets
+        return new FilteringIterator(tree.iterator(descending), from, fromInclusive, to, toInclusive);
+    }
+
+    private Bucket newBucket(Comparable value) {
+        return new Bucket(value, copyOnWrite ? new TreeMap<>(DATA_COMPARATOR) : new ConcurrentSkipListMap<>(DATA_COMPARATOR));
+    }
+
+    /**
+     * The records associated with a value. Needs to be modified in a
+     * thread-safe way.
+     */
+    private final class Bucket {
+
+        private final Comparable value;
+        private volatile NavigableMap<Data, QueryableEntry> records;
+
+        Bucket(Comparable value, NavigableMap<Data, QueryableEntry> records) {
+            this.value = value;
+            this.records = records;
+        }
+
+        Object put(QueryableEntry entry) {
+            if (copyOnWrite) {
+                NavigableMap<Data, QueryableEntry> newRecords = new TreeMap<>(records);
+                Object oldValue = newRecords.put(entry.getKeyData(), entry);
+                records = newRecords;
+                return oldValue;
+            } else {
+                return records.put(entry.getKeyData(), entry);
+            }
+        }
+
+        Object remove(Data recordKey) {
+            if (copyOnWrite) {
+                if (!records.containsKey(recordKey)) {
+                    return null;
+                }
+                NavigableMap<Data, QueryableEntry> newRecords = new TreeMap<>(records);
+                Object oldValue = newRecords.remove(recordKey);
+                records = newRecords;
+                return oldValue;
+            } else {
+                return records.remove(recordKey);
+            }
+        }
+
+        boolean isEmpty() {
+            return records.isEmpty();
+        }
+
+        Iterator<QueryableEntry> iterator(boolean descending) {
+            NavigableMap<Data, QueryableEntry> records = this.records;
+            return (descending ? records.descendingMap() : records).values().iterator();
+        }
+    }
+
+    private static final class IndexKeyEntriesIterator implements Iterator<IndexKeyEntries> {
+
+        private final Iterator<Bucket> buckets;
+        private final boolean descending;
+
+        IndexKeyEntriesIterator(Iterator<Bucket> buckets, boolean descending) {
+            this.buckets = buckets;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return buckets.hasNext();
+        }
+
+        @Override
+        public IndexKeyEntries next() {
+            Bucket bucket = buckets.next();
+            return new IndexKeyEntries(bucket.value, bucket.iterator(descending));
+        }
+    }
+
+    /**
+     * Filters the buckets of values in the given range.
+     */
+    private static final class FilteringIterator implements Iterator<Bucket> {
+
+        private final Iterator<Bucket> buckets;
+        private final Comparable from;
+        private final boolean fromInclusive;
+        private final Comparable to;
+        private final boolean toInclusive;
+        private Bucket next;
+
+        FilteringIterator(Iterator<Bucket> buckets, Comparable from, boolean fromInclusive, Comparable to,
+                          boolean toInclusive) {
+            this.buckets = buckets;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Bucket next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Bucket result = next;
+            next = advance();
+            return result;
+        }
+
+        private Bucket advance() {
+            while (buckets.hasNext()) {
+                Bucket bucket = buckets.next();
+                int fromOrder = SPECIAL_AWARE_COMPARATOR.compare(bucket.value, from);
+                int toOrder = SPECIAL_AWARE_COMPARATOR.compare(bucket.value, to);
+                boolean afterFrom = fromOrder > 0 || fromOrder == 0 && fromInclusive;
+                boolean beforeTo = toOrder < 0 || toOrder == 0 && toInclusive;
+                if (afterFrom && beforeTo) {
+                    return bucket;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class ConcatIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> second;
+        private Iterator<T> current;
+
+        ConcatIterator(Iterator<T> first, Iterator<T> second) {
+            this.current = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current.hasNext()) {
+                return true;
+            }
+            current = second;
+            return current.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+
+    /**
+     * Encodes values as {@code long} keys preserving their order.
+     */
+    enum KeyCodec {
+
+        INTEGRAL {
+            @Override
+            boolean accepts(Comparable value) {
+                Class<?> clazz = value.getClass();
+                return clazz == Long.class || clazz == Integer.class || clazz == Short.class || clazz == Byte.class;
+            }
+
+            @Override
+            long encode(Comparable value) {
+                return ((Number) value).longValue();
+            }
+        },
+
+        FLOATING_POINT {
+            @Override
+            boolean accepts(Comparable value) {
+                Class<?> clazz = value.getClass();
+                return clazz == Double.class || clazz == Float.class;
+            }
+
+            @Override
+            boolean acceptsArgument(Comparable value) {
+                Class<?> clazz = value.getClass();
+                if (clazz == Long.class) {
+                    // only the longs which are exactly representable as doubles
+                    long longValue = (Long) value;
+                    return longValue >= -MAX_EXACT_DOUBLE_LONG && longValue <= MAX_EXACT_DOUBLE_LONG;
+                }
+                return accepts(value) || clazz == Integer.class || clazz == Short.class || clazz == Byte.class;
+            }
+
+            @Override
+            long encode(Comparable value) {
+                // flip all the bits but the sign one of negative numbers, so
+                // the signed comparison of the bits matches Double.compare
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+            }
+        },
+
+        DATE {
+            @Override
+            boolean accepts(Comparable value) {
+                return value.getClass() == Date.class;
+            }
+
+            @Override
+            long encode(Comparable value) {
+                return ((Date) value).getTime();
+            }
+        },
+
+        LOCAL_DATE {
+            @Override
+            boolean accepts(Comparable value) {
+                return value.getClass() == LocalDate.class;
+            }
+
+            @Override
+            long encode(Comparable value) {
+                return ((LocalDate) value).toEpochDay();
+            }
+        },
+
+        LOCAL_DATE_TIME {
+            @Override
+            boolean accepts(Comparable value) {
+                return value.getClass() == LocalDateTime.class
+                        && fitsEpochNanos(((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC));
+            }
+
+            @Override
+            long encode(Comparable value) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                return toEpochNanos(dateTime.toEpochSecond(ZoneOffset.UTC), dateTime.getNano());
+            }
+        },
+
+        INSTANT {
+            @Override
+            boolean accepts(Comparable value) {
+                return value.getClass() == Instant.class && fitsEpochNanos(((Instant) value).getEpochSecond());
+            }
+
+            @Override
+            long encode(Comparable value) {
+                Instant instant = (Instant) value;
+                return toEpochNanos(instant.getEpochSecond(), instant.getNano());
+            }
+        };
+
+        private static final long MAX_EXACT_DOUBLE_LONG = 1L << 53;
+        private static final long NANOS_PER_SECOND = 1_000_000_000L;
+        private static final long MIN_EPOCH_SECOND = Long.MIN_VALUE / NANOS_PER_SECOND;
+        private static final long MAX_EPOCH_SECOND = Long.MAX_VALUE / NANOS_PER_SECOND - 1;
+
+        /**
+         * Checks whether the given value can be stored with this encoding.
+         */
+        abstract boolean accepts(Comparable value);
+
+        /**
+         * Checks whether the given query argument has an exact key in this
+         * encoding.
+         */
+        boolean acceptsArgument(Comparable value) {
+            return accepts(value);
+        }
+
+        abstract long encode(Comparable value);
+
+        /**
+         * @return the encoding of the given value or {@code null} if there is
+         * none.
+         */
+        static KeyCodec forValue(Comparable value) {
+            for (KeyCodec codec : values()) {
+                if (codec.accepts(value)) {
+                    return codec;
+                }
+            }
+            return null;
+        }
+
+        private static boolean fitsEpochNanos(long epochSecond) {
+            return epochSecond > MIN_EPOCH_SECOND && epochSecond < MAX_EPOCH_SECOND;
+        }
+
+        private static long toEpochNanos(long epochSecond, int nanos) {
+            return epochSecond * NANOS_PER_SECOND + nanos;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.hazelcast.config.BitmapIndexOptions.UniqueKeyTransformation;
 import com.hazelcast.config.ConfigXmlGenerator.XmlGenerator;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.IndexType;
+import com.hazelcast.config.SortedIndexStructure;
 import com.hazelcast.internal.util.StringUtil;
 import com.hazelcast.internal.util.UuidUtil;
 import com.hazelcast.memory.Capacity;
@@ -133,6 +134,8 @@ public final class IndexUtils {
             normalizedConfig.getBitmapIndexOptions().setUniqueKey(uniqueKey).setUniqueKeyTransformation(uniqueKeyTransformation);
         }
 
+        normalizedConfig.setSortedIndexStructure(config.getSortedIndexStructure());
+
         return normalizedConfig;
     }
 
@@ -308,6 +311,11 @@ public final class IndexUtils {
                 gen.close();
             }
 
+            if (indexCfg.getType() == IndexType.SORTED
+                    && indexCfg.getSortedIndexStructure() != IndexConfig.DEFAULT_SORTED_INDEX_STRUCTURE) {
+                gen.node("sorted-index-structure", indexCfg.getSortedIndexStructure());
+            }
+
             gen.close();
         }
         gen.close();
@@ -357,15 +365,7 @@ public final class IndexUtils {
                 res.getBitmapIndexOptions().setUniqueKeyTransformation(uniqueKeyTransformation);
             }
         } else if (type == IndexType.SORTED) {
-            Node optionsNode = childElementWithName(indexNode, "btree-index", strict);
-            if (optionsNode != null) {
-                Node pageSizeNode = childElementWithName(optionsNode, "page-size", strict);
-                Node memoryTierNode = childElementWithName(optionsNode, "memory-tier", strict);
-                Node memoryTierCapacityNode = childElementWithName(memoryTierNode, "capacity", strict);
-
-                res.getBTreeIndexConfig().setPageSize(getCapacity(pageSizeNode, domLevel3));
-                res.getBTreeIndexConfig().getMemoryTierConfig().setCapacity(getCapacity(memoryTierCapacityNode, domLevel3));
-            }
+            fillSortedIndexOptions(res, indexNode, domLevel3, strict);
         }
 
         return res;
@@ -381,6 +381,31 @@ public final class IndexUtils {
         return Capacity.parse(valueString, MemoryUnit.valueOf(unitString));
     }
 
+    private static void fillSortedIndexOptions(IndexConfig res, Node indexNode, boolean domLevel3, boolean strict) {
+        Node optionsNode = childElementWithName(indexNode, "btree-index", strict);
+        if (optionsNode != null) {
+            Node pageSizeNode = childElementWithName(optionsNode, "page-size", strict);
+            Node memoryTierNode = childElementWithName(optionsNode, "memory-tier", strict);
+            Node memoryTierCapacityNode = childElementWithName(memoryTierNode, "capacity", strict);
+
+            res.getBTreeIndexConfig().setPageSize(getCapacity(pageSizeNode, domLevel3));
+            res.getBTreeIndexConfig().getMemoryTierConfig().setCapacity(getCapacity(memoryTierCapacityNode, domLevel3));
+        }
+
+        Node structureNode = childElementWithName(indexNode, "sorted-index-structure", strict);
+        if (structureNode != null) {
+            res.setSortedIndexStructure(getSortedIndexStructure(structureNode, domLevel3));
+        }
+    }
+
+    private static SortedIndexStructure getSortedIndexStructure(Node node, boolean domLevel3) {
+        String text = getTextContent(node, domLevel3);
+        if (isNullOrEmpty(text)) {
+            return IndexConfig.DEFAULT_SORTED_INDEX_STRUCTURE;
+        }
+        return SortedIndexStructure.valueOf(StringUtil.upperCaseInternal(text));
+    }
+
     public static IndexType getIndexTypeFromXmlName(String typeStr) {
         if (isNullOrEmpty(typeStr)) {
             typeStr = IndexConfig.DEFAULT_TYPE.name();
@@ -439,15 +464,7 @@ public final class IndexUtils {
                 res.getBitmapIndexOptions().setUniqueKeyTransformation(uniqueKeyTransformation);
             }
         } else if (type == IndexType.SORTED) {
-            Node optionsNode = childElementWithName(indexNode, "btree-index", strict);
-            if (optionsNode != null) {
-                Node pageSizeNode = childElementWithName(optionsNode, "page-size", strict);
-                Node memoryTierNode = childElementWithName(optionsNode, "memory-tier", strict);
-                Node memoryTierCapacityNode = childElementWithName(memoryTierNode, "capacity", strict);
-
-                res.getBTreeIndexConfig().setPageSize(getCapacity(pageSizeNode, domLevel3));
-                res.getBTreeIndexConfig().getMemoryTierConfig().setCapacity(getCapacity(memoryTierCapacityNode, domLevel3));
-            }
+            fillSortedIndexOptions(res, indexNode, domLevel3, strict);
         }
 
         return res;
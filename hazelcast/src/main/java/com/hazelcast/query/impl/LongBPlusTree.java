@@ -0,0 +1,459 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable B+ tree mapping primitive {@code long} keys to values.
+ * <p>
+ * The keys of a node are kept in a plain {@code long[]} array, so searching a
+ * node is a binary search over contiguous memory without dereferencing boxed
+ * keys. The tree is persistent: {@link #put} and {@link #remove} copy the
+ * nodes on the path from the root to the modified leaf and return a new tree
+ * sharing all the other nodes with this one. Readers may traverse a tree
+ * without any synchronization while a writer builds its successor.
+ *
+ * @param <V> the type of the values.
+ */
+@SuppressWarnings("unchecked")
+final class LongBPlusTree<V> {
+
+    /**
+     * The maximum number of keys in a leaf or children of an inner node.
+     */
+    static final int MAX_NODE_SIZE = 32;
+
+    /**
+     * The size below which a non-root node is merged with its sibling.
+     */
+    static final int MIN_NODE_SIZE = MAX_NODE_SIZE / 4;
+
+    private static final LongBPlusTree EMPTY = new LongBPlusTree<>(new Leaf(new long[0], new Object[0]), 1);
+
+    private final Node root;
+    private final int height;
+
+    private LongBPlusTree(Node root, int height) {
+        this.root = root;
+        this.height = height;
+    }
+
+    static <V> LongBPlusTree<V> empty() {
+        return EMPTY;
+    }
+
+    boolean isEmpty() {
+        return root.size() == 0;
+    }
+
+    V get(long key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(key)];
+        }
+        Leaf leaf = (Leaf) node;
+        int index = Arrays.binarySearch(leaf.keys, key);
+        return index >= 0 ? (V) leaf.values[index] : null;
+    }
+
+    /**
+     * @return a tree with the given key mapped to the given value.
+     */
+    LongBPlusTree<V> put(long key, V value) {
+        Node[] result = root.put(key, value);
+        if (result.length == 1) {
+            return new LongBPlusTree<>(result[0], height);
+        }
+        Node left = result[0];
+        Node right = result[1];
+        return new LongBPlusTree<>(new Inner(new long[]{left.lowKey(), right.lowKey()}, new Node[]{left, right}), height + 1);
+    }
+
+    /**
+     * @return a tree without the given key, or this tree if it has no such
+     * key.
+     */
+    LongBPlusTree<V> remove(long key) {
+        Node newRoot = root.remove(key);
+        if (newRoot == root) {
+            return this;
+        }
+        int newHeight = height;
+        while (newRoot instanceof Inner && newRoot.size() == 1) {
+            newRoot = ((Inner) newRoot).children[0];
+            newHeight--;
+        }
+        return new LongBPlusTree<>(newRoot, newHeight);
+    }
+
+    /**
+     * Returns an iterator over the values of the keys in the given range.
+     *
+     * @param from          the lower bound of the range.
+     * @param fromInclusive whether the lower bound is included.
+     * @param to            the upper bound of the range.
+     * @param toInclusive   whether the upper bound is included.
+     * @param descending    whether to iterate from the upper bound down.
+     * @return the iterator over the values in the key order.
+     */
+    Iterator<V> iterator(long from, boolean fromInclusive, long to, boolean toInclusive, boolean descending) {
+        return new Cursor<>(this, from, fromInclusive, to, toInclusive, descending);
+    }
+
+    /**
+     * @return an iterator over all the values in the key order.
+     */
+    Iterator<V> iterator(boolean descending) {
+        return iterator(Long.MIN_VALUE, true, Long.MAX_VALUE, true, descending);
+    }
+
+    private abstract static class Node {
+
+        final long[] keys;
+
+        Node(long[] keys) {
+            this.keys = keys;
+        }
+
+        /**
+         * For leaves it's the smallest key, for inner nodes it's the separator
+         * the node was split off with. The latter is only meaningful for a
+         * node which has just been split off.
+         */
+        long lowKey() {
+            return keys[0];
+        }
+
+        abstract int size();
+
+        /**
+         * @return a single node replacing this one or two nodes if this node
+         * was split.
+         */
+        abstract Node[] put(long key, Object value);
+
+        /**
+         * @return a node replacing this one, possibly underflowed, or this
+         * node if it has no such key.
+         */
+        abstract Node remove(long key);
+
+        /**
+         * @return a node having the entries of this node followed by the
+         * entries of the given one.
+         */
+        abstract Node concat(Node right, long separator);
+
+        /**
+         * @return two nodes having the entries of this node split evenly.
+         */
+        abstract Node[] split();
+    }
+
+    private static final class Leaf extends Node {
+
+        final Object[] values;
+
+        Leaf(long[] keys, Object[] values) {
+            super(keys);
+            this.values = values;
+        }
+
+        @Override
+        int size() {
+            return keys.length;
+        }
+
+        @Override
+        Node[] put(long key, Object value) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                Object[] newValues = values.clone();
+                newValues[index] = value;
+                return new Node[]{new Leaf(keys, newValues)};
+            }
+
+            index = -(index + 1);
+            int size = keys.length;
+            long[] newKeys = new long[size + 1];
+            Object[] newValues = new Object[size + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(values, 0, newValues, 0, index);
+            newKeys[index] = key;
+            newValues[index] = value;
+            System.arraycopy(keys, index, newKeys, index + 1, size - index);
+            System.arraycopy(values, index, newValues, index + 1, size - index);
+
+            Leaf leaf = new Leaf(newKeys, newValues);
+            return leaf.size() > MAX_NODE_SIZE ? leaf.split() : new Node[]{leaf};
+        }
+
+        @Override
+        Node remove(long key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return this;
+            }
+
+            int size = keys.length;
+            long[] newKeys = new long[size - 1];
+            Object[] newValues = new Object[size - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, size - index - 1);
+            System.arraycopy(values, index + 1, newValues, index, size - index - 1);
+            return new Leaf(newKeys, newValues);
+        }
+
+        @Override
+        Node concat(Node right, long separator) {
+            Leaf leaf = (Leaf) right;
+            long[] newKeys = Arrays.copyOf(keys, keys.length + leaf.keys.length);
+            Object[] newValues = Arrays.copyOf(values, values.length + leaf.values.length);
+            System.arraycopy(leaf.keys, 0, newKeys, keys.length, leaf.keys.length);
+            System.arraycopy(leaf.values, 0, newValues, values.length, leaf.values.length);
+            return new Leaf(newKeys, newValues);
+        }
+
+        @Override
+        Node[] split() {
+            int mid = keys.length / 2;
+            return new Node[]{
+                    new Leaf(Arrays.copyOfRange(keys, 0, mid), Arrays.copyOfRange(values, 0, mid)),
+                    new Leaf(Arrays.copyOfRange(keys, mid, keys.length), Arrays.copyOfRange(values, mid, values.length))
+            };
+        }
+    }
+
+    /**
+     * An inner node: {@code keys[i]} is the smallest key which may be found
+     * in {@code children[i]} for {@code i > 0}.
+     */
+    private static final class Inner extends Node {
+
+        final Node[] children;
+
+        Inner(long[] keys, Node[] children) {
+            super(keys);
+            this.children = children;
+        }
+
+        @Override
+        int size() {
+            return children.length;
+        }
+
+        int childIndex(long key) {
+            int index = Arrays.binarySearch(keys, 1, keys.length, key);
+            return index >= 0 ? index : -(index + 1) - 1;
+        }
+
+        @Override
+        Node[] put(long key, Object value) {
+            int index = childIndex(key);
+            Node[] result = children[index].put(key, value);
+            if (result.length == 1) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = result[0];
+                return new Node[]{new Inner(keys, newChildren)};
+            }
+
+            int size = children.length;
+            long[] newKeys = new long[size + 1];
+            Node[] newChildren = new Node[size + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index + 1);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newChildren[index] = result[0];
+            newChildren[index + 1] = result[1];
+            newKeys[index + 1] = result[1].lowKey();
+            System.arraycopy(keys, index + 1, newKeys, index + 2, size - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index + 2, size - index - 1);
+
+            Inner inner = new Inner(newKeys, newChildren);
+            return inner.size() > MAX_NODE_SIZE ? inner.split() : new Node[]{inner};
+        }
+
+        @Override
+        Node remove(long key) {
+            int index = childIndex(key);
+            Node child = children[index];
+            Node newChild = child.remove(key);
+            if (newChild == child) {
+                return this;
+            }
+
+            Node[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            if (newChild.size() >= MIN_NODE_SIZE || children.length == 1) {
+                return new Inner(keys, newChildren);
+            }
+
+            // merge the underflowed child with its sibling and split them
+            // again if they don't fit into a single node
+            int left = index > 0 ? index - 1 : index;
+            Node merged = newChildren[left].concat(newChildren[left + 1], keys[left + 1]);
+            if (merged.size() <= MAX_NODE_SIZE) {
+                int size = children.length;
+                long[] newKeys = new long[size - 1];
+                Node[] mergedChildren = new Node[size - 1];
+                System.arraycopy(keys, 0, newKeys, 0, left + 1);
+                System.arraycopy(newChildren, 0, mergedChildren, 0, left);
+                mergedChildren[left] = merged;
+                System.arraycopy(keys, left + 2, newKeys, left + 1, size - left - 2);
+                System.arraycopy(newChildren, left + 2, mergedChildren, left + 1, size - left - 2);
+                return new Inner(newKeys, mergedChildren);
+            }
+
+            Node[] halves = merged.split();
+            long[] newKeys = keys.clone();
+            newChildren[left] = halves[0];
+            newChildren[left + 1] = halves[1];
+            newKeys[left + 1] = halves[1].lowKey();
+            return new Inner(newKeys, newChildren);
+        }
+
+        @Override
+        Node concat(Node right, long separator) {
+            Inner inner = (Inner) right;
+            long[] newKeys = Arrays.copyOf(keys, keys.length + inner.keys.length);
+            Node[] newChildren = Arrays.copyOf(children, children.length + inner.children.length);
+            System.arraycopy(inner.keys, 0, newKeys, keys.length, inner.keys.length);
+            System.arraycopy(inner.children, 0, newChildren, children.length, inner.children.length);
+            newKeys[keys.length] = separator;
+            return new Inner(newKeys, newChildren);
+        }
+
+        @Override
+        Node[] split() {
+            int mid = children.length / 2;
+            return new Node[]{
+                    new Inner(Arrays.copyOfRange(keys, 0, mid), Arrays.copyOfRange(children, 0, mid)),
+                    new Inner(Arrays.copyOfRange(keys, mid, keys.length), Arrays.copyOfRange(children, mid, children.length))
+            };
+        }
+    }
+
+    /**
+     * Iterates over the leaves of a tree keeping the path from the root to
+     * the current leaf.
+     */
+    private static final class Cursor<V> implements Iterator<V> {
+
+        private final Inner[] path;
+        private final int[] pathIndexes;
+        private final long end;
+        private final boolean endInclusive;
+        private final boolean descending;
+
+        private int depth;
+        private Leaf leaf;
+        private int position;
+
+        @SuppressWarnings("checkstyle:ParameterNumber")
+        Cursor(LongBPlusTree<V> tree, long from, boolean fromInclusive, long to, boolean toInclusive, boolean descending) {
+            this.path = new Inner[tree.height];
+            this.pathIndexes = new int[tree.height];
+            this.end = descending ? from : to;
+            this.endInclusive = descending ? fromInclusive : toInclusive;
+            this.descending = descending;
+
+            long start = descending ? to : from;
+            boolean startInclusive = descending ? toInclusive : fromInclusive;
+
+            Node node = tree.root;
+            while (node instanceof Inner) {
+                Inner inner = (Inner) node;
+                int index = inner.childIndex(start);
+                path[depth] = inner;
+                pathIndexes[depth] = index;
+                depth++;
+                node = inner.children[index];
+            }
+            leaf = (Leaf) node;
+
+            int index = Arrays.binarySearch(leaf.keys, start);
+            if (index >= 0) {
+                position = startInclusive ? index : index + (descending ? -1 : 1);
+            } else {
+                position = descending ? -(index + 1) - 1 : -(index + 1);
+            }
+            skipExhaustedLeaves();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (leaf == null) {
+                return false;
+            }
+            long key = leaf.keys[position];
+            int order = Long.compare(key, end);
+            if (descending ? order > 0 : order < 0) {
+                return true;
+            }
+            if (order == 0 && endInclusive) {
+                return true;
+            }
+            leaf = null;
+            return false;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) leaf.values[position];
+            position += descending ? -1 : 1;
+            skipExhaustedLeaves();
+            return value;
+        }
+
+        private void skipExhaustedLeaves() {
+            while (leaf != null && (position < 0 || position >= leaf.keys.length)) {
+                nextLeaf();
+            }
+        }
+
+        private void nextLeaf() {
+            while (depth > 0) {
+                Inner inner = path[depth - 1];
+                int index = pathIndexes[depth - 1] + (descending ? -1 : 1);
+                if (index >= 0 && index < inner.children.length) {
+                    pathIndexes[depth - 1] = index;
+                    Node node = inner.children[index];
+                    while (node instanceof Inner) {
+                        Inner child = (Inner) node;
+                        int childIndex = descending ? child.children.length - 1 : 0;
+                        path[depth] = child;
+                        pathIndexes[depth] = childIndex;
+                        depth++;
+                        node = child.children[childIndex];
+                    }
+                    leaf = (Leaf) node;
+                    position = descending ? leaf.keys.length - 1 : 0;
+                    return;
+                }
+                depth--;
+            }
+            leaf = null;
+        }
+    }
+}
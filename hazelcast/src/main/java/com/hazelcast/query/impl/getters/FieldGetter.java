@@ -16,11 +16,35 @@
 
 package com.hazelcast.query.impl.getters;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.invoke.MethodType.methodType;
 
 public final class FieldGetter extends AbstractMultiValueGetter {
 
+    /**
+     * Accessors shared by all getters of the same field, see {@code
+     * MethodGetter#ACCESSORS}.
+     */
+    private static final ClassValue<ConcurrentMap<Field, Optional<MethodHandle>>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Field, Optional<MethodHandle>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final Field field;
+    /**
+     * A getter handle adapted to {@code (Object)Object}, or {@code null} if
+     * it couldn't be created, in which case the field is read using reflection.
+     */
+    private final MethodHandle accessor;
 
     // for testing purposes only
     public FieldGetter(Getter parent, Field field, String modifier, Class elementType) {
@@ -30,14 +54,58 @@ public final class FieldGetter extends AbstractMultiValueGetter {
     public FieldGetter(Getter parent, Field field, String modifier, Class type, Class elementType) {
         super(parent, modifier, type, elementType);
         this.field = field;
+        this.accessor = accessorFor(field);
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException {
+        if (accessor == null) {
+            try {
+                return field.get(object);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+            }
+        }
+
+        if (!field.getDeclaringClass().isInstance(object)) {
+            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field));
+        }
+        try {
+            return (Object) accessor.invokeExact(object);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Returns the shared accessor for the given field, creating it on first
+     * use.
+     *
+     * @return the accessor or {@code null} if it can't be created
+     */
+    static MethodHandle accessorFor(Field field) {
+        return ACCESSORS.get(field.getDeclaringClass())
+                .computeIfAbsent(field, f -> Optional.ofNullable(newAccessor(f)))
+                .orElse(null);
+    }
+
+    /**
+     * Creates a handle that reads the given instance field. Unlike {@link
+     * Field#get}, it skips the access checks on every call.
+     *
+     * @return the accessor or {@code null} if it can't be created
+     */
+    static MethodHandle newAccessor(Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
         try {
-            return field.get(object);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(field), e);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectGetter(field).asType(methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            return null;
         }
     }
 
@@ -16,12 +16,44 @@
 
 package com.hazelcast.query.impl.getters;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static java.lang.invoke.MethodType.methodType;
 
 public final class MethodGetter extends AbstractMultiValueGetter {
 
+    /**
+     * Accessors shared by all getters of the same method. Every accessor is
+     * backed by its own lambda class, so creating one per getter would leak
+     * metaspace when getters are evicted and recreated. Keyed by the declaring
+     * class so that the entries don't keep its class loader reachable.
+     */
+    private static final ClassValue<ConcurrentMap<Method, Optional<Function<Object, Object>>>> ACCESSORS =
+            new ClassValue<>() {
+                @Override
+                protected ConcurrentMap<Method, Optional<Function<Object, Object>>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     private final Method method;
+    /**
+     * A {@link Function} implemented by a lambda class that calls the method
+     * directly, or {@code null} if it couldn't be created, in which case the
+     * method is called using reflection.
+     */
+    private final Function<Object, Object> accessor;
 
     // for testing purposes only
     public MethodGetter(Getter parent, Method method, String modifier, Class elementType) {
@@ -31,14 +63,74 @@ public final class MethodGetter extends AbstractMultiValueGetter {
     public MethodGetter(Getter parent, Method method, String modifier, Class type, Class elementType) {
         super(parent, modifier, type, elementType);
         this.method = method;
+        this.accessor = accessorFor(method);
     }
 
     @Override
     protected Object extractFrom(Object object) throws IllegalAccessException, InvocationTargetException {
+        if (accessor == null) {
+            try {
+                return method.invoke(object);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(method), e);
+            }
+        }
+
+        if (!method.getDeclaringClass().isInstance(object)) {
+            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(method));
+        }
+        try {
+            return accessor.apply(object);
+        } catch (RuntimeException | Error e) {
+            // keep the contract of Method.invoke()
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Returns the shared accessor for the given method, creating it on first
+     * use.
+     *
+     * @return the accessor or {@code null} if it can't be created
+     */
+    static Function<Object, Object> accessorFor(Method method) {
+        return ACCESSORS.get(method.getDeclaringClass())
+                .computeIfAbsent(method, m -> Optional.ofNullable(newAccessor(m)))
+                .orElse(null);
+    }
+
+    /**
+     * Creates a lambda that calls the given no-arg instance method. Unlike
+     * {@link Method#invoke}, calling it doesn't allocate an argument array
+     * and the call can be inlined by the JIT. The lambda class is defined in
+     * the declaring class of the method, which requires the package of that
+     * class to be open to Hazelcast.
+     *
+     * @return the accessor or {@code null} if it can't be created
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> newAccessor(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || method.getReturnType() == void.class) {
+            return null;
+        }
+        CallSite site;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle target = lookup.unreflect(method);
+            site = LambdaMetafactory.metafactory(lookup, "apply", methodType(Function.class),
+                    methodType(Object.class, Object.class), target,
+                    methodType(methodType(method.getReturnType()).wrap().returnType(), declaringClass));
+        } catch (IllegalAccessException | LambdaConversionException e) {
+            return null;
+        }
         try {
-            return method.invoke(object);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException(composeAttributeValueExtractionFailedMessage(method), e);
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
         }
     }
 
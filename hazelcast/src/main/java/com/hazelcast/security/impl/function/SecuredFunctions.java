@@ -32,6 +32,7 @@ import com.hazelcast.jet.impl.connector.UpdateMapP;
 import com.hazelcast.jet.impl.connector.UpdateMapWithEntryProcessorP;
 import com.hazelcast.jet.impl.connector.WriteFileP;
 import com.hazelcast.jet.json.JsonUtil;
+import com.hazelcast.jet.pipeline.file.impl.FileSplit;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.EventJournalMapEvent;
 import com.hazelcast.map.IMap;
@@ -233,14 +234,17 @@ public final class SecuredFunctions {
             String glob,
             boolean sharedFileSystem,
             boolean ignoreFileNotFound,
-            FunctionEx<? super Path, ? extends Stream<T>> readFileFn) {
+            FunctionEx<? super Path, ? extends Stream<T>> readFileFn,
+            FunctionEx<? super FileSplit, ? extends Stream<T>> readFileSplitFn,
+            long minSplitSize) {
 
         return new SupplierEx<>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             public Processor getEx() {
-                return new ReadFilesP<>(directory, glob, sharedFileSystem, ignoreFileNotFound, readFileFn);
+                return new ReadFilesP<>(directory, glob, sharedFileSystem, ignoreFileNotFound, readFileFn,
+                        readFileSplitFn, minSplitSize);
             }
 
             @Override
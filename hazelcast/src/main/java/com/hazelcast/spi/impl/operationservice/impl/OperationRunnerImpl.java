@@ -509,6 +509,8 @@ public class OperationRunnerImpl extends OperationRunner implements StaticMetric
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            // the operation doesn't refer to the bytes it was deserialized from
+            packet.releasePayload();
         }
     }
 
@@ -151,6 +151,34 @@ public final class ClusterProperty {
     public static final HazelcastProperty SOCKET_BUFFER_DIRECT
             = new HazelcastProperty("hazelcast.socket.buffer.direct", false);
 
+    /**
+     * If the byte stream of member-to-member connections should be compressed.
+     * <p>
+     * Outgoing bytes are deflated in blocks, so many small packets get
+     * compressed together; blocks which don't shrink are sent as they are.
+     * Compression costs CPU on the IO threads, so it mostly pays off when the
+     * network bandwidth between the members is the bottleneck.
+     * <p>
+     * All members of the cluster need to use the same value.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty NETWORK_COMPRESSION_ENABLED
+            = new HazelcastProperty("hazelcast.network.compression.enabled", false);
+
+    /**
+     * If the payloads of operation packets received from other members should
+     * be taken from a pool instead of being allocated for every packet.
+     * <p>
+     * A pooled payload is handed back as soon as its operation has been
+     * deserialized, which takes allocation and GC pressure off members which
+     * receive a lot of large operations, e.g. backups and replication.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty NETWORK_PACKET_PAYLOAD_POOLING_ENABLED
+            = new HazelcastProperty("hazelcast.network.packet.payload.pooling.enabled", true);
+
     /**
      * Overrides receive buffer size for connections opened by clients.
      * <p>
@@ -532,6 +560,19 @@ public final class ClusterProperty {
     public static final HazelcastProperty PARTITION_CHUNKED_MAX_MIGRATING_DATA_IN_MB
             = new HazelcastProperty("hazelcast.partition.migration.chunks.max.migrating.data.in.mb", 250);
 
+    /**
+     * Enable to synchronize stale backup replicas of maps with Merkle tree
+     * deltas. Only maps which have an enabled
+     * {@link com.hazelcast.config.MerkleTreeConfig} maintain the trees, and
+     * only the entries of the tree leaves which differ between the primary
+     * and the backup replica are transferred. Maintaining the trees costs
+     * memory and time on every mutation of the map.
+     * <p>
+     * Default disabled.
+     */
+    public static final HazelcastProperty PARTITION_MERKLE_TREE_REPLICA_SYNC_ENABLED
+            = new HazelcastProperty("hazelcast.partition.replica.sync.merkle.tree.enabled", false);
+
     /**
      * The time that a newly-appointed master node waits before forming a cluster.
      * Once a cluster is being started, a newly-appointed master node may receive
@@ -1307,6 +1348,37 @@ public final class ClusterProperty {
     public static final HazelcastProperty MAP_WRITE_BEHIND_QUEUE_CAPACITY
             = new HazelcastProperty("hazelcast.map.write.behind.queue.capacity", 50000);
 
+    /**
+     * Number of write-behind flush workers of a map on a member. The
+     * partitions of the map are striped over the workers and each worker
+     * stores the entries of its partitions concurrently with the others,
+     * so the flush throughput can scale with the parallelism of the
+     * backing store. The workers run on the
+     * {@value com.hazelcast.spi.impl.executionservice.ExecutionService#MAP_WRITE_BEHIND_EXECUTOR}
+     * executor, whose pool size can be set with an executor config of the
+     * same name. The default value of {@code 1} flushes all partitions on a
+     * single thread.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_FLUSH_CONCURRENCY
+            = new HazelcastProperty("hazelcast.map.write.behind.flush.concurrency", 1);
+
+    /**
+     * Target latency of a single batch store operation of write-behind
+     * map stores. When set to a positive value, the size of the batches is
+     * adapted to the measured latency of the store operations: it is
+     * halved when a batch takes longer than the target and grows back up to
+     * the configured {@link com.hazelcast.config.MapStoreConfig#setWriteBatchSize(int)
+     * write batch size} while the batches are well below the target. Only
+     * applies when the write batch size is greater than {@code 1}. The
+     * default value of {@code 0} disables the adaptation.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS
+            = new HazelcastProperty("hazelcast.map.write.behind.target.batch.latency.millis", 0, MILLISECONDS);
+
     /*
      * INVOCATION / OPERATION SYSTEM PROPERTIES
      */
@@ -1854,6 +1926,28 @@ public final class ClusterProperty {
             = new HazelcastProperty("hazelcast.jet.idle.noncooperative.max.microseconds", 5000, MICROSECONDS)
             .setDeprecatedName("jet.idle.noncooperative.max.microseconds");
 
+    /**
+     * The interval in milliseconds at which the cooperative worker threads
+     * measure the time their tasklets spent executing and rebalance them. A
+     * worker that was busy most of the interval moves one of its tasklets to
+     * the least loaded worker if that lowers the load of the busier of the
+     * two. A tasklet is only moved between its calls, so it's never executed
+     * by two threads at the same time. This relieves the thread running the
+     * hot tasklets of a job with skewed partitions.
+     * <p>
+     * The value {@code 0} disables rebalancing: each tasklet then stays on
+     * the thread it was assigned to when the job started. When enabled, the
+     * workers read the clock twice per tasklet call, which is measurable for
+     * tasklets that do little work per call. Try e.g. {@code 1000ms} for jobs
+     * whose partitions are skewed.
+     * <p>
+     * The default value is {@code 0}, rebalancing is disabled.
+     *
+     * @since 5.4
+     */
+    public static final HazelcastProperty JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS
+            = new HazelcastProperty("hazelcast.jet.cooperative.rebalance.interval.millis", 0, MILLISECONDS);
+
     /**
      * The directory containing jars, that can be used to specify custom classpath for
      * a stage in a pipeline.
@@ -1900,6 +1994,70 @@ public final class ClusterProperty {
     public static final HazelcastProperty SQL_TSTORE_ENABLED = new HazelcastProperty(
             "hazelcast.sql.tstore.enabled", false);
 
+    /**
+     * Enables experimental compilation of SQL projection and filter
+     * expressions to Java bytecode. When enabled, each member compiles the
+     * expressions of a Calc/Project stage once, caches the generated class
+     * next to its plan cache and evaluates rows with it instead of walking
+     * the expression tree. Expressions that can't be compiled are evaluated
+     * as before.
+     * <p>
+     * The default is {@code false}.
+     *
+     * @since 5.4
+     */
+    @Beta
+    public static final HazelcastProperty SQL_EXPRESSION_COMPILATION_ENABLED = new HazelcastProperty(
+            "hazelcast.sql.expression.compilation.enabled", false);
+
+    /**
+     * Enables experimental columnar execution of SQL filters. When enabled,
+     * the stages evaluating a filter, including the projection stages of the
+     * IMap and file scans, process their input in batches: the columns read
+     * by the filter are extracted to primitive arrays and the filter is
+     * evaluated on the whole batch before the projections are evaluated for
+     * the matching rows.
+     * <p>
+     * The default is {@code false}.
+     *
+     * @since 5.4
+     */
+    @Beta
+    public static final HazelcastProperty SQL_COLUMNAR_EXECUTION_ENABLED = new HazelcastProperty(
+            "hazelcast.sql.columnar.execution.enabled", false);
+
+    /**
+     * The base directory of the experimental IMap persistence engine. When
+     * set, the entries of the maps with an enabled
+     * {@link com.hazelcast.config.DataPersistenceConfig} are logged to
+     * per-partition chunk files in a member-specific subdirectory of this
+     * directory and are loaded back into the cluster when the member is
+     * restarted. Members sharing the base directory pick different
+     * subdirectories.
+     * <p>
+     * Not set by default, which disables the engine.
+     *
+     * @since 5.4
+     */
+    @Beta
+    public static final HazelcastProperty MAP_PERSISTENCE_BASE_DIR = new HazelcastProperty(
+            "hazelcast.map.persistence.base.dir");
+
+    /**
+     * The group commit interval of the IMap persistence engine. The changes
+     * of all partitions made during an interval are written, and fsynced if
+     * {@link com.hazelcast.config.DataPersistenceConfig#isFsync()} is set,
+     * together by a background thread, so that the writes don't wait for
+     * the disk.
+     * <p>
+     * The default is 10 milliseconds.
+     *
+     * @see #MAP_PERSISTENCE_BASE_DIR
+     * @since 5.4
+     */
+    @Beta
+    public static final HazelcastProperty MAP_PERSISTENCE_FLUSH_INTERVAL_MILLIS = new HazelcastProperty(
+            "hazelcast.map.persistence.flush.interval.millis", 10, MILLISECONDS);
 
     /**
      * When {@code true}, enables monitoring of the runtime environment to detect the intent of shutdown
@@ -23,6 +23,7 @@ import javax.annotation.Nonnull;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 
@@ -338,6 +339,56 @@ public final class MerkleTreeUtil {
         return deltaOrders;
     }
 
+    /**
+     * Returns the hashes of the leaves of a Merkle tree, ordered from the
+     * leftmost leaf to the rightmost one.
+     *
+     * @param merkleTreeView The Merkle tree which leaves to be returned
+     * @return the hashes of the leaves
+     */
+    public static int[] getLeaves(MerkleTreeView merkleTreeView) {
+        int leafLevel = merkleTreeView.depth() - 1;
+        int numberOfLeaves = getNodesOnLevel(leafLevel);
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+
+        int[] leaves = new int[numberOfLeaves];
+        for (int i = 0; i < numberOfLeaves; i++) {
+            leaves[i] = merkleTreeView.getNodeHash(leftMostLeaf + i);
+        }
+        return leaves;
+    }
+
+    /**
+     * Compares the leaves of the provided local Merkle tree with the
+     * leaf hashes of a remote Merkle tree as returned by
+     * {@link #getLeaves(MerkleTreeView)} and returns the leaves found
+     * to be different as {@code [leafOrder, localLeafHash]} pairs.
+     *
+     * @param local        The view of the local Merkle tree
+     * @param remoteLeaves The hashes of the leaves of the remote Merkle tree
+     * @return the {@code [leafOrder, localLeafHash]} pairs of the different
+     * leaves or {@code null} if the trees have different depths
+     */
+    public static int[] compareLeaves(MerkleTreeView local, int[] remoteLeaves) {
+        int leafLevel = local.depth() - 1;
+        int numberOfLeaves = getNodesOnLevel(leafLevel);
+        if (remoteLeaves.length != numberOfLeaves) {
+            return null;
+        }
+        int leftMostLeaf = getLeftMostNodeOrderOnLevel(leafLevel);
+
+        int differences = 0;
+        int[] orderValuePairs = new int[numberOfLeaves * 2];
+        for (int i = 0; i < numberOfLeaves; i++) {
+            int localHash = local.getNodeHash(leftMostLeaf + i);
+            if (localHash != remoteLeaves[i]) {
+                orderValuePairs[differences++] = leftMostLeaf + i;
+                orderValuePairs[differences++] = localHash;
+            }
+        }
+        return Arrays.copyOf(orderValuePairs, differences);
+    }
+
     /**
      * Writes the hashes of the leaves of a Merkle tree into the
      * provided {@link DataOutput}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.aggregation;
 
+import com.hazelcast.aggregation.impl.InvertibleAggregator;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.test.HazelcastParallelClassRunner;
@@ -117,6 +118,61 @@ public class DistinctAggregationTest {
         assertThat(result).isEqualTo(expectation);
     }
 
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testDistinctCountAggregator() {
+        List<String> values = repeatTimes(3, sampleStrings());
+        long expectation = new HashSet<String>(values).size();
+
+        Aggregator<Entry<String, String>, Long> aggregation = Aggregators.distinctCount();
+        for (String value : values) {
+            aggregation.accumulate(createEntryWithValue(value));
+        }
+
+        Aggregator<Entry<String, String>, Long> resultAggregation = Aggregators.distinctCount();
+        resultAggregation.combine(aggregation);
+        Long result = resultAggregation.aggregate();
+
+        assertThat(result).isEqualTo(expectation);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testDistinctCountAggregator_withMixedTypeNumbers() {
+        Aggregator<Entry<Number, Number>, Long> aggregation = Aggregators.distinctCount();
+        aggregation.accumulate(createEntryWithValue(1));
+        aggregation.accumulate(createEntryWithValue(1L));
+        aggregation.accumulate(createEntryWithValue(2.5));
+
+        assertThat(aggregation.aggregate()).isEqualTo(2L);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    @SuppressWarnings("unchecked")
+    public void testDistinctCountAggregator_deaccumulate() {
+        InvertibleAggregator<Entry<String, String>, Long> aggregation =
+                (InvertibleAggregator<Entry<String, String>, Long>) Aggregators.<Entry<String, String>>distinctCount();
+        aggregation.accumulate(createEntryWithValue("a"));
+        aggregation.accumulate(createEntryWithValue("a"));
+        aggregation.accumulate(createEntryWithValue("b"));
+
+        aggregation.deaccumulate(createEntryWithValue("a"));
+        assertThat(aggregation.aggregate()).isEqualTo(2L);
+
+        aggregation.deaccumulate(createEntryWithValue("a"));
+        assertThat(aggregation.aggregate()).isEqualTo(1L);
+    }
+
+    @Test(timeout = TimeoutInMillis.MINUTE)
+    public void testDistinctCountAggregator_serialization() {
+        Aggregator<Entry<String, String>, Long> aggregation = Aggregators.distinctCount();
+        for (String value : repeatTimes(2, sampleStrings())) {
+            aggregation.accumulate(createEntryWithValue(value));
+        }
+
+        Aggregator<Entry<String, String>, Long> copy = ss.toObject(ss.toData(aggregation));
+
+        assertThat(copy.aggregate()).isEqualTo(aggregation.aggregate());
+    }
+
     private <T> List<T> repeatTimes(int times, List<T> values) {
         List<T> repeatedValues = new ArrayList<T>();
         for (int i = 0; i < times; i++) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapContinuousAggregationTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private TestHazelcastInstanceFactory factory;
+    private MapProxyImpl<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(3);
+        HazelcastInstance instance = factory.newHazelcastInstance(getConfig());
+        factory.newHazelcastInstance(getConfig());
+        map = (MapProxyImpl<Integer, Integer>) instance.<Integer, Integer>getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i % 10);
+        }
+    }
+
+    @Test
+    public void testAggregation_matchesAggregate() {
+        assertContinuousAggregationsMatch();
+    }
+
+    @Test
+    public void testAggregation_afterMutations() {
+        assertContinuousAggregationsMatch();
+
+        for (int i = 0; i < 100; i++) {
+            map.put(i, 100 + i);
+        }
+        for (int i = 100; i < 200; i++) {
+            map.remove(i);
+        }
+        for (int i = ENTRY_COUNT; i < ENTRY_COUNT + 50; i++) {
+            map.set(i, 7);
+        }
+        map.evict(500);
+        map.executeOnKey(600, entry -> entry.setValue(-1));
+
+        assertContinuousAggregationsMatch();
+    }
+
+    @Test
+    public void testAggregation_afterClear() {
+        assertContinuousAggregationsMatch();
+
+        map.clear();
+        assertEquals(Long.valueOf(0), map.continuousAggregate("count", Aggregators.count()));
+
+        map.put(1, 1);
+        assertContinuousAggregationsMatch();
+    }
+
+    @Test
+    public void testAggregation_afterMigrations() {
+        assertContinuousAggregationsMatch();
+
+        HazelcastInstance newInstance = factory.newHazelcastInstance(getConfig());
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+        for (int i = 0; i < 100; i++) {
+            map.put(i, 100 + i);
+        }
+        assertContinuousAggregationsMatch();
+
+        newInstance.shutdown();
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+        for (int i = 100; i < 200; i++) {
+            map.remove(i);
+        }
+        assertContinuousAggregationsMatch();
+    }
+
+    @Test
+    public void testRemoveAggregation() {
+        map.continuousAggregate("count", Aggregators.count());
+
+        assertTrue(map.removeContinuousAggregation("count"));
+        assertFalse(map.removeContinuousAggregation("count"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregation_notInvertible() {
+        map.continuousAggregate("max", Aggregators.integerMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregation_registeredWithDifferentAggregator() {
+        map.continuousAggregate("aggregation", Aggregators.count());
+        map.continuousAggregate("aggregation", Aggregators.integerSum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregation_registeredWithDifferentAttribute() {
+        map.continuousAggregate("aggregation", Aggregators.count());
+        map.continuousAggregate("aggregation", Aggregators.count("__key"));
+    }
+
+    @Test
+    public void testAggregation_registeredWithEqualAggregator() {
+        map.continuousAggregate("aggregation", Aggregators.integerSum());
+
+        assertEquals(map.aggregate(Aggregators.integerSum()), map.continuousAggregate("aggregation", Aggregators.integerSum()));
+    }
+
+    private void assertContinuousAggregationsMatch() {
+        assertEquals(map.aggregate(Aggregators.count()), map.continuousAggregate("count", Aggregators.count()));
+        assertEquals(map.aggregate(Aggregators.integerSum()), map.continuousAggregate("sum", Aggregators.integerSum()));
+        assertEquals(map.aggregate(Aggregators.integerAvg()), map.continuousAggregate("avg", Aggregators.integerAvg()));
+        assertEquals(Long.valueOf(map.aggregate(Aggregators.<Map.Entry<Integer, Integer>, Integer>distinct()).size()),
+                map.continuousAggregate("distinctCount", Aggregators.distinctCount()));
+    }
+
+    @Override
+    protected Config getConfig() {
+        return smallInstanceConfigWithoutJetAndMetrics()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "11");
+    }
+}
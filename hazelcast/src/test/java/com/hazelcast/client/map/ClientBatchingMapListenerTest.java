@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.test.ClientTestSupport;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.EventListenerFilter;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.spi.impl.eventservice.EventRegistration;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.map.impl.event.EntryEventBatcher.CLIENT_EVENT_BATCH_DELAY_MILLIS;
+import static com.hazelcast.map.impl.event.EntryEventBatcher.CLIENT_EVENT_BATCH_SIZE;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientBatchingMapListenerTest extends ClientTestSupport {
+
+    private final TestHazelcastFactory factory = new TestHazelcastFactory();
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testAllEventsDelivered_whenClientEventBatchingEnabled() {
+        Config config = smallInstanceConfig()
+                .setProperty(CLIENT_EVENT_BATCH_SIZE.getName(), "10")
+                .setProperty(CLIENT_EVENT_BATCH_DELAY_MILLIS.getName(), "50");
+        HazelcastInstance member = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        HazelcastInstance client = factory.newHazelcastClient();
+        String mapName = randomMapName();
+        IMap<Integer, Integer> map = client.getMap(mapName);
+        RecordingListener listener = new RecordingListener();
+        map.addEntryListener(listener, true);
+
+        int keyCount = 500;
+        for (int i = 0; i < keyCount; i++) {
+            map.put(i, i);
+            map.put(i, i + 1);
+        }
+
+        assertTrueEventually(() -> assertEquals(2 * keyCount, listener.eventCount.get()));
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals(i + 1, (int) listener.latestValues.get(i));
+        }
+        assertTrue(getFilter(member, mapName).isEventBatching());
+    }
+
+    @Test
+    public void testClientEventBatchingDisabled_byDefault() {
+        HazelcastInstance member = factory.newHazelcastInstance(smallInstanceConfig());
+        HazelcastInstance client = factory.newHazelcastClient();
+        String mapName = randomMapName();
+        client.getMap(mapName).addEntryListener(new RecordingListener(), true);
+
+        assertFalse(getFilter(member, mapName).isEventBatching());
+    }
+
+    private static EventListenerFilter getFilter(HazelcastInstance member, String mapName) {
+        Collection<EventRegistration> registrations = getNodeEngineImpl(member).getEventService()
+                .getRegistrations(MapService.SERVICE_NAME, mapName);
+        assertEquals(1, registrations.size());
+        return (EventListenerFilter) registrations.iterator().next().getFilter();
+    }
+
+    private static class RecordingListener
+            implements EntryAddedListener<Integer, Integer>, EntryUpdatedListener<Integer, Integer> {
+
+        private final AtomicInteger eventCount = new AtomicInteger();
+        private final Map<Integer, Integer> latestValues = new ConcurrentHashMap<>();
+
+        @Override
+        public void entryAdded(EntryEvent<Integer, Integer> event) {
+            record(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Integer, Integer> event) {
+            record(event);
+        }
+
+        private void record(EntryEvent<Integer, Integer> event) {
+            eventCount.incrementAndGet();
+            latestValues.put(event.getKey(), event.getValue());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.metrics.LongGauge;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.client.impl.clientside.ClientTestUtil.getHazelcastClientInstanceImpl;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLIENT_METRIC_INVOCATIONS_STARTED_INVOCATIONS;
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.CLIENT_PREFIX_INVOCATIONS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class ClientMapOperationCoalescingTest extends HazelcastTestSupport {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int KEYS_PER_THREAD = 200;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+    private HazelcastInstance member;
+    private HazelcastInstance client;
+
+    @Before
+    public void setup() {
+        member = hazelcastFactory.newHazelcastInstance(smallInstanceConfig());
+        hazelcastFactory.newHazelcastInstance(smallInstanceConfig());
+
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(ClientProperty.MAP_OPERATION_COALESCING_ENABLED.getName(), "true")
+                .addNearCacheConfig(new NearCacheConfig("cached*"));
+        client = hazelcastFactory.newHazelcastClient(clientConfig);
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testConcurrentGetAndSet() throws Exception {
+        testConcurrentGetAndSet(client.getMap(randomMapName()));
+    }
+
+    @Test
+    public void testConcurrentGetAndSet_withNearCache() throws Exception {
+        testConcurrentGetAndSet(client.getMap("cached" + randomMapName()));
+    }
+
+    private void testConcurrentGetAndSet(IMap<Integer, Integer> map) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREAD_COUNT; thread++) {
+            int firstKey = thread * KEYS_PER_THREAD;
+            futures.add(spawn(() -> {
+                for (int key = firstKey; key < firstKey + KEYS_PER_THREAD; key++) {
+                    assertNull(map.get(key));
+                    map.set(key, key);
+                    assertEquals(key, (int) map.get(key));
+                    map.set(key, -key);
+                    assertEquals(-key, (int) map.get(key));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        IMap<Integer, Integer> memberMap = member.getMap(map.getName());
+        assertEquals(THREAD_COUNT * KEYS_PER_THREAD, memberMap.size());
+        for (int key = 0; key < THREAD_COUNT * KEYS_PER_THREAD; key++) {
+            assertEquals(-key, (int) memberMap.get(key));
+        }
+    }
+
+    @Test
+    public void testConcurrentGets_areCoalesced_andFlushedWhenBatchIsFull() throws Exception {
+        int batchSize = 8;
+        // the window is long enough for the test to time out if the flusher waited for it
+        ClientConfig clientConfig = new ClientConfig()
+                .setProperty(ClientProperty.MAP_OPERATION_COALESCING_ENABLED.getName(), "true")
+                .setProperty(ClientProperty.MAP_OPERATION_COALESCING_WINDOW_MICROS.getName(), "600000000")
+                .setProperty(ClientProperty.MAP_OPERATION_COALESCING_MAX_BATCH_SIZE.getName(), String.valueOf(batchSize));
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        List<Integer> keys = keysInSamePartition(client, batchSize);
+        for (int key : keys) {
+            member.getMap(map.getName()).set(key, -key);
+        }
+        LongGauge startedInvocations = getHazelcastClientInstanceImpl(client).getMetricsRegistry()
+                .newLongGauge(CLIENT_PREFIX_INVOCATIONS + "." + CLIENT_METRIC_INVOCATIONS_STARTED_INVOCATIONS);
+        long invocationsBefore = startedInvocations.read();
+
+        CyclicBarrier barrier = new CyclicBarrier(batchSize);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int key : keys) {
+            futures.add(spawn(() -> {
+                barrier.await();
+                return map.get(key);
+            }));
+        }
+        for (int i = 0; i < batchSize; i++) {
+            assertEquals(-keys.get(i), (int) futures.get(i).get(ASSERT_TRUE_EVENTUALLY_TIMEOUT, TimeUnit.SECONDS));
+        }
+
+        long invocations = startedInvocations.read() - invocationsBefore;
+        assertTrue("Gets were sent in " + invocations + " requests", invocations < batchSize);
+    }
+
+    @Test
+    public void testSet_isNotCoalesced_andRespectsLocks() throws Exception {
+        IMap<String, String> map = client.getMap(randomMapName());
+        map.lock("key");
+
+        Future<?> future = spawn(() -> map.set("key", "other-thread"));
+        assertTrueAllTheTime(() -> assertFalse(future.isDone()), 2);
+        map.set("key", "lock-owner");
+        assertEquals("lock-owner", map.get("key"));
+
+        map.unlock("key");
+        future.get();
+        assertEquals("other-thread", map.get("key"));
+    }
+
+    @Test
+    public void testSetWithTtl_isNotCoalesced() {
+        IMap<String, String> map = client.getMap(randomMapName());
+
+        map.set("key", "value", 1, TimeUnit.SECONDS);
+
+        assertTrueEventually(() -> assertNull(map.get("key")));
+    }
+
+    @Test
+    public void testGetAfterMemberSet() {
+        IMap<String, String> map = client.getMap(randomMapName());
+        member.getMap(map.getName()).set("key", "value");
+
+        assertEquals("value", map.get("key"));
+        assertNull(map.get("absent"));
+    }
+
+    private static List<Integer> keysInSamePartition(HazelcastInstance client, int count) {
+        List<Integer> keys = new ArrayList<>();
+        int partitionId = client.getPartitionService().getPartition(0).getPartitionId();
+        for (int key = 0; keys.size() < count; key++) {
+            if (client.getPartitionService().getPartition(key).getPartitionId() == partitionId) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -393,6 +393,7 @@ public class EnumCompatibilityTest {
         mappings.put(EvictionPolicy.LFU, "LFU");
         mappings.put(EvictionPolicy.NONE, "NONE");
         mappings.put(EvictionPolicy.RANDOM, "RANDOM");
+        mappings.put(EvictionPolicy.W_TINY_LFU, "W_TINY_LFU");
         verifyCompatibility(EvictionPolicy.values(), EvictionPolicy::name, mappings);
     }
 
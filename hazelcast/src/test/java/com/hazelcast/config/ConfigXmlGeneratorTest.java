@@ -1443,6 +1443,7 @@ public class ConfigXmlGeneratorTest extends HazelcastTestSupport {
         jetConfig.getDefaultEdgeConfig()
                 .setReceiveWindowMultiplier(123)
                 .setPacketSizeLimit(123)
+                .setCompressionEnabled(true)
                 .setQueueSize(123);
 
         Config newConfig = getNewConfigViaXMLGenerator(config);
@@ -2733,6 +2733,7 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "                       <capacity value=\"1138\" unit=\"BYTES\" />"
                 + "                   </memory-tier>"
                 + "               </btree-index>"
+                + "               <sorted-index-structure>B_PLUS_TREE</sorted-index-structure>"
                 + "           </index>\n"
                 + "       </indexes>"
                 + "   </map>"
@@ -2749,6 +2750,8 @@ public class XMLConfigBuilderTest extends AbstractConfigBuilderTest {
         BTreeIndexConfig bTreeIndexConfig = indexConfigs.get(2).getBTreeIndexConfig();
         assertEquals(Capacity.of(1337, MemoryUnit.BYTES), bTreeIndexConfig.getPageSize());
         assertEquals(Capacity.of(1138, MemoryUnit.BYTES), bTreeIndexConfig.getMemoryTierConfig().getCapacity());
+        assertEquals(SortedIndexStructure.SKIP_LIST, indexConfigs.get(1).getSortedIndexStructure());
+        assertEquals(SortedIndexStructure.B_PLUS_TREE, indexConfigs.get(2).getSortedIndexStructure());
     }
 
     private static void assertIndexEqual(String expectedAttribute, boolean expectedOrdered, IndexConfig indexConfig) {
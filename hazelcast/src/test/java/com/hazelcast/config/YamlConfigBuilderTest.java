@@ -2734,6 +2734,7 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
                 + "              capacity: \n"
                 + "                value: 1138\n"
                 + "                unit: BYTES\n"
+                + "          sorted-index-structure: B_PLUS_TREE\n"
                 ;
 
         Config config = buildConfig(yaml);
@@ -2747,6 +2748,8 @@ public class YamlConfigBuilderTest extends AbstractConfigBuilderTest {
         BTreeIndexConfig bTreeIndexConfig = indexConfigs.get(2).getBTreeIndexConfig();
         assertEquals(Capacity.of(1337, MemoryUnit.BYTES), bTreeIndexConfig.getPageSize());
         assertEquals(Capacity.of(1138, MemoryUnit.BYTES), bTreeIndexConfig.getMemoryTierConfig().getCapacity());
+        assertEquals(SortedIndexStructure.SKIP_LIST, indexConfigs.get(1).getSortedIndexStructure());
+        assertEquals(SortedIndexStructure.B_PLUS_TREE, indexConfigs.get(2).getSortedIndexStructure());
     }
 
     @Override
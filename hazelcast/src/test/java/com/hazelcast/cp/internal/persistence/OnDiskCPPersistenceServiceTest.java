@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.persistence;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.cp.CPMember;
+import com.hazelcast.cp.IAtomicLong;
+import com.hazelcast.cp.internal.CPMemberInfo;
+import com.hazelcast.cp.internal.HazelcastRaftTestSupport;
+import com.hazelcast.cp.internal.RaftGroupId;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.test.Accessors.getAddress;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OnDiskCPPersistenceServiceTest extends HazelcastRaftTestSupport {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void test_metadataStore() throws IOException {
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        OnDiskCPMetadataStore store = new OnDiskCPMetadataStore(tempFolder.getRoot(), serializationService);
+        CPMemberInfo localMember = new CPMemberInfo(UUID.randomUUID(), new Address("localhost", 5701));
+        List<CPMemberInfo> activeMembers = Arrays.asList(localMember,
+                new CPMemberInfo(UUID.randomUUID(), new Address("localhost", 5702)));
+        RaftGroupId metadataGroupId = new RaftGroupId("METADATA", 1, 0);
+
+        assertNull(store.readLocalCPMember());
+        assertNull(store.readMetadataGroupId());
+        assertEquals(0, store.readActiveCPMembers(new ArrayList<>()));
+
+        store.persistLocalCPMember(localMember);
+        store.persistActiveCPMembers(activeMembers, 3);
+        store.persistMetadataGroupId(metadataGroupId);
+
+        OnDiskCPMetadataStore restored = new OnDiskCPMetadataStore(tempFolder.getRoot(), serializationService);
+        List<CPMember> restoredMembers = new ArrayList<>();
+        assertTrue(restored.containsLocalMemberFile());
+        assertFalse(restored.tryMarkAPMember());
+        assertFalse(restored.isMarkedAPMember());
+        assertEquals(localMember, restored.readLocalCPMember());
+        assertEquals(3, restored.readActiveCPMembers(restoredMembers));
+        assertEquals(activeMembers, restoredMembers);
+        assertEquals(metadataGroupId, restored.readMetadataGroupId());
+    }
+
+    @Test
+    public void test_restartedCPMembers_restoreTheirState() {
+        HazelcastInstance[] instances = new HazelcastInstance[3];
+        Config[] configs = new Config[instances.length];
+        for (int i = 0; i < instances.length; i++) {
+            configs[i] = createConfig(instances.length, instances.length);
+            configs[i].getCPSubsystemConfig()
+                      .setPersistenceEnabled(true)
+                      .setBaseDir(new File(tempFolder.getRoot(), "member" + i));
+            instances[i] = factory.newHazelcastInstance(configs[i]);
+        }
+        waitUntilCPDiscoveryCompleted(instances);
+
+        IAtomicLong atomicLong = instances[0].getCPSubsystem().getAtomicLong("long");
+        for (int i = 0; i < 5; i++) {
+            atomicLong.incrementAndGet();
+        }
+        CPMember[] cpMembers = new CPMember[instances.length];
+        Address[] addresses = new Address[instances.length];
+        for (int i = 0; i < instances.length; i++) {
+            cpMembers[i] = instances[i].getCPSubsystem().getLocalCPMember();
+            addresses[i] = getAddress(instances[i]);
+        }
+
+        factory.terminateAll();
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = factory.newHazelcastInstance(addresses[i], configs[i]);
+        }
+
+        for (int i = 0; i < instances.length; i++) {
+            assertEquals(cpMembers[i], instances[i].getCPSubsystem().getLocalCPMember());
+        }
+        assertEquals(6, instances[1].getCPSubsystem().getAtomicLong("long").incrementAndGet());
+    }
+}
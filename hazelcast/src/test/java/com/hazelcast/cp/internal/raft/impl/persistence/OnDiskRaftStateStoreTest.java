@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cp.internal.raft.impl.persistence;
+
+import com.hazelcast.cp.internal.raft.impl.RaftEndpoint;
+import com.hazelcast.cp.internal.raft.impl.log.LogEntry;
+import com.hazelcast.cp.internal.raft.impl.log.SnapshotEntry;
+import com.hazelcast.cp.internal.raft.impl.testing.TestRaftEndpoint;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static com.hazelcast.cp.internal.raft.impl.persistence.OnDiskRaftStateStore.SEGMENT_FILE_PREFIX;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OnDiskRaftStateStoreTest extends HazelcastTestSupport {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final RaftEndpoint localMember = new TestRaftEndpoint(UUID.randomUUID(), 5701);
+    private final List<RaftEndpoint> members = Arrays.asList(localMember,
+            new TestRaftEndpoint(UUID.randomUUID(), 5702), new TestRaftEndpoint(UUID.randomUUID(), 5703));
+
+    private File dir;
+    private OnDiskRaftStateStore store;
+
+    @Before
+    public void setup() throws IOException {
+        dir = new File(tempFolder.getRoot(), "group");
+        store = openStore(1024);
+        store.persistInitialMembers(localMember, members);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void test_initialState() throws IOException {
+        RestoredRaftState state = load();
+
+        assertEquals(localMember, state.localEndpoint());
+        assertEquals(members, state.initialMembers());
+        assertEquals(0, state.term());
+        assertNull(state.votedFor());
+        assertNull(state.snapshot());
+        assertEquals(0, state.entries().length);
+    }
+
+    @Test
+    public void test_load_whenNothingPersisted() {
+        OnDiskRaftStateLoader loader = new OnDiskRaftStateLoader(new File(tempFolder.getRoot(), "empty"), serializationService);
+
+        assertThrows(IOException.class, loader::load);
+    }
+
+    @Test
+    public void test_persistTerm() throws IOException {
+        store.persistTerm(1, null);
+        store.persistTerm(2, members.get(1));
+
+        RestoredRaftState state = load();
+
+        assertEquals(2, state.term());
+        assertEquals(members.get(1), state.votedFor());
+    }
+
+    @Test
+    public void test_persistEntry() throws IOException {
+        persistEntries(1, 10);
+        store.flushLogs();
+
+        assertEntries(load().entries(), 1, 10);
+    }
+
+    @Test
+    public void test_persistEntry_notVisibleBeforeFlush() throws IOException {
+        persistEntries(1, 10);
+
+        assertEquals(0, load().entries().length);
+    }
+
+    @Test
+    public void test_deleteEntriesFrom() throws IOException {
+        persistEntries(1, 10);
+        store.deleteEntriesFrom(6);
+        store.flushLogs();
+
+        assertEntries(load().entries(), 1, 5);
+    }
+
+    @Test
+    public void test_deleteEntriesFrom_thenPersistEntry() throws IOException {
+        persistEntries(1, 10);
+        store.flushLogs();
+        store.deleteEntriesFrom(6);
+        store.persistEntry(new LogEntry(2, 6, "new"));
+        store.flushLogs();
+
+        LogEntry[] entries = load().entries();
+        assertEntries(entries, 1, 6);
+        assertEquals(2, entries[5].term());
+        assertEquals("new", entries[5].operation());
+    }
+
+    @Test
+    public void test_persistSnapshot_behindLastEntry() throws IOException {
+        persistEntries(1, 110);
+        store.persistSnapshot(snapshot(100));
+        store.flushLogs();
+
+        RestoredRaftState state = load();
+        assertEquals(100, state.snapshot().index());
+        assertEquals(members, new ArrayList<>(state.snapshot().groupMembers()));
+        assertEntries(state.entries(), 101, 110);
+    }
+
+    @Test
+    public void test_persistSnapshot_aheadOfLastEntry() throws IOException {
+        persistEntries(1, 10);
+        store.persistSnapshot(snapshot(1000));
+        store.flushLogs();
+        persistEntries(1001, 1005);
+        store.flushLogs();
+
+        RestoredRaftState state = load();
+        assertEquals(1000, state.snapshot().index());
+        assertEntries(state.entries(), 1001, 1005);
+    }
+
+    @Test
+    public void test_segmentsCoveredBySnapshot_areDeleted() throws IOException {
+        persistEntries(1, 500);
+        store.flushLogs();
+        int segmentCount = segmentCount();
+        assertTrue("Expected multiple segments but found " + segmentCount, segmentCount > 2);
+
+        store.persistSnapshot(snapshot(490));
+        store.flushLogs();
+
+        assertTrue(segmentCount() < segmentCount);
+        RestoredRaftState state = load();
+        assertEquals(490, state.snapshot().index());
+        assertEntries(state.entries(), 491, 500);
+    }
+
+    @Test
+    public void test_tornRecordIsIgnored() throws IOException {
+        persistEntries(1, 10);
+        store.flushLogs();
+        store.close();
+
+        File[] segments = dir.listFiles((d, name) -> name.startsWith(SEGMENT_FILE_PREFIX));
+        assertEquals(1, segments.length);
+        try (RandomAccessFile file = new RandomAccessFile(segments[0], "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        assertEntries(load().entries(), 1, 9);
+    }
+
+    @Test
+    public void test_reopen_afterRestore() throws IOException {
+        persistEntries(1, 10);
+        store.flushLogs();
+        store.close();
+
+        RestoredRaftState state = load();
+        store = openStore(1024);
+        store.deleteEntriesFrom(state.entries().length);
+        persistEntries(10, 20);
+        store.persistSnapshot(snapshot(15));
+        store.flushLogs();
+
+        state = load();
+        assertEquals(15, state.snapshot().index());
+        assertEntries(state.entries(), 16, 20);
+    }
+
+    private OnDiskRaftStateStore openStore(int maxSegmentSize) throws IOException {
+        OnDiskRaftStateStore store = new OnDiskRaftStateStore(dir, serializationService, maxSegmentSize);
+        store.open();
+        return store;
+    }
+
+    private RestoredRaftState load() throws IOException {
+        return new OnDiskRaftStateLoader(dir, serializationService).load();
+    }
+
+    private void persistEntries(long fromIndex, long toIndex) throws IOException {
+        for (long index = fromIndex; index <= toIndex; index++) {
+            store.persistEntry(new LogEntry(1, index, "value-" + index));
+        }
+    }
+
+    private SnapshotEntry snapshot(long index) {
+        return new SnapshotEntry(1, index, "snapshot-" + index, 0, members);
+    }
+
+    private int segmentCount() {
+        return dir.listFiles((d, name) -> name.startsWith(SEGMENT_FILE_PREFIX)).length;
+    }
+
+    private static void assertEntries(LogEntry[] entries, long fromIndex, long toIndex) {
+        assertEquals(toIndex - fromIndex + 1, entries.length);
+        for (int i = 0; i < entries.length; i++) {
+            assertEquals(fromIndex + i, entries[i].index());
+        }
+    }
+}
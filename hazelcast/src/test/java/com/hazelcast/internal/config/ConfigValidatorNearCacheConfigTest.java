@@ -105,6 +105,22 @@ public class ConfigValidatorNearCacheConfigTest extends HazelcastTestSupport {
         checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
     }
 
+    @Test
+    public void checkNearCacheConfig_withOffHeapStorage_BINARY() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(BINARY)
+                .setOffHeapStorageEnabled(true);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void checkNearCacheConfig_withOffHeapStorage_OBJECT() {
+        NearCacheConfig nearCacheConfig = getNearCacheConfig(OBJECT)
+                .setOffHeapStorageEnabled(true);
+
+        checkNearCacheConfig(MAP_NAME, nearCacheConfig, null, false);
+    }
+
     private NearCacheConfig getNearCacheConfig(InMemoryFormat inMemoryFormat) {
         return new NearCacheConfig()
                 .setInMemoryFormat(inMemoryFormat)
@@ -71,6 +71,7 @@ import com.hazelcast.config.RingbufferConfig;
 import com.hazelcast.config.RingbufferStoreConfig;
 import com.hazelcast.config.ScheduledExecutorConfig;
 import com.hazelcast.config.SetConfig;
+import com.hazelcast.config.SortedIndexStructure;
 import com.hazelcast.config.TcpIpConfig;
 import com.hazelcast.config.TieredStoreConfig;
 import com.hazelcast.config.TopicConfig;
@@ -250,6 +251,22 @@ public abstract class AbstractDynamicConfigGeneratorTest extends HazelcastTestSu
         assertEquals(expectedConfig, actualConfig);
     }
 
+    @Test
+    public void testMapWithSortedIndexStructure() {
+        MapConfig expectedConfig = newMapConfig()
+                .setName("testMapWithSortedIndexStructure");
+        IndexConfig indexConfig = new IndexConfig(IndexType.SORTED, "age")
+                .setSortedIndexStructure(SortedIndexStructure.B_PLUS_TREE);
+        expectedConfig.addIndexConfig(indexConfig);
+
+        Config config = new Config()
+                .addMapConfig(expectedConfig);
+
+        Config decConfig = getNewConfigViaGenerator(config);
+        MapConfig actualConfig = decConfig.getMapConfig("testMapWithSortedIndexStructure");
+        assertEquals(expectedConfig, actualConfig);
+    }
+
     @Test
     public void testMapNearCacheConfig() {
         NearCacheConfig expectedConfig = new NearCacheConfig()
@@ -17,6 +17,7 @@
 package com.hazelcast.internal.eviction;
 
 import com.hazelcast.cache.impl.record.CacheObjectRecord;
+import com.hazelcast.config.EvictionConfig;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.internal.eviction.impl.evaluator.EvictionPolicyEvaluator;
 import com.hazelcast.spi.eviction.EvictionPolicyComparator;
@@ -32,7 +33,9 @@ import java.util.List;
 
 import static com.hazelcast.internal.eviction.EvictionPolicyEvaluatorProvider.getEvictionPolicyEvaluator;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -226,4 +229,34 @@ public class EvictionPolicyEvaluatorTest extends HazelcastTestSupport {
             assertEquals(expectedEvictedRecordValue, evictedRecord.getValue());
         }
     }
+
+    @Test
+    public void test_leastFrequentlyAccessedKey_isSelected_when_evictionPolicy_is_W_TINY_LFU() {
+        final int recordCount = 100;
+        final int expectedEvictedRecordValue = recordCount / 2;
+
+        EvictionPolicyEvaluator<Integer, CacheObjectRecord> evictionPolicyEvaluator
+                = getEvictionPolicyEvaluator(new EvictionConfig().setEvictionPolicy(EvictionPolicy.W_TINY_LFU), null);
+        assertNotNull(evictionPolicyEvaluator.getFrequencySketch());
+        evictionPolicyEvaluator.ensureCapacity(recordCount);
+
+        List<EvictionCandidate<Integer, CacheObjectRecord>> records = new ArrayList<>();
+        for (int i = 0; i < recordCount; i++) {
+            CacheObjectRecord record = new CacheObjectRecord(i, System.currentTimeMillis(), Long.MAX_VALUE);
+            // the record in the middle is accessed only once, but most recently
+            int accessCount = i == expectedEvictedRecordValue ? 1 : 3;
+            for (int j = 0; j < accessCount; j++) {
+                evictionPolicyEvaluator.recordAccess(i);
+            }
+            record.setLastAccessTime(i == expectedEvictedRecordValue ? Long.MAX_VALUE : record.getCreationTime());
+            records.add(new SimpleEvictionCandidate<>(i, record));
+        }
+
+        EvictionCandidate<Integer, CacheObjectRecord> evictionCandidate = evictionPolicyEvaluator.evaluate(records);
+
+        assertNotNull(evictionCandidate);
+        assertEquals(expectedEvictedRecordValue, evictionCandidate.getEvictable().getValue());
+        assertFalse(evictionPolicyEvaluator.admit(-1, 0));
+        assertTrue(evictionPolicyEvaluator.admit(0, expectedEvictedRecordValue));
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.eviction.impl.evaluator;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.eviction.impl.evaluator.FrequencySketch.MAX_FREQUENCY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FrequencySketchTest {
+
+    @Test
+    public void frequency_countsIncrements() {
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(5, sketch.frequency(42));
+        assertEquals(0, sketch.frequency(43));
+    }
+
+    @Test
+    public void frequency_saturates() {
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(42);
+        }
+
+        assertEquals(MAX_FREQUENCY, sketch.frequency(42));
+    }
+
+    @Test
+    public void frequency_isHalved_when_sampleSizeReached() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(42);
+        }
+
+        // 16 longs * 10 is the sample size, fill it with distinct keys
+        for (int i = 1000; i < 1160; i++) {
+            sketch.increment(i);
+        }
+
+        assertTrue(sketch.frequency(42) < 10);
+    }
+
+    @Test
+    public void hotKeys_areDistinguishedFromColdOnes() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int round = 0; round < 8; round++) {
+            for (int hot = 0; hot < 100; hot++) {
+                sketch.increment(hot);
+            }
+        }
+        for (int cold = 100; cold < 1100; cold++) {
+            sketch.increment(cold);
+        }
+
+        int misjudged = 0;
+        for (int hot = 0; hot < 100; hot++) {
+            for (int cold = 100; cold < 1100; cold += 50) {
+                if (sketch.frequency(hot) <= sketch.frequency(cold)) {
+                    misjudged++;
+                }
+            }
+        }
+        assertEquals(0, misjudged);
+    }
+
+    @Test
+    public void ensureCapacity_growsTable() {
+        FrequencySketch sketch = new FrequencySketch();
+        int initialCapacity = sketch.capacity();
+
+        sketch.ensureCapacity(1000);
+
+        assertEquals(1024 * 16, sketch.capacity());
+        assertTrue(sketch.capacity() > initialCapacity);
+
+        sketch.ensureCapacity(10);
+        assertEquals(1024 * 16, sketch.capacity());
+    }
+}
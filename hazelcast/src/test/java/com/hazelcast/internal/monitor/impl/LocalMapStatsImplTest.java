@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.monitor.impl;
 
+import com.hazelcast.internal.util.LatencyHistogram;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
@@ -27,6 +28,7 @@ import org.junit.runner.RunWith;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.hazelcast.internal.metrics.MetricDescriptorConstants.LATENCY_OPERATION_PUT;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -178,6 +180,17 @@ public class LocalMapStatsImplTest {
         assertEquals(1, stats.getMaxRemoveLatency());
     }
 
+    @Test
+    public void batchLatencyRecordedOnceInHistogram() {
+        LocalMapStatsImpl stats = new LocalMapStatsImpl();
+        stats.incrementPutLatencyNanos(100, MILLISECONDS.toNanos(10));
+
+        LatencyHistogram histogram = stats.getLatencyHistograms().get(LATENCY_OPERATION_PUT);
+        assertEquals(100, stats.getPutOperationCount());
+        assertEquals(1, histogram.getCount());
+        assertEquals(MILLISECONDS.toNanos(10), histogram.getMaxNanos());
+    }
+
     @Test
     public void zeroLatenciesRemainZeroAfterConversion() {
         LocalMapStatsImpl stats = new LocalMapStatsImpl();
@@ -16,6 +16,9 @@
 
 package com.hazelcast.internal.nearcache.impl;
 
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.memory.MemoryManager;
 import com.hazelcast.internal.nearcache.NearCacheManager;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -24,6 +27,10 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
 @RunWith(HazelcastSerialClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
 public class NearCacheManagerTest extends NearCacheManagerTestSupport {
@@ -53,4 +60,34 @@ public class NearCacheManagerTest extends NearCacheManagerTestSupport {
     public void destroyNearCacheAndDestroyAllNearCaches() {
         doDestroyNearCacheAndDestroyAllNearCaches();
     }
+
+    @Test
+    public void memoryManagerNotCreated_whenOffHeapStorageDisabled() {
+        DefaultNearCacheManager nearCacheManager = (DefaultNearCacheManager) createNearCacheManager();
+
+        createNearCache(nearCacheManager, DEFAULT_NEAR_CACHE_NAME, InMemoryFormat.BINARY);
+
+        assertNull(nearCacheManager.getMemoryManager());
+    }
+
+    @Test
+    public void memoryManagerSharedAndDisposed_whenOffHeapStorageEnabled() {
+        DefaultNearCacheManager nearCacheManager = (DefaultNearCacheManager) createNearCacheManager();
+
+        createOffHeapNearCache(nearCacheManager, DEFAULT_NEAR_CACHE_NAME + "-1");
+        MemoryManager memoryManager = nearCacheManager.getMemoryManager();
+        assertNotNull(memoryManager);
+        createOffHeapNearCache(nearCacheManager, DEFAULT_NEAR_CACHE_NAME + "-2");
+        assertSame(memoryManager, nearCacheManager.getMemoryManager());
+
+        nearCacheManager.destroyAllNearCaches();
+
+        assertNull(nearCacheManager.getMemoryManager());
+    }
+
+    private void createOffHeapNearCache(NearCacheManager nearCacheManager, String name) {
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(name, InMemoryFormat.BINARY)
+                .setOffHeapStorageEnabled(true);
+        nearCacheManager.getOrCreateNearCache(name, nearCacheConfig);
+    }
 }
@@ -37,6 +37,7 @@ import org.junit.runners.Parameterized.UseParametersRunnerFactory;
 import java.util.Collection;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParametrizedRunner.class)
@@ -44,17 +45,27 @@ import static org.junit.Assert.assertTrue;
 @Category({QuickTest.class, ParallelJVMTest.class})
 public class NearCacheRecordStoreTest extends NearCacheRecordStoreTestSupport {
 
-    @Parameters(name = "format:{0}")
+    @Parameters(name = "format:{0} offHeap:{1}")
     public static Collection<Object[]> parameters() {
         return asList(new Object[][]{
-                {InMemoryFormat.BINARY},
-                {InMemoryFormat.OBJECT},
+                {InMemoryFormat.BINARY, false},
+                {InMemoryFormat.BINARY, true},
+                {InMemoryFormat.OBJECT, false},
         });
     }
 
     @Parameter
     public InMemoryFormat inMemoryFormat;
 
+    @Parameter(1)
+    public boolean offHeapStorageEnabled;
+
+    @Override
+    NearCacheConfig createNearCacheConfig(String name, InMemoryFormat inMemoryFormat) {
+        return super.createNearCacheConfig(name, inMemoryFormat)
+                .setOffHeapStorageEnabled(offHeapStorageEnabled);
+    }
+
     @Test
     public void putAndGetRecord() {
         putAndGetRecord(inMemoryFormat);
@@ -145,6 +156,53 @@ public class NearCacheRecordStoreTest extends NearCacheRecordStoreTestSupport {
         doEvictionWithEntryCountMaxSizePolicy(inMemoryFormat, EvictionPolicy.RANDOM);
     }
 
+    @Test
+    public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicyAndWTinyLFUEvictionPolicy() {
+        doEvictionWithEntryCountMaxSizePolicy(inMemoryFormat, EvictionPolicy.W_TINY_LFU);
+    }
+
+    @Test
+    public void hotKeysSurviveScanOfColdKeysWithWTinyLFUEvictionPolicy() {
+        int maxSize = DEFAULT_RECORD_COUNT / 2;
+
+        EvictionConfig evictionConfig = new EvictionConfig()
+                .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+                .setSize(maxSize)
+                .setEvictionPolicy(EvictionPolicy.W_TINY_LFU);
+
+        NearCacheConfig nearCacheConfig = createNearCacheConfig(DEFAULT_NEAR_CACHE_NAME, inMemoryFormat)
+                .setEvictionConfig(evictionConfig);
+
+        NearCacheRecordStore<Integer, String> nearCacheRecordStore = createNearCacheRecordStore(nearCacheConfig, inMemoryFormat);
+
+        for (int i = 0; i < maxSize; i++) {
+            putIfAdmitted(nearCacheRecordStore, i);
+            for (int j = 0; j < 5; j++) {
+                assertNotNull(nearCacheRecordStore.get(i));
+            }
+        }
+        for (int i = maxSize; i < 10 * maxSize; i++) {
+            putIfAdmitted(nearCacheRecordStore, i);
+        }
+
+        // the sketch is probabilistic, tolerate a few collisions
+        int hotKeyCount = 0;
+        for (int i = 0; i < maxSize; i++) {
+            if (nearCacheRecordStore.get(i) != null) {
+                hotKeyCount++;
+            }
+        }
+        assertTrue("Only " + hotKeyCount + " hot keys were kept", hotKeyCount >= maxSize * 9 / 10);
+    }
+
+    private static void putIfAdmitted(NearCacheRecordStore<Integer, String> nearCacheRecordStore, int key) {
+        // mimics DefaultNearCache
+        if (nearCacheRecordStore.admit(key)) {
+            nearCacheRecordStore.doEviction(false);
+            nearCacheRecordStore.put(key, null, "Record-" + key, null);
+        }
+    }
+
     @Test
     public void evictionTriggeredAndHandledSuccessfullyWithEntryCountMaxSizePolicyAndDefaultEvictionPolicy() {
         doEvictionWithEntryCountMaxSizePolicy(inMemoryFormat, null);
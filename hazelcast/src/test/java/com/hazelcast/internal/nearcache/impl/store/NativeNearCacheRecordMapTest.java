@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.nearcache.impl.store;
+
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.READ_PERMITTED;
+import static com.hazelcast.internal.nearcache.NearCacheRecord.TIME_NOT_SET;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class NativeNearCacheRecordMapTest {
+
+    private final SerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final UnsafeMemoryAllocator malloc = new UnsafeMemoryAllocator();
+
+    private NativeNearCacheRecordMap map;
+
+    @Before
+    public void setUp() {
+        map = new NativeNearCacheRecordMap(new MemoryManagerBean(malloc, MEM), ss, 4, 16);
+    }
+
+    @After
+    public void tearDown() {
+        map.dispose();
+    }
+
+    @Test
+    public void putAndGet_copiesRecordToNativeMemory() {
+        UUID uuid = UUID.randomUUID();
+        NativeNearCacheRecord record = newRecord("value");
+        record.setPartitionId(7);
+        record.setInvalidationSequence(42);
+        record.setUuid(uuid);
+        record.setReservationId(3);
+
+        assertNull(map.put(key(1), record));
+
+        NativeNearCacheRecord copy = map.get(key(1));
+        assertNotNull(copy);
+        assertEquals("value", ss.toObject(copy.getValue()));
+        assertEquals(7, copy.getPartitionId());
+        assertEquals(42, copy.getInvalidationSequence());
+        assertTrue(copy.hasSameUuid(uuid));
+        assertEquals(3, copy.getReservationId());
+        assertEquals(1000, copy.getCreationTime());
+        assertEquals(TIME_NOT_SET, copy.getLastAccessTime());
+        assertFalse(copy.isCachedAsNull());
+    }
+
+    @Test
+    public void put_storesNullValue() {
+        NativeNearCacheRecord record = newRecord(null);
+        record.setCachedAsNull(true);
+        map.put(key(1), record);
+
+        NativeNearCacheRecord copy = map.get(key(1));
+        assertNull(copy.getValue());
+        assertTrue(copy.isCachedAsNull());
+    }
+
+    @Test
+    public void setters_writeThroughToEntry() {
+        map.put(key(1), newRecord("value"));
+
+        NativeNearCacheRecord record = map.get(key(1));
+        record.setLastAccessTime(2000);
+        record.incrementHits();
+        record.incrementHits();
+        record.setReservationId(READ_PERMITTED);
+        record.setValue(ss.toData("a much longer value than before"));
+
+        NativeNearCacheRecord copy = map.get(key(1));
+        assertEquals(2000, copy.getLastAccessTime());
+        assertEquals(2, copy.getHits());
+        assertEquals(READ_PERMITTED, copy.getReservationId());
+        assertEquals("a much longer value than before", ss.toObject(copy.getValue()));
+    }
+
+    @Test
+    public void setters_ofRemovedEntry_areIgnored() {
+        map.put(key(1), newRecord("value"));
+        NativeNearCacheRecord stale = map.get(key(1));
+        map.remove(key(1));
+
+        // reuses the memory of the removed entry
+        map.put(key(1), newRecord("other"));
+        stale.setHits(100);
+        stale.setValue(ss.toData("stale"));
+
+        NativeNearCacheRecord copy = map.get(key(1));
+        assertEquals(0, copy.getHits());
+        assertEquals("other", ss.toObject(copy.getValue()));
+    }
+
+    @Test
+    public void accessStats_ofConcurrentReaders_areNotLost() throws Exception {
+        map.put(key(1), newRecord("value"));
+        int threadCount = 4;
+        int accessCount = 1000;
+
+        Thread[] threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < accessCount; j++) {
+                    NativeNearCacheRecord record = map.get(key(1));
+                    record.setLastAccessTime(j);
+                    record.incrementHits();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount * accessCount, map.get(key(1)).getHits());
+    }
+
+    @Test
+    public void snapshots_otherThanLookups_copyValueOnFirstRead() {
+        Data value = ss.toData("value");
+        map.put(key(1), newRecord("value"));
+        NativeNearCacheRecord lookedUp = map.get(key(1));
+        NativeNearCacheRecord iterated = map.entrySet().iterator().next().getValue();
+        assertEquals(value.totalSize(), iterated.getValueSize());
+
+        map.remove(key(1));
+
+        assertEquals(value, lookedUp.getValue());
+        assertNull(iterated.getValue());
+        assertEquals(value.totalSize(), iterated.getValueSize());
+    }
+
+    @Test
+    public void applyIfAbsent_returnsExistingRecord() {
+        map.put(key(1), newRecord("existing"));
+
+        NativeNearCacheRecord result = map.applyIfAbsent(key(1), k -> newRecord("new"));
+
+        assertEquals("existing", ss.toObject(result.getValue()));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void applyIfAbsent_insertsAndAttachesNewRecord() {
+        NativeNearCacheRecord record = newRecord("new");
+
+        NativeNearCacheRecord result = map.applyIfAbsent(key(1), k -> record);
+        result.setReservationId(5);
+
+        assertSame(record, result);
+        assertEquals(5, map.get(key(1)).getReservationId());
+    }
+
+    @Test
+    public void applyIfPresent_removesEntry_whenFunctionReturnsNull() {
+        map.put(key(1), newRecord("value"));
+
+        assertNull(map.applyIfPresent(key(1), (k, r) -> null));
+        assertNull(map.applyIfPresent(key(2), (k, r) -> r));
+
+        assertEquals(0, map.size());
+        assertNull(map.get(key(1)));
+    }
+
+    @Test
+    public void apply_replacesEntry_whenFunctionReturnsOtherRecord() {
+        map.put(key(1), newRecord("value"));
+
+        map.apply(key(1), (k, r) -> newRecord("replaced"));
+        map.apply(key(2), (k, r) -> r == null ? newRecord("created") : r);
+
+        assertEquals("replaced", ss.toObject(map.get(key(1)).getValue()));
+        assertEquals("created", ss.toObject(map.get(key(2)).getValue()));
+    }
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int k = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                NativeNearCacheRecord removed = map.remove(key(k));
+                String expectedRemoved = expected.remove(k);
+                assertEquals(expectedRemoved, removed == null ? null : ss.toObject(removed.getValue()));
+            } else {
+                String value = "value-" + i;
+                map.put(key(k), newRecord(value));
+                expected.put(k, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int k = 0; k < 2000; k++) {
+            NativeNearCacheRecord record = map.get(key(k));
+            assertEquals(expected.get(k), record == null ? null : ss.toObject(record.getValue()));
+        }
+        Set<Integer> iteratedKeys = new HashSet<>();
+        for (Map.Entry<Data, NativeNearCacheRecord> entry : map.entrySet()) {
+            int k = ss.toObject(entry.getKey());
+            assertTrue(iteratedKeys.add(k));
+            assertEquals(expected.get(k), ss.toObject(entry.getValue().getValue()));
+        }
+        assertEquals(expected.keySet(), iteratedKeys);
+    }
+
+    @Test
+    public void sampleAndEvict() {
+        for (int i = 0; i < 100; i++) {
+            map.put(key(i), newRecord("value-" + i));
+        }
+
+        int sampleCount = 0;
+        EvictionCandidate<Data, NativeNearCacheRecord> candidate = null;
+        Iterable<EvictionCandidate<Data, NativeNearCacheRecord>> samples = map.sample(15);
+        for (EvictionCandidate<Data, NativeNearCacheRecord> sample : samples) {
+            assertEquals("value-" + sample.getKey(), sample.getValue());
+            candidate = sample;
+            sampleCount++;
+        }
+
+        assertEquals(15, sampleCount);
+        assertTrue(map.tryEvict(candidate, null));
+        assertFalse(map.tryEvict(candidate, null));
+        assertEquals(99, map.size());
+    }
+
+    @Test
+    public void clearAndDispose_freeNativeMemory() {
+        for (int i = 0; i < 10000; i++) {
+            map.put(key(i), newRecord(i % 2 == 0 ? "value" : new String(new char[2000])));
+        }
+        assertTrue(map.getUsedMemory() > 0);
+
+        map.clear();
+        map.dispose();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(key(1)));
+        assertEquals(0, malloc.getUsedMemory());
+    }
+
+    private Data key(int key) {
+        return ss.toData(key);
+    }
+
+    private NativeNearCacheRecord newRecord(String value) {
+        return new NativeNearCacheRecord(ss.toData(value), 1000, TIME_NOT_SET);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.hazelcast.internal.nio.PacketPayloadPool.MAX_POOLED_SIZE;
+import static com.hazelcast.internal.nio.PacketPayloadPool.MIN_POOLED_SIZE;
+import static com.hazelcast.internal.nio.PacketPayloadPool.SLOTS_PER_SIZE_CLASS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketPayloadPoolTest {
+
+    private final PacketPayloadPool pool = new PacketPayloadPool();
+
+    @Test
+    public void isPoolable() {
+        assertFalse(PacketPayloadPool.isPoolable(MIN_POOLED_SIZE - 1));
+        assertTrue(PacketPayloadPool.isPoolable(MIN_POOLED_SIZE));
+        assertTrue(PacketPayloadPool.isPoolable(MAX_POOLED_SIZE));
+        assertFalse(PacketPayloadPool.isPoolable(MAX_POOLED_SIZE + 1));
+    }
+
+    @Test
+    public void allocate_roundsUpToPowerOfTwo() {
+        assertEquals(MIN_POOLED_SIZE, pool.allocate(MIN_POOLED_SIZE).length);
+        assertEquals(2 * MIN_POOLED_SIZE, pool.allocate(MIN_POOLED_SIZE + 1).length);
+        assertEquals(4096, pool.allocate(3000).length);
+        assertEquals(MAX_POOLED_SIZE, pool.allocate(MAX_POOLED_SIZE).length);
+    }
+
+    @Test
+    public void allocate_reusesFreedPayload() {
+        byte[] payload = pool.allocate(1000);
+        pool.free(payload);
+
+        assertSame(payload, pool.allocate(600));
+        assertNotSame(payload, pool.allocate(600));
+    }
+
+    @Test
+    public void allocate_doesNotReusePayloadOfOtherSizeClass() {
+        byte[] payload = pool.allocate(1000);
+        pool.free(payload);
+
+        assertEquals(2048, pool.allocate(2000).length);
+        assertSame(payload, pool.allocate(1000));
+    }
+
+    @Test
+    public void free_whenSizeClassFull_thenPayloadDropped() {
+        List<byte[]> payloads = new ArrayList<>();
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS + 1; i++) {
+            payloads.add(pool.allocate(MIN_POOLED_SIZE));
+        }
+        payloads.forEach(pool::free);
+
+        Set<byte[]> reused = new HashSet<>();
+        for (int i = 0; i < SLOTS_PER_SIZE_CLASS + 1; i++) {
+            reused.add(pool.allocate(MIN_POOLED_SIZE));
+        }
+        reused.retainAll(payloads);
+        assertEquals(SLOTS_PER_SIZE_CLASS, reused.size());
+    }
+}
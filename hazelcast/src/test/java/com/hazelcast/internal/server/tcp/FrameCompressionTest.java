@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.internal.server.tcp;
+
+import com.hazelcast.internal.networking.Channel;
+import com.hazelcast.internal.networking.ChannelCloseListener;
+import com.hazelcast.internal.networking.ChannelHandler;
+import com.hazelcast.internal.networking.ChannelOptions;
+import com.hazelcast.internal.networking.HandlerStatus;
+import com.hazelcast.internal.nio.Packet;
+import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.hazelcast.internal.networking.ChannelOption.DIRECT_BUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_RCVBUF;
+import static com.hazelcast.internal.networking.ChannelOption.SO_SNDBUF;
+import static com.hazelcast.internal.networking.HandlerStatus.CLEAN;
+import static com.hazelcast.internal.networking.HandlerStatus.DIRTY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FrameCompressionTest extends HazelcastTestSupport {
+
+    private FrameCompressionStats stats;
+    private FrameCompressionEncoder encoder;
+    private FrameCompressionDecoder decoder;
+
+    @Before
+    public void setup() {
+        stats = new FrameCompressionStats();
+        encoder = new FrameCompressionEncoder(stats);
+        decoder = new FrameCompressionDecoder(stats);
+    }
+
+    @Test
+    public void whenCompressiblePackets_thenRestoredAndBytesSaved() throws Exception {
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            byte[] payload = new byte[200];
+            Arrays.fill(payload, (byte) i);
+            packets.add(new Packet(payload, i));
+        }
+
+        assertEquals(packets, roundTrip(packets));
+        assertTrue("bytesSaved=" + stats.bytesSaved(), stats.bytesSaved() > 0);
+        assertTrue(stats.compressTimeNanos() > 0);
+        assertTrue(stats.decompressTimeNanos() > 0);
+    }
+
+    @Test
+    public void whenIncompressiblePackets_thenRestored() throws Exception {
+        Random random = new Random(42);
+        List<Packet> packets = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] payload = new byte[1000];
+            random.nextBytes(payload);
+            packets.add(new Packet(payload, i));
+        }
+
+        assertEquals(packets, roundTrip(packets));
+    }
+
+    @Test
+    public void whenPacketLargerThanBlock_thenRestored() throws Exception {
+        byte[] payload = new byte[3 * FrameCompressionEncoder.MAX_BLOCK_SIZE];
+        Arrays.fill(payload, (byte) 1);
+        List<Packet> packets = List.of(new Packet(payload, 1), new Packet(new byte[10], 2));
+
+        assertEquals(packets, roundTrip(packets));
+    }
+
+    @Test
+    public void whenDstFull_thenEncoderDirty() {
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        new Random(42).ints(250).forEach(src::putInt);
+        src.flip();
+        ByteBuffer dst = ByteBuffer.allocate(500);
+        dst.flip();
+        encoder.src(src);
+        encoder.dst(dst);
+
+        assertEquals(DIRTY, encoder.onWrite());
+        assertTrue(src.hasRemaining());
+    }
+
+    @Test(expected = IOException.class)
+    public void whenUncompressedStreamReceived_thenFail() throws Exception {
+        ByteBuffer src = ByteBuffer.allocate(1000);
+        new PacketIOHelper().writeTo(new Packet(new byte[100], 1), src);
+        decoder.src(src);
+        decoder.dst(ByteBuffer.allocate(1000));
+
+        decoder.onRead();
+    }
+
+    @Test
+    public void whenChannelClosed_thenEncoderWritesUncompressedFrames() throws Exception {
+        closeChannelOf(encoder);
+
+        List<Packet> packets = List.of(new Packet(new byte[1000], 1), new Packet(new byte[1000], 2));
+
+        assertEquals(packets, roundTrip(packets));
+        assertTrue("bytesSaved=" + stats.bytesSaved(), stats.bytesSaved() < 0);
+    }
+
+    @Test
+    public void whenChannelClosed_thenDecoderDropsCompressedFrames() throws Exception {
+        ByteBuffer packetBytes = ByteBuffer.allocate(2000);
+        new PacketIOHelper().writeTo(new Packet(new byte[1000], 1), packetBytes);
+        packetBytes.flip();
+        ByteBuffer wire = ByteBuffer.allocate(2000);
+        wire.flip();
+        encoder.src(packetBytes);
+        encoder.dst(wire);
+        encoder.onWrite();
+        ByteBuffer received = ByteBuffer.allocate(2000);
+        received.put(wire);
+        ByteBuffer restoredBytes = ByteBuffer.allocate(2000);
+        decoder.src(received);
+        decoder.dst(restoredBytes);
+        closeChannelOf(decoder);
+
+        assertEquals(CLEAN, decoder.onRead());
+        assertEquals(0, restoredBytes.position());
+        assertFalse(received.flip().hasRemaining());
+    }
+
+    /**
+     * Adds the handler to a mock channel and closes the channel.
+     */
+    private static <S, D> void closeChannelOf(ChannelHandler<?, S, D> handler) {
+        ChannelOptions options = mock(ChannelOptions.class);
+        when(options.getOption(DIRECT_BUF)).thenReturn(false);
+        when(options.getOption(SO_SNDBUF)).thenReturn(64 << 10);
+        when(options.getOption(SO_RCVBUF)).thenReturn(64 << 10);
+        Channel channel = mock(Channel.class);
+        when(channel.options()).thenReturn(options);
+        handler.setChannel(channel);
+        S src = handler.src();
+        D dst = handler.dst();
+        handler.handlerAdded();
+        // keep the buffers set up by the test
+        handler.src(src);
+        handler.dst(dst);
+
+        ArgumentCaptor<ChannelCloseListener> listener = ArgumentCaptor.forClass(ChannelCloseListener.class);
+        verify(channel).addCloseListener(listener.capture());
+        listener.getValue().onClose(channel);
+    }
+
+    private List<Packet> roundTrip(List<Packet> packets) throws Exception {
+        // the sending side: packets -> bytes -> frames
+        ByteBuffer packetBytes = ByteBuffer.allocate(64 << 10);
+        packetBytes.flip();
+        ByteBuffer wire = ByteBuffer.allocate(64 << 10);
+        wire.flip();
+        encoder.src(packetBytes);
+        encoder.dst(wire);
+
+        // the receiving side: frames -> bytes -> packets; the small dst exercises partially written frames
+        ByteBuffer received = ByteBuffer.allocate(64 << 10);
+        ByteBuffer restoredBytes = ByteBuffer.allocate(1000);
+        decoder.src(received);
+        decoder.dst(restoredBytes);
+
+        PacketIOHelper writer = new PacketIOHelper();
+        PacketIOHelper reader = new PacketIOHelper();
+        List<Packet> result = new ArrayList<>();
+        int next = 0;
+        while (result.size() < packets.size()) {
+            packetBytes.compact();
+            while (next < packets.size() && writer.writeTo(packets.get(next), packetBytes)) {
+                next++;
+            }
+            packetBytes.flip();
+
+            encoder.onWrite();
+            received.put(wire);
+
+            HandlerStatus status;
+            do {
+                status = decoder.onRead();
+                restoredBytes.flip();
+                for (Packet packet; (packet = reader.readFrom(restoredBytes)) != null; ) {
+                    result.add(packet);
+                }
+                restoredBytes.compact();
+            } while (status != CLEAN);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.util.LatencyHistogram.BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.SUB_BUCKET_COUNT;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketIndex;
+import static com.hazelcast.internal.util.LatencyHistogram.bucketMaxNanos;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketIndex_isLinear_belowSubBucketCount() {
+        for (int i = 0; i < SUB_BUCKET_COUNT; i++) {
+            assertEquals(i, bucketIndex(i));
+            assertEquals(i, bucketMaxNanos(i));
+        }
+    }
+
+    @Test
+    public void bucketIndex_isConsistentWithBucketBounds() {
+        for (int index = 1; index < BUCKET_COUNT - 1; index++) {
+            long max = bucketMaxNanos(index);
+            assertEquals(index, bucketIndex(max));
+            assertEquals(index + 1, bucketIndex(max + 1));
+        }
+    }
+
+    @Test
+    public void bucketIndex_clampsHugeValues() {
+        assertEquals(BUCKET_COUNT - 1, bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentiles_whenEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getP50Nanos());
+        assertEquals(0, histogram.getP999Nanos());
+    }
+
+    @Test
+    public void percentiles_areWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.recordNanos(i * 1000L);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertWithinRelativeError(5_000_000, histogram.getP50Nanos());
+        assertWithinRelativeError(9_900_000, histogram.getP99Nanos());
+        assertWithinRelativeError(9_990_000, histogram.getP999Nanos());
+        assertEquals(10_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void recordNanos_negativeLatency_recordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getP50Nanos());
+    }
+
+    @Test
+    public void merge() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            fast.recordNanos(1000);
+        }
+        slow.recordNanos(1_000_000);
+
+        fast.merge(slow);
+
+        assertEquals(100, fast.getCount());
+        assertEquals(1_000_000, fast.getMaxNanos());
+        assertWithinRelativeError(1000, fast.getP50Nanos());
+        assertWithinRelativeError(1_000_000, fast.getP999Nanos());
+    }
+
+    @Test
+    public void reset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(1000, 10);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getP99Nanos());
+    }
+
+    @Test
+    public void window_previousWindowIsReported() {
+        AtomicLong clock = new AtomicLong();
+        LatencyHistogram histogram = new LatencyHistogram(100, clock::get);
+        histogram.recordNanos(1000, 10);
+
+        clock.set(150);
+        histogram.recordNanos(1_000_000);
+
+        assertEquals(11, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertWithinRelativeError(1000, histogram.getP50Nanos());
+    }
+
+    @Test
+    public void window_latenciesOlderThanTwoWindowsAreDropped() {
+        AtomicLong clock = new AtomicLong();
+        LatencyHistogram histogram = new LatencyHistogram(100, clock::get);
+        histogram.recordNanos(1_000_000);
+
+        clock.set(150);
+        histogram.recordNanos(1000);
+        clock.set(250);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(1000, histogram.getMaxNanos());
+
+        clock.set(500);
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getP99Nanos());
+    }
+
+    private static void assertWithinRelativeError(long expected, long actual) {
+        double error = Math.abs(actual - expected) / (double) expected;
+        assertTrue("expected " + expected + " but was " + actual, error <= 1d / SUB_BUCKET_COUNT);
+    }
+}
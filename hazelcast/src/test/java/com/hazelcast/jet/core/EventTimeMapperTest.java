@@ -34,7 +34,9 @@ import static com.hazelcast.jet.core.WatermarkPolicy.limitingLag;
 import static com.hazelcast.jet.impl.execution.WatermarkCoalescer.IDLE_MESSAGE;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -245,6 +247,64 @@ public class EventTimeMapperTest {
         assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 40L, 0, NO_NATIVE_TIME), 40L);
     }
 
+    @Test
+    public void when_partitionAheadByMoreThanDrift_then_reportedAhead() {
+        EventTimeMapper<Long> eventTimeMapper = new EventTimeMapper<>(
+                eventTimePolicy(Long::longValue, limitingLag(LAG), 1, 0, 1000));
+        eventTimeMapper.setMaxEventTimeDrift(10);
+        eventTimeMapper.addPartitions(0L, 2);
+
+        // partition1 has no events yet, it doesn't hold partition0 back
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 100L, 0, NO_NATIVE_TIME), 100L);
+        assertFalse(eventTimeMapper.isPartitionAhead(0));
+        assertFalse(eventTimeMapper.isPartitionAhead(1));
+
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 80L, 1, NO_NATIVE_TIME), wm(80 - LAG), 80L);
+        assertTrue(eventTimeMapper.isPartitionAhead(0));
+        assertFalse(eventTimeMapper.isPartitionAhead(1));
+
+        // partition1 catches up to within the drift
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 90L, 1, NO_NATIVE_TIME), wm(90 - LAG), 90L);
+        assertFalse(eventTimeMapper.isPartitionAhead(0));
+        assertFalse(eventTimeMapper.isPartitionAhead(1));
+    }
+
+    @Test
+    public void when_laggingPartitionIdle_then_notHoldingBack() {
+        EventTimeMapper<Long> eventTimeMapper = new EventTimeMapper<>(
+                eventTimePolicy(Long::longValue, limitingLag(LAG), 1, 0, 5));
+        eventTimeMapper.setMaxEventTimeDrift(10);
+        eventTimeMapper.addPartitions(0L, 2);
+
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 50L, 1, NO_NATIVE_TIME), 50L);
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(3), 100L, 0, NO_NATIVE_TIME), wm(50 - LAG), 100L);
+        assertTrue(eventTimeMapper.isPartitionAhead(0));
+
+        // partition1 becomes idle
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(6), null, -1, NO_NATIVE_TIME), wm(100 - LAG));
+        assertFalse(eventTimeMapper.isPartitionAhead(0));
+    }
+
+    @Test
+    public void when_maxDriftWithoutIdleTimeout_then_fail() {
+        EventTimeMapper<Long> eventTimeMapper = new EventTimeMapper<>(
+                eventTimePolicy(Long::longValue, limitingLag(LAG), 1, 0, 0));
+
+        exception.expect(IllegalArgumentException.class);
+        eventTimeMapper.setMaxEventTimeDrift(10);
+    }
+
+    @Test
+    public void when_noMaxDrift_then_neverAhead() {
+        EventTimeMapper<Long> eventTimeMapper = new EventTimeMapper<>(
+                eventTimePolicy(Long::longValue, limitingLag(LAG), 1, 0, 0));
+        eventTimeMapper.addPartitions(0L, 2);
+
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 1000L, 0, NO_NATIVE_TIME), 1000L);
+        assertTraverser(eventTimeMapper.flatMapEvent(ns(0), 0L, 1, NO_NATIVE_TIME), wm(0 - LAG), 0L);
+        assertFalse(eventTimeMapper.isPartitionAhead(0));
+    }
+
     private static SupplierEx<WatermarkPolicy> constantWmPolicy(long value) {
         return () -> new WatermarkPolicy() {
             @Override
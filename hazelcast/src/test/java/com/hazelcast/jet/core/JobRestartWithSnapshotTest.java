@@ -31,7 +31,9 @@ import com.hazelcast.jet.core.processor.SinkProcessors;
 import com.hazelcast.jet.datamodel.KeyedWindowResult;
 import com.hazelcast.jet.impl.JobExecutionRecord;
 import com.hazelcast.jet.impl.JobRepository;
+import com.hazelcast.jet.impl.SnapshotValidationRecord;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.map.IMap;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
@@ -57,6 +59,7 @@ import java.util.stream.IntStream;
 import static com.hazelcast.function.Functions.entryKey;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_FULL_SNAPSHOT_INTERVAL;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
 import static com.hazelcast.jet.core.Edge.between;
@@ -67,9 +70,11 @@ import static com.hazelcast.jet.core.processor.Processors.combineToSlidingWindow
 import static com.hazelcast.jet.core.processor.Processors.insertWatermarksP;
 import static com.hazelcast.jet.core.processor.Processors.mapP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
+import static com.hazelcast.jet.impl.JobRepository.snapshotDataMapName;
 import static com.hazelcast.jet.impl.util.Util.arrayIndexOf;
 import static com.hazelcast.test.PacketFiltersUtil.delayOperationsFrom;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.joining;
@@ -100,16 +105,26 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
 
     @Test
     public void when_nodeDown_then_jobRestartsFromSnapshot_singleStage() throws Exception {
-        when_nodeDown_then_jobRestartsFromSnapshot(false);
+        when_nodeDown_then_jobRestartsFromSnapshot(false, false);
     }
 
     @Test
     public void when_nodeDown_then_jobRestartsFromSnapshot_twoStage() throws Exception {
-        when_nodeDown_then_jobRestartsFromSnapshot(true);
+        when_nodeDown_then_jobRestartsFromSnapshot(true, false);
+    }
+
+    @Test
+    public void when_nodeDown_then_jobRestartsFromIncrementalSnapshot_singleStage() throws Exception {
+        when_nodeDown_then_jobRestartsFromSnapshot(false, true);
+    }
+
+    @Test
+    public void when_nodeDown_then_jobRestartsFromIncrementalSnapshot_twoStage() throws Exception {
+        when_nodeDown_then_jobRestartsFromSnapshot(true, true);
     }
 
     @SuppressWarnings("unchecked")
-    private void when_nodeDown_then_jobRestartsFromSnapshot(boolean twoStage) throws Exception {
+    private void when_nodeDown_then_jobRestartsFromSnapshot(boolean twoStage, boolean incremental) throws Exception {
         /*
         Design of this test:
 
@@ -200,6 +215,10 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
         JobConfig config = new JobConfig();
         config.setProcessingGuarantee(EXACTLY_ONCE);
         config.setSnapshotIntervalMillis(1200);
+        if (incremental) {
+            // the second snapshot, from which the job restarts, is incremental
+            config.setArgument(KEY_FULL_SNAPSHOT_INTERVAL, 3);
+        }
         Job job = instance1.getJet().newJob(dag, config);
 
         JobRepository jobRepository = new JobRepository(instance1);
@@ -209,6 +228,9 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
         waitForNextSnapshot(jobRepository, job.getId(), timeout, false);
         // wait a little more to emit something, so that it will be overwritten in the sink map
         Thread.sleep(300);
+        if (incremental) {
+            assertTrueEventually(() -> assertGeneratorStateSavedOnce(jobRepository, job.getId()), 5);
+        }
 
         instance2.getLifecycleService().terminate();
 
@@ -265,6 +287,27 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
         }
     }
 
+    /**
+     * Asserts that the snapshot map keeps the state of the generator, which
+     * isn't saved incrementally, only from the latest snapshot.
+     */
+    private void assertGeneratorStateSavedOnce(JobRepository jobRepository, long jobId) {
+        JobExecutionRecord executionRecord = jobRepository.getJobExecutionRecord(jobId);
+        IMap<Object, Object> snapshotMap =
+                instance1.getMap(snapshotDataMapName(jobId, executionRecord.dataMapIndex()));
+        SnapshotValidationRecord validationRecord =
+                (SnapshotValidationRecord) snapshotMap.get(SnapshotValidationRecord.KEY);
+        assertNotNull(validationRecord);
+        Set<Long> snapshotIds = snapshotMap.keySet().stream()
+                .filter(key -> key instanceof SnapshotDataKey)
+                .map(key -> (SnapshotDataKey) key)
+                .filter(key -> key.vertexName().equals("generator")
+                        && key.snapshotId() <= validationRecord.snapshotId())
+                .map(SnapshotDataKey::snapshotId)
+                .collect(Collectors.toSet());
+        assertEquals(singleton(validationRecord.snapshotId()), snapshotIds);
+    }
+
     @Test
     public void when_snapshotStartedBeforeExecution_then_firstSnapshotIsSuccessful() {
         // instance1 is always coordinator
@@ -21,17 +21,24 @@ import com.hazelcast.jet.SimpleTestInClusterSupport;
 import com.hazelcast.jet.Util;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.core.processor.Processors;
 import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.jet.impl.processor.GroupP;
+import com.hazelcast.jet.impl.processor.SortP;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.annotation.ParallelJVMTest;
 import com.hazelcast.test.annotation.QuickTest;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
@@ -39,6 +46,8 @@ import java.util.stream.Stream;
 import static com.hazelcast.jet.Traversers.traverseItems;
 import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_SPILL_DIRECTORY;
 import static com.hazelcast.jet.core.processor.Processors.aggregateByKeyP;
 import static com.hazelcast.jet.core.processor.Processors.combineByKeyP;
 import static com.hazelcast.jet.core.processor.Processors.combineP;
@@ -60,12 +69,16 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
 public class ProcessorsTest extends SimpleTestInClusterSupport {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @BeforeClass
     public static void setUp() {
         initialize(1, null);
@@ -179,6 +192,23 @@ public class ProcessorsTest extends SimpleTestInClusterSupport {
                 );
     }
 
+    @Test
+    public void sort_whenSpilling() throws Exception {
+        File spillDirectory = tempFolder.newFolder();
+        List<Integer> input = range(0, 100).boxed().collect(toList());
+        Collections.shuffle(input);
+
+        TestSupport
+                .verifyProcessor(SortP.supplier(sortP(null)))
+                .hazelcastInstance(instance())
+                .jobConfig(spillingJobConfig(spillDirectory, 7))
+                .disableSnapshots()
+                .input(input)
+                .expectOutput(range(0, 100).boxed().collect(toList()));
+
+        assertEquals(0, spillDirectory.list().length);
+    }
+
     @Test
     public void filterUsingService() {
         TestSupport
@@ -236,6 +266,27 @@ public class ProcessorsTest extends SimpleTestInClusterSupport {
                 ));
     }
 
+    @Test
+    public void aggregateByKey_whenSpilling() throws Exception {
+        File spillDirectory = tempFolder.newFolder();
+        // "Aa" and "BB" have the same hash code
+        List<String> keys = asList("Aa", "BB", "a", "b", "c", "d", "e", "f", "g", "h");
+        List<String> input = range(0, 100).mapToObj(i -> keys.get(i % keys.size())).collect(toList());
+        Collections.shuffle(input);
+
+        TestSupport
+                .verifyProcessor(GroupP.supplier(
+                        aggregateByKeyP(singletonList((FunctionEx<String, String>) k -> k), counting(), Util::entry)))
+                .hazelcastInstance(instance())
+                .jobConfig(spillingJobConfig(spillDirectory, 3))
+                .disableSnapshots()
+                .outputChecker(TestSupport.SAME_ITEMS_ANY_ORDER)
+                .input(input)
+                .expectOutput(keys.stream().map(k -> entry(k, 10L)).collect(toList()));
+
+        assertEquals(0, spillDirectory.list().length);
+    }
+
     @Test
     public void accumulateByKey() {
         FunctionEx<Object, String> keyFn = Object::toString;
@@ -306,6 +357,12 @@ public class ProcessorsTest extends SimpleTestInClusterSupport {
                 .expectOutput(emptyList());
     }
 
+    private static JobConfig spillingJobConfig(File spillDirectory, long maxProcessorAccumulatedRecords) {
+        return new JobConfig()
+                .setMaxProcessorAccumulatedRecords(maxProcessorAccumulatedRecords)
+                .setArgument(KEY_SPILL_DIRECTORY, spillDirectory.getAbsolutePath());
+    }
+
     private static <T> AggregateOperation1<T, List<T>, String> aggregateToListAndString() {
         return AggregateOperation
                 .<List<T>>withCreate(ArrayList::new)
@@ -19,6 +19,7 @@ package com.hazelcast.jet.impl.connector;
 import com.hazelcast.collection.IList;
 import com.hazelcast.jet.SimpleTestInClusterSupport;
 import com.hazelcast.jet.Util;
+import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.pipeline.BatchSource;
 import com.hazelcast.jet.pipeline.Pipeline;
 import com.hazelcast.jet.pipeline.Sinks;
@@ -30,17 +31,22 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.util.Util.uncheckRun;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -94,6 +100,35 @@ public class ReadFilesPTest extends SimpleTestInClusterSupport {
         finishDirectory(file1);
     }
 
+    @Test
+    public void test_largeFile_readInSplits() throws Exception {
+        File file1 = new File(directory, randomName());
+        final int listLength = 10000;
+        String[] lines = IntStream.range(0, listLength).mapToObj(i -> "line-" + i).toArray(String[]::new);
+        appendToFile(file1, lines);
+
+        ProcessorMetaSupplier metaSupplier = ReadFilesP.metaSupplier(directory.getPath(), "*", false, false,
+                path -> {
+                    throw new AssertionError("The file should be read in splits");
+                },
+                split -> {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(split.open(), UTF_8));
+                    return reader.lines().onClose(() -> uncheckRun(reader::close));
+                },
+                1024);
+        Pipeline p = Pipeline.create();
+        p.readFrom(Sources.<String>batchFromProcessor("readFiles", metaSupplier))
+         .setLocalParallelism(4)
+         .writeTo(Sinks.list(listJson));
+
+        instance().getJet().newJob(p).join();
+
+        assertEquals(listLength, listJson.size());
+        assertEquals(new HashSet<>(Arrays.asList(lines)), new HashSet<>(listJson));
+
+        finishDirectory(file1);
+    }
+
     @Test
     public void when_glob_the_useGlob() throws Exception {
         Pipeline p = pipeline("file2.*");
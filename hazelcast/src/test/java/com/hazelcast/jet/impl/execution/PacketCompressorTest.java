@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.hazelcast.jet.impl.Networking.PACKET_HEADER_SIZE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PacketCompressorTest {
+
+    private final PacketCompressor compressor = new PacketCompressor();
+
+    @Test
+    public void when_compressibleData_then_compressedAndRestored() throws IOException {
+        byte[] packet = new byte[PACKET_HEADER_SIZE + 10_000];
+        Arrays.fill(packet, 0, PACKET_HEADER_SIZE, (byte) 7);
+        for (int i = PACKET_HEADER_SIZE; i < packet.length; i++) {
+            packet[i] = (byte) (i % 10);
+        }
+
+        byte[] compressed = compressor.compress(packet);
+
+        assertTrue("compressed.length=" + compressed.length, compressed.length < packet.length / 10);
+        assertArrayEquals(Arrays.copyOf(packet, PACKET_HEADER_SIZE), Arrays.copyOf(compressed, PACKET_HEADER_SIZE));
+        assertArrayEquals(packet, compressor.decompress(compressed));
+    }
+
+    @Test
+    public void when_incompressibleData_then_storedAndRestored() throws IOException {
+        byte[] packet = new byte[PACKET_HEADER_SIZE + 1000];
+        new Random(42).nextBytes(packet);
+
+        byte[] compressed = compressor.compress(packet);
+
+        assertTrue("compressed.length=" + compressed.length, compressed.length <= packet.length + 5);
+        assertArrayEquals(packet, compressor.decompress(compressed));
+    }
+
+    @Test
+    public void when_reused_then_packetsIndependent() throws IOException {
+        byte[] large = new byte[PACKET_HEADER_SIZE + 5000];
+        byte[] small = new byte[PACKET_HEADER_SIZE + 100];
+        Arrays.fill(small, (byte) 3);
+
+        byte[] largeCompressed = compressor.compress(large);
+        byte[] smallCompressed = compressor.compress(small);
+
+        assertArrayEquals(small, compressor.decompress(smallCompressed));
+        assertArrayEquals(large, compressor.decompress(largeCompressed));
+    }
+
+    @Test
+    public void when_ended_then_compressFails() {
+        byte[] packet = new byte[PACKET_HEADER_SIZE + 100];
+        compressor.compress(packet);
+
+        compressor.end();
+
+        assertThrows(NullPointerException.class, () -> compressor.compress(packet));
+    }
+
+    @Test
+    public void when_endedUnused_then_noFailure() {
+        new PacketCompressor().end();
+    }
+}
@@ -50,7 +50,7 @@ public class ReceiverTaskletTest {
     public void before() {
         collector = new MockOutboundCollector(2);
         serService = new DefaultSerializationServiceBuilder().build();
-        t = new ReceiverTasklet(collector, serService, 3, 100, mock(LoggingService.class),
+        t = new ReceiverTasklet(collector, serService, 3, false, 100, mock(LoggingService.class),
                 new Address(), 0, "", null, "");
         t.initIncomingQueue(queue);
     }
@@ -62,6 +62,19 @@ public class ReceiverTaskletTest {
         assertEquals(asList(1, 2), collector.getBuffer());
     }
 
+    @Test
+    public void when_compressionEnabled_then_emitDecompressedObjects() throws IOException {
+        t = new ReceiverTasklet(collector, serService, 3, true, 100, mock(LoggingService.class),
+                new Address(), 0, "", null, "");
+        t.initIncomingQueue(queue);
+        pushObjects(1, 2);
+        byte[] packet = queue.remove();
+        queue.add(new PacketCompressor().compress(packet));
+
+        t.call();
+        assertEquals(asList(1, 2), collector.getBuffer());
+    }
+
     private void pushObjects(Object... objs) throws IOException {
         final BufferObjectDataOutput out = serService.createObjectDataOutput();
         // packet header
@@ -49,6 +49,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Stream;
 
@@ -58,6 +59,7 @@ import static com.hazelcast.internal.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.ProgressState.DONE;
 import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
 import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.spi.properties.ClusterProperty.JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -66,6 +68,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -85,13 +88,14 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
     private final CompletableFuture<Void> cancellationFuture = new CompletableFuture<>();
 
     private TaskletExecutionService tes;
+    private NodeEngineImpl neMock;
     private ExecutorService executor;
     private final ClassLoader classLoader = getClass().getClassLoader();
 
     @Before
     public void before() {
         executor = Executors.newCachedThreadPool();
-        NodeEngineImpl neMock = mock(NodeEngineImpl.class);
+        neMock = mock(NodeEngineImpl.class);
 
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
         when(neMock.getHazelcastInstance()).thenReturn(hzMock);
@@ -392,6 +396,36 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    @Test
+    public void when_workerOverloaded_then_taskletMovedToIdleWorker() {
+        // Given
+        tes.shutdown();
+        Properties properties = new Properties();
+        properties.setProperty(JET_COOPERATIVE_REBALANCE_INTERVAL_MILLIS.getName(), "100");
+        tes = new TaskletExecutionService(neMock, THREAD_COUNT, new HazelcastProperties(properties));
+        // tasklets are assigned round-robin, the two busy ones start on the same worker
+        List<RecordingTasklet> tasklets = Stream.generate(() -> new RecordingTasklet(false))
+                                                .limit(2 * THREAD_COUNT).collect(toList());
+        RecordingTasklet busy1 = new RecordingTasklet(true);
+        RecordingTasklet busy2 = new RecordingTasklet(true);
+        tasklets.set(0, busy1);
+        tasklets.set(THREAD_COUNT, busy2);
+
+        // When
+        CompletableFuture<Void> f = tes.beginExecute(tasklets, cancellationFuture, classLoader);
+
+        // Then
+        assertTrueEventually(() -> {
+            assertNotNull(busy1.lastThread);
+            assertNotEquals(busy1.lastThread, busy2.lastThread);
+        });
+        cancellationFuture.cancel(true);
+        assertThatThrownBy(f::join).isInstanceOf(CancellationException.class);
+        for (RecordingTasklet t : tasklets) {
+            assertFalse("tasklet was called concurrently", t.concurrentCall);
+        }
+    }
+
     private void executeAndJoin(List<MockTasklet> tasklets) {
         CompletableFuture<Void> f = tes.beginExecute(tasklets, cancellationFuture, classLoader);
         f.join();
@@ -504,6 +538,32 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    private static class RecordingTasklet implements Tasklet {
+
+        private final boolean busy;
+        private final AtomicBoolean inCall = new AtomicBoolean();
+        private volatile Thread lastThread;
+        private volatile boolean concurrentCall;
+
+        RecordingTasklet(boolean busy) {
+            this.busy = busy;
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            if (!inCall.compareAndSet(false, true)) {
+                concurrentCall = true;
+            }
+            lastThread = Thread.currentThread();
+            if (busy) {
+                LockSupport.parkNanos(1_000_000);
+            }
+            inCall.set(false);
+            return busy ? MADE_PROGRESS : NO_PROGRESS;
+        }
+    }
+
     private static class TaskletAssertingThreadLocal implements Tasklet {
 
         private static ThreadLocal<Integer> threadLocal = ThreadLocal.withInitial(() -> 0);
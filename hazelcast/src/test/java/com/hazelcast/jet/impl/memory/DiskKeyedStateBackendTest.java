@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.memory;
+
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.datamodel.TimestampedItem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class DiskKeyedStateBackendTest extends SimpleTestInClusterSupport {
+
+    private static final int CACHE_SIZE = 10;
+    // enough keys to fill the memtable a few times
+    private static final int MANY_KEYS = 200_000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private DiskKeyedStateBackend<String, long[]> backend;
+
+    @BeforeClass
+    public static void setUp() {
+        initialize(1, null);
+    }
+
+    @After
+    public void after() {
+        if (backend != null) {
+            backend.close();
+        }
+    }
+
+    @Test
+    public void when_manyKeys_then_statesReadBackFromDisk() {
+        backend = createBackend(Long.MAX_VALUE);
+        for (int round = 1; round <= 2; round++) {
+            for (int i = 0; i < MANY_KEYS; i++) {
+                TimestampedItem<long[]> state = getOrCreate("k" + i, 0);
+                assertEquals(round - 1, state.item()[0]);
+                state.item()[0]++;
+            }
+        }
+        for (int i = 0; i < MANY_KEYS; i += 1000) {
+            assertEquals(2, getOrCreate("k" + i, 0).item()[0]);
+        }
+    }
+
+    @Test
+    public void when_removed_then_stateCreatedAgain() {
+        backend = createBackend(Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            getOrCreate("k" + i, 0).item()[0] = i;
+        }
+        drain(backend.entries());
+        backend.remove("k1");
+        backend.remove("k2");
+        drain(backend.entries());
+
+        assertEquals(0, getOrCreate("k1", 0).item()[0]);
+        assertEquals(0, getOrCreate("k2", 0).item()[0]);
+        assertEquals(3, getOrCreate("k3", 0).item()[0]);
+    }
+
+    @Test
+    public void when_entries_then_latestStatesReturned() {
+        backend = createBackend(Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            getOrCreate("k" + i, 0).item()[0] = i;
+        }
+        drain(backend.entries());
+        getOrCreate("k5", 0).item()[0] = 500;
+        backend.remove("k6");
+
+        Map<String, Long> entries = drain(backend.entries());
+
+        assertEquals(99, entries.size());
+        assertEquals(Long.valueOf(500), entries.get("k5"));
+        assertNull(entries.get("k6"));
+        assertEquals(Long.valueOf(7), entries.get("k7"));
+    }
+
+    @Test
+    public void when_put_then_previousStateReturned() {
+        backend = createBackend(Long.MAX_VALUE);
+        for (int i = 0; i < 100; i++) {
+            assertNull(backend.put("k" + i, new TimestampedItem<>(0, new long[] {i})));
+        }
+
+        TimestampedItem<long[]> previous = backend.put("k0", new TimestampedItem<>(0, new long[] {100}));
+
+        assertEquals(0, previous.item()[0]);
+        assertEquals(100, getOrCreate("k0", 0).item()[0]);
+    }
+
+    @Test
+    public void when_evict_then_onlyExpiredKeysRemoved() {
+        // the timestamps are split to buckets of 10
+        backend = createBackend(DiskKeyedStateBackend.EVICTION_BUCKETS_PER_TTL * 10);
+        for (int i = 0; i < 100; i++) {
+            getOrCreate("k" + i, i);
+        }
+        // touch a key in the first bucket later
+        getOrCreate("k1", 50);
+
+        Map<String, Long> evicted = drain(backend.evict(25));
+
+        // the keys in the bucket [20, 30) aren't all expired yet
+        assertEquals(19, evicted.size());
+        assertTrue(evicted.containsKey("k0"));
+        assertTrue(evicted.containsKey("k19"));
+        assertNull(evicted.get("k1"));
+        assertEquals(0, drain(backend.evict(25)).size());
+        assertEquals(81, drain(backend.evict(Long.MAX_VALUE)).size());
+        assertEquals(0, drain(backend.entries()).size());
+    }
+
+    @Test
+    public void when_closed_then_filesDeleted() {
+        backend = createBackend(100);
+        for (int i = 0; i < MANY_KEYS; i++) {
+            getOrCreate("k" + i, i % 100);
+        }
+        File directory = tempFolder.getRoot();
+        assertEquals(1, directory.list().length);
+
+        backend.close();
+        backend = null;
+
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void when_getOrCreate_then_sameStateUntilEvictedFromCache() {
+        backend = createBackend(Long.MAX_VALUE);
+        TimestampedItem<long[]> state = getOrCreate("k", 5);
+        getOrCreate("k", 3);
+
+        assertSame(state, getOrCreate("k", 0));
+        assertEquals(5, state.timestamp());
+    }
+
+    private DiskKeyedStateBackend<String, long[]> createBackend(long ttl) {
+        return DiskKeyedStateBackend.create(tempFolder.getRoot().toPath(),
+                new TestProcessorContext().setHazelcastInstance(instance()), ttl, CACHE_SIZE);
+    }
+
+    private TimestampedItem<long[]> getOrCreate(String key, long timestamp) {
+        return backend.getOrCreate(key, timestamp, k -> new TimestampedItem<>(Long.MIN_VALUE, new long[1]));
+    }
+
+    private static Map<String, Long> drain(Traverser<Entry<String, TimestampedItem<long[]>>> traverser) {
+        Map<String, Long> result = new HashMap<>();
+        for (Entry<String, TimestampedItem<long[]>> entry; (entry = traverser.next()) != null; ) {
+            result.put(entry.getKey(), entry.getValue().item()[0]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.function.FunctionEx;
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.Util;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.test.TestProcessorSupplierContext;
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_SPILL_DIRECTORY;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class SpillingSupplierTest extends SimpleTestInClusterSupport {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() {
+        // the spill files need the serialization service of an instance
+        initialize(1, null);
+    }
+
+    @Test
+    public void when_spilling_then_notCooperative() throws Exception {
+        JobConfig spillingJobConfig = spillingJobConfig(tempFolder.newFolder(), 10);
+
+        assertFalse(createProcessor(SortP.supplier(() -> new SortP<>(null)), spillingJobConfig).isCooperative());
+        assertTrue(createProcessor(SortP.supplier(() -> new SortP<>(null)), new JobConfig()).isCooperative());
+        assertFalse(createProcessor(GroupP.supplier(() -> newCountingGroupP()), spillingJobConfig).isCooperative());
+        assertTrue(createProcessor(GroupP.supplier(() -> newCountingGroupP()), new JobConfig()).isCooperative());
+    }
+
+    @Test
+    public void when_noCombineFn_then_groupPDoesNotSpill() throws Exception {
+        AggregateOperation1<Object, long[], Long> noCombine = AggregateOperation
+                .withCreate(() -> new long[1])
+                .andAccumulate((long[] acc, Object item) -> acc[0]++)
+                .andExportFinish(acc -> acc[0]);
+        ProcessorSupplier supplier = GroupP.supplier(
+                () -> new GroupP<>((FunctionEx<Object, Object>) item -> item, noCombine, Util::entry));
+
+        assertTrue(createProcessor(supplier, spillingJobConfig(tempFolder.newFolder(), 10)).isCooperative());
+    }
+
+    @Test
+    public void sort_whenMoreRunsThanMergedFiles() throws Exception {
+        File spillDirectory = tempFolder.newFolder();
+        List<Integer> input = range(0, 100).boxed().collect(toList());
+        Collections.shuffle(input);
+
+        // 14 runs, merged 3 at a time
+        TestSupport
+                .verifyProcessor(SortP.supplier(() -> {
+                    SortP<Integer> p = new SortP<>(null);
+                    p.maxMergedFiles = 3;
+                    return p;
+                }))
+                .hazelcastInstance(instance())
+                .jobConfig(spillingJobConfig(spillDirectory, 7))
+                .disableSnapshots()
+                .input(input)
+                .expectOutput(range(0, 100).boxed().collect(toList()));
+
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void aggregateByKey_whenMoreRunsThanMergedFiles() throws Exception {
+        File spillDirectory = tempFolder.newFolder();
+        // "Aa" and "BB" have the same hash code
+        List<String> keys = asList("Aa", "BB", "a", "b", "c", "d", "e", "f", "g", "h");
+        List<String> input = range(0, 100).mapToObj(i -> keys.get(i % keys.size())).collect(toList());
+        Collections.shuffle(input);
+
+        TestSupport
+                .verifyProcessor(GroupP.supplier(() -> {
+                    GroupP<String, ?, Long, ?> p = newCountingGroupP();
+                    p.maxMergedFiles = 2;
+                    return p;
+                }))
+                .hazelcastInstance(instance())
+                .jobConfig(spillingJobConfig(spillDirectory, 3))
+                .disableSnapshots()
+                .outputChecker(TestSupport.SAME_ITEMS_ANY_ORDER)
+                .input(input)
+                .expectOutput(keys.stream().map(k -> entry(k, 10L)).collect(toList()));
+
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    private static GroupP<String, ?, Long, ?> newCountingGroupP() {
+        return new GroupP<>(singletonList((FunctionEx<String, String>) k -> k), counting(), Util::entry);
+    }
+
+    private static Processor createProcessor(ProcessorSupplier supplier, JobConfig jobConfig) throws Exception {
+        supplier.init(new TestProcessorSupplierContext().setHazelcastInstance(instance()).setJobConfig(jobConfig));
+        return supplier.get(1).iterator().next();
+    }
+
+    private static JobConfig spillingJobConfig(File spillDirectory, long maxProcessorAccumulatedRecords) {
+        return new JobConfig()
+                .setMaxProcessorAccumulatedRecords(maxProcessorAccumulatedRecords)
+                .setArgument(KEY_SPILL_DIRECTORY, spillDirectory.getAbsolutePath());
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.SimpleTestInClusterSupport;
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.processor.Processors;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.core.test.TestProcessorSupplierContext;
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.jet.datamodel.TimestampedItem;
+import com.hazelcast.jet.impl.JetEvent;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_FULL_SNAPSHOT_INTERVAL;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_STATE_CACHE_SIZE;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_STATE_DIRECTORY;
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.core.JetTestSupport.wm;
+import static com.hazelcast.jet.impl.JetEvent.jetEvent;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TransformStatefulP_diskStateTest extends SimpleTestInClusterSupport {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUp() {
+        // the disk state needs the serialization service of an instance
+        initialize(1, null);
+    }
+
+    @Test
+    public void when_stateOnDisk_then_notCooperative() throws Exception {
+        assertFalse(createProcessor(jobConfig()).isCooperative());
+        assertTrue(createProcessor(new JobConfig()).isCooperative());
+    }
+
+    @Test
+    public void mapStateful_noTtl_manyKeys() {
+        List<Object> input = new ArrayList<>();
+        List<Object> expected = new ArrayList<>();
+        for (long round = 1; round <= 2; round++) {
+            for (int i = 0; i < 100; i++) {
+                input.add(entry("k" + i, 1L));
+                expected.add(entry("k" + i, round));
+            }
+        }
+
+        TestSupport.verifyProcessor(TransformStatefulP.supplier(Processors.mapStatefulP(
+                           0,
+                           Entry<String, Long>::getKey,
+                           e -> 0L,
+                           () -> new long[1],
+                           (long[] s, String k, Entry<String, Long> e) -> {
+                               s[0] += e.getValue();
+                               return entry(k, s[0]);
+                           },
+                           null)))
+                   .hazelcastInstance(instance())
+                   .jobConfig(jobConfig())
+                   .input(input)
+                   .disableLogging()
+                   .expectOutput(expected);
+    }
+
+    @Test
+    public void mapStateful_withTtlAndEvict() {
+        long evictSignal = 99L;
+
+        TestSupport.verifyProcessor(TransformStatefulP.supplier(Processors.mapStatefulP(
+                           2,
+                           (JetEvent<Entry<String, Long>> jetEvent) -> jetEvent.payload().getKey(),
+                           JetEvent::timestamp,
+                           () -> new long[1],
+                           (long[] s, String k, JetEvent<Entry<String, Long>> e) -> {
+                               s[0] += e.payload().getValue();
+                               return jetEvent(e.timestamp(), entry(k, s[0]));
+                           },
+                           (state, key, wm) -> jetEvent(wm, entry(key, evictSignal)))))
+                   .hazelcastInstance(instance())
+                   .jobConfig(jobConfig())
+                   .input(asList(
+                           jetEvent(0, entry("a", 1L)),
+                           jetEvent(1, entry("b", 2L)),
+                           wm(3), // evict a
+                           jetEvent(3, entry("a", 3L)),
+                           wm(4), // evict b
+                           jetEvent(4, entry("b", 4L))
+                   ))
+                   .expectOutput(asList(
+                           jetEvent(0, entry("a", 1L)),
+                           jetEvent(1, entry("b", 2L)),
+                           jetEvent(3, entry("a", evictSignal)),
+                           wm(3),
+                           jetEvent(3, entry("a", 3L)),
+                           jetEvent(4, entry("b", evictSignal)),
+                           wm(4),
+                           jetEvent(4, entry("b", 4L)),
+                           jetEvent(Long.MAX_VALUE, entry("a", 99L)),
+                           jetEvent(Long.MAX_VALUE, entry("b", 99L))
+                   ));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void when_incrementalSnapshot_then_changedStatesReadFromDisk() throws Exception {
+        JobConfig jobConfig = jobConfig().setArgument(KEY_FULL_SNAPSHOT_INTERVAL, 3);
+        TransformStatefulP<Entry<String, Long>, String, long[], Entry<String, Long>> p = createProcessor(jobConfig);
+        TestOutbox outbox = new TestOutbox(new int[] {128}, 128);
+        p.init(outbox, new TestProcessorContext()
+                .setHazelcastInstance(instance())
+                .setJobConfig(jobConfig)
+                .setProcessingGuarantee(EXACTLY_ONCE));
+        assertTrue(p.tryProcess(0, entry("a", 1L)));
+        assertTrue(p.tryProcess(0, entry("b", 2L)));
+        p.prepareSaveToSnapshot(false);
+        assertTrue(p.saveToSnapshot());
+        assertTrue(p.snapshotCommitFinish(true));
+        outbox.snapshotQueue().clear();
+
+        // with a single cached key, the states of "a" and "b" are saved from the disk
+        assertTrue(p.tryProcess(0, entry("a", 3L)));
+        assertTrue(p.tryProcess(0, entry("c", 4L)));
+        assertTrue(p.tryProcess(0, entry("b", 5L)));
+        p.prepareSaveToSnapshot(true);
+        assertTrue(p.saveToSnapshot());
+
+        Map<Object, Long> saved = new HashMap<>();
+        for (Entry<Object, Object> e : outbox.snapshotQueue()) {
+            if (e.getKey() instanceof String) {
+                saved.put(e.getKey(), ((TimestampedItem<long[]>) e.getValue()).item()[0]);
+            }
+        }
+        Map<Object, Long> expected = new HashMap<>();
+        expected.put("a", 4L);
+        expected.put("b", 7L);
+        expected.put("c", 4L);
+        assertEquals(expected, saved);
+        p.close();
+    }
+
+    private JobConfig jobConfig() {
+        // cache a single key to read all others from the disk
+        return new JobConfig()
+                .setArgument(KEY_STATE_DIRECTORY, tempFolder.getRoot().getAbsolutePath())
+                .setArgument(KEY_STATE_CACHE_SIZE, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TransformStatefulP<Entry<String, Long>, String, long[], Entry<String, Long>> createProcessor(
+            JobConfig jobConfig
+    ) throws Exception {
+        ProcessorSupplier supplier = TransformStatefulP.supplier(Processors.flatMapStatefulP(
+                0,
+                Entry<String, Long>::getKey,
+                e -> 0L,
+                () -> new long[1],
+                (long[] s, String k, Entry<String, Long> e) -> {
+                    s[0] += e.getValue();
+                    return Traversers.singleton(entry(k, s[0]));
+                },
+                null));
+        supplier.init(new TestProcessorSupplierContext().setHazelcastInstance(instance()).setJobConfig(jobConfig));
+        Processor processor = supplier.get(1).iterator().next();
+        return (TransformStatefulP<Entry<String, Long>, String, long[], Entry<String, Long>>) processor;
+    }
+}
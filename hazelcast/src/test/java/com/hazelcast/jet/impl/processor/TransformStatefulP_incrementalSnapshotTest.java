@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.impl.execution.IncrementalSnapshotProcessor.Tombstone;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeSet;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.config.JobConfigArguments.KEY_FULL_SNAPSHOT_INTERVAL;
+import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
+import static com.hazelcast.jet.core.JetTestSupport.wm;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TransformStatefulP_incrementalSnapshotTest {
+
+    private static final long TTL = 5;
+
+    @Test
+    public void when_incrementalSnapshot_then_onlyChangedKeysSaved() throws Exception {
+        TestProcessor p = new TestProcessor(true);
+        p.process(entry("a", 1L), entry("b", 2L));
+        assertEquals(asList("a", "b"), p.save(false).keys);
+        assertTrue(p.snapshotCommitFinish(true));
+
+        p.process(entry("b", 3L));
+
+        assertEquals(singletonList("b"), p.save(true).keys);
+    }
+
+    @Test
+    public void when_snapshotFails_then_changesSavedToNextSnapshot() throws Exception {
+        TestProcessor p = new TestProcessor(true);
+        p.process(entry("a", 1L), entry("b", 2L));
+        p.save(false);
+        assertTrue(p.snapshotCommitFinish(true));
+
+        p.process(entry("a", 3L));
+        p.save(true);
+        assertTrue(p.snapshotCommitFinish(false));
+        p.process(entry("c", 4L));
+
+        assertEquals(asList("a", "c"), p.save(true).keys);
+    }
+
+    @Test
+    public void when_exportedSnapshot_then_changesNotForgotten() throws Exception {
+        TestProcessor p = new TestProcessor(true);
+        p.process(entry("a", 1L), entry("b", 2L));
+        p.save(false);
+        assertTrue(p.snapshotCommitFinish(true));
+        p.process(entry("a", 3L));
+
+        // an exported snapshot isn't prepared, it contains the full state
+        assertEquals(asList("a", "b"), p.save(null).keys);
+        assertTrue(p.snapshotCommitFinish(true));
+
+        assertEquals(singletonList("a"), p.save(true).keys);
+    }
+
+    @Test
+    public void when_keyEvicted_then_restoredWithoutIt() throws Exception {
+        TestProcessor p = new TestProcessor(true);
+        p.process(entry("a", 1L), entry("b", 2L));
+        Snapshot fullSnapshot = p.save(false);
+        assertTrue(p.snapshotCommitFinish(true));
+
+        // evicts "a", it was last updated at 1
+        p.process(entry("b", 7L));
+        assertTrue(p.tryProcessWatermark(wm(7)));
+        Snapshot incrementalSnapshot = p.save(true);
+        assertEquals(Tombstone.INSTANCE, incrementalSnapshot.values.get("a"));
+
+        TestProcessor restored = new TestProcessor(true);
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(fullSnapshot.entries);
+        inbox.addAll(incrementalSnapshot.entries);
+        restored.restoreFromSnapshot(inbox);
+        assertTrue(restored.finishSnapshotRestore());
+        restored.process(entry("a", 8L), entry("b", 8L));
+
+        // the state of "a" starts from scratch, "b" continues from 2 + 7
+        assertEquals(asList(entry("a", 8L), entry("b", 17L)), new ArrayList<>(restored.outbox.queue(0)));
+    }
+
+    @Test
+    public void when_incrementalSnapshotsDisabled_then_fullStateSaved() throws Exception {
+        TestProcessor p = new TestProcessor(false);
+        p.process(entry("a", 1L), entry("b", 2L));
+        p.save(false);
+        assertTrue(p.snapshotCommitFinish(true));
+        p.process(entry("b", 3L));
+
+        assertEquals(asList("a", "b"), p.save(true).keys);
+    }
+
+    @Test
+    public void when_completed_then_noStateSaved() throws Exception {
+        TestProcessor p = new TestProcessor(false);
+        p.process(entry("a", 1L), entry("b", 2L));
+        assertTrue(p.complete());
+
+        assertEquals(emptyList(), p.save(false).entries);
+    }
+
+    @Test
+    public void when_completedWithIncrementalSnapshots_then_onlyTombstonesSaved() throws Exception {
+        TestProcessor p = new TestProcessor(true);
+        p.process(entry("a", 1L), entry("b", 2L));
+        Snapshot fullSnapshot = p.save(false);
+        assertTrue(p.snapshotCommitFinish(true));
+        assertTrue(p.complete());
+
+        // no state and no watermark, only the removal of the state saved before
+        Snapshot incrementalSnapshot = p.save(true);
+        assertEquals(asList("a", "b"), incrementalSnapshot.keys);
+        assertEquals(2, incrementalSnapshot.entries.size());
+        assertEquals(Tombstone.INSTANCE, incrementalSnapshot.values.get("a"));
+        assertEquals(Tombstone.INSTANCE, incrementalSnapshot.values.get("b"));
+
+        TestProcessor restored = new TestProcessor(true);
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(fullSnapshot.entries);
+        inbox.addAll(incrementalSnapshot.entries);
+        restored.restoreFromSnapshot(inbox);
+        assertTrue(restored.finishSnapshotRestore());
+        restored.process(entry("a", 8L));
+
+        assertEquals(singletonList(entry("a", 8L)), new ArrayList<>(restored.outbox.queue(0)));
+    }
+
+    private static final class TestProcessor extends TransformStatefulP<Entry<String, Long>, String, long[], Entry<String, Long>> {
+        final TestOutbox outbox = new TestOutbox(new int[] {128}, 128);
+
+        TestProcessor(boolean incrementalSnapshots) throws Exception {
+            super(TTL,
+                    Entry::getKey,
+                    Entry::getValue,
+                    () -> new long[1],
+                    (s, k, e) -> {
+                        s[0] += e.getValue();
+                        return Traversers.singleton(entry(k, s[0]));
+                    },
+                    null);
+            JobConfig jobConfig = new JobConfig();
+            if (incrementalSnapshots) {
+                jobConfig.setArgument(KEY_FULL_SNAPSHOT_INTERVAL, 3);
+            }
+            init(outbox, new TestProcessorContext()
+                    .setJobConfig(jobConfig)
+                    .setProcessingGuarantee(EXACTLY_ONCE));
+        }
+
+        @SafeVarargs
+        final void process(Entry<String, Long>... items) {
+            for (Entry<String, Long> item : items) {
+                assertTrue(tryProcess(0, item));
+            }
+        }
+
+        /**
+         * Saves a snapshot, {@code incremental == null} saves it the way an
+         * exported snapshot is saved.
+         */
+        Snapshot save(Boolean incremental) {
+            if (incremental != null) {
+                prepareSaveToSnapshot(incremental);
+            }
+            assertTrue(saveToSnapshot());
+            Snapshot snapshot = new Snapshot(new ArrayList<>(outbox.snapshotQueue()));
+            outbox.snapshotQueue().clear();
+            return snapshot;
+        }
+    }
+
+    private static final class Snapshot {
+        final List<Entry<Object, Object>> entries;
+        final List<Object> keys;
+        final Map<Object, Object> values = new HashMap<>();
+
+        Snapshot(List<Entry<Object, Object>> entries) {
+            this.entries = entries;
+            TreeSet<Object> sortedKeys = new TreeSet<>();
+            for (Entry<Object, Object> e : entries) {
+                if (e.getKey() instanceof String) {
+                    sortedKeys.add(e.getKey());
+                    values.put(e.getKey(), e.getValue());
+                }
+            }
+            this.keys = new ArrayList<>(sortedKeys);
+        }
+    }
+}
@@ -92,4 +92,9 @@ public class MockAsyncSnapshotWriter implements AsyncSnapshotWriter {
     public long getTotalChunks() {
         return 0;
     }
+
+    @Override
+    public boolean isIncremental() {
+        return false;
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.jet.pipeline.file.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class FileSplitTest {
+
+    private static final Path PROC_SELF_MAPS = Paths.get("/proc/self/maps");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void when_splitsCoverFile_then_eachLineReadOnce() throws IOException {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // include empty lines and lines longer than a split
+            lines.add(i % 50 == 0 ? "" : "x".repeat(random.nextInt(i % 100 == 1 ? 500 : 30)) + i);
+        }
+        Path path = write(String.join("\n", lines) + "\n");
+        long size = Files.size(path);
+
+        for (int splitSize : new int[]{1, 7, 64, 100, 1000, (int) size, (int) size + 1}) {
+            List<String> result = new ArrayList<>();
+            for (long start = 0; start < size; start += splitSize) {
+                result.addAll(readLines(new FileSplit(path, start, Math.min(size, start + splitSize))));
+            }
+            assertEquals("splitSize=" + splitSize, lines, result);
+        }
+    }
+
+    @Test
+    public void when_splitStartsInMiddleOfLine_then_lineSkipped() throws IOException {
+        Path path = write("aaa\nbbb\nccc");
+
+        assertEquals(List.of("aaa", "bbb"), readLines(new FileSplit(path, 0, 5)));
+        assertEquals(List.of("ccc"), readLines(new FileSplit(path, 5, 11)));
+        assertEquals(List.of("bbb"), readLines(new FileSplit(path, 4, 5)));
+        assertEquals(List.of(), readLines(new FileSplit(path, 9, 11)));
+    }
+
+    @Test
+    public void when_windowsLineEndings_then_linesWithoutCarriageReturn() throws IOException {
+        Path path = write("aaa\r\nbbb\r\nccc\r\n");
+
+        assertEquals(List.of("aaa"), readLines(new FileSplit(path, 0, 3)));
+        assertEquals(List.of("bbb", "ccc"), readLines(new FileSplit(path, 3, 15)));
+    }
+
+    @Test
+    public void when_streamClosed_then_fileUnmapped() throws IOException {
+        assumeTrue(Files.isReadable(PROC_SELF_MAPS));
+        Path path = write("aaa\nbbb\n").toRealPath();
+
+        InputStream is = new FileSplit(path, 0, 8).open();
+        assertEquals('a', is.read());
+        assertTrue(isMapped(path));
+
+        is.close();
+        assertFalse(isMapped(path));
+    }
+
+    @Test
+    public void test_isSplittable() {
+        assertTrue(FileSplit.isSplittable(UTF_8));
+        assertTrue(FileSplit.isSplittable(StandardCharsets.ISO_8859_1));
+        assertFalse(FileSplit.isSplittable(StandardCharsets.UTF_16));
+        assertFalse(FileSplit.isSplittable(StandardCharsets.UTF_16LE));
+    }
+
+    private Path write(String content) throws IOException {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+        return file.toPath();
+    }
+
+    private static boolean isMapped(Path path) throws IOException {
+        return Files.readAllLines(PROC_SELF_MAPS).stream().anyMatch(line -> line.endsWith(path.toString()));
+    }
+
+    private static List<String> readLines(FileSplit split) throws IOException {
+        try (InputStream is = split.open();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(is, UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
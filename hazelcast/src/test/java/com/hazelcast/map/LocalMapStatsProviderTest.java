@@ -25,6 +25,7 @@ import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.collectors.MetricsCollector;
 import com.hazelcast.map.impl.LocalMapStatsProvider;
 import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.Predicates;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.TestHazelcastInstanceFactory;
@@ -35,12 +36,15 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.test.Accessors.getNode;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelJVMTest.class})
@@ -103,6 +107,30 @@ public class LocalMapStatsProviderTest extends HazelcastTestSupport {
         assertFalse(statsProvider.hasLocalMapStatsImpl(MAP_NAME));
     }
 
+    @Test
+    public void testOperationLatencyPercentilesCollected() {
+        HazelcastInstance instance = factory.newHazelcastInstance(createMetricsBasedConfig());
+        IMap<Integer, Integer> map = instance.getMap(MAP_NAME);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+            map.get(i);
+        }
+        map.executeOnKey(1, Map.Entry::getValue);
+        map.values(Predicates.greaterThan("this", 50));
+
+        MetricsRegistry metricsRegistry = getNode(instance).getNodeEngine().getMetricsRegistry();
+        MapLatencyMetricsCollector metricsCollector = new MapLatencyMetricsCollector();
+        metricsRegistry.collect(metricsCollector);
+
+        assertEquals(Long.valueOf(100), metricsCollector.values.get("put.count"));
+        assertEquals(Long.valueOf(100), metricsCollector.values.get("get.count"));
+        assertEquals(Long.valueOf(1), metricsCollector.values.get("entryProcessor.count"));
+        assertEquals(Long.valueOf(1), metricsCollector.values.get("query.count"));
+        assertTrue(metricsCollector.values.get("put.p99") > 0);
+        assertTrue(metricsCollector.values.get("put.p999") >= metricsCollector.values.get("put.p50"));
+        assertFalse(metricsCollector.values.containsKey("remove.count"));
+    }
+
     private void assertMapPutCountMetric(HazelcastInstance instance, int expected) {
         MetricsRegistry metricsRegistry = getNode(instance).getNodeEngine().getMetricsRegistry();
         MapPutCountMetricsCollector metricsCollector = new MapPutCountMetricsCollector();
@@ -120,6 +148,29 @@ public class LocalMapStatsProviderTest extends HazelcastTestSupport {
         return config;
     }
 
+    private static class MapLatencyMetricsCollector implements MetricsCollector {
+        final Map<String, Long> values = new ConcurrentHashMap<>();
+
+        @Override
+        public void collectLong(MetricDescriptor descriptor, long value) {
+            if ("map.latency".equals(descriptor.prefix()) && MAP_NAME.equals(descriptor.discriminatorValue())) {
+                values.put(descriptor.tagValue("operation") + "." + descriptor.metric(), value);
+            }
+        }
+
+        @Override
+        public void collectDouble(MetricDescriptor descriptor, double value) {
+        }
+
+        @Override
+        public void collectException(MetricDescriptor descriptor, Exception e) {
+        }
+
+        @Override
+        public void collectNoValue(MetricDescriptor descriptor) {
+        }
+    }
+
     private static class MapPutCountMetricsCollector implements MetricsCollector {
         final AtomicInteger totalCollected = new AtomicInteger(0);
 
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.UnsafeMemoryAllocator;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.IMapAccessors.getMapServiceContext;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MapOffHeapStorageTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT_VALUE = 11;
+
+    @Test
+    public void basicOperations() {
+        IMap<Integer, String> map = createHazelcastInstance(newConfig()).getMap("test");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.set(0, "updated");
+        map.remove(1);
+
+        assertEquals(999, map.size());
+        assertEquals("updated", map.get(0));
+        assertNull(map.get(1));
+        assertEquals("value-2", map.get(2));
+        assertEquals(999, map.keySet().size());
+        assertTrue(offHeapUsedMemory(map) > 0);
+    }
+
+    @Test
+    public void destroy_freesOffHeapMemory() {
+        IMap<Integer, String> map = createHazelcastInstance(newConfig()).getMap("test");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        map.clear();
+        map.destroy();
+
+        assertEquals(0, offHeapUsedMemory(map));
+    }
+
+    @Test
+    public void shutdown_disposesMemoryManager() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, String> map = instance.getMap("test");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        MapServiceContext mapServiceContext = getMapServiceContext(map);
+        MemoryManager memoryManager = mapServiceContext.getOffHeapMemoryManager();
+
+        instance.shutdown();
+
+        assertEquals(0, ((UnsafeMemoryAllocator) memoryManager.getAllocator()).getUsedMemory());
+        assertNotSame(memoryManager, mapServiceContext.getOffHeapMemoryManager());
+    }
+
+    @Test
+    public void expiry() {
+        IMap<Integer, String> map = createHazelcastInstance(newConfig()).getMap("test");
+
+        map.put(1, "value", 1, SECONDS);
+
+        assertTrueEventually(() -> assertNull(map.get(1)));
+    }
+
+    @Test
+    public void samplingEviction() {
+        Config config = newConfig();
+        config.getMapConfig("test").setEvictionConfig(new EvictionConfig()
+                .setEvictionPolicy(EvictionPolicy.LRU)
+                .setMaxSizePolicy(MaxSizePolicy.PER_PARTITION)
+                .setSize(10));
+        IMap<Integer, Integer> map = createHazelcastInstance(config).getMap("test");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        assertTrue(map.size() <= 10 * PARTITION_COUNT_VALUE);
+    }
+
+    @Test
+    public void migration_movesOffHeapEntries() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = newConfig();
+        config.getMapConfig("test").setBackupCount(1);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance1.getMap("test");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        waitAllForSafeState(instance1, instance2);
+        instance1.shutdown();
+
+        IMap<Integer, Integer> migrated = instance2.getMap("test");
+        assertEquals(1000, migrated.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) migrated.get(i));
+        }
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void objectInMemoryFormat_isRejected() {
+        Config config = newConfig();
+        config.getMapConfig("test").setInMemoryFormat(InMemoryFormat.OBJECT);
+
+        createHazelcastInstance(config).getMap("test");
+    }
+
+    private static long offHeapUsedMemory(IMap<?, ?> map) {
+        MapServiceContext mapServiceContext = getMapServiceContext(map);
+        return ((UnsafeMemoryAllocator) mapServiceContext.getOffHeapMemoryManager().getAllocator()).getUsedMemory();
+    }
+
+    private Config newConfig() {
+        Config config = smallInstanceConfig();
+        config.setProperty(PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT_VALUE));
+        config.addMapConfig(new MapConfig("test").setOffHeapStorageEnabled(true));
+        return config;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hazelcast.map;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.EndpointQualifier;
+import com.hazelcast.instance.impl.Node;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.server.FirewallingServer.FirewallingServerConnectionManager;
+import com.hazelcast.internal.server.OperationPacketFilter;
+import com.hazelcast.internal.server.PacketFilter;
+import com.hazelcast.partition.LocalReplicationStats;
+import com.hazelcast.spi.impl.SpiDataSerializerHook;
+import com.hazelcast.spi.properties.ClusterProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.test.Accessors.getNode;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class MerkleTreeReplicaSyncTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "map";
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testStaleBackupReplicas_areSynchronizedWithDelta() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = getConfig();
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        makeBackupReplicasStale(instance1, instance2);
+
+        assertTrueEventually(() -> {
+            long diffRecords = 0;
+            long diffCount = 0;
+            for (HazelcastInstance instance : new HazelcastInstance[]{instance1, instance2}) {
+                LocalReplicationStats stats = instance.getMap(MAP_NAME).getLocalMapStats().getReplicationStats();
+                assertEquals(0, stats.getFullPartitionReplicationCount());
+                diffCount += stats.getDifferentialPartitionReplicationCount();
+                diffRecords += stats.getDifferentialReplicationRecordCount();
+            }
+            assertTrue(diffCount > 0);
+            assertTrue("Too many records replicated: " + diffRecords, diffRecords < ENTRY_COUNT / 10);
+            assertEquals(ENTRY_COUNT - 9, getBackupEntryCount(instance1, instance2));
+        });
+
+        // the backups become primaries and must hold the latest values
+        instance1.getLifecycleService().terminate();
+        IMap<Integer, Integer> survivingMap = instance2.getMap(MAP_NAME);
+        assertEquals(ENTRY_COUNT - 9, survivingMap.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(-i), survivingMap.get(i));
+        }
+        for (int i = 10; i < 20; i++) {
+            assertNull(survivingMap.get(i));
+        }
+        for (int i = 20; i <= ENTRY_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), survivingMap.get(i));
+        }
+    }
+
+    @Test
+    public void testStaleBackupReplicas_areSynchronizedFully_whenNotOptedIn() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        Config config = getConfig()
+                .setProperty(ClusterProperty.PARTITION_MERKLE_TREE_REPLICA_SYNC_ENABLED.getName(), "false");
+        HazelcastInstance instance1 = factory.newHazelcastInstance(config);
+        HazelcastInstance instance2 = factory.newHazelcastInstance(config);
+        makeBackupReplicasStale(instance1, instance2);
+
+        assertTrueEventually(() -> {
+            long fullCount = 0;
+            for (HazelcastInstance instance : new HazelcastInstance[]{instance1, instance2}) {
+                LocalReplicationStats stats = instance.getMap(MAP_NAME).getLocalMapStats().getReplicationStats();
+                assertEquals(0, stats.getDifferentialPartitionReplicationCount());
+                fullCount += stats.getFullPartitionReplicationCount();
+            }
+            assertTrue(fullCount > 0);
+            assertEquals(ENTRY_COUNT - 9, getBackupEntryCount(instance1, instance2));
+        });
+    }
+
+    private static void makeBackupReplicasStale(HazelcastInstance instance1, HazelcastInstance instance2) {
+        warmUpPartitions(instance1, instance2);
+
+        IMap<Integer, Integer> map = instance1.getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, getBackupEntryCount(instance1, instance2)));
+
+        setBackupPacketDropFilter(instance1);
+        setBackupPacketDropFilter(instance2);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, -i);
+        }
+        for (int i = 10; i < 20; i++) {
+            map.remove(i);
+        }
+        map.put(ENTRY_COUNT, ENTRY_COUNT);
+        removeBackupPacketDropFilter(instance1);
+        removeBackupPacketDropFilter(instance2);
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfigWithoutJetAndMetrics()
+                .setProperty(ClusterProperty.PARTITION_COUNT.getName(), "11")
+                .setProperty(ClusterProperty.PARTITION_BACKUP_SYNC_INTERVAL.getName(), "1")
+                .setProperty(ClusterProperty.PARTITION_MERKLE_TREE_REPLICA_SYNC_ENABLED.getName(), "true");
+        MapConfig mapConfig = config.getMapConfig(MAP_NAME)
+                .setBackupCount(0)
+                .setAsyncBackupCount(1);
+        mapConfig.getMerkleTreeConfig().setEnabled(true).setDepth(8);
+        return config;
+    }
+
+    private static long getBackupEntryCount(HazelcastInstance... instances) {
+        long backupEntryCount = 0;
+        for (HazelcastInstance instance : instances) {
+            backupEntryCount += instance.getMap(MAP_NAME).getLocalMapStats().getBackupEntryCount();
+        }
+        return backupEntryCount;
+    }
+
+    private static void setBackupPacketDropFilter(HazelcastInstance instance) {
+        Node node = getNode(instance);
+        FirewallingServerConnectionManager cm = (FirewallingServerConnectionManager)
+                node.getServer().getConnectionManager(EndpointQualifier.MEMBER);
+        cm.setPacketFilter(new BackupPacketDropFilter(node.getSerializationService()));
+    }
+
+    private static void removeBackupPacketDropFilter(HazelcastInstance instance) {
+        Node node = getNode(instance);
+        FirewallingServerConnectionManager cm = (FirewallingServerConnectionManager)
+                node.getServer().getConnectionManager(EndpointQualifier.MEMBER);
+        cm.removePacketFilter();
+    }
+
+    private static class BackupPacketDropFilter extends OperationPacketFilter implements PacketFilter {
+
+        BackupPacketDropFilter(InternalSerializationService serializationService) {
+            super(serializationService);
+        }
+
+        @Override
+        protected Action filterOperation(Address endpoint, int factory, int type) {
+            boolean isBackup = factory == SpiDataSerializerHook.F_ID && type == SpiDataSerializerHook.BACKUP;
+            return isBackup ? Action.DROP : Action.ALLOW;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.eviction;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.config.MaxSizePolicy.PER_PARTITION;
+import static com.hazelcast.map.IMapAccessors.getMapServiceContext;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class TinyLfuEvictorTest extends HazelcastTestSupport {
+
+    private static final int MAX_SIZE = 100;
+
+    @Test
+    public void hotEntries_surviveScanOfOneHitWonders() {
+        IMap<Integer, Integer> map = createMap(EvictionPolicy.W_TINY_LFU);
+
+        populateHotAndScanCold(map);
+
+        // the sketch is probabilistic, tolerate a few collisions
+        int hotEntryCount = countHotEntries(map);
+        assertTrue("Only " + hotEntryCount + " hot entries were kept", hotEntryCount >= MAX_SIZE * 9 / 10);
+    }
+
+    @Test
+    public void hotEntries_areEvicted_byScan_withLRU() {
+        IMap<Integer, Integer> map = createMap(EvictionPolicy.LRU);
+
+        populateHotAndScanCold(map);
+
+        assertTrue(countHotEntries(map) < MAX_SIZE / 2);
+    }
+
+    @Test
+    public void newEntry_isNeverEvicted_byItsOwnPut() {
+        IMap<Integer, Integer> map = createMap(EvictionPolicy.W_TINY_LFU);
+        populateHot(map);
+
+        for (int i = MAX_SIZE; i < 3 * MAX_SIZE; i++) {
+            map.set(i, i);
+            assertTrue("Entry " + i + " was dropped", map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void newHotKey_isAdmitted() {
+        IMap<Integer, Integer> map = createMap(EvictionPolicy.W_TINY_LFU);
+        populateHotAndScanCold(map);
+        int newHotKey = -1;
+        for (int i = 0; i < 10; i++) {
+            assertNull(map.get(newHotKey));
+        }
+
+        map.set(newHotKey, newHotKey);
+        for (int i = 10 * MAX_SIZE; i < 12 * MAX_SIZE; i++) {
+            map.set(i, i);
+        }
+
+        assertTrue(map.containsKey(newHotKey));
+    }
+
+    @Test
+    public void mapSize_isBounded() {
+        IMap<Integer, Integer> map = createMap(EvictionPolicy.W_TINY_LFU);
+
+        for (int i = 0; i < 10 * MAX_SIZE; i++) {
+            map.set(i, i);
+        }
+
+        assertTrue("map size " + map.size(), map.size() <= MAX_SIZE);
+    }
+
+    @Test
+    public void admissionCandidate_isCleared_whenRecordStoreDestroyed() {
+        IMap<Integer, Integer> map = createMap(EvictionPolicy.W_TINY_LFU);
+        for (int i = 0; i < 2 * MAX_SIZE; i++) {
+            map.set(i, i);
+        }
+        MapServiceContext mapServiceContext = getMapServiceContext(map);
+        TinyLfuEvictor evictor = (TinyLfuEvictor) mapServiceContext.getMapContainer(map.getName()).getEvictor();
+        RecordStore recordStore = mapServiceContext.getRecordStore(0, map.getName());
+        assertNotNull(evictor.getCandidate(recordStore));
+
+        map.destroy();
+
+        assertNull(evictor.getCandidate(recordStore));
+    }
+
+    private IMap<Integer, Integer> createMap(EvictionPolicy evictionPolicy) {
+        Config config = getConfig();
+        config.setProperty(PARTITION_COUNT.getName(), "1");
+        config.getMapConfig("default")
+                .getEvictionConfig()
+                .setEvictionPolicy(evictionPolicy)
+                .setMaxSizePolicy(PER_PARTITION)
+                .setSize(MAX_SIZE);
+
+        HazelcastInstance instance = createHazelcastInstance(config);
+        return instance.getMap(randomMapName());
+    }
+
+    private static void populateHotAndScanCold(IMap<Integer, Integer> map) {
+        populateHot(map);
+        for (int i = MAX_SIZE; i < 10 * MAX_SIZE; i++) {
+            map.set(i, i);
+        }
+    }
+
+    private static void populateHot(IMap<Integer, Integer> map) {
+        for (int i = 0; i < MAX_SIZE; i++) {
+            map.set(i, i);
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < MAX_SIZE; i++) {
+                map.get(i);
+            }
+        }
+    }
+
+    private static int countHotEntries(IMap<Integer, Integer> map) {
+        int count = 0;
+        for (int i = 0; i < MAX_SIZE; i++) {
+            if (map.containsKey(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
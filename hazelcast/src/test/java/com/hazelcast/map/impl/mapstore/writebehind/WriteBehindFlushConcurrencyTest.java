@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapStoreAdapter;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_FLUSH_CONCURRENCY;
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static com.hazelcast.test.Accessors.getNodeEngineImpl;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class WriteBehindFlushConcurrencyTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testPartitionsFlushedConcurrently() {
+        SlowMapStore mapStore = new SlowMapStore(50);
+        Config config = newConfig(mapStore, 16);
+        config.setProperty(MAP_WRITE_BEHIND_FLUSH_CONCURRENCY.getName(), "4");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("default");
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, mapStore.store.size()));
+        assertTrue("Expected concurrent store calls, max concurrency: " + mapStore.maxConcurrency.get(),
+                mapStore.maxConcurrency.get() > 1);
+
+        StoreWorker storeWorker = getStoreWorker(instance, map.getName());
+        assertTrueEventually(() -> assertEquals(ENTRY_COUNT, storeWorker.getStoredEntryCount()));
+        assertEquals(0, storeWorker.getFailedEntryCount());
+    }
+
+    @Test
+    public void testWriteBatchSizeAdaptsToStoreLatency() {
+        SlowMapStore mapStore = new SlowMapStore(100);
+        Config config = newConfig(mapStore, 64);
+        config.setProperty(MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS.getName(), "20");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Integer> map = instance.getMap("default");
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+
+        StoreWorker storeWorker = getStoreWorker(instance, map.getName());
+        assertTrueEventually(() -> assertTrue(storeWorker.getWriteBatchSize() < 64));
+    }
+
+    private static Config newConfig(SlowMapStore mapStore, int writeBatchSize) {
+        Config config = smallInstanceConfigWithoutJetAndMetrics();
+        config.setProperty(PARTITION_COUNT.getName(), "16");
+        config.getMapConfig("default")
+                .setMapStoreConfig(new MapStoreConfig()
+                        .setEnabled(true)
+                        .setImplementation(mapStore)
+                        .setWriteDelaySeconds(1)
+                        .setWriteBatchSize(writeBatchSize));
+        return config;
+    }
+
+    private static StoreWorker getStoreWorker(HazelcastInstance instance, String mapName) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        WriteBehindManager manager = (WriteBehindManager) mapServiceContext.getMapContainer(mapName)
+                .getMapStoreContext().getMapStoreManager();
+        return manager.getStoreWorker();
+    }
+
+    private static class SlowMapStore extends MapStoreAdapter<Integer, Integer> {
+
+        private final Map<Integer, Integer> store = new ConcurrentHashMap<>();
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+        private final long latencyMillis;
+
+        SlowMapStore(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void store(Integer key, Integer value) {
+            storeAll(Map.of(key, value));
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            int current = concurrency.incrementAndGet();
+            maxConcurrency.accumulateAndGet(current, Math::max);
+            try {
+                sleepMillis((int) latencyMillis);
+                store.putAll(map);
+            } finally {
+                concurrency.decrementAndGet();
+            }
+        }
+    }
+}
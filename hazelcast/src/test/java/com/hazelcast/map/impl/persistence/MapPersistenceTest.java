@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.spi.properties.ClusterProperty.MAP_PERSISTENCE_BASE_DIR;
+import static com.hazelcast.spi.properties.ClusterProperty.PARTITION_COUNT;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class MapPersistenceTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private TestHazelcastInstanceFactory factory;
+
+    @Before
+    public void setup() {
+        factory = createHazelcastInstanceFactory(6);
+    }
+
+    @Test
+    public void test_entriesAreRestoredAfterRestart() {
+        HazelcastInstance instance = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, String> map = instance.getMap("persisted");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.remove(i);
+        }
+        instance.getMap("transient").put(1, "value");
+        instance.shutdown();
+
+        instance = factory.newHazelcastInstance(getConfig());
+
+        map = instance.getMap("persisted");
+        assertEquals(ENTRY_COUNT / 2, map.size());
+        for (int i = 1; i < ENTRY_COUNT; i += 2) {
+            assertEquals("value-" + i, map.get(i));
+        }
+        assertEquals(0, instance.getMap("transient").size());
+    }
+
+    @Test
+    public void test_entriesAreRestoredAfterClusterRestart() {
+        HazelcastInstance[] instances = factory.newInstances(getConfig(), 2);
+        IMap<Integer, String> map = instances[0].getMap("persisted");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+        instances[0].getCluster().shutdown();
+
+        instances = factory.newInstances(getConfig(), 2);
+
+        map = instances[1].getMap("persisted");
+        assertEquals(ENTRY_COUNT, map.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals("value-" + i, map.get(i));
+        }
+    }
+
+    @Test
+    public void test_staleLogsAreNotRestored_whenMemberRejoinsAfterCrash() {
+        Config config = getConfig().setProperty(PARTITION_COUNT.getName(), "7");
+        HazelcastInstance[] instances = factory.newInstances(config, 2);
+        IMap<Integer, String> map = instances[1].getMap("persisted");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, "value-" + i);
+        }
+        instances[0].getLifecycleService().terminate();
+        for (int i = 0; i < ENTRY_COUNT; i += 2) {
+            map.remove(i);
+        }
+
+        HazelcastInstance restarted = factory.newHazelcastInstance(config);
+
+        assertEquals(ENTRY_COUNT / 2, restarted.getMap("persisted").size());
+
+        // the promoted and migrated replicas are logged by their new owners
+        waitAllForSafeState(restarted, instances[1]);
+        restarted.getCluster().shutdown();
+        instances = factory.newInstances(config, 2);
+
+        map = instances[0].getMap("persisted");
+        assertEquals(ENTRY_COUNT / 2, map.size());
+        for (int i = 1; i < ENTRY_COUNT; i += 2) {
+            assertEquals("value-" + i, map.get(i));
+        }
+    }
+
+    @Test
+    public void test_clearedAndDestroyedMapsAreNotRestored() {
+        HazelcastInstance instance = factory.newHazelcastInstance(getConfig());
+        IMap<Integer, String> cleared = instance.getMap("persisted-cleared");
+        IMap<Integer, String> destroyed = instance.getMap("persisted-destroyed");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            cleared.put(i, "value-" + i);
+            destroyed.put(i, "value-" + i);
+        }
+        cleared.clear();
+        cleared.put(1, "value");
+        destroyed.destroy();
+        instance.shutdown();
+
+        instance = factory.newHazelcastInstance(getConfig());
+
+        assertEquals(1, instance.getMap("persisted-cleared").size());
+        assertEquals(0, instance.getMap("persisted-destroyed").size());
+    }
+
+    @Override
+    protected Config getConfig() {
+        Config config = smallInstanceConfig()
+                .setProperty(MAP_PERSISTENCE_BASE_DIR.getName(), tempFolder.getRoot().getAbsolutePath());
+        config.getMapConfig("persisted*").getDataPersistenceConfig().setEnabled(true);
+        return config;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.persistence;
+
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class PartitionLogTest extends HazelcastTestSupport {
+
+    private static final int MAX_CHUNK_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private Path dir;
+    private PartitionLog log;
+
+    @Before
+    public void setup() {
+        dir = tempFolder.getRoot().toPath().resolve("partition");
+        log = new PartitionLog(dir, true, MAX_CHUNK_SIZE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        log.close();
+        serializationService.dispose();
+    }
+
+    @Test
+    public void test_putAndRemove() throws IOException {
+        log.put(data("a"), data(1));
+        log.put(data("b"), data(2));
+        log.put(data("a"), data(3));
+        log.remove(data("b"));
+        log.flush();
+
+        assertEquals(entries("a", 3), read());
+    }
+
+    @Test
+    public void test_recordsAreOnlyWrittenOnFlush() throws IOException {
+        log.put(data("a"), data(1));
+        log.flush();
+        log.put(data("b"), data(2));
+
+        assertEquals(entries("a", 1), read());
+        assertTrue(log.flush());
+        assertFalse(log.flush());
+        assertEquals(entries("a", 1, "b", 2), read());
+    }
+
+    @Test
+    public void test_clear_deletesOlderChunks() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            log.put(data(i), data("value-" + i));
+            log.flush();
+        }
+        assertTrue(PartitionLog.listChunks(dir).size() > 1);
+
+        log.clear();
+        log.put(data("a"), data(1));
+        log.flush();
+
+        assertEquals(1, PartitionLog.listChunks(dir).size());
+        assertEquals(entries("a", 1), read());
+    }
+
+    @Test
+    public void test_compact() throws IOException {
+        Map<Object, Object> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            int key = i % 10;
+            log.put(data(key), data("value-" + i));
+            expected.put(key, "value-" + i);
+            if (i % 7 == 0) {
+                log.remove(data(key));
+                expected.remove(key);
+            }
+            log.flush();
+        }
+        List<PartitionLog.Chunk> chunksBefore = PartitionLog.listChunks(dir);
+
+        assertTrue(log.compact());
+
+        List<PartitionLog.Chunk> chunksAfter = PartitionLog.listChunks(dir);
+        assertEquals(2, chunksAfter.size());
+        assertEquals(chunksBefore.get(chunksBefore.size() - 2).sequence, chunksAfter.get(0).sequence);
+        assertEquals(toData(expected), read());
+        // too little garbage to compact again
+        assertFalse(log.compact());
+    }
+
+    @Test
+    public void test_tornRecordIsIgnored() throws IOException {
+        log.put(data("a"), data(1));
+        log.put(data("b"), data(2));
+        log.flush();
+
+        Path chunk = PartitionLog.listChunks(dir).get(0).path;
+        try (RandomAccessFile file = new RandomAccessFile(chunk.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        assertEquals(entries("a", 1), read());
+    }
+
+    @Test
+    public void test_appendsAfterCloseAreIgnored() throws IOException {
+        log.put(data("a"), data(1));
+        log.close();
+        log.put(data("b"), data(2));
+
+        assertFalse(log.flush());
+        assertEquals(entries("a", 1), read());
+    }
+
+    @Test
+    public void test_destroy_deletesDirectory() throws IOException {
+        log.put(data("a"), data(1));
+        log.flush();
+
+        log.destroy();
+
+        assertFalse(dir.toFile().exists());
+    }
+
+    private Map<Data, Data> read() throws IOException {
+        return PartitionLogReader.read(dir);
+    }
+
+    private Data data(Object object) {
+        return serializationService.toData(object);
+    }
+
+    private Map<Data, Data> entries(Object... keysAndValues) {
+        Map<Data, Data> entries = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            entries.put(data(keysAndValues[i]), data(keysAndValues[i + 1]));
+        }
+        return entries;
+    }
+
+    private Map<Data, Data> toData(Map<Object, Object> map) {
+        Map<Data, Data> entries = new HashMap<>();
+        map.forEach((key, value) -> entries.put(data(key), data(value)));
+        return entries;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.iteration.IterationPointer;
+import com.hazelcast.internal.memory.impl.HeapMemoryManager;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
+import com.hazelcast.map.impl.record.DataRecordFactory;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.expiry.ExpirySystem;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class OffHeapStorageTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private SerializationService ss;
+    private HeapMemoryManager memoryManager;
+    private OffHeapRecordFactory recordFactory;
+    private OffHeapStorage storage;
+
+    @Before
+    public void setUp() {
+        ss = new DefaultSerializationServiceBuilder().build();
+        memoryManager = new HeapMemoryManager(16 << 20);
+        recordFactory = new OffHeapRecordFactory(memoryManager, ss);
+        storage = new OffHeapStorage(recordFactory, mock(ExpirySystem.class), ss);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy(false);
+    }
+
+    @Test
+    public void put_then_get() {
+        Data key = ss.toData(1);
+        storage.put(key, recordFactory.newRecord(key, "value"));
+
+        Record record = storage.get(key);
+        assertEquals("value", ss.toObject(record.getValue()));
+        assertTrue(storage.containsKey(ss.toData(1)));
+        assertNull(storage.get(ss.toData(2)));
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    public void put_copiesOnHeapRecord() {
+        Data key = ss.toData(1);
+        Record onHeapRecord = newOnHeapRecordFactory().newRecord(key, "value");
+        onHeapRecord.setVersion(3);
+        onHeapRecord.setHits(5);
+        onHeapRecord.setCreationTime(System.currentTimeMillis());
+
+        storage.put(key, onHeapRecord);
+
+        Record record = storage.get(key);
+        assertEquals("value", ss.toObject(record.getValue()));
+        assertEquals(3, record.getVersion());
+        assertEquals(5, record.getHits());
+        assertEquals(onHeapRecord.getRawCreationTime(), record.getRawCreationTime());
+    }
+
+    @Test
+    public void newRecord_allocatesOnlyWhenStored() {
+        long usedMemory = memoryManager.getUsedMemory();
+        Data key = ss.toData(1);
+
+        Record discarded = recordFactory.newRecord(key, "discarded");
+        discarded.setVersion(1);
+        assertEquals(usedMemory, memoryManager.getUsedMemory());
+
+        Record record = recordFactory.newRecord(key, "value");
+        record.setVersion(3);
+        record.setCreationTime(System.currentTimeMillis());
+        storage.put(key, record);
+        assertTrue(memoryManager.getUsedMemory() > usedMemory);
+
+        // the stored record is attached to its entry block
+        record.setHits(5);
+        Record stored = storage.get(key);
+        assertEquals(record, stored);
+        assertEquals("value", ss.toObject(stored.getValue()));
+        assertEquals(3, stored.getVersion());
+        assertEquals(5, stored.getHits());
+        assertEquals(record.getRawCreationTime(), stored.getRawCreationTime());
+    }
+
+    @Test
+    public void metadataUpdates_areVisibleThroughNewFlyweights() {
+        Data key = ss.toData(1);
+        storage.put(key, recordFactory.newRecord(key, "value"));
+
+        Record record = storage.get(key);
+        record.onAccess(System.currentTimeMillis());
+        record.setVersion(7);
+
+        Record reread = storage.get(key);
+        assertEquals(1, reread.getHits());
+        assertEquals(7, reread.getVersion());
+        assertEquals(record.getRawLastAccessTime(), reread.getRawLastAccessTime());
+        assertEquals(0L, reread.getLastStoredTime());
+    }
+
+    @Test
+    public void updateRecordValue_replacesValue_andAdjustsCost() {
+        Data key = ss.toData(1);
+        storage.put(key, recordFactory.newRecord(key, "v"));
+        long costBefore = storage.getEntryCostEstimator().getEstimate();
+
+        storage.updateRecordValue(key, storage.get(key), "a much longer value");
+
+        assertEquals("a much longer value", ss.toObject(storage.get(key).getValue()));
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > costBefore);
+    }
+
+    @Test
+    public void put_existingKey_replacesEntry() {
+        Data key = ss.toData(1);
+        storage.put(key, recordFactory.newRecord(key, "first"));
+        storage.put(key, recordFactory.newRecord(ss.toData(1), "second"));
+        storage.disposeDeferredBlocks();
+
+        assertEquals(1, storage.size());
+        assertEquals("second", ss.toObject(storage.get(key).getValue()));
+    }
+
+    @Test
+    public void removeRecord_keepsRecordReadable_untilDeferredBlocksDisposed() {
+        Data key = ss.toData(1);
+        storage.put(key, recordFactory.newRecord(key, "value"));
+        Record record = storage.get(key);
+
+        storage.removeRecord(key, record);
+
+        assertFalse(storage.containsKey(key));
+        assertEquals(0, storage.size());
+        assertEquals("value", ss.toObject(record.getValue()));
+        storage.disposeDeferredBlocks();
+    }
+
+    @Test
+    public void resize_keepsAllEntries() {
+        populate();
+
+        assertEquals(ENTRY_COUNT, storage.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) ss.toObject(storage.get(ss.toData(i)).getValue()));
+        }
+    }
+
+    @Test
+    public void mutationTolerantIterator_toleratesRemovals() {
+        populate();
+
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Map.Entry<Data, Record>> iterator = storage.mutationTolerantIterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Data, Record> entry = iterator.next();
+            assertTrue(seen.add(ss.toObject(entry.getKey())));
+            storage.removeRecord(entry.getKey(), entry.getValue());
+            storage.disposeDeferredBlocks();
+        }
+
+        assertEquals(ENTRY_COUNT, seen.size());
+        assertTrue(storage.isEmpty());
+    }
+
+    @Test
+    public void fetchKeys_returnsEveryKeyOnce_whenResizedDuringIteration() {
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            put(i);
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        IterationPointer[] pointers = {new IterationPointer(Integer.MAX_VALUE, -1)};
+        boolean resized = false;
+        do {
+            MapKeysWithCursor cursor = storage.fetchKeys(pointers, 10);
+            for (Data key : cursor.getBatch()) {
+                assertTrue(seen.add(ss.toObject(key)));
+            }
+            pointers = cursor.getIterationPointers();
+            if (!resized) {
+                for (int i = ENTRY_COUNT / 2; i < ENTRY_COUNT; i++) {
+                    put(i);
+                }
+                resized = true;
+            }
+        } while (pointers[pointers.length - 1].getIndex() >= 0);
+
+        for (int i = 0; i < ENTRY_COUNT / 2; i++) {
+            assertTrue(seen.contains(i));
+        }
+    }
+
+    @Test
+    public void getRandomSamples_returnsRequestedCount() {
+        populate();
+
+        int count = 0;
+        for (EntryView sample : storage.getRandomSamples(15)) {
+            Data dataKey = storage.extractDataKeyFromLazy(sample);
+            assertTrue(storage.containsKey(dataKey));
+            count++;
+        }
+        assertEquals(15, count);
+    }
+
+    @Test
+    public void clear_freesAllEntries() {
+        populate();
+        assertTrue(storage.getEntryCostEstimator().getEstimate() > 0);
+
+        storage.clear(false);
+
+        assertEquals(0, storage.size());
+        assertEquals(0, storage.getEntryCostEstimator().getEstimate());
+        storage.destroy(false);
+        assertEquals(0, memoryManager.getUsedMemory());
+    }
+
+    private DataRecordFactory newOnHeapRecordFactory() {
+        MapConfig mapConfig = new MapConfig().setPerEntryStatsEnabled(true);
+        MapContainer mapContainer = mock(MapContainer.class);
+        when(mapContainer.getMapConfig()).thenReturn(mapConfig);
+        return new DataRecordFactory(mapContainer, ss);
+    }
+
+    private void populate() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            put(i);
+        }
+    }
+
+    private void put(int i) {
+        Data key = ss.toData(i);
+        storage.put(key, recordFactory.newRecord(key, i));
+    }
+}
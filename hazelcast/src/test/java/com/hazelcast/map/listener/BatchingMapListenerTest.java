@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.listener;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BatchingMapListenerTest extends HazelcastTestSupport {
+
+    @Test
+    public void testAllEventsDelivered_inKeyOrder() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(smallInstanceConfig());
+        IMap<Integer, Integer> map = instances[0].getMap(randomMapName());
+        RecordingListener listener = new RecordingListener(10, 50, false);
+        map.addEntryListener(listener, true);
+
+        int keyCount = 500;
+        for (int i = 0; i < keyCount; i++) {
+            map.put(i, i);
+            map.put(i, i + 1);
+        }
+
+        assertTrueEventually(() -> assertEquals(2 * keyCount, listener.events.size()));
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals(i + 1, (int) listener.latestValues.get(i));
+        }
+    }
+
+    @Test
+    public void testEventsDelivered_whenBatchIsNotFull() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        RecordingListener listener = new RecordingListener(100, 10, false);
+        map.addEntryListener(listener, true);
+
+        map.put(1, 1);
+
+        assertTrueEventually(() -> assertEquals(1, listener.events.size()));
+    }
+
+    @Test
+    public void testCoalescing_deliversLatestEventPerKey() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        RecordingListener listener = new RecordingListener(1000, 2000, true);
+        map.addEntryListener(listener, true);
+
+        int updateCount = 100;
+        for (int i = 0; i < updateCount; i++) {
+            map.put(1, i);
+            map.put(2, i);
+        }
+
+        assertTrueEventually(() -> {
+            assertEquals(Integer.valueOf(updateCount - 1), listener.latestValues.get(1));
+            assertEquals(Integer.valueOf(updateCount - 1), listener.latestValues.get(2));
+        });
+        assertTrue("Events should be coalesced, received: " + listener.events.size(),
+                listener.events.size() < 2 * updateCount);
+    }
+
+    @Test
+    public void testBufferedEventsDelivered_whenListenerRemoved() {
+        HazelcastInstance instance = createHazelcastInstance(smallInstanceConfig());
+        IMap<Integer, Integer> map = instance.getMap(randomMapName());
+        RecordingListener listener = new RecordingListener(1000, HOURS.toMillis(1), false);
+        UUID registrationId = map.addLocalEntryListener(listener);
+
+        map.put(1, 1);
+        // the event is published after the put response, the get runs after it on the partition thread
+        map.get(1);
+        map.removeEntryListener(registrationId);
+
+        assertTrueEventually(() -> assertEquals(1, listener.events.size()));
+    }
+
+    @Test
+    public void testBufferedEventsDelivered_whenPublishingMemberShutsDown() {
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(smallInstanceConfig());
+        IMap<String, Integer> map = instances[0].getMap(randomMapName());
+        RecordingListener listener = new RecordingListener(1000, HOURS.toMillis(1), false);
+        map.addEntryListener(listener, true);
+
+        String key = generateKeyOwnedBy(instances[1]);
+        map.put(key, 1);
+        // the event is published after the put response, the get runs after it on the partition thread
+        map.get(key);
+        instances[1].shutdown();
+
+        assertTrueEventually(() -> assertEquals(1, listener.events.size()));
+    }
+
+    private static class RecordingListener implements BatchingMapListener,
+            EntryAddedListener<Object, Integer>, EntryUpdatedListener<Object, Integer> {
+
+        private final List<EntryEvent<Object, Integer>> events = new CopyOnWriteArrayList<>();
+        private final Map<Object, Integer> latestValues = new ConcurrentHashMap<>();
+        private final int batchSize;
+        private final long batchDelayMillis;
+        private final boolean coalescing;
+
+        RecordingListener(int batchSize, long batchDelayMillis, boolean coalescing) {
+            this.batchSize = batchSize;
+            this.batchDelayMillis = batchDelayMillis;
+            this.coalescing = coalescing;
+        }
+
+        @Override
+        public int getEventBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public long getEventBatchDelayMillis() {
+            return batchDelayMillis;
+        }
+
+        @Override
+        public boolean isEventCoalescingEnabled() {
+            return coalescing;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<Object, Integer> event) {
+            record(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Object, Integer> event) {
+            record(event);
+        }
+
+        private void record(EntryEvent<Object, Integer> event) {
+            events.add(event);
+            latestValues.put(event.getKey(), event.getValue());
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.nio;
 
 import com.hazelcast.internal.nio.Packet;
 import com.hazelcast.internal.nio.PacketIOHelper;
+import com.hazelcast.internal.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
@@ -45,7 +46,10 @@ import static com.hazelcast.internal.serialization.impl.SerializationConcurrency
 import static com.hazelcast.internal.serialization.impl.SerializationConcurrencyTest.PortablePerson;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -188,6 +192,64 @@ public class PacketIOHelperTest extends HazelcastTestSupport {
         assertPacketEquals(originalPacket, clonedPacket);
     }
 
+    @Test
+    public void operationPacket_readIntoPooledPayload() {
+        InternalSerializationService ss = createSerializationServiceBuilder().build();
+        String originalObject = generateRandomString(1000);
+        Packet originalPacket = new Packet(ss.toBytes(originalObject)).setPacketType(Packet.Type.OPERATION);
+        PacketIOHelper pooledPacketReader = new PacketIOHelper(new PacketPayloadPool());
+
+        Packet clonedPacket = writeAndRead(originalPacket, pooledPacketReader);
+
+        assertTrue(clonedPacket.hasPooledPayload());
+        assertTrue(clonedPacket.payloadBuffer().length > clonedPacket.totalSize());
+        assertEquals(clonedPacket.totalSize(), clonedPacket.toByteArray().length);
+        assertNotSame(clonedPacket.payloadBuffer(), clonedPacket.toByteArray());
+        assertEquals(originalPacket.totalSize(), clonedPacket.totalSize());
+        assertEquals(originalPacket, clonedPacket);
+        assertEquals(originalObject, ss.toObject(clonedPacket));
+
+        byte[] pooledPayload = clonedPacket.payloadBuffer();
+        clonedPacket.releasePayload();
+        assertFalse(clonedPacket.hasPooledPayload());
+        assertEquals(0, clonedPacket.totalSize());
+
+        Packet nextPacket = writeAndRead(originalPacket, pooledPacketReader);
+        assertSame(pooledPayload, nextPacket.payloadBuffer());
+        assertEquals(originalPacket, nextPacket);
+    }
+
+    @Test
+    public void responsePacket_notReadIntoPooledPayload() {
+        Packet originalPacket = new Packet(generateRandomString(1000).getBytes())
+                .setPacketType(Packet.Type.OPERATION)
+                .raiseFlags(Packet.FLAG_OP_RESPONSE);
+
+        Packet clonedPacket = writeAndRead(originalPacket, new PacketIOHelper(new PacketPayloadPool()));
+
+        assertFalse(clonedPacket.hasPooledPayload());
+        assertPacketEquals(originalPacket, clonedPacket);
+    }
+
+    @Test
+    public void eventPacket_notReadIntoPooledPayload() {
+        Packet originalPacket = new Packet(generateRandomString(1000).getBytes()).setPacketType(Packet.Type.EVENT);
+
+        Packet clonedPacket = writeAndRead(originalPacket, new PacketIOHelper(new PacketPayloadPool()));
+
+        assertFalse(clonedPacket.hasPooledPayload());
+        assertPacketEquals(originalPacket, clonedPacket);
+    }
+
+    private Packet writeAndRead(Packet originalPacket, PacketIOHelper reader) {
+        ByteBuffer bb = ByteBuffer.allocate(originalPacket.getFrameLength());
+        assertTrue(packetWriter.writeTo(originalPacket, bb));
+        bb.flip();
+        Packet clonedPacket = reader.readFrom(bb);
+        assertNotNull(clonedPacket);
+        return clonedPacket;
+    }
+
     private static void assertPacketEquals(Packet originalPacket, Packet clonedPacket) {
         assertEquals(originalPacket.getFlags(), clonedPacket.getFlags());
         assertArrayEquals(originalPacket.toByteArray(), clonedPacket.toByteArray());
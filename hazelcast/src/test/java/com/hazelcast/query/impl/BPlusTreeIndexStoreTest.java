@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.IndexConfig;
+import com.hazelcast.config.IndexType;
+import com.hazelcast.config.SortedIndexStructure;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.monitor.impl.IndexOperationStats;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.IMap;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelParametersRunnerFactory;
+import com.hazelcast.test.HazelcastParametrizedRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.junit.runners.Parameterized.UseParametersRunnerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.hazelcast.query.impl.AbstractIndex.NULL;
+import static com.hazelcast.query.impl.CompositeValue.POSITIVE_INFINITY;
+import static com.hazelcast.query.impl.OrderedIndexStore.SPECIAL_AWARE_COMPARATOR;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParametrizedRunner.class)
+@UseParametersRunnerFactory(HazelcastParallelParametersRunnerFactory.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class BPlusTreeIndexStoreTest extends HazelcastTestSupport {
+
+    private static final int KEY_RANGE = 200;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    @Parameters(name = "copyBehavior: {0}")
+    public static Collection<Object[]> parameters() {
+        return asList(new Object[][]{
+                {IndexCopyBehavior.COPY_ON_READ},
+                {IndexCopyBehavior.COPY_ON_WRITE},
+                {IndexCopyBehavior.NEVER},
+        });
+    }
+
+    @Parameter
+    public IndexCopyBehavior copyBehavior;
+
+    private final InternalSerializationService ss = new DefaultSerializationServiceBuilder().build();
+    private final Extractors extractors = Extractors.newBuilder(ss).build();
+    private final Random random = new Random();
+
+    @Test
+    public void testIntegralValues() {
+        Supplier<Comparable> values = () -> random.nextBoolean() ? (Comparable) (random.nextInt(50) - 25)
+                : (Comparable) (long) (random.nextInt(50) - 25);
+        Supplier<Comparable> arguments = () -> random.nextInt(4) == 0
+                ? (Comparable) (random.nextInt(60) - 30 + 0.5)
+                : values.get();
+
+        runRandomOperations(nullable(values), arguments);
+    }
+
+    @Test
+    public void testFloatingPointValues() {
+        Double[] specials = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+        Supplier<Comparable> values = () -> random.nextInt(10) == 0
+                ? (Comparable) specials[random.nextInt(specials.length)]
+                : (Comparable) ((random.nextInt(100) - 50) / 4.0);
+        Supplier<Comparable> arguments = () -> random.nextBoolean() ? values.get() : (Comparable) (random.nextInt(30) - 15);
+
+        runRandomOperations(nullable(values), arguments);
+    }
+
+    @Test
+    public void testTimestampValues() {
+        Supplier<Comparable> values = () -> EPOCH.plusSeconds(random.nextInt(100) - 50).plusNanos(random.nextInt(3));
+
+        runRandomOperations(nullable(values), values);
+    }
+
+    @Test
+    public void testUnsupportedValuesFallBackToSkipList() {
+        Supplier<Comparable> values = () -> "value-" + random.nextInt(50);
+
+        runRandomOperations(nullable(values), values);
+    }
+
+    @Test
+    public void testMixedNumericValuesFallBackToSkipList() {
+        Supplier<Comparable> values = () -> random.nextInt(5) == 0
+                ? (Comparable) (random.nextInt(50) / 2.0)
+                : (Comparable) random.nextInt(25);
+
+        runRandomOperations(nullable(values), values);
+    }
+
+    @Test
+    public void testClear() {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore(copyBehavior);
+        insert(store, 1, "string");
+        insert(store, 2, null);
+        store.clear();
+
+        assertTrue(store.getRecords(NULL, true, POSITIVE_INFINITY, true).isEmpty());
+
+        insert(store, 3, 3);
+        insert(store, 4, 4);
+        assertEquals(keys(4), keys(store.getRecords(Comparison.GREATER, 3)));
+    }
+
+    @Test
+    public void testMapQueries() {
+        Config config = smallInstanceConfig();
+        config.getMapConfig("map").addIndexConfig(new IndexConfig(IndexType.SORTED, "this")
+                .setSortedIndexStructure(SortedIndexStructure.B_PLUS_TREE));
+        HazelcastInstance instance = createHazelcastInstance(config);
+        IMap<Integer, Long> map = instance.getMap("map");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, (long) i);
+        }
+
+        assertEquals(100, map.values(Predicates.between("this", 100, 199)).size());
+        assertEquals(10, map.keySet(Predicates.greaterEqual("this", 990)).size());
+        assertEquals(5, map.keySet(Predicates.lessThan("this", 5L)).size());
+        assertEquals(3, map.keySet(Predicates.in("this", 1, 2L, 3)).size());
+    }
+
+    private void runRandomOperations(Supplier<Comparable> values, Supplier<Comparable> arguments) {
+        BPlusTreeIndexStore store = new BPlusTreeIndexStore(copyBehavior);
+        OrderedIndexStore expected = new OrderedIndexStore(copyBehavior);
+        Map<Integer, Comparable> current = new HashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(KEY_RANGE);
+            Comparable newValue = values.get();
+            CachedQueryEntry entry = new CachedQueryEntry<>(ss, ss.toData(key), newValue, extractors);
+            if (!current.containsKey(key)) {
+                store.insert(newValue, entry, entry, IndexOperationStats.EMPTY);
+                expected.insert(newValue, entry, entry, IndexOperationStats.EMPTY);
+                current.put(key, newValue);
+            } else if (random.nextInt(4) == 0) {
+                Comparable oldValue = current.remove(key);
+                store.remove(oldValue, entry, IndexOperationStats.EMPTY);
+                expected.remove(oldValue, entry, IndexOperationStats.EMPTY);
+            } else {
+                Comparable oldValue = current.put(key, newValue);
+                store.update(oldValue, newValue, entry, entry, IndexOperationStats.EMPTY);
+                expected.update(oldValue, newValue, entry, entry, IndexOperationStats.EMPTY);
+            }
+
+            if (i % 500 == 0) {
+                assertSameResults(expected, store, arguments);
+            }
+        }
+        assertSameResults(expected, store, arguments);
+    }
+
+    private void assertSameResults(OrderedIndexStore expected, BPlusTreeIndexStore actual, Supplier<Comparable> arguments) {
+        for (boolean descending : new boolean[]{false, true}) {
+            assertSameBatches(expected.getSqlRecordIteratorBatch(descending), actual.getSqlRecordIteratorBatch(descending));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            Comparable from = random.nextInt(5) == 0 ? NULL : arguments.get();
+            Comparable to = random.nextInt(5) == 0 ? POSITIVE_INFINITY : arguments.get();
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            boolean descending = random.nextBoolean();
+            Comparison comparison = Comparison.values()[random.nextInt(Comparison.values().length)];
+
+            assertSameBatches(expected.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending),
+                    actual.getSqlRecordIteratorBatch(from, fromInclusive, to, toInclusive, descending));
+            assertSameBatches(expected.getSqlRecordIteratorBatch(comparison, to == POSITIVE_INFINITY ? from : to, descending),
+                    actual.getSqlRecordIteratorBatch(comparison, to == POSITIVE_INFINITY ? from : to, descending));
+            assertSameBatches(expected.getSqlRecordIteratorBatch(from, descending),
+                    actual.getSqlRecordIteratorBatch(from, descending));
+            assertSameOrder(expected.getSqlRecordIterator(from, fromInclusive, to, toInclusive, descending),
+                    actual.getSqlRecordIterator(from, fromInclusive, to, toInclusive, descending));
+
+            assertEquals(keys(expected.getRecords(from, fromInclusive, to, toInclusive)),
+                    keys(actual.getRecords(from, fromInclusive, to, toInclusive)));
+            assertEquals(keys(expected.getRecords(from)), keys(actual.getRecords(from)));
+            Set<Comparable> in = new HashSet<>(asList(from, to));
+            assertEquals(keys(expected.getRecords(in)), keys(actual.getRecords(in)));
+        }
+    }
+
+    private static void assertSameBatches(Iterator<IndexKeyEntries> expected, Iterator<IndexKeyEntries> actual) {
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            IndexKeyEntries expectedEntries = expected.next();
+            IndexKeyEntries actualEntries = actual.next();
+            assertEquals(0, SPECIAL_AWARE_COMPARATOR.compare(expectedEntries.getIndexKey(), actualEntries.getIndexKey()));
+            assertSameOrder(expectedEntries.getEntries(), actualEntries.getEntries());
+        }
+        assertFalse(actual.hasNext());
+    }
+
+    private static void assertSameOrder(Iterator<QueryableEntry> expected, Iterator<QueryableEntry> actual) {
+        List<Data> expectedKeys = new ArrayList<>();
+        expected.forEachRemaining(entry -> expectedKeys.add(entry.getKeyData()));
+        List<Data> actualKeys = new ArrayList<>();
+        actual.forEachRemaining(entry -> actualKeys.add(entry.getKeyData()));
+        assertEquals(expectedKeys, actualKeys);
+    }
+
+    private Supplier<Comparable> nullable(Supplier<Comparable> values) {
+        return () -> random.nextInt(10) == 0 ? null : values.get();
+    }
+
+    private void insert(BPlusTreeIndexStore store, int key, Comparable value) {
+        CachedQueryEntry entry = new CachedQueryEntry<>(ss, ss.toData(key), value, extractors);
+        store.insert(value, entry, entry, IndexOperationStats.EMPTY);
+    }
+
+    private Set<Data> keys(int... keys) {
+        Set<Data> result = new HashSet<>();
+        for (int key : keys) {
+            result.add(ss.toData(key));
+        }
+        return result;
+    }
+
+    private static Set<Data> keys(Set<QueryableEntry> entries) {
+        Set<Data> result = new HashSet<>();
+        for (QueryableEntry entry : entries) {
+            result.add(entry.getKeyData());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2008-2024, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelJVMTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelJVMTest.class})
+public class LongBPlusTreeTest {
+
+    private final Random random = new Random();
+
+    @Test
+    public void testEmpty() {
+        LongBPlusTree<String> tree = LongBPlusTree.empty();
+
+        assertTrue(tree.isEmpty());
+        assertNull(tree.get(0));
+        assertFalse(tree.iterator(false).hasNext());
+        assertFalse(tree.iterator(true).hasNext());
+        assertSame(tree, tree.remove(0));
+    }
+
+    @Test
+    public void testPutIsPersistent() {
+        LongBPlusTree<String> tree = LongBPlusTree.empty();
+        for (long key = 0; key < 1000; key++) {
+            tree = tree.put(key, "a" + key);
+        }
+
+        LongBPlusTree<String> updated = tree.put(500, "b").put(1000, "c").remove(0);
+
+        assertEquals("a500", tree.get(500));
+        assertNull(tree.get(1000));
+        assertEquals("a0", tree.get(0));
+        assertEquals("b", updated.get(500));
+        assertEquals("c", updated.get(1000));
+        assertNull(updated.get(0));
+    }
+
+    @Test
+    public void testRemoveAbsentKeepsTree() {
+        LongBPlusTree<String> tree = LongBPlusTree.<String>empty().put(1, "a").put(3, "c");
+
+        assertSame(tree, tree.remove(2));
+    }
+
+    @Test
+    public void testExtremeKeys() {
+        LongBPlusTree<String> tree = LongBPlusTree.<String>empty()
+                .put(Long.MAX_VALUE, "max")
+                .put(Long.MIN_VALUE, "min")
+                .put(0, "zero");
+
+        assertEquals(List.of("min", "zero", "max"), toList(tree.iterator(false)));
+        assertEquals(List.of("max", "zero", "min"), toList(tree.iterator(true)));
+        assertEquals(List.of("zero"), toList(tree.iterator(Long.MIN_VALUE, false, Long.MAX_VALUE, false, false)));
+    }
+
+    @Test
+    public void testRandomOperationsMatchTreeMap() {
+        for (int keyRange : new int[]{10, 100, 10_000}) {
+            LongBPlusTree<Long> tree = LongBPlusTree.empty();
+            TreeMap<Long, Long> expected = new TreeMap<>();
+
+            for (int i = 0; i < 20_000; i++) {
+                long key = random.nextInt(keyRange);
+                if (random.nextInt(3) == 0) {
+                    tree = tree.remove(key);
+                    expected.remove(key);
+                } else {
+                    tree = tree.put(key, (long) i);
+                    expected.put(key, (long) i);
+                }
+
+                if (i % 1000 == 0) {
+                    assertSameContent(expected, tree);
+                }
+            }
+            assertSameContent(expected, tree);
+
+            for (Long key : new ArrayList<>(expected.keySet())) {
+                tree = tree.remove(key);
+            }
+            assertTrue(tree.isEmpty());
+        }
+    }
+
+    private void assertSameContent(TreeMap<Long, Long> expected, LongBPlusTree<Long> tree) {
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), tree.get(entry.getKey()));
+        }
+        assertEquals(new ArrayList<>(expected.values()), toList(tree.iterator(false)));
+        assertEquals(new ArrayList<>(expected.descendingMap().values()), toList(tree.iterator(true)));
+
+        for (int i = 0; i < 20; i++) {
+            long from = random.nextInt(expected.isEmpty() ? 1 : expected.lastKey().intValue() + 2) - 1;
+            long to = from + random.nextInt(100);
+            boolean fromInclusive = random.nextBoolean();
+            boolean toInclusive = random.nextBoolean();
+            NavigableMap<Long, Long> subMap = expected.subMap(from, fromInclusive, to, toInclusive);
+
+            assertEquals(new ArrayList<>(subMap.values()),
+                    toList(tree.iterator(from, fromInclusive, to, toInclusive, false)));
+            assertEquals(new ArrayList<>(subMap.descendingMap().values()),
+                    toList(tree.iterator(from, fromInclusive, to, toInclusive, true)));
+        }
+    }
+
+    private static <V> List<V> toList(Iterator<V> iterator) {
+        List<V> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
@@ -30,8 +30,10 @@ import java.util.Collection;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -347,6 +349,38 @@ public class FieldGetterTest {
         assertNull(result);
     }
 
+    @Test
+    public void getValue_whenPrimitiveField_thenReturnBoxedValue() throws Exception {
+        FieldGetter getter = new FieldGetter(null, PrimitiveBloke.class.getDeclaredField("count"), null, null);
+
+        assertEquals(42, getter.getValue(bloke));
+    }
+
+    @Test
+    public void getValue_whenInputIsOfWrongType_thenThrowIllegalArgumentException() throws Exception {
+        FieldGetter getter = new FieldGetter(null, Body.class.getDeclaredField("name"), null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> getter.getValue(leg));
+    }
+
+    @Test
+    public void newAccessor_whenFieldIsInstanceField_thenCreateAccessor() throws Exception {
+        assertNotNull(FieldGetter.newAccessor(Body.class.getDeclaredField("name")));
+    }
+
+    @Test
+    public void newAccessor_whenFieldIsStatic_thenReturnNull() throws Exception {
+        assertNull(FieldGetter.newAccessor(PrimitiveBloke.class.getDeclaredField("STATIC_FIELD")));
+    }
+
+    @Test
+    public void accessorFor_whenCalledForSameField_thenReturnSameAccessor() throws Exception {
+        Field field = Body.class.getDeclaredField("name");
+
+        assertSame(FieldGetter.accessorFor(field), FieldGetter.accessorFor(Body.class.getDeclaredField("name")));
+        assertEquals("bodyName", new FieldGetter(null, field, null, null).getValue(body));
+    }
+
     @Test
     public void getReturnType_whenSetExplicitly_thenReturnIt() {
         FieldGetter getter = new FieldGetter(null, limbCollectionField, "[any]", Limb.class);
@@ -428,6 +462,9 @@ public class FieldGetterTest {
 
     static final class PrimitiveBloke {
 
+        static final Object STATIC_FIELD = new Object();
+
+        public int count = 42;
         public byte[] bytes = new byte[]{1};
         public short[] shorts = new short[]{1};
         public int[] ints = new int[]{1};
@@ -24,14 +24,18 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import static com.hazelcast.test.HazelcastTestSupport.assertInstanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.fail;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -226,6 +230,49 @@ public class MethodGetterTest {
         assertNull(result);
     }
 
+    @Test
+    public void getValue_whenMethodReturnsPrimitive_thenReturnBoxedValue() throws Exception {
+        MethodGetter getter = new MethodGetter(null, Limb.class.getMethod("getNailCount"), null, null);
+
+        assertEquals(2, getter.getValue(leg));
+    }
+
+    @Test
+    public void getValue_whenInputIsOfUnexpectedType_thenThrowIllegalArgumentException() throws Exception {
+        MethodGetter getter = new MethodGetter(null, limbArrayMethod, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> getter.getValue(leg));
+    }
+
+    @Test
+    public void getValue_whenMethodThrows_thenThrowInvocationTargetException() throws Exception {
+        MethodGetter getter = new MethodGetter(null, Limb.class.getMethod("getNameLength"), null, null);
+
+        InvocationTargetException e = assertThrows(InvocationTargetException.class, () -> getter.getValue(unnamedLimb));
+        assertInstanceOf(NullPointerException.class, e.getCause());
+    }
+
+    @Test
+    public void newAccessor_whenMethodIsGetter_thenCreateAccessor() throws Exception {
+        assertNotNull(MethodGetter.newAccessor(Limb.class.getMethod("getName")));
+    }
+
+    @Test
+    public void newAccessor_whenMethodIsVoid_thenReturnNull() throws Exception {
+        assertNull(MethodGetter.newAccessor(Object.class.getMethod("notify")));
+    }
+
+    @Test
+    public void accessorFor_whenCalledForSameMethod_thenReturnSameAccessor() throws Exception {
+        assertSame(MethodGetter.accessorFor(Limb.class.getMethod("getName")),
+                MethodGetter.accessorFor(Limb.class.getMethod("getName")));
+    }
+
+    @Test
+    public void accessorFor_whenAccessorCannotBeCreated_thenReturnNull() throws Exception {
+        assertNull(MethodGetter.accessorFor(Object.class.getMethod("notify")));
+    }
+
     @Test
     public void getReturnType_whenSetExplicitly_thenReturnIt() {
         MethodGetter getter = new MethodGetter(null, limbCollectionMethod, "[any]", Limb.class);
@@ -318,6 +365,14 @@ public class MethodGetterTest {
         public Nail[] getNailArray() {
             return nailArray;
         }
+
+        public int getNailCount() {
+            return nailArray.length;
+        }
+
+        public int getNameLength() {
+            return name.length();
+        }
     }
 
     static final class Nail {
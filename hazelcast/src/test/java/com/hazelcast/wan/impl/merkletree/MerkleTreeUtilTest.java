@@ -33,8 +33,10 @@ import java.io.InputStream;
 import java.util.Collection;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -455,4 +457,29 @@ public class MerkleTreeUtilTest {
         Collection<Integer> deltaOrders = MerkleTreeUtil.compareTrees(merkleTree, remoteMerkleTreeView);
         assertTrue(deltaOrders.isEmpty());
     }
+
+    @Test
+    public void testCompareLeaves() {
+        MerkleTree local = new ArrayMerkleTree(3);
+        MerkleTree remote = new ArrayMerkleTree(3);
+        local.updateAdd(0x80000000, 1); // leaf 3
+        local.updateAdd(0x00000000, 2); // leaf 5
+        remote.updateAdd(0x80000000, 1); // leaf 3
+        remote.updateAdd(0x40000000, 3); // leaf 6
+
+        int[] remoteLeaves = MerkleTreeUtil.getLeaves(remote);
+        assertEquals(4, remoteLeaves.length);
+
+        int[] diff = MerkleTreeUtil.compareLeaves(local, remoteLeaves);
+        assertArrayEquals(new int[]{5, local.getNodeHash(5), 6, 0}, diff);
+        assertEquals(0, MerkleTreeUtil.compareLeaves(local, MerkleTreeUtil.getLeaves(local)).length);
+    }
+
+    @Test
+    public void testCompareLeavesOfDifferentDepths() {
+        MerkleTree local = new ArrayMerkleTree(3);
+        MerkleTree remote = new ArrayMerkleTree(4);
+
+        assertNull(MerkleTreeUtil.compareLeaves(local, MerkleTreeUtil.getLeaves(remote)));
+    }
 }